@@ -29,6 +29,10 @@ public class LUT {
     public static final String TS6P = "Truncated sinc (6 points)";
     public static final String TS8P = "Truncated sinc (8 points)";
     public static final String TS16P = "Truncated sinc (16 points)";
+    public static final String RC6P = "Raised cosine (6 points)";
+
+    // oversampling factor assumed by the raised cosine kernel (sampling rate / bandwidth)
+    protected static final double RC_OVERSAMPLING = 1.25;
 
     private static final int INTERVAL = 127;            // precision: 1./interval [pixel]
     protected final int nInterval = INTERVAL + 1;   // size of lookup table
@@ -199,6 +203,11 @@ public class LUT {
                     if (normalized) kernelTemp.divi(kernelTemp.sum());
                     kernel.putRow(i, kernelTemp);
                     break;
+                case RC6P:
+                    kernelTemp = new DoubleMatrix(rc_kernel(kernelAxis, RC_OVERSAMPLING, kernelLength));
+                    if (normalized) kernelTemp.divi(kernelTemp.sum());
+                    kernel.putRow(i, kernelTemp);
+                    break;
             }
             axisTemp = new DoubleMatrix(kernelAxis);
             axis.putRow(i, axisTemp);
@@ -425,7 +434,7 @@ public class LUT {
                 - y=f(x); function evaluated at x
         */
 
-    private double[] rc_kernel(final double[] x, final double CHI, final int N) {
+    protected double[] rc_kernel(final double[] x, final double CHI, final int N) {
 
         final double[] y = new double[x.length];
         final double v = 1.0 - 1.0 / CHI;// alpha in paper cho05
@@ -433,8 +442,10 @@ public class LUT {
         final double vPI = v * Math.PI;
 
         for (int i = 0; i < y.length; i++) {
-            y[i] = sinc(x[i]) * rect(x[i] / N) *
-                    FastMath.cos(vPI * x[i]) / (1.0 - FastMath.pow(v2 * x[i], 2));
+            final double denom = 1.0 - FastMath.pow(v2 * x[i], 2);
+            // removable singularity at |x| = 1/(2v): cos(pi*u/2)/(1-u^2) -> pi/4
+            final double window = Math.abs(denom) < 1e-9 ? Math.PI / 4.0 : FastMath.cos(vPI * x[i]) / denom;
+            y[i] = sinc(x[i]) * rect(x[i] / N) * window;
         }
         return y;
     } // END rc_kernel
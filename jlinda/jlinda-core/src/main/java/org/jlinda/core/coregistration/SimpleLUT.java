@@ -59,6 +59,10 @@ public class SimpleLUT extends LUT {
                     kernelTmp = new DoubleMatrix(cc6(kernelAxis));
                     kernel.putRow(i, kernelTmp);
                     break;
+                case RC6P:
+                    kernelTmp = new DoubleMatrix(rc_kernel(kernelAxis, RC_OVERSAMPLING, kernelLength));
+                    kernel.putRow(i, kernelTmp);
+                    break;
             }
 
             kernelAxis = new DoubleMatrix(kernelAxis).sub(dx).toArray();
@@ -0,0 +1,414 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.jlinda.core.unwrapping;
+
+import java.util.Arrays;
+
+/**
+ * Minimum cost flow phase unwrapping of a single block of wrapped phase.
+ *
+ * Residues of the wrapped phase gradient field are sources and sinks on the dual grid, with an
+ * additional earth node around the border. Integer corrections of the gradients are the flows on the
+ * dual arcs; the cheapest flow that balances all residues is found by successive shortest paths with
+ * node potentials (Dijkstra on reduced costs), one unit of flow per path. Crossing a pixel edge costs
+ * more the higher the coherence on both sides, so branch cuts run through decorrelated areas.
+ * The corrected gradients are curl free and are integrated from the first pixel.
+ *
+ * Instances hold working buffers and are not thread safe; use one instance per thread.
+ */
+public class MCFUnwrapper {
+
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final int COST_SCALE = 100;
+    private static final double MAX_COHERENCE = 0.99;
+
+    private int numResidues;
+
+    // Dijkstra working storage, grown as needed
+    private long[] heapKey = new long[1024];
+    private int[] heapNode = new int[1024];
+    private int heapSize;
+
+    /**
+     * @return the number of residues (positive and negative) in the last unwrapped block
+     */
+    public int getNumResidues() {
+        return numResidues;
+    }
+
+    public static double wrap(final double phase) {
+        return phase - TWO_PI * Math.rint(phase / TWO_PI);
+    }
+
+    /**
+     * Cost of a unit of flow across a pixel edge with the given coherence.
+     */
+    static int edgeCost(final double coherence) {
+        if (!(coherence > 0)) {
+            return 1;
+        }
+        final double c = Math.min(coherence, MAX_COHERENCE);
+        final double c2 = c * c;
+        return 1 + (int) (COST_SCALE * c2 / (1.0 - c2));
+    }
+
+    /**
+     * Unwraps a block of wrapped phase.
+     *
+     * @param phase     wrapped phase in radians, row major; NaN marks no-data
+     * @param coherence coherence in [0,1] per pixel, or null for uniform costs
+     * @param width     block width
+     * @param height    block height
+     * @return unwrapped phase, NaN where the input was NaN
+     */
+    public float[] unwrap(final float[] phase, final float[] coherence, final int width, final int height) {
+        final int n = width * height;
+        if (phase.length < n || (coherence != null && coherence.length < n)) {
+            throw new IllegalArgumentException("Block of " + width + 'x' + height + " exceeds the input arrays");
+        }
+
+        // wrapped gradients; no-data pixels take part with zero phase and zero coherence
+        final double[] gx = new double[height * Math.max(width - 1, 0)];
+        final double[] gy = new double[Math.max(height - 1, 0) * width];
+        for (int i = 0; i < height; ++i) {
+            for (int j = 0; j < width - 1; ++j) {
+                gx[i * (width - 1) + j] = wrap(value(phase, i * width + j + 1) - value(phase, i * width + j));
+            }
+        }
+        for (int i = 0; i < height - 1; ++i) {
+            for (int j = 0; j < width; ++j) {
+                gy[i * width + j] = wrap(value(phase, (i + 1) * width + j) - value(phase, i * width + j));
+            }
+        }
+
+        numResidues = 0;
+        if (width > 1 && height > 1) {
+            final FlowNetwork network = new FlowNetwork(width, height, gx, gy, phase, coherence);
+            numResidues = network.numResidues;
+            if (numResidues > 0) {
+                network.solve();
+                network.applyFlows(gx, gy);
+            }
+        }
+
+        // integrate along the first row, then down every column
+        final double[] unw = new double[n];
+        unw[0] = value(phase, 0);
+        for (int j = 1; j < width; ++j) {
+            unw[j] = unw[j - 1] + gx[j - 1];
+        }
+        for (int i = 1; i < height; ++i) {
+            for (int j = 0; j < width; ++j) {
+                unw[i * width + j] = unw[(i - 1) * width + j] + gy[(i - 1) * width + j];
+            }
+        }
+
+        final float[] result = new float[n];
+        for (int k = 0; k < n; ++k) {
+            result[k] = Float.isNaN(phase[k]) ? Float.NaN : (float) unw[k];
+        }
+        return result;
+    }
+
+    private static double value(final float[] phase, final int k) {
+        final float v = phase[k];
+        return Float.isNaN(v) ? 0.0 : v;
+    }
+
+    private static double coherence(final float[] phase, final float[] coherence, final int k) {
+        if (Float.isNaN(phase[k])) {
+            return 0.0;
+        }
+        return coherence == null ? 0.0 : coherence[k];
+    }
+
+    /**
+     * Dual grid of the block: node (i,j) is the loop of pixels (i,j),(i,j+1),(i+1,j+1),(i+1,j);
+     * the last node is the earth outside the block. Arc e carries the integer correction of one
+     * wrapped gradient: horizontal gradient (i,j) flows from dual (i-1,j) to dual (i,j) and vertical
+     * gradient (i,j) from dual (i,j) to dual (i,j-1).
+     */
+    private final class FlowNetwork {
+
+        final int numDualNodes;
+        final int earth;
+        final int numNodes;
+        final int numHorizontal;
+        final int[] arcFrom;
+        final int[] arcTo;
+        final int[] arcCost;
+        final int[] flow;
+        final int[] supply;
+        final int numResidues;
+
+        // node -> incident arcs, sign encodes direction (+ if the node is the tail of the arc)
+        final int[] adjStart;
+        final int[] adjArc;
+
+        final long[] potential;
+        final long[] dist;
+        final int[] parentArc;
+        final int[] visitStamp;
+        final boolean[] done;
+        int stamp = 0;
+
+        FlowNetwork(final int width, final int height, final double[] gx, final double[] gy,
+                    final float[] phase, final float[] coherence) {
+            final int dw = width - 1;
+            final int dh = height - 1;
+            numDualNodes = dw * dh;
+            earth = numDualNodes;
+            numNodes = numDualNodes + 1;
+
+            supply = new int[numNodes];
+            int count = 0, sum = 0;
+            for (int i = 0; i < dh; ++i) {
+                for (int j = 0; j < dw; ++j) {
+                    final double loop = gx[i * dw + j] + gy[i * width + j + 1] - gx[(i + 1) * dw + j] - gy[i * width + j];
+                    final int r = (int) Math.rint(loop / TWO_PI);
+                    supply[i * dw + j] = r;
+                    count += Math.abs(r);
+                    sum += r;
+                }
+            }
+            supply[earth] = -sum;
+            numResidues = count;
+
+            numHorizontal = height * dw;
+            final int numArcs = numHorizontal + dh * width;
+            arcFrom = new int[numArcs];
+            arcTo = new int[numArcs];
+            arcCost = new int[numArcs];
+            flow = new int[numArcs];
+
+            for (int i = 0; i < height; ++i) {
+                for (int j = 0; j < dw; ++j) {
+                    final int a = i * dw + j;
+                    arcFrom[a] = i == 0 ? earth : (i - 1) * dw + j;
+                    arcTo[a] = i == dh ? earth : i * dw + j;
+                    final int k = i * width + j;
+                    arcCost[a] = edgeCost(Math.min(coherence(phase, coherence, k), coherence(phase, coherence, k + 1)));
+                }
+            }
+            for (int i = 0; i < dh; ++i) {
+                for (int j = 0; j < width; ++j) {
+                    final int a = numHorizontal + i * width + j;
+                    arcFrom[a] = j == dw ? earth : i * dw + j;
+                    arcTo[a] = j == 0 ? earth : i * dw + j - 1;
+                    final int k = i * width + j;
+                    arcCost[a] = edgeCost(Math.min(coherence(phase, coherence, k), coherence(phase, coherence, k + width)));
+                }
+            }
+
+            // arcs with both ends on the earth (1 pixel wide blocks) never carry flow
+            adjStart = new int[numNodes + 1];
+            for (int a = 0; a < numArcs; ++a) {
+                if (arcFrom[a] != arcTo[a]) {
+                    ++adjStart[arcFrom[a] + 1];
+                    ++adjStart[arcTo[a] + 1];
+                }
+            }
+            for (int v = 0; v < numNodes; ++v) {
+                adjStart[v + 1] += adjStart[v];
+            }
+            adjArc = new int[adjStart[numNodes]];
+            final int[] fill = Arrays.copyOf(adjStart, numNodes);
+            for (int a = 0; a < numArcs; ++a) {
+                if (arcFrom[a] != arcTo[a]) {
+                    adjArc[fill[arcFrom[a]]++] = a + 1;
+                    adjArc[fill[arcTo[a]]++] = -(a + 1);
+                }
+            }
+
+            potential = new long[numNodes + 1];    // last entry is the virtual source
+            dist = new long[numNodes];
+            parentArc = new int[numNodes];
+            visitStamp = new int[numNodes];
+            done = new boolean[numNodes];
+        }
+
+        /**
+         * Cost of pushing one unit along arc a (signed as in adjArc) given its current flow.
+         */
+        private int residualCost(final int signedArc) {
+            if (signedArc > 0) {
+                final int a = signedArc - 1;
+                return flow[a] >= 0 ? arcCost[a] : -arcCost[a];
+            } else {
+                final int a = -signedArc - 1;
+                return flow[a] <= 0 ? arcCost[a] : -arcCost[a];
+            }
+        }
+
+        void solve() {
+            final int source = numNodes;
+            final int[] finished = new int[numNodes];
+
+            // supplies only ever decrease, so the set of sources shrinks
+            int numSources = 0;
+            final int[] sources = new int[numNodes];
+            for (int v = 0; v < numNodes; ++v) {
+                if (supply[v] > 0) {
+                    sources[numSources++] = v;
+                }
+            }
+
+            while (true) {
+                ++stamp;
+                heapSize = 0;
+                int remaining = 0;
+                for (int k = 0; k < numSources; ++k) {
+                    final int v = sources[k];
+                    if (supply[v] > 0) {
+                        sources[remaining++] = v;
+                        label(v, potential[source] - potential[v], 0);
+                    }
+                }
+                numSources = remaining;
+                if (numSources == 0) {
+                    break;
+                }
+
+                // Dijkstra on reduced costs until the cheapest path into a sink is settled
+                int numFinished = 0;
+                int sink = -1;
+                long sinkDist = Long.MAX_VALUE;
+                while (heapSize > 0) {
+                    final long d = heapKey[0];
+                    final int u = popMin();
+                    if (u < 0) {
+                        // virtual sink entry
+                        sink = -u - 1;
+                        sinkDist = d;
+                        break;
+                    }
+                    if (done[u] || d > dist[u]) {
+                        continue;
+                    }
+                    done[u] = true;
+                    finished[numFinished++] = u;
+                    if (supply[u] < 0) {
+                        // arc into the virtual sink, whose potential is the global offset (0 here)
+                        push(d + potential[u], -u - 1);
+                    }
+                    for (int p = adjStart[u]; p < adjStart[u + 1]; ++p) {
+                        final int signedArc = adjArc[p];
+                        final int a = Math.abs(signedArc) - 1;
+                        final int v = signedArc > 0 ? arcTo[a] : arcFrom[a];
+                        final long reduced = residualCost(signedArc) + potential[u] - potential[v];
+                        label(v, d + reduced, signedArc);
+                    }
+                }
+                if (sink < 0) {
+                    throw new IllegalStateException("Unbalanced residues in flow network");
+                }
+
+                // potentials keep every residual arc non-negative; unsettled nodes are shifted by sinkDist,
+                // applied here as a relative shift of the settled ones
+                for (int k = 0; k < numFinished; ++k) {
+                    final int v = finished[k];
+                    potential[v] -= sinkDist - dist[v];
+                    done[v] = false;
+                }
+                potential[source] -= sinkDist;
+
+                // augment one unit from the source of the path to the sink
+                int v = sink;
+                while (parentArc[v] != 0) {
+                    final int signedArc = parentArc[v];
+                    final int a = Math.abs(signedArc) - 1;
+                    if (signedArc > 0) {
+                        ++flow[a];
+                        v = arcFrom[a];
+                    } else {
+                        --flow[a];
+                        v = arcTo[a];
+                    }
+                }
+                --supply[v];
+                ++supply[sink];
+            }
+        }
+
+        private void label(final int v, final long d, final int signedArc) {
+            if (visitStamp[v] != stamp) {
+                visitStamp[v] = stamp;
+                done[v] = false;
+            } else if (done[v] || d >= dist[v]) {
+                return;
+            }
+            dist[v] = d;
+            parentArc[v] = signedArc;
+            push(d, v);
+        }
+
+        void applyFlows(final double[] gx, final double[] gy) {
+            for (int a = 0; a < numHorizontal; ++a) {
+                gx[a] += TWO_PI * flow[a];
+            }
+            for (int a = numHorizontal; a < flow.length; ++a) {
+                gy[a - numHorizontal] += TWO_PI * flow[a];
+            }
+        }
+    }
+
+    private void push(final long key, final int node) {
+        if (heapSize == heapKey.length) {
+            heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+            heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (heapKey[parent] <= key) {
+                break;
+            }
+            heapKey[i] = heapKey[parent];
+            heapNode[i] = heapNode[parent];
+            i = parent;
+        }
+        heapKey[i] = key;
+        heapNode[i] = node;
+    }
+
+    private int popMin() {
+        final int top = heapNode[0];
+        final int last = --heapSize;
+        if (last > 0) {
+            final long key = heapKey[last];
+            final int node = heapNode[last];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= last) {
+                    break;
+                }
+                if (child + 1 < last && heapKey[child + 1] < heapKey[child]) {
+                    ++child;
+                }
+                if (heapKey[child] >= key) {
+                    break;
+                }
+                heapKey[i] = heapKey[child];
+                heapNode[i] = heapNode[child];
+                i = child;
+            }
+            heapKey[i] = key;
+            heapNode[i] = node;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.jlinda.core.unwrapping;
+
+import org.esa.snap.core.util.ThreadExecutor;
+import org.esa.snap.core.util.ThreadRunnable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Phase unwrapping of a large interferogram by independent {@link MCFUnwrapper} solves on overlapping tiles.
+ *
+ * The image is cut into a grid of tiles, each extended by an overlap on every side and unwrapped on its
+ * own in parallel; only the tile solutions are kept, never the full wrapped input. Each solution is
+ * correct up to an integer number of cycles, so the cycle offset between neighbouring tiles is
+ * estimated as the most common rounded difference over their overlap. Offsets are propagated from the
+ * largest tile along a maximum spanning tree of the tile graph, weighted by how many overlap pixels
+ * agree, so unreliable seams are the last to be used.
+ *
+ * The tile solutions together cover the whole scene, so once solved an instance holds about
+ * 4 * width * height * (1 + 2 * overlap / tileSize)^2 bytes, e.g. roughly 3.1 GB for a 20000 x 25000
+ * interferogram with the default 512 pixel tiles and 64 pixel overlap. They are needed until every
+ * target tile has been copied out, since any pixel may be requested after the cycle offsets are fixed.
+ */
+public class TiledUnwrapper {
+
+    private static final double TWO_PI = 2.0 * Math.PI;
+
+    /**
+     * Supplies the wrapped phase and coherence of a rectangle of the interferogram.
+     */
+    public interface PhaseSource {
+        /**
+         * @param phase     to be filled with wrapped phase, row major, NaN for no-data
+         * @param coherence to be filled with coherence, row major
+         */
+        void read(int x0, int y0, int w, int h, float[] phase, float[] coherence) throws Exception;
+    }
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int overlap;
+    private final int numTilesX;
+    private final int numTilesY;
+    private final Tile[] tiles;
+    private volatile boolean solved = false;
+
+    private static final class Tile {
+        // extended rectangle that was unwrapped
+        int x0, y0, w, h;
+        float[] unwrapped;
+        int cycles;
+        int numValid;
+    }
+
+    public TiledUnwrapper(final int width, final int height, final int tileSize, final int overlap) {
+        if (tileSize < 2 || overlap < 1) {
+            throw new IllegalArgumentException("Invalid tile size " + tileSize + " or overlap " + overlap);
+        }
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.overlap = overlap;
+        this.numTilesX = (width + tileSize - 1) / tileSize;
+        this.numTilesY = (height + tileSize - 1) / tileSize;
+        this.tiles = new Tile[numTilesX * numTilesY];
+        for (int ty = 0; ty < numTilesY; ++ty) {
+            for (int tx = 0; tx < numTilesX; ++tx) {
+                final Tile tile = new Tile();
+                tile.x0 = Math.max(tx * tileSize - overlap, 0);
+                tile.y0 = Math.max(ty * tileSize - overlap, 0);
+                tile.w = Math.min((tx + 1) * tileSize + overlap, width) - tile.x0;
+                tile.h = Math.min((ty + 1) * tileSize + overlap, height) - tile.y0;
+                tiles[ty * numTilesX + tx] = tile;
+            }
+        }
+    }
+
+    public int getNumTiles() {
+        return tiles.length;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Unwraps all tiles in parallel and reconciles their cycle offsets.
+     */
+    public void solve(final PhaseSource source) throws Exception {
+        final ThreadExecutor executor = new ThreadExecutor();
+        final ThreadLocal<MCFUnwrapper> unwrapper = ThreadLocal.withInitial(MCFUnwrapper::new);
+
+        for (final Tile tile : tiles) {
+            final ThreadRunnable worker = new ThreadRunnable() {
+
+                @Override
+                public void process() throws Exception {
+                    final float[] phase = new float[tile.w * tile.h];
+                    final float[] coherence = new float[tile.w * tile.h];
+                    source.read(tile.x0, tile.y0, tile.w, tile.h, phase, coherence);
+                    tile.unwrapped = unwrapper.get().unwrap(phase, coherence, tile.w, tile.h);
+                    int count = 0;
+                    for (float v : tile.unwrapped) {
+                        if (!Float.isNaN(v)) {
+                            ++count;
+                        }
+                    }
+                    tile.numValid = count;
+                }
+            };
+            executor.execute(worker);
+        }
+        executor.complete();
+
+        reconcile();
+        solved = true;
+    }
+
+    /**
+     * Convenience for an interferogram held in memory.
+     */
+    public float[] unwrap(final float[] phase, final float[] coherence) throws Exception {
+        solve((x0, y0, w, h, p, c) -> {
+            for (int y = 0; y < h; ++y) {
+                System.arraycopy(phase, (y0 + y) * width + x0, p, y * w, w);
+                if (coherence != null) {
+                    System.arraycopy(coherence, (y0 + y) * width + x0, c, y * w, w);
+                } else {
+                    Arrays.fill(c, y * w, (y + 1) * w, 1.0f);
+                }
+            }
+        });
+
+        final float[] result = new float[width * height];
+        getUnwrapped(0, 0, width, height, result);
+        return result;
+    }
+
+    /**
+     * Copies the reconciled unwrapped phase of a rectangle. Each pixel is taken from the tile whose
+     * core (the tile without its overlap) contains it.
+     */
+    public void getUnwrapped(final int x0, final int y0, final int w, final int h, final float[] out) {
+        if (!solved) {
+            throw new IllegalStateException("Unwrapping has not been solved");
+        }
+        for (int y = y0; y < y0 + h; ++y) {
+            final int ty = Math.min(y / tileSize, numTilesY - 1);
+            for (int x = x0; x < x0 + w; ++x) {
+                final int tx = Math.min(x / tileSize, numTilesX - 1);
+                final Tile tile = tiles[ty * numTilesX + tx];
+                final float v = tile.unwrapped[(y - tile.y0) * tile.w + (x - tile.x0)];
+                out[(y - y0) * w + (x - x0)] = (float) (v + TWO_PI * tile.cycles);
+            }
+        }
+    }
+
+    private static final class Seam implements Comparable<Seam> {
+        final int a, b;
+        final int cycles;   // b = a + cycles
+        final int weight;
+
+        Seam(final int a, final int b, final int cycles, final int weight) {
+            this.a = a;
+            this.b = b;
+            this.cycles = cycles;
+            this.weight = weight;
+        }
+
+        public int compareTo(final Seam o) {
+            return Integer.compare(o.weight, weight);
+        }
+    }
+
+    /**
+     * Estimates the cycle offset between two tiles from their overlap; null if they share no valid pixel.
+     */
+    private Seam estimateSeam(final int ia, final int ib) {
+        final Tile a = tiles[ia];
+        final Tile b = tiles[ib];
+        final int xs = Math.max(a.x0, b.x0), xe = Math.min(a.x0 + a.w, b.x0 + b.w);
+        final int ys = Math.max(a.y0, b.y0), ye = Math.min(a.y0 + a.h, b.y0 + b.h);
+
+        final Map<Integer, Integer> histogram = new HashMap<>();
+        for (int y = ys; y < ye; ++y) {
+            for (int x = xs; x < xe; ++x) {
+                final float va = a.unwrapped[(y - a.y0) * a.w + (x - a.x0)];
+                final float vb = b.unwrapped[(y - b.y0) * b.w + (x - b.x0)];
+                if (Float.isNaN(va) || Float.isNaN(vb)) {
+                    continue;
+                }
+                histogram.merge((int) Math.rint((vb - va) / TWO_PI), 1, Integer::sum);
+            }
+        }
+        Map.Entry<Integer, Integer> best = null;
+        for (Map.Entry<Integer, Integer> entry : histogram.entrySet()) {
+            if (best == null || entry.getValue() > best.getValue()) {
+                best = entry;
+            }
+        }
+        return best == null ? null : new Seam(ia, ib, best.getKey(), best.getValue());
+    }
+
+    private void reconcile() {
+        final List<List<Seam>> seams = new ArrayList<>(tiles.length);
+        for (int i = 0; i < tiles.length; ++i) {
+            seams.add(new ArrayList<>());
+        }
+        for (int ty = 0; ty < numTilesY; ++ty) {
+            for (int tx = 0; tx < numTilesX; ++tx) {
+                final int i = ty * numTilesX + tx;
+                if (tx + 1 < numTilesX) {
+                    addSeam(seams, estimateSeam(i, i + 1));
+                }
+                if (ty + 1 < numTilesY) {
+                    addSeam(seams, estimateSeam(i, i + numTilesX));
+                }
+            }
+        }
+
+        // Prim's algorithm on seam weights, one component at a time starting from its largest tile
+        final boolean[] placed = new boolean[tiles.length];
+        final Integer[] order = new Integer[tiles.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (p, q) -> Integer.compare(tiles[q].numValid, tiles[p].numValid));
+
+        final PriorityQueue<Seam> queue = new PriorityQueue<>();
+        for (int root : order) {
+            if (placed[root]) {
+                continue;
+            }
+            placed[root] = true;
+            tiles[root].cycles = 0;
+            queue.addAll(seams.get(root));
+            while (!queue.isEmpty()) {
+                final Seam seam = queue.poll();
+                final int next;
+                if (placed[seam.a] && !placed[seam.b]) {
+                    next = seam.b;
+                    tiles[next].cycles = tiles[seam.a].cycles - seam.cycles;
+                } else if (placed[seam.b] && !placed[seam.a]) {
+                    next = seam.a;
+                    tiles[next].cycles = tiles[seam.b].cycles + seam.cycles;
+                } else {
+                    continue;
+                }
+                placed[next] = true;
+                queue.addAll(seams.get(next));
+            }
+        }
+    }
+
+    private static void addSeam(final List<List<Seam>> seams, final Seam seam) {
+        if (seam != null) {
+            seams.get(seam.a).add(seam);
+            seams.get(seam.b).add(seam);
+        }
+    }
+}
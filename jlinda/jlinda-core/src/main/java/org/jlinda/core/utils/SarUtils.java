@@ -8,6 +8,7 @@ import org.jblas.DoubleMatrix;
 import org.jblas.Solve;
 import org.jlinda.core.Window;
 
+import java.util.Arrays;
 import java.util.logging.Logger;
 
 import static org.jblas.MatrixFunctions.pow;
@@ -17,6 +18,9 @@ public class SarUtils {
 
     static Logger logger = SystemUtils.LOG;
 
+    // output columns per block of the running-sum coherence
+    private static final int COHERENCE_BLOCK_WIDTH = 256;
+
     /**
      * HARMONIC INTERPOLATION
      * B=oversample(A, factorrow, factorcol);
@@ -384,6 +388,139 @@ public class SarUtils {
         return result;
     }
 
+    /**
+     * Sliding window coherence of one reference against several secondaries, on interleaved primitive arrays.
+     * The window sums of the cross product and of both powers are separable running sums, first along each
+     * row over winP samples and then down the columns over winL rows, all three computed in one pass.
+     * Columns are processed in blocks so that the row sums of the last winL rows stay in cache, and the
+     * reference power is summed once for all secondaries.
+     *
+     * @param reference   reference samples, interleaved real and imaginary parts, row-major rows x cols
+     * @param secondaries secondary samples in the same layout as the reference
+     * @param rows        number of rows of the input
+     * @param cols        number of columns of the input
+     * @param winL        window size in azimuth (rows)
+     * @param winP        window size in range (columns)
+     * @param results     one output per secondary, receiving (rows - winL + 1) x (cols - winP + 1) values
+     * @param offset      index of the first output value in each result
+     * @param stride      distance between the output rows in each result
+     */
+    public static void coherence(final double[] reference, final double[][] secondaries,
+                                 final int rows, final int cols, final int winL, final int winP,
+                                 final float[][] results, final int offset, final int stride) {
+
+        final int resRows = rows - winL + 1;
+        final int resCols = cols - winP + 1;
+        if (winL < 1 || winP < 1 || resRows < 1 || resCols < 1) {
+            throw new IllegalArgumentException("coherence: window " + winL + " x " + winP +
+                    " does not fit the input " + rows + " x " + cols);
+        }
+        if (secondaries.length != results.length) {
+            throw new IllegalArgumentException("coherence: " + secondaries.length + " secondaries but " +
+                    results.length + " results");
+        }
+
+        final int numSec = secondaries.length;
+        final int blockWidth = Math.min(COHERENCE_BLOCK_WIDTH, resCols);
+
+        // row sums of the last winL rows, indexed by (row % winL) * blockWidth + column
+        final double[] refPowerRows = new double[winL * blockWidth];
+        final double[][] crossReRows = new double[numSec][winL * blockWidth];
+        final double[][] crossImRows = new double[numSec][winL * blockWidth];
+        final double[][] secPowerRows = new double[numSec][winL * blockWidth];
+
+        // window sums of the current output row
+        final double[] refPowerSum = new double[blockWidth];
+        final double[][] crossReSum = new double[numSec][blockWidth];
+        final double[][] crossImSum = new double[numSec][blockWidth];
+        final double[][] secPowerSum = new double[numSec][blockWidth];
+
+        for (int c0 = 0; c0 < resCols; c0 += blockWidth) {
+            final int bw = Math.min(blockWidth, resCols - c0);
+
+            Arrays.fill(refPowerRows, 0.0);
+            Arrays.fill(refPowerSum, 0.0);
+            for (int n = 0; n < numSec; n++) {
+                Arrays.fill(crossReRows[n], 0.0);
+                Arrays.fill(crossImRows[n], 0.0);
+                Arrays.fill(secPowerRows[n], 0.0);
+                Arrays.fill(crossReSum[n], 0.0);
+                Arrays.fill(crossImSum[n], 0.0);
+                Arrays.fill(secPowerSum[n], 0.0);
+            }
+
+            for (int r = 0; r < rows; r++) {
+                final int ring = (r % winL) * blockWidth;
+                final int rowStart = 2 * (r * cols + c0);
+                final int tail = 2 * (winP - 1);
+
+                double power = 0.0;
+                int in = rowStart;
+                for (int k = 0; k < winP - 1; k++, in += 2) {
+                    power += reference[in] * reference[in] + reference[in + 1] * reference[in + 1];
+                }
+                for (int x = 0; x < bw; x++, in += 2) {
+                    power += reference[in] * reference[in] + reference[in + 1] * reference[in + 1];
+                    refPowerSum[x] += power - refPowerRows[ring + x];
+                    refPowerRows[ring + x] = power;
+                    final int out = in - tail;
+                    power -= reference[out] * reference[out] + reference[out + 1] * reference[out + 1];
+                }
+
+                for (int n = 0; n < numSec; n++) {
+                    final double[] secondary = secondaries[n];
+                    final double[] reRows = crossReRows[n];
+                    final double[] imRows = crossImRows[n];
+                    final double[] powRows = secPowerRows[n];
+                    final double[] reSum = crossReSum[n];
+                    final double[] imSum = crossImSum[n];
+                    final double[] powSum = secPowerSum[n];
+
+                    double re = 0.0, im = 0.0, pow = 0.0;
+                    in = rowStart;
+                    for (int k = 0; k < winP - 1; k++, in += 2) {
+                        final double mr = reference[in], mi = reference[in + 1];
+                        final double sr = secondary[in], si = secondary[in + 1];
+                        re += mr * sr + mi * si;
+                        im += mi * sr - mr * si;
+                        pow += sr * sr + si * si;
+                    }
+                    for (int x = 0; x < bw; x++, in += 2) {
+                        final double mr = reference[in], mi = reference[in + 1];
+                        final double sr = secondary[in], si = secondary[in + 1];
+                        re += mr * sr + mi * si;
+                        im += mi * sr - mr * si;
+                        pow += sr * sr + si * si;
+
+                        reSum[x] += re - reRows[ring + x];
+                        imSum[x] += im - imRows[ring + x];
+                        powSum[x] += pow - powRows[ring + x];
+                        reRows[ring + x] = re;
+                        imRows[ring + x] = im;
+                        powRows[ring + x] = pow;
+
+                        final int out = in - tail;
+                        final double mr0 = reference[out], mi0 = reference[out + 1];
+                        final double sr0 = secondary[out], si0 = secondary[out + 1];
+                        re -= mr0 * sr0 + mi0 * si0;
+                        im -= mi0 * sr0 - mr0 * si0;
+                        pow -= sr0 * sr0 + si0 * si0;
+                    }
+
+                    if (r >= winL - 1) {
+                        final float[] result = results[n];
+                        final int outStart = offset + (r - winL + 1) * stride + c0;
+                        for (int x = 0; x < bw; x++) {
+                            final double product = refPowerSum[x] * powSum[x];
+                            result[outStart + x] = product > 0.0 ?
+                                    (float) (Math.sqrt(reSum[x] * reSum[x] + imSum[x] * imSum[x]) / Math.sqrt(product)) : 0.0f;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     public static DoubleMatrix coherence_LPR(final ComplexDoubleMatrix input, final ComplexDoubleMatrix norms, final int winL, final int winP) {
         final int rows = input.rows;
         final int cols = input.columns;
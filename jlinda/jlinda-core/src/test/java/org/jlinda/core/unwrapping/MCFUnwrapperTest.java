@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.jlinda.core.unwrapping;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link MCFUnwrapper}.
+ */
+public class MCFUnwrapperTest {
+
+    static final int W = 64;
+    static final int H = 48;
+
+    static float[] gaussianHill(final int w, final int h, final double amplitude) {
+        final float[] truth = new float[w * h];
+        for (int y = 0; y < h; ++y) {
+            for (int x = 0; x < w; ++x) {
+                final double dx = (x - w / 2.0) / (w / 4.0);
+                final double dy = (y - h / 2.0) / (h / 4.0);
+                truth[y * w + x] = (float) (amplitude * Math.exp(-(dx * dx + dy * dy)) + 0.15 * x);
+            }
+        }
+        return truth;
+    }
+
+    static float[] wrap(final float[] truth) {
+        final float[] wrapped = new float[truth.length];
+        for (int i = 0; i < truth.length; ++i) {
+            wrapped[i] = (float) MCFUnwrapper.wrap(truth[i]);
+        }
+        return wrapped;
+    }
+
+    static void assertEqualsUpToCycles(final float[] expected, final float[] actual, final double tol) {
+        final double cycles = Math.rint((actual[0] - expected[0]) / (2 * Math.PI));
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals("pixel " + i, expected[i] + 2 * Math.PI * cycles, actual[i], tol);
+        }
+    }
+
+    @Test
+    public void testWrap() {
+        assertEquals(0.5, MCFUnwrapper.wrap(0.5 + 4 * Math.PI), 1e-12);
+        assertEquals(-0.5, MCFUnwrapper.wrap(-0.5 - 2 * Math.PI), 1e-12);
+        assertTrue(Math.abs(MCFUnwrapper.wrap(3.5)) <= Math.PI);
+    }
+
+    @Test
+    public void testEdgeCostIncreasesWithCoherence() {
+        assertTrue(MCFUnwrapper.edgeCost(0.9) > MCFUnwrapper.edgeCost(0.5));
+        assertTrue(MCFUnwrapper.edgeCost(0.5) > MCFUnwrapper.edgeCost(0.1));
+        assertTrue(MCFUnwrapper.edgeCost(0.0) >= 1);
+    }
+
+    @Test
+    public void testSmoothSurfaceIsRecoveredExactly() {
+        final float[] truth = gaussianHill(W, H, 25);
+        final MCFUnwrapper unwrapper = new MCFUnwrapper();
+        final float[] result = unwrapper.unwrap(wrap(truth), null, W, H);
+
+        assertEquals(0, unwrapper.getNumResidues());
+        assertEqualsUpToCycles(truth, result, 1e-3);
+    }
+
+    @Test
+    public void testVortexIsConsistentWithInput() {
+        final float[] wrapped = new float[W * H];
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                wrapped[y * W + x] = (float) Math.atan2(y - H / 2.0 + 0.5, x - W / 2.0 + 0.5);
+            }
+        }
+        final MCFUnwrapper unwrapper = new MCFUnwrapper();
+        final float[] result = unwrapper.unwrap(wrapped, null, W, H);
+
+        assertEquals(1, unwrapper.getNumResidues());
+        for (int i = 0; i < wrapped.length; ++i) {
+            assertEquals(0, MCFUnwrapper.wrap(result[i] - wrapped[i]), 1e-3);
+        }
+    }
+
+    @Test
+    public void testNoisyLowCoherenceRegion() {
+        final float[] truth = gaussianHill(W, H, 25);
+        final float[] wrapped = wrap(truth);
+        final float[] coherence = new float[W * H];
+        final Random random = new Random(7);
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                final int k = y * W + x;
+                if (x >= 5 && x < 13 && y >= 5 && y < 13) {
+                    wrapped[k] = (float) ((random.nextDouble() * 2 - 1) * Math.PI);
+                    coherence[k] = 0.05f;
+                } else {
+                    coherence[k] = 0.9f;
+                }
+            }
+        }
+        final MCFUnwrapper unwrapper = new MCFUnwrapper();
+        final float[] result = unwrapper.unwrap(wrapped, coherence, W, H);
+
+        assertTrue(unwrapper.getNumResidues() > 0);
+        // residues inside the noise are paired within the incoherent patch, away from the signal
+        final double cycles = Math.rint((result[H * W - 1] - truth[H * W - 1]) / (2 * Math.PI));
+        int wrong = 0;
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                final int k = y * W + x;
+                if (coherence[k] > 0.5f && Math.abs(result[k] - truth[k] - 2 * Math.PI * cycles) > 1e-3) {
+                    ++wrong;
+                }
+                assertEquals(0, MCFUnwrapper.wrap(result[k] - wrapped[k]), 1e-3);
+            }
+        }
+        assertTrue("wrong pixels " + wrong, wrong < W * H / 100);
+    }
+
+    @Test
+    public void testNoDataIsPropagated() {
+        final float[] wrapped = wrap(gaussianHill(W, H, 10));
+        wrapped[3 * W + 7] = Float.NaN;
+        final float[] result = new MCFUnwrapper().unwrap(wrapped, null, W, H);
+        assertTrue(Float.isNaN(result[3 * W + 7]));
+        assertTrue(!Float.isNaN(result[3 * W + 8]));
+    }
+}
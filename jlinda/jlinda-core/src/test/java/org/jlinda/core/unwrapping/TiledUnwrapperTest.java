@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.jlinda.core.unwrapping;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link TiledUnwrapper}.
+ */
+public class TiledUnwrapperTest {
+
+    private static final int W = 150;
+    private static final int H = 110;
+
+    @Test
+    public void testTiledMatchesSingleBlock() throws Exception {
+        final float[] truth = MCFUnwrapperTest.gaussianHill(W, H, 60);
+        final float[] wrapped = MCFUnwrapperTest.wrap(truth);
+
+        final float[] single = new MCFUnwrapper().unwrap(wrapped, null, W, H);
+
+        final TiledUnwrapper tiled = new TiledUnwrapper(W, H, 40, 8);
+        assertEquals(12, tiled.getNumTiles());
+        final float[] result = tiled.unwrap(wrapped, null);
+
+        assertTrue(tiled.isSolved());
+        MCFUnwrapperTest.assertEqualsUpToCycles(single, result, 1e-3);
+        MCFUnwrapperTest.assertEqualsUpToCycles(truth, result, 1e-3);
+    }
+
+    @Test
+    public void testSubsetReadout() throws Exception {
+        final float[] wrapped = MCFUnwrapperTest.wrap(MCFUnwrapperTest.gaussianHill(W, H, 30));
+        final TiledUnwrapper tiled = new TiledUnwrapper(W, H, 32, 4);
+        final float[] full = tiled.unwrap(wrapped, null);
+
+        final float[] part = new float[20 * 15];
+        tiled.getUnwrapped(30, 60, 20, 15, part);
+        for (int y = 0; y < 15; ++y) {
+            for (int x = 0; x < 20; ++x) {
+                assertEquals(full[(60 + y) * W + 30 + x], part[y * 20 + x], 0f);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadBeforeSolve() {
+        new TiledUnwrapper(W, H, 32, 4).getUnwrapped(0, 0, 1, 1, new float[1]);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.jlinda.core.utils;
+
+import org.jblas.ComplexDouble;
+import org.jblas.ComplexDoubleMatrix;
+import org.jblas.DoubleMatrix;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Equivalence of the running-sum {@link SarUtils#coherence(double[], double[][], int, int, int, int, float[][], int, int)}
+ * kernel with {@link SarUtils#coherence2} and {@link SarUtils#coherence3}.
+ */
+public class SarUtilsCoherenceTest {
+
+    private static final double DELTA = 1e-6;
+
+    // wider than one column block of the kernel
+    private static final int ROWS = 37;
+    private static final int COLS = 300;
+
+    @Test
+    public void testMatchesCoherence2And3() {
+        final Random random = new Random(5);
+        final double[] reference = createSpeckle(ROWS, COLS, random);
+        final double[] secondary = createSecondary(reference, 0.7, random);
+
+        for (int[] win : new int[][]{{3, 10}, {5, 5}, {10, 3}, {1, 1}, {ROWS, 20}}) {
+            final int winL = win[0], winP = win[1];
+            final ComplexDoubleMatrix input = new ComplexDoubleMatrix(ROWS, COLS);
+            final ComplexDoubleMatrix norms = new ComplexDoubleMatrix(ROWS, COLS);
+            toCoherenceInput(reference, secondary, input, norms);
+
+            final DoubleMatrix coh2 = SarUtils.coherence2(input, norms, winL, winP);
+            final DoubleMatrix coh3 = SarUtils.coherence3(input, norms, winL, winP);
+
+            final int resRows = ROWS - winL + 1;
+            final int resCols = COLS - winP + 1;
+            final float[] result = new float[resRows * resCols];
+            SarUtils.coherence(reference, new double[][]{secondary}, ROWS, COLS, winL, winP,
+                    new float[][]{result}, 0, resCols);
+
+            for (int r = 0; r < resRows; r++) {
+                for (int c = 0; c < resCols; c++) {
+                    final String msg = winL + "x" + winP + " at " + r + "," + c;
+                    assertEquals(msg, coh2.get(r, c), result[r * resCols + c], DELTA);
+                    assertEquals(msg, coh3.get(r, c), result[r * resCols + c], DELTA);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleSecondariesIntoTileBuffer() {
+        final Random random = new Random(6);
+        final int winL = 4, winP = 9;
+        final double[] reference = createSpeckle(ROWS, COLS, random);
+        final double[][] secondaries = {
+                createSecondary(reference, 0.2, random),
+                createSecondary(reference, 0.9, random),
+                createSpeckle(ROWS, COLS, random)
+        };
+
+        // results written into a larger buffer, as into a target tile with a wider scanline
+        final int resRows = ROWS - winL + 1;
+        final int resCols = COLS - winP + 1;
+        final int stride = resCols + 13;
+        final int offset = 2 * stride + 5;
+        final float[][] results = new float[secondaries.length][offset + resRows * stride];
+        for (float[] result : results) {
+            Arrays.fill(result, -1.0f);
+        }
+        SarUtils.coherence(reference, secondaries, ROWS, COLS, winL, winP, results, offset, stride);
+
+        for (int n = 0; n < secondaries.length; n++) {
+            final float[] expected = new float[resRows * resCols];
+            SarUtils.coherence(reference, new double[][]{secondaries[n]}, ROWS, COLS, winL, winP,
+                    new float[][]{expected}, 0, resCols);
+
+            for (int i = 0; i < results[n].length; i++) {
+                final int r = (i - offset) / stride;
+                final int c = (i - offset) % stride;
+                if (i < offset || c >= resCols) {
+                    assertEquals("outside of the output at " + i, -1.0f, results[n][i], 0.0f);
+                } else {
+                    assertEquals(expected[r * resCols + c], results[n][i], 0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testZeroPower() {
+        final double[] reference = new double[2 * ROWS * COLS];
+        final double[] secondary = createSpeckle(ROWS, COLS, new Random(7));
+        final float[] result = new float[(ROWS - 2) * (COLS - 2)];
+        Arrays.fill(result, 1.0f);
+        SarUtils.coherence(reference, new double[][]{secondary}, ROWS, COLS, 3, 3, new float[][]{result}, 0, COLS - 2);
+        for (float value : result) {
+            assertEquals(0.0f, value, 0.0f);
+        }
+    }
+
+    @Test
+    public void testWindowLargerThanInput() {
+        final double[] data = new double[2 * 4 * 4];
+        try {
+            SarUtils.coherence(data, new double[][]{data}, 4, 4, 5, 3, new float[][]{new float[16]}, 0, 4);
+            fail("Expected IllegalArgumentException for a window larger than the input");
+        } catch (IllegalArgumentException expected) {
+            // success
+        }
+    }
+
+    private static double[] createSpeckle(final int rows, final int cols, final Random random) {
+        final double[] data = new double[2 * rows * cols];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextGaussian();
+        }
+        return data;
+    }
+
+    /**
+     * @return the reference plus independent speckle of the given relative amplitude
+     */
+    private static double[] createSecondary(final double[] reference, final double noise, final Random random) {
+        final double[] data = new double[reference.length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = reference[i] + noise * random.nextGaussian();
+        }
+        return data;
+    }
+
+    /**
+     * Interferogram and powers as prepared by the coherence operator: input = m * conj(s),
+     * norms = (|s|^2, |m|^2).
+     */
+    private static void toCoherenceInput(final double[] reference, final double[] secondary,
+                                         final ComplexDoubleMatrix input, final ComplexDoubleMatrix norms) {
+        for (int r = 0; r < input.rows; r++) {
+            for (int c = 0; c < input.columns; c++) {
+                final int i = 2 * (r * input.columns + c);
+                final ComplexDouble m = new ComplexDouble(reference[i], reference[i + 1]);
+                final ComplexDouble s = new ComplexDouble(secondary[i], secondary[i + 1]);
+                input.put(r, c, m.mul(s.conj()));
+                norms.put(r, c, new ComplexDouble(secondary[i] * secondary[i] + secondary[i + 1] * secondary[i + 1],
+                        reference[i] * reference[i] + reference[i + 1] * reference[i + 1]));
+            }
+        }
+    }
+}
@@ -189,7 +189,7 @@ public class SnaphuExportOp extends Operator {
     }
 
     @Override
-    public synchronized void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
+    public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
         try {
             writeHeader(subsetInfo);
 
@@ -208,12 +208,16 @@ public class SnaphuExportOp extends Operator {
         }
     }
 
-    private synchronized void writeHeader(final SubsetInfo info) throws Exception {
+    private void writeHeader(final SubsetInfo info) throws Exception {
         if (info.written) return;
 
-        subsetInfo.productWriter.writeProductNodes(subsetInfo.subsetProduct, subsetInfo.file);
+        synchronized (info) {
+            if (info.written) return;
 
-        info.written = true;
+            info.productWriter.writeProductNodes(info.subsetProduct, info.file);
+
+            info.written = true;
+        }
     }
 
     @Override
@@ -224,7 +228,8 @@ public class SnaphuExportOp extends Operator {
                     subsetInfo.productWriter.close();
                 }
             }
-        } catch (IOException ignore) {
+        } catch (IOException e) {
+            SystemUtils.LOG.severe("SnaphuExport unable to complete writing: " + e.getMessage());
         }
         super.dispose();
     }
@@ -233,7 +238,7 @@ public class SnaphuExportOp extends Operator {
         Product subsetProduct;
         File file;
         ProductWriter productWriter;
-        boolean written = false;
+        volatile boolean written = false;
     }
 
     public static class Spi extends OperatorSpi {
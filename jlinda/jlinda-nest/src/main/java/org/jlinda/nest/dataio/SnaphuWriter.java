@@ -1,7 +1,7 @@
 package org.jlinda.nest.dataio;
 
 import com.bc.ceres.core.ProgressMonitor;
-import eu.esa.sar.commons.io.FileImageOutputStreamExtImpl;
+import eu.esa.sar.commons.io.WriteBehindFile;
 import org.esa.snap.core.dataio.AbstractProductWriter;
 import org.esa.snap.core.dataio.ProductReader;
 import org.esa.snap.core.dataio.ProductWriterPlugIn;
@@ -22,12 +22,11 @@ import org.jlinda.core.Window;
 import org.jlinda.core.unwrapping.snaphu.SnaphuConfigFile;
 import org.jlinda.core.unwrapping.snaphu.SnaphuParameters;
 
-import javax.imageio.stream.ImageOutputStream;
 import java.io.*;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The SNAPHU product writer based on ENVI products writer.
@@ -36,7 +35,7 @@ public class SnaphuWriter extends AbstractProductWriter {
     // TODO: inherit EnviProductWriter of BEAM, and implement/override only new code for SNAPHU export
     private File _outputDir;
     private File _outputFile;
-    private Map _bandOutputStreams;
+    private Map<Band, WriteBehindFile> _bandOutputFiles;
     private boolean _incremental = true;
     public static final String SNAPHU_HEADER_EXTENSION = ".snaphu"+EnviHeader.FILE_EXTENSION;
     public static final String SNAPHU_IMAGE_EXTENSION = ".snaphu"+ DimapProductConstants.IMAGE_FILE_EXTENSION;
@@ -146,15 +145,12 @@ public class SnaphuWriter extends AbstractProductWriter {
         final int sourceBandHeight = sourceBand.getRasterHeight();
         checkSourceRegionInsideBandRegion(sourceWidth, sourceBandWidth, sourceHeight, sourceBandHeight, sourceOffsetX,
                 sourceOffsetY);
-        final ImageOutputStream outputStream = getOrCreateImageOutputStream(sourceBand);
-        long outputPos = sourceOffsetY * sourceBandWidth + sourceOffsetX;
+        final WriteBehindFile outputFile = getOrCreateOutputFile(sourceBand);
+        final long elemSize = sourceBuffer.getElemSize();
+        final long outputPos = ((long) sourceOffsetY * sourceBandWidth + sourceOffsetX) * elemSize;
         pm.beginTask("Writing band '" + sourceBand.getName() + "'...", 1);//sourceHeight);
         try {
-            final long max = sourceHeight * sourceWidth;
-            for (int sourcePos = 0; sourcePos < max; sourcePos += sourceWidth) {
-                sourceBuffer.writeTo(sourcePos, sourceWidth, outputStream, outputPos);
-                outputPos += sourceBandWidth;
-            }
+            outputFile.writeTile(sourceBuffer, sourceWidth, sourceHeight, outputPos, sourceBandWidth * elemSize);
             pm.worked(1);
         } finally {
             pm.done();
@@ -189,11 +185,11 @@ public class SnaphuWriter extends AbstractProductWriter {
      * @throws java.io.IOException on failure
      */
     public void flush() throws IOException {
-        if (_bandOutputStreams == null) {
+        if (_bandOutputFiles == null) {
             return;
         }
-        for (Object o : _bandOutputStreams.values()) {
-            ((ImageOutputStream) o).flush();
+        for (WriteBehindFile outputFile : _bandOutputFiles.values()) {
+            outputFile.flush();
         }
 
         // at the very end also save SnaphuConfig file
@@ -209,36 +205,29 @@ public class SnaphuWriter extends AbstractProductWriter {
      * @throws java.io.IOException on failure
      */
     public void close() throws IOException {
-        if (_bandOutputStreams == null) {
+        if (_bandOutputFiles == null) {
             return;
         }
-        for (Object o : _bandOutputStreams.values()) {
-            ((ImageOutputStream) o).close();
+        for (WriteBehindFile outputFile : _bandOutputFiles.values()) {
+            outputFile.close();
         }
-        _bandOutputStreams.clear();
-        _bandOutputStreams = null;
+        _bandOutputFiles.clear();
+        _bandOutputFiles = null;
     }
     /**
-     * Returns the data output stream associated with the given <code>Band</code>. If no stream exists, one is created
-     * and fed into the hash map
+     * Returns the write-behind file associated with the given <code>Band</code>. If no file exists, one is created
+     * and fed into the map
      */
-    private ImageOutputStream getOrCreateImageOutputStream(Band band) throws IOException {
-        ImageOutputStream outputStream = getImageOutputStream(band);
-        if (outputStream == null) {
-            outputStream = createImageOutputStream(band);
-            if (_bandOutputStreams == null) {
-                _bandOutputStreams = new HashMap();
-            }
-            outputStream.setByteOrder(byteOrder);
-            _bandOutputStreams.put(band, outputStream);
+    private synchronized WriteBehindFile getOrCreateOutputFile(Band band) throws IOException {
+        if (_bandOutputFiles == null) {
+            _bandOutputFiles = new ConcurrentHashMap<>();
         }
-        return outputStream;
-    }
-    private ImageOutputStream getImageOutputStream(Band band) {
-        if (_bandOutputStreams != null) {
-            return (ImageOutputStream) _bandOutputStreams.get(band);
+        WriteBehindFile outputFile = _bandOutputFiles.get(band);
+        if (outputFile == null) {
+            outputFile = new WriteBehindFile(getValidImageFile(band), getImageFileSize(band), byteOrder);
+            _bandOutputFiles.put(band, outputFile);
         }
-        return null;
+        return outputFile;
     }
     /**
      * Returns a file associated with the given <code>Band</code>. The method ensures that the file exists and have the
@@ -266,9 +255,6 @@ public class SnaphuWriter extends AbstractProductWriter {
                 band.getRasterWidth(),
                 band.getRasterHeight());
     }
-    private ImageOutputStream createImageOutputStream(Band band) throws IOException {
-        return new FileImageOutputStreamExtImpl(getValidImageFile(band));
-    }
     private static long getImageFileSize(RasterDataNode band) {
         return (long) ProductData.getElemSize(band.getDataType()) *
                 (long) band.getRasterWidth() *
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.jlinda.nest.gpf;
+
+import com.bc.ceres.core.ProgressMonitor;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.gpf.annotations.OperatorMetadata;
+import org.esa.snap.core.gpf.annotations.Parameter;
+import org.esa.snap.core.gpf.annotations.SourceProduct;
+import org.esa.snap.core.gpf.annotations.TargetProduct;
+import org.esa.snap.core.util.ProductUtils;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.gpf.OperatorUtils;
+import org.jlinda.core.unwrapping.TiledUnwrapper;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unwraps interferometric phase inside the graph with {@link TiledUnwrapper}, as an alternative to
+ * exporting to and importing from the external snaphu program.
+ *
+ * The first request for a tile of an unwrapped band solves the whole band: wrapped phase and coherence
+ * are streamed tile by tile from the source product into parallel minimum cost flow solves, after which
+ * every target tile is a copy of the reconciled result. The tile solutions of each unwrapped band are
+ * held for the lifetime of the operator, about 1.6 times the size of a float band with the default tiling.
+ */
+@OperatorMetadata(alias = "Phase-Unwrapping",
+        category = "Radar/Interferometric/Unwrapping",
+        authors = "Jun Lu, Luis Veci",
+        version = "1.0",
+        copyright = "Copyright (C) 2026 by SkyWatch Space Applications Inc.",
+        description = "Minimum cost flow phase unwrapping on overlapping tiles")
+public class PhaseUnwrappingOp extends Operator {
+
+    @SourceProduct
+    private Product sourceProduct;
+
+    @TargetProduct
+    private Product targetProduct;
+
+    @Parameter(description = "Size of the tiles unwrapped independently", defaultValue = "512",
+            interval = "[64, 4096]", label = "Tile Size")
+    private int tileSize = 512;
+
+    @Parameter(description = "Overlap between neighbouring tiles used to reconcile their cycle offsets",
+            defaultValue = "64", interval = "[8, 512]", label = "Tile Overlap")
+    private int tileOverlap = 64;
+
+    private static final String UNW_PREFIX = "Unw_";
+    private static final String PHASE_TAG = "Phase";
+    private static final String COHERENCE_TAG = "coh";
+
+    private final Map<Band, UnwrappedBand> unwrappedBands = new HashMap<>();
+
+    private static final class UnwrappedBand {
+        final Band phaseBand;
+        final Band coherenceBand;
+        final TiledUnwrapper unwrapper;
+
+        UnwrappedBand(final Band phaseBand, final Band coherenceBand, final TiledUnwrapper unwrapper) {
+            this.phaseBand = phaseBand;
+            this.coherenceBand = coherenceBand;
+            this.unwrapper = unwrapper;
+        }
+    }
+
+    @Override
+    public void initialize() throws OperatorException {
+        try {
+            if (tileOverlap >= tileSize) {
+                throw new OperatorException("Tile overlap must be smaller than the tile size");
+            }
+
+            final int width = sourceProduct.getSceneRasterWidth();
+            final int height = sourceProduct.getSceneRasterHeight();
+            targetProduct = new Product(sourceProduct.getName(), sourceProduct.getProductType(), width, height);
+            ProductUtils.copyProductNodes(sourceProduct, targetProduct);
+
+            for (Band srcBand : sourceProduct.getBands()) {
+                ProductUtils.copyBand(srcBand.getName(), sourceProduct, targetProduct, true);
+            }
+
+            for (Band srcBand : sourceProduct.getBands()) {
+                if (!Unit.PHASE.equals(srcBand.getUnit()) || srcBand.getName().toLowerCase().contains("topo")) {
+                    continue;
+                }
+
+                final Band targetBand = new Band(UNW_PREFIX + srcBand.getName(), ProductData.TYPE_FLOAT32, width, height);
+                targetBand.setUnit(Unit.ABS_PHASE);
+                targetBand.setNoDataValue(Double.NaN);
+                targetBand.setNoDataValueUsed(true);
+                targetBand.setDescription("Unwrapped " + srcBand.getName());
+                targetProduct.addBand(targetBand);
+                targetProduct.setQuicklookBandName(targetBand.getName());
+
+                unwrappedBands.put(targetBand, new UnwrappedBand(srcBand, findCoherenceBand(srcBand),
+                        new TiledUnwrapper(width, height, tileSize, tileOverlap)));
+            }
+
+            if (unwrappedBands.isEmpty()) {
+                throw new OperatorException("Please select a product with an interferometric phase band");
+            }
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        }
+    }
+
+    /**
+     * Finds the coherence band of the same pair as the phase band, e.g. coh_IW1_VV_date1_date2 for
+     * Phase_ifg_IW1_VV_date1_date2, or the only coherence band of the product.
+     */
+    private Band findCoherenceBand(final Band phaseBand) {
+        final String name = phaseBand.getName();
+        final int idx = name.indexOf(PHASE_TAG);
+        final String suffix = name.substring(idx < 0 ? 0 : idx + PHASE_TAG.length()).replaceFirst("^_ifg", "");
+
+        Band onlyCoherence = null;
+        int numCoherence = 0;
+        for (Band band : sourceProduct.getBands()) {
+            if (!Unit.COHERENCE.equals(band.getUnit())) {
+                continue;
+            }
+            if (band.getName().startsWith(COHERENCE_TAG) && band.getName().endsWith(suffix)) {
+                return band;
+            }
+            onlyCoherence = band;
+            ++numCoherence;
+        }
+        return numCoherence == 1 ? onlyCoherence : null;
+    }
+
+    @Override
+    public void computeTile(final Band targetBand, final Tile targetTile, final ProgressMonitor pm)
+            throws OperatorException {
+        try {
+            final UnwrappedBand unwrapped = unwrappedBands.get(targetBand);
+            if (unwrapped == null) {
+                return;
+            }
+            solve(unwrapped);
+
+            final Rectangle rect = targetTile.getRectangle();
+            final float[] data = new float[rect.width * rect.height];
+            unwrapped.unwrapper.getUnwrapped(rect.x, rect.y, rect.width, rect.height, data);
+            targetTile.setSamples(data);
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        }
+    }
+
+    private void solve(final UnwrappedBand unwrapped) throws Exception {
+        synchronized (unwrapped) {
+            if (unwrapped.unwrapper.isSolved()) {
+                return;
+            }
+            unwrapped.unwrapper.solve((x0, y0, w, h, phase, coherence) -> {
+                final Rectangle rect = new Rectangle(x0, y0, w, h);
+                readSamples(unwrapped.phaseBand, rect, phase);
+                if (unwrapped.coherenceBand != null) {
+                    readSamples(unwrapped.coherenceBand, rect, coherence);
+                } else {
+                    Arrays.fill(coherence, 1.0f);
+                }
+            });
+        }
+    }
+
+    private void readSamples(final Band band, final Rectangle rect, final float[] out) {
+        final Tile tile = getSourceTile(band, rect);
+        final Double noDataValue = band.isNoDataValueUsed() ? band.getNoDataValue() : null;
+        int k = 0;
+        for (int y = rect.y; y < rect.y + rect.height; ++y) {
+            for (int x = rect.x; x < rect.x + rect.width; ++x, ++k) {
+                final float v = tile.getSampleFloat(x, y);
+                out[k] = noDataValue != null && v == noDataValue ? Float.NaN : v;
+            }
+        }
+    }
+
+    /**
+     * The SPI is used to register this operator in the graph processing framework
+     * via the SPI configuration file
+     * {@code META-INF/services/org.esa.snap.core.gpf.OperatorSpi}.
+     * This class may also serve as a factory for new operator instances.
+     *
+     * @see OperatorSpi#createOperator()
+     * @see OperatorSpi#createOperator(java.util.Map, java.util.Map)
+     */
+    public static class Spi extends OperatorSpi {
+        public Spi() {
+            super(PhaseUnwrappingOp.class);
+        }
+    }
+}
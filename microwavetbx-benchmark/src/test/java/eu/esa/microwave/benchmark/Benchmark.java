@@ -20,12 +20,16 @@ import eu.esa.snap.core.dataio.cache.CacheManager;
 import org.esa.snap.core.util.StopWatch;
 import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.core.util.io.FileUtils;
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import javax.media.jai.JAI;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.net.InetAddress;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
@@ -42,7 +46,8 @@ import java.util.Arrays;
  *
  * <p>Each {@link #run()} performs one cold-start pass (JIT cold, caches empty) followed by
  * {@code iterations} timed passes. Per-pass wall-clock is collected as raw milliseconds and
- * reduced to min / max / avg / median / stddev. Every completed test appends one self-contained
+ * reduced to min / max / avg / median / stddev; the raw per-pass times and peak heap use are kept
+ * as well for {@link BenchmarkRegression}. Every completed test appends one self-contained
  * record to an append-only history store ({@code benchmark_history.jsonl}) and updates a
  * merged latest-view ({@code benchmark_latest.json}).
  *
@@ -119,21 +124,24 @@ public abstract class Benchmark {
                 FileUtils.deleteTree(outputFolder);
 
             final long[] runtimes = new long[iterations];
+            final long[] peakHeapMB = new long[iterations];
             for (int i = 1; i <= iterations; ++i) {
                 SystemUtils.LOG.info("Run " + i + " of " + iterations + " started");
+                resetPeakHeapUsage();
                 StopWatch timer = new StopWatch();
                 outputFolder = createTempFolder(testName + i);
                 this.execute();
                 timer.stop();
 
                 runtimes[i - 1] = timer.getTimeDiff();
+                peakHeapMB[i - 1] = peakHeapUsageMB();
                 SystemUtils.LOG.info("Run " + i + " of " + iterations + " end time " + timer.getTimeDiffString());
 
                 resetCaches();
                 FileUtils.deleteTree(outputFolder);
             }
 
-            writeResults(coldStartMillis, runtimes);
+            writeResults(coldStartMillis, runtimes, peakHeapMB);
         } catch (Exception e) {
             SystemUtils.LOG.severe("Benchmark " + testName + " failed: " + e.getMessage());
             writeFailedResult(e.getMessage());
@@ -177,9 +185,38 @@ public abstract class Benchmark {
         return Math.round(Math.sqrt(sumSq / a.length));
     }
 
+    private static void resetPeakHeapUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Sum of the peak usage of the heap pools since {@link #resetPeakHeapUsage()}. The pools peak at
+     * different times so this is an upper bound, but it moves with the real peak from run to run.
+     */
+    private static long peakHeapUsageMB() {
+        long bytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                bytes += pool.getPeakUsage().getUsed();
+            }
+        }
+        return bytes / 1024 / 1024;
+    }
+
+    private static JSONArray toJSONArray(final long[] a) {
+        final JSONArray array = new JSONArray();
+        for (long v : a) array.add(v);
+        return array;
+    }
+
     // ---- result records -----------------------------------------------------
 
-    private void writeResults(final long coldStartMillis, final long[] runtimes) throws Exception {
+    private void writeResults(final long coldStartMillis, final long[] runtimes,
+                              final long[] peakHeapMB) throws Exception {
         final long minMillis = min(runtimes);
         final long maxMillis = max(runtimes);
         final long avgMillis = avg(runtimes);
@@ -207,6 +244,9 @@ public abstract class Benchmark {
         record.put("avgMillis", avgMillis);
         record.put("medianMillis", medianMillis);
         record.put("stdDevMillis", stdDevMillis);
+        record.put("runtimesMillis", toJSONArray(runtimes));
+        record.put("peakHeapMB", toJSONArray(peakHeapMB));
+        record.put("medianPeakHeapMB", median(peakHeapMB));
 
         // human-readable mirror so the raw file is still eyeball-able
         record.put("coldStart", StopWatch.getTimeString(coldStartMillis));
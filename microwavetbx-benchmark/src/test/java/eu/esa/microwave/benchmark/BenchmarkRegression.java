@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import eu.esa.sar.cloud.json.JSON;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Regression gate over the append-only {@code benchmark_history.jsonl} written by {@link Benchmark}.
+ *
+ * <p>History records are grouped by (group, test) and machine fingerprint (host, OS, cores, max heap).
+ * In each series the latest commit's records are compared with the records of up to
+ * {@code benchmark.regression.window} earlier runs. Per-pass wall-clock times and peak heap use are
+ * compared with a one-sided Mann-Whitney U test, and a bootstrap 95% confidence interval is given
+ * for the change of the median. A series regresses when the increase is significant at
+ * {@code benchmark.regression.alpha} and the median grew by more than
+ * {@code benchmark.regression.threshold} percent (time) or
+ * {@code benchmark.regression.memoryThreshold} percent (memory).
+ *
+ * <p>A markdown report is written to {@code benchmark_regression.md}. Run {@code main}, e.g. with
+ * {@code mvn exec:java}, which exits with 1 on a regression, or the {@link #checkForRegressions()}
+ * test with {@code -Dbenchmark.regression.gate=true}, which then fails.
+ */
+public class BenchmarkRegression {
+
+    private static final File RESULTS_DIR =
+            new File(System.getProperty("benchmark.results.dir",
+                    new File(System.getProperty("java.io.tmpdir"), "microwavetbx-benchmark").getPath()));
+    private static final File HISTORY_FILE = new File(RESULTS_DIR, "benchmark_history.jsonl");
+    private static final File MD_FILE = new File(RESULTS_DIR, "benchmark_regression.md");
+
+    private static final int MIN_CURRENT_SAMPLES = 3;
+    private static final int MIN_BASELINE_SAMPLES = 5;
+    private static final int BOOTSTRAP_RESAMPLES = 2000;
+
+    enum Metric {
+        TIME("time", "ms"), MEMORY("peak heap", "MB");
+
+        final String label;
+        final String unit;
+
+        Metric(final String label, final String unit) {
+            this.label = label;
+            this.unit = unit;
+        }
+    }
+
+    enum Status {REGRESSION, IMPROVEMENT, OK, INSUFFICIENT_DATA}
+
+    /** Gate settings, from the benchmark.regression.* system properties by default. */
+    static final class Settings {
+        double thresholdPct = Double.parseDouble(System.getProperty("benchmark.regression.threshold", "10"));
+        double memoryThresholdPct = Double.parseDouble(System.getProperty("benchmark.regression.memoryThreshold", "10"));
+        double alpha = Double.parseDouble(System.getProperty("benchmark.regression.alpha", "0.01"));
+        int window = Integer.parseInt(System.getProperty("benchmark.regression.window", "10"));
+
+        double threshold(final Metric metric) {
+            return metric == Metric.TIME ? thresholdPct : memoryThresholdPct;
+        }
+    }
+
+    /** One history record reduced to the fields the gate needs. */
+    static final class Entry {
+        String timestamp = "";
+        String group = "";
+        String test = "";
+        String gitCommit = "";
+        String fingerprint = "";
+        double[] runtimes = new double[0];
+        double[] peakHeap = new double[0];
+        boolean failed;
+
+        double[] samples(final Metric metric) {
+            return metric == Metric.TIME ? runtimes : peakHeap;
+        }
+    }
+
+    /** Outcome for one metric of one series. */
+    static final class Finding {
+        String name;
+        String fingerprint;
+        Metric metric;
+        String baselineCommits;
+        String currentCommit;
+        int baselineSamples;
+        int currentSamples;
+        double baselineMedian;
+        double currentMedian;
+        double deltaPct;
+        double ciLowPct;
+        double ciHighPct;
+        double pValue = 1.0;
+        Status status;
+    }
+
+    @Test
+    public void checkForRegressions() throws Exception {
+        assumeTrue(Boolean.getBoolean("benchmark.regression.gate"));
+        assumeTrue("No benchmark history at " + HISTORY_FILE, HISTORY_FILE.exists());
+
+        final List<Finding> findings = run();
+        assertTrue("Benchmark regression, see " + MD_FILE, !hasRegression(findings));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (!HISTORY_FILE.exists()) {
+            System.out.println("No benchmark history at " + HISTORY_FILE + " — nothing to check.");
+            return;
+        }
+        if (hasRegression(run())) {
+            System.exit(1);
+        }
+    }
+
+    private static List<Finding> run() throws Exception {
+        final List<Finding> findings = analyse(
+                load(Files.readAllLines(HISTORY_FILE.toPath(), StandardCharsets.UTF_8)), new Settings());
+        final String md = toMarkdown(findings);
+        RESULTS_DIR.mkdirs();
+        Files.write(MD_FILE.toPath(), md.getBytes(StandardCharsets.UTF_8));
+        System.out.println(md);
+        System.out.println("Regression report written to " + MD_FILE);
+        return findings;
+    }
+
+    static boolean hasRegression(final List<Finding> findings) {
+        return findings.stream().anyMatch(f -> f.status == Status.REGRESSION);
+    }
+
+    static List<Entry> load(final List<String> lines) throws Exception {
+        final List<Entry> entries = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isBlank()) continue;
+            final JSONObject rec = (JSONObject) JSON.parse(line);
+            final Entry e = new Entry();
+            e.timestamp = String.valueOf(rec.getOrDefault("timestamp", ""));
+            e.group = String.valueOf(rec.getOrDefault("group", "?"));
+            e.test = String.valueOf(rec.getOrDefault("test", "?"));
+            e.gitCommit = String.valueOf(rec.getOrDefault("gitCommit", "unknown"));
+            e.fingerprint = fingerprint(rec.get("environment"));
+            e.failed = rec.get("error") != null;
+
+            // records written before per-pass values were kept contribute their median as one sample
+            if (rec.get("runtimesMillis") instanceof List) {
+                e.runtimes = toDoubles((List<?>) rec.get("runtimesMillis"));
+            } else if (rec.get("medianMillis") != null) {
+                e.runtimes = new double[]{JSON.getDouble(rec.get("medianMillis"))};
+            }
+            if (rec.get("peakHeapMB") instanceof List) {
+                e.peakHeap = toDoubles((List<?>) rec.get("peakHeapMB"));
+            }
+            entries.add(e);
+        }
+        return entries;
+    }
+
+    private static String fingerprint(final Object env) {
+        if (!(env instanceof JSONObject)) {
+            return "?";
+        }
+        final JSONObject obj = (JSONObject) env;
+        return obj.getOrDefault("hostname", "?") + " | " + obj.getOrDefault("os", "?") + " | " +
+                obj.getOrDefault("cores", "?") + " cores | " + obj.getOrDefault("maxHeapMB", "?") + " MB heap";
+    }
+
+    private static double[] toDoubles(final List<?> list) {
+        final double[] a = new double[list.size()];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = JSON.getDouble(list.get(i));
+        }
+        return a;
+    }
+
+    static List<Finding> analyse(final List<Entry> entries, final Settings settings) {
+        final Map<String, List<Entry>> series = new TreeMap<>();
+        for (Entry e : entries) {
+            if (e.failed) continue;
+            series.computeIfAbsent(e.group + '/' + e.test + '\u0000' + e.fingerprint, k -> new ArrayList<>()).add(e);
+        }
+
+        final List<Finding> findings = new ArrayList<>();
+        for (List<Entry> hist : series.values()) {
+            hist.sort(Comparator.comparing(e -> e.timestamp));
+
+            // the latest commit's consecutive records against the runs before them
+            final Entry latest = hist.get(hist.size() - 1);
+            int start = hist.size() - 1;
+            if (!"unknown".equals(latest.gitCommit)) {
+                while (start > 0 && hist.get(start - 1).gitCommit.equals(latest.gitCommit)) {
+                    start--;
+                }
+            }
+            final List<Entry> current = hist.subList(start, hist.size());
+            final List<Entry> baseline = hist.subList(Math.max(0, start - settings.window), start);
+
+            for (Metric metric : Metric.values()) {
+                final Finding f = compare(pool(baseline, metric), pool(current, metric), metric, settings);
+                f.name = latest.group + '/' + latest.test;
+                f.fingerprint = latest.fingerprint;
+                f.currentCommit = latest.gitCommit;
+                f.baselineCommits = commits(baseline);
+                if (f.currentSamples == 0 && f.baselineSamples == 0) continue;
+                findings.add(f);
+            }
+        }
+        findings.sort(Comparator.comparing((Finding f) -> f.status).thenComparing(f -> f.name));
+        return findings;
+    }
+
+    private static double[] pool(final List<Entry> entries, final Metric metric) {
+        int n = 0;
+        for (Entry e : entries) n += e.samples(metric).length;
+        final double[] pooled = new double[n];
+        int k = 0;
+        for (Entry e : entries) {
+            for (double v : e.samples(metric)) pooled[k++] = v;
+        }
+        return pooled;
+    }
+
+    private static String commits(final List<Entry> entries) {
+        if (entries.isEmpty()) return "";
+        final String first = entries.get(0).gitCommit;
+        final String last = entries.get(entries.size() - 1).gitCommit;
+        return first.equals(last) ? first : first + ".." + last;
+    }
+
+    static Finding compare(final double[] baseline, final double[] current, final Metric metric,
+                           final Settings settings) {
+        final Finding f = new Finding();
+        f.metric = metric;
+        f.baselineSamples = baseline.length;
+        f.currentSamples = current.length;
+        if (current.length < MIN_CURRENT_SAMPLES || baseline.length < MIN_BASELINE_SAMPLES) {
+            f.baselineMedian = baseline.length > 0 ? median(baseline) : Double.NaN;
+            f.currentMedian = current.length > 0 ? median(current) : Double.NaN;
+            f.deltaPct = relativeChangePct(f.baselineMedian, f.currentMedian);
+            f.ciLowPct = Double.NaN;
+            f.ciHighPct = Double.NaN;
+            f.pValue = Double.NaN;
+            f.status = Status.INSUFFICIENT_DATA;
+            return f;
+        }
+
+        f.baselineMedian = median(baseline);
+        f.currentMedian = median(current);
+        f.deltaPct = relativeChangePct(f.baselineMedian, f.currentMedian);
+        final double[] ci = bootstrapChangeInterval(baseline, current);
+        f.ciLowPct = ci[0];
+        f.ciHighPct = ci[1];
+
+        final double threshold = settings.threshold(metric);
+        final double pIncrease = mannWhitneyGreaterPValue(current, baseline);
+        final double pDecrease = mannWhitneyGreaterPValue(baseline, current);
+        if (pIncrease < settings.alpha && f.deltaPct > threshold) {
+            f.pValue = pIncrease;
+            f.status = Status.REGRESSION;
+        } else if (pDecrease < settings.alpha && f.deltaPct < -threshold) {
+            f.pValue = pDecrease;
+            f.status = Status.IMPROVEMENT;
+        } else {
+            f.pValue = Math.min(pIncrease, pDecrease);
+            f.status = Status.OK;
+        }
+        return f;
+    }
+
+    /**
+     * One-sided Mann-Whitney U test with tie correction and the normal approximation.
+     *
+     * @return p-value for the alternative that values of {@code x} tend to be larger than those of {@code y}
+     */
+    static double mannWhitneyGreaterPValue(final double[] x, final double[] y) {
+        final int n1 = x.length;
+        final int n2 = y.length;
+        final int n = n1 + n2;
+        final double[] values = new double[n];
+        final boolean[] fromX = new boolean[n];
+        final Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i < n1 ? x[i] : y[i - n1];
+            fromX[i] = i < n1;
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> values[i]));
+
+        // mid-ranks of tied groups, and the tie term of the variance
+        double rankSumX = 0;
+        double tieTerm = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && values[order[j + 1]] == values[order[i]]) j++;
+            final double midRank = (i + j + 2) / 2.0;
+            for (int k = i; k <= j; k++) {
+                if (fromX[order[k]]) rankSumX += midRank;
+            }
+            final double t = j - i + 1;
+            tieTerm += t * t * t - t;
+            i = j + 1;
+        }
+
+        final double u = rankSumX - n1 * (n1 + 1) / 2.0;
+        final double mean = n1 * (double) n2 / 2.0;
+        final double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieTerm / (n * (double) (n - 1)));
+        if (variance <= 0) {
+            return u > mean ? 0.0 : 1.0;
+        }
+        final double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 0.5 * erfc(z / Math.sqrt(2.0));
+    }
+
+    /**
+     * Percentile bootstrap of the relative change of the median, with a fixed seed so reports are reproducible.
+     *
+     * @return the 2.5 and 97.5 percentiles in percent
+     */
+    static double[] bootstrapChangeInterval(final double[] baseline, final double[] current) {
+        final Random random = new Random(42);
+        final double[] changes = new double[BOOTSTRAP_RESAMPLES];
+        final double[] b = new double[baseline.length];
+        final double[] c = new double[current.length];
+        for (int r = 0; r < BOOTSTRAP_RESAMPLES; r++) {
+            for (int i = 0; i < b.length; i++) b[i] = baseline[random.nextInt(baseline.length)];
+            for (int i = 0; i < c.length; i++) c[i] = current[random.nextInt(current.length)];
+            changes[r] = relativeChangePct(median(b), median(c));
+        }
+        Arrays.sort(changes);
+        return new double[]{changes[(int) (0.025 * (BOOTSTRAP_RESAMPLES - 1))],
+                changes[(int) Math.ceil(0.975 * (BOOTSTRAP_RESAMPLES - 1))]};
+    }
+
+    private static double relativeChangePct(final double base, final double value) {
+        return base > 0 ? (value - base) * 100.0 / base : 0.0;
+    }
+
+    static double median(final double[] a) {
+        final double[] s = a.clone();
+        Arrays.sort(s);
+        final int n = s.length;
+        return (n % 2 == 1) ? s[n / 2] : (s[n / 2 - 1] + s[n / 2]) / 2;
+    }
+
+    /**
+     * Complementary error function, Chebyshev fit with fractional error below 1.2e-7.
+     */
+    static double erfc(final double x) {
+        final double z = Math.abs(x);
+        final double t = 1.0 / (1.0 + 0.5 * z);
+        final double ans = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418 +
+                t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 +
+                t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? ans : 2.0 - ans;
+    }
+
+    static String toMarkdown(final List<Finding> findings) {
+        final long regressions = findings.stream().filter(f -> f.status == Status.REGRESSION).count();
+        final StringBuilder md = new StringBuilder();
+        md.append("# Microwave-Toolbox Benchmark Regression Check\n\n");
+        md.append("_Generated ").append(java.time.Instant.now()).append("_\n\n");
+        md.append(regressions == 0 ? "No significant regressions.\n\n"
+                : "**" + regressions + " significant regression(s).**\n\n");
+        md.append("| Status | Benchmark | Machine | Metric | Baseline | Current | Δ median | 95% CI | p | Samples | Commits |\n");
+        md.append("|---|---|---|---|--:|--:|--:|--:|--:|--:|---|\n");
+        for (Finding f : findings) {
+            md.append("| ").append(statusLabel(f.status))
+              .append(" | ").append(f.name)
+              .append(" | ").append(f.fingerprint)
+              .append(" | ").append(f.metric.label)
+              .append(" | ").append(fmt(f.baselineMedian, f.metric))
+              .append(" | ").append(fmt(f.currentMedian, f.metric))
+              .append(" | ").append(Double.isNaN(f.deltaPct) ? "" : String.format("%+.1f%%", f.deltaPct))
+              .append(" | ").append(Double.isNaN(f.ciLowPct) ? "" :
+                        String.format("[%+.1f%%, %+.1f%%]", f.ciLowPct, f.ciHighPct))
+              .append(" | ").append(Double.isNaN(f.pValue) ? "" : String.format("%.2g", f.pValue))
+              .append(" | ").append(f.baselineSamples).append(" → ").append(f.currentSamples)
+              .append(" | ").append(f.baselineCommits).append(" → ").append(f.currentCommit)
+              .append(" |\n");
+        }
+        return md.toString();
+    }
+
+    private static String statusLabel(final Status status) {
+        switch (status) {
+            case REGRESSION: return "▲ REGRESSION";
+            case IMPROVEMENT: return "▼ improved";
+            case OK: return "= ok";
+            default: return "? insufficient data";
+        }
+    }
+
+    private static String fmt(final double value, final Metric metric) {
+        if (Double.isNaN(value)) return "";
+        if (metric == Metric.TIME && value >= 1000) {
+            return String.format("%.2f s", value / 1000.0);
+        }
+        return String.format("%.0f %s", value, metric.unit);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link BenchmarkRegression}.
+ */
+public class TestBenchmarkRegression {
+
+    private static final String MACHINE = "host | Linux | 8 cores | 16384 MB heap";
+
+    @Test
+    public void testMannWhitney() {
+        final double[] low = {10, 11, 12, 13, 14, 15, 16};
+        final double[] high = {20, 21, 22, 23, 24, 25, 26};
+        assertTrue(BenchmarkRegression.mannWhitneyGreaterPValue(high, low) < 0.005);
+        assertTrue(BenchmarkRegression.mannWhitneyGreaterPValue(low, high) > 0.999);
+
+        final double[] same = {5, 5, 5, 5, 5};
+        assertEquals(1.0, BenchmarkRegression.mannWhitneyGreaterPValue(same, same), 0.0);
+    }
+
+    @Test
+    public void testErfc() {
+        assertEquals(1.0, BenchmarkRegression.erfc(0.0), 1e-7);
+        assertEquals(0.157299207, BenchmarkRegression.erfc(1.0), 1e-7);
+        assertEquals(1.842700793, BenchmarkRegression.erfc(-1.0), 1e-7);
+    }
+
+    @Test
+    public void testFlatSeriesPasses() {
+        final List<BenchmarkRegression.Entry> history = new ArrayList<>();
+        final Random random = new Random(1);
+        for (int run = 0; run < 8; run++) {
+            history.add(entry(run, "c" + run, noisy(random, 1000, 5), noisy(random, 500, 5)));
+        }
+
+        final List<BenchmarkRegression.Finding> findings = analyse(history);
+        assertEquals(2, findings.size());
+        assertFalse(BenchmarkRegression.hasRegression(findings));
+        for (BenchmarkRegression.Finding f : findings) {
+            assertEquals(BenchmarkRegression.Status.OK, f.status);
+        }
+    }
+
+    @Test
+    public void testSlowdownDetected() {
+        final List<BenchmarkRegression.Entry> history = new ArrayList<>();
+        final Random random = new Random(2);
+        for (int run = 0; run < 8; run++) {
+            history.add(entry(run, "c" + run, noisy(random, 1000, 5), noisy(random, 500, 5)));
+        }
+        history.add(entry(8, "slow", noisy(random, 1300, 5), noisy(random, 500, 5)));
+
+        final List<BenchmarkRegression.Finding> findings = analyse(history);
+        assertTrue(BenchmarkRegression.hasRegression(findings));
+
+        final BenchmarkRegression.Finding first = findings.get(0);
+        assertEquals(BenchmarkRegression.Status.REGRESSION, first.status);
+        assertEquals(BenchmarkRegression.Metric.TIME, first.metric);
+        assertEquals("slow", first.currentCommit);
+        assertEquals(30.0, first.deltaPct, 5.0);
+        assertTrue(first.ciLowPct > 10.0);
+        assertTrue(BenchmarkRegression.toMarkdown(findings).contains("REGRESSION"));
+    }
+
+    @Test
+    public void testMemoryIncreaseDetected() {
+        final List<BenchmarkRegression.Entry> history = new ArrayList<>();
+        final Random random = new Random(3);
+        for (int run = 0; run < 8; run++) {
+            history.add(entry(run, "c" + run, noisy(random, 1000, 5), noisy(random, 500, 5)));
+        }
+        history.add(entry(8, "fat", noisy(random, 1000, 5), noisy(random, 700, 5)));
+
+        final List<BenchmarkRegression.Finding> findings = analyse(history);
+        assertTrue(BenchmarkRegression.hasRegression(findings));
+        assertEquals(BenchmarkRegression.Metric.MEMORY, findings.get(0).metric);
+        assertEquals(BenchmarkRegression.Status.OK, findings.get(1).status);
+    }
+
+    @Test
+    public void testSmallSlowdownBelowThreshold() {
+        final List<BenchmarkRegression.Entry> history = new ArrayList<>();
+        final Random random = new Random(4);
+        for (int run = 0; run < 8; run++) {
+            history.add(entry(run, "c" + run, noisy(random, 1000, 5), noisy(random, 500, 5)));
+        }
+        history.add(entry(8, "c8", noisy(random, 1050, 5), noisy(random, 500, 5)));
+
+        assertFalse(BenchmarkRegression.hasRegression(analyse(history)));
+    }
+
+    @Test
+    public void testMachinesAndFailuresAreSeparated() {
+        final List<BenchmarkRegression.Entry> history = new ArrayList<>();
+        final Random random = new Random(5);
+        for (int run = 0; run < 8; run++) {
+            history.add(entry(run, "c" + run, noisy(random, 1000, 5), noisy(random, 500, 5)));
+        }
+        // a slower machine and a failed run must not count as a regression
+        final BenchmarkRegression.Entry other = entry(8, "c8", noisy(random, 2000, 5), noisy(random, 500, 5));
+        other.fingerprint = "laptop | Linux | 4 cores | 8192 MB heap";
+        history.add(other);
+        final BenchmarkRegression.Entry failed = entry(9, "c9", new double[0], new double[0]);
+        failed.failed = true;
+        history.add(failed);
+
+        final List<BenchmarkRegression.Finding> findings = analyse(history);
+        assertFalse(BenchmarkRegression.hasRegression(findings));
+        assertEquals(4, findings.size());
+        assertEquals(BenchmarkRegression.Status.INSUFFICIENT_DATA, findings.get(findings.size() - 1).status);
+    }
+
+    private static List<BenchmarkRegression.Finding> analyse(final List<BenchmarkRegression.Entry> history) {
+        final BenchmarkRegression.Settings settings = new BenchmarkRegression.Settings();
+        settings.thresholdPct = 10;
+        settings.memoryThresholdPct = 10;
+        settings.alpha = 0.01;
+        settings.window = 10;
+        return BenchmarkRegression.analyse(history, settings);
+    }
+
+    private static BenchmarkRegression.Entry entry(final int run, final String commit,
+                                                   final double[] runtimes, final double[] peakHeap) {
+        final BenchmarkRegression.Entry e = new BenchmarkRegression.Entry();
+        e.timestamp = String.format("2026-01-01T00:%02d:00Z", run);
+        e.group = "SAR";
+        e.test = "testTerrainCorrection";
+        e.gitCommit = commit;
+        e.fingerprint = MACHINE;
+        e.runtimes = runtimes;
+        e.peakHeap = peakHeap;
+        return e;
+    }
+
+    private static double[] noisy(final Random random, final double level, final int n) {
+        final double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = level * (1.0 + 0.02 * random.nextGaussian());
+        }
+        return values;
+    }
+}
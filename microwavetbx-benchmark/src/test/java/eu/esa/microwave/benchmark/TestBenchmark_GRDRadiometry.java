@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import com.sun.media.jai.util.SunTileCache;
+import eu.esa.sar.calibration.gpf.CalibrationOp;
+import eu.esa.sar.calibration.gpf.RemoveGRDBorderNoiseOp;
+import eu.esa.sar.calibration.gpf.Sentinel1GRDRadiometryOp;
+import eu.esa.sar.calibration.gpf.Sentinel1GRDTestProduct;
+import eu.esa.sar.calibration.gpf.Sentinel1RemoveThermalNoiseOp;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.gpf.GPF;
+import org.esa.snap.core.util.SystemUtils;
+import org.junit.Test;
+
+import javax.media.jai.JAI;
+import javax.media.jai.PlanarImage;
+import javax.media.jai.TileCache;
+import java.awt.image.Raster;
+import java.util.HashMap;
+
+/**
+ * Benchmarks Sentinel-1 GRD radiometric processing of a synthetic dual-pol product: the operator
+ * chain Remove-GRD-Border-Noise, ThermalNoiseRemoval, Calibration and LinearToFromdB against the
+ * fused S1-GRD-Radiometry operator. Every tile of the dB bands is computed; the tiles held in the
+ * JAI cache afterwards are logged as a measure of the intermediate products each path materialises.
+ */
+public class TestBenchmark_GRDRadiometry extends BaseBenchmarks {
+
+    private static final int WIDTH = 4096;
+    private static final int HEIGHT = 4096;
+
+    public TestBenchmark_GRDRadiometry() {
+        super("GRDRadiometry");
+    }
+
+    @Test
+    public void testChained() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        final Product source = Sentinel1GRDTestProduct.create(WIDTH, HEIGHT, "003.10", "VH", "VV");
+        final Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() {
+                final RemoveGRDBorderNoiseOp borderOp = new RemoveGRDBorderNoiseOp();
+                borderOp.setSourceProduct(source);
+
+                final Sentinel1RemoveThermalNoiseOp thermalOp = new Sentinel1RemoveThermalNoiseOp();
+                thermalOp.setSourceProduct(borderOp.getTargetProduct());
+
+                final CalibrationOp calibrationOp = new CalibrationOp();
+                calibrationOp.setSourceProduct(thermalOp.getTargetProduct());
+
+                final Product target = GPF.createProduct("LinearToFromdB", new HashMap<>(),
+                        calibrationOp.getTargetProduct());
+
+                recordThroughput(computeAllTiles(target));
+            }
+        };
+        b.run();
+        source.dispose();
+    }
+
+    @Test
+    public void testFused() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        final Product source = Sentinel1GRDTestProduct.create(WIDTH, HEIGHT, "003.10", "VH", "VV");
+        final Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() {
+                final Sentinel1GRDRadiometryOp op = new Sentinel1GRDRadiometryOp();
+                op.setSourceProduct(source);
+                op.setParameter("outputImageScaleInDb", true);
+
+                recordThroughput(computeAllTiles(op.getTargetProduct()));
+            }
+        };
+        b.run();
+        source.dispose();
+    }
+
+    /**
+     * @return number of target pixels computed
+     */
+    private static long computeAllTiles(final Product target) {
+        long numPixels = 0;
+        for (Band band : target.getBands()) {
+            final PlanarImage image = band.getSourceImage();
+            for (int ty = image.getMinTileY(); ty <= image.getMaxTileY(); ++ty) {
+                for (int tx = image.getMinTileX(); tx <= image.getMaxTileX(); ++tx) {
+                    final Raster tile = image.getTile(tx, ty);
+                    numPixels += (long) tile.getWidth() * tile.getHeight();
+                }
+            }
+        }
+
+        final TileCache tileCache = JAI.getDefaultInstance().getTileCache();
+        if (tileCache instanceof SunTileCache) {
+            final SunTileCache cache = (SunTileCache) tileCache;
+            SystemUtils.LOG.info(target.getName() + ": " + cache.getCacheTileCount() + " tiles, " +
+                    cache.getCacheMemoryUsed() / (1024 * 1024) + " MB in tile cache");
+        }
+        return numPixels;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import eu.esa.sar.insar.gpf.support.FlattenedPlaneCache;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmarks flattened interferogram formation in a multi-master stack: rotating the
+ * conjugate product of every pair by its reference phase difference against forming one
+ * flattened plane per epoch and conjugate multiplying cached planes. Pair counts scale as
+ * a single-reference star (N-1), each epoch with its two successors (2N) and all pairs.
+ * The coherence estimation that follows is the same for both paths and is not timed.
+ */
+public class TestBenchmark_MultiMasterInterferograms extends BaseBenchmarks {
+
+    private static final int TILE_SIZE = 256;
+    private static final int NUM_EPOCHS = 20;
+    private static final long MAX_CACHED_PLANE_BYTES = 128L << 20;
+    private static final double NODATA = 0.0;
+
+    private static final double[][][] EPOCHS = createEpochs();
+
+    public TestBenchmark_MultiMasterInterferograms() {
+        super("MultiMasterInterferograms");
+    }
+
+    @Test
+    public void testFactorisedMatchesPerPair() throws Exception {
+        final int n = TILE_SIZE;
+        final double[][] refI = new double[n][n], refQ = new double[n][n];
+        final double[][] ifgI = new double[n][n], ifgQ = new double[n][n];
+        final double[][] int0 = new double[n][n], int1 = new double[n][n];
+        final double[] values = new double[4];
+        final FlattenedPlaneCache<Integer> cache = createCache();
+
+        for (int[] pair : allPairs()) {
+            final double[][] e0 = EPOCHS[pair[0]], e1 = EPOCHS[pair[1]];
+            for (int k = 0; k < n * n; ++k) {
+                if (e0[0][k] == NODATA || e1[0][k] == NODATA) {
+                    refI[k / n][k % n] = NODATA;
+                    refQ[k / n][k % n] = NODATA;
+                } else {
+                    perPairPhasor(e0[0][k], e0[1][k], e1[0][k], e1[1][k], e0[2][k], e1[2][k], values);
+                    refI[k / n][k % n] = values[0];
+                    refQ[k / n][k % n] = values[1];
+                }
+            }
+            FlattenedPlaneCache.interfere(cache.get(pair[0]), cache.get(pair[1]), NODATA, ifgI, ifgQ, int0, int1);
+            for (int y = 0; y < n; ++y) {
+                for (int x = 0; x < n; ++x) {
+                    assertEquals(refI[y][x], ifgI[y][x], 1e-9);
+                    assertEquals(refQ[y][x], ifgQ[y][x], 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPerPair_Star() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        perPair(starPairs());
+    }
+
+    @Test
+    public void testFactorised_Star() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        factorised(starPairs());
+    }
+
+    @Test
+    public void testPerPair_Neighbours() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        perPair(neighbourPairs());
+    }
+
+    @Test
+    public void testFactorised_Neighbours() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        factorised(neighbourPairs());
+    }
+
+    @Test
+    public void testPerPair_AllPairs() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        perPair(allPairs());
+    }
+
+    @Test
+    public void testFactorised_AllPairs() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        factorised(allPairs());
+    }
+
+    private void perPair(final List<int[]> pairs) throws Exception {
+        final Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() {
+                final int n = TILE_SIZE;
+                final double[][] ifgI = new double[n][n], ifgQ = new double[n][n];
+                final double[][] int0 = new double[n][n], int1 = new double[n][n];
+                final double[] values = new double[4];
+                for (int[] pair : pairs) {
+                    final double[][] e0 = EPOCHS[pair[0]], e1 = EPOCHS[pair[1]];
+                    for (int y = 0; y < n; ++y) {
+                        for (int x = 0; x < n; ++x) {
+                            final int k = y * n + x;
+                            perPairPhasor(e0[0][k], e0[1][k], e1[0][k], e1[1][k], e0[2][k], e1[2][k], values);
+                            ifgI[y][x] = values[0];
+                            ifgQ[y][x] = values[1];
+                            int0[y][x] = values[2];
+                            int1[y][x] = values[3];
+                        }
+                    }
+                }
+                recordThroughput((long) pairs.size() * n * n);
+            }
+        };
+        b.run();
+    }
+
+    private void factorised(final List<int[]> pairs) throws Exception {
+        final Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() throws Exception {
+                final int n = TILE_SIZE;
+                final double[][] ifgI = new double[n][n], ifgQ = new double[n][n];
+                final double[][] int0 = new double[n][n], int1 = new double[n][n];
+                final FlattenedPlaneCache<Integer> cache = createCache();
+                for (int[] pair : pairs) {
+                    FlattenedPlaneCache.interfere(cache.get(pair[0]), cache.get(pair[1]), NODATA,
+                            ifgI, ifgQ, int0, int1);
+                }
+                recordThroughput((long) pairs.size() * n * n);
+            }
+        };
+        b.run();
+    }
+
+    /**
+     * Per pair formulation: the conjugate product rotated by the reference phase difference.
+     */
+    private static void perPairPhasor(final double valueI0, final double valueQ0,
+                                      final double valueI1, final double valueQ1,
+                                      final double referencePhase0, final double referencePhase1,
+                                      final double[] values) {
+        final double ifgPhasorI = valueI0 * valueI1 + valueQ0 * valueQ1;
+        final double ifgPhasorQ = -valueI0 * valueQ1 + valueQ0 * valueI1;
+        final double angle = referencePhase0 - referencePhase1;
+        final double cosAngle = FastMath.cos(angle);
+        final double sinAngle = FastMath.sin(angle);
+        values[0] = ifgPhasorI * cosAngle + ifgPhasorQ * sinAngle;
+        values[1] = -ifgPhasorI * sinAngle + ifgPhasorQ * cosAngle;
+        values[2] = valueI0 * valueI0 + valueQ0 * valueQ0;
+        values[3] = valueI1 * valueI1 + valueQ1 * valueQ1;
+    }
+
+    private static FlattenedPlaneCache<Integer> createCache() {
+        final int n = TILE_SIZE;
+        return new FlattenedPlaneCache<>(FlattenedPlaneCache.getMaxPlanes(n, n, MAX_CACHED_PLANE_BYTES), e -> {
+            final double[][] epoch = EPOCHS[e];
+            final FlattenedPlaneCache.Plane plane = new FlattenedPlaneCache.Plane(n, n);
+            for (int y = 0; y < n; ++y) {
+                for (int x = 0; x < n; ++x) {
+                    final int k = y * n + x;
+                    if (epoch[0][k] == NODATA) {
+                        plane.setNoData(x, y);
+                    } else {
+                        plane.set(x, y, epoch[0][k], epoch[1][k], epoch[2][k]);
+                    }
+                }
+            }
+            return plane;
+        });
+    }
+
+    /**
+     * Epoch 0 is the reference with zero reference phase. The others get a smooth flat earth
+     * ramp of a few thousand radians plus topographic noise, as over a real tile.
+     */
+    private static double[][][] createEpochs() {
+        final Random random = new Random(42);
+        final int n = TILE_SIZE;
+        final double[][][] epochs = new double[NUM_EPOCHS][3][n * n];
+        for (int e = 0; e < NUM_EPOCHS; ++e) {
+            final double baseline = e == 0 ? 0.0 : 1000.0 + 200.0 * random.nextGaussian();
+            for (int y = 0; y < n; ++y) {
+                for (int x = 0; x < n; ++x) {
+                    final int k = y * n + x;
+                    epochs[e][0][k] = random.nextGaussian();
+                    epochs[e][1][k] = random.nextGaussian();
+                    epochs[e][2][k] = e == 0 ? 0.0 : baseline * (1.0 + 0.001 * x) + random.nextGaussian();
+                }
+            }
+        }
+        return epochs;
+    }
+
+    private static List<int[]> starPairs() {
+        final List<int[]> pairs = new ArrayList<>();
+        for (int e = 1; e < NUM_EPOCHS; ++e) {
+            pairs.add(new int[]{0, e});
+        }
+        return pairs;
+    }
+
+    private static List<int[]> neighbourPairs() {
+        final List<int[]> pairs = new ArrayList<>();
+        for (int e = 0; e < NUM_EPOCHS; ++e) {
+            pairs.add(new int[]{e, (e + 1) % NUM_EPOCHS});
+            pairs.add(new int[]{e, (e + 2) % NUM_EPOCHS});
+        }
+        return pairs;
+    }
+
+    private static List<int[]> allPairs() {
+        final List<int[]> pairs = new ArrayList<>();
+        for (int e0 = 0; e0 < NUM_EPOCHS; ++e0) {
+            for (int e1 = e0 + 1; e1 < NUM_EPOCHS; ++e1) {
+                pairs.add(new int[]{e0, e1});
+            }
+        }
+        return pairs;
+    }
+}
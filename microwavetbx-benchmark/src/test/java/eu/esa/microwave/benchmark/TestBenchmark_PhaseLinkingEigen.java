@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import eu.esa.sar.insar.gpf.phaselinking.BatchedHermitianEigSolver;
+import eu.esa.sar.insar.gpf.phaselinking.HermitianEigSolver;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Benchmarks the per-pixel eigen decomposition used by phase linking: a full Jacobi
+ * decomposition of every coherence matrix against the warm-started Lanczos solver that
+ * only extracts the extremal eigenpair. The matrices are sample coherences of a
+ * neighbourhood of pixels, so consecutive matrices are similar as they are in an image row.
+ */
+public class TestBenchmark_PhaseLinkingEigen extends BaseBenchmarks {
+
+    private static final int NUM_MATRICES = 2000;
+    private static final int LOOKS = 60;
+
+    public TestBenchmark_PhaseLinkingEigen() {
+        super("PhaseLinkingEigen");
+    }
+
+    @Test
+    public void testJacobi_20() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        jacobi(20);
+    }
+
+    @Test
+    public void testBatched_20() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        batched(20);
+    }
+
+    @Test
+    public void testJacobi_50() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        jacobi(50);
+    }
+
+    @Test
+    public void testBatched_50() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        batched(50);
+    }
+
+    @Test
+    public void testJacobi_100() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        jacobi(100);
+    }
+
+    @Test
+    public void testBatched_100() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        batched(100);
+    }
+
+    private void jacobi(final int n) throws Exception {
+        final float[] packed = createCoherenceMatrices(n);
+        final Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() {
+                final int stride = BatchedHermitianEigSolver.packedSize(n);
+                final double[][] re = new double[n][n], im = new double[n][n];
+                final double[][] vecRe = new double[n][n], vecIm = new double[n][n];
+                final double[] values = new double[n];
+                for (int m = 0; m < NUM_MATRICES; m++) {
+                    unpack(n, packed, m * stride, re, im);
+                    HermitianEigSolver.decompose(n, re, im, vecRe, vecIm, values);
+                }
+                recordThroughput(NUM_MATRICES);
+            }
+        };
+        b.run();
+    }
+
+    private void batched(final int n) throws Exception {
+        final float[] packed = createCoherenceMatrices(n);
+        final Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() {
+                final BatchedHermitianEigSolver solver = new BatchedHermitianEigSolver(n);
+                final double[] vecRe = new double[NUM_MATRICES * n], vecIm = new double[NUM_MATRICES * n];
+                solver.solve(BatchedHermitianEigSolver.Target.LARGEST, packed, NUM_MATRICES, vecRe, vecIm, null);
+                recordThroughput(NUM_MATRICES);
+            }
+        };
+        b.run();
+    }
+
+    /**
+     * Sample coherence matrices of a distributed scatterer with exponentially decaying
+     * coherence, estimated from a sliding set of looks so neighbouring matrices overlap.
+     */
+    private static float[] createCoherenceMatrices(final int n) {
+        final Random random = new Random(7);
+        final double[] phase = new double[n];
+        for (int i = 0; i < n; i++) {
+            phase[i] = random.nextDouble() * 2 * Math.PI - Math.PI;
+        }
+        final double rho = 0.9;
+        final int numSamples = NUM_MATRICES + LOOKS;
+        final double[][] sRe = new double[numSamples][n], sIm = new double[numSamples][n];
+        for (int s = 0; s < numSamples; s++) {
+            // AR(1) in time gives coherence rho^|i-j| between epochs
+            double re = random.nextGaussian(), im = random.nextGaussian();
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    final double w = Math.sqrt(1 - rho * rho);
+                    re = rho * re + w * random.nextGaussian();
+                    im = rho * im + w * random.nextGaussian();
+                }
+                final double c = Math.cos(phase[i]), si = Math.sin(phase[i]);
+                sRe[s][i] = re * c - im * si;
+                sIm[s][i] = re * si + im * c;
+            }
+        }
+
+        final int stride = BatchedHermitianEigSolver.packedSize(n);
+        final float[] packed = new float[NUM_MATRICES * stride];
+        final double[][] re = new double[n][n], im = new double[n][n];
+        for (int m = 0; m < NUM_MATRICES; m++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = i; j < n; j++) {
+                    double accRe = 0, accIm = 0;
+                    for (int s = m; s < m + LOOKS; s++) {
+                        accRe += sRe[s][i] * sRe[s][j] + sIm[s][i] * sIm[s][j];
+                        accIm += sIm[s][i] * sRe[s][j] - sRe[s][i] * sIm[s][j];
+                    }
+                    re[i][j] = accRe / LOOKS;
+                    im[i][j] = accIm / LOOKS;
+                    re[j][i] = re[i][j];
+                    im[j][i] = -im[i][j];
+                }
+            }
+            BatchedHermitianEigSolver.pack(n, re, im, packed, m * stride);
+        }
+        return packed;
+    }
+
+    private static void unpack(final int n, final float[] packed, final int offset,
+                               final double[][] re, final double[][] im) {
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                final int p = offset + BatchedHermitianEigSolver.packedIndex(n, i, j);
+                re[i][j] = packed[p];
+                im[i][j] = packed[p + 1];
+                re[j][i] = packed[p];
+                im[j][i] = -packed[p + 1];
+            }
+        }
+    }
+}
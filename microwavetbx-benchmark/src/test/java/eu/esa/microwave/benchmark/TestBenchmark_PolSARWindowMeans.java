@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import eu.esa.sar.commons.polsar.PolBandUtils;
+import org.csa.rstb.polarimetric.gpf.support.QuadPolProcessor;
+import org.csa.rstb.polarimetric.gpf.support.SummedAreaMatrixTable;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.gpf.internal.TileImpl;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.Random;
+
+/**
+ * Benchmarks the windowed mean covariance matrix used by the quad-pol decompositions:
+ * rebuilding C3 for every pixel of every window against summed-area tables built once
+ * per source tile, at 5x5, 9x9 and 15x15 windows.
+ */
+public class TestBenchmark_PolSARWindowMeans extends BaseBenchmarks {
+
+    private static final int TILE_SIZE = 512;
+
+    private static final QuadPolProcessor PROCESSOR = new QuadPolProcessor() { };
+
+    public TestBenchmark_PolSARWindowMeans() {
+        super("PolSARWindowMeans");
+    }
+
+    @Test
+    public void testPerPixel_5x5() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        perPixel(5);
+    }
+
+    @Test
+    public void testSummedArea_5x5() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        summedArea(5);
+    }
+
+    @Test
+    public void testPerPixel_9x9() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        perPixel(9);
+    }
+
+    @Test
+    public void testSummedArea_9x9() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        summedArea(9);
+    }
+
+    @Test
+    public void testPerPixel_15x15() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        perPixel(15);
+    }
+
+    @Test
+    public void testSummedArea_15x15() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        summedArea(15);
+    }
+
+    private void perPixel(final int windowSize) throws Exception {
+        final int half = windowSize / 2;
+        final Rectangle sourceRect = new Rectangle(0, 0, TILE_SIZE + 2 * half, TILE_SIZE + 2 * half);
+        final Tile[] tiles = createQuadPolTiles(sourceRect);
+        final ProductData[] dataBuffers = getDataBuffers(tiles);
+
+        final Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() {
+                final double[][] cr = new double[3][3], ci = new double[3][3];
+                for (int y = half; y < half + TILE_SIZE; ++y) {
+                    for (int x = half; x < half + TILE_SIZE; ++x) {
+                        PROCESSOR.getMeanCovarianceMatrix(x, y, half, half, PolBandUtils.MATRIX.FULL,
+                                tiles, dataBuffers, cr, ci);
+                    }
+                }
+                recordThroughput((long) TILE_SIZE * TILE_SIZE);
+            }
+        };
+        b.run();
+    }
+
+    private void summedArea(final int windowSize) throws Exception {
+        final int half = windowSize / 2;
+        final Rectangle sourceRect = new Rectangle(0, 0, TILE_SIZE + 2 * half, TILE_SIZE + 2 * half);
+        final Tile[] tiles = createQuadPolTiles(sourceRect);
+        final ProductData[] dataBuffers = getDataBuffers(tiles);
+
+        final Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() {
+                final SummedAreaMatrixTable table = PROCESSOR.getMeanMatrices(sourceRect,
+                        SummedAreaMatrixTable.Type.C3, PolBandUtils.MATRIX.FULL, tiles, dataBuffers);
+                final double[][] cr = new double[3][3], ci = new double[3][3];
+                for (int y = half; y < half + TILE_SIZE; ++y) {
+                    for (int x = half; x < half + TILE_SIZE; ++x) {
+                        table.getMean(x, y, half, half, cr, ci);
+                    }
+                }
+                recordThroughput((long) TILE_SIZE * TILE_SIZE);
+            }
+        };
+        b.run();
+    }
+
+    private static Tile[] createQuadPolTiles(final Rectangle rect) {
+        final Product product = new Product("QuadPol", "SLC", rect.width, rect.height);
+        final Random random = new Random(42);
+        final Tile[] tiles = new Tile[8];
+        for (int i = 0; i < tiles.length; ++i) {
+            final Band band = product.addBand("band" + i, ProductData.TYPE_FLOAT32);
+            final float[] data = new float[rect.width * rect.height];
+            for (int k = 0; k < data.length; ++k) {
+                data[k] = (float) random.nextGaussian();
+            }
+            band.setData(ProductData.createInstance(data));
+            tiles[i] = new TileImpl(band, band.getSourceImage().getData(rect));
+        }
+        return tiles;
+    }
+
+    private static ProductData[] getDataBuffers(final Tile[] tiles) {
+        final ProductData[] dataBuffers = new ProductData[tiles.length];
+        for (int i = 0; i < tiles.length; ++i) {
+            dataBuffers[i] = tiles[i].getDataBuffer();
+        }
+        return dataBuffers;
+    }
+}
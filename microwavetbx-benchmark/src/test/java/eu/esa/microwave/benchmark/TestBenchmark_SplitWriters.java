@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.test.TestData;
+import eu.esa.sar.insar.gpf.coregistration.StackSplitWriter;
+import eu.esa.sar.utilities.gpf.TileWriterOp;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.VirtualBand;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.core.gpf.internal.OperatorExecutor;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * Throughput of the writers that split one product into many target files.
+ */
+public class TestBenchmark_SplitWriters extends BaseBenchmarks {
+
+    public TestBenchmark_SplitWriters() {
+        super("SplitWriters");
+    }
+
+    @Test
+    public void testGRD_tileWriter_4() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        tileWriter(grdFile, "4");
+    }
+
+    @Test
+    public void testGRD_tileWriter_256() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        tileWriter(grdFile, "256");
+    }
+
+    @Test
+    public void testStack_stackSplit() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        stackSplit(TestData.inputStackIMS);
+    }
+
+    private void tileWriter(final File srcFile, final String numberOfTiles) throws Exception {
+        Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() throws Exception {
+                final Product srcProduct = subset(srcFile, rect);
+
+                final TileWriterOp op = new TileWriterOp();
+                op.setSourceProduct(srcProduct);
+                op.setParameter("file", new File(outputFolder, srcProduct.getName() + ".dim"));
+                op.setParameter("formatName", DIMAP);
+                op.setParameter("numberOfTiles", numberOfTiles);
+
+                recordThroughput(countPixels(srcProduct));
+                runOperator(op);
+                srcProduct.dispose();
+            }
+        };
+        b.run();
+    }
+
+    private void stackSplit(final File srcFile) throws Exception {
+        Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() throws Exception {
+                final Product srcProduct = read(srcFile);
+
+                final StackSplitWriter op = new StackSplitWriter();
+                op.setSourceProduct(srcProduct);
+                op.setParameter("targetFolder", outputFolder);
+                op.setParameter("formatName", DIMAP);
+
+                recordThroughput(countPixels(srcProduct));
+                runOperator(op);
+                srcProduct.dispose();
+            }
+        };
+        b.run();
+    }
+
+    private static void runOperator(final Operator op) {
+        op.getTargetProduct();
+        OperatorExecutor.create(op).execute(ProgressMonitor.NULL);
+        op.dispose();
+    }
+
+    private static long countPixels(final Product product) {
+        long pixels = 0;
+        for (Band band : product.getBands()) {
+            if (!(band instanceof VirtualBand)) {
+                pixels += (long) band.getRasterWidth() * band.getRasterHeight();
+            }
+        }
+        return pixels;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.jmh;
+
+import org.jblas.ComplexDoubleMatrix;
+import org.jblas.DoubleMatrix;
+import org.jlinda.core.utils.SarUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sliding window coherence estimation of a 512 x 512 tile pair: {@link SarUtils#coherence2} and
+ * {@link SarUtils#coherence3} on jblas matrices against the running-sum kernel on interleaved arrays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoherenceBenchmark {
+
+    private static final int TILE_SIZE = 512;
+
+    @Param({"3"})
+    public int winAz;
+
+    @Param({"10", "20"})
+    public int winRg;
+
+    private ComplexDoubleMatrix master;
+    private ComplexDoubleMatrix slave;
+
+    private int rows;
+    private int cols;
+    private double[] reference;
+    private double[][] secondaries;
+    private float[][] results;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(3);
+        rows = TILE_SIZE + winAz - 1;
+        cols = TILE_SIZE + winRg - 1;
+        master = createSpeckle(rows, cols, random);
+
+        // partially coherent: the master plus independent speckle
+        slave = master.add(createSpeckle(rows, cols, random));
+
+        reference = toInterleaved(master);
+        secondaries = new double[][]{toInterleaved(slave)};
+        results = new float[1][TILE_SIZE * TILE_SIZE];
+    }
+
+    private static double[] toInterleaved(final ComplexDoubleMatrix matrix) {
+        final double[] data = new double[2 * matrix.length];
+        for (int r = 0; r < matrix.rows; r++) {
+            for (int c = 0; c < matrix.columns; c++) {
+                final int i = 2 * (r * matrix.columns + c);
+                data[i] = matrix.get(r, c).real();
+                data[i + 1] = matrix.get(r, c).imag();
+            }
+        }
+        return data;
+    }
+
+    private static ComplexDoubleMatrix createSpeckle(final int rows, final int cols, final Random random) {
+        final DoubleMatrix re = new DoubleMatrix(rows, cols);
+        final DoubleMatrix im = new DoubleMatrix(rows, cols);
+        for (int i = 0; i < re.length; i++) {
+            re.put(i, random.nextGaussian());
+            im.put(i, random.nextGaussian());
+        }
+        return new ComplexDoubleMatrix(re, im);
+    }
+
+    @Benchmark
+    public DoubleMatrix coherence2() {
+        return SarUtils.coherence2(master, slave, winAz, winRg);
+    }
+
+    @Benchmark
+    public DoubleMatrix coherence3() {
+        return SarUtils.coherence3(master, slave, winAz, winRg);
+    }
+
+    @Benchmark
+    public float[][] runningSum() {
+        SarUtils.coherence(reference, secondaries, rows, cols, winAz, winRg, results, 0, TILE_SIZE);
+        return results;
+    }
+}
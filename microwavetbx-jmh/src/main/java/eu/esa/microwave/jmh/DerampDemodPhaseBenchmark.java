@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.jmh;
+
+import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.commons.TOPSPhasePlane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TOPS deramp and demodulation of a 512 x 512 tile of an IW burst.
+ * <p>
+ * Sentinel1Utils.computeDerampDemodPhase only forwards to the burst's {@link TOPSPhasePlane},
+ * and constructing Sentinel1Utils needs a complete TOPS product, so the plane is benchmarked
+ * directly on a sub-swath with synthetic IW Doppler parameters: the phase as used by
+ * computeDerampDemodPhase, and the phasor generation that the back-geocoding and ESD
+ * operators use for exp(j phase).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DerampDemodPhaseBenchmark {
+
+    private static final int SAMPLES = 20000;
+    private static final int LINES = 1500;
+    private static final int NUM_BURSTS = 2;
+    private static final int TILE_SIZE = 512;
+
+    private Sentinel1Utils.SubSwathInfo subSwath;
+    private Rectangle rectangle;
+    private double[][] phase;
+    private float[] phasorRe;
+    private float[] phasorIm;
+
+    @Setup
+    public void setup() {
+        subSwath = new Sentinel1Utils.SubSwathInfo();
+        subSwath.numOfBursts = NUM_BURSTS;
+        subSwath.linesPerBurst = LINES;
+        subSwath.samplesPerBurst = SAMPLES;
+        subSwath.azimuthTimeInterval = 0.002055556;
+        subSwath.dopplerRate = new double[NUM_BURSTS][SAMPLES];
+        subSwath.referenceTime = new double[NUM_BURSTS][SAMPLES];
+        subSwath.dopplerCentroid = new double[NUM_BURSTS][SAMPLES];
+        for (int b = 0; b < NUM_BURSTS; b++) {
+            for (int x = 0; x < SAMPLES; x++) {
+                subSwath.dopplerRate[b][x] = 1750.0 + 0.02 * x;
+                subSwath.referenceTime[b][x] = 1.5 + 5.0e-6 * x;
+                subSwath.dopplerCentroid[b][x] = 20.0 - 0.002 * x;
+            }
+        }
+
+        rectangle = new Rectangle(SAMPLES / 2, LINES + (LINES - TILE_SIZE) / 2, TILE_SIZE, TILE_SIZE);
+        phase = new double[TILE_SIZE][TILE_SIZE];
+        phasorRe = new float[TILE_SIZE * TILE_SIZE];
+        phasorIm = new float[TILE_SIZE * TILE_SIZE];
+    }
+
+    @Benchmark
+    public double[][] computeDerampDemodPhase() {
+        TOPSPhasePlane.get(subSwath, 1, TOPSPhasePlane.Type.DERAMP_DEMOD).computePhase(rectangle, phase);
+        return phase;
+    }
+
+    @Benchmark
+    public float[] computeDerampDemodPhasor() {
+        TOPSPhasePlane.get(subSwath, 1, TOPSPhasePlane.Type.DERAMP_DEMOD).computePhasor(rectangle, phasorRe, phasorIm);
+        return phasorRe;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.jmh;
+
+import org.csa.rstb.polarimetric.gpf.decompositions.EigenDecomposition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jacobi eigen decomposition of Hermitian coherency matrices,
+ * {@link EigenDecomposition#eigenDecomposition}, as done per pixel by the H-A-Alpha and related
+ * decompositions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EigenDecompositionBenchmark {
+
+    private static final int NUM_MATRICES = 1024;
+    private static final int NUM_LOOKS = 25;
+
+    /** dual-pol C2 and quad-pol T3 */
+    @Param({"2", "3"})
+    public int n;
+
+    private double[][][] matricesRe;
+    private double[][][] matricesIm;
+    private double[][] eigenVectRe;
+    private double[][] eigenVectIm;
+    private double[] eigenVal;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(6);
+        matricesRe = new double[NUM_MATRICES][n][n];
+        matricesIm = new double[NUM_MATRICES][n][n];
+        for (int m = 0; m < NUM_MATRICES; m++) {
+            createCoherencyMatrix(random, matricesRe[m], matricesIm[m]);
+        }
+        eigenVectRe = new double[n][n];
+        eigenVectIm = new double[n][n];
+        eigenVal = new double[n];
+    }
+
+    /**
+     * Multi-looked sum of outer products k k^H of random scattering vectors: Hermitian, positive definite.
+     */
+    private void createCoherencyMatrix(final Random random, final double[][] re, final double[][] im) {
+        final double[] kr = new double[n];
+        final double[] ki = new double[n];
+        for (int look = 0; look < NUM_LOOKS; look++) {
+            for (int i = 0; i < n; i++) {
+                final double scale = 1.0 / (i + 1);
+                kr[i] = scale * random.nextGaussian();
+                ki[i] = scale * random.nextGaussian();
+            }
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    re[i][j] += (kr[i] * kr[j] + ki[i] * ki[j]) / NUM_LOOKS;
+                    im[i][j] += (ki[i] * kr[j] - kr[i] * ki[j]) / NUM_LOOKS;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_MATRICES)
+    public double eigenDecomposition() {
+        double sum = 0;
+        for (int m = 0; m < NUM_MATRICES; m++) {
+            EigenDecomposition.eigenDecomposition(n, matricesRe[m], matricesIm[m],
+                    eigenVectRe, eigenVectIm, eigenVal);
+            sum += eigenVal[0];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.jmh;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Runs the JMH command line with the given arguments and,
+ * unless a result format or file is given, writes the results as JSON to jmh-result.json.
+ * <pre>
+ *   java -jar microwavetbx-jmh/target/benchmarks.jar                  all benchmarks
+ *   java -jar microwavetbx-jmh/target/benchmarks.jar Coherence -f 1   benchmarks matching a regexp
+ *   java -jar microwavetbx-jmh/target/benchmarks.jar -l               list benchmarks
+ * </pre>
+ */
+public final class JmhMain {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private JmhMain() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Main.main(withJsonResult(args));
+    }
+
+    static String[] withJsonResult(final String[] args) {
+        final List<String> argList = Arrays.asList(args);
+        if (argList.contains("-rf") || argList.contains("-rff")) {
+            return args;
+        }
+        final List<String> result = new ArrayList<>(argList);
+        result.add("-rf");
+        result.add("json");
+        result.add("-rff");
+        result.add(DEFAULT_RESULT_FILE);
+        return result.toArray(new String[0]);
+    }
+}
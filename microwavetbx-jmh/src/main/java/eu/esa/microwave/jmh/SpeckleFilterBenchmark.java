@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.jmh;
+
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilterOp;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.Boxcar;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.Frost;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.GammaMap;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.IDAN;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.Lee;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.LeeSigma;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.Median;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.MuLog;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.RefinedLee;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilters.SpeckleFilter;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.gpf.FilterWindow;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering of one 256 x 256 tile of a single-look intensity image by each of the
+ * {@link SpeckleFilter} kernels of {@link SpeckleFilterOp}, with the operator's default windows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpeckleFilterBenchmark {
+
+    private static final int IMAGE_SIZE = 1024;
+    private static final int TILE_SIZE = 256;
+    private static final int WINDOW_SIZE = 7;
+    private static final String BAND_NAME = "Intensity_VV";
+    private static final String[] SOURCE_BAND_NAMES = {BAND_NAME};
+
+    @Param({SpeckleFilterOp.BOXCAR_SPECKLE_FILTER, SpeckleFilterOp.MEDIAN_SPECKLE_FILTER,
+            SpeckleFilterOp.FROST_SPECKLE_FILTER, SpeckleFilterOp.GAMMA_MAP_SPECKLE_FILTER,
+            SpeckleFilterOp.LEE_SPECKLE_FILTER, SpeckleFilterOp.LEE_REFINED_FILTER,
+            SpeckleFilterOp.LEE_SIGMA_FILTER, SpeckleFilterOp.IDAN_FILTER, SpeckleFilterOp.MULOG_FILTER})
+    public String filter;
+
+    private Product sourceProduct;
+    private SpeckleFilter speckleFilter;
+
+    @Setup
+    public void setup() {
+        sourceProduct = createSourceProduct();
+
+        // the operator supplies the source tiles to the filter
+        final SpeckleFilterOp op = new SpeckleFilterOp();
+        op.setSourceProduct(sourceProduct);
+        op.setParameter("filter", filter);
+        final Product targetProduct = op.getTargetProduct();
+
+        final Map<String, String[]> bandNameMap = new HashMap<>();
+        bandNameMap.put(BAND_NAME, SOURCE_BAND_NAMES);
+        speckleFilter = createFilter(op, targetProduct, bandNameMap);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sourceProduct.dispose();
+    }
+
+    private SpeckleFilter createFilter(final SpeckleFilterOp op, final Product targetProduct,
+                                       final Map<String, String[]> bandNameMap) {
+        switch (filter) {
+            case SpeckleFilterOp.BOXCAR_SPECKLE_FILTER:
+                return new Boxcar(op, sourceProduct, targetProduct, WINDOW_SIZE, WINDOW_SIZE, bandNameMap);
+            case SpeckleFilterOp.MEDIAN_SPECKLE_FILTER:
+                return new Median(op, sourceProduct, targetProduct, WINDOW_SIZE, WINDOW_SIZE, bandNameMap);
+            case SpeckleFilterOp.FROST_SPECKLE_FILTER:
+                return new Frost(op, sourceProduct, targetProduct, WINDOW_SIZE, WINDOW_SIZE, bandNameMap, 2);
+            case SpeckleFilterOp.GAMMA_MAP_SPECKLE_FILTER:
+                return new GammaMap(op, sourceProduct, targetProduct, WINDOW_SIZE, WINDOW_SIZE, bandNameMap,
+                        false, 1.0);
+            case SpeckleFilterOp.LEE_SPECKLE_FILTER:
+                return new Lee(op, sourceProduct, targetProduct, WINDOW_SIZE, WINDOW_SIZE, bandNameMap,
+                        false, 1.0);
+            case SpeckleFilterOp.LEE_REFINED_FILTER:
+                return new RefinedLee(op, sourceProduct, targetProduct, bandNameMap);
+            case SpeckleFilterOp.LEE_SIGMA_FILTER:
+                return new LeeSigma(op, sourceProduct, targetProduct, bandNameMap, SpeckleFilterOp.NUM_LOOKS_1,
+                        FilterWindow.SIZE_7x7, FilterWindow.SIZE_3x3, SpeckleFilterOp.SIGMA_90_PERCENT);
+            case SpeckleFilterOp.IDAN_FILTER:
+                return new IDAN(op, sourceProduct, targetProduct, bandNameMap, SpeckleFilterOp.NUM_LOOKS_1, 50);
+            case SpeckleFilterOp.MULOG_FILTER:
+                return new MuLog(op, sourceProduct, targetProduct, bandNameMap);
+            default:
+                throw new IllegalArgumentException("Unknown filter " + filter);
+        }
+    }
+
+    /**
+     * Single-look intensity: exponentially distributed speckle over a scene with bright and dark fields.
+     */
+    private static Product createSourceProduct() {
+        final Product product = TestUtils.createProduct("GRD", IMAGE_SIZE, IMAGE_SIZE);
+        final Random random = new Random(5);
+        final float[] data = new float[IMAGE_SIZE * IMAGE_SIZE];
+        for (int y = 0; y < IMAGE_SIZE; y++) {
+            for (int x = 0; x < IMAGE_SIZE; x++) {
+                final double reflectivity = ((x / 64 + y / 64) % 2 == 0) ? 0.2 : 0.02;
+                data[y * IMAGE_SIZE + x] = (float) (-reflectivity * Math.log(1.0 - random.nextDouble()));
+            }
+        }
+        final Band band = new Band(BAND_NAME, ProductData.TYPE_FLOAT32, IMAGE_SIZE, IMAGE_SIZE);
+        band.setUnit(Unit.INTENSITY);
+        band.setData(ProductData.createInstance(data));
+        product.addBand(band);
+        return product;
+    }
+
+    @Benchmark
+    public double[][] performFiltering() {
+        final int offset = (IMAGE_SIZE - TILE_SIZE) / 2;
+        return speckleFilter.performFiltering(offset, offset, TILE_SIZE, TILE_SIZE, SOURCE_BAND_NAMES);
+    }
+}
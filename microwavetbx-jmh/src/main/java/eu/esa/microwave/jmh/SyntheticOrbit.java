@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.jmh;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
+import org.esa.snap.engine_utilities.datamodel.PosVector;
+import org.esa.snap.engine_utilities.eo.Constants;
+
+import java.util.Random;
+
+/**
+ * Circular polar orbit at Sentinel-1 altitude with state vectors every 10 s, and ground points
+ * to the right of the ground track that are seen at zero Doppler during the acquisition.
+ */
+public final class SyntheticOrbit {
+
+    public static final double FIRST_VECTOR_MJD = 7305.0;
+    public static final double VECTOR_INTERVAL_SEC = 10.0;
+    public static final double LINE_TIME_INTERVAL_SEC = 0.002055556;
+    public static final double WAVELENGTH = 0.05546576;
+
+    private static final double ORBIT_RADIUS = 7071000.0;
+    private static final double EARTH_RADIUS = 6371000.0;
+    private static final double ANGULAR_RATE = Constants.TWO_PI / 5924.0;
+    private static final double SEC_PER_DAY = 86400.0;
+
+    private SyntheticOrbit() {
+    }
+
+    public static OrbitStateVector[] createStateVectors(final int numVectors) {
+        final OrbitStateVector[] vectors = new OrbitStateVector[numVectors];
+        for (int i = 0; i < numVectors; i++) {
+            final double t = i * VECTOR_INTERVAL_SEC;
+            final double theta = ANGULAR_RATE * t;
+            final double v = ORBIT_RADIUS * ANGULAR_RATE;
+            vectors[i] = new OrbitStateVector(new ProductData.UTC(FIRST_VECTOR_MJD + t / SEC_PER_DAY),
+                    ORBIT_RADIUS * Math.cos(theta), 0.0, ORBIT_RADIUS * Math.sin(theta),
+                    -v * Math.sin(theta), 0.0, v * Math.cos(theta));
+        }
+        return vectors;
+    }
+
+    /**
+     * @return MJD of the first line of an acquisition centred in the span of the state vectors
+     */
+    public static double getFirstLineTime(final int numVectors, final int numLines) {
+        final double spanSec = (numVectors - 1) * VECTOR_INTERVAL_SEC;
+        final double startSec = 0.5 * (spanSec - numLines * LINE_TIME_INTERVAL_SEC);
+        return FIRST_VECTOR_MJD + startSec / SEC_PER_DAY;
+    }
+
+    public static double getLineTimeInterval() {
+        return LINE_TIME_INTERVAL_SEC / SEC_PER_DAY;
+    }
+
+    /**
+     * @return MJD times spread randomly over the acquisition
+     */
+    public static double[] createLineTimes(final int numVectors, final int numLines, final int count) {
+        final double firstLineTime = getFirstLineTime(numVectors, numLines);
+        final Random random = new Random(1);
+        final double[] times = new double[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = firstLineTime + random.nextDouble() * numLines * getLineTimeInterval();
+        }
+        return times;
+    }
+
+    /**
+     * @return earth points in a 250 km swath 200 km off the ground track, inside the acquisition
+     */
+    public static PosVector[] createEarthPoints(final int numVectors, final int numLines, final int count) {
+        final double firstLineSec = (getFirstLineTime(numVectors, numLines) - FIRST_VECTOR_MJD) * SEC_PER_DAY;
+        final Random random = new Random(2);
+        final PosVector[] points = new PosVector[count];
+        for (int i = 0; i < count; i++) {
+            final double sec = firstLineSec + (0.05 + 0.9 * random.nextDouble()) * numLines * LINE_TIME_INTERVAL_SEC;
+            final double phi = ANGULAR_RATE * sec;
+            final double beta = (200000.0 + 250000.0 * random.nextDouble()) / EARTH_RADIUS;
+            points[i] = new PosVector(EARTH_RADIUS * Math.cos(phi) * Math.cos(beta),
+                    EARTH_RADIUS * Math.sin(beta),
+                    EARTH_RADIUS * Math.sin(phi) * Math.cos(beta));
+        }
+        return points;
+    }
+}
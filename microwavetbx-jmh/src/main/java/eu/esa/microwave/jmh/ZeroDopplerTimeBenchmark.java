@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.jmh;
+
+import eu.esa.sar.commons.OrbitStateVectors;
+import eu.esa.sar.commons.SARGeocoding;
+import org.esa.snap.engine_utilities.datamodel.PosVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary search for the zero Doppler time of an earth point,
+ * {@link SARGeocoding#getEarthPointZeroDopplerTime}, over per-line sensor positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZeroDopplerTimeBenchmark {
+
+    private static final int NUM_VECTORS = 17;
+    private static final int NUM_POINTS = 4096;
+
+    /** lines of a TOPS burst and of a stripmap scene */
+    @Param({"1500", "15000"})
+    public int numLines;
+
+    private double firstLineTime;
+    private double lineTimeInterval;
+    private PosVector[] sensorPosition;
+    private PosVector[] sensorVelocity;
+    private PosVector[] earthPoints;
+
+    @Setup
+    public void setup() {
+        firstLineTime = SyntheticOrbit.getFirstLineTime(NUM_VECTORS, numLines);
+        lineTimeInterval = SyntheticOrbit.getLineTimeInterval();
+        final OrbitStateVectors orbit = new OrbitStateVectors(SyntheticOrbit.createStateVectors(NUM_VECTORS),
+                firstLineTime, lineTimeInterval, numLines);
+        sensorPosition = orbit.sensorPosition;
+        sensorVelocity = orbit.sensorVelocity;
+        earthPoints = SyntheticOrbit.createEarthPoints(NUM_VECTORS, numLines, NUM_POINTS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_POINTS)
+    public double getEarthPointZeroDopplerTime() {
+        double sum = 0;
+        for (PosVector earthPoint : earthPoints) {
+            sum += SARGeocoding.getEarthPointZeroDopplerTime(firstLineTime, lineTimeInterval,
+                    SyntheticOrbit.WAVELENGTH, earthPoint, sensorPosition, sensorVelocity);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import eu.esa.microwave.jmh.SyntheticOrbit;
+import org.esa.snap.engine_utilities.datamodel.PosVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lagrange interpolation of the sensor position, {@link OrbitStateVectors#getPosition}.
+ * Lives in the package of {@link OrbitStateVectors} since getPosition is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrbitStateVectorsBenchmark {
+
+    private static final int NUM_LINES = 15000;
+    private static final int NUM_TIMES = 4096;
+
+    /** annotation orbit vs. a precise orbit segment */
+    @Param({"17", "120"})
+    public int numVectors;
+
+    private OrbitStateVectors orbit;
+    private double[] times;
+    private final PosVector position = new PosVector();
+
+    @Setup
+    public void setup() {
+        orbit = new OrbitStateVectors(SyntheticOrbit.createStateVectors(numVectors));
+        times = SyntheticOrbit.createLineTimes(numVectors, NUM_LINES, NUM_TIMES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_TIMES)
+    public double getPosition() {
+        double sum = 0;
+        for (double time : times) {
+            sum += orbit.getPosition(time, position).x;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.filtering;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering of one FFT block by {@link GoldsteinFilterOp}: forward 2-D FFT, power spectrum,
+ * smoothed and weighted spectrum, inverse 2-D FFT. Lives in the package of the operator since
+ * the block functions are package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoldsteinFilterBenchmark {
+
+    private static final double ALPHA = 0.5;
+    private static final int HALF_WINDOW_SIZE = 1;
+
+    @Param({"32", "64", "128"})
+    public int fftSize;
+
+    private double[][] inI, inQ;
+    private double[][] specI, specQ, pwrSpec, fltSpec;
+    private double[][] outI, outQ;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(4);
+        inI = new double[fftSize][fftSize];
+        inQ = new double[fftSize][fftSize];
+        for (int r = 0; r < fftSize; r++) {
+            for (int c = 0; c < fftSize; c++) {
+                // interferometric fringes plus phase noise
+                final double phase = 0.3 * c + 0.1 * r + 0.8 * random.nextGaussian();
+                inI[r][c] = Math.cos(phase);
+                inQ[r][c] = Math.sin(phase);
+            }
+        }
+        specI = new double[fftSize][fftSize];
+        specQ = new double[fftSize][fftSize];
+        pwrSpec = new double[fftSize][fftSize];
+        fltSpec = new double[fftSize][fftSize];
+        outI = new double[fftSize][fftSize];
+        outQ = new double[fftSize][fftSize];
+    }
+
+    @Benchmark
+    public double[][] forwardFFT() {
+        GoldsteinFilterOp.perform2DFFT(inI, inQ, specI, specQ);
+        return specI;
+    }
+
+    @Benchmark
+    public double[][] filterBlock() {
+        GoldsteinFilterOp.perform2DFFT(inI, inQ, specI, specQ);
+        GoldsteinFilterOp.getPowerSpectrum(specI, specQ, pwrSpec);
+        GoldsteinFilterOp.getFilteredPowerSpectrum(pwrSpec, fltSpec, ALPHA, HALF_WINDOW_SIZE);
+        GoldsteinFilterOp.performInverse2DFFT(specI, specQ, fltSpec, outI, outQ);
+        return outI;
+    }
+}
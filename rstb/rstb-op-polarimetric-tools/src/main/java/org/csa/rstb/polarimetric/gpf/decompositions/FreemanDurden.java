@@ -16,6 +16,7 @@
 package org.csa.rstb.polarimetric.gpf.decompositions;
 
 import org.csa.rstb.polarimetric.gpf.support.QuadPolProcessor;
+import org.csa.rstb.polarimetric.gpf.support.SummedAreaMatrixTable;
 import eu.esa.sar.commons.polsar.PolBandUtils;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.ProductData;
@@ -126,6 +127,8 @@ public class FreemanDurden extends DecompositionBase implements Decomposition, Q
             final ProductData[] dataBuffers = new ProductData[bandList.srcBands.length];
             final Rectangle sourceRectangle = getSourceRectangle(x0, y0, w, h);
             getQuadPolDataBuffer(op, bandList.srcBands, sourceRectangle, sourceProductType, sourceTiles, dataBuffers);
+            final SummedAreaMatrixTable meanMatrices = getMeanMatrices(sourceRectangle, SummedAreaMatrixTable.Type.C3,
+                    sourceProductType, sourceTiles, dataBuffers);
 
             final TileIndex srcIndex = new TileIndex(sourceTiles[0]);
             final double nodatavalue = bandList.srcBands[0].getNoDataValue();
@@ -139,8 +142,6 @@ public class FreemanDurden extends DecompositionBase implements Decomposition, Q
                 srcIndex.calculateStride(y);
                 for (int x = x0; x < maxX; ++x) {
 
-                    getMeanCovarianceMatrix(x, y, halfWindowSizeX, halfWindowSizeY,
-                            sourceProductType, sourceTiles, dataBuffers, Cr, Ci);
                     boolean isNoData = isNoData(dataBuffers, srcIndex.getIndex(x), nodatavalue);
 
                     if (isNoData) {
@@ -150,6 +151,8 @@ public class FreemanDurden extends DecompositionBase implements Decomposition, Q
                         continue;
                     }
 
+                    meanMatrices.getMean(x, y, halfWindowSizeX, halfWindowSizeY, Cr, Ci);
+
                     //covariance.getMeanCovarianceMatrix(x, y, Cr, Ci);
 
                     final FDD data = getFreemanDurdenDecomposition(Cr, Ci);
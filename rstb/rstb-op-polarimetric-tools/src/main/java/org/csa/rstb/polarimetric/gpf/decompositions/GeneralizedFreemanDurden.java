@@ -16,6 +16,7 @@
 package org.csa.rstb.polarimetric.gpf.decompositions;
 
 import org.csa.rstb.polarimetric.gpf.support.QuadPolProcessor;
+import org.csa.rstb.polarimetric.gpf.support.SummedAreaMatrixTable;
 import eu.esa.sar.commons.polsar.PolBandUtils;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.ProductData;
@@ -130,6 +131,8 @@ public class GeneralizedFreemanDurden extends DecompositionBase implements Decom
             final ProductData[] dataBuffers = new ProductData[bandList.srcBands.length];
             final Rectangle sourceRectangle = getSourceRectangle(x0, y0, w, h);
             getQuadPolDataBuffer(op, bandList.srcBands, sourceRectangle, sourceProductType, sourceTiles, dataBuffers);
+            final SummedAreaMatrixTable meanMatrices = getMeanMatrices(sourceRectangle, SummedAreaMatrixTable.Type.T3,
+                    sourceProductType, sourceTiles, dataBuffers);
 
             final TileIndex srcIndex = new TileIndex(sourceTiles[0]);
             final double nodatavalue = bandList.srcBands[0].getNoDataValue();
@@ -147,8 +150,7 @@ public class GeneralizedFreemanDurden extends DecompositionBase implements Decom
                         continue;
                     }
 
-                    getMeanCoherencyMatrix(x, y, halfWindowSizeX, halfWindowSizeY, srcImageWidth,
-                            srcImageHeight, sourceProductType, srcIndex, dataBuffers, Tr, Ti);
+                    meanMatrices.getMean(x, y, halfWindowSizeX, halfWindowSizeY, Tr, Ti);
 
                     final FDD data = getGeneralizedFreemanDurdenDecomposition(Tr, Ti);
 
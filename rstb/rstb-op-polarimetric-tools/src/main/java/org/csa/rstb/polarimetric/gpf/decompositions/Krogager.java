@@ -17,6 +17,7 @@ package org.csa.rstb.polarimetric.gpf.decompositions;
 
 import org.apache.commons.math3.util.FastMath;
 import org.csa.rstb.polarimetric.gpf.support.QuadPolProcessor;
+import org.csa.rstb.polarimetric.gpf.support.SummedAreaMatrixTable;
 import eu.esa.sar.commons.polsar.PolBandUtils;
 import eu.esa.sar.commons.polsar.PolBandUtils.MATRIX;
 import org.esa.snap.core.datamodel.Band;
@@ -127,6 +128,8 @@ public class Krogager extends DecompositionBase implements Decomposition, QuadPo
             final ProductData[] dataBuffers = new ProductData[bandList.srcBands.length];
             final Rectangle sourceRectangle = getSourceRectangle(x0, y0, w, h);
             getQuadPolDataBuffer(op, bandList.srcBands, sourceRectangle, sourceProductType, sourceTiles, dataBuffers);
+            final SummedAreaMatrixTable meanMatrices = getMeanMatrices(sourceRectangle, SummedAreaMatrixTable.Type.T3,
+                    sourceProductType, sourceTiles, dataBuffers);
 
             final TileIndex srcIndex = new TileIndex(sourceTiles[0]);
             final double nodatavalue = bandList.srcBands[0].getNoDataValue();
@@ -144,8 +147,7 @@ public class Krogager extends DecompositionBase implements Decomposition, QuadPo
                         continue;
                     }
 
-                    getMeanCoherencyMatrix(x, y, halfWindowSizeX, halfWindowSizeY, sourceImageWidth, sourceImageHeight,
-                            sourceProductType, srcIndex, dataBuffers, Tr, Ti);
+                    meanMatrices.getMean(x, y, halfWindowSizeX, halfWindowSizeY, Tr, Ti);
 
 //                    getCoherencyMatrixT3(srcIndex.getIndex(x), sourceProductType, dataBuffers, Tr, Ti);
 
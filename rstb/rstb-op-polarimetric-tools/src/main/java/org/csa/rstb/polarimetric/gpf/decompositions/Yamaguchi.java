@@ -16,6 +16,7 @@
 package org.csa.rstb.polarimetric.gpf.decompositions;
 
 import org.csa.rstb.polarimetric.gpf.support.QuadPolProcessor;
+import org.csa.rstb.polarimetric.gpf.support.SummedAreaMatrixTable;
 import eu.esa.sar.commons.polsar.PolBandUtils;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.ProductData;
@@ -127,14 +128,15 @@ public class Yamaguchi extends DecompositionBase implements Decomposition, QuadP
             final ProductData[] dataBuffers = new ProductData[bandList.srcBands.length];
             final Rectangle sourceRectangle = getSourceRectangle(x0, y0, w, h);
             getQuadPolDataBuffer(op, bandList.srcBands, sourceRectangle, sourceProductType, sourceTiles, dataBuffers);
+            final SummedAreaMatrixTable meanMatrices = getMeanMatrices(sourceRectangle, SummedAreaMatrixTable.Type.C3,
+                    sourceProductType, sourceTiles, dataBuffers);
 
             double pd, pv, ps, pc;
             for (int y = y0; y < maxY; ++y) {
                 trgIndex.calculateStride(y);
                 for (int x = x0; x < maxX; ++x) {
 
-                    getMeanCovarianceMatrix(x, y, halfWindowSizeX, halfWindowSizeY,
-                            sourceProductType, sourceTiles, dataBuffers, Cr, Ci);
+                    meanMatrices.getMean(x, y, halfWindowSizeX, halfWindowSizeY, Cr, Ci);
 
                     final YDD data = getYamaguchiDecomposition(Cr, Ci);
 
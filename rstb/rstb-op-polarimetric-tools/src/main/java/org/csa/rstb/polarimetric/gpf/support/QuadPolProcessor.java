@@ -1194,7 +1194,7 @@ public interface QuadPolProcessor extends PolarimetricProcessor, MatrixMath {
         matrixTimesEquals(crMat, 1.0 / num);
         matrixTimesEquals(ciMat, 1.0 / num);
 
-        for (int i = 0; i < 3; i++) {
+        for (int i = 0; i < 4; i++) {
             Cr[i][0] = crMat[i][0];
             Ci[i][0] = ciMat[i][0];
 
@@ -1209,6 +1209,26 @@ public interface QuadPolProcessor extends PolarimetricProcessor, MatrixMath {
         }
     }
 
+    /**
+     * Get the mean matrices of a whole tile at once. The returned summed-area tables give the
+     * window mean at any pixel of the source rectangle in constant time, replacing per-pixel
+     * calls to getMeanCoherencyMatrix, getMeanCovarianceMatrix, getMeanCovarianceMatrixC4 and
+     * getMeanScatterMatrix.
+     *
+     * @param sourceRectangle   The source rectangle; windows are clipped to it.
+     * @param type              The matrix to average.
+     * @param sourceProductType The source product type.
+     * @param sourceTiles       The source tiles for all bands.
+     * @param dataBuffers       Source tile data buffers.
+     * @return the mean matrices for the source rectangle
+     */
+    default SummedAreaMatrixTable getMeanMatrices(
+            final Rectangle sourceRectangle, final SummedAreaMatrixTable.Type type,
+            final PolBandUtils.MATRIX sourceProductType, final Tile[] sourceTiles, final ProductData[] dataBuffers) {
+
+        return new SummedAreaMatrixTable(this, type, sourceProductType, sourceRectangle, sourceTiles[0], dataBuffers);
+    }
+
     /**
      * Get covariance matrix C4 for given pixel.
      *
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.csa.rstb.polarimetric.gpf.support;
+
+import eu.esa.sar.commons.polsar.PolBandUtils;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Complex summed-area tables of a polarimetric matrix over a source rectangle.
+ * <p>
+ * The matrix of every source pixel is formed once and its independent elements are
+ * accumulated into a table of prefix sums, so the mean over any window inside the rectangle
+ * costs four lookups per element instead of rebuilding the matrix for every pixel of the
+ * window. Windows are clipped to the rectangle as in the per-pixel getMean methods of
+ * {@link QuadPolProcessor}.
+ * <p>
+ * Pixels whose matrix has a NaN or infinite element are left out of the sums and a parallel
+ * table counts the valid pixels, so such a pixel only affects the windows that contain it, and
+ * window means are taken over the valid pixels only.
+ * <p>
+ * The table holds one double per independent element per pixel, so a C3 or T3 table takes
+ * 9 doubles per pixel of the source rectangle and a C4 or T4 table 16.
+ */
+public final class SummedAreaMatrixTable {
+
+    public enum Type {
+        S2(2, false), C3(3, true), T3(3, true), C4(4, true), T4(4, true);
+
+        private final int size;
+        private final boolean hermitian;
+
+        Type(final int size, final boolean hermitian) {
+            this.size = size;
+            this.hermitian = hermitian;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+
+    private final Type type;
+    private final int n;
+    private final Rectangle rectangle;
+    private final int tableWidth;
+
+    // element e is the real part (imag[e] == false) or imaginary part of matrix entry (row[e], col[e])
+    private final int numElements;
+    private final int[] row;
+    private final int[] col;
+    private final boolean[] imag;
+
+    // prefix sums over [rect.x, x) x [rect.y, y), interleaved by element
+    private final double[] table;
+    // prefix counts of the pixels with a finite matrix, over the same areas
+    private final int[] validCount;
+
+    /**
+     * Builds the tables over the given rectangle of the source tiles.
+     *
+     * @param processor         provides the per-pixel matrix conversions
+     * @param type              the matrix to average
+     * @param sourceProductType the source product type
+     * @param sourceRectangle   area covered by the tables; windows are clipped to it
+     * @param sourceTile        any source tile, for the pixel indexing of the data buffers
+     * @param dataBuffers       source tile data buffers
+     */
+    public SummedAreaMatrixTable(final QuadPolProcessor processor, final Type type,
+                                 final PolBandUtils.MATRIX sourceProductType, final Rectangle sourceRectangle,
+                                 final Tile sourceTile, final ProductData[] dataBuffers) {
+
+        if (type == Type.S2 && sourceProductType != PolBandUtils.MATRIX.FULL) {
+            throw new OperatorException("Quad-pol source product is expected");
+        }
+
+        this.type = type;
+        this.n = type.size;
+        this.rectangle = sourceRectangle.intersection(sourceTile.getRectangle());
+
+        int count = 0;
+        final int maxElements = 2 * n * n;
+        final int[] r = new int[maxElements], c = new int[maxElements];
+        final boolean[] im = new boolean[maxElements];
+        for (int i = 0; i < n; ++i) {
+            for (int j = type.hermitian ? i : 0; j < n; ++j) {
+                r[count] = i;
+                c[count] = j;
+                im[count++] = false;
+                if (!type.hermitian || i != j) {
+                    r[count] = i;
+                    c[count] = j;
+                    im[count++] = true;
+                }
+            }
+        }
+        this.numElements = count;
+        this.row = Arrays.copyOf(r, count);
+        this.col = Arrays.copyOf(c, count);
+        this.imag = Arrays.copyOf(im, count);
+
+        final int w = rectangle.width;
+        final int h = rectangle.height;
+        this.tableWidth = w + 1;
+        this.table = new double[(h + 1) * tableWidth * numElements];
+        this.validCount = new int[(h + 1) * tableWidth];
+
+        final double[][] mr = new double[n][n];
+        final double[][] mi = new double[n][n];
+        final double[][] sr = new double[2][2];
+        final double[][] si = new double[2][2];
+        final double[] rowSum = new double[numElements];
+        final TileIndex srcIndex = new TileIndex(sourceTile);
+
+        for (int y = 0; y < h; ++y) {
+            srcIndex.calculateStride(rectangle.y + y);
+            Arrays.fill(rowSum, 0.0);
+            int rowCount = 0;
+            final int above = (y * tableWidth + 1) * numElements;
+            int out = ((y + 1) * tableWidth + 1) * numElements;
+            for (int x = 0; x < w; ++x) {
+                getMatrix(processor, sourceProductType, srcIndex.getIndex(rectangle.x + x), dataBuffers,
+                        sr, si, mr, mi);
+                if (isFinite(mr, mi)) {
+                    for (int e = 0; e < numElements; ++e) {
+                        rowSum[e] += imag[e] ? mi[row[e]][col[e]] : mr[row[e]][col[e]];
+                    }
+                    ++rowCount;
+                }
+                final int up = above + x * numElements;
+                for (int e = 0; e < numElements; ++e) {
+                    table[out + e] = table[up + e] + rowSum[e];
+                }
+                validCount[(y + 1) * tableWidth + x + 1] = validCount[y * tableWidth + x + 1] + rowCount;
+                out += numElements;
+            }
+        }
+    }
+
+    private boolean isFinite(final double[][] mr, final double[][] mi) {
+        for (int e = 0; e < numElements; ++e) {
+            if (!Double.isFinite(imag[e] ? mi[row[e]][col[e]] : mr[row[e]][col[e]])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void getMatrix(final QuadPolProcessor processor, final PolBandUtils.MATRIX sourceProductType,
+                           final int index, final ProductData[] dataBuffers,
+                           final double[][] sr, final double[][] si, final double[][] mr, final double[][] mi) {
+
+        if (sourceProductType == PolBandUtils.MATRIX.FULL) {
+            // avoid the temporary arrays of the generic per-pixel getters
+            processor.getComplexScatterMatrix(index, dataBuffers, sr, si);
+            switch (type) {
+                case S2:
+                    for (int i = 0; i < 2; ++i) {
+                        System.arraycopy(sr[i], 0, mr[i], 0, 2);
+                        System.arraycopy(si[i], 0, mi[i], 0, 2);
+                    }
+                    break;
+                case C3:
+                    processor.computeCovarianceMatrixC3(sr, si, mr, mi);
+                    break;
+                case T3:
+                    processor.computeCoherencyMatrixT3(sr, si, mr, mi);
+                    break;
+                case C4:
+                    processor.computeCovarianceMatrixC4(sr, si, mr, mi);
+                    break;
+                case T4:
+                    processor.computeCoherencyMatrixT4(sr, si, mr, mi);
+                    break;
+            }
+            return;
+        }
+
+        switch (type) {
+            case C3:
+                processor.getCovarianceMatrixC3(index, sourceProductType, dataBuffers, mr, mi);
+                break;
+            case T3:
+                processor.getCoherencyMatrixT3(index, sourceProductType, dataBuffers, mr, mi);
+                break;
+            case C4:
+                processor.getCovarianceMatrixC4(index, sourceProductType, dataBuffers, mr, mi);
+                break;
+            case T4:
+                processor.getCoherencyMatrixT4(index, sourceProductType, dataBuffers, mr, mi);
+                break;
+            default:
+                break;
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Rectangle getRectangle() {
+        return rectangle;
+    }
+
+    /**
+     * Get the mean matrix over the valid pixels of the window centred on the given pixel. The mean is
+     * NaN if the window has no valid pixel.
+     *
+     * @param x               X coordinate of the given pixel.
+     * @param y               Y coordinate of the given pixel.
+     * @param halfWindowSizeX The sliding window size / 2
+     * @param halfWindowSizeY The sliding window size / 2
+     * @param re              The real part of the mean matrix.
+     * @param im              The imaginary part of the mean matrix.
+     */
+    public void getMean(final int x, final int y, final int halfWindowSizeX, final int halfWindowSizeY,
+                        final double[][] re, final double[][] im) {
+
+        final int xSt = Math.max(x - halfWindowSizeX, rectangle.x) - rectangle.x;
+        final int xEd = Math.min(x + halfWindowSizeX, rectangle.x + rectangle.width - 1) - rectangle.x + 1;
+        final int ySt = Math.max(y - halfWindowSizeY, rectangle.y) - rectangle.y;
+        final int yEd = Math.min(y + halfWindowSizeY, rectangle.y + rectangle.height - 1) - rectangle.y + 1;
+
+        final int a = yEd * tableWidth + xEd;
+        final int b = yEd * tableWidth + xSt;
+        final int c = ySt * tableWidth + xEd;
+        final int d = ySt * tableWidth + xSt;
+        final int count = validCount[a] - validCount[b] - validCount[c] + validCount[d];
+        final double scale = count > 0 ? 1.0 / count : Double.NaN;
+
+        for (int e = 0; e < numElements; ++e) {
+            final double v = (table[a * numElements + e] - table[b * numElements + e] -
+                    table[c * numElements + e] + table[d * numElements + e]) * scale;
+            if (imag[e]) {
+                im[row[e]][col[e]] = v;
+            } else {
+                re[row[e]][col[e]] = v;
+            }
+        }
+
+        if (type.hermitian) {
+            for (int i = 0; i < n; ++i) {
+                im[i][i] = 0.0;
+                for (int j = 0; j < i; ++j) {
+                    re[i][j] = re[j][i];
+                    im[i][j] = -im[j][i];
+                }
+            }
+        }
+    }
+}
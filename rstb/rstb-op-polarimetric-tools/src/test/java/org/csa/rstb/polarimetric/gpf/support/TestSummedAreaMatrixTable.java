@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.csa.rstb.polarimetric.gpf.support;
+
+import eu.esa.sar.commons.polsar.PolBandUtils;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.gpf.internal.TileImpl;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link SummedAreaMatrixTable}.
+ */
+public class TestSummedAreaMatrixTable {
+
+    private static final QuadPolProcessor PROCESSOR = new QuadPolProcessor() { };
+
+    private static final int W = 37;
+    private static final int H = 29;
+    private static final double TOL = 1e-10;
+
+    // half window sizes of 5x5, 9x9, 15x15 and an anisotropic window
+    private static final int[][] HALF_WINDOWS = {{2, 2}, {4, 4}, {7, 7}, {3, 1}};
+
+    private static Tile[] createTiles(final int numBands, final Rectangle rect, final long seed) {
+        final Product product = new Product("p", "t", W, H);
+        final Random random = new Random(seed);
+        final Tile[] tiles = new Tile[numBands];
+        for (int b = 0; b < numBands; ++b) {
+            final Band band = product.addBand("band" + b, ProductData.TYPE_FLOAT32);
+            final float[] data = new float[W * H];
+            for (int i = 0; i < data.length; ++i) {
+                data[i] = (float) random.nextGaussian();
+            }
+            band.setData(ProductData.createInstance(data));
+            tiles[b] = new TileImpl(band, band.getSourceImage().getData(rect));
+        }
+        return tiles;
+    }
+
+    private static ProductData[] getDataBuffers(final Tile[] tiles) {
+        final ProductData[] dataBuffers = new ProductData[tiles.length];
+        for (int b = 0; b < tiles.length; ++b) {
+            dataBuffers[b] = tiles[b].getDataBuffer();
+        }
+        return dataBuffers;
+    }
+
+    private static void assertMatrixEquals(final double[][] expRe, final double[][] expIm,
+                                           final double[][] re, final double[][] im) {
+        for (int i = 0; i < expRe.length; ++i) {
+            for (int j = 0; j < expRe.length; ++j) {
+                assertEquals(expRe[i][j], re[i][j], TOL);
+                assertEquals(expIm[i][j], im[i][j], TOL);
+            }
+        }
+    }
+
+    @Test
+    public void testCovarianceC3MatchesPerPixelMean() {
+        final Rectangle rect = new Rectangle(4, 3, 30, 22);
+        final Tile[] tiles = createTiles(8, rect, 1L);
+        final ProductData[] dataBuffers = getDataBuffers(tiles);
+        final SummedAreaMatrixTable table = PROCESSOR.getMeanMatrices(rect, SummedAreaMatrixTable.Type.C3,
+                PolBandUtils.MATRIX.FULL, tiles, dataBuffers);
+
+        final double[][] expRe = new double[3][3], expIm = new double[3][3];
+        final double[][] re = new double[3][3], im = new double[3][3];
+        for (int[] half : HALF_WINDOWS) {
+            for (int y = rect.y; y < rect.y + rect.height; ++y) {
+                for (int x = rect.x; x < rect.x + rect.width; ++x) {
+                    PROCESSOR.getMeanCovarianceMatrix(x, y, half[0], half[1], PolBandUtils.MATRIX.FULL,
+                            tiles, dataBuffers, expRe, expIm);
+                    table.getMean(x, y, half[0], half[1], re, im);
+                    assertMatrixEquals(expRe, expIm, re, im);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCoherencyT3MatchesPerPixelMean() {
+        // getMeanCoherencyMatrix clips windows to the image, so the table covers all of it
+        final Rectangle rect = new Rectangle(0, 0, W, H);
+        final double[][] expRe = new double[3][3], expIm = new double[3][3];
+        final double[][] re = new double[3][3], im = new double[3][3];
+
+        for (PolBandUtils.MATRIX sourceType : new PolBandUtils.MATRIX[]{PolBandUtils.MATRIX.FULL, PolBandUtils.MATRIX.C3}) {
+            final Tile[] tiles = createTiles(sourceType == PolBandUtils.MATRIX.FULL ? 8 : 9, rect, 2L);
+            final ProductData[] dataBuffers = getDataBuffers(tiles);
+            final TileIndex srcIndex = new TileIndex(tiles[0]);
+            final SummedAreaMatrixTable table = PROCESSOR.getMeanMatrices(rect, SummedAreaMatrixTable.Type.T3,
+                    sourceType, tiles, dataBuffers);
+
+            for (int[] half : HALF_WINDOWS) {
+                for (int y = 0; y < H; ++y) {
+                    for (int x = 0; x < W; ++x) {
+                        PROCESSOR.getMeanCoherencyMatrix(x, y, half[0], half[1], W, H, sourceType,
+                                srcIndex, dataBuffers, expRe, expIm);
+                        table.getMean(x, y, half[0], half[1], re, im);
+                        assertMatrixEquals(expRe, expIm, re, im);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCovarianceC4MatchesPerPixelMean() {
+        final Rectangle rect = new Rectangle(2, 5, 33, 20);
+        final Tile[] tiles = createTiles(8, rect, 3L);
+        final ProductData[] dataBuffers = getDataBuffers(tiles);
+        final SummedAreaMatrixTable table = PROCESSOR.getMeanMatrices(rect, SummedAreaMatrixTable.Type.C4,
+                PolBandUtils.MATRIX.FULL, tiles, dataBuffers);
+
+        final double[][] expRe = new double[4][4], expIm = new double[4][4];
+        final double[][] re = new double[4][4], im = new double[4][4];
+        for (int[] half : HALF_WINDOWS) {
+            for (int y = rect.y; y < rect.y + rect.height; ++y) {
+                for (int x = rect.x; x < rect.x + rect.width; ++x) {
+                    PROCESSOR.getMeanCovarianceMatrixC4(x, y, half[0], half[1], PolBandUtils.MATRIX.FULL,
+                            tiles, dataBuffers, expRe, expIm);
+                    table.getMean(x, y, half[0], half[1], re, im);
+                    assertMatrixEquals(expRe, expIm, re, im);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testScatterMatchesPerPixelMean() {
+        final Rectangle rect = new Rectangle(6, 1, 25, 26);
+        final Tile[] tiles = createTiles(8, rect, 4L);
+        final ProductData[] dataBuffers = getDataBuffers(tiles);
+        final SummedAreaMatrixTable table = PROCESSOR.getMeanMatrices(rect, SummedAreaMatrixTable.Type.S2,
+                PolBandUtils.MATRIX.FULL, tiles, dataBuffers);
+
+        final double[][] expRe = new double[2][2], expIm = new double[2][2];
+        final double[][] re = new double[2][2], im = new double[2][2];
+        for (int[] half : HALF_WINDOWS) {
+            for (int y = rect.y; y < rect.y + rect.height; ++y) {
+                for (int x = rect.x; x < rect.x + rect.width; ++x) {
+                    PROCESSOR.getMeanScatterMatrix(x, y, half[0], half[1], PolBandUtils.MATRIX.FULL,
+                            tiles, dataBuffers, expRe, expIm);
+                    table.getMean(x, y, half[0], half[1], re, im);
+                    assertMatrixEquals(expRe, expIm, re, im);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNaNPixelOnlyAffectsWindowsContainingIt() {
+        final Rectangle rect = new Rectangle(0, 0, W, H);
+        final Tile[] tiles = createTiles(8, rect, 6L);
+        final ProductData[] dataBuffers = getDataBuffers(tiles);
+        final int nanX = 10, nanY = 12;
+        dataBuffers[0].setElemFloatAt(tiles[0].getDataBufferIndex(nanX, nanY), Float.NaN);
+        final SummedAreaMatrixTable table = PROCESSOR.getMeanMatrices(rect, SummedAreaMatrixTable.Type.C3,
+                PolBandUtils.MATRIX.FULL, tiles, dataBuffers);
+
+        final int[] half = HALF_WINDOWS[0];
+        final double[][] expRe = new double[3][3], expIm = new double[3][3];
+        final double[][] re = new double[3][3], im = new double[3][3];
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                table.getMean(x, y, half[0], half[1], re, im);
+                if (Math.abs(x - nanX) > half[0] || Math.abs(y - nanY) > half[1]) {
+                    PROCESSOR.getMeanCovarianceMatrix(x, y, half[0], half[1], PolBandUtils.MATRIX.FULL,
+                            tiles, dataBuffers, expRe, expIm);
+                    assertMatrixEquals(expRe, expIm, re, im);
+                } else {
+                    // the window mean is taken over its valid pixels
+                    for (int i = 0; i < 3; ++i) {
+                        for (int j = 0; j < 3; ++j) {
+                            assertTrue(Double.isFinite(re[i][j]) && Double.isFinite(im[i][j]));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = OperatorException.class)
+    public void testScatterRequiresQuadPolSource() {
+        final Rectangle rect = new Rectangle(0, 0, 8, 8);
+        final Tile[] tiles = createTiles(9, rect, 5L);
+        PROCESSOR.getMeanMatrices(rect, SummedAreaMatrixTable.Type.S2, PolBandUtils.MATRIX.C3, tiles,
+                getDataBuffers(tiles));
+    }
+}
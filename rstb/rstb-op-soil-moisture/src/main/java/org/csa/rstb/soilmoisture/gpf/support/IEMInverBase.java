@@ -15,9 +15,7 @@
  */
 package org.csa.rstb.soilmoisture.gpf.support;
 
-import au.com.bytecode.opencsv.CSVReader;
 import com.bc.ceres.core.ProgressMonitor;
-import net.sf.javaml.core.kdtree.KDTree;
 import org.apache.commons.lang3.StringUtils;
 import org.csa.rstb.soilmoisture.gpf.IEMHybridInverOp;
 import org.esa.snap.core.datamodel.Band;
@@ -35,14 +33,12 @@ import org.esa.snap.core.util.PropertyMap;
 import org.esa.snap.core.util.ResourceInstaller;
 import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
-import org.esa.snap.engine_utilities.gpf.CommonReaders;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
 import org.esa.snap.engine_utilities.util.Settings;
 import org.esa.snap.runtime.Config;
 
 import java.awt.Rectangle;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -155,13 +151,9 @@ public class IEMInverBase extends Operator {
     // n is 2 for the remaining 2 approaches (the 2 parameters are rms and RDC).
     // Once paramLUT is populated, its contents do not change.
     private double[][] paramLUT = null;
-    // Used by LUT CSV file only.
-    // sigmaLUT is m rows by 2 columns where m is total number of rows in the LUT.
-    // The 2 columns are sigmaHH and sigmaVV.
-    private double[][] sigmaLUT = null;
-    // Number of columns in the LUT.
-    private int lutWidth = 0;
-    private ProductData lutData = null;
+    // Compiled, memory-mapped LUT holding paramLUT, the sigmaHH and sigmaVV columns of all sections
+    // and the per-section KD trees. Shared by all operator instances using the same LUT file.
+    private IEMLUTIndex lutIndex = null;
     // It is inefficient to build and destroy a KD tree for each pixel.
     // Also, there are multiple threads processing the pixels.
     // Thus, all possible KD trees are built at the beginning.
@@ -171,7 +163,10 @@ public class IEMInverBase extends Operator {
     // (See method convertToKDTreeMapIntKey() in this class.)
     // For Multi-pol, it is simpler since only one image is involved. If the angle range for the AM or PM image is
     // 30 to 32 degrees, only 3 KD trees are needed.
-    private TreeMap<Integer, KDTree> kdTreeMap = null;
+    private TreeMap<Integer, IEMLUTIndex.Tree> kdTreeMap = null;
+    // Per-thread result buffers so that the per-pixel KD tree searches do not allocate.
+    private final ThreadLocal<IEMLUTIndex.Neighbours> nearestN = ThreadLocal.withInitial(() -> new IEMLUTIndex.Neighbours(N));
+    private final ThreadLocal<IEMLUTIndex.Neighbours> nearestOne = ThreadLocal.withInitial(() -> new IEMLUTIndex.Neighbours(1));
     private int srcRasterWidth;
     private int srcRasterHeight;
     // length of the side of the square neighbourhood, must be odd and >= 3
@@ -524,197 +519,20 @@ public class IEMInverBase extends Operator {
 
         getLUTMetadata();
 
-        // paramLUT contains only rms, (cl if applicable) and RDC
-        paramLUT = new double[NUM_ROWS_PER_ANGLE_DEGREE][numParams];
-
         final String filename = lutFile.getName();
         final String fileExtension = filename.substring(filename.lastIndexOf(".") + 1);
 
         //System.out.println(fileExtension);
 
-        if (filename.endsWith("." + MAT_FILE_EXTENSION)) {
-
-            initLUTFromMatlabFile();
-
-        } else if (filename.endsWith("." + CSV_FILE_EXTENSION)) {
-
-            initLUTFromCSVFile();
-
-        } else {
+        if (!filename.endsWith("." + MAT_FILE_EXTENSION) && !filename.endsWith("." + CSV_FILE_EXTENSION)) {
 
             throw new OperatorException("LUT files with extension ." + fileExtension + " are not supported. Only ." + MAT_FILE_EXTENSION + " and ." + CSV_FILE_EXTENSION + " are supported (case sensitive)");
         }
-    }
-
-    private void initLUTFromMatlabFile() {
-
-        //System.out.println("initLUTFromMatlabFile");
-
-        Product lutProd = null;
-
-        try {
-
-            lutProd = CommonReaders.readProduct(lutFile);
-
-        } catch (Throwable e) {
-
-            OperatorUtils.catchOperatorException(getId(), e);
-        }
-
-        if (lutProd == null) {
-
-            throw new OperatorException("LUT product is null");
-        }
-
-        // The LUT file should have (NUM_ROWS_PER_ANGLE_DEGREE * NUM_ANGLE_SECTIONS) rows.
-        // Each row contains the parameters and the sigma values.
-        // E.g., for Hybrid approach, each row contains rms, cl, RDC, sigmaHH, sigmaVV.
-
-        lutWidth = lutProd.getSceneRasterWidth();
-        final int lutHeight = lutProd.getSceneRasterHeight();
-
-        //System.out.println("lutWidth = " + lutWidth + " lutHeight = " + lutHeight);
-
-        if (lutWidth != (paramLUT[0].length + 2)) {
-
-            throw new OperatorException("LUT has wrong width = " + lutWidth);
-        }
-
-        if (lutHeight != (NUM_ROWS_PER_ANGLE_DEGREE * NUM_ANGLE_SECTIONS)) {
-
-            throw new OperatorException("LUT has wrong height = " + lutHeight + "; expecting it to be " + NUM_ANGLE_SECTIONS * NUM_ROWS_PER_ANGLE_DEGREE);
-        }
-
-        if (lutProd.getNumBands() != 1) {
-
-            throw new OperatorException("Too many bands in LUT product");
-        }
-
-        final Band lutBand = lutProd.getBandAt(0);
-
-        if (lutBand == null) {
-
-            throw new OperatorException("LUT band is null");
-        }
-
-        /*
-        final int datatype = lutBand.getDataType();
-        if (datatype != ProductData.TYPE_FLOAT64) {
-            System.out.println("WARNING: lutBand data type = " + datatype);
-        }  else {
-            System.out.println("lutBand is doubles");
-        }
-        */
-
-        // Populate paramLUT by reading in the first n columns of the first NUM_ROWS_PER_ANGLE_DEGREE rows of the LUT.
-        // E.g., for Hybrid approach, n = 3 and we would read in rms, cl and RDC.
-        // The contents of paramLUT will not change during the processing.
-
-        lutData = lutBand.createCompatibleProductData((int) lutBand.getNumDataElems());
-
-        if (lutData == null) {
-
-            throw new OperatorException("LUT data is null");
-        }
-
-        try {
-
-            lutBand.readRasterData(0, 0, lutWidth, lutHeight, lutData, ProgressMonitor.NULL);
-
-        } catch (Throwable e) {
-
-            OperatorUtils.catchOperatorException(getId(), e);
-        }
-
-        if (lutData.getNumElems() != (NUM_ANGLE_SECTIONS * NUM_ROWS_PER_ANGLE_DEGREE * (paramLUT[0].length + 2))) {
-
-            throw new OperatorException("Wrong number of elements in LUT " + lutData.getNumElems());
-        }
-
-        for (int i = 0; i < paramLUT.length; i++) { // loop through rows of LUT
-
-            for (int j = 0; j < paramLUT[i].length; j++) { // loop through columns of LUT
-
-                paramLUT[i][j] = lutData.getElemDoubleAt(i * lutWidth + j);
-            }
-        }
-    }
-
-    private void initLUTFromCSVFile() {
-
-        //System.out.println("initLUTFromCSVFile");
-
-        sigmaLUT = new double[NUM_ANGLE_SECTIONS * NUM_ROWS_PER_ANGLE_DEGREE][2];
-        final int numParams = paramLUT[0].length;
-
-        try {
-
-            final CSVReader cvsReader = new CSVReader(new FileReader(lutFile));
-
-            // loop through rows in first angle section
-            for (int i = 0; i < NUM_ROWS_PER_ANGLE_DEGREE; i++) {
-
-                // read one row
-                String[] row = cvsReader.readNext();
-
-                if (row == null || row.length != numParams + 2) {
-
-                    throw new OperatorException("Error reading row " + i + " (zero-based) in LUT (LUT has wrong height or width?");
-                }
-
-                // the left non-sigma columns
-                for (int j = 0; j < numParams; j++) {
-
-                    if (row[j].isEmpty()) {
-
-                        throw new OperatorException("Error reading row " + i + " (zero-based) in LUT");
-                    }
-                    paramLUT[i][j] = Double.parseDouble(row[j]);
-                }
-
-                // the two sigma columns
-                for (int j = 0; j < 2; j++) {
-
-                    if (row[numParams + j].isEmpty()) {
-
-                        throw new OperatorException("Error reading row " + i + " (zero-based) in LUT");
-                    }
-                    sigmaLUT[i][j] = Double.parseDouble(row[numParams + j]);
-                }
-            }
 
-            // loop through remaining rows
-            for (int i = NUM_ROWS_PER_ANGLE_DEGREE; i < (NUM_ANGLE_SECTIONS * NUM_ROWS_PER_ANGLE_DEGREE); i++) {
-
-                String[] row = cvsReader.readNext();
-
-                if (row == null || row.length != numParams + 2) {
-
-                    throw new OperatorException("Error reading row " + i + " (zero-based) in LUT (LUT has wrong height or width?");
-                }
-
-                for (int j = 0; j < 2; j++) {
-
-                    if (row[numParams + j].isEmpty()) {
-
-                        throw new OperatorException("Error reading row " + i + " (zero-based) in LUT");
-                    }
-                    sigmaLUT[i][j] = Double.parseDouble(row[numParams + j]);
-                }
-            }
-
-            // Have already read all the rows, so next row should be null
-            String[] row = cvsReader.readNext();
-
-            if (row != null) {
-
-                throw new OperatorException("LUT has more rows than expected (expecting only " + NUM_ANGLE_SECTIONS * NUM_ROWS_PER_ANGLE_DEGREE + " rows)");
-            }
-
-        } catch (Throwable e) {
-
-            OperatorUtils.catchOperatorException(getId(), e);
-        }
+        // The MATLAB or CSV LUT is parsed only when its compiled index is missing or out of date.
+        // paramLUT contains only rms, (cl if applicable) and RDC
+        lutIndex = IEMLUTIndex.open(lutFile, numParams, NUM_ROWS_PER_ANGLE_DEGREE, NUM_ANGLE_SECTIONS);
+        paramLUT = lutIndex.getParams();
     }
 
     // sigma contains the measured values to be used in the search.
@@ -758,21 +576,21 @@ public class IEMInverBase extends Operator {
             }
         }
 
-        int[] rowIndices = null;
+        IEMLUTIndex.Neighbours neighbours = null;
         try {
-            rowIndices = doKDTreeSearchForN(sigma, sectionIdx, pol);
+            neighbours = doKDTreeSearchForN(sigma, sectionIdx, pol);
         } catch (Exception e) {
             System.out.println("caught doKDTreeSearchForN exception");
         }
 
-        if (rowIndices == null) return;
+        if (neighbours == null) return;
 
-        if (results.length != rowIndices.length || resultSigmas.length != rowIndices.length) {
+        if (results.length != neighbours.getCount() || resultSigmas.length != neighbours.getCount()) {
             throw new OperatorException("Wrong results length");
         }
 
-        for (int i = 0; i < rowIndices.length; i++) {
-            int rowIdx = rowIndices[i];
+        for (int i = 0; i < neighbours.getCount(); i++) {
+            int rowIdx = neighbours.getRow(i);
             // rowIdx should never be out of range, but do a paranoid check anyways
             if (rowIdx >= 0 && rowIdx < NUM_ROWS_PER_ANGLE_DEGREE) {
 
@@ -1188,7 +1006,8 @@ public class IEMInverBase extends Operator {
         return result;
     }
 
-    private int[] doKDTreeSearchForN(final double[] sigma, final int[] sectionIdx, final int[] sigmaColIdx) {
+    // The N nearest rows are returned in a per-thread buffer, sorted by increasing distance.
+    private IEMLUTIndex.Neighbours doKDTreeSearchForN(final double[] sigma, final int[] sectionIdx, final int[] sigmaColIdx) {
 
         // This error checking is really redundant but safe.
 
@@ -1204,40 +1023,20 @@ public class IEMInverBase extends Operator {
                     sigmaColIdx.length + " should be equal");
         }
 
-        KDTree kdTree;
-
-        if (kdTreeMap == null) {
-
-            kdTree = buildOneKDTRee(sectionIdx, sigmaColIdx);
-
-        } else {
-
-            final KDTreeInfo info = new KDTreeInfo(sectionIdx, sigmaColIdx);
-
-            kdTree = kdTreeMap.get(convertToKDTreeMapIntKey(info));
-        }
+        final IEMLUTIndex.Tree kdTree = getKDTree(sectionIdx, sigmaColIdx);
 
         if (kdTree == null) { // This should never happen
 
             return null;
         }
 
-        Object[] object = kdTree.nearest(sigma, N);
-        if (object == null || object.length == 0) { // This should never happen
+        final IEMLUTIndex.Neighbours neighbours = nearestN.get();
+        kdTree.nearest(sigma, neighbours);
+        if (neighbours.getCount() == 0) { // This should never happen
             return null;
         }
 
-        RowIndex[] result = new RowIndex[object.length];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = (RowIndex) object[i];
-        }
-
-        int[] rowIndices = new int[result.length];
-        for (int i = 0; i < rowIndices.length; i++) {
-            rowIndices[i] = result[i].getIndex();
-        }
-
-        return rowIndices;
+        return neighbours;
     }
 
     private int doKDTreeSearch(final double[] sigma, final int[] sectionIdx, final int[] sigmaColIdx) {
@@ -1256,37 +1055,36 @@ public class IEMInverBase extends Operator {
                     sigmaColIdx.length + " should be equal");
         }
 
-        KDTree kdTree;
-
-        if (kdTreeMap == null) {
-
-            kdTree = buildOneKDTRee(sectionIdx, sigmaColIdx);
-
-        } else {
-
-            final KDTreeInfo info = new KDTreeInfo(sectionIdx, sigmaColIdx);
-
-            kdTree = kdTreeMap.get(convertToKDTreeMapIntKey(info));
-        }
+        final IEMLUTIndex.Tree kdTree = getKDTree(sectionIdx, sigmaColIdx);
 
         if (kdTree == null) { // This should never happen
 
             return -1;
         }
 
-        //RowIndex result = (RowIndex) kdTree.nearest(demoteToFloatPrecision(sigma)); // For comparing with matlab
-        RowIndex result = (RowIndex) kdTree.nearest(sigma);
+        final IEMLUTIndex.Neighbours result = nearestOne.get();
+        kdTree.nearest(sigma, result);
 
-        if (result == null) { // This should never happen
+        if (result.getCount() == 0) { // This should never happen
 
             return -1;
 
         } else {
 
-            return result.getIndex();
+            return result.getRow(0);
         }
     }
 
+    private IEMLUTIndex.Tree getKDTree(final int[] sectionIdx, final int[] sigmaColIdx) {
+
+        if (kdTreeMap == null) {
+
+            return buildOneKDTRee(sectionIdx, sigmaColIdx);
+        }
+
+        return kdTreeMap.get(convertToKDTreeMapIntKey(new KDTreeInfo(sectionIdx, sigmaColIdx)));
+    }
+
     // Builds a map that maps a key (which can be derived from KDTReeInfo) to the KD Tree built based
     // on KDTreeInfo.
     // This will build all the KD trees that are needed.
@@ -1298,33 +1096,19 @@ public class IEMInverBase extends Operator {
 
             //info.dumpContents();
 
-            final KDTree kdtree = buildOneKDTRee(info.getSectionIdx(), info.getSigmaColIdx());
+            final IEMLUTIndex.Tree kdtree = buildOneKDTRee(info.getSectionIdx(), info.getSigmaColIdx());
 
             kdTreeMap.put(convertToKDTreeMapIntKey(info), kdtree);
         }
 
-        /*
-        We cannot delete the sigma LUTs here because in searchLUTForN(), we need to access the LUT to get the sigmas of
-        the N closest match from the KD tree.
-
-        // lutData or sigmaLUT can be deleted after all the KD trees are built.
-        // However, if linear search is to be used, then lutData cannot be deleted here.
-        if (lutData == null) {
-
-            sigmaLUT = null;
-
-        } else {
-
-            lutData.dispose();
-            lutData = null;
-        }
-        */
+        // The sigma columns stay mapped: searchLUTForN() needs them to get the sigmas of the N closest matches.
     }
 
     // See explanation above doLinearSearch() and doKDTreeSearch() on sectionIdx and sigmaColIdx.
     // The sigmas comprise the key and the LUT row index (relative to a section) of the sigmas is the value stored
-    // in the KD tree for that key.
-    private KDTree buildOneKDTRee(final int[] sectionIdx, final int[] sigmaColIdx) {
+    // in the KD tree for that key. Trees are flat arrays of row indices owned by the shared LUT index, so each
+    // combination is built at most once per LUT.
+    private IEMLUTIndex.Tree buildOneKDTRee(final int[] sectionIdx, final int[] sigmaColIdx) {
 
         if (sectionIdx.length != sigmaColIdx.length) {
 
@@ -1337,52 +1121,16 @@ public class IEMInverBase extends Operator {
         // Multi-pol: It is 2. (SigmaHH_AM and SigmaVV_AM) or (SigmaHH_PM and SigmaVV_PM)
         // Multi-angle: It is 2. (SigmaHH_AM and SigmaHH_PM) or (SigmaHH_AM and SigmaVV_PM) or
         // (SigmaVV_AM and SigmaVV_PM) or (SigmaVV_AM and SigmaHH_PM)
-        final int treeDim = sectionIdx.length;
-
-        final KDTree kdtree = new KDTree(treeDim);
-        final double[] sigmas = new double[treeDim];
-        for (int i = 0; i < NUM_ROWS_PER_ANGLE_DEGREE; i++) {
-
-            for (int j = 0; j < treeDim; j++) {
-
-                sigmas[j] = getSigmaFromLUT(sectionIdx[j], i, sigmaColIdx[j]);
-            }
-
-            //kdtree.insert(demoteToFloatPrecision(sigmas), new RowIndex(i)); // For comparing with matlab
-            kdtree.insert(sigmas, new RowIndex(i));
-        }
-
-        return kdtree;
+        return lutIndex.getTree(sectionIdx, sigmaColIdx);
     }
 
     private double getSigmaFromLUT(int sectionIdx, int rowIdx, int colIdx) {
 
-        if (lutData == null) {
-
-            return getSigmaFromCSV(sectionIdx, rowIdx, colIdx);
-
-        } else {
-
-            return getSigmaFromMatlab(sectionIdx, rowIdx, colIdx);
-        }
-    }
-
-    private double getSigmaFromMatlab(int sectionIdx, int rowIdx, int colIdx) {
-
         // See description of LUT above lutFile.
         // sectionIdx is zero-based index of the angle section.
         // rowIdx is zero-based index relative to the start of the angle section.
         // colIdx can be or 0 or 1. 0 means sigmaHH and 1 means sigmaVV.
-
-        final int startRowIdx = sectionIdx * NUM_ROWS_PER_ANGLE_DEGREE;
-        final int idx = (startRowIdx + rowIdx) * lutWidth + (lutWidth - 2);
-
-        return lutData.getElemDoubleAt(idx + colIdx);
-    }
-
-    private double getSigmaFromCSV(int sectionIdx, int rowIdx, int colIdx) {
-
-        return sigmaLUT[sectionIdx * NUM_ROWS_PER_ANGLE_DEGREE + rowIdx][colIdx];
+        return lutIndex.getSigma(sectionIdx, rowIdx, colIdx);
     }
 
     // This will provide a KD tree with a unique value that can be used as a key to a map.
@@ -1499,22 +1247,18 @@ public class IEMInverBase extends Operator {
 
         boolean isOK = true;
 
+        final int numCols = numParams + 2;
+
         lutFile = new File(csvLUTFilePath);
         getLUTMetadata();
-        paramLUT = new double[NUM_ROWS_PER_ANGLE_DEGREE][numParams];
-        initLUTFromCSVFile();
-        final double[][] csvParamLUT = paramLUT.clone();
-        paramLUT = null;
+        final double[] csvLUT = IEMLUTIndex.readTable(lutFile, numCols, NUM_ANGLE_SECTIONS * NUM_ROWS_PER_ANGLE_DEGREE);
 
         lutFile = new File(matlabLUTFilePath);
         getLUTMetadata();
-        paramLUT = new double[NUM_ROWS_PER_ANGLE_DEGREE][numParams];
-        initLUTFromMatlabFile();
-        final double[][] matlabParamLUT = paramLUT.clone();
-        paramLUT = null;
+        final double[] matlabLUT = IEMLUTIndex.readTable(lutFile, numCols, NUM_ANGLE_SECTIONS * NUM_ROWS_PER_ANGLE_DEGREE);
 
-        System.out.println("csvParamLUT.length = " + csvParamLUT.length);
-        System.out.println("matlabParamLUT.length = " + matlabParamLUT.length);
+        System.out.println("csvLUT.length = " + csvLUT.length);
+        System.out.println("matlabLUT.length = " + matlabLUT.length);
 
         double[] maxParamDiff = new double[numParams];
 
@@ -1522,7 +1266,7 @@ public class IEMInverBase extends Operator {
 
             for (int j = 0; j < numParams; j++) {
 
-                final double diff = Math.abs(csvParamLUT[i][j] - matlabParamLUT[i][j]);
+                final double diff = Math.abs(csvLUT[i * numCols + j] - matlabLUT[i * numCols + j]);
                 if (diff > maxParamDiff[j]) {
                     maxParamDiff[j] = diff;
                 }
@@ -1554,7 +1298,8 @@ public class IEMInverBase extends Operator {
 
                 for (int k = 0; k < 2; k++) {
 
-                    final double diff = Math.abs(getSigmaFromCSV(i, j, k) - getSigmaFromMatlab(i, j, k));
+                    final int idx = (i * NUM_ROWS_PER_ANGLE_DEGREE + j) * numCols + numParams + k;
+                    final double diff = Math.abs(csvLUT[idx] - matlabLUT[idx]);
                     if (diff > maxSigmaDiff[k]) {
                         maxSigmaDiff[k] = diff;
                     }
@@ -1742,19 +1487,6 @@ public class IEMInverBase extends Operator {
         }
     }
 
-    private static class RowIndex {
-
-        private final int idx;
-
-        public RowIndex(int index) {
-            this.idx = index;
-        }
-
-        public int getIndex() {
-            return this.idx;
-        }
-    }
-
     // KDTreeInfo completely defines a KDTRee.
     // Use convertToKDTreeMapIntKey() to derive a key from KDTReeInfo that can be used as a key to a map.
     protected static class KDTreeInfo {
@@ -0,0 +1,569 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.csa.rstb.soilmoisture.gpf.support;
+
+import au.com.bytecode.opencsv.CSVReader;
+import com.bc.ceres.core.ProgressMonitor;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.util.DefaultPropertyMap;
+import org.esa.snap.core.util.PropertyMap;
+import org.esa.snap.core.util.SystemUtils;
+import org.esa.snap.engine_utilities.gpf.CommonReaders;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled, memory-mapped form of an IEM LUT.
+ *
+ * The MATLAB or CSV LUT is parsed once and written to a binary index file holding the
+ * model parameters of one angle section, the sigmaHH/sigmaVV columns of every section
+ * and, per section, a KD-tree over (sigmaHH, sigmaVV). Trees are stored implicitly as a
+ * permutation of row indices: the node of the range [lo, hi) is the row at the middle
+ * position and splits on dimension depth % k. The index file is mapped read-only and
+ * shared by all operator instances and threads of the JVM.
+ *
+ * Trees over other combinations of sections and polarisations (multi-angle, hybrid) are
+ * built on demand in the same flat form and shared through the index.
+ *
+ * Index files can be compiled ahead of time with
+ * {@code java org.csa.rstb.soilmoisture.gpf.support.IEMLUTIndex <lut.mat|lut.csv>...}
+ */
+public final class IEMLUTIndex {
+
+    public static final String INDEX_FILE_EXTENSION = "lutidx";
+
+    private static final long MAGIC = 0x49454D4C55543031L; // IEMLUT01
+    private static final int HEADER_SIZE = 64;
+
+    private static final Map<String, IEMLUTIndex> openIndices = new ConcurrentHashMap<>();
+
+    private final int numParams;
+    private final int numRows;
+    private final int numSections;
+    private final double[][] params;
+    private final DoubleBuffer sigmas;
+    private final IntBuffer sectionTrees;
+    private final Map<Long, Tree> trees = new ConcurrentHashMap<>();
+
+    private IEMLUTIndex(final ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getLong(0) != MAGIC) {
+            throw new IOException("Not an IEM LUT index");
+        }
+        numParams = buffer.getInt(8);
+        numRows = buffer.getInt(12);
+        numSections = buffer.getInt(16);
+
+        final int paramsSize = numRows * numParams * 8;
+        final int sigmasSize = numSections * numRows * 2 * 8;
+
+        buffer.position(HEADER_SIZE);
+        final DoubleBuffer paramBuffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        params = new double[numRows][numParams];
+        for (int i = 0; i < numRows; ++i) {
+            paramBuffer.get(params[i]);
+        }
+
+        buffer.position(HEADER_SIZE + paramsSize);
+        sigmas = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+
+        buffer.position(HEADER_SIZE + paramsSize + sigmasSize);
+        sectionTrees = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Returns the shared index of a LUT, compiling it first if it is missing or older than the LUT.
+     *
+     * @param lutFile     MATLAB or CSV LUT
+     * @param numParams   number of model parameter columns (not counting sigmaHH and sigmaVV)
+     * @param numRows     rows per angle section
+     * @param numSections number of angle sections
+     */
+    public static IEMLUTIndex open(final File lutFile, final int numParams, final int numRows,
+                                   final int numSections) throws IOException {
+        final String key = lutFile.getCanonicalPath();
+        IEMLUTIndex index = openIndices.get(key);
+        if (index != null && index.matches(numParams, numRows, numSections)) {
+            return index;
+        }
+        synchronized (openIndices) {
+            index = openIndices.get(key);
+            if (index == null || !index.matches(numParams, numRows, numSections)) {
+                final File indexFile = getIndexFile(lutFile);
+                if (!isUpToDate(indexFile, lutFile, numParams, numRows, numSections)) {
+                    compile(lutFile, indexFile, numParams, numRows, numSections);
+                }
+                index = map(indexFile);
+                openIndices.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    private boolean matches(final int numParams, final int numRows, final int numSections) {
+        return this.numParams == numParams && this.numRows == numRows && this.numSections == numSections;
+    }
+
+    /**
+     * The index is written next to the LUT, or into the SNAP cache folder if the LUT folder is read-only.
+     */
+    static File getIndexFile(final File lutFile) {
+        final String name = lutFile.getName();
+        final int dotIdx = name.lastIndexOf('.');
+        final String indexName = (dotIdx > 0 ? name.substring(0, dotIdx) : name) + '.' + INDEX_FILE_EXTENSION;
+        final File folder = lutFile.getAbsoluteFile().getParentFile();
+        if (folder != null && Files.isWritable(folder.toPath())) {
+            return new File(folder, indexName);
+        }
+        return new File(new File(SystemUtils.getCacheDir(), "sm_luts"), indexName);
+    }
+
+    private static boolean isUpToDate(final File indexFile, final File lutFile, final int numParams,
+                                      final int numRows, final int numSections) throws IOException {
+        if (!indexFile.isFile() || indexFile.length() < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the complete header
+            }
+            return header.getLong(0) == MAGIC &&
+                    header.getInt(8) == numParams &&
+                    header.getInt(12) == numRows &&
+                    header.getInt(16) == numSections &&
+                    header.getLong(24) == lutFile.length() &&
+                    header.getLong(32) == lutFile.lastModified() &&
+                    indexFile.length() == getIndexSize(numParams, numRows, numSections);
+        }
+    }
+
+    private static long getIndexSize(final int numParams, final int numRows, final int numSections) {
+        return HEADER_SIZE + (long) numRows * numParams * 8 + (long) numSections * numRows * 2 * 8 +
+                (long) numSections * numRows * 4;
+    }
+
+    private static IEMLUTIndex map(final File indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new IEMLUTIndex(buffer);
+        }
+    }
+
+    /**
+     * Parses a LUT and writes its index file.
+     */
+    static void compile(final File lutFile, final File indexFile, final int numParams, final int numRows,
+                        final int numSections) throws IOException {
+        final int numCols = numParams + 2;
+        final double[] table = readTable(lutFile, numCols, numRows * numSections);
+
+        final long size = getIndexSize(numParams, numRows, numSections);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("LUT " + lutFile + " is too large to be indexed");
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(MAGIC);
+        buffer.putInt(numParams);
+        buffer.putInt(numRows);
+        buffer.putInt(numSections);
+        buffer.putInt(0);
+        buffer.putLong(lutFile.length());
+        buffer.putLong(lutFile.lastModified());
+        buffer.position(HEADER_SIZE);
+
+        for (int i = 0; i < numRows; ++i) {
+            for (int j = 0; j < numParams; ++j) {
+                buffer.putDouble(table[i * numCols + j]);
+            }
+        }
+        for (int i = 0; i < numSections * numRows; ++i) {
+            buffer.putDouble(table[i * numCols + numParams]);
+            buffer.putDouble(table[i * numCols + numParams + 1]);
+        }
+
+        final double[] coords = new double[numRows * 2];
+        for (int s = 0; s < numSections; ++s) {
+            for (int i = 0; i < numRows; ++i) {
+                final int row = s * numRows + i;
+                coords[i * 2] = table[row * numCols + numParams];
+                coords[i * 2 + 1] = table[row * numCols + numParams + 1];
+            }
+            for (int row : buildTree(coords, 2, numRows)) {
+                buffer.putInt(row);
+            }
+        }
+        buffer.flip();
+
+        // write to a temporary file first so that concurrent readers never see a partial index
+        final File folder = indexFile.getAbsoluteFile().getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Unable to create folders in " + folder);
+        }
+        final File tmpFile = File.createTempFile(indexFile.getName(), ".tmp", folder);
+        try {
+            try (FileChannel channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    /**
+     * Reads all rows of a MATLAB or CSV LUT into a row-major table.
+     */
+    static double[] readTable(final File lutFile, final int numCols, final int numRows) throws IOException {
+        final String name = lutFile.getName();
+        if (name.endsWith('.' + IEMInverBase.MAT_FILE_EXTENSION)) {
+            return readMatlabTable(lutFile, numCols, numRows);
+        } else if (name.endsWith('.' + IEMInverBase.CSV_FILE_EXTENSION)) {
+            return readCSVTable(lutFile, numCols, numRows);
+        }
+        throw new OperatorException("LUT files with extension " + name.substring(name.lastIndexOf('.') + 1) +
+                " are not supported. Only ." + IEMInverBase.MAT_FILE_EXTENSION + " and ." +
+                IEMInverBase.CSV_FILE_EXTENSION + " are supported (case sensitive)");
+    }
+
+    private static double[] readMatlabTable(final File lutFile, final int numCols, final int numRows)
+            throws IOException {
+        final Product lutProd = CommonReaders.readProduct(lutFile);
+        if (lutProd == null) {
+            throw new OperatorException("LUT product is null");
+        }
+        try {
+            if (lutProd.getSceneRasterWidth() != numCols) {
+                throw new OperatorException("LUT has wrong width = " + lutProd.getSceneRasterWidth());
+            }
+            if (lutProd.getSceneRasterHeight() != numRows) {
+                throw new OperatorException("LUT has wrong height = " + lutProd.getSceneRasterHeight() +
+                        "; expecting it to be " + numRows);
+            }
+            if (lutProd.getNumBands() != 1) {
+                throw new OperatorException("Too many bands in LUT product");
+            }
+            final Band lutBand = lutProd.getBandAt(0);
+            final ProductData lutData = lutBand.createCompatibleProductData(numCols * numRows);
+            lutBand.readRasterData(0, 0, numCols, numRows, lutData, ProgressMonitor.NULL);
+
+            final double[] table = new double[numCols * numRows];
+            for (int i = 0; i < table.length; ++i) {
+                table[i] = lutData.getElemDoubleAt(i);
+            }
+            return table;
+        } finally {
+            lutProd.dispose();
+        }
+    }
+
+    private static double[] readCSVTable(final File lutFile, final int numCols, final int numRows)
+            throws IOException {
+        final double[] table = new double[numCols * numRows];
+        try (CSVReader csvReader = new CSVReader(new FileReader(lutFile))) {
+            for (int i = 0; i < numRows; ++i) {
+                final String[] row = csvReader.readNext();
+                if (row == null || row.length != numCols) {
+                    throw new OperatorException("Error reading row " + i +
+                            " (zero-based) in LUT (LUT has wrong height or width?");
+                }
+                for (int j = 0; j < numCols; ++j) {
+                    if (row[j].isEmpty()) {
+                        throw new OperatorException("Error reading row " + i + " (zero-based) in LUT");
+                    }
+                    table[i * numCols + j] = Double.parseDouble(row[j]);
+                }
+            }
+            if (csvReader.readNext() != null) {
+                throw new OperatorException("LUT has more rows than expected (expecting only " + numRows + " rows)");
+            }
+        }
+        return table;
+    }
+
+    public int getNumParams() {
+        return numParams;
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumSections() {
+        return numSections;
+    }
+
+    /**
+     * @return the model parameters of one angle section, one row per LUT row; shared, do not modify
+     */
+    public double[][] getParams() {
+        return params;
+    }
+
+    /**
+     * @param sectionIdx angle section
+     * @param rowIdx     row within the section
+     * @param colIdx     0 for sigmaHH, 1 for sigmaVV
+     */
+    public double getSigma(final int sectionIdx, final int rowIdx, final int colIdx) {
+        return sigmas.get((sectionIdx * numRows + rowIdx) * 2 + colIdx);
+    }
+
+    /**
+     * Returns the KD-tree over the sigmas of the given sections and polarisation columns.
+     * See IEMInverBase for the meaning of sectionIdx and sigmaColIdx.
+     */
+    public Tree getTree(final int[] sectionIdx, final int[] sigmaColIdx) {
+        if (sectionIdx.length != sigmaColIdx.length || sectionIdx.length > 8) {
+            throw new OperatorException("Invalid KD tree dimension " + sectionIdx.length);
+        }
+        long key = sectionIdx.length;
+        for (int d = 0; d < sectionIdx.length; ++d) {
+            key = key * (2L * numSections) + sectionIdx[d] * 2L + sigmaColIdx[d];
+        }
+        Tree tree = trees.get(key);
+        if (tree == null) {
+            tree = trees.computeIfAbsent(key, k -> createTree(sectionIdx.clone(), sigmaColIdx.clone()));
+        }
+        return tree;
+    }
+
+    private Tree createTree(final int[] sectionIdx, final int[] sigmaColIdx) {
+        final int k = sectionIdx.length;
+        if (k == 2 && sectionIdx[0] == sectionIdx[1] && sigmaColIdx[0] == 0 && sigmaColIdx[1] == 1) {
+            final IntBuffer slice = sectionTrees.duplicate();
+            slice.position(sectionIdx[0] * numRows);
+            slice.limit((sectionIdx[0] + 1) * numRows);
+            return new Tree(slice.slice(), sectionIdx, sigmaColIdx);
+        }
+
+        final double[] coords = new double[numRows * k];
+        for (int i = 0; i < numRows; ++i) {
+            for (int d = 0; d < k; ++d) {
+                coords[i * k + d] = getSigma(sectionIdx[d], i, sigmaColIdx[d]);
+            }
+        }
+        return new Tree(IntBuffer.wrap(buildTree(coords, k, numRows)), sectionIdx, sigmaColIdx);
+    }
+
+    /**
+     * Orders row indices into an implicit balanced KD-tree.
+     *
+     * @param coords row-major point coordinates, k per row
+     */
+    static int[] buildTree(final double[] coords, final int k, final int n) {
+        final int[] rows = new int[n];
+        for (int i = 0; i < n; ++i) {
+            rows[i] = i;
+        }
+        buildTree(rows, coords, k, 0, n, 0);
+        return rows;
+    }
+
+    private static void buildTree(final int[] rows, final double[] coords, final int k,
+                                  final int lo, final int hi, final int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        final int d = depth % k;
+        select(rows, coords, k, d, lo, hi - 1, mid);
+        buildTree(rows, coords, k, lo, mid, depth + 1);
+        buildTree(rows, coords, k, mid + 1, hi, depth + 1);
+    }
+
+    // quickselect: afterwards rows[nth] holds the nth smallest coordinate d in [lo, hi]
+    private static void select(final int[] rows, final double[] coords, final int k, final int d,
+                               int lo, int hi, final int nth) {
+        while (hi > lo) {
+            final double pivot = coords[rows[(lo + hi) >>> 1] * k + d];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (coords[rows[i] * k + d] < pivot) ++i;
+                while (coords[rows[j] * k + d] > pivot) --j;
+                if (i <= j) {
+                    final int tmp = rows[i];
+                    rows[i] = rows[j];
+                    rows[j] = tmp;
+                    ++i;
+                    --j;
+                }
+            }
+            if (nth <= j) {
+                hi = j;
+            } else if (nth >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Flat KD-tree over the LUT rows for one combination of sections and polarisations.
+     * Immutable and safe to share between threads.
+     */
+    public final class Tree {
+
+        private final IntBuffer rows;
+        private final int[] sectionIdx;
+        private final int[] sigmaColIdx;
+        private final int k;
+
+        private Tree(final IntBuffer rows, final int[] sectionIdx, final int[] sigmaColIdx) {
+            this.rows = rows;
+            this.sectionIdx = sectionIdx;
+            this.sigmaColIdx = sigmaColIdx;
+            this.k = sectionIdx.length;
+        }
+
+        /**
+         * Finds the rows nearest to the given sigmas. Results are sorted by increasing distance.
+         *
+         * @param sigma  query point
+         * @param result receives the neighbours; its capacity is the number of neighbours searched
+         */
+        public void nearest(final double[] sigma, final Neighbours result) {
+            result.count = 0;
+            search(sigma, result, 0, rows.limit(), 0);
+        }
+
+        private void search(final double[] sigma, final Neighbours result, final int lo, final int hi,
+                            final int depth) {
+            if (lo >= hi) {
+                return;
+            }
+            final int mid = (lo + hi) >>> 1;
+            final int row = rows.get(mid);
+
+            double dist = 0;
+            for (int d = 0; d < k; ++d) {
+                final double diff = sigma[d] - getSigma(sectionIdx[d], row, sigmaColIdx[d]);
+                dist += diff * diff;
+            }
+            result.offer(row, dist);
+
+            final int d = depth % k;
+            final double split = sigma[d] - getSigma(sectionIdx[d], row, sigmaColIdx[d]);
+            if (split < 0) {
+                search(sigma, result, lo, mid, depth + 1);
+                if (result.accepts(split * split)) {
+                    search(sigma, result, mid + 1, hi, depth + 1);
+                }
+            } else {
+                search(sigma, result, mid + 1, hi, depth + 1);
+                if (result.accepts(split * split)) {
+                    search(sigma, result, lo, mid, depth + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reusable result buffer of a nearest neighbour search. Not thread safe; keep one per thread.
+     */
+    public static final class Neighbours {
+
+        private final int[] rows;
+        private final double[] distances;
+        private int count;
+
+        public Neighbours(final int capacity) {
+            rows = new int[capacity];
+            distances = new double[capacity];
+        }
+
+        public int getCapacity() {
+            return rows.length;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @param i neighbour rank, 0 is the nearest
+         * @return the LUT row index within the section
+         */
+        public int getRow(final int i) {
+            return rows[i];
+        }
+
+        public double getSquaredDistance(final int i) {
+            return distances[i];
+        }
+
+        private boolean accepts(final double squaredDistance) {
+            return count < rows.length || squaredDistance < distances[count - 1];
+        }
+
+        private void offer(final int row, final double squaredDistance) {
+            if (!accepts(squaredDistance)) {
+                return;
+            }
+            int i = count < rows.length ? count++ : count - 1;
+            while (i > 0 && distances[i - 1] > squaredDistance) {
+                rows[i] = rows[i - 1];
+                distances[i] = distances[i - 1];
+                --i;
+            }
+            rows[i] = row;
+            distances[i] = squaredDistance;
+        }
+    }
+
+    /**
+     * Offline compile step: writes the index file of each LUT given on the command line.
+     * The LUT dimensions are taken from the .luthdr file next to each LUT.
+     */
+    public static void main(final String[] args) throws IOException {
+        for (String arg : args) {
+            final File lutFile = new File(arg);
+            final String path = lutFile.getAbsolutePath();
+            final File hdrFile = new File(path.substring(0, path.lastIndexOf('.')) + '.' +
+                    IEMInverBase.HDR_FILE_EXTENSION);
+            final PropertyMap metadata = new DefaultPropertyMap();
+            metadata.load(hdrFile.toPath());
+
+            final int numRows = metadata.getPropertyInt("Number_of_rows_per_angle");
+            final int numSections = metadata.getPropertyInt("Stop_angle") - metadata.getPropertyInt("Start_angle") + 1;
+            final int numParams = metadata.getPropertyInt("Number_of_columns") - 2;
+
+            final File indexFile = getIndexFile(lutFile);
+            compile(lutFile, indexFile, numParams, numRows, numSections);
+            System.out.println("Compiled " + lutFile + " to " + indexFile);
+        }
+    }
+}
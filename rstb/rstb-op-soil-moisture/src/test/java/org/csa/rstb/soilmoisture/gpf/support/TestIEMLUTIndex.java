@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.csa.rstb.soilmoisture.gpf.support;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link IEMLUTIndex}.
+ */
+public class TestIEMLUTIndex {
+
+    private static final int NUM_PARAMS = 2;
+    private static final int NUM_ROWS = 500;
+    private static final int NUM_SECTIONS = 3;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static double[] createTable() {
+        final Random random = new Random(7);
+        final int numCols = NUM_PARAMS + 2;
+        final double[] table = new double[NUM_SECTIONS * NUM_ROWS * numCols];
+        for (int s = 0; s < NUM_SECTIONS; ++s) {
+            for (int i = 0; i < NUM_ROWS; ++i) {
+                final int idx = (s * NUM_ROWS + i) * numCols;
+                table[idx] = i * 0.1;
+                table[idx + 1] = i * 0.01;
+                table[idx + 2] = -30 + 25 * random.nextDouble();
+                table[idx + 3] = -30 + 25 * random.nextDouble();
+            }
+        }
+        return table;
+    }
+
+    private File writeCSV(final double[] table) throws IOException {
+        final File file = tempFolder.newFile("IEMC_test.csv");
+        final int numCols = NUM_PARAMS + 2;
+        try (PrintWriter out = new PrintWriter(file)) {
+            for (int r = 0; r < table.length / numCols; ++r) {
+                final StringBuilder line = new StringBuilder();
+                for (int c = 0; c < numCols; ++c) {
+                    if (c > 0) line.append(',');
+                    line.append(table[r * numCols + c]);
+                }
+                out.println(line);
+            }
+        }
+        return file;
+    }
+
+    private static int[] bruteForce(final double[] table, final int[] sections, final int[] cols,
+                                    final double[] sigma, final int n) {
+        final int numCols = NUM_PARAMS + 2;
+        final int[] best = new int[n];
+        final double[] bestDist = new double[n];
+        java.util.Arrays.fill(bestDist, Double.MAX_VALUE);
+        for (int i = 0; i < NUM_ROWS; ++i) {
+            double dist = 0;
+            for (int d = 0; d < sigma.length; ++d) {
+                final double diff = sigma[d] - table[(sections[d] * NUM_ROWS + i) * numCols + NUM_PARAMS + cols[d]];
+                dist += diff * diff;
+            }
+            int k = n - 1;
+            if (dist >= bestDist[k]) continue;
+            while (k > 0 && bestDist[k - 1] > dist) {
+                best[k] = best[k - 1];
+                bestDist[k] = bestDist[k - 1];
+                --k;
+            }
+            best[k] = i;
+            bestDist[k] = dist;
+        }
+        return best;
+    }
+
+    private static void assertNearest(final IEMLUTIndex index, final double[] table, final int[] sections,
+                                      final int[] cols) {
+        final Random random = new Random(11);
+        final IEMLUTIndex.Tree tree = index.getTree(sections, cols);
+        final IEMLUTIndex.Neighbours neighbours = new IEMLUTIndex.Neighbours(5);
+        final double[] sigma = new double[sections.length];
+        for (int q = 0; q < 100; ++q) {
+            for (int d = 0; d < sigma.length; ++d) {
+                sigma[d] = -32 + 30 * random.nextDouble();
+            }
+            tree.nearest(sigma, neighbours);
+            final int[] expected = bruteForce(table, sections, cols, sigma, 5);
+            assertEquals(5, neighbours.getCount());
+            for (int i = 0; i < 5; ++i) {
+                assertEquals(expected[i], neighbours.getRow(i));
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledIndexMatchesLUT() throws Exception {
+        final double[] table = createTable();
+        final File lutFile = writeCSV(table);
+
+        final IEMLUTIndex index = IEMLUTIndex.open(lutFile, NUM_PARAMS, NUM_ROWS, NUM_SECTIONS);
+        assertTrue(IEMLUTIndex.getIndexFile(lutFile).isFile());
+
+        final int numCols = NUM_PARAMS + 2;
+        assertEquals(table[7 * numCols + 1], index.getParams()[7][1], 0);
+        assertEquals(table[(2 * NUM_ROWS + 42) * numCols + 3], index.getSigma(2, 42, 1), 0);
+    }
+
+    @Test
+    public void testIndexIsShared() throws Exception {
+        final File lutFile = writeCSV(createTable());
+        final IEMLUTIndex index1 = IEMLUTIndex.open(lutFile, NUM_PARAMS, NUM_ROWS, NUM_SECTIONS);
+        final IEMLUTIndex index2 = IEMLUTIndex.open(lutFile, NUM_PARAMS, NUM_ROWS, NUM_SECTIONS);
+        assertSame(index1, index2);
+        assertSame(index1.getTree(new int[]{1, 1}, new int[]{0, 1}), index2.getTree(new int[]{1, 1}, new int[]{0, 1}));
+    }
+
+    @Test
+    public void testSectionTreeNearestNeighbours() throws Exception {
+        final double[] table = createTable();
+        final IEMLUTIndex index = IEMLUTIndex.open(writeCSV(table), NUM_PARAMS, NUM_ROWS, NUM_SECTIONS);
+        assertNearest(index, table, new int[]{1, 1}, new int[]{0, 1});
+    }
+
+    @Test
+    public void testMultiAngleTreeNearestNeighbours() throws Exception {
+        final double[] table = createTable();
+        final IEMLUTIndex index = IEMLUTIndex.open(writeCSV(table), NUM_PARAMS, NUM_ROWS, NUM_SECTIONS);
+        assertNearest(index, table, new int[]{0, 2}, new int[]{1, 0});
+    }
+
+    @Test
+    public void testHybridTreeNearestNeighbours() throws Exception {
+        final double[] table = createTable();
+        final IEMLUTIndex index = IEMLUTIndex.open(writeCSV(table), NUM_PARAMS, NUM_ROWS, NUM_SECTIONS);
+        assertNearest(index, table, new int[]{0, 0, 2, 2}, new int[]{0, 1, 0, 1});
+    }
+}
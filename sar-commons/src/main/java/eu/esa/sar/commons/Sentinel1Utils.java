@@ -719,88 +719,33 @@ public final class Sentinel1Utils {
         return dcPolynomial;
     }
 
+    /**
+     * @return deramp plus demodulation phase of the rectangle, see {@link TOPSPhasePlane}
+     */
     public double[][] computeDerampDemodPhase(
             Sentinel1Utils.SubSwathInfo[] subSwath, final int subSwathIndex, final int sBurstIndex,
             final Rectangle rectangle) {
-
-        final int x0 = rectangle.x;
-        final int y0 = rectangle.y;
-        final int w = rectangle.width;
-        final int h = rectangle.height;
-        final int xMax = x0 + w;
-        final int yMax = y0 + h;
-        final int s = subSwathIndex - 1;
-
-        final double[][] phase = new double[h][w];
-        final int firstLineInBurst = sBurstIndex*subSwath[s].linesPerBurst;
-        for (int y = y0; y < yMax; y++) {
-            final int yy = y - y0;
-            final double ta = (y - firstLineInBurst)*subSwath[s].azimuthTimeInterval;
-            for (int x = x0; x < xMax; x++) {
-                final int xx = x - x0;
-                final double kt = subSwath[s].dopplerRate[sBurstIndex][x];
-                final double dt = ta - subSwath[s].referenceTime[sBurstIndex][x];
-                final double deramp = -Constants.PI * kt * dt * dt;
-                final double demod = -Constants.TWO_PI * subSwath[s].dopplerCentroid[sBurstIndex][x] * ta;
-                phase[yy][xx] = deramp + demod;
-            }
-        }
-
-        return phase;
+        return computePhase(subSwath, subSwathIndex, sBurstIndex, rectangle, TOPSPhasePlane.Type.DERAMP_DEMOD);
     }
 
     public double[][] computeDerampPhase(
             Sentinel1Utils.SubSwathInfo[] subSwath, final int subSwathIndex, final int burstIndex,
             final Rectangle rectangle) {
-
-        final int x0 = rectangle.x;
-        final int y0 = rectangle.y;
-        final int w = rectangle.width;
-        final int h = rectangle.height;
-        final int xMax = x0 + w;
-        final int yMax = y0 + h;
-        final int s = subSwathIndex - 1;
-
-        final double[][] phase = new double[h][w];
-        final int firstLineInBurst = burstIndex*subSwath[s].linesPerBurst;
-        for (int y = y0; y < yMax; y++) {
-            final int yy = y - y0;
-            final double ta = (y - firstLineInBurst)*subSwath[s].azimuthTimeInterval;
-            for (int x = x0; x < xMax; x++) {
-                final int xx = x - x0;
-                final double kt = subSwath[s].dopplerRate[burstIndex][x];
-                final double dt = ta - subSwath[s].referenceTime[burstIndex][x];
-                phase[yy][xx] = -Constants.PI * kt * dt * dt;
-            }
-        }
-
-        return phase;
+        return computePhase(subSwath, subSwathIndex, burstIndex, rectangle, TOPSPhasePlane.Type.DERAMP);
     }
 
     public double[][] computeDemodPhase(
             Sentinel1Utils.SubSwathInfo[] subSwath, final int subSwathIndex, final int sBurstIndex,
             final Rectangle rectangle) {
+        return computePhase(subSwath, subSwathIndex, sBurstIndex, rectangle, TOPSPhasePlane.Type.DEMOD);
+    }
 
-        final int x0 = rectangle.x;
-        final int y0 = rectangle.y;
-        final int w = rectangle.width;
-        final int h = rectangle.height;
-        final int xMax = x0 + w;
-        final int yMax = y0 + h;
-        final int s = subSwathIndex - 1;
-
-        final double[][] phase = new double[h][w];
-        final int firstLineInBurst = sBurstIndex*subSwath[s].linesPerBurst;
-        for (int y = y0; y < yMax; y++) {
-            final int yy = y - y0;
-            final double ta = (y - firstLineInBurst)*subSwath[s].azimuthTimeInterval;
-            for (int x = x0; x < xMax; x++) {
-                final int xx = x - x0;
-                final double kt = subSwath[s].dopplerRate[sBurstIndex][x];
-                phase[yy][xx] = -Constants.TWO_PI * subSwath[s].dopplerCentroid[sBurstIndex][x] * ta;
-            }
-        }
+    private static double[][] computePhase(
+            Sentinel1Utils.SubSwathInfo[] subSwath, final int subSwathIndex, final int burstIndex,
+            final Rectangle rectangle, final TOPSPhasePlane.Type type) {
 
+        final double[][] phase = new double[rectangle.height][rectangle.width];
+        TOPSPhasePlane.get(subSwath[subSwathIndex - 1], burstIndex, type).computePhase(rectangle, phase);
         return phase;
     }
 
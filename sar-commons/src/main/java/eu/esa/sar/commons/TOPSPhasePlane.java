@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import org.apache.commons.math3.util.FastMath;
+import org.esa.snap.engine_utilities.eo.Constants;
+
+import java.awt.*;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Deramp and demodulation phase of one TOPS burst.
+ * <p>
+ * For a range sample x and azimuth time ta since the first line of the burst the phase is
+ * <pre>
+ *   deramp = -pi * kt(x) * (ta - tref(x))^2
+ *   demod  = -2 pi * fdc(x) * ta
+ * </pre>
+ * i.e. a quadratic in ta whose coefficients only depend on the range sample. The per-sample
+ * coefficients are computed once per burst and cached, and {@link #computePhasor} walks the
+ * lines of a tile with a second order phasor recurrence, so exp(j phase) costs two complex
+ * multiplies per pixel instead of a sine and a cosine.
+ * <p>
+ * Planes are cached per {@link Sentinel1Utils.SubSwathInfo} and released with it.
+ */
+public final class TOPSPhasePlane {
+
+    public enum Type {DERAMP, DEMOD, DERAMP_DEMOD}
+
+    /** lines after which the recurrence is re-seeded to bound round-off drift */
+    private static final int RESEED_LINES = 256;
+
+    private static final Map<Sentinel1Utils.SubSwathInfo, TOPSPhasePlane[][]> cache = new WeakHashMap<>();
+
+    private final Type type;
+    private final int firstLineInBurst;
+    private final double azimuthTimeInterval;
+    private final double[] dopplerRate;
+    private final double[] referenceTime;
+    private final double[] dopplerCentroid;
+
+    // phase = c0[x] + c1[x] * ta + c2[x] * ta^2
+    private final double[] c0;
+    private final double[] c1;
+    private final double[] c2;
+
+    // exp(j 2 c2 dt^2), the per-line change of the phase increment
+    private final double[] stepRe;
+    private final double[] stepIm;
+
+    private TOPSPhasePlane(final Sentinel1Utils.SubSwathInfo subSwath, final int burstIndex, final Type type) {
+        this.type = type;
+        this.firstLineInBurst = burstIndex * subSwath.linesPerBurst;
+        this.azimuthTimeInterval = subSwath.azimuthTimeInterval;
+        this.dopplerRate = subSwath.dopplerRate[burstIndex];
+        this.referenceTime = subSwath.referenceTime[burstIndex];
+        this.dopplerCentroid = subSwath.dopplerCentroid[burstIndex];
+
+        final int n = dopplerRate.length;
+        final boolean deramp = type != Type.DEMOD;
+        final boolean demod = type != Type.DERAMP;
+        c0 = new double[n];
+        c1 = new double[n];
+        c2 = new double[n];
+        stepRe = new double[n];
+        stepIm = new double[n];
+        final double dt2 = azimuthTimeInterval * azimuthTimeInterval;
+        for (int x = 0; x < n; x++) {
+            if (deramp) {
+                final double kt = dopplerRate[x];
+                final double tref = referenceTime[x];
+                c0[x] = -Constants.PI * kt * tref * tref;
+                c1[x] = Constants.TWO_PI * kt * tref;
+                c2[x] = -Constants.PI * kt;
+            }
+            if (demod) {
+                c1[x] -= Constants.TWO_PI * dopplerCentroid[x];
+            }
+            final double step = 2.0 * c2[x] * dt2;
+            stepRe[x] = FastMath.cos(step);
+            stepIm[x] = FastMath.sin(step);
+        }
+    }
+
+    /**
+     * @param subSwath   sub-swath of a TOPS product
+     * @param burstIndex zero-based burst index
+     * @param type       phase component
+     * @return the cached phase plane of the burst
+     */
+    public static TOPSPhasePlane get(final Sentinel1Utils.SubSwathInfo subSwath, final int burstIndex,
+                                     final Type type) {
+        synchronized (cache) {
+            TOPSPhasePlane[][] planes = cache.get(subSwath);
+            if (planes == null || planes.length != subSwath.numOfBursts) {
+                planes = new TOPSPhasePlane[subSwath.numOfBursts][Type.values().length];
+                cache.put(subSwath, planes);
+            }
+            TOPSPhasePlane plane = planes[burstIndex][type.ordinal()];
+            if (plane == null || !plane.isValidFor(subSwath, burstIndex)) {
+                plane = new TOPSPhasePlane(subSwath, burstIndex, type);
+                planes[burstIndex][type.ordinal()] = plane;
+            }
+            return plane;
+        }
+    }
+
+    private boolean isValidFor(final Sentinel1Utils.SubSwathInfo subSwath, final int burstIndex) {
+        return dopplerRate == subSwath.dopplerRate[burstIndex] &&
+                referenceTime == subSwath.referenceTime[burstIndex] &&
+                dopplerCentroid == subSwath.dopplerCentroid[burstIndex] &&
+                azimuthTimeInterval == subSwath.azimuthTimeInterval;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Evaluates the phase of every pixel of the rectangle.
+     *
+     * @param rectangle image rectangle inside the burst
+     * @param phase     output, phase[y - rectangle.y][x - rectangle.x]
+     */
+    public void computePhase(final Rectangle rectangle, final double[][] phase) {
+        final int x0 = rectangle.x;
+        final int y0 = rectangle.y;
+        final int xMax = x0 + rectangle.width;
+        final int yMax = y0 + rectangle.height;
+        final boolean deramp = type != Type.DEMOD;
+        final boolean demod = type != Type.DERAMP;
+
+        for (int y = y0; y < yMax; y++) {
+            final double[] row = phase[y - y0];
+            final double ta = (y - firstLineInBurst) * azimuthTimeInterval;
+            for (int x = x0; x < xMax; x++) {
+                double value = 0.0;
+                if (deramp) {
+                    final double dt = ta - referenceTime[x];
+                    value = -Constants.PI * dopplerRate[x] * dt * dt;
+                }
+                if (demod) {
+                    value += -Constants.TWO_PI * dopplerCentroid[x] * ta;
+                }
+                row[x - x0] = value;
+            }
+        }
+    }
+
+    /**
+     * Generates exp(j phase) for every pixel of the rectangle.
+     *
+     * @param rectangle image rectangle inside the burst
+     * @param re        output real part, row-major with the rectangle width as stride
+     * @param im        output imaginary part
+     */
+    public void computePhasor(final Rectangle rectangle, final float[] re, final float[] im) {
+        final int x0 = rectangle.x;
+        final int w = rectangle.width;
+        final int h = rectangle.height;
+
+        // per column: current phasor z and the phasor r of the increment to the next line
+        final double[] zRe = new double[w], zIm = new double[w];
+        final double[] rRe = new double[w], rIm = new double[w];
+
+        for (int yy = 0; yy < h; yy++) {
+            if (yy % RESEED_LINES == 0) {
+                seed(x0, w, rectangle.y + yy, zRe, zIm, rRe, rIm);
+            }
+            final int offset = yy * w;
+            for (int xx = 0; xx < w; xx++) {
+                final double zr = zRe[xx], zi = zIm[xx];
+                final double rr = rRe[xx], ri = rIm[xx];
+                re[offset + xx] = (float) zr;
+                im[offset + xx] = (float) zi;
+
+                zRe[xx] = zr * rr - zi * ri;
+                zIm[xx] = zr * ri + zi * rr;
+                final double sr = stepRe[x0 + xx], si = stepIm[x0 + xx];
+                rRe[xx] = rr * sr - ri * si;
+                rIm[xx] = rr * si + ri * sr;
+            }
+        }
+    }
+
+    private void seed(final int x0, final int w, final int y,
+                      final double[] zRe, final double[] zIm, final double[] rRe, final double[] rIm) {
+        final double dt = azimuthTimeInterval;
+        final double ta = (y - firstLineInBurst) * dt;
+        for (int xx = 0; xx < w; xx++) {
+            final int x = x0 + xx;
+            final double phase = c0[x] + (c1[x] + c2[x] * ta) * ta;
+            final double increment = c1[x] * dt + c2[x] * (2.0 * ta + dt) * dt;
+            zRe[xx] = FastMath.cos(phase);
+            zIm[xx] = FastMath.sin(phase);
+            rRe[xx] = FastMath.cos(increment);
+            rIm[xx] = FastMath.sin(increment);
+        }
+    }
+}
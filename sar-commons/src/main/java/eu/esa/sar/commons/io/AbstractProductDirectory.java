@@ -26,6 +26,7 @@ import org.esa.snap.engine_utilities.gpf.InputProductValidator;
 import org.esa.snap.engine_utilities.gpf.ReaderUtils;
 import org.esa.snap.engine_utilities.util.ZipUtils;
 
+import javax.imageio.stream.ImageInputStream;
 import java.awt.*;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -317,6 +318,21 @@ public abstract class AbstractProductDirectory {
         return inStream;
     }
 
+    /**
+     * Opens an image of a zipped product for random access directly from the zip file.
+     *
+     * @param path the path of the image within the product
+     * @return the stream, or null if the product is not zipped or the image entry is compressed,
+     * in which case {@link #getInputStream(String)} should be used
+     * @throws IOException if the zip file cannot be read
+     */
+    public ImageInputStream getStoredImageInputStream(final String path) throws IOException {
+        if (!isCompressed()) {
+            return null;
+        }
+        return ZipEntryImageInputStream.createIfStored(baseDir, path);
+    }
+
     protected File getBaseDir() {
         return baseDir;
     }
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.io;
+
+import org.esa.snap.core.datamodel.ProductData;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind output for raw raster files.
+ *
+ * Tiles are encoded into a private buffer on the calling thread and handed to a bounded
+ * queue; a dedicated I/O thread drains the queue with positional {@link FileChannel} writes.
+ * Because every request carries its own absolute position, tiles may arrive in any order
+ * and several computing threads can write to the same file without locking. When the
+ * queue is full callers block, which keeps memory bounded if the disk is the bottleneck.
+ *
+ * I/O errors raised on the writer thread are reported by the next call to
+ * {@link #writeTile}, {@link #flush()} or {@link #close()}.
+ *
+ * Queue length per file can be set with system property: -Dsar.writer.writeBehindTiles=32
+ */
+public final class WriteBehindFile implements Closeable {
+
+    public static final int DEFAULT_QUEUE_SIZE =
+            Integer.parseInt(System.getProperty("sar.writer.writeBehindTiles", "32"));
+
+    private final File file;
+    private final ByteOrder byteOrder;
+    private final FileChannel channel;
+    private final BlockingQueue<Request> queue;
+    private final Thread ioThread;
+
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    private static class Request {
+        final long position;
+        final long stride;
+        final int rowBytes;
+        final ByteBuffer data;
+        final CountDownLatch done;
+
+        Request(final long position, final long stride, final int rowBytes, final ByteBuffer data,
+                final CountDownLatch done) {
+            this.position = position;
+            this.stride = stride;
+            this.rowBytes = rowBytes;
+            this.data = data;
+            this.done = done;
+        }
+    }
+
+    private static final Request STOP = new Request(0, 0, 0, null, null);
+
+    public WriteBehindFile(final File file, final long fileSize, final ByteOrder byteOrder) throws IOException {
+        this(file, fileSize, byteOrder, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * @param file      output file, created if missing
+     * @param fileSize  size to preallocate in bytes, or 0 to leave the file length unchanged
+     * @param byteOrder byte order of the samples on disk
+     * @param queueSize maximum number of tiles waiting to be written
+     */
+    public WriteBehindFile(final File file, final long fileSize, final ByteOrder byteOrder,
+                           final int queueSize) throws IOException {
+        this.file = file;
+        this.byteOrder = byteOrder;
+        if (fileSize > 0 && file.length() != fileSize) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(fileSize);
+            }
+        }
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+
+        this.ioThread = new Thread(this::drain, "WriteBehind-" + file.getName());
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * Queues a tile of samples for writing. The samples are copied before this method returns,
+     * so the caller may reuse the buffer immediately.
+     *
+     * @param data     samples of the tile, row by row
+     * @param width    tile width in samples
+     * @param height   tile height in rows
+     * @param position byte offset in the file of the first sample of the tile
+     * @param stride   byte distance in the file between the starts of consecutive rows
+     * @throws IOException if an earlier write failed or the file is closed
+     */
+    public void writeTile(final ProductData data, final int width, final int height,
+                          final long position, final long stride) throws IOException {
+        checkState();
+        final int rowBytes = width * data.getElemSize();
+        final ByteBuffer buffer = encode(data, width * height, byteOrder);
+        put(new Request(position, stride, rowBytes, buffer, null));
+    }
+
+    /**
+     * Waits until all queued tiles have been written.
+     *
+     * @throws IOException if any write failed
+     */
+    public void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        checkState();
+        final CountDownLatch latch = new CountDownLatch(1);
+        put(new Request(0, 0, 0, null, latch));
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing " + file);
+        }
+        checkState();
+    }
+
+    /**
+     * Writes all pending tiles, stops the I/O thread and closes the file.
+     *
+     * @throws IOException if any write failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            stopWriter();
+            channel.close();
+        }
+        // tiles queued by other threads after the flush are written before the writer stops
+        final IOException e = failure;
+        if (e != null) {
+            throw new IOException("Unable to write " + file, e);
+        }
+    }
+
+    /**
+     * Hands the stop marker to the I/O thread and waits for it to finish. The marker is retried
+     * until the queue accepts it, so a full queue cannot make close() wait forever.
+     */
+    private void stopWriter() {
+        boolean interrupted = false;
+        while (ioThread.isAlive()) {
+            try {
+                if (queue.offer(STOP, 100, TimeUnit.MILLISECONDS)) {
+                    ioThread.join();
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkState() throws IOException {
+        final IOException e = failure;
+        if (e != null) {
+            throw new IOException("Unable to write " + file, e);
+        }
+        if (closed) {
+            throw new IOException(file + " is closed");
+        }
+    }
+
+    private void put(final Request request) throws IOException {
+        try {
+            queue.put(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing " + file);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            final Request request;
+            try {
+                request = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (request == STOP) {
+                return;
+            }
+            if (request.done != null) {
+                request.done.countDown();
+            } else if (failure == null) {
+                try {
+                    write(request);
+                } catch (IOException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = new IOException(e);
+                }
+            }
+        }
+    }
+
+    private void write(final Request request) throws IOException {
+        final ByteBuffer data = request.data;
+        final int total = data.limit();
+        long position = request.position;
+        for (int offset = 0; offset < total; offset += request.rowBytes) {
+            data.limit(offset + request.rowBytes);
+            data.position(offset);
+            long pos = position;
+            while (data.hasRemaining()) {
+                pos += channel.write(data, pos);
+            }
+            position += request.stride;
+        }
+    }
+
+    /**
+     * Copies the first numElems samples of the given buffer into a new byte buffer of the given order.
+     */
+    static ByteBuffer encode(final ProductData data, final int numElems, final ByteOrder order) {
+        final Object elems = data.getElems();
+        final ByteBuffer buffer = ByteBuffer.allocate(numElems * data.getElemSize()).order(order);
+        if (elems instanceof byte[]) {
+            buffer.put((byte[]) elems, 0, numElems);
+        } else if (elems instanceof short[]) {
+            buffer.asShortBuffer().put((short[]) elems, 0, numElems);
+        } else if (elems instanceof int[]) {
+            buffer.asIntBuffer().put((int[]) elems, 0, numElems);
+        } else if (elems instanceof long[]) {
+            buffer.asLongBuffer().put((long[]) elems, 0, numElems);
+        } else if (elems instanceof float[]) {
+            buffer.asFloatBuffer().put((float[]) elems, 0, numElems);
+        } else if (elems instanceof double[]) {
+            buffer.asDoubleBuffer().put((double[]) elems, 0, numElems);
+        } else {
+            throw new IllegalArgumentException("Unsupported data type " + data.getTypeString());
+        }
+        buffer.clear();
+        return buffer;
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.io;
+
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.ZipEntry;
+
+/**
+ * A seekable {@link ImageInputStream} over a STORED (uncompressed) entry of a zip file.
+ * The entry's local header offset is taken from the central directory and reads are served
+ * directly from a {@link FileChannel} at the entry's data offset, so the image does not have
+ * to be inflated into a file or memory cache first.
+ * <p>
+ * Use {@link #createIfStored(File, String)} and fall back to {@link java.util.zip.ZipFile#getInputStream}
+ * when it returns null, i.e. for DEFLATE entries.
+ */
+public final class ZipEntryImageInputStream extends ImageInputStreamImpl {
+
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIR_SIG = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_SIG = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_OF_CENTRAL_DIR_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final long MAGIC_32 = 0xFFFFFFFFL;
+    private static final int MAGIC_16 = 0xFFFF;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+    private final long dataOffset;
+    private final long length;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long bufferPos = 0;
+    private int bufferLength = 0;
+
+    private ZipEntryImageInputStream(final FileChannel channel, final long dataOffset, final long length) {
+        this.channel = channel;
+        this.dataOffset = dataOffset;
+        this.length = length;
+    }
+
+    /**
+     * Opens an entry of a zip file for random access in place.
+     *
+     * @param zipFile   the zip file
+     * @param entryName the full name of the entry within the zip
+     * @return the stream, or null if the entry does not exist or is not STORED
+     * @throws IOException if the file is not a readable zip
+     */
+    public static ImageInputStream createIfStored(final File zipFile, final String entryName) throws IOException {
+        final FileChannel channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.READ);
+        try {
+            final EntryLocation entry = findEntry(channel, entryName);
+            if (entry == null || entry.method != ZipEntry.STORED || entry.encrypted) {
+                channel.close();
+                return null;
+            }
+            if (entry.compressedSize != entry.size) {
+                throw new IOException("Corrupt zip entry " + entryName + ": stored size " +
+                        entry.compressedSize + " differs from size " + entry.size);
+            }
+            return new ZipEntryImageInputStream(channel, getDataOffset(channel, entry), entry.size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether an entry of a zip file is STORED and can therefore be read in place.
+     *
+     * @param zipFile   the zip file
+     * @param entryName the full name of the entry within the zip
+     * @return true if the entry exists and is not compressed
+     * @throws IOException if the file is not a readable zip
+     */
+    public static boolean isStored(final File zipFile, final String entryName) throws IOException {
+        try (FileChannel channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.READ)) {
+            final EntryLocation entry = findEntry(channel, entryName);
+            return entry != null && entry.method == ZipEntry.STORED && !entry.encrypted;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        if (streamPos >= length) {
+            return -1;
+        }
+        if (streamPos < bufferPos || streamPos >= bufferPos + bufferLength) {
+            fillBuffer(streamPos);
+        }
+        final int val = buffer.get((int) (streamPos - bufferPos)) & 0xFF;
+        ++streamPos;
+        return val;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        checkClosed();
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " b.length=" + b.length);
+        }
+        bitOffset = 0;
+        if (len == 0) {
+            return 0;
+        }
+        if (streamPos >= length) {
+            return -1;
+        }
+        final int n = (int) Math.min(len, length - streamPos);
+
+        final int nRead;
+        if (streamPos >= bufferPos && streamPos + n <= bufferPos + bufferLength) {
+            System.arraycopy(buffer.array(), (int) (streamPos - bufferPos), b, off, n);
+            nRead = n;
+        } else if (n < BUFFER_SIZE) {
+            fillBuffer(streamPos);
+            nRead = Math.min(n, bufferLength);
+            System.arraycopy(buffer.array(), 0, b, off, nRead);
+        } else {
+            nRead = readFully(ByteBuffer.wrap(b, off, n), dataOffset + streamPos);
+        }
+        streamPos += nRead;
+        return nRead;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public boolean isCached() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        channel.close();
+    }
+
+    private void fillBuffer(final long pos) throws IOException {
+        buffer.clear();
+        buffer.limit((int) Math.min(BUFFER_SIZE, length - pos));
+        bufferPos = pos;
+        bufferLength = readFully(buffer, dataOffset + pos);
+    }
+
+    private int readFully(final ByteBuffer dst, final long filePos) throws IOException {
+        int total = 0;
+        while (dst.hasRemaining()) {
+            final int n = channel.read(dst, filePos + total);
+            if (n < 0) {
+                if (total == 0) {
+                    throw new IOException("Unexpected end of zip file");
+                }
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private static long getDataOffset(final FileChannel channel, final EntryLocation entry) throws IOException {
+        final ByteBuffer header = read(channel, entry.localHeaderOffset, LOCAL_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_HEADER_SIG) {
+            throw new IOException("Invalid local header for zip entry at " + entry.localHeaderOffset);
+        }
+        final int nameLength = header.getShort(26) & MAGIC_16;
+        final int extraLength = header.getShort(28) & MAGIC_16;
+        return entry.localHeaderOffset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+    }
+
+    private static EntryLocation findEntry(final FileChannel channel, final String entryName) throws IOException {
+        final long fileSize = channel.size();
+        final int tailSize = (int) Math.min(fileSize, END_OF_CENTRAL_DIR_SIZE + MAX_COMMENT_SIZE);
+        final long tailStart = fileSize - tailSize;
+        final ByteBuffer tail = read(channel, tailStart, tailSize);
+
+        int eocd = -1;
+        for (int i = tailSize - END_OF_CENTRAL_DIR_SIZE; i >= 0; --i) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIR_SIG) {
+                eocd = i;
+                break;
+            }
+        }
+        if (eocd < 0) {
+            throw new IOException("Not a zip file: end of central directory not found");
+        }
+
+        long numEntries = tail.getShort(eocd + 10) & MAGIC_16;
+        long cdSize = tail.getInt(eocd + 12) & MAGIC_32;
+        long cdOffset = tail.getInt(eocd + 16) & MAGIC_32;
+
+        if (numEntries == MAGIC_16 || cdSize == MAGIC_32 || cdOffset == MAGIC_32) {
+            final long locatorPos = tailStart + eocd - ZIP64_LOCATOR_SIZE;
+            if (locatorPos >= 0) {
+                final ByteBuffer locator = read(channel, locatorPos, ZIP64_LOCATOR_SIZE);
+                if (locator.getInt(0) == ZIP64_LOCATOR_SIG) {
+                    final ByteBuffer zip64Eocd = read(channel, locator.getLong(8), 56);
+                    if (zip64Eocd.getInt(0) != ZIP64_END_OF_CENTRAL_DIR_SIG) {
+                        throw new IOException("Invalid zip64 end of central directory");
+                    }
+                    numEntries = zip64Eocd.getLong(32);
+                    cdSize = zip64Eocd.getLong(40);
+                    cdOffset = zip64Eocd.getLong(48);
+                }
+            }
+        }
+        if (cdSize > Integer.MAX_VALUE || cdOffset + cdSize > fileSize) {
+            throw new IOException("Invalid zip central directory");
+        }
+
+        final byte[] target = entryName.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer cd = read(channel, cdOffset, (int) cdSize);
+        int pos = 0;
+        for (long e = 0; e < numEntries && pos + CENTRAL_HEADER_SIZE <= cdSize; ++e) {
+            if (cd.getInt(pos) != CENTRAL_HEADER_SIG) {
+                throw new IOException("Invalid zip central directory entry at " + (cdOffset + pos));
+            }
+            final int nameLength = cd.getShort(pos + 28) & MAGIC_16;
+            final int extraLength = cd.getShort(pos + 30) & MAGIC_16;
+            final int commentLength = cd.getShort(pos + 32) & MAGIC_16;
+            final int namePos = pos + CENTRAL_HEADER_SIZE;
+
+            if (nameLength == target.length && nameEquals(cd, namePos, target)) {
+                final EntryLocation entry = new EntryLocation();
+                entry.encrypted = (cd.getShort(pos + 8) & 1) != 0;
+                entry.method = cd.getShort(pos + 10) & MAGIC_16;
+                entry.compressedSize = cd.getInt(pos + 20) & MAGIC_32;
+                entry.size = cd.getInt(pos + 24) & MAGIC_32;
+                entry.localHeaderOffset = cd.getInt(pos + 42) & MAGIC_32;
+                readZip64Extra(cd, namePos + nameLength, extraLength, entry);
+                return entry;
+            }
+            pos = namePos + nameLength + extraLength + commentLength;
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the 32-bit sizes and offset that overflowed with the values of the zip64 extended information.
+     */
+    private static void readZip64Extra(final ByteBuffer cd, final int extraPos, final int extraLength,
+                                       final EntryLocation entry) {
+        int pos = extraPos;
+        final int end = extraPos + extraLength;
+        while (pos + 4 <= end) {
+            final int id = cd.getShort(pos) & MAGIC_16;
+            final int size = cd.getShort(pos + 2) & MAGIC_16;
+            if (id == ZIP64_EXTRA_ID) {
+                int p = pos + 4;
+                final int dataEnd = Math.min(p + size, end);
+                if (entry.size == MAGIC_32 && p + 8 <= dataEnd) {
+                    entry.size = cd.getLong(p);
+                    p += 8;
+                }
+                if (entry.compressedSize == MAGIC_32 && p + 8 <= dataEnd) {
+                    entry.compressedSize = cd.getLong(p);
+                    p += 8;
+                }
+                if (entry.localHeaderOffset == MAGIC_32 && p + 8 <= dataEnd) {
+                    entry.localHeaderOffset = cd.getLong(p);
+                }
+                return;
+            }
+            pos += 4 + size;
+        }
+    }
+
+    private static boolean nameEquals(final ByteBuffer cd, final int namePos, final byte[] target) {
+        for (int i = 0; i < target.length; ++i) {
+            if (cd.get(namePos + i) != target[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer read(final FileChannel channel, final long pos, final int size) throws IOException {
+        final ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        int total = 0;
+        while (buf.hasRemaining()) {
+            final int n = channel.read(buf, pos + total);
+            if (n < 0) {
+                throw new IOException("Unexpected end of zip file at " + (pos + total));
+            }
+            total += n;
+        }
+        return buf;
+    }
+
+    private static class EntryLocation {
+        int method;
+        boolean encrypted;
+        long compressedSize;
+        long size;
+        long localHeaderOffset;
+    }
+}
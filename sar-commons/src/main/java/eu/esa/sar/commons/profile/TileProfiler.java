@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.profile;
+
+import eu.esa.sar.cloud.json.JSON;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.core.util.SystemUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Opt-in profiling of operator tile computation.
+ *
+ * Instrumented operators wrap {@code computeTile}/{@code computeTileStack} in
+ * {@link #startTile(Operator, String)} and {@link TileTimer#stop()}, which records the tile latency and the
+ * bytes the computing thread allocated into per-operator, per-band {@link LogLinearHistogram}s. Synchronized
+ * sections report the time spent waiting for the monitor with {@link #lockRequested()} before and
+ * {@link #lockAcquired(Operator, String, long)} inside the section.
+ *
+ * Operators call {@link #operatorDisposed(Operator)} from {@code dispose()}; once every operator that
+ * computed a tile has been disposed, i.e. at the end of a graph, the profile is written as JSON and CSV to
+ * the output folder and the counters are reset. Anything still unwritten is dumped at JVM exit.
+ *
+ * Profiling is off unless enabled with system property: -Dsar.profile.tiles=true
+ * Output folder can be set with system property: -Dsar.profile.dir=/path (default: temp folder/sar-profile)
+ */
+public final class TileProfiler {
+
+    public static final String ENABLED_PROPERTY = "sar.profile.tiles";
+    public static final String OUTPUT_DIR_PROPERTY = "sar.profile.dir";
+
+    private static final String STACK = "(stack)";
+    private static final double NANOS_PER_MILLI = 1.0e6;
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static volatile File outputDir = new File(System.getProperty(OUTPUT_DIR_PROPERTY,
+            new File(System.getProperty("java.io.tmpdir"), "sar-profile").getPath()));
+
+    private static final ConcurrentMap<String, TileStats> tileStats = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LockStats> lockStats = new ConcurrentHashMap<>();
+    private static final Set<Operator> activeOperators = Collections.newSetFromMap(new IdentityHashMap<>());
+    private static final com.sun.management.ThreadMXBean allocationBean = getAllocationBean();
+    private static boolean shutdownHookAdded;
+
+    private TileProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enable) {
+        enabled = enable;
+    }
+
+    public static File getOutputDir() {
+        return outputDir;
+    }
+
+    public static void setOutputDir(final File dir) {
+        outputDir = dir;
+    }
+
+    /**
+     * Starts timing a tile on the calling thread.
+     *
+     * @param operator the computing operator
+     * @param bandName the target band, or null for a tile stack
+     * @return the timer to stop when the tile is done; a no-op timer when profiling is off
+     */
+    public static TileTimer startTile(final Operator operator, final String bandName) {
+        if (!enabled) {
+            return TileTimer.NONE;
+        }
+        register(operator);
+        final String opName = operatorName(operator);
+        final String band = bandName != null ? bandName : STACK;
+        final TileStats stats = tileStats.computeIfAbsent(opName + '\u0000' + band, k -> new TileStats(opName, band));
+        return new TileTimer(stats, System.nanoTime(), allocatedBytes());
+    }
+
+    /**
+     * @return the time stamp to pass to {@link #lockAcquired} once the monitor is held, 0 when profiling is off
+     */
+    public static long lockRequested() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the wait for a monitor. Call as the first statement inside the synchronized section.
+     *
+     * @param operator      the operator owning the section
+     * @param section       name of the section, e.g. the method name
+     * @param requestedTime value of {@link #lockRequested()} taken before entering the section
+     */
+    public static void lockAcquired(final Operator operator, final String section, final long requestedTime) {
+        if (!enabled || requestedTime == 0L) {
+            return;
+        }
+        final long waitNanos = System.nanoTime() - requestedTime;
+        final String opName = operatorName(operator);
+        lockStats.computeIfAbsent(opName + '\u0000' + section, k -> new LockStats(opName, section))
+                .waitNanos.record(waitNanos);
+    }
+
+    /**
+     * Marks an operator as done. The profile is written when the last operator that computed a tile is disposed.
+     *
+     * @param operator the disposed operator
+     * @return the JSON profile written, or null
+     */
+    public static File operatorDisposed(final Operator operator) {
+        synchronized (activeOperators) {
+            if (!activeOperators.remove(operator) || !activeOperators.isEmpty()) {
+                return null;
+            }
+        }
+        try {
+            return dump();
+        } catch (IOException e) {
+            SystemUtils.LOG.warning("Unable to write tile profile: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the profile collected so far as JSON and CSV to the output folder and resets the counters.
+     *
+     * @return the JSON file, or null if nothing was recorded
+     * @throws IOException if the files cannot be written
+     */
+    public static synchronized File dump() throws IOException {
+        if (tileStats.isEmpty() && lockStats.isEmpty()) {
+            return null;
+        }
+        final List<TileStats> tiles = new ArrayList<>(tileStats.values());
+        final List<LockStats> locks = new ArrayList<>(lockStats.values());
+        reset();
+
+        // slowest first, which is what one looks for when tuning a graph
+        tiles.sort(Comparator.comparingLong((TileStats s) -> s.latencyNanos.getSum()).reversed());
+        locks.sort(Comparator.comparingLong((LockStats s) -> s.waitNanos.getSum()).reversed());
+
+        final String baseName = "tile-profile-" + LocalDateTime.now().format(FILE_TIME_FORMAT);
+        final File jsonFile = new File(outputDir, baseName + ".json");
+        final File csvFile = new File(outputDir, baseName + ".csv");
+        JSON.write(toJSON(tiles, locks), jsonFile);
+        writeCSV(tiles, locks, csvFile);
+
+        SystemUtils.LOG.info("Tile profile written to " + jsonFile);
+        return jsonFile;
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public static void reset() {
+        tileStats.clear();
+        lockStats.clear();
+    }
+
+    private static void register(final Operator operator) {
+        synchronized (activeOperators) {
+            activeOperators.add(operator);
+            if (!shutdownHookAdded) {
+                shutdownHookAdded = true;
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        dump();
+                    } catch (IOException e) {
+                        // nothing left to report to at exit
+                    }
+                }, "TileProfiler-dump"));
+            }
+        }
+    }
+
+    private static String operatorName(final Operator operator) {
+        return operator.getClass().getSimpleName();
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                }
+                return sunBean;
+            }
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return allocationBean != null ? allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1L;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJSON(final List<TileStats> tiles, final List<LockStats> locks) {
+        final JSONArray tileArray = new JSONArray();
+        for (TileStats s : tiles) {
+            final JSONObject obj = new JSONObject();
+            obj.put("operator", s.operator);
+            obj.put("band", s.band);
+            obj.put("tiles", s.latencyNanos.getCount());
+            obj.put("latencyMillis", summary(s.latencyNanos, NANOS_PER_MILLI));
+            if (s.allocatedBytes.getCount() > 0) {
+                obj.put("allocatedMB", summary(s.allocatedBytes, BYTES_PER_MB));
+            }
+            tileArray.add(obj);
+        }
+
+        final JSONArray lockArray = new JSONArray();
+        for (LockStats s : locks) {
+            final JSONObject obj = new JSONObject();
+            obj.put("operator", s.operator);
+            obj.put("section", s.section);
+            obj.put("acquisitions", s.waitNanos.getCount());
+            obj.put("waitMillis", summary(s.waitNanos, NANOS_PER_MILLI));
+            lockArray.add(obj);
+        }
+
+        final JSONObject json = new JSONObject();
+        json.put("created", LocalDateTime.now().toString());
+        json.put("tiles", tileArray);
+        json.put("locks", lockArray);
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject summary(final LogLinearHistogram h, final double scale) {
+        final JSONObject obj = new JSONObject();
+        obj.put("total", h.getSum() / scale);
+        obj.put("mean", h.getMean() / scale);
+        obj.put("min", h.getMin() / scale);
+        obj.put("p50", h.getValueAtPercentile(50) / scale);
+        obj.put("p90", h.getValueAtPercentile(90) / scale);
+        obj.put("p99", h.getValueAtPercentile(99) / scale);
+        obj.put("max", h.getMax() / scale);
+        return obj;
+    }
+
+    private static void writeCSV(final List<TileStats> tiles, final List<LockStats> locks, final File file)
+            throws IOException {
+        file.getParentFile().mkdirs();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            out.println("kind,operator,name,count,total_ms,mean_ms,p50_ms,p90_ms,p99_ms,max_ms," +
+                    "alloc_total_mb,alloc_mean_mb,alloc_p99_mb");
+            for (TileStats s : tiles) {
+                out.print(csvRow("tile", s.operator, s.band, s.latencyNanos));
+                final LogLinearHistogram a = s.allocatedBytes;
+                out.println(String.format(Locale.ROOT, ",%.3f,%.3f,%.3f", a.getSum() / BYTES_PER_MB,
+                        a.getMean() / BYTES_PER_MB, a.getValueAtPercentile(99) / BYTES_PER_MB));
+            }
+            for (LockStats s : locks) {
+                out.print(csvRow("lock", s.operator, s.section, s.waitNanos));
+                out.println(",,,");
+            }
+        }
+    }
+
+    private static String csvRow(final String kind, final String operator, final String name,
+                                 final LogLinearHistogram h) {
+        return String.format(Locale.ROOT, "%s,%s,\"%s\",%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", kind, operator,
+                name.replace("\"", "\"\""), h.getCount(), h.getSum() / NANOS_PER_MILLI, h.getMean() / NANOS_PER_MILLI,
+                h.getValueAtPercentile(50) / NANOS_PER_MILLI, h.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                h.getValueAtPercentile(99) / NANOS_PER_MILLI, h.getMax() / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Measures one tile. Not thread-safe; start and stop on the computing thread.
+     */
+    public static final class TileTimer {
+
+        static final TileTimer NONE = new TileTimer(null, 0L, -1L);
+
+        private final TileStats stats;
+        private final long startTime;
+        private final long startAllocated;
+
+        private TileTimer(final TileStats stats, final long startTime, final long startAllocated) {
+            this.stats = stats;
+            this.startTime = startTime;
+            this.startAllocated = startAllocated;
+        }
+
+        public void stop() {
+            if (stats == null) {
+                return;
+            }
+            stats.latencyNanos.record(System.nanoTime() - startTime);
+            if (startAllocated >= 0) {
+                stats.allocatedBytes.record(allocatedBytes() - startAllocated);
+            }
+        }
+    }
+
+    private static final class TileStats {
+        final String operator;
+        final String band;
+        final LogLinearHistogram latencyNanos = new LogLinearHistogram();
+        final LogLinearHistogram allocatedBytes = new LogLinearHistogram();
+
+        TileStats(final String operator, final String band) {
+            this.operator = operator;
+            this.band = band;
+        }
+    }
+
+    private static final class LockStats {
+        final String operator;
+        final String section;
+        final LogLinearHistogram waitNanos = new LogLinearHistogram();
+
+        LockStats(final String operator, final String section) {
+            this.operator = operator;
+            this.section = section;
+        }
+    }
+}
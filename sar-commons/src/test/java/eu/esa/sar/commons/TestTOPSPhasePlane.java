@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for {@link TOPSPhasePlane}.
+ */
+public class TestTOPSPhasePlane {
+
+    private static final int SAMPLES = 300;
+    private static final int LINES = 1500;
+
+    private static Sentinel1Utils.SubSwathInfo createSubSwath() {
+        final Sentinel1Utils.SubSwathInfo subSwath = new Sentinel1Utils.SubSwathInfo();
+        subSwath.numOfBursts = 2;
+        subSwath.linesPerBurst = LINES;
+        subSwath.samplesPerBurst = SAMPLES;
+        subSwath.azimuthTimeInterval = 0.002055556;
+        subSwath.dopplerRate = new double[2][SAMPLES];
+        subSwath.referenceTime = new double[2][SAMPLES];
+        subSwath.dopplerCentroid = new double[2][SAMPLES];
+        for (int b = 0; b < 2; b++) {
+            for (int x = 0; x < SAMPLES; x++) {
+                // IW-like steering rate, zero-Doppler crossing and Doppler centroid
+                subSwath.dopplerRate[b][x] = 1750.0 + 0.4 * x + 10 * b;
+                subSwath.referenceTime[b][x] = 1.5 + 1.0e-4 * x;
+                subSwath.dopplerCentroid[b][x] = 20.0 - 0.05 * x;
+            }
+        }
+        return subSwath;
+    }
+
+    private static double expected(final Sentinel1Utils.SubSwathInfo subSwath, final int burst,
+                                   final int x, final int y, final TOPSPhasePlane.Type type) {
+        final double ta = (y - burst * subSwath.linesPerBurst) * subSwath.azimuthTimeInterval;
+        final double dt = ta - subSwath.referenceTime[burst][x];
+        final double deramp = -Math.PI * subSwath.dopplerRate[burst][x] * dt * dt;
+        final double demod = -2 * Math.PI * subSwath.dopplerCentroid[burst][x] * ta;
+        switch (type) {
+            case DERAMP:
+                return deramp;
+            case DEMOD:
+                return demod;
+            default:
+                return deramp + demod;
+        }
+    }
+
+    @Test
+    public void testPhaseMatchesClosedForm() {
+        final Sentinel1Utils.SubSwathInfo subSwath = createSubSwath();
+        final Rectangle rectangle = new Rectangle(40, LINES + 100, 50, 60);
+        for (TOPSPhasePlane.Type type : TOPSPhasePlane.Type.values()) {
+            final double[][] phase = new double[rectangle.height][rectangle.width];
+            TOPSPhasePlane.get(subSwath, 1, type).computePhase(rectangle, phase);
+            for (int yy = 0; yy < rectangle.height; yy++) {
+                for (int xx = 0; xx < rectangle.width; xx++) {
+                    assertEquals(expected(subSwath, 1, rectangle.x + xx, rectangle.y + yy, type),
+                                 phase[yy][xx], 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPhasorTracksPhaseOverFullBurst() {
+        final Sentinel1Utils.SubSwathInfo subSwath = createSubSwath();
+        final Rectangle rectangle = new Rectangle(0, 0, SAMPLES, LINES);
+        final float[] re = new float[SAMPLES * LINES];
+        final float[] im = new float[SAMPLES * LINES];
+        TOPSPhasePlane.get(subSwath, 0, TOPSPhasePlane.Type.DERAMP_DEMOD).computePhasor(rectangle, re, im);
+
+        for (int y = 0; y < LINES; y += 7) {
+            for (int x = 0; x < SAMPLES; x += 3) {
+                final double phase = expected(subSwath, 0, x, y, TOPSPhasePlane.Type.DERAMP_DEMOD);
+                final int k = y * SAMPLES + x;
+                assertEquals(Math.cos(phase), re[k], 1e-5);
+                assertEquals(Math.sin(phase), im[k], 1e-5);
+            }
+        }
+    }
+
+    @Test
+    public void testPlanesAreCachedPerBurst() {
+        final Sentinel1Utils.SubSwathInfo subSwath = createSubSwath();
+        final TOPSPhasePlane plane = TOPSPhasePlane.get(subSwath, 0, TOPSPhasePlane.Type.DERAMP);
+        assertSame(plane, TOPSPhasePlane.get(subSwath, 0, TOPSPhasePlane.Type.DERAMP));
+        assertNotSame(plane, TOPSPhasePlane.get(subSwath, 1, TOPSPhasePlane.Type.DERAMP));
+        assertNotSame(plane, TOPSPhasePlane.get(subSwath, 0, TOPSPhasePlane.Type.DEMOD));
+
+        // replacing the Doppler arrays invalidates the cached plane
+        subSwath.dopplerRate = new double[2][SAMPLES];
+        assertNotSame(plane, TOPSPhasePlane.get(subSwath, 0, TOPSPhasePlane.Type.DERAMP));
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.io;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link WriteBehindFile}.
+ */
+public class TestWriteBehindFile {
+
+    private static final int W = 40;
+    private static final int H = 30;
+    private static final int TILE = 10;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static ProductData createTile(final int x0, final int y0) {
+        final float[] data = new float[TILE * TILE];
+        for (int y = 0; y < TILE; ++y) {
+            for (int x = 0; x < TILE; ++x) {
+                data[y * TILE + x] = (y0 + y) * W + (x0 + x);
+            }
+        }
+        return ProductData.createInstance(data);
+    }
+
+    private static void assertImage(final File file, final ByteOrder order) throws IOException {
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(order);
+        assertEquals(W * H * 4, bytes.limit());
+        for (int i = 0; i < W * H; ++i) {
+            assertEquals(i, bytes.getFloat(), 0f);
+        }
+    }
+
+    @Test
+    public void testTilesInReverseOrder() throws Exception {
+        final File file = tempFolder.newFile("reverse.img");
+        try (WriteBehindFile out = new WriteBehindFile(file, W * H * 4, ByteOrder.BIG_ENDIAN, 2)) {
+            for (int y = H - TILE; y >= 0; y -= TILE) {
+                for (int x = W - TILE; x >= 0; x -= TILE) {
+                    out.writeTile(createTile(x, y), TILE, TILE, ((long) y * W + x) * 4, W * 4);
+                }
+            }
+        }
+        assertImage(file, ByteOrder.BIG_ENDIAN);
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final File file = tempFolder.newFile("concurrent.img");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (WriteBehindFile out = new WriteBehindFile(file, W * H * 4, ByteOrder.LITTLE_ENDIAN, 3)) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int y = 0; y < H; y += TILE) {
+                for (int x = 0; x < W; x += TILE) {
+                    final int tx = x, ty = y;
+                    futures.add(executor.submit(() -> {
+                        out.writeTile(createTile(tx, ty), TILE, TILE, ((long) ty * W + tx) * 4, W * 4);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            out.flush();
+            assertImage(file, ByteOrder.LITTLE_ENDIAN);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testShortSamplesKeepByteOrder() throws Exception {
+        final File file = tempFolder.newFile("short.img");
+        try (WriteBehindFile out = new WriteBehindFile(file, 8, ByteOrder.BIG_ENDIAN)) {
+            out.writeTile(ProductData.createInstance(new short[]{0x0102, 0x0304}), 2, 1, 4, 4);
+        }
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        assertEquals(8, bytes.length);
+        assertEquals(0, bytes[0]);
+        assertEquals(1, bytes[4]);
+        assertEquals(2, bytes[5]);
+        assertEquals(3, bytes[6]);
+        assertEquals(4, bytes[7]);
+    }
+
+    @Test
+    public void testWriteAfterCloseFails() throws Exception {
+        final File file = tempFolder.newFile("closed.img");
+        final WriteBehindFile out = new WriteBehindFile(file, 16, ByteOrder.BIG_ENDIAN);
+        out.close();
+        out.close();
+        try {
+            out.writeTile(ProductData.createInstance(new float[]{1f}), 1, 1, 0, 4);
+            fail("IOException expected");
+        } catch (IOException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testCloseReportsWriteError() throws Exception {
+        final File file = tempFolder.newFile("error.img");
+        final WriteBehindFile out = new WriteBehindFile(file, 16, ByteOrder.BIG_ENDIAN, 1);
+        out.writeTile(ProductData.createInstance(new float[]{1f}), 1, 1, -4, 4);
+        try {
+            out.close();
+            fail("IOException expected");
+        } catch (IOException expected) {
+            // ok
+        }
+        out.close();
+    }
+
+    @Test
+    public void testCloseWhenInterrupted() throws Exception {
+        final File file = tempFolder.newFile("interrupted.img");
+        final WriteBehindFile out = new WriteBehindFile(file, 16, ByteOrder.BIG_ENDIAN, 1);
+        out.writeTile(ProductData.createInstance(new float[]{1f}), 1, 1, 0, 4);
+        Thread.currentThread().interrupt();
+        try {
+            out.close();
+        } catch (IOException expected) {
+            // flushing is interrupted, but the writer still stops
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        out.close();
+    }
+}
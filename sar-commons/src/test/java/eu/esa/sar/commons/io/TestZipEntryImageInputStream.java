@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.stream.ImageInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ZipEntryImageInputStream}.
+ */
+public class TestZipEntryImageInputStream {
+
+    private static final String MEASUREMENT = "S1A_TEST.SAFE/measurement/s1a-iw-grd-vv.tiff";
+    private static final String ANNOTATION = "S1A_TEST.SAFE/annotation/s1a-iw-grd-vv.xml";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadStoredEntry() throws Exception {
+        final byte[] data = createData(100_000, 1);
+        final File zip = createZip(ZipEntry.STORED, data);
+
+        try (ImageInputStream stream = ZipEntryImageInputStream.createIfStored(zip, MEASUREMENT)) {
+            assertNotNull(stream);
+            assertEquals(data.length, stream.length());
+
+            final byte[] actual = new byte[data.length];
+            stream.readFully(actual);
+            assertArrayEquals(data, actual);
+            assertEquals(-1, stream.read());
+        }
+    }
+
+    @Test
+    public void testRandomAccess() throws Exception {
+        final byte[] data = createData(50_000, 2);
+        final File zip = createZip(ZipEntry.STORED, data);
+
+        try (ImageInputStream stream = ZipEntryImageInputStream.createIfStored(zip, MEASUREMENT)) {
+            assertNotNull(stream);
+            final Random random = new Random(3);
+            for (int i = 0; i < 200; ++i) {
+                final int pos = random.nextInt(data.length);
+                final int len = Math.min(random.nextInt(20_000), data.length - pos);
+                stream.seek(pos);
+                assertEquals(data[pos] & 0xFF, stream.read());
+
+                final byte[] actual = new byte[len];
+                stream.seek(pos);
+                stream.readFully(actual);
+                for (int j = 0; j < len; ++j) {
+                    assertEquals("at " + (pos + j), data[pos + j], actual[j]);
+                }
+                assertEquals(pos + len, stream.getStreamPosition());
+            }
+        }
+    }
+
+    @Test
+    public void testByteOrder() throws Exception {
+        final byte[] data = {0x49, 0x49, 0x2A, 0x00, 0x08, 0x00, 0x00, 0x00};
+        final File zip = createZip(ZipEntry.STORED, data);
+
+        try (ImageInputStream stream = ZipEntryImageInputStream.createIfStored(zip, MEASUREMENT)) {
+            assertNotNull(stream);
+            stream.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+            stream.seek(2);
+            assertEquals(42, stream.readUnsignedShort());
+            assertEquals(8, stream.readInt());
+
+            stream.setByteOrder(ByteOrder.BIG_ENDIAN);
+            stream.seek(4);
+            assertEquals(0x08000000, stream.readInt());
+        }
+    }
+
+    @Test
+    public void testDeflatedEntryFallsBack() throws Exception {
+        final File zip = createZip(ZipEntry.DEFLATED, createData(10_000, 4));
+
+        assertNull(ZipEntryImageInputStream.createIfStored(zip, MEASUREMENT));
+        assertFalse(ZipEntryImageInputStream.isStored(zip, MEASUREMENT));
+    }
+
+    @Test
+    public void testStoredEntryAfterDeflatedEntry() throws Exception {
+        final File zip = createZip(ZipEntry.STORED, createData(1000, 5));
+
+        assertTrue(ZipEntryImageInputStream.isStored(zip, MEASUREMENT));
+        assertFalse(ZipEntryImageInputStream.isStored(zip, ANNOTATION));
+    }
+
+    @Test
+    public void testMissingEntry() throws Exception {
+        final File zip = createZip(ZipEntry.STORED, createData(1000, 6));
+
+        assertNull(ZipEntryImageInputStream.createIfStored(zip, "S1A_TEST.SAFE/measurement/missing.tiff"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAZipFile() throws Exception {
+        final File file = tempFolder.newFile("notazip.zip");
+        Files.write(file.toPath(), createData(1000, 7));
+
+        ZipEntryImageInputStream.createIfStored(file, MEASUREMENT);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadAfterClose() throws Exception {
+        final File zip = createZip(ZipEntry.STORED, createData(1000, 8));
+
+        final ImageInputStream stream = ZipEntryImageInputStream.createIfStored(zip, MEASUREMENT);
+        assertNotNull(stream);
+        stream.close();
+        stream.read();
+    }
+
+    private static byte[] createData(final int size, final long seed) {
+        final byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    /**
+     * Writes a zip with a deflated annotation entry, the measurement entry using the given method
+     * and a trailing deflated entry, so the measurement does not start at offset zero.
+     */
+    private File createZip(final int method, final byte[] data) throws IOException {
+        final File file = tempFolder.newFile();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            zos.putNextEntry(new ZipEntry("S1A_TEST.SAFE/"));
+            zos.closeEntry();
+
+            final ZipEntry annotation = new ZipEntry(ANNOTATION);
+            annotation.setExtra(new byte[]{(byte) 0xCA, (byte) 0xFE, 4, 0, 1, 2, 3, 4});
+            zos.putNextEntry(annotation);
+            zos.write("<product/>".getBytes());
+            zos.closeEntry();
+
+            final ZipEntry measurement = new ZipEntry(MEASUREMENT);
+            measurement.setMethod(method);
+            if (method == ZipEntry.STORED) {
+                final CRC32 crc = new CRC32();
+                crc.update(data);
+                measurement.setSize(data.length);
+                measurement.setCompressedSize(data.length);
+                measurement.setCrc(crc.getValue());
+            }
+            zos.putNextEntry(measurement);
+            zos.write(data);
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("S1A_TEST.SAFE/manifest.safe"));
+            zos.write("<manifest/>".getBytes());
+            zos.closeEntry();
+        }
+        return file;
+    }
+}
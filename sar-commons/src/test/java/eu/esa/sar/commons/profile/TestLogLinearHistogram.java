@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.profile;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LogLinearHistogram}.
+ */
+public class TestLogLinearHistogram {
+
+    @Test
+    public void testEmpty() {
+        final LogLinearHistogram h = new LogLinearHistogram();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getMin());
+        assertEquals(0, h.getMax());
+        assertEquals(0.0, h.getMean(), 0.0);
+        assertEquals(0, h.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        final LogLinearHistogram h = new LogLinearHistogram();
+        for (int v = 1; v <= 100; v++) {
+            h.record(v);
+        }
+        assertEquals(100, h.getCount());
+        assertEquals(5050, h.getSum());
+        assertEquals(1, h.getMin());
+        assertEquals(100, h.getMax());
+        assertEquals(50, h.getValueAtPercentile(50));
+        assertEquals(90, h.getValueAtPercentile(90));
+        assertEquals(100, h.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        long previous = -1;
+        for (int i = 0; i < 3000; i++) {
+            final long upper = LogLinearHistogram.highestEquivalentValue(i);
+            assertTrue(upper > previous);
+            assertEquals(i, LogLinearHistogram.indexOf(upper));
+            assertEquals(i, LogLinearHistogram.indexOf(previous + 1));
+            previous = upper;
+        }
+        LogLinearHistogram.indexOf(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testRelativePrecision() {
+        final Random random = new Random(11);
+        final long[] values = new long[10000];
+        final LogLinearHistogram h = new LogLinearHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 25);
+            h.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double p : new double[]{10, 50, 90, 99, 99.9}) {
+            final long expected = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            final long actual = h.getValueAtPercentile(p);
+            assertTrue(p + ": " + actual + " < " + expected, actual >= expected);
+            assertTrue(p + ": " + actual + " >> " + expected, actual <= expected + expected / 64 + 1);
+        }
+        assertEquals(values[values.length - 1], h.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testNegativeValuesClampToZero() {
+        final LogLinearHistogram h = new LogLinearHistogram();
+        h.record(-5);
+        assertEquals(0, h.getMax());
+        assertEquals(0, h.getValueAtPercentile(50));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.profile;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.cloud.json.JSON;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.gpf.annotations.SourceProduct;
+import org.esa.snap.core.gpf.annotations.TargetProduct;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TileProfiler}.
+ */
+public class TestTileProfiler {
+
+    private static final int SIZE = 64;
+    private static final int TILE_SIZE = 16;
+    private static final int NUM_TILES = (SIZE / TILE_SIZE) * (SIZE / TILE_SIZE);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        TileProfiler.reset();
+        TileProfiler.setOutputDir(tempFolder.getRoot());
+        TileProfiler.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        TileProfiler.setEnabled(false);
+        TileProfiler.reset();
+    }
+
+    @Test
+    public void testProfileWrittenAtGraphEnd() throws Exception {
+        final Product source = createSourceProduct();
+        final ScaleOp first = new ScaleOp();
+        first.setSourceProduct(source);
+        final ScaleOp second = new ScaleOp();
+        second.setSourceProduct(first.getTargetProduct());
+        final Product target = second.getTargetProduct();
+
+        for (Band band : target.getBands()) {
+            band.getSourceImage().getData();
+        }
+
+        first.dispose();
+        assertEquals("profile is written once the last operator is disposed", 0, tempFolder.getRoot().list().length);
+        second.dispose();
+
+        final File[] jsonFiles = tempFolder.getRoot().listFiles((dir, name) -> name.endsWith(".json"));
+        assertEquals(1, jsonFiles.length);
+        final File jsonFile = jsonFiles[0];
+
+        final JSONObject json = (JSONObject) JSON.loadJSON(jsonFile);
+        final JSONArray tiles = (JSONArray) json.get("tiles");
+        assertEquals(2, tiles.size());
+        for (Object o : tiles) {
+            final JSONObject entry = (JSONObject) o;
+            assertEquals("ScaleOp", entry.get("operator"));
+            assertTrue(entry.get("band").equals("b1") || entry.get("band").equals("b2"));
+            assertTrue(JSON.getLong(entry.get("tiles")) >= 2 * NUM_TILES);
+
+            final JSONObject latency = (JSONObject) entry.get("latencyMillis");
+            assertTrue(JSON.getDouble(latency.get("p99")) <= JSON.getDouble(latency.get("max")));
+            assertTrue(JSON.getDouble(latency.get("total")) > 0);
+        }
+
+        final JSONArray locks = (JSONArray) json.get("locks");
+        assertEquals(1, locks.size());
+        final JSONObject lock = (JSONObject) locks.get(0);
+        assertEquals("initScale", lock.get("section"));
+        assertTrue(JSON.getLong(lock.get("acquisitions")) >= 2 * 2 * NUM_TILES);
+
+        final File csvFile = new File(jsonFile.getPath().replace(".json", ".csv"));
+        final List<String> lines = Files.readAllLines(csvFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(1 + 2 + 1, lines.size());
+        assertTrue(lines.get(0).startsWith("kind,operator,name,count"));
+        assertTrue(lines.get(1).startsWith("tile,ScaleOp,"));
+        assertTrue(lines.get(3).startsWith("lock,ScaleOp,\"initScale\""));
+
+        assertNull("counters are reset after a dump", TileProfiler.dump());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        TileProfiler.setEnabled(false);
+
+        final ScaleOp op = new ScaleOp();
+        op.setSourceProduct(createSourceProduct());
+        op.getTargetProduct().getBand("b1").getSourceImage().getData();
+
+        op.dispose();
+        assertNull(TileProfiler.dump());
+        assertEquals(0, tempFolder.getRoot().list().length);
+    }
+
+    private static Product createSourceProduct() {
+        final Product product = new Product("source", "test", SIZE, SIZE);
+        product.setPreferredTileSize(TILE_SIZE, TILE_SIZE);
+        product.addBand("b1", "X + Y");
+        product.addBand("b2", "X * Y");
+        return product;
+    }
+
+    /**
+     * Doubles each band, instrumented like the SAR operators.
+     */
+    public static class ScaleOp extends Operator {
+
+        @SourceProduct
+        private Product sourceProduct;
+        @TargetProduct
+        private Product targetProduct;
+
+        private float scale;
+
+        @Override
+        public void initialize() throws OperatorException {
+            targetProduct = new Product("scaled", "test", SIZE, SIZE);
+            targetProduct.setPreferredTileSize(TILE_SIZE, TILE_SIZE);
+            for (Band band : sourceProduct.getBands()) {
+                targetProduct.addBand(band.getName(), ProductData.TYPE_FLOAT32);
+            }
+        }
+
+        @Override
+        public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
+            final TileProfiler.TileTimer tileTimer = TileProfiler.startTile(this, targetBand.getName());
+            try {
+                initScale();
+                final Rectangle rect = targetTile.getRectangle();
+                final Tile sourceTile = getSourceTile(sourceProduct.getBand(targetBand.getName()), rect);
+                for (int y = rect.y; y < rect.y + rect.height; y++) {
+                    for (int x = rect.x; x < rect.x + rect.width; x++) {
+                        targetTile.setSample(x, y, scale * sourceTile.getSampleFloat(x, y));
+                    }
+                }
+            } finally {
+                tileTimer.stop();
+            }
+        }
+
+        private void initScale() {
+            final long lockRequested = TileProfiler.lockRequested();
+            synchronized (this) {
+                TileProfiler.lockAcquired(this, "initScale", lockRequested);
+                scale = 2.0f;
+            }
+        }
+
+        @Override
+        public void dispose() {
+            TileProfiler.operatorDisposed(this);
+            super.dispose();
+        }
+    }
+}
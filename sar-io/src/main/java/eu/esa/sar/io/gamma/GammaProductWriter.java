@@ -17,7 +17,7 @@ package eu.esa.sar.io.gamma;
 
 import com.bc.ceres.core.ProgressMonitor;
 import com.bc.ceres.multilevel.MultiLevelImage;
-import eu.esa.sar.commons.io.FileImageOutputStreamExtImpl;
+import eu.esa.sar.commons.io.WriteBehindFile;
 import eu.esa.sar.io.gamma.header.GammaConstants;
 import eu.esa.sar.io.gamma.header.HeaderDEMWriter;
 import eu.esa.sar.io.gamma.header.HeaderDiffWriter;
@@ -30,15 +30,14 @@ import org.esa.snap.core.gpf.internal.TileImpl;
 import org.esa.snap.core.util.Guardian;
 import org.esa.snap.engine_utilities.datamodel.Unit;
 
-import javax.imageio.stream.ImageOutputStream;
 import java.awt.*;
 import java.awt.image.Raster;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteOrder;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The product writer for Gamma products.
@@ -48,7 +47,7 @@ public class GammaProductWriter extends AbstractProductWriter {
     private File outputDir;
     private File outputFile;
     private Product srcProduct;
-    private Map<Band, ImageOutputStream> bandOutputStreams;
+    private Map<Band, WriteBehindFile> bandOutputFiles;
     private HeaderWriter headerWriter;
 
     public GammaProductWriter(final ProductWriterPlugIn writerPlugIn) {
@@ -89,26 +88,24 @@ public class GammaProductWriter extends AbstractProductWriter {
         headerWriter.writeParFile();
     }
 
-    private ImageOutputStream createImageOutputStream(final Band band) throws IOException {
-        final ImageOutputStream out = new FileImageOutputStreamExtImpl(getValidImageFile(band));
-        out.setByteOrder(ByteOrder.BIG_ENDIAN);
-        return out;
+    private WriteBehindFile createOutputFile(final Band band) throws IOException {
+        return new WriteBehindFile(getValidImageFile(band), getImageFileSize(band), ByteOrder.BIG_ENDIAN);
     }
 
     /**
      * {@inheritDoc}
      */
-    public synchronized void writeBandRasterData(Band sourceBand,
-                                                 int sourceOffsetX, int sourceOffsetY,
-                                                 int sourceWidth, int sourceHeight,
-                                                 ProductData sourceBuffer,
-                                                 ProgressMonitor pm) throws IOException {
+    public void writeBandRasterData(Band sourceBand,
+                                    int sourceOffsetX, int sourceOffsetY,
+                                    int sourceWidth, int sourceHeight,
+                                    ProductData sourceBuffer,
+                                    ProgressMonitor pm) throws IOException {
         Guardian.assertNotNull("sourceBand", sourceBand);
         Guardian.assertNotNull("sourceBuffer", sourceBuffer);
         final int sourceBandWidth = sourceBand.getRasterWidth();
         final int elemSize = headerWriter.getHighestElemSize();
 
-        final ImageOutputStream outputStream = getOrCreateImageOutputStream(sourceBand);
+        final WriteBehindFile outputFile = getOrCreateOutputFile(sourceBand);
         pm.beginTask("Writing band '" + sourceBand.getName() + "'...", sourceHeight);
         try {
             if (isComplex(sourceBand)) {
@@ -116,47 +113,36 @@ public class GammaProductWriter extends AbstractProductWriter {
                 final Rectangle rect = new Rectangle(sourceOffsetX, sourceOffsetY, sourceWidth, sourceHeight);
                 final Tile sourceTile = getSourceTile(getComplexSrcBand(sourceBand), rect);
                 final ProductData qSourceBuffer = sourceTile.getRawSamples();
-                int srcCnt = 0;
+                final int numElems = sourceWidth * sourceHeight;
+                final ProductData destBuffer;
 
                 if (elemSize >= 4) {
-                    final float[] destBuffer = new float[sourceWidth * numInterleaved];
-                    for (long y = sourceOffsetY; y < sourceOffsetY + sourceHeight; ++y) {
-                        int dstCnt = 0;
-                        for (int x = sourceOffsetX; x < sourceOffsetX + sourceWidth; ++x) {
-
-                            destBuffer[dstCnt++] = sourceBuffer.getElemFloatAt(srcCnt);
-                            destBuffer[dstCnt++] = qSourceBuffer.getElemFloatAt(srcCnt);
-                            srcCnt++;
-                        }
-
-                        outputStream.seek(elemSize * (y * sourceBandWidth + sourceOffsetX) * numInterleaved);
-                        outputStream.writeFloats(destBuffer, 0, destBuffer.length);
+                    final float[] dest = new float[numElems * numInterleaved];
+                    int dstCnt = 0;
+                    for (int srcCnt = 0; srcCnt < numElems; ++srcCnt) {
+                        dest[dstCnt++] = sourceBuffer.getElemFloatAt(srcCnt);
+                        dest[dstCnt++] = qSourceBuffer.getElemFloatAt(srcCnt);
                     }
+                    destBuffer = ProductData.createInstance(dest);
                 } else {
-                    final short[] destBuffer = new short[sourceWidth * numInterleaved];
-                    for (long y = sourceOffsetY; y < sourceOffsetY + sourceHeight; ++y) {
-                        int dstCnt = 0;
-                        for (int x = sourceOffsetX; x < sourceOffsetX + sourceWidth; ++x) {
-
-                            destBuffer[dstCnt++] = (short) sourceBuffer.getElemFloatAt(srcCnt);
-                            destBuffer[dstCnt++] = (short) qSourceBuffer.getElemFloatAt(srcCnt);
-                            srcCnt++;
-                        }
-
-                        outputStream.seek(elemSize * (y * sourceBandWidth + sourceOffsetX) * numInterleaved);
-                        outputStream.writeShorts(destBuffer, 0, destBuffer.length);
+                    final short[] dest = new short[numElems * numInterleaved];
+                    int dstCnt = 0;
+                    for (int srcCnt = 0; srcCnt < numElems; ++srcCnt) {
+                        dest[dstCnt++] = (short) sourceBuffer.getElemFloatAt(srcCnt);
+                        dest[dstCnt++] = (short) qSourceBuffer.getElemFloatAt(srcCnt);
                     }
+                    destBuffer = ProductData.createInstance(dest);
                 }
 
+                final long outputPos = (long) elemSize * ((long) sourceOffsetY * sourceBandWidth + sourceOffsetX) * numInterleaved;
+                outputFile.writeTile(destBuffer, sourceWidth * numInterleaved, sourceHeight,
+                                     outputPos, (long) elemSize * sourceBandWidth * numInterleaved);
+
                 //System.out.println(rect.toString());
             } else {
-                //todo
-                long outputPos = (long) sourceOffsetY * (long) sourceBandWidth + sourceOffsetX;
-                final long max = sourceHeight * sourceWidth;
-                for (int sourcePos = 0; sourcePos < max; sourcePos += sourceWidth) {
-                    sourceBuffer.writeTo(sourcePos, sourceWidth, outputStream, outputPos);
-                    outputPos += sourceBandWidth;
-                }
+                final long srcElemSize = sourceBuffer.getElemSize();
+                final long outputPos = ((long) sourceOffsetY * sourceBandWidth + sourceOffsetX) * srcElemSize;
+                outputFile.writeTile(sourceBuffer, sourceWidth, sourceHeight, outputPos, sourceBandWidth * srcElemSize);
             }
             pm.worked(1);
         } finally {
@@ -188,11 +174,11 @@ public class GammaProductWriter extends AbstractProductWriter {
      * @throws java.io.IOException on failure
      */
     public void flush() throws IOException {
-        if (bandOutputStreams == null) {
+        if (bandOutputFiles == null) {
             return;
         }
-        for (Object o : bandOutputStreams.values()) {
-            ((ImageOutputStream) o).flush();
+        for (WriteBehindFile outputFile : bandOutputFiles.values()) {
+            outputFile.flush();
         }
     }
 
@@ -202,14 +188,14 @@ public class GammaProductWriter extends AbstractProductWriter {
      * @throws java.io.IOException on failure
      */
     public void close() throws IOException {
-        if (bandOutputStreams == null) {
+        if (bandOutputFiles == null) {
             return;
         }
-        for (Object o : bandOutputStreams.values()) {
-            ((ImageOutputStream) o).close();
+        for (WriteBehindFile outputFile : bandOutputFiles.values()) {
+            outputFile.close();
         }
-        bandOutputStreams.clear();
-        bandOutputStreams = null;
+        bandOutputFiles.clear();
+        bandOutputFiles = null;
     }
 
     /**
@@ -224,26 +210,19 @@ public class GammaProductWriter extends AbstractProductWriter {
     }
 
     /**
-     * Returns the data output stream associated with the given <code>Band</code>. If no stream exists, one is created
-     * and fed into the hash map
+     * Returns the write-behind file associated with the given <code>Band</code>. If no file exists, one is created
+     * and fed into the map
      */
-    private ImageOutputStream getOrCreateImageOutputStream(final Band band) throws IOException {
-        ImageOutputStream outputStream = getImageOutputStream(band);
-        if (outputStream == null) {
-            outputStream = createImageOutputStream(band);
-            if (bandOutputStreams == null) {
-                bandOutputStreams = new HashMap<>();
-            }
-            bandOutputStreams.put(band, outputStream);
+    private synchronized WriteBehindFile getOrCreateOutputFile(final Band band) throws IOException {
+        if (bandOutputFiles == null) {
+            bandOutputFiles = new ConcurrentHashMap<>();
         }
-        return outputStream;
-    }
-
-    private ImageOutputStream getImageOutputStream(final Band band) {
-        if (bandOutputStreams != null) {
-            return bandOutputStreams.get(band);
+        WriteBehindFile outputFile = bandOutputFiles.get(band);
+        if (outputFile == null) {
+            outputFile = createOutputFile(band);
+            bandOutputFiles.put(band, outputFile);
         }
-        return null;
+        return outputFile;
     }
 
     @Override
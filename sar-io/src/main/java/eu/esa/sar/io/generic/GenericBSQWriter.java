@@ -16,6 +16,7 @@
 package eu.esa.sar.io.generic;
 
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.io.WriteBehindFile;
 import org.esa.snap.core.dataio.AbstractProductWriter;
 import org.esa.snap.core.dataio.ProductWriterPlugIn;
 import org.esa.snap.core.datamodel.Band;
@@ -27,19 +28,18 @@ import org.esa.snap.core.util.Guardian;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.datamodel.metadata.AbstractMetadataIO;
 
-import javax.imageio.stream.FileImageOutputStream;
-import javax.imageio.stream.ImageOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
 
 
 public class GenericBSQWriter extends AbstractProductWriter {
 
-    private ImageOutputStream _outputStream = null;
+    private WriteBehindFile _outputFile = null;
 
-    private String bandName = null;
-    private int bandCounter = 0;
+    private final Map<String, Integer> bandIndex = new HashMap<>(); // order of bands that are written
     private int numOfWriteBands = 0; // number of bands that are written (no virtual bands)
 
     /**
@@ -70,20 +70,23 @@ public class GenericBSQWriter extends AbstractProductWriter {
             file = (File) getOutput();
         }
 
-        _outputStream = new FileImageOutputStream(file);
-        // Default to nativeOrder
-        _outputStream.setByteOrder(ByteOrder.nativeOrder());
-
         final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(getSourceProduct());
         AbstractMetadataIO.saveExternalMetadata(getSourceProduct(), absRoot, file);
 
         // Get number of Real (not Virtual) bands
+        long fileSize = 0;
         final int numOfBands = getSourceProduct().getNumBands();
         for (int i = 0; i < numOfBands; i++) {
-            if (!(getSourceProduct().getBandAt(i) instanceof VirtualBand)) {
-                numOfWriteBands++;
+            final Band band = getSourceProduct().getBandAt(i);
+            if (!(band instanceof VirtualBand)) {
+                bandIndex.put(band.getName(), numOfWriteBands++);
+                fileSize += (long) ProductData.getElemSize(band.getDataType()) *
+                        band.getRasterWidth() * band.getRasterHeight();
             }
         }
+
+        // Default to nativeOrder
+        _outputFile = new WriteBehindFile(file, fileSize, ByteOrder.nativeOrder());
     }
 
     /**
@@ -108,22 +111,18 @@ public class GenericBSQWriter extends AbstractProductWriter {
         checkSourceRegionInsideBandRegion(sourceWidth, sourceBandWidth, sourceHeight, sourceBandHeight, sourceOffsetX, sourceOffsetY);
 
         // Define order number of Band that is being saved
-        if (bandName == null) {
-            bandName = sourceBand.getName();
-        } else if (!bandName.equals(sourceBand.getName())) {
-            bandName = sourceBand.getName();
-            bandCounter++;
+        final Integer bandCounter = bandIndex.get(sourceBand.getName());
+        if (bandCounter == null) {
+            throw new IOException("Band " + sourceBand.getName() + " is not part of the written product");
         }
 
         // Write all source NOT VIRTUAL bands in BSQ : Band Sequential Format
-        long outputPos = sourceOffsetY * (numOfWriteBands * sourceBandWidth) + sourceOffsetX + (bandCounter * sourceBandWidth);
+        final long elemSize = sourceBuffer.getElemSize();
+        final long lineLength = (long) numOfWriteBands * sourceBandWidth;
+        final long outputPos = (sourceOffsetY * lineLength + sourceOffsetX + (long) bandCounter * sourceBandWidth) * elemSize;
         pm.beginTask("Writing band '" + sourceBand.getName() + "'...", sourceHeight);
         try {
-            final long max = sourceHeight * sourceWidth;
-            for (int sourcePos = 0; sourcePos < max; sourcePos += sourceWidth) {
-                sourceBuffer.writeTo(sourcePos, sourceWidth, _outputStream, outputPos);
-                outputPos += (numOfWriteBands * sourceBandWidth);
-            }
+            _outputFile.writeTile(sourceBuffer, sourceWidth, sourceHeight, outputPos, lineLength * elemSize);
             pm.worked(1);
         } finally {
             pm.done();
@@ -162,8 +161,8 @@ public class GenericBSQWriter extends AbstractProductWriter {
      * @throws java.io.IOException on failure
      */
     public void flush() throws IOException {
-        if (_outputStream != null) {
-            _outputStream.flush();
+        if (_outputFile != null) {
+            _outputFile.flush();
         }
     }
 
@@ -173,10 +172,9 @@ public class GenericBSQWriter extends AbstractProductWriter {
      * @throws java.io.IOException on failure
      */
     public void close() throws IOException {
-        if (_outputStream != null) {
-            _outputStream.flush();
-            _outputStream.close();
-            _outputStream = null;
+        if (_outputFile != null) {
+            _outputFile.close();
+            _outputFile = null;
         }
     }
 
@@ -15,24 +15,28 @@
  */
 package eu.esa.sar.io.polsarpro;
 
-import eu.esa.sar.commons.io.FileImageOutputStreamExtImpl;
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.io.WriteBehindFile;
 import eu.esa.sar.commons.polsar.PolBandUtils;
 import org.esa.snap.core.dataio.ProductWriterPlugIn;
 import org.esa.snap.core.dataio.dimap.EnviHeader;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataElement;
 import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.util.Guardian;
 import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.dataio.envi.EnviProductWriter;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.datamodel.metadata.AbstractMetadataIO;
 
-import javax.imageio.stream.ImageOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The product writer for PolSARPro products.
@@ -41,6 +45,8 @@ public class PolsarProProductWriter extends EnviProductWriter {
 
     private final static String BIN_EXTENSION = ".bin";
 
+    private Map<Band, WriteBehindFile> bandOutputFiles;
+
     /**
      * Construct a new instance of a product writer for the given ENVI product writer plug-in.
      *
@@ -74,10 +80,66 @@ public class PolsarProProductWriter extends EnviProductWriter {
                                       band.getRasterHeight(), 0);
     }
 
-    protected ImageOutputStream createImageOutputStream(Band band) throws IOException {
-        final ImageOutputStream out = new FileImageOutputStreamExtImpl(getValidImageFile(band));
-        out.setByteOrder(ByteOrder.LITTLE_ENDIAN);
-        return out;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBandRasterData(Band sourceBand,
+                                    int sourceOffsetX, int sourceOffsetY,
+                                    int sourceWidth, int sourceHeight,
+                                    ProductData sourceBuffer,
+                                    ProgressMonitor pm) throws IOException {
+        Guardian.assertNotNull("sourceBand", sourceBand);
+        Guardian.assertNotNull("sourceBuffer", sourceBuffer);
+        Guardian.assertEquals("sourceWidth * sourceHeight", sourceBuffer.getNumElems(), sourceWidth * sourceHeight);
+        final int sourceBandWidth = sourceBand.getRasterWidth();
+
+        final WriteBehindFile outputFile = getOrCreateOutputFile(sourceBand);
+        final long elemSize = sourceBuffer.getElemSize();
+        final long outputPos = ((long) sourceOffsetY * sourceBandWidth + sourceOffsetX) * elemSize;
+        pm.beginTask("Writing band '" + sourceBand.getName() + "'...", 1);
+        try {
+            outputFile.writeTile(sourceBuffer, sourceWidth, sourceHeight, outputPos, sourceBandWidth * elemSize);
+            pm.worked(1);
+        } finally {
+            pm.done();
+        }
+    }
+
+    private synchronized WriteBehindFile getOrCreateOutputFile(final Band band) throws IOException {
+        if (bandOutputFiles == null) {
+            bandOutputFiles = new ConcurrentHashMap<>();
+        }
+        WriteBehindFile outputFile = bandOutputFiles.get(band);
+        if (outputFile == null) {
+            final long fileSize = (long) ProductData.getElemSize(band.getDataType()) *
+                    band.getRasterWidth() * band.getRasterHeight();
+            outputFile = new WriteBehindFile(getValidImageFile(band), fileSize, ByteOrder.LITTLE_ENDIAN);
+            bandOutputFiles.put(band, outputFile);
+        }
+        return outputFile;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (bandOutputFiles != null) {
+            for (WriteBehindFile outputFile : bandOutputFiles.values()) {
+                outputFile.flush();
+            }
+        }
+        super.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (bandOutputFiles != null) {
+            for (WriteBehindFile outputFile : bandOutputFiles.values()) {
+                outputFile.close();
+            }
+            bandOutputFiles.clear();
+            bandOutputFiles = null;
+        }
+        super.close();
     }
 
     /**
@@ -39,6 +39,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * NetCDF reader for S1 ETAD products
@@ -65,27 +67,79 @@ public class Sentinel1ETADNetCDFReader {
     //          Metadata --> Original_Product_Metadata --> annotation --> <filename of MDS>.nc
     //
     // MDS = Measurement Data Set
+    //
+    // A NetcdfFile is not thread-safe. The handle opened in addImageFile serves the metadata and the rank 3 and 4
+    // variables under the reader's lock. The rank 2 burst layers, which the ETAD correctors load from many threads,
+    // are read through a small pool of extra handles on the same file so that bursts load in parallel.
+
+    // Maximum number of pooled handles per .nc file, set with system property: -Dsar.etad.netcdfHandles=4
+    static final int MAX_POOLED_HANDLES = Math.max(1, Integer.getInteger("sar.etad.netcdfHandles",
+            Math.min(4, Runtime.getRuntime().availableProcessors())));
 
     // This maps the MDS .nc file name to the NetcdfFile
     private final Map<String, NCFileData> bandNCFileMap = new HashMap<>(1);
 
     private static class NCFileData {
         String name;
+        File file;
         NetcdfFile netcdfFile;
-        NCFileData(String name, NetcdfFile netcdfFile) {
+        final List<NetcdfFile> pooledHandles = new ArrayList<>();
+        final BlockingQueue<NetcdfFile> idleHandles = new LinkedBlockingQueue<>();
+
+        NCFileData(String name, File file, NetcdfFile netcdfFile) {
             this.name = name;
+            this.file = file;
             this.netcdfFile = netcdfFile;
         }
+
+        NetcdfFile borrowHandle() throws IOException, InterruptedException {
+            final NetcdfFile idle = idleHandles.poll();
+            if (idle != null) {
+                return idle;
+            }
+            synchronized (pooledHandles) {
+                if (pooledHandles.size() < MAX_POOLED_HANDLES) {
+                    final NetcdfFile handle = NetcdfFileOpener.open(file);
+                    if (handle == null) {
+                        throw new IOException("Unable to open " + file);
+                    }
+                    pooledHandles.add(handle);
+                    return handle;
+                }
+            }
+            return idleHandles.take();
+        }
+
+        void returnHandle(final NetcdfFile handle) {
+            idleHandles.add(handle);
+        }
+
+        int getPooledHandleCount() {
+            synchronized (pooledHandles) {
+                return pooledHandles.size();
+            }
+        }
+
+        void close() throws IOException {
+            synchronized (pooledHandles) {
+                for (NetcdfFile handle : pooledHandles) {
+                    handle.close();
+                }
+                pooledHandles.clear();
+                idleHandles.clear();
+            }
+            netcdfFile.close();
+        }
     }
 
     private String mode;
     private final Map<String, BandData> bandNameNCFileMap = new HashMap<>(1);
 
     private static class BandData {
-        NetcdfFile netcdfFile;
+        NCFileData fileData;
         Variable variable;
-        public BandData(NetcdfFile netcdfFile, Variable variable) {
-            this.netcdfFile = netcdfFile;
+        public BandData(NCFileData fileData, Variable variable) {
+            this.fileData = fileData;
             this.variable = variable;
         }
     }
@@ -98,7 +152,7 @@ public class Sentinel1ETADNetCDFReader {
     public void close() {
         for (NCFileData data : bandNCFileMap.values()) {
             try {
-                data.netcdfFile.close();
+                data.close();
             } catch (IOException e) {
                 SystemUtils.LOG.severe("Sentinel1ETADNetCDFReader.close: IOException when closing " + data.name);
             }
@@ -111,7 +165,7 @@ public class Sentinel1ETADNetCDFReader {
         String imgNum = name.substring(name.lastIndexOf("-")+1);
 
         final NetcdfFile netcdfFile = NetcdfFileOpener.open(file);
-        bandNCFileMap.put(imgNum, new NCFileData(name, netcdfFile));
+        bandNCFileMap.put(imgNum, new NCFileData(name, file, netcdfFile));
     }
 
     public void addNetCDFMetadata(final MetadataElement annotationElement) {
@@ -195,7 +249,7 @@ public class Sentinel1ETADNetCDFReader {
                         bandName += variable.getFullName();
                         bandName = bandName.replace("/", "_");
                         addBand(product, bandName, variable, shape[1], shape[0]);
-                        bandNameNCFileMap.put(bandName, new BandData(netcdfFile, variable));
+                        bandNameNCFileMap.put(bandName, new BandData(data, variable));
                     }
                     break;
                     case 3:
@@ -213,7 +267,7 @@ public class Sentinel1ETADNetCDFReader {
                             // Tbe band will have dimensions: shape[0]*shape[2] (rows) by shape[1] (cols).
                             // So band width = shape[1] and band height = shape[0]*shape[2]
                             addBand(product, bandNameSwath, variable, shape[1], shape[0]);// * shape[2]);
-                            bandNameNCFileMap.put(bandNameSwath, new BandData(netcdfFile, variable));
+                            bandNameNCFileMap.put(bandNameSwath, new BandData(data, variable));
                         }
                     }
                     break;
@@ -232,7 +286,7 @@ public class Sentinel1ETADNetCDFReader {
                         // Tbe band will have dimensions: shape[0]*shape[2] (rows) by shape[1]*shape[3] (cols).
                         // So band width = shape[1]*shape[3] and band height = shape[0]*shape[2]
                         addBand(product, bandName, variable, shape[1] * shape[3], shape[0] * shape[2]);
-                        bandNameNCFileMap.put(bandName, new BandData(netcdfFile, variable));
+                        bandNameNCFileMap.put(bandName, new BandData(data, variable));
                         /*
                         if (bandName.contains("oswPolSpec")) {
                             dumpVariableValues(variable, bandName);
@@ -283,7 +337,7 @@ public class Sentinel1ETADNetCDFReader {
         switch (var.getRank()) {
             case 2:
                 readDataForRank2Variable(sourceOffsetX, sourceOffsetY, sourceWidth, sourceHeight,
-                        sourceStepX, sourceStepY, var, destWidth, destHeight, destBuffer);
+                        bandData, destWidth, destHeight, destBuffer);
                 break;
             case 3:
                 readDataForRank3Variable(bandName, sourceOffsetX, sourceOffsetY, sourceWidth, sourceHeight,
@@ -296,22 +350,22 @@ public class Sentinel1ETADNetCDFReader {
         }
     }
 
-    public synchronized void readDataForRank2Variable(int sourceOffsetX, int sourceOffsetY, int sourceWidth, int sourceHeight,
-                                         int sourceStepX, int sourceStepY, Variable var,
-                                         int destWidth, int destHeight, ProductData destBuffer) {
+    private void readDataForRank2Variable(int sourceOffsetX, int sourceOffsetY, int sourceWidth, int sourceHeight,
+                                          BandData bandData, int destWidth, int destHeight, ProductData destBuffer) {
 
         final int[] origin = {sourceOffsetY, sourceOffsetX};
         final int[] shape = {sourceHeight, sourceWidth};
-        /*
-        System.out.println(":::::" + sourceOffsetX + " " + sourceOffsetY);
-        System.out.println(":::::" + sourceStepX + " " + sourceStepY);
-        System.out.println(":::::" + sourceWidth + " " + sourceHeight);
-        System.out.println(":::::" + destWidth + " " + destHeight);
-        */
+        final Variable var = bandData.variable;
 
+        NetcdfFile handle = null;
         try {
+            handle = bandData.fileData.borrowHandle();
+            final Variable pooledVar = handle.findVariable(var.getFullNameEscaped());
+            if (pooledVar == null) {
+                throw new IOException("Variable " + var.getFullName() + " not found in " + bandData.fileData.name);
+            }
 
-            final Array srcArray = var.read(origin, shape);
+            final Array srcArray = pooledVar.read(origin, shape);
 
             for (int i = 0; i < destHeight; i++) {
                 final int srcStride = i * sourceWidth;
@@ -330,7 +384,28 @@ public class Sentinel1ETADNetCDFReader {
         } catch (InvalidRangeException e) {
 
             SystemUtils.LOG.severe("Sentinel1ETADNetCDFReader.readDataForRank2Variable: InvalidRangeException when reading variable " + var.getFullName());
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            SystemUtils.LOG.severe("Sentinel1ETADNetCDFReader.readDataForRank2Variable: interrupted when reading variable " + var.getFullName());
+
+        } finally {
+            if (handle != null) {
+                bandData.fileData.returnHandle(handle);
+            }
+        }
+    }
+
+    /**
+     * @return the number of pooled NetCDF handles opened so far on all .nc files
+     */
+    int getPooledHandleCount() {
+        int count = 0;
+        for (NCFileData data : bandNCFileMap.values()) {
+            count += data.getPooledHandleCount();
         }
+        return count;
     }
 
     private synchronized void readDataForRank3Variable(final String bandName,
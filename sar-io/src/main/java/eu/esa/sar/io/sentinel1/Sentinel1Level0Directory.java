@@ -17,6 +17,8 @@ package eu.esa.sar.io.sentinel1;
 
 import eu.esa.sar.commons.io.ImageIOFile;
 import eu.esa.sar.commons.io.XMLProductDirectory;
+import eu.esa.sar.io.sentinel1.level0.Level0EchoReader;
+import eu.esa.sar.io.sentinel1.level0.PacketIndex;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataAttribute;
 import org.esa.snap.core.datamodel.MetadataElement;
@@ -24,6 +26,7 @@ import org.esa.snap.core.datamodel.Product;
 import org.esa.snap.core.datamodel.ProductData;
 import org.esa.snap.core.datamodel.TiePointGeoCoding;
 import org.esa.snap.core.datamodel.TiePointGrid;
+import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.core.util.io.FileUtils;
 import org.esa.snap.core.util.math.MathUtils;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
@@ -32,11 +35,15 @@ import org.esa.snap.engine_utilities.eo.Constants;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
 import org.esa.snap.engine_utilities.gpf.ReaderUtils;
 
+import java.awt.Rectangle;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * This class represents a product directory.
@@ -46,16 +53,98 @@ public class Sentinel1Level0Directory extends XMLProductDirectory implements Sen
     private final transient Map<String, String> imgBandMetadataMap = new HashMap<>(4);
     private String acqMode = "";
 
+    // number of decoded rectangles kept per swath for the band that has not asked for them yet
+    private static final int MAX_PENDING_RECTANGLES = 8;
+
+    // measurement data file name to its echo data
+    private final Map<String, EchoFile> echoFileMap = new TreeMap<>();
+    // packet headers scanned at product open for the band sizes, dropped once the bands are added
+    private final Map<EchoFile, PacketIndex> scannedIndexMap = new HashMap<>();
+    private final Map<String, EchoBand> echoBandMap = new HashMap<>();
+
+    /**
+     * A measurement data file. The reader decoding its packets, which holds the packet index, is only
+     * created on the first read; for a zipped product that is also when the file is extracted.
+     */
+    private static class EchoFile {
+        final String imgPath;
+        Level0EchoReader reader;
+
+        EchoFile(final String imgPath) {
+            this.imgPath = imgPath;
+        }
+    }
+
+    /**
+     * Echo lines of one swath, shared by its i and q bands. Decoding a rectangle for one band keeps the
+     * other half for the other band, so each line is decoded once.
+     */
+    private static class EchoSwath {
+        final EchoFile echoFile;
+        final int swathNumber;
+        private final Map<Rectangle, float[]> pendingI = createPendingMap();
+        private final Map<Rectangle, float[]> pendingQ = createPendingMap();
+
+        EchoSwath(final EchoFile echoFile, final int swathNumber) {
+            this.echoFile = echoFile;
+            this.swathNumber = swathNumber;
+        }
+
+        synchronized float[] take(final Rectangle rect, final boolean imaginary) {
+            return (imaginary ? pendingQ : pendingI).remove(rect);
+        }
+
+        synchronized void keep(final Rectangle rect, final boolean imaginary, final float[] data) {
+            (imaginary ? pendingQ : pendingI).put(rect, data);
+        }
+
+        private static Map<Rectangle, float[]> createPendingMap() {
+            return new LinkedHashMap<Rectangle, float[]>() {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Rectangle, float[]> eldest) {
+                    return size() > MAX_PENDING_RECTANGLES;
+                }
+            };
+        }
+    }
+
+    private static class EchoBand {
+        final EchoSwath swath;
+        final boolean imaginary;
+
+        EchoBand(final EchoSwath swath, final boolean imaginary) {
+            this.swath = swath;
+            this.imaginary = imaginary;
+        }
+    }
+
     public Sentinel1Level0Directory(final File headerFile) {
         super(headerFile);
     }
 
+    @Override
+    public void close() throws IOException {
+        for (EchoFile echoFile : echoFileMap.values()) {
+            synchronized (echoFile) {
+                if (echoFile.reader != null) {
+                    echoFile.reader.close();
+                    echoFile.reader = null;
+                }
+            }
+        }
+        echoFileMap.clear();
+        super.close();
+    }
+
     protected String getHeaderFileName() {
         return Sentinel1ProductReaderPlugIn.PRODUCT_HEADER_NAME;
     }
 
     protected void addImageFile(final String imgPath, final MetadataElement newRoot) throws IOException {
-
+        final String name = getBandFileNameFromImage(imgPath);
+        if (name.endsWith(".dat") && !name.contains("-annot") && !name.contains("-index")) {
+            echoFileMap.put(name, new EchoFile(imgPath));
+        }
     }
 
     @Override
@@ -132,6 +221,125 @@ public class Sentinel1Level0Directory extends XMLProductDirectory implements Sen
                 }
             }
         }
+
+        addEchoBands(product);
+    }
+
+    /**
+     * Adds the raw echo lines of each measurement data file as complex bands, one pair per swath.
+     */
+    private void addEchoBands(final Product product) {
+
+        for (Map.Entry<String, EchoFile> entry : echoFileMap.entrySet()) {
+            final PacketIndex index = scannedIndexMap.get(entry.getValue());
+            if (index == null) {
+                continue;
+            }
+            final String pol = extractPolarization(entry.getKey());
+            final int[] swathNumbers = index.getEchoSwathNumbers();
+
+            for (int s = 0; s < swathNumbers.length; ++s) {
+                final int swathNumber = swathNumbers[s];
+                final String suffix = swathNumbers.length > 1 ? acqMode + (s + 1) + '_' + pol : pol;
+                final int width = index.getMaxNumSamples(swathNumber);
+                final int height = index.getEchoPackets(swathNumber).size();
+                final EchoSwath swath = new EchoSwath(entry.getValue(), swathNumber);
+
+                final Band iBand = new Band("i_" + suffix, ProductData.TYPE_FLOAT32, width, height);
+                iBand.setUnit(Unit.REAL);
+                product.addBand(iBand);
+                echoBandMap.put(iBand.getName(), new EchoBand(swath, false));
+
+                final Band qBand = new Band("q_" + suffix, ProductData.TYPE_FLOAT32, width, height);
+                qBand.setUnit(Unit.IMAGINARY);
+                product.addBand(qBand);
+                echoBandMap.put(qBand.getName(), new EchoBand(swath, true));
+
+                ReaderUtils.createVirtualIntensityBand(product, iBand, qBand, '_' + suffix);
+            }
+        }
+    }
+
+    /**
+     * Decodes raw echo samples of a band added from a measurement data file.
+     */
+    public void readEchoData(final Band destBand, final int sourceOffsetX, final int sourceOffsetY,
+                             final int sourceWidth, final int sourceHeight,
+                             final int sourceStepX, final int sourceStepY,
+                             final int destWidth, final int destHeight, final ProductData destBuffer) throws IOException {
+
+        final EchoBand echoBand = echoBandMap.get(destBand.getName());
+        if (echoBand == null) {
+            throw new IOException("No echo data for band " + destBand.getName());
+        }
+
+        final EchoSwath swath = echoBand.swath;
+        final Rectangle rect = new Rectangle(sourceOffsetX, sourceOffsetY, sourceWidth, sourceHeight);
+        float[] data = swath.take(rect, echoBand.imaginary);
+        if (data == null) {
+            final float[] iData = new float[sourceWidth * sourceHeight];
+            final float[] qData = new float[sourceWidth * sourceHeight];
+            getEchoReader(swath.echoFile).readEchoData(swath.swathNumber, sourceOffsetX, sourceOffsetY,
+                    sourceWidth, sourceHeight, iData, qData);
+            swath.keep(rect, !echoBand.imaginary, echoBand.imaginary ? iData : qData);
+            data = echoBand.imaginary ? qData : iData;
+        }
+
+        for (int y = 0; y < destHeight; ++y) {
+            final int srcStride = y * sourceStepY * sourceWidth;
+            final int dstStride = y * destWidth;
+            for (int x = 0; x < destWidth; ++x) {
+                destBuffer.setElemFloatAt(dstStride + x, data[srcStride + x * sourceStepX]);
+            }
+        }
+    }
+
+    private Level0EchoReader getEchoReader(final EchoFile echoFile) throws IOException {
+        synchronized (echoFile) {
+            if (echoFile.reader == null) {
+                final File file = isCompressed() ? getFile(echoFile.imgPath) : new File(getBaseDir(), echoFile.imgPath);
+                echoFile.reader = new Level0EchoReader(file);
+            }
+            return echoFile.reader;
+        }
+    }
+
+    /**
+     * Reads the packet headers of a measurement data file for the sizes of its echo bands. A zipped file is
+     * streamed from the zip rather than extracted. A file that cannot be indexed gets no echo bands, so the
+     * product still opens with its metadata.
+     */
+    private void scanEchoFiles() {
+        for (EchoFile echoFile : echoFileMap.values()) {
+            try {
+                final PacketIndex index;
+                if (isCompressed()) {
+                    try (InputStream in = getInputStream(echoFile.imgPath)) {
+                        index = PacketIndex.build(in);
+                    }
+                } else {
+                    index = PacketIndex.build(new File(getBaseDir(), echoFile.imgPath));
+                }
+                scannedIndexMap.put(echoFile, index);
+            } catch (IOException e) {
+                SystemUtils.LOG.warning("Sentinel1Level0Directory: unable to index " + echoFile.imgPath +
+                        ", echo data will not be available: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the polarisation from a measurement data file name such as s1a-iw-raw-s-vv-...dat
+     */
+    private static String extractPolarization(final String filename) {
+        final int idx = filename.lastIndexOf("raw") + 6;
+        if (idx >= 6 && idx + 2 <= filename.length()) {
+            final String pp = filename.substring(idx, idx + 2);
+            if (pp.equals("hh") || pp.equals("hv") || pp.equals("vv") || pp.equals("vh")) {
+                return pp.toUpperCase();
+            }
+        }
+        return "Echo";
     }
 
     @Override
@@ -653,6 +861,19 @@ public class Sentinel1Level0Directory extends XMLProductDirectory implements Sen
         ReaderUtils.addGeoCoding(product, latCorners, lonCorners);
     }
 
+    private void setEchoDimensions(final MetadataElement absRoot) {
+        int width = 0, height = 0;
+        for (PacketIndex index : scannedIndexMap.values()) {
+            for (int swathNumber : index.getEchoSwathNumbers()) {
+                width = Math.max(width, index.getMaxNumSamples(swathNumber));
+                height = Math.max(height, index.getEchoPackets(swathNumber).size());
+            }
+        }
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.num_samples_per_line, width);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.num_output_lines, height);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.SAMPLE_TYPE, "COMPLEX");
+    }
+
     @Override
     public Product createProduct() throws Exception {
 
@@ -661,6 +882,10 @@ public class Sentinel1Level0Directory extends XMLProductDirectory implements Sen
         findImages(newRoot);
 
         final MetadataElement absRoot = newRoot.getElement(AbstractMetadata.ABSTRACT_METADATA_ROOT);
+        scanEchoFiles();
+        if (!scannedIndexMap.isEmpty()) {
+            setEchoDimensions(absRoot);
+        }
         final int sceneWidth = absRoot.getAttributeInt(AbstractMetadata.num_samples_per_line);
         final int sceneHeight = absRoot.getAttributeInt(AbstractMetadata.num_output_lines);
 
@@ -674,6 +899,7 @@ public class Sentinel1Level0Directory extends XMLProductDirectory implements Sen
         product.setFileLocation(getBaseDir());
 
         ReaderUtils.addMetadataProductSize(product);
+        scannedIndexMap.clear();
 
         return product;
     }
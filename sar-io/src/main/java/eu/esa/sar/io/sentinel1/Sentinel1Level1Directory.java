@@ -84,16 +84,22 @@ public class Sentinel1Level1Directory extends XMLProductDirectory implements Sen
         if ((name.endsWith("tiff"))) {
             try {
                 final Dimension bandDimensions = getBandDimensions(newRoot, imgBandMetadataMap.get(name));
-                final InputStream inStream = getInputStream(imgPath);
-                if(inStream.available() > 0) {
-                    final ImageInputStream imgStream = createImageInputStream(inStream, bandDimensions, isSLC());
-
-                    final ImageIOFile img = new ImageIOFile(name, imgStream, GeoTiffUtils.getTiffIIOReader(imgStream),
-                                1, 1, ProductData.TYPE_INT32, productInputFile);
-                    bandImageFileMap.put(img.getName(), img);
-                } else {
-                    inStream.close();
+                ImageInputStream imgStream = getStoredImageInputStream(imgPath);
+                if(imgStream == null) {
+                    final InputStream inStream = getInputStream(imgPath);
+                    if(inStream.available() <= 0) {
+                        inStream.close();
+                        return;
+                    }
+                    imgStream = createImageInputStream(inStream, bandDimensions, isSLC());
+                } else if(imgStream.length() <= 0) {
+                    imgStream.close();
+                    return;
                 }
+
+                final ImageIOFile img = new ImageIOFile(name, imgStream, GeoTiffUtils.getTiffIIOReader(imgStream),
+                            1, 1, ProductData.TYPE_INT32, productInputFile);
+                bandImageFileMap.put(img.getName(), img);
             } catch (Exception e) {
                 SystemUtils.LOG.severe(imgPath +" not found");
             }
@@ -206,6 +206,11 @@ public class Sentinel1ProductReader extends SARReader {
             s1L1Dir.getOCNReader().readData(sourceOffsetX, sourceOffsetY, sourceWidth, sourceHeight,
                                             sourceStepX, sourceStepY, destBand, destOffsetX,
                                             destOffsetY, destWidth, destHeight, destBuffer);
+        } else if (dataDir instanceof Sentinel1Level0Directory) {
+
+            ((Sentinel1Level0Directory) dataDir).readEchoData(destBand, sourceOffsetX, sourceOffsetY,
+                                                              sourceWidth, sourceHeight, sourceStepX, sourceStepY,
+                                                              destWidth, destHeight, destBuffer);
         }
     }
 
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+/**
+ * Decoding tables of the Flexible Dynamic Block Adaptive Quantisation (FDBAQ) used for Sentinel-1 echo data,
+ * transcribed from the SAR Space Packet Protocol Data Unit specification.
+ *
+ * Each block of 128 samples is quantised with one of five bit rate codes (BRC). A sample is a sign bit followed
+ * by the Huffman code of its magnitude code (mcode). Samples are reconstructed from the mcode, the BRC and the
+ * threshold index (THIDX) of the block, either directly (simple reconstruction) or from the normalised
+ * reconstruction levels scaled by the sigma factor of the THIDX.
+ */
+public final class FDBAQTables {
+
+    public static final int NUM_BRC = 5;
+    public static final int NUM_THIDX = 256;
+    public static final int BLOCK_SIZE = 128;
+
+    // Huffman code of each mcode, per BRC
+    private static final String[][] HUFFMAN_CODES = {
+            {"0", "10", "110", "111"},
+            {"0", "10", "110", "1110", "1111"},
+            {"0", "10", "110", "1110", "11110", "111110", "111111"},
+            {"00", "01", "10", "110", "1110", "11110", "111110", "1111110", "11111110", "11111111"},
+            {"00", "010", "011", "100", "101", "1100", "1101", "1110", "11110", "111110", "11111100",
+                    "11111101", "111111100", "111111101", "111111110", "111111111"}
+    };
+
+    // largest THIDX using simple reconstruction, per BRC
+    private static final int[] SIMPLE_RECONSTRUCTION_THRESHOLD = {3, 3, 5, 6, 8};
+
+    // reconstruction of the largest mcode for THIDX up to the threshold, per BRC
+    private static final float[][] SIMPLE_RECONSTRUCTION = {
+            {3.0f, 3.0f, 3.12f, 3.55f},
+            {4.0f, 4.0f, 4.08f, 4.37f},
+            {6.0f, 6.0f, 6.0f, 6.15f, 6.5f, 6.88f},
+            {9.0f, 9.0f, 9.0f, 9.0f, 9.36f, 9.50f, 10.1f},
+            {15.0f, 15.0f, 15.0f, 15.0f, 15.0f, 15.0f, 15.22f, 15.50f, 16.05f}
+    };
+
+    private static final float[][] NORMALISED_RECONSTRUCTION_LEVELS = {
+            {0.3637f, 1.0915f, 1.8208f, 2.6406f},
+            {0.3042f, 0.9127f, 1.5216f, 2.1313f, 2.8426f},
+            {0.2305f, 0.6916f, 1.1528f, 1.6140f, 2.0754f, 2.5369f, 3.1191f},
+            {0.1702f, 0.5107f, 0.8511f, 1.1916f, 1.5321f, 1.8726f, 2.2131f, 2.5536f, 2.8942f, 3.3744f},
+            {0.1130f, 0.3389f, 0.5649f, 0.7908f, 1.0167f, 1.2428f, 1.4687f, 1.6947f, 1.9206f, 2.1466f,
+                    2.3725f, 2.5985f, 2.8244f, 3.0504f, 3.2764f, 3.6623f}
+    };
+
+    private static final float[] SIGMA_FACTORS = {
+            0.00f, 0.63f, 1.25f, 1.88f, 2.51f, 3.13f, 3.76f, 4.39f, 5.01f, 5.64f,
+            6.27f, 6.89f, 7.52f, 8.15f, 8.77f, 9.40f, 10.03f, 10.65f, 11.28f, 11.91f,
+            12.53f, 13.16f, 13.79f, 14.41f, 15.04f, 15.67f, 16.29f, 16.92f, 17.55f, 18.17f,
+            18.80f, 19.43f, 20.05f, 20.68f, 21.31f, 21.93f, 22.56f, 23.19f, 23.81f, 24.44f,
+            25.07f, 25.69f, 26.32f, 26.95f, 27.57f, 28.20f, 28.83f, 29.45f, 30.08f, 30.71f,
+            31.33f, 31.96f, 32.59f, 33.21f, 33.84f, 34.47f, 35.09f, 35.72f, 36.35f, 36.97f,
+            37.60f, 38.23f, 38.85f, 39.48f, 40.11f, 40.73f, 41.36f, 41.99f, 42.61f, 43.24f,
+            43.87f, 44.49f, 45.12f, 45.75f, 46.37f, 47.00f, 47.63f, 48.25f, 48.88f, 49.51f,
+            50.13f, 50.76f, 51.39f, 52.01f, 52.64f, 53.27f, 53.89f, 54.52f, 55.15f, 55.77f,
+            56.40f, 57.03f, 57.65f, 58.28f, 58.91f, 59.53f, 60.16f, 60.79f, 61.41f, 62.04f,
+            62.98f, 64.24f, 65.49f, 66.74f, 68.00f, 69.25f, 70.50f, 71.76f, 73.01f, 74.26f,
+            75.52f, 76.77f, 78.02f, 79.28f, 80.53f, 81.78f, 83.04f, 84.29f, 85.54f, 86.80f,
+            88.05f, 89.30f, 90.56f, 91.81f, 93.06f, 94.32f, 95.57f, 96.82f, 98.08f, 99.33f,
+            100.58f, 101.84f, 103.09f, 104.34f, 105.60f, 106.85f, 108.10f, 109.36f, 110.61f, 111.86f,
+            113.12f, 114.37f, 115.62f, 116.88f, 118.13f, 119.38f, 120.64f, 121.89f, 123.14f, 124.40f,
+            125.65f, 126.90f, 128.16f, 129.41f, 130.66f, 131.92f, 133.17f, 134.42f, 135.68f, 136.93f,
+            138.18f, 139.44f, 140.69f, 141.94f, 143.20f, 144.45f, 145.70f, 146.96f, 148.21f, 149.46f,
+            150.72f, 151.97f, 153.22f, 154.48f, 155.73f, 156.98f, 158.24f, 159.49f, 160.74f, 162.00f,
+            163.25f, 164.50f, 165.76f, 167.01f, 168.26f, 169.52f, 170.77f, 172.02f, 173.28f, 174.53f,
+            175.78f, 177.04f, 178.29f, 179.54f, 180.80f, 182.05f, 183.30f, 184.56f, 185.81f, 187.06f,
+            188.32f, 189.57f, 190.82f, 192.08f, 193.33f, 194.58f, 195.84f, 197.09f, 198.34f, 199.60f,
+            200.85f, 202.10f, 203.36f, 204.61f, 205.86f, 207.12f, 208.37f, 209.62f, 210.88f, 212.13f,
+            213.38f, 214.64f, 215.89f, 217.14f, 218.40f, 219.65f, 220.90f, 222.16f, 223.41f, 224.66f,
+            225.92f, 227.17f, 228.42f, 229.68f, 230.93f, 232.18f, 233.44f, 234.69f, 235.94f, 237.20f,
+            238.45f, 239.70f, 240.96f, 242.21f, 243.46f, 244.72f, 245.97f, 247.22f, 248.48f, 249.73f,
+            250.98f, 252.24f, 253.49f, 254.74f, 255.99f, 255.99f
+    };
+
+    static final int MAX_CODE_LENGTH = 9;
+
+    // per BRC, indexed by the next MAX_CODE_LENGTH bits: (code length << 8) | mcode
+    private static final short[][] DECODE_TABLES = new short[NUM_BRC][];
+
+    // per BRC and THIDX, indexed by mcode
+    private static final float[][][] RECONSTRUCTION_TABLES = new float[NUM_BRC][NUM_THIDX][];
+
+    static {
+        for (int brc = 0; brc < NUM_BRC; ++brc) {
+            final short[] table = new short[1 << MAX_CODE_LENGTH];
+            final String[] codes = HUFFMAN_CODES[brc];
+            for (int mcode = 0; mcode < codes.length; ++mcode) {
+                final int length = codes[mcode].length();
+                final int prefix = Integer.parseInt(codes[mcode], 2) << (MAX_CODE_LENGTH - length);
+                for (int i = 0; i < 1 << (MAX_CODE_LENGTH - length); ++i) {
+                    table[prefix | i] = (short) ((length << 8) | mcode);
+                }
+            }
+            DECODE_TABLES[brc] = table;
+
+            final int mcodeMax = codes.length - 1;
+            for (int thidx = 0; thidx < NUM_THIDX; ++thidx) {
+                final float[] levels = new float[codes.length];
+                for (int mcode = 0; mcode <= mcodeMax; ++mcode) {
+                    if (thidx <= SIMPLE_RECONSTRUCTION_THRESHOLD[brc]) {
+                        levels[mcode] = mcode < mcodeMax ? mcode : SIMPLE_RECONSTRUCTION[brc][thidx];
+                    } else {
+                        levels[mcode] = NORMALISED_RECONSTRUCTION_LEVELS[brc][mcode] * SIGMA_FACTORS[thidx];
+                    }
+                }
+                RECONSTRUCTION_TABLES[brc][thidx] = levels;
+            }
+        }
+    }
+
+    private FDBAQTables() {
+    }
+
+    /**
+     * @return number of mcodes of the BRC
+     */
+    public static int getNumMCodes(final int brc) {
+        return HUFFMAN_CODES[brc].length;
+    }
+
+    /**
+     * @return the Huffman code of the mcode as a string of '0' and '1'
+     */
+    public static String getHuffmanCode(final int brc, final int mcode) {
+        return HUFFMAN_CODES[brc][mcode];
+    }
+
+    /**
+     * @param bits the next {@link #MAX_CODE_LENGTH} bits of the stream
+     * @return (code length << 8) | mcode
+     */
+    static int decode(final int brc, final int bits) {
+        return DECODE_TABLES[brc][bits];
+    }
+
+    /**
+     * @return reconstructed magnitudes of the block, indexed by mcode
+     */
+    static float[] getReconstructionTable(final int brc, final int thidx) {
+        return RECONSTRUCTION_TABLES[brc][thidx];
+    }
+
+    public static float reconstruct(final int brc, final int thidx, final boolean negative, final int mcode) {
+        final float magnitude = RECONSTRUCTION_TABLES[brc][thidx][mcode];
+        return negative ? -magnitude : magnitude;
+    }
+
+    public static float getSigmaFactor(final int thidx) {
+        return SIGMA_FACTORS[thidx];
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads raw echo lines from a Sentinel-1 Level-0 measurement data file. Packets are independent, so the lines
+ * of a requested rectangle are decoded in parallel using positional reads on one file channel.
+ */
+public final class Level0EchoReader implements Closeable {
+
+    private final File file;
+    private final FileChannel channel;
+    private volatile PacketIndex index;
+
+    /**
+     * Opens the file. The packet index is built on first use.
+     */
+    public Level0EchoReader(final File file) throws IOException {
+        this(file, null);
+    }
+
+    public Level0EchoReader(final File file, final PacketIndex index) throws IOException {
+        this.file = file;
+        this.index = index;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public PacketIndex getIndex() throws IOException {
+        PacketIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = PacketIndex.build(file);
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decodes one packet into complex samples.
+     * @param packet the packet
+     * @param i      receives the real parts, at least {@link SpacePacket#getNumSamples()} long
+     * @param q      receives the imaginary parts, at least {@link SpacePacket#getNumSamples()} long
+     */
+    public void decodeLine(final SpacePacket packet, final float[] i, final float[] q) throws IOException {
+        final byte[] userData = new byte[packet.getUserDataLength()];
+        final ByteBuffer buffer = ByteBuffer.wrap(userData);
+        long pos = packet.offset + SpacePacket.HEADER_LENGTH;
+        while (buffer.hasRemaining()) {
+            final int n = channel.read(buffer, pos);
+            if (n < 0) {
+                throw new EOFException("Unexpected end of " + file.getName() + " in space packet at offset " +
+                        packet.offset);
+            }
+            pos += n;
+        }
+        UserDataDecoder.decode(packet, userData, i, q);
+    }
+
+    /**
+     * Decodes a rectangle of the raw echo lines of a swath. Samples beyond the end of a line are set to zero.
+     * @param swathNumber swath number of the echo packets
+     * @param x0          first sample
+     * @param y0          first line
+     * @param w           number of samples
+     * @param h           number of lines
+     * @param iDest       receives w * h real parts, or null
+     * @param qDest       receives w * h imaginary parts, or null
+     */
+    public void readEchoData(final int swathNumber, final int x0, final int y0, final int w, final int h,
+                             final float[] iDest, final float[] qDest) throws IOException {
+
+        final List<SpacePacket> lines = getIndex().getEchoPackets(swathNumber);
+        if (y0 < 0 || y0 + h > lines.size()) {
+            throw new IOException("Lines " + y0 + " to " + (y0 + h - 1) + " outside of the " + lines.size() +
+                    " echo lines of swath " + swathNumber);
+        }
+
+        try {
+            IntStream.range(0, h).parallel().forEach(y -> {
+                final SpacePacket packet = lines.get(y0 + y);
+                final int numSamples = packet.getNumSamples();
+                final float[] i = new float[numSamples];
+                final float[] q = new float[numSamples];
+                try {
+                    decodeLine(packet, i, q);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                copyLine(i, x0, w, iDest, y * w);
+                copyLine(q, x0, w, qDest, y * w);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void copyLine(final float[] line, final int x0, final int w, final float[] dest, final int destPos) {
+        if (dest == null) {
+            return;
+        }
+        final int n = Math.max(0, Math.min(w, line.length - x0));
+        if (n > 0) {
+            System.arraycopy(line, x0, dest, destPos, n);
+        }
+        Arrays.fill(dest, destPos + n, destPos + w, 0.0f);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
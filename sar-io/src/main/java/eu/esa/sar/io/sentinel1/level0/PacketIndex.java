@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of the space packets in a Level-0 measurement data file, built in one pass over the packet
+ * headers. Echo packets are grouped by swath number; each echo packet becomes one raw echo line.
+ */
+public final class PacketIndex {
+
+    private final List<SpacePacket> packets;
+    private final Map<Integer, List<SpacePacket>> echoPacketsBySwath = new TreeMap<>();
+
+    private PacketIndex(final List<SpacePacket> packets) {
+        this.packets = Collections.unmodifiableList(packets);
+        for (SpacePacket packet : packets) {
+            if (packet.isEcho()) {
+                echoPacketsBySwath.computeIfAbsent(packet.swathNumber, k -> new ArrayList<>()).add(packet);
+            }
+        }
+    }
+
+    /**
+     * Builds the index of a measurement data file with positional reads of the packet headers only, so the
+     * user data of the packets is never read.
+     */
+    public static PacketIndex build(final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final List<SpacePacket> packets = new ArrayList<>();
+            final byte[] header = new byte[SpacePacket.HEADER_LENGTH];
+            final ByteBuffer buffer = ByteBuffer.wrap(header);
+
+            long offset = 0;
+            while (offset < size) {
+                buffer.clear();
+                long pos = offset;
+                while (buffer.hasRemaining()) {
+                    final int n = channel.read(buffer, pos);
+                    if (n < 0) {
+                        throw new IOException("Truncated space packet at offset " + offset);
+                    }
+                    pos += n;
+                }
+                final SpacePacket packet = SpacePacket.parse(offset, header);
+                if (offset + packet.packetLength > size) {
+                    throw new IOException("Truncated space packet at offset " + offset);
+                }
+                packets.add(packet);
+                offset += packet.packetLength;
+            }
+            return new PacketIndex(packets);
+        }
+    }
+
+    public static PacketIndex build(final InputStream in) throws IOException {
+        final DataInputStream stream = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        final List<SpacePacket> packets = new ArrayList<>();
+        final byte[] header = new byte[SpacePacket.HEADER_LENGTH];
+
+        long offset = 0;
+        while (true) {
+            final int first = stream.read();
+            if (first < 0) {
+                break;
+            }
+            header[0] = (byte) first;
+            try {
+                stream.readFully(header, 1, header.length - 1);
+                final SpacePacket packet = SpacePacket.parse(offset, header);
+                skipFully(stream, packet.getUserDataLength());
+                packets.add(packet);
+                offset += packet.packetLength;
+            } catch (EOFException e) {
+                throw new IOException("Truncated space packet at offset " + offset, e);
+            }
+        }
+        return new PacketIndex(packets);
+    }
+
+    private static void skipFully(final DataInputStream stream, int numBytes) throws IOException {
+        while (numBytes > 0) {
+            final int skipped = stream.skipBytes(numBytes);
+            if (skipped <= 0) {
+                if (stream.read() < 0) {
+                    throw new EOFException();
+                }
+                --numBytes;
+            } else {
+                numBytes -= skipped;
+            }
+        }
+    }
+
+    public int getNumPackets() {
+        return packets.size();
+    }
+
+    public SpacePacket getPacket(final int index) {
+        return packets.get(index);
+    }
+
+    public List<SpacePacket> getPackets() {
+        return packets;
+    }
+
+    /**
+     * @return swath numbers which have echo packets, in ascending order
+     */
+    public int[] getEchoSwathNumbers() {
+        return echoPacketsBySwath.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return echo packets of the swath in acquisition order, one per raw echo line
+     */
+    public List<SpacePacket> getEchoPackets(final int swathNumber) {
+        final List<SpacePacket> echoPackets = echoPacketsBySwath.get(swathNumber);
+        return echoPackets != null ? Collections.unmodifiableList(echoPackets) : Collections.emptyList();
+    }
+
+    /**
+     * @return the longest echo line of the swath in complex samples
+     */
+    public int getMaxNumSamples(final int swathNumber) {
+        int max = 0;
+        for (SpacePacket packet : getEchoPackets(swathNumber)) {
+            max = Math.max(max, packet.getNumSamples());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import java.io.IOException;
+
+/**
+ * Primary and secondary header of one Sentinel-1 instrument source packet (ISP), as laid out in the
+ * SAR Space Packet Protocol Data Unit specification. The user data field follows the 68 header bytes.
+ */
+public final class SpacePacket {
+
+    public static final int PRIMARY_HEADER_LENGTH = 6;
+    public static final int SECONDARY_HEADER_LENGTH = 62;
+    public static final int HEADER_LENGTH = PRIMARY_HEADER_LENGTH + SECONDARY_HEADER_LENGTH;
+    public static final long SYNC_MARKER = 0x352EF853L;
+
+    public static final int BAQ_BYPASS = 0;
+    public static final int BAQ_FDBAQ_MODE_0 = 12;
+    public static final int BAQ_FDBAQ_MODE_1 = 13;
+    public static final int BAQ_FDBAQ_MODE_2 = 14;
+
+    public static final int SIGNAL_TYPE_ECHO = 0;
+
+    // position of the packet in the file
+    public final long offset;
+    public final int packetLength;
+
+    // primary header
+    public final int packetVersion;
+    public final int packetId;
+    public final int packetCategory;
+    public final int sequenceFlags;
+    public final int sequenceCount;
+
+    // secondary header
+    public final long coarseTime;
+    public final int fineTime;
+    public final long dataTakeId;
+    public final int eccNumber;
+    public final int testMode;
+    public final int rxChannelId;
+    public final long spacePacketCount;
+    public final long priCount;
+    public final boolean errorFlag;
+    public final int baqMode;
+    public final int baqBlockLength;
+    public final int rangeDecimation;
+    public final int rxGain;
+    public final int txRampRate;
+    public final int txPulseStartFrequency;
+    public final int txPulseLength;
+    public final int rank;
+    public final int pri;
+    public final int swst;
+    public final int swl;
+    public final int polarisation;
+    public final int elevationBeamAddress;
+    public final int azimuthBeamAddress;
+    public final int calMode;
+    public final int signalType;
+    public final int swathNumber;
+    public final int numberOfQuads;
+
+    private SpacePacket(final long offset, final byte[] h) {
+        this.offset = offset;
+
+        final int word0 = u16(h, 0);
+        packetVersion = word0 >>> 13;
+        packetId = (word0 >>> 4) & 0x7F;
+        packetCategory = word0 & 0x0F;
+        final int word1 = u16(h, 2);
+        sequenceFlags = word1 >>> 14;
+        sequenceCount = word1 & 0x3FFF;
+        packetLength = PRIMARY_HEADER_LENGTH + u16(h, 4) + 1;
+
+        coarseTime = u32(h, 6);
+        fineTime = u16(h, 10);
+        dataTakeId = u32(h, 16);
+        eccNumber = u8(h, 20);
+        testMode = (u8(h, 21) >>> 4) & 0x07;
+        rxChannelId = u8(h, 21) & 0x0F;
+        spacePacketCount = u32(h, 29);
+        priCount = u32(h, 33);
+
+        errorFlag = (u8(h, 37) & 0x80) != 0;
+        baqMode = u8(h, 37) & 0x1F;
+        baqBlockLength = 8 * (u8(h, 38) + 1);
+        rangeDecimation = u8(h, 40);
+        rxGain = u8(h, 41);
+        txRampRate = u16(h, 42);
+        txPulseStartFrequency = u16(h, 44);
+        txPulseLength = u24(h, 46);
+        rank = u8(h, 49) & 0x1F;
+        pri = u24(h, 50);
+        swst = u24(h, 53);
+        swl = u24(h, 56);
+        polarisation = (u8(h, 59) >>> 4) & 0x07;
+        elevationBeamAddress = u8(h, 60) >>> 4;
+        azimuthBeamAddress = u16(h, 60) & 0x03FF;
+        calMode = u8(h, 62) >>> 6;
+        signalType = u8(h, 63) >>> 4;
+        swathNumber = u8(h, 64);
+        numberOfQuads = u16(h, 65);
+    }
+
+    /**
+     * @param offset position of the packet in the file
+     * @param header the first {@link #HEADER_LENGTH} bytes of the packet
+     */
+    public static SpacePacket parse(final long offset, final byte[] header) throws IOException {
+        if (u32(header, 12) != SYNC_MARKER) {
+            throw new IOException("Invalid sync marker in space packet at offset " + offset);
+        }
+        final SpacePacket packet = new SpacePacket(offset, header);
+        if (packet.packetLength < HEADER_LENGTH) {
+            throw new IOException("Invalid packet data length in space packet at offset " + offset);
+        }
+        return packet;
+    }
+
+    /**
+     * @return sensing time in seconds since the GPS epoch
+     */
+    public double getTime() {
+        return coarseTime + (fineTime + 0.5) / 65536.0;
+    }
+
+    public boolean isEcho() {
+        return signalType == SIGNAL_TYPE_ECHO;
+    }
+
+    /**
+     * @return number of complex samples in the decoded line
+     */
+    public int getNumSamples() {
+        return 2 * numberOfQuads;
+    }
+
+    public int getUserDataLength() {
+        return packetLength - HEADER_LENGTH;
+    }
+
+    static int u8(final byte[] b, final int i) {
+        return b[i] & 0xFF;
+    }
+
+    static int u16(final byte[] b, final int i) {
+        return (u8(b, i) << 8) | u8(b, i + 1);
+    }
+
+    static int u24(final byte[] b, final int i) {
+        return (u8(b, i) << 16) | (u8(b, i + 1) << 8) | u8(b, i + 2);
+    }
+
+    static long u32(final byte[] b, final int i) {
+        return ((long) u16(b, i) << 16) | u16(b, i + 2);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import java.io.IOException;
+
+/**
+ * Decodes the user data field of an echo packet into one line of complex samples.
+ *
+ * The user data holds four channels of NQ samples each: I even, I odd, Q even and Q odd, every channel
+ * starting on a 16-bit word boundary. Complex sample 2k is (IE[k], QE[k]) and sample 2k+1 is (IO[k], QO[k]).
+ * In FDBAQ mode the BRC of each block precedes the block in the IE channel and the THIDX in the QE channel.
+ */
+public final class UserDataDecoder {
+
+    private UserDataDecoder() {
+    }
+
+    /**
+     * @param packet   header of the packet
+     * @param userData user data field of the packet
+     * @param i        receives {@link SpacePacket#getNumSamples()} real parts
+     * @param q        receives {@link SpacePacket#getNumSamples()} imaginary parts
+     */
+    public static void decode(final SpacePacket packet, final byte[] userData, final float[] i, final float[] q)
+            throws IOException {
+
+        switch (packet.baqMode) {
+            case SpacePacket.BAQ_BYPASS:
+                decodeBypass(packet.numberOfQuads, userData, i, q);
+                break;
+            case SpacePacket.BAQ_FDBAQ_MODE_0:
+            case SpacePacket.BAQ_FDBAQ_MODE_1:
+            case SpacePacket.BAQ_FDBAQ_MODE_2:
+                decodeFDBAQ(packet.numberOfQuads, userData, i, q);
+                break;
+            default:
+                throw new IOException("Unsupported BAQ mode " + packet.baqMode + " in space packet at offset " +
+                        packet.offset);
+        }
+    }
+
+    private static void decodeBypass(final int nq, final byte[] userData, final float[] i, final float[] q)
+            throws IOException {
+
+        final BitReader bits = new BitReader(userData);
+        readBypassChannel(bits, nq, i, 0);
+        readBypassChannel(bits, nq, i, 1);
+        readBypassChannel(bits, nq, q, 0);
+        readBypassChannel(bits, nq, q, 1);
+    }
+
+    private static void readBypassChannel(final BitReader bits, final int nq, final float[] dest, final int parity)
+            throws IOException {
+        for (int k = 0; k < nq; ++k) {
+            final int word = bits.read(10);
+            final int magnitude = word & 0x1FF;
+            dest[2 * k + parity] = (word & 0x200) != 0 ? -magnitude : magnitude;
+        }
+        bits.alignToWord();
+    }
+
+    private static void decodeFDBAQ(final int nq, final byte[] userData, final float[] i, final float[] q)
+            throws IOException {
+
+        final int numBlocks = (nq + FDBAQTables.BLOCK_SIZE - 1) / FDBAQTables.BLOCK_SIZE;
+        final int[] brc = new int[numBlocks];
+        final int[] thidx = new int[numBlocks];
+        // signed mcodes; the magnitude is reconstructed once the THIDX of the block is known
+        final int[] ie = new int[nq];
+        final int[] io = new int[nq];
+        final int[] qe = new int[nq];
+        final int[] qo = new int[nq];
+
+        final BitReader bits = new BitReader(userData);
+        for (int b = 0; b < numBlocks; ++b) {
+            brc[b] = bits.read(3);
+            if (brc[b] >= FDBAQTables.NUM_BRC) {
+                throw new IOException("Invalid bit rate code " + brc[b]);
+            }
+            readBlock(bits, brc[b], b, nq, ie);
+        }
+        bits.alignToWord();
+        for (int b = 0; b < numBlocks; ++b) {
+            readBlock(bits, brc[b], b, nq, io);
+        }
+        bits.alignToWord();
+        for (int b = 0; b < numBlocks; ++b) {
+            thidx[b] = bits.read(8);
+            readBlock(bits, brc[b], b, nq, qe);
+        }
+        bits.alignToWord();
+        for (int b = 0; b < numBlocks; ++b) {
+            readBlock(bits, brc[b], b, nq, qo);
+        }
+
+        for (int b = 0; b < numBlocks; ++b) {
+            final float[] levels = FDBAQTables.getReconstructionTable(brc[b], thidx[b]);
+            final int end = Math.min(nq, (b + 1) * FDBAQTables.BLOCK_SIZE);
+            for (int k = b * FDBAQTables.BLOCK_SIZE; k < end; ++k) {
+                i[2 * k] = reconstruct(levels, ie[k]);
+                i[2 * k + 1] = reconstruct(levels, io[k]);
+                q[2 * k] = reconstruct(levels, qe[k]);
+                q[2 * k + 1] = reconstruct(levels, qo[k]);
+            }
+        }
+    }
+
+    private static void readBlock(final BitReader bits, final int brc, final int block, final int nq,
+                                  final int[] dest) throws IOException {
+        final int end = Math.min(nq, (block + 1) * FDBAQTables.BLOCK_SIZE);
+        for (int k = block * FDBAQTables.BLOCK_SIZE; k < end; ++k) {
+            final boolean negative = bits.read(1) != 0;
+            final int entry = FDBAQTables.decode(brc, bits.peek(FDBAQTables.MAX_CODE_LENGTH));
+            bits.skip(entry >>> 8);
+            final int mcode = entry & 0xFF;
+            // ~mcode keeps the sign of a zero magnitude
+            dest[k] = negative ? ~mcode : mcode;
+        }
+    }
+
+    private static float reconstruct(final float[] levels, final int signedMCode) {
+        return signedMCode < 0 ? -levels[~signedMCode] : levels[signedMCode];
+    }
+
+    /**
+     * Big-endian bit stream over the user data.
+     */
+    private static final class BitReader {
+
+        private final byte[] data;
+        private long bitPos;
+
+        BitReader(final byte[] data) {
+            this.data = data;
+        }
+
+        /**
+         * @param numBits at most 24
+         */
+        int peek(final int numBits) {
+            final int byteIndex = (int) (bitPos >>> 3);
+            final int window = (byteAt(byteIndex) << 24) | (byteAt(byteIndex + 1) << 16) |
+                    (byteAt(byteIndex + 2) << 8) | byteAt(byteIndex + 3);
+            return (window << (int) (bitPos & 7)) >>> (32 - numBits);
+        }
+
+        // bytes past the end read as zero, so a short code at the very end can still be looked up
+        private int byteAt(final int index) {
+            return index < data.length ? data[index] & 0xFF : 0;
+        }
+
+        void skip(final int numBits) throws IOException {
+            bitPos += numBits;
+            if (bitPos > 8L * data.length) {
+                throw new IOException("User data ends before all samples are decoded");
+            }
+        }
+
+        int read(final int numBits) throws IOException {
+            final int value = peek(numBits);
+            skip(numBits);
+            return value;
+        }
+
+        void alignToWord() {
+            bitPos = (bitPos + 15) & ~15L;
+        }
+    }
+}
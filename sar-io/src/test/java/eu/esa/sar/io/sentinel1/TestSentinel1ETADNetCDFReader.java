@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1;
+
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ucar.ma2.ArrayFloat;
+import ucar.ma2.DataType;
+import ucar.nc2.Dimension;
+import ucar.nc2.NetcdfFileWriter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link Sentinel1ETADNetCDFReader}.
+ */
+public class TestSentinel1ETADNetCDFReader {
+
+    private static final int ROWS = 12;
+    private static final int COLS = 30;
+    private static final int NUM_LAYERS = 16;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testConcurrentRank2ReadsUsePooledHandles() throws Exception {
+        final File ncFile = writeLayers(tempFolder.newFile("s1a-iw-etad-0001.nc"));
+
+        final Sentinel1ETADNetCDFReader reader = new Sentinel1ETADNetCDFReader();
+        try {
+            reader.addImageFile(ncFile, "s1a-iw-etad-0001");
+            final Product product = TestUtils.createProduct("ETAD", COLS, ROWS);
+            final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(product);
+            AbstractMetadata.setAttribute(absRoot, AbstractMetadata.ACQUISITION_MODE, "IW");
+            reader.addNetCDFBands(product);
+
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (int repeat = 0; repeat < 4; ++repeat) {
+                for (int layer = 0; layer < NUM_LAYERS; ++layer) {
+                    final Band band = product.getBand(getLayerName(layer));
+                    assertNotNull(band);
+                    final int layerIndex = layer;
+                    tasks.add(() -> {
+                        final ProductData data = ProductData.createInstance(ProductData.TYPE_FLOAT32, ROWS * COLS);
+                        reader.readData(0, 0, COLS, ROWS, 1, 1, band, 0, 0, COLS, ROWS, data);
+                        for (int i = 0; i < ROWS * COLS; ++i) {
+                            assertEquals(getValue(layerIndex, i), data.getElemFloatAt(i), 0.0f);
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            final ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                for (Future<Void> result : executor.invokeAll(tasks)) {
+                    result.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertTrue(reader.getPooledHandleCount() >= 1);
+            assertTrue(reader.getPooledHandleCount() <= Sentinel1ETADNetCDFReader.MAX_POOLED_HANDLES);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static File writeLayers(final File file) throws Exception {
+        final NetcdfFileWriter writer = NetcdfFileWriter.createNew(file.getAbsolutePath(), true);
+        final Dimension rowDim = writer.addDimension(null, "azimuthExtent", ROWS);
+        final Dimension colDim = writer.addDimension(null, "rangeExtent", COLS);
+        final List<Dimension> dims = Arrays.asList(rowDim, colDim);
+        for (int layer = 0; layer < NUM_LAYERS; ++layer) {
+            writer.addVariable(null, getLayerName(layer), DataType.FLOAT, dims);
+        }
+        writer.create();
+
+        for (int layer = 0; layer < NUM_LAYERS; ++layer) {
+            final ArrayFloat.D2 values = new ArrayFloat.D2(ROWS, COLS);
+            for (int r = 0; r < ROWS; ++r) {
+                for (int c = 0; c < COLS; ++c) {
+                    values.set(r, c, getValue(layer, r * COLS + c));
+                }
+            }
+            writer.write(writer.findVariable(getLayerName(layer)), values);
+        }
+        writer.close();
+        return file;
+    }
+
+    private static String getLayerName(final int layer) {
+        return String.format("IW1_Burst%04d_troposphericCorrectionRg", layer + 1);
+    }
+
+    private static float getValue(final int layer, final int index) {
+        return layer * 1000.0f + index * 0.25f;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+/**
+ * Test-side encoder writing synthetic Sentinel-1 space packets, so the Level-0 decoder can be validated
+ * round-trip without real data.
+ */
+final class Level0PacketEncoder {
+
+    /**
+     * Quantised samples of one echo line: sign and mcode of the IE, IO, QE and QO channels,
+     * with the BRC and THIDX of each block.
+     */
+    static final class FDBAQLine {
+        final int nq;
+        final int[] brc;
+        final int[] thidx;
+        final int[][] mcodes = new int[4][];
+        final boolean[][] negative = new boolean[4][];
+
+        FDBAQLine(final int nq, final Random random) {
+            this.nq = nq;
+            final int numBlocks = (nq + FDBAQTables.BLOCK_SIZE - 1) / FDBAQTables.BLOCK_SIZE;
+            brc = new int[numBlocks];
+            thidx = new int[numBlocks];
+            for (int b = 0; b < numBlocks; ++b) {
+                brc[b] = random.nextInt(FDBAQTables.NUM_BRC);
+                // mix simple and normal reconstruction
+                thidx[b] = random.nextBoolean() ? random.nextInt(10) : random.nextInt(FDBAQTables.NUM_THIDX);
+            }
+            for (int c = 0; c < 4; ++c) {
+                mcodes[c] = new int[nq];
+                negative[c] = new boolean[nq];
+                for (int k = 0; k < nq; ++k) {
+                    mcodes[c][k] = random.nextInt(FDBAQTables.getNumMCodes(brc[k / FDBAQTables.BLOCK_SIZE]));
+                    negative[c][k] = random.nextBoolean();
+                }
+            }
+        }
+
+        /**
+         * @param channel 0 = IE, 1 = IO, 2 = QE, 3 = QO
+         */
+        float getExpected(final int channel, final int k) {
+            final int b = k / FDBAQTables.BLOCK_SIZE;
+            return FDBAQTables.reconstruct(brc[b], thidx[b], negative[channel][k], mcodes[channel][k]);
+        }
+
+        byte[] encode() {
+            final BitWriter bits = new BitWriter();
+            final int numBlocks = brc.length;
+            for (int c = 0; c < 4; ++c) {
+                for (int b = 0; b < numBlocks; ++b) {
+                    if (c == 0) {
+                        bits.write(brc[b], 3);
+                    } else if (c == 2) {
+                        bits.write(thidx[b], 8);
+                    }
+                    final int end = Math.min(nq, (b + 1) * FDBAQTables.BLOCK_SIZE);
+                    for (int k = b * FDBAQTables.BLOCK_SIZE; k < end; ++k) {
+                        bits.write(negative[c][k] ? 1 : 0, 1);
+                        bits.write(FDBAQTables.getHuffmanCode(brc[b], mcodes[c][k]));
+                    }
+                }
+                bits.alignToWord();
+            }
+            return bits.toByteArray();
+        }
+    }
+
+    private Level0PacketEncoder() {
+    }
+
+    /**
+     * @param values signed samples of the IE, IO, QE and QO channels, magnitude below 512
+     */
+    static byte[] encodeBypass(final int[][] values) {
+        final BitWriter bits = new BitWriter();
+        for (int[] channel : values) {
+            for (int v : channel) {
+                bits.write(v < 0 ? 1 : 0, 1);
+                bits.write(Math.abs(v), 9);
+            }
+            bits.alignToWord();
+        }
+        return bits.toByteArray();
+    }
+
+    /**
+     * @return a complete packet: primary header, secondary header and user data
+     */
+    static byte[] createPacket(final int signalType, final int swathNumber, final int baqMode, final int nq,
+                               final long coarseTime, final int fineTime, final byte[] userData) {
+        final byte[] h = new byte[SpacePacket.HEADER_LENGTH];
+        final int dataFieldLength = SpacePacket.SECONDARY_HEADER_LENGTH + userData.length;
+
+        put16(h, 0, (1 << 11) | (65 << 4) | 12);
+        put16(h, 2, 3 << 14);
+        put16(h, 4, dataFieldLength - 1);
+
+        put32(h, 6, coarseTime);
+        put16(h, 10, fineTime);
+        put32(h, 12, SpacePacket.SYNC_MARKER);
+        put32(h, 16, 123456);
+        h[37] = (byte) baqMode;
+        h[38] = (byte) 31;
+        h[63] = (byte) (signalType << 4);
+        h[64] = (byte) swathNumber;
+        put16(h, 65, nq);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(h.length + userData.length);
+        out.write(h, 0, h.length);
+        out.write(userData, 0, userData.length);
+        return out.toByteArray();
+    }
+
+    private static void put16(final byte[] b, final int i, final int v) {
+        b[i] = (byte) (v >>> 8);
+        b[i + 1] = (byte) v;
+    }
+
+    private static void put32(final byte[] b, final int i, final long v) {
+        put16(b, i, (int) (v >>> 16));
+        put16(b, i + 2, (int) v);
+    }
+
+    private static final class BitWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private int current;
+        private int numBits;
+
+        void write(final int value, final int length) {
+            for (int n = length - 1; n >= 0; --n) {
+                writeBit((value >>> n) & 1);
+            }
+        }
+
+        void write(final String code) {
+            for (int n = 0; n < code.length(); ++n) {
+                writeBit(code.charAt(n) == '1' ? 1 : 0);
+            }
+        }
+
+        private void writeBit(final int bit) {
+            current = (current << 1) | bit;
+            if (++numBits == 8) {
+                out.write(current);
+                current = 0;
+                numBits = 0;
+            }
+        }
+
+        void alignToWord() {
+            while (numBits != 0 || out.size() % 2 != 0) {
+                writeBit(0);
+            }
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
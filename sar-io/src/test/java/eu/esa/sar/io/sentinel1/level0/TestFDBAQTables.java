@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link FDBAQTables}.
+ */
+public class TestFDBAQTables {
+
+    @Test
+    public void testHuffmanCodesArePrefixFreeAndComplete() {
+        for (int brc = 0; brc < FDBAQTables.NUM_BRC; ++brc) {
+            double kraftSum = 0;
+            for (int m = 0; m < FDBAQTables.getNumMCodes(brc); ++m) {
+                final String code = FDBAQTables.getHuffmanCode(brc, m);
+                assertTrue(code.length() <= FDBAQTables.MAX_CODE_LENGTH);
+                kraftSum += Math.pow(2, -code.length());
+                for (int n = 0; n < FDBAQTables.getNumMCodes(brc); ++n) {
+                    if (n != m) {
+                        assertFalse("BRC " + brc, FDBAQTables.getHuffmanCode(brc, n).startsWith(code));
+                    }
+                }
+            }
+            assertEquals("BRC " + brc, 1.0, kraftSum, 0.0);
+        }
+    }
+
+    @Test
+    public void testNumberOfMCodes() {
+        final int[] expected = {4, 5, 7, 10, 16};
+        for (int brc = 0; brc < FDBAQTables.NUM_BRC; ++brc) {
+            assertEquals(expected[brc], FDBAQTables.getNumMCodes(brc));
+        }
+    }
+
+    @Test
+    public void testDecodeTable() {
+        // BRC 4, mcode 11 = 11111101, followed by a 0
+        final int entry = FDBAQTables.decode(4, 0b111111010);
+        assertEquals(8, entry >>> 8);
+        assertEquals(11, entry & 0xFF);
+    }
+
+    @Test
+    public void testSimpleReconstruction() {
+        assertEquals(2.0f, FDBAQTables.reconstruct(0, 3, false, 2), 0.0f);
+        assertEquals(-3.55f, FDBAQTables.reconstruct(0, 3, true, 3), 0.0f);
+        assertEquals(4.0f, FDBAQTables.reconstruct(1, 0, false, 4), 0.0f);
+        assertEquals(16.05f, FDBAQTables.reconstruct(4, 8, false, 15), 0.0f);
+        assertEquals(-0.0f, FDBAQTables.reconstruct(4, 8, true, 0), 0.0f);
+    }
+
+    @Test
+    public void testNormalReconstruction() {
+        assertEquals(0.3637f * FDBAQTables.getSigmaFactor(4), FDBAQTables.reconstruct(0, 4, false, 0), 0.0f);
+        assertEquals(-3.6623f * FDBAQTables.getSigmaFactor(200), FDBAQTables.reconstruct(4, 200, true, 15), 0.0f);
+        assertEquals(2.5369f * FDBAQTables.getSigmaFactor(6), FDBAQTables.reconstruct(2, 6, false, 5), 0.0f);
+    }
+
+    @Test
+    public void testSigmaFactors() {
+        assertEquals(0.0f, FDBAQTables.getSigmaFactor(0), 0.0f);
+        assertEquals(0.63f, FDBAQTables.getSigmaFactor(1), 0.0f);
+        assertEquals(255.99f, FDBAQTables.getSigmaFactor(255), 0.0f);
+        for (int t = 1; t < FDBAQTables.NUM_THIDX; ++t) {
+            assertTrue(FDBAQTables.getSigmaFactor(t) >= FDBAQTables.getSigmaFactor(t - 1));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link Level0EchoReader}.
+ */
+public class TestLevel0EchoReader {
+
+    private static final int NUM_LINES = 40;
+    private static final int[] SWATHS = {10, 11};
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadEchoDataMatchesDecodeLine() throws Exception {
+        final File file = createFile();
+        try (Level0EchoReader reader = new Level0EchoReader(file)) {
+            assertArrayEquals(SWATHS, reader.getIndex().getEchoSwathNumbers());
+
+            for (int swath : SWATHS) {
+                final List<SpacePacket> lines = reader.getIndex().getEchoPackets(swath);
+                assertEquals(NUM_LINES, lines.size());
+
+                final int w = reader.getIndex().getMaxNumSamples(swath);
+                final float[] iData = new float[w * NUM_LINES];
+                final float[] qData = new float[w * NUM_LINES];
+                reader.readEchoData(swath, 0, 0, w, NUM_LINES, iData, qData);
+
+                for (int y = 0; y < NUM_LINES; ++y) {
+                    final SpacePacket packet = lines.get(y);
+                    final float[] i = new float[packet.getNumSamples()];
+                    final float[] q = new float[packet.getNumSamples()];
+                    reader.decodeLine(packet, i, q);
+                    for (int x = 0; x < w; ++x) {
+                        final float expectedI = x < i.length ? i[x] : 0.0f;
+                        final float expectedQ = x < q.length ? q[x] : 0.0f;
+                        assertEquals(expectedI, iData[y * w + x], 0.0f);
+                        assertEquals(expectedQ, qData[y * w + x], 0.0f);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadSubset() throws Exception {
+        final File file = createFile();
+        try (Level0EchoReader reader = new Level0EchoReader(file)) {
+            final int swath = SWATHS[1];
+            final int x0 = 50, y0 = 7, w = 400, h = 9;
+            final float[] qData = new float[w * h];
+            reader.readEchoData(swath, x0, y0, w, h, null, qData);
+
+            final List<SpacePacket> lines = reader.getIndex().getEchoPackets(swath);
+            for (int y = 0; y < h; ++y) {
+                final SpacePacket packet = lines.get(y0 + y);
+                final float[] i = new float[packet.getNumSamples()];
+                final float[] q = new float[packet.getNumSamples()];
+                reader.decodeLine(packet, i, q);
+                for (int x = 0; x < w; ++x) {
+                    final float expected = x0 + x < q.length ? q[x0 + x] : 0.0f;
+                    assertEquals(expected, qData[y * w + x], 0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLinesOutOfRange() throws Exception {
+        final File file = createFile();
+        try (Level0EchoReader reader = new Level0EchoReader(file)) {
+            reader.readEchoData(SWATHS[0], 0, NUM_LINES - 2, 10, 4, new float[40], null);
+            fail("Expected IOException for lines beyond the end of the swath");
+        } catch (IOException expected) {
+            // success
+        }
+    }
+
+    /**
+     * Interleaves the echo lines of two swaths with calibration packets. Line lengths vary
+     * so that some lines end before the widest.
+     */
+    private File createFile() throws IOException {
+        final File file = tempFolder.newFile("s1a-s1-raw-s-vv-20200101t100000-20200101t100001-000001-000001.dat");
+        final Random random = new Random(21);
+        try (OutputStream out = new FileOutputStream(file)) {
+            for (int y = 0; y < NUM_LINES; ++y) {
+                for (int swath : SWATHS) {
+                    final int nq = 150 + random.nextInt(150);
+                    final Level0PacketEncoder.FDBAQLine line = new Level0PacketEncoder.FDBAQLine(nq, random);
+                    out.write(Level0PacketEncoder.createPacket(SpacePacket.SIGNAL_TYPE_ECHO, swath,
+                            SpacePacket.BAQ_FDBAQ_MODE_0, nq, 1000L + y, 0, line.encode()));
+                }
+                if (y % 10 == 0) {
+                    out.write(Level0PacketEncoder.createPacket(8, SWATHS[0], SpacePacket.BAQ_BYPASS, 4,
+                            1000L + y, 100, new byte[20]));
+                }
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link PacketIndex}.
+ */
+public class TestPacketIndex {
+
+    private static final int SIGNAL_TYPE_NOISE = 1;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testIndexGroupsEchoPacketsBySwath() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[][] packets = {
+                Level0PacketEncoder.createPacket(SIGNAL_TYPE_NOISE, 10, SpacePacket.BAQ_BYPASS, 4, 100L, 0, new byte[20]),
+                Level0PacketEncoder.createPacket(SpacePacket.SIGNAL_TYPE_ECHO, 11, SpacePacket.BAQ_BYPASS, 4, 100L, 10, new byte[20]),
+                Level0PacketEncoder.createPacket(SpacePacket.SIGNAL_TYPE_ECHO, 10, SpacePacket.BAQ_BYPASS, 8, 100L, 20, new byte[40]),
+                Level0PacketEncoder.createPacket(SpacePacket.SIGNAL_TYPE_ECHO, 10, SpacePacket.BAQ_BYPASS, 6, 100L, 30, new byte[30]),
+        };
+        for (byte[] packet : packets) {
+            out.write(packet);
+        }
+
+        final PacketIndex index = PacketIndex.build(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(4, index.getNumPackets());
+        assertFalse(index.getPacket(0).isEcho());
+
+        long offset = 0;
+        for (int p = 0; p < packets.length; ++p) {
+            assertEquals(offset, index.getPacket(p).offset);
+            assertEquals(packets[p].length, index.getPacket(p).packetLength);
+            offset += packets[p].length;
+        }
+
+        assertArrayEquals(new int[]{10, 11}, index.getEchoSwathNumbers());
+        final List<SpacePacket> swath10 = index.getEchoPackets(10);
+        assertEquals(2, swath10.size());
+        assertEquals(20, swath10.get(0).fineTime);
+        assertEquals(30, swath10.get(1).fineTime);
+        assertEquals(16, index.getMaxNumSamples(10));
+        assertEquals(8, index.getMaxNumSamples(11));
+        assertTrue(index.getEchoPackets(12).isEmpty());
+    }
+
+    @Test
+    public void testTruncatedFile() throws Exception {
+        final byte[] packet = Level0PacketEncoder.createPacket(SpacePacket.SIGNAL_TYPE_ECHO, 10,
+                SpacePacket.BAQ_BYPASS, 4, 100L, 0, new byte[20]);
+        final byte[] truncated = Arrays.copyOf(packet, packet.length - 5);
+        try {
+            PacketIndex.build(new ByteArrayInputStream(truncated));
+            fail("Expected IOException for truncated packet");
+        } catch (IOException expected) {
+            // success
+        }
+    }
+
+    @Test
+    public void testTruncatedFileOnDisk() throws Exception {
+        final byte[] packet = Level0PacketEncoder.createPacket(SpacePacket.SIGNAL_TYPE_ECHO, 10,
+                SpacePacket.BAQ_BYPASS, 4, 100L, 0, new byte[20]);
+        final File file = tempFolder.newFile("truncated.dat");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(packet);
+            out.write(packet, 0, packet.length - 5);
+        }
+        try {
+            PacketIndex.build(file);
+            fail("Expected IOException for truncated packet");
+        } catch (IOException expected) {
+            // success
+        }
+    }
+
+    @Test
+    public void testInvalidSyncMarker() throws Exception {
+        final byte[] packet = Level0PacketEncoder.createPacket(SpacePacket.SIGNAL_TYPE_ECHO, 10,
+                SpacePacket.BAQ_BYPASS, 4, 100L, 0, new byte[20]);
+        packet[12] = 0;
+        try {
+            PacketIndex.build(new ByteArrayInputStream(packet));
+            fail("Expected IOException for invalid sync marker");
+        } catch (IOException expected) {
+            // success
+        }
+    }
+}
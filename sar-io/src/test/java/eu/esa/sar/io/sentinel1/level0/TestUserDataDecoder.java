@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.io.sentinel1.level0;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link UserDataDecoder}.
+ */
+public class TestUserDataDecoder {
+
+    @Test
+    public void testFDBAQRoundTrip() throws Exception {
+        final Random random = new Random(11);
+        // partial last block, single block, and a typical line length
+        for (int nq : new int[]{1, 100, 128, 300, 2500}) {
+            final Level0PacketEncoder.FDBAQLine line = new Level0PacketEncoder.FDBAQLine(nq, random);
+            final byte[] userData = line.encode();
+            final SpacePacket packet = createPacket(SpacePacket.BAQ_FDBAQ_MODE_0, nq, userData);
+
+            final float[] i = new float[2 * nq];
+            final float[] q = new float[2 * nq];
+            UserDataDecoder.decode(packet, userData, i, q);
+
+            for (int k = 0; k < nq; ++k) {
+                assertEquals(line.getExpected(0, k), i[2 * k], 0.0f);
+                assertEquals(line.getExpected(1, k), i[2 * k + 1], 0.0f);
+                assertEquals(line.getExpected(2, k), q[2 * k], 0.0f);
+                assertEquals(line.getExpected(3, k), q[2 * k + 1], 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void testBypassRoundTrip() throws Exception {
+        final Random random = new Random(12);
+        final int nq = 77;
+        final int[][] values = new int[4][nq];
+        for (int[] channel : values) {
+            for (int k = 0; k < nq; ++k) {
+                channel[k] = random.nextInt(1023) - 511;
+            }
+        }
+        final byte[] userData = Level0PacketEncoder.encodeBypass(values);
+        final SpacePacket packet = createPacket(SpacePacket.BAQ_BYPASS, nq, userData);
+
+        final float[] i = new float[2 * nq];
+        final float[] q = new float[2 * nq];
+        UserDataDecoder.decode(packet, userData, i, q);
+
+        for (int k = 0; k < nq; ++k) {
+            assertEquals(values[0][k], i[2 * k], 0.0f);
+            assertEquals(values[1][k], i[2 * k + 1], 0.0f);
+            assertEquals(values[2][k], q[2 * k], 0.0f);
+            assertEquals(values[3][k], q[2 * k + 1], 0.0f);
+        }
+    }
+
+    @Test
+    public void testTruncatedUserData() throws Exception {
+        final Level0PacketEncoder.FDBAQLine line = new Level0PacketEncoder.FDBAQLine(300, new Random(13));
+        final byte[] userData = line.encode();
+        final byte[] truncated = Arrays.copyOf(userData, userData.length / 2);
+        final SpacePacket packet = createPacket(SpacePacket.BAQ_FDBAQ_MODE_1, 300, truncated);
+        try {
+            UserDataDecoder.decode(packet, truncated, new float[600], new float[600]);
+            fail("Expected IOException for truncated user data");
+        } catch (IOException expected) {
+            // success
+        }
+    }
+
+    @Test
+    public void testInvalidBitRateCode() throws Exception {
+        // BRC 7 in the first three bits
+        final byte[] userData = new byte[64];
+        userData[0] = (byte) 0xE0;
+        final SpacePacket packet = createPacket(SpacePacket.BAQ_FDBAQ_MODE_0, 10, userData);
+        try {
+            UserDataDecoder.decode(packet, userData, new float[20], new float[20]);
+            fail("Expected IOException for invalid BRC");
+        } catch (IOException expected) {
+            // success
+        }
+    }
+
+    @Test
+    public void testUnsupportedBAQMode() throws Exception {
+        final byte[] userData = new byte[64];
+        final SpacePacket packet = createPacket(4, 10, userData);
+        try {
+            UserDataDecoder.decode(packet, userData, new float[20], new float[20]);
+            fail("Expected IOException for BAQ mode 4");
+        } catch (IOException expected) {
+            // success
+        }
+    }
+
+    private static SpacePacket createPacket(final int baqMode, final int nq, final byte[] userData) throws IOException {
+        final byte[] bytes = Level0PacketEncoder.createPacket(SpacePacket.SIGNAL_TYPE_ECHO, 1, baqMode, nq,
+                1000L, 0, userData);
+        return SpacePacket.parse(0, bytes);
+    }
+}
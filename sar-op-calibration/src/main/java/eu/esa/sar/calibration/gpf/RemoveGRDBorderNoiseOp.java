@@ -477,9 +477,7 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
             throws OperatorException {
 
         try {
-            if (useBorderDetection && !borderDetected) {
-                detectBorders();
-            }
+            prepareBorders();
 
             final int x0 = targetRectangle.x;
             final int y0 = targetRectangle.y;
@@ -515,7 +513,7 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
             final Tile coPolTile = getSourceTile(coPolBand, targetRectangle);
             final ProductData coPolData = coPolTile.getDataBuffer();
 
-            double coPolDataValue, deNoisedDataValue;
+            double coPolDataValue;
             for (int y = y0; y < yMax; y++) {
                 srcIndex.calculateStride(y);
                 tgtIndex.calculateStride(y);
@@ -523,7 +521,7 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
                 for (int x = x0; x < xMax; x++) {
                     final int srcIdx = srcIndex.getIndex(x);
 
-                    boolean testPixel = x < leftBorder || x > rightBorder || y < topBorder || y > bottomBorder;
+                    boolean testPixel = isInBorderMargin(x, y);
 
                     if (testPixel) {
                         coPolDataValue = coPolData.getElemDoubleAt(srcIdx);
@@ -531,10 +529,7 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
                             continue;
                         }
 
-                        deNoisedDataValue =
-                                Math.sqrt(Math.max(coPolDataValue * coPolDataValue - noiseLUT[x], 0.0));
-
-                        if (deNoisedDataValue < trimThreshold || coPolDataValue < 30) {
+                        if (isBelowNoiseFloor(x, coPolDataValue)) {
                             final int tgtIdx = tgtIndex.getIndex(x);
                             for (int i = 0; i < numBands; i++) {
                                 targetData[i].setElemDoubleAt(tgtIdx, bandNoDataValues[i]);
@@ -558,6 +553,55 @@ public final class RemoveGRDBorderNoiseOp extends Operator {
         }
     }
 
+    /**
+     * @return true if the IPF did not mask the border noise itself and pixels must be tested here
+     */
+    boolean isBorderNoiseRemovalRequired() {
+        return version < 2.90;
+    }
+
+    /**
+     * @return the co-polarised source band the border mask is computed from
+     */
+    Band getCoPolBand() {
+        return coPolBand;
+    }
+
+    /**
+     * Detects the image borders once, before any pixel is tested.
+     */
+    void prepareBorders() throws OperatorException {
+        if (useBorderDetection && !borderDetected) {
+            detectBorders();
+        }
+    }
+
+    /**
+     * Tests a pixel of the co-polarised band against the border mask. Pixels in the border margin with
+     * a no-data co-polarised value are not copied by this operator and are reported as border noise too.
+     *
+     * @param x              Pixel x coordinate.
+     * @param y              Pixel y coordinate.
+     * @param coPolDataValue Co-polarised DN of the pixel.
+     * @return true if the pixel does not keep its source value
+     */
+    boolean isBorderNoise(final int x, final int y, final double coPolDataValue) {
+        if (!isInBorderMargin(x, y)) {
+            return false;
+        }
+        return Double.isNaN(coPolDataValue) || coPolDataValue == noDataValue || isBelowNoiseFloor(x, coPolDataValue);
+    }
+
+    private boolean isInBorderMargin(final int x, final int y) {
+        return x < leftBorder || x > rightBorder || y < topBorder || y > bottomBorder;
+    }
+
+    private boolean isBelowNoiseFloor(final int x, final double coPolDataValue) {
+        final double deNoisedDataValue =
+                Math.sqrt(Math.max(coPolDataValue * coPolDataValue - noiseLUT[x], 0.0));
+        return deNoisedDataValue < trimThreshold || coPolDataValue < 30;
+    }
+
     private synchronized void detectBorders() throws OperatorException {
 
         if (borderDetected) return;
@@ -0,0 +1,532 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.calibration.gpf.calibrators.Sentinel1Calibrator;
+import eu.esa.sar.commons.Sentinel1Utils;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.datamodel.VirtualBand;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.gpf.annotations.OperatorMetadata;
+import org.esa.snap.core.gpf.annotations.Parameter;
+import org.esa.snap.core.gpf.annotations.SourceProduct;
+import org.esa.snap.core.gpf.annotations.TargetProduct;
+import org.esa.snap.core.util.ProductUtils;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.gpf.InputProductValidator;
+import org.esa.snap.engine_utilities.gpf.OperatorUtils;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass radiometric processing of Sentinel-1 GRD products.
+ * <p>
+ * Produces the same result as the chain Remove-GRD-Border-Noise, ThermalNoiseRemoval, Calibration and
+ * LinearToFromdB, but reads each source tile once and writes the calibrated bands directly, so none of
+ * the intermediate products is materialised in the tile cache. Per tile the border mask is computed once
+ * for all polarisations, and per range line the noise LUT is computed once for all calibration types.
+ * The noise and border vectors are taken from the operators of the chain themselves.
+ */
+@OperatorMetadata(alias = "S1-GRD-Radiometry",
+        category = "Radar/Radiometric",
+        authors = "SkyWatch",
+        copyright = "Copyright (C) 2026 by SkyWatch Space Applications Inc.",
+        version = "1.0",
+        description = "Border noise removal, thermal noise removal and calibration of Sentinel-1 GRD products in one pass")
+public final class Sentinel1GRDRadiometryOp extends Operator {
+
+    @SourceProduct
+    private Product sourceProduct;
+    @TargetProduct
+    private Product targetProduct;
+
+    @Parameter(description = "The list of polarisations", label = "Polarisations")
+    private String[] selectedPolarisations;
+
+    @Parameter(description = "Remove thermal noise", defaultValue = "true", label = "Remove Thermal Noise")
+    private Boolean removeThermalNoise = true;
+
+    @Parameter(description = "Clip negative values after noise removal", defaultValue = "true",
+            label = "Clip Negative Values")
+    private Boolean clipNegativeValues = true;
+
+    @Parameter(description = "Mask no-value pixels at the image border", defaultValue = "true",
+            label = "Remove Border Noise")
+    private Boolean removeBorderNoise = true;
+
+    @Parameter(description = "The border margin limit", defaultValue = "500", label = "Border margin limit[pixels]")
+    private int borderLimit = 500;
+
+    @Parameter(description = "The trim threshold", defaultValue = "0.5", label = "Threshold")
+    private double trimThreshold = 0.5;
+
+    @Parameter(description = "Output sigma0 band", defaultValue = "true", label = "Output sigma0 band")
+    private Boolean outputSigmaBand = true;
+
+    @Parameter(description = "Output gamma0 band", defaultValue = "false", label = "Output gamma0 band")
+    private Boolean outputGammaBand = false;
+
+    @Parameter(description = "Output beta0 band", defaultValue = "false", label = "Output beta0 band")
+    private Boolean outputBetaBand = false;
+
+    @Parameter(description = "Output image scale", defaultValue = "false", label = "Scale in dB")
+    private Boolean outputImageScaleInDb = false;
+
+    private MetadataElement absRoot = null;
+    private int subsetOffsetX = 0;
+    private int subsetOffsetY = 0;
+    private List<String> selectedPolList = null;
+    private Sentinel1RemoveThermalNoiseOp thermalNoiseOp = null;
+    private RemoveGRDBorderNoiseOp borderNoiseOp = null;
+    private final Map<Band, List<Band>> sourceBandToTargetBands = new LinkedHashMap<>(4);
+    private final Map<Band, Sentinel1Calibrator.CalibrationInfo> sourceBandToCalInfo = new LinkedHashMap<>(4);
+
+    private static final String PRODUCT_SUFFIX = "_Cal";
+    private static final double underFlowFloat = 1.0e-30;
+
+    /**
+     * Default constructor. The graph processing framework
+     * requires that an operator has a default constructor.
+     */
+    public Sentinel1GRDRadiometryOp() {
+    }
+
+    /**
+     * Initializes this operator and sets the one and only target product.
+     * <p>The target product can be either defined by a field of type {@link Product} annotated with the
+     * {@link TargetProduct TargetProduct} annotation or
+     * by calling {@link #setTargetProduct} method.</p>
+     * <p>The framework calls this method after it has created this operator.
+     * Any client code that must be performed before computation of tile data
+     * should be placed here.</p>
+     *
+     * @throws OperatorException If an error occurs during operator initialisation.
+     * @see #getTargetProduct()
+     */
+    @Override
+    public void initialize() throws OperatorException {
+
+        try {
+            final InputProductValidator validator = new InputProductValidator(sourceProduct);
+            validator.checkIfSentinel1Product();
+            validator.checkIfGRD();
+            validator.checkIfCalibrated(false);
+
+            if (!outputSigmaBand && !outputGammaBand && !outputBetaBand) {
+                throw new OperatorException("Please select at least one of sigma0, gamma0 or beta0 to output");
+            }
+
+            absRoot = AbstractMetadata.getAbstractedMetadata(sourceProduct);
+            subsetOffsetX = absRoot.getAttributeInt(AbstractMetadata.subset_offset_x);
+            subsetOffsetY = absRoot.getAttributeInt(AbstractMetadata.subset_offset_y);
+
+            setSelectedPolarisations();
+
+            createNoiseOperators();
+
+            createTargetProduct();
+
+            getCalibrationVectors();
+
+            updateTargetProductMetadata();
+
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        }
+    }
+
+    /**
+     * Set user selected polarisations.
+     */
+    private void setSelectedPolarisations() {
+
+        String[] selectedPols = selectedPolarisations;
+        if (selectedPols == null || selectedPols.length == 0) {
+            selectedPols = Sentinel1Utils.getProductPolarizations(absRoot);
+        }
+        selectedPolList = Arrays.asList(selectedPols);
+    }
+
+    /**
+     * The noise operators of the chain are initialised on the source product and only used for their
+     * noise vectors, LUTs and border limits. Their target images are never computed.
+     */
+    private void createNoiseOperators() {
+
+        if (removeBorderNoise) {
+            borderNoiseOp = new RemoveGRDBorderNoiseOp();
+            borderNoiseOp.setSourceProduct(sourceProduct);
+            borderNoiseOp.setParameter("selectedPolarisations", selectedPolarisations);
+            borderNoiseOp.setParameter("borderLimit", borderLimit);
+            borderNoiseOp.setParameter("trimThreshold", trimThreshold);
+            borderNoiseOp.getTargetProduct();
+            if (!borderNoiseOp.isBorderNoiseRemovalRequired()) {
+                // the IPF already masked the border noise
+                borderNoiseOp = null;
+            }
+        }
+
+        if (removeThermalNoise) {
+            thermalNoiseOp = new Sentinel1RemoveThermalNoiseOp();
+            thermalNoiseOp.setSourceProduct(sourceProduct);
+            thermalNoiseOp.setParameter("selectedPolarisations", selectedPolList.toArray(new String[0]));
+            thermalNoiseOp.setParameter("clipNegativeValues", clipNegativeValues);
+            thermalNoiseOp.getTargetProduct();
+        }
+    }
+
+    /**
+     * Create a target product for output.
+     */
+    private void createTargetProduct() {
+
+        targetProduct = new Product(sourceProduct.getName() + PRODUCT_SUFFIX,
+                sourceProduct.getProductType(),
+                sourceProduct.getSceneRasterWidth(),
+                sourceProduct.getSceneRasterHeight());
+
+        ProductUtils.copyProductNodes(sourceProduct, targetProduct);
+
+        addSelectedBands();
+    }
+
+    /**
+     * Add a calibrated band for each selected calibration type and each amplitude or intensity source band.
+     */
+    private void addSelectedBands() {
+
+        for (Band srcBand : sourceProduct.getBands()) {
+            if (srcBand instanceof VirtualBand) {
+                continue;
+            }
+
+            final String unit = srcBand.getUnit();
+            if (unit == null) {
+                throw new OperatorException("band " + srcBand.getName() + " requires a unit");
+            }
+
+            if (!unit.equals(Unit.AMPLITUDE) && !unit.equals(Unit.INTENSITY)) {
+                continue;
+            }
+
+            final String srcBandName = srcBand.getName();
+            final String pol = srcBandName.substring(srcBandName.lastIndexOf('_') + 1);
+            if (!selectedPolList.contains(pol)) {
+                continue;
+            }
+
+            final List<Band> targetBands = new ArrayList<>(3);
+            for (String targetBandName : createTargetBandNames(srcBandName)) {
+                if (targetProduct.getBand(targetBandName) != null) {
+                    continue;
+                }
+
+                final Band targetBand = new Band(targetBandName,
+                        ProductData.TYPE_FLOAT32,
+                        srcBand.getRasterWidth(),
+                        srcBand.getRasterHeight());
+
+                targetBand.setUnit(outputImageScaleInDb ? Unit.INTENSITY_DB : Unit.INTENSITY);
+                targetBand.setDescription(srcBand.getDescription());
+                targetBand.setNoDataValue(srcBand.getNoDataValue());
+                targetBand.setNoDataValueUsed(true);
+                targetProduct.addBand(targetBand);
+                targetBands.add(targetBand);
+            }
+
+            if (!targetBands.isEmpty()) {
+                sourceBandToTargetBands.put(srcBand, targetBands);
+            }
+        }
+
+        if (sourceBandToTargetBands.isEmpty()) {
+            throw new OperatorException("No amplitude or intensity band found for the selected polarisations");
+        }
+    }
+
+    /**
+     * Create target band names for given source band name.
+     *
+     * @param srcBandName The given source band name.
+     * @return The target band name array.
+     */
+    private String[] createTargetBandNames(final String srcBandName) {
+
+        final String pol = srcBandName.substring(srcBandName.indexOf('_'));
+        final String suffix = outputImageScaleInDb ? "_dB" : "";
+
+        final List<String> targetBandNames = new ArrayList<>(3);
+        if (outputSigmaBand) {
+            targetBandNames.add("Sigma0" + pol + suffix);
+        }
+        if (outputGammaBand) {
+            targetBandNames.add("Gamma0" + pol + suffix);
+        }
+        if (outputBetaBand) {
+            targetBandNames.add("Beta0" + pol + suffix);
+        }
+        return targetBandNames.toArray(new String[0]);
+    }
+
+    /**
+     * Get calibration vectors from the original product metadata.
+     */
+    private void getCalibrationVectors() throws Exception {
+
+        final Sentinel1Calibrator.CalibrationInfo[] calibration = Sentinel1Calibrator.getCalibrationVectors(
+                sourceProduct, selectedPolList, outputSigmaBand, outputBetaBand, outputGammaBand, false);
+
+        for (Band srcBand : sourceBandToTargetBands.keySet()) {
+            for (Sentinel1Calibrator.CalibrationInfo cal : calibration) {
+                if (srcBand.getName().contains(cal.polarization)) {
+                    sourceBandToCalInfo.put(srcBand, cal);
+                    break;
+                }
+            }
+            if (!sourceBandToCalInfo.containsKey(srcBand)) {
+                throw new OperatorException("Calibration information not found for " + srcBand.getName());
+            }
+        }
+    }
+
+    /**
+     * Update target product metadata.
+     */
+    private void updateTargetProductMetadata() {
+
+        final MetadataElement abs = AbstractMetadata.getAbstractedMetadata(targetProduct);
+        abs.getAttribute(AbstractMetadata.abs_calibration_flag).getData().setElemBoolean(true);
+
+        Sentinel1Utils.updateBandNames(abs, selectedPolList, targetProduct.getBandNames());
+
+        final MetadataElement[] bandMetadataList = AbstractMetadata.getBandAbsMetadataList(abs);
+        for (MetadataElement bandMeta : bandMetadataList) {
+            boolean polFound = false;
+            for (String pol : selectedPolList) {
+                if (bandMeta.getName().contains(pol)) {
+                    polFound = true;
+                    break;
+                }
+            }
+            if (!polFound) {
+                abs.removeElement(bandMeta);
+            }
+        }
+
+        if (removeThermalNoise) {
+            final MetadataElement origMetadataRoot = AbstractMetadata.getOriginalProductMetadata(targetProduct);
+            final MetadataElement annotationElem = origMetadataRoot.getElement("annotation");
+            for (MetadataElement elem : annotationElem.getElements()) {
+                final MetadataElement processingInformationElem = elem.getElement("product")
+                        .getElement("imageAnnotation").getElement("processingInformation");
+                processingInformationElem.getAttribute("thermalNoiseCorrectionPerformed").getData().setElems("true");
+            }
+        }
+    }
+
+    /**
+     * Called by the framework in order to compute the stack of tiles for the given target bands.
+     * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
+     *
+     * @param targetTiles     The current tiles to be computed for each target band.
+     * @param targetRectangle The area in pixel coordinates to be computed (same for all rasters in <code>targetRasters</code>).
+     * @param pm              A progress monitor which should be used to determine computation cancelation requests.
+     * @throws OperatorException if an error occurs during computation of the target rasters.
+     */
+    @Override
+    public void computeTileStack(Map<Band, Tile> targetTiles, Rectangle targetRectangle, ProgressMonitor pm)
+            throws OperatorException {
+
+        final int x0 = targetRectangle.x;
+        final int y0 = targetRectangle.y;
+        final int w = targetRectangle.width;
+        final int h = targetRectangle.height;
+        final int sx0 = subsetOffsetX + x0; // tile start x coordinate in original image
+        final int sy0 = subsetOffsetY + y0; // tile start y coordinate in original image
+
+        try {
+            final boolean[] borderMask = computeBorderMask(targetRectangle);
+
+            final double[] noiseLUT = new double[w];
+            for (Map.Entry<Band, List<Band>> entry : sourceBandToTargetBands.entrySet()) {
+                final Band srcBand = entry.getKey();
+                final List<Band> targetBands = entry.getValue();
+
+                final int numTargets = targetBands.size();
+                final Tile[] tgtTiles = new Tile[numTargets];
+                final ProductData[] tgtData = new ProductData[numTargets];
+                final Sentinel1Calibrator.CALTYPE[] calTypes = new Sentinel1Calibrator.CALTYPE[numTargets];
+                final double[][] calLUTs = new double[numTargets][w];
+                for (int t = 0; t < numTargets; ++t) {
+                    tgtTiles[t] = targetTiles.get(targetBands.get(t));
+                    tgtData[t] = tgtTiles[t].getDataBuffer();
+                    calTypes[t] = Sentinel1Calibrator.getCalibrationType(targetBands.get(t).getName());
+                }
+
+                final Tile srcTile = getSourceTile(srcBand, targetRectangle);
+                final ProductData srcData = srcTile.getDataBuffer();
+                final double noDataValue = srcBand.getNoDataValue();
+                final boolean isAmplitude = Unit.getUnitType(srcBand) == Unit.UnitType.AMPLITUDE;
+                final Sentinel1Calibrator.CalibrationInfo calInfo = sourceBandToCalInfo.get(srcBand);
+
+                String thermalBandName = null;
+                double[][] noiseBlock = null;
+                if (thermalNoiseOp != null) {
+                    thermalBandName = thermalNoiseOp.createTargetBandName(srcBand.getName());
+                    noiseBlock = thermalNoiseOp.populateNoiseAzimuthBlock(sx0, sy0, w, h, thermalBandName);
+                }
+
+                final TileIndex srcIndex = new TileIndex(srcTile);
+                final TileIndex tgtIndex = new TileIndex(tgtTiles[0]);
+                final int maxY = y0 + h;
+                final int maxX = x0 + w;
+
+                for (int y = y0; y < maxY; ++y) {
+                    srcIndex.calculateStride(y);
+                    tgtIndex.calculateStride(y);
+                    final int sy = y + subsetOffsetY;
+
+                    if (thermalNoiseOp != null) {
+                        thermalNoiseOp.computeNoiseLUT(thermalBandName, null, null, sy, sx0, sy0, w, noiseBlock, noiseLUT);
+                    }
+                    for (int t = 0; t < numTargets; ++t) {
+                        Sentinel1Calibrator.computeCalibrationLUT(calInfo, calTypes[t], sy, sx0, w, calLUTs[t]);
+                    }
+
+                    final int maskOffset = (y - y0) * w;
+                    for (int x = x0; x < maxX; ++x) {
+                        final int xx = x - x0;
+                        final int tgtIdx = tgtIndex.getIndex(x);
+
+                        final double dn = srcData.getElemDoubleAt(srcIndex.getIndex(x));
+                        final double dn2 = isAmplitude ? dn * dn : dn;
+                        if (Double.isNaN(dn2) || dn2 == noDataValue || (borderMask != null && borderMask[maskOffset + xx])) {
+                            for (int t = 0; t < numTargets; ++t) {
+                                tgtData[t].setElemDoubleAt(tgtIdx, noDataValue);
+                            }
+                            continue;
+                        }
+
+                        double intensity = dn2;
+                        if (thermalNoiseOp != null) {
+                            // the noise removed intensity as stored in float between the operators of the chain
+                            intensity = (float) removeNoise(dn2, noiseLUT[xx]);
+                            if (intensity == noDataValue) {
+                                for (int t = 0; t < numTargets; ++t) {
+                                    tgtData[t].setElemDoubleAt(tgtIdx, noDataValue);
+                                }
+                                continue;
+                            }
+                        }
+
+                        for (int t = 0; t < numTargets; ++t) {
+                            final double lutVal = calLUTs[t][xx];
+                            final double calibrationFactor = 1.0 / (lutVal * lutVal);
+                            final float calValue = (float) (intensity * calibrationFactor);
+                            tgtData[t].setElemDoubleAt(tgtIdx, outputImageScaleInDb ? toDb(calValue) : calValue);
+                        }
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        } finally {
+            pm.done();
+        }
+    }
+
+    /**
+     * Evaluate the border mask of the co-polarised band once for all bands of a tile.
+     *
+     * @return the mask in row order, or null if no border noise has to be removed
+     */
+    private boolean[] computeBorderMask(final Rectangle targetRectangle) {
+
+        if (borderNoiseOp == null) {
+            return null;
+        }
+        borderNoiseOp.prepareBorders();
+
+        final Tile coPolTile = getSourceTile(borderNoiseOp.getCoPolBand(), targetRectangle);
+        final ProductData coPolData = coPolTile.getDataBuffer();
+        final TileIndex srcIndex = new TileIndex(coPolTile);
+
+        final int x0 = targetRectangle.x;
+        final int y0 = targetRectangle.y;
+        final int w = targetRectangle.width;
+        final int maxY = y0 + targetRectangle.height;
+        final int maxX = x0 + w;
+        final boolean[] mask = new boolean[w * targetRectangle.height];
+        for (int y = y0; y < maxY; ++y) {
+            srcIndex.calculateStride(y);
+            for (int x = x0; x < maxX; ++x) {
+                mask[(y - y0) * w + x - x0] =
+                        borderNoiseOp.isBorderNoise(x, y, coPolData.getElemDoubleAt(srcIndex.getIndex(x)));
+            }
+        }
+        return mask;
+    }
+
+    private double removeNoise(final double dn2, final double noise) {
+
+        if (noise == 0) {
+            // zero noise value means missing denoising data
+            return dn2;
+        }
+
+        final double value = dn2 - noise;
+        if (clipNegativeValues && value < 0) {
+            return Sentinel1RemoveThermalNoiseOp.trgFloorValue;
+        }
+        return value;
+    }
+
+    private static double toDb(final double value) {
+        if (value < underFlowFloat) {
+            return -underFlowFloat;
+        }
+        return 10.0 * Math.log10(value);
+    }
+
+    /**
+     * The SPI is used to register this operator in the graph processing framework
+     * via the SPI configuration file
+     * {@code META-INF/services/org.esa.snap.core.gpf.OperatorSpi}.
+     * This class may also serve as a factory for new operator instances.
+     *
+     * @see OperatorSpi#createOperator()
+     * @see OperatorSpi#createOperator(java.util.Map, java.util.Map)
+     */
+    public static class Spi extends OperatorSpi {
+        public Spi() {
+            super(Sentinel1GRDRadiometryOp.class);
+        }
+    }
+}
@@ -476,7 +476,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
      * @param sourceBandName Source band name string.
      * @return Target band name string.
      */
-    private String createTargetBandName(final String sourceBandName) {
+    String createTargetBandName(final String sourceBandName) {
 
         final String pol = sourceBandName.substring(sourceBandName.indexOf('_'));
 
@@ -543,7 +543,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
         }
     }
 
-    private double[][] populateNoiseAzimuthBlock(
+    double[][] populateNoiseAzimuthBlock(
             final int x0, final int y0, final int w, final int h, final String targetBandName) {
 
         if (version >= 2.9 && !isSM) {
@@ -651,32 +651,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
                 tgtIndex.calculateStride(y);
                 final int sy = y + subsetOffsetY;
 
-                if (absoluteCalibrationPerformed) {
-                    final int calVecIdx = calInfo.getCalibrationVectorIndex(sy);
-                    final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
-                    final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-                    final float[] vec0LUT = Sentinel1Calibrator.getVector(calType, vec0);
-                    final float[] vec1LUT = Sentinel1Calibrator.getVector(calType, vec1);
-                    final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
-                    final int pixelIdx0 = calVec.getPixelIndex(sx0);
-
-                    if (version < 2.9 || isSM) {
-                        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
-                    } else {
-                        computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
-                    }
-
-                } else {
-                    if (version < 2.9 || isSM) {
-                        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileNoiseLUT(sy, sx0, w, noiseInfo, lut);
-                    } else {
-                        computeTileNoiseLUT(sy - sy0, sx0, w, noiseBlock, lut);
-                    }
-                }
+                computeNoiseLUT(targetBandName, calInfo, calType, sy, sx0, sy0, w, noiseBlock, lut);
 
                 for (int x = x0; x < maxX; ++x) {
                     final int xx = x - x0;
@@ -758,32 +733,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
                 final int sy = y + subsetOffsetY;
 
                 double[] lut = new double[w];
-                if (absoluteCalibrationPerformed) {
-                    final int calVecIdx = calInfo.getCalibrationVectorIndex(sy);
-                    final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
-                    final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-                    final float[] vec0LUT = Sentinel1Calibrator.getVector(calType, vec0);
-                    final float[] vec1LUT = Sentinel1Calibrator.getVector(calType, vec1);
-                    final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
-                    final int pixelIdx0 = calVec.getPixelIndex(sx0);
-
-                    if (version < 2.9 || isSM) {
-                        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
-                    } else {
-                        computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
-                    }
-
-                } else {
-                    if (version < 2.9 || isSM) {
-                        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileNoiseLUT(sy, sx0, w, noiseInfo, lut);
-                    } else {
-                        computeTileNoiseLUT(sy - sy0, sx0, w, noiseBlock, lut);
-                    }
-                }
+                computeNoiseLUT(targetBandName, calInfo, calType, sy, sx0, sy0, w, noiseBlock, lut);
 
                 for (int x = x0; x < maxX; ++x) {
                     final int xx = x - x0;
@@ -797,6 +747,54 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
         }
     }
 
+    /**
+     * Compute the noise LUT of one range line of a tile, scaled by the calibration LUT when the
+     * source product is calibrated.
+     *
+     * @param targetBandName Target image band name.
+     * @param calInfo        Calibration information of the band, or null if the source is not calibrated.
+     * @param calType        Calibration type of the band, or null if the source is not calibrated.
+     * @param sy             Line index in the original image.
+     * @param sx0            X coordinate of the first tile pixel in the original image.
+     * @param sy0            Y coordinate of the first tile line in the original image.
+     * @param w              Tile width.
+     * @param noiseBlock     Noise block of the tile from {@link #populateNoiseAzimuthBlock}, or null.
+     * @param lut            The noise LUT.
+     */
+    void computeNoiseLUT(final String targetBandName,
+                         final Sentinel1Calibrator.CalibrationInfo calInfo,
+                         final Sentinel1Calibrator.CALTYPE calType,
+                         final int sy, final int sx0, final int sy0, final int w,
+                         final double[][] noiseBlock, final double[] lut) throws OperatorException {
+
+        if (absoluteCalibrationPerformed) {
+            final int calVecIdx = calInfo.getCalibrationVectorIndex(sy);
+            final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
+            final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
+            final float[] vec0LUT = Sentinel1Calibrator.getVector(calType, vec0);
+            final float[] vec1LUT = Sentinel1Calibrator.getVector(calType, vec1);
+            final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
+            final int pixelIdx0 = calVec.getPixelIndex(sx0);
+
+            if (version < 2.9 || isSM) {
+                final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
+                computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, vec0.timeMJD, vec1.timeMJD,
+                        vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
+            } else {
+                computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, vec0.timeMJD, vec1.timeMJD,
+                        vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
+            }
+
+        } else {
+            if (version < 2.9 || isSM) {
+                final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
+                computeTileNoiseLUT(sy, sx0, w, noiseInfo, lut);
+            } else {
+                computeTileNoiseLUT(sy - sy0, sx0, w, noiseBlock, lut);
+            }
+        }
+    }
+
     /**
      * Get thermal noise information for given target band.
      *
@@ -476,6 +476,41 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
         return index;
     }
 
+    /**
+     * Interpolates the calibration LUT over a span of one image line, as done per pixel in computeTile.
+     *
+     * @param calInfo The calibration vectors of the polarisation.
+     * @param calType The calibration type.
+     * @param y       Line index in the original (unsubsetted) image.
+     * @param x0      First pixel index in the original image.
+     * @param w       Number of pixels.
+     * @param lut     The interpolated LUT values, of length at least w.
+     */
+    public static void computeCalibrationLUT(final CalibrationInfo calInfo, final CALTYPE calType,
+                                             final int y, final int x0, final int w, final double[] lut) {
+
+        final int calVecIdx = calInfo.getCalibrationVectorIndex(y);
+        final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
+        final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
+        final float[] vec0LUT = getVector(calType, vec0);
+        final float[] vec1LUT = getVector(calType, vec1);
+        final double azTime = calInfo.firstLineTime + y * calInfo.lineTimeInterval;
+        final double muY = (azTime - vec0.timeMJD) / (vec1.timeMJD - vec0.timeMJD);
+        final int[] vec0Pixels = vec0.pixels;
+        final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
+
+        int pixelIdx = -1;
+        for (int i = 0; i < w; ++i) {
+            final int x = x0 + i;
+            pixelIdx = getPixelIndex(calVec, pixelIdx, x);
+            final double muX = (x - vec0Pixels[pixelIdx]) /
+                    (double)(vec0Pixels[pixelIdx + 1] - vec0Pixels[pixelIdx]);
+
+            lut[i] = (1 - muY) * ((1 - muX) * vec0LUT[pixelIdx] + muX * vec0LUT[pixelIdx + 1]) +
+                    muY * ((1 - muX) * vec1LUT[pixelIdx] + muX * vec1LUT[pixelIdx + 1]);
+        }
+    }
+
     public static CALTYPE getCalibrationType(final String bandName) {
         CALTYPE calType;
         if (bandName.contains("Beta")) {
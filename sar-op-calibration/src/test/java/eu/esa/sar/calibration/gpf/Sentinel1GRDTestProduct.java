@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf;
+
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.util.TestUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Synthetic Sentinel-1 stripmap GRD product with the annotation, noise and calibration metadata
+ * read by the thermal noise removal, border noise removal and calibration operators.
+ * Amplitudes are random DNs in the range of the noise floor, with a dark margin of low DNs
+ * along the near and far range edges.
+ */
+public final class Sentinel1GRDTestProduct {
+
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2020, 1, 1, 10, 0, 0);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
+    private static final long LINE_TIME_INTERVAL_NANOS = 500_000L;
+    private static final String SWATH = "S1";
+
+    private Sentinel1GRDTestProduct() {
+    }
+
+    /**
+     * @param width      Product width.
+     * @param height     Product height.
+     * @param ipfVersion IPF version, e.g. "003.10".
+     * @param pols       Polarisations, one amplitude band each.
+     * @return the product
+     */
+    public static Product create(final int width, final int height, final String ipfVersion, final String... pols) {
+
+        final Product product = TestUtils.createProduct("GRD", width, height);
+
+        final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(product);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.MISSION, "SENTINEL-1A");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.PRODUCT_TYPE, "GRD");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.SAMPLE_TYPE, "DETECTED");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.ACQUISITION_MODE, "SM");
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.ProcessingSystemIdentifier, "ESA Sentinel-1 IPF " + ipfVersion);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.abs_calibration_flag, 0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.subset_offset_x, 0);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.subset_offset_y, 0);
+
+        final MetadataElement root = product.getMetadataRoot();
+        MetadataElement origRoot = root.getElement(AbstractMetadata.ORIGINAL_PRODUCT_METADATA);
+        if (origRoot == null) {
+            origRoot = new MetadataElement(AbstractMetadata.ORIGINAL_PRODUCT_METADATA);
+            root.addElement(origRoot);
+        }
+        final MetadataElement annotation = new MetadataElement("annotation");
+        final MetadataElement noise = new MetadataElement("noise");
+        final MetadataElement calibration = new MetadataElement("calibration");
+        origRoot.addElement(annotation);
+        origRoot.addElement(noise);
+        origRoot.addElement(calibration);
+
+        final boolean rangeNoiseVectors = Double.parseDouble(ipfVersion) >= 2.9;
+        final Random random = new Random(7);
+        for (String pol : pols) {
+            final String dataSetName = "s1a-s1-grd-" + pol.toLowerCase() + "-20200101t100000-000001-000001-001.xml";
+            annotation.addElement(createAnnotation(dataSetName, height));
+            noise.addElement(createNoise(dataSetName, pol, width, height, rangeNoiseVectors, random));
+            calibration.addElement(createCalibration(dataSetName, pol, width, height, random));
+            product.addBand(createAmplitudeBand("Amplitude_" + pol, width, height, random));
+        }
+        return product;
+    }
+
+    private static MetadataElement createAnnotation(final String dataSetName, final int height) {
+
+        final MetadataElement processingInformation = new MetadataElement("processingInformation");
+        processingInformation.setAttributeString("thermalNoiseCorrectionPerformed", "false");
+        final MetadataElement imageInformation = new MetadataElement("imageInformation");
+        imageInformation.setAttributeInt("numberOfLines", height);
+
+        final MetadataElement imageAnnotation = new MetadataElement("imageAnnotation");
+        imageAnnotation.addElement(processingInformation);
+        imageAnnotation.addElement(imageInformation);
+        final MetadataElement productElem = new MetadataElement("product");
+        productElem.addElement(imageAnnotation);
+        final MetadataElement dataSet = new MetadataElement(dataSetName);
+        dataSet.addElement(productElem);
+        return dataSet;
+    }
+
+    private static MetadataElement createNoise(final String dataSetName, final String pol,
+                                               final int width, final int height,
+                                               final boolean rangeNoiseVectors, final Random random) {
+
+        final String listName = rangeNoiseVectors ? "noiseRangeVectorList" : "noiseVectorList";
+        final String lutName = rangeNoiseVectors ? "noiseRangeLut" : "noiseLut";
+        final int[] lines = getVectorLines(height);
+        final int[] pixels = getVectorPixels(width);
+
+        final MetadataElement vectorList = new MetadataElement(listName);
+        vectorList.setAttributeString("count", String.valueOf(lines.length));
+        for (int line : lines) {
+            final double[] values = new double[pixels.length];
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = 2000.0 + 3000.0 * random.nextDouble();
+            }
+            final MetadataElement lut = new MetadataElement(lutName);
+            lut.setAttributeString(lutName, join(values));
+            lut.setAttributeString("count", String.valueOf(values.length));
+
+            final MetadataElement vector = createVector(rangeNoiseVectors ? "noiseRangeVector" : "noiseVector", line, pixels);
+            vector.addElement(lut);
+            vectorList.addElement(vector);
+        }
+
+        final MetadataElement noise = new MetadataElement("noise");
+        noise.addElement(createAdsHeader(pol, height));
+        noise.addElement(vectorList);
+        final MetadataElement dataSet = new MetadataElement(dataSetName);
+        dataSet.addElement(noise);
+        return dataSet;
+    }
+
+    private static MetadataElement createCalibration(final String dataSetName, final String pol,
+                                                     final int width, final int height, final Random random) {
+
+        final int[] lines = getVectorLines(height);
+        final int[] pixels = getVectorPixels(width);
+
+        final MetadataElement vectorList = new MetadataElement("calibrationVectorList");
+        vectorList.setAttributeInt("count", lines.length);
+        for (int line : lines) {
+            final MetadataElement vector = createVector("calibrationVector", line, pixels);
+            final String[] names = {"sigmaNought", "betaNought", "gamma", "dn"};
+            final double[] levels = {450.0, 500.0, 420.0, 500.0};
+            for (int n = 0; n < names.length; ++n) {
+                final double[] values = new double[pixels.length];
+                for (int i = 0; i < values.length; ++i) {
+                    values[i] = levels[n] + 100.0 * random.nextDouble();
+                }
+                final MetadataElement lut = new MetadataElement(names[n]);
+                lut.setAttributeString(names[n], join(values));
+                lut.setAttributeString("count", String.valueOf(values.length));
+                vector.addElement(lut);
+            }
+            vectorList.addElement(vector);
+        }
+
+        final MetadataElement cal = new MetadataElement("calibration");
+        cal.addElement(createAdsHeader(pol, height));
+        cal.addElement(vectorList);
+        final MetadataElement dataSet = new MetadataElement(dataSetName);
+        dataSet.addElement(cal);
+        return dataSet;
+    }
+
+    private static MetadataElement createAdsHeader(final String pol, final int height) {
+        final MetadataElement adsHeader = new MetadataElement("adsHeader");
+        adsHeader.setAttributeString("polarisation", pol);
+        adsHeader.setAttributeString("swath", SWATH);
+        adsHeader.setAttributeString("startTime", getLineTime(0));
+        adsHeader.setAttributeString("stopTime", getLineTime(height - 1));
+        return adsHeader;
+    }
+
+    private static MetadataElement createVector(final String name, final int line, final int[] pixels) {
+        final MetadataElement pixel = new MetadataElement("pixel");
+        pixel.setAttributeString("pixel", join(pixels));
+        pixel.setAttributeString("count", String.valueOf(pixels.length));
+
+        final MetadataElement vector = new MetadataElement(name);
+        vector.setAttributeString("azimuthTime", getLineTime(line));
+        vector.setAttributeString("line", String.valueOf(line));
+        vector.addElement(pixel);
+        return vector;
+    }
+
+    private static Band createAmplitudeBand(final String name, final int width, final int height, final Random random) {
+
+        final int margin = Math.max(1, width / 32);
+        final ProductData data = ProductData.createInstance(ProductData.TYPE_UINT16, width * height);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                final boolean edge = x < margin || x >= width - margin;
+                data.setElemIntAt(y * width + x, edge ? random.nextInt(30) : random.nextInt(150));
+            }
+        }
+
+        final Band band = new Band(name, ProductData.TYPE_UINT16, width, height);
+        band.setUnit(Unit.AMPLITUDE);
+        band.setNoDataValue(0);
+        band.setNoDataValueUsed(true);
+        band.setData(data);
+        return band;
+    }
+
+    private static int[] getVectorLines(final int height) {
+        return new int[]{0, height / 3, 2 * height / 3, height - 1};
+    }
+
+    private static int[] getVectorPixels(final int width) {
+        return new int[]{0, width / 4, width / 2, 3 * width / 4, width - 1};
+    }
+
+    private static String getLineTime(final int line) {
+        return START_TIME.plusNanos(line * LINE_TIME_INTERVAL_NANOS).format(TIME_FORMAT);
+    }
+
+    private static String join(final int[] values) {
+        final StringBuilder sb = new StringBuilder();
+        for (int v : values) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(v);
+        }
+        return sb.toString();
+    }
+
+    private static String join(final double[] values) {
+        final StringBuilder sb = new StringBuilder();
+        for (double v : values) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append((float) v);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.test.ProcessorTest;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.gpf.GPF;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.core.gpf.OperatorSpiRegistry;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link Sentinel1GRDRadiometryOp}.
+ */
+public class TestSentinel1GRDRadiometryOp extends ProcessorTest {
+
+    private final static OperatorSpi spi = new Sentinel1GRDRadiometryOp.Spi();
+
+    private static final int W = 128;
+    private static final int H = 96;
+    private static final int BORDER_LIMIT = 16;
+
+    @Test
+    public void testSpiCreatesOperator() {
+        assertNotNull(spi.createOperator());
+    }
+
+    @Test
+    public void testOperatorsRegistered() {
+        final OperatorSpiRegistry registry = GPF.getDefaultInstance().getOperatorSpiRegistry();
+        registry.loadOperatorSpis();
+        assertNotNull(registry.getOperatorSpi("S1-GRD-Radiometry"));
+        assertNotNull(registry.getOperatorSpi("Remove-GRD-Border-Noise"));
+    }
+
+    @Test
+    public void testMatchesChain() throws Exception {
+        final Product source = Sentinel1GRDTestProduct.create(W, H, "003.10", "VH", "VV");
+        final Product fused = createFused(source, false);
+        final Product chained = createChain(source);
+
+        for (String name : new String[]{"Sigma0_VV", "Gamma0_VV", "Beta0_VV", "Sigma0_VH", "Gamma0_VH", "Beta0_VH"}) {
+            assertBandsEqual(chained.getBand(name), fused.getBand(name));
+        }
+        assertTrue(AbstractMetadata.getAbstractedMetadata(fused).getAttribute(
+                AbstractMetadata.abs_calibration_flag).getData().getElemBoolean());
+    }
+
+    @Test
+    public void testMatchesChainWithBorderNoise() throws Exception {
+        final Product source = Sentinel1GRDTestProduct.create(W, H, "002.70", "VH", "VV");
+        final Product fused = createFused(source, false);
+        final Product chained = createChain(source);
+
+        int numMasked = 0;
+        for (String name : new String[]{"Sigma0_VV", "Sigma0_VH", "Gamma0_VH"}) {
+            numMasked += assertBandsEqual(chained.getBand(name), fused.getBand(name));
+        }
+        assertTrue("border noise should be masked", numMasked > 0);
+    }
+
+    @Test
+    public void testOutputInDb() throws Exception {
+        final Product source = Sentinel1GRDTestProduct.create(W, H, "003.10", "VV");
+        final Band linear = createFused(source, false).getBand("Sigma0_VV");
+        final Band db = createFused(source, true).getBand("Sigma0_VV_dB");
+        assertNotNull(db);
+        assertEquals(Unit.INTENSITY_DB, db.getUnit());
+
+        final float[] linearValues = readPixels(linear);
+        final float[] dbValues = readPixels(db);
+        for (int i = 0; i < linearValues.length; ++i) {
+            if (linearValues[i] == 0) {
+                assertEquals(0.0f, dbValues[i], 0.0f);
+            } else {
+                assertEquals((float) (10.0 * Math.log10(linearValues[i])), dbValues[i], 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void testInitializeRejectsNonSentinel1Product() {
+        final Sentinel1GRDRadiometryOp op = (Sentinel1GRDRadiometryOp) spi.createOperator();
+        op.setSourceProduct(TestUtils.createProduct("GRD", 10, 10));
+        try {
+            op.getTargetProduct();
+            fail("Expected failure when product is not a Sentinel-1 GRD");
+        } catch (OperatorException expected) {
+            // success
+        }
+    }
+
+    private static Product createFused(final Product source, final boolean inDb) {
+        final Sentinel1GRDRadiometryOp op = (Sentinel1GRDRadiometryOp) spi.createOperator();
+        op.setSourceProduct(source);
+        op.setParameter("borderLimit", BORDER_LIMIT);
+        op.setParameter("outputGammaBand", true);
+        op.setParameter("outputBetaBand", true);
+        op.setParameter("outputImageScaleInDb", inDb);
+        return op.getTargetProduct();
+    }
+
+    private static Product createChain(final Product source) {
+        final RemoveGRDBorderNoiseOp borderOp = new RemoveGRDBorderNoiseOp();
+        borderOp.setSourceProduct(source);
+        borderOp.setParameter("borderLimit", BORDER_LIMIT);
+
+        final Sentinel1RemoveThermalNoiseOp thermalOp = new Sentinel1RemoveThermalNoiseOp();
+        thermalOp.setSourceProduct(borderOp.getTargetProduct());
+
+        final CalibrationOp calibrationOp = new CalibrationOp();
+        calibrationOp.setSourceProduct(thermalOp.getTargetProduct());
+        calibrationOp.setParameter("outputGammaBand", true);
+        calibrationOp.setParameter("outputBetaBand", true);
+        return calibrationOp.getTargetProduct();
+    }
+
+    /**
+     * @return the number of no-data pixels
+     */
+    private static int assertBandsEqual(final Band expected, final Band actual) throws Exception {
+        assertNotNull(expected);
+        assertNotNull(actual);
+        final float[] expectedValues = readPixels(expected);
+        final float[] actualValues = readPixels(actual);
+
+        int numNoData = 0;
+        for (int i = 0; i < expectedValues.length; ++i) {
+            assertEquals(actual.getName() + " at " + i, expectedValues[i], actualValues[i],
+                    Math.ulp(expectedValues[i]));
+            if (actualValues[i] == actual.getNoDataValue()) {
+                ++numNoData;
+            }
+        }
+        return numNoData;
+    }
+
+    private static float[] readPixels(final Band band) throws Exception {
+        final float[] values = new float[W * H];
+        band.readPixels(0, 0, W, H, values, ProgressMonitor.NULL);
+        return values;
+    }
+}
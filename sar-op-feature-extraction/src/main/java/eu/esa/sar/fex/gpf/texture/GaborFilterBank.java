@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.fex.gpf.texture;
+
+import edu.emory.mathcs.jtransforms.fft.DoubleFFT_2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bank of Gabor kernels over several wavelengths and orientations, applied together to one source tile.
+ *
+ * The source is copied once into a zero padded primitive buffer sized for the largest kernel. Small
+ * kernels are convolved directly on that buffer, one shifted row accumulation per tap with no bounds
+ * checks. Large kernels are applied in the frequency domain: the buffer is transformed once and
+ * multiplied by the cached kernel spectra, two kernels per inverse transform since both responses are
+ * real. Outside the source raster is treated as zero, as in {@link GaborFilter#applyGarborFilter}.
+ */
+public class GaborFilterBank {
+
+    // relative cost of one FFT butterfly against one multiply-add of direct convolution
+    private static final double FFT_COST_FACTOR = 3.0;
+
+    public enum Method {AUTO, DIRECT, FFT}
+
+    private final List<Kernel> kernels = new ArrayList<>();
+    private final int marginX;
+    private final int marginY;
+    private final Map<Long, double[]> spectrumCache = new ConcurrentHashMap<>();
+
+    static final class Kernel {
+        final double wavelength;
+        final double theta;
+        final int halfW, halfH;
+        // row major [(yf + halfH) * (2 * halfW + 1) + (xf + halfW)]
+        final double[] taps;
+
+        Kernel(final double wavelength, final double theta, final double[][] filter) {
+            this.wavelength = wavelength;
+            this.theta = theta;
+            this.halfW = filter.length / 2;
+            this.halfH = filter[0].length / 2;
+            final int kw = 2 * halfW + 1;
+            this.taps = new double[kw * (2 * halfH + 1)];
+            for (int x = 0; x < filter.length; ++x) {
+                for (int y = 0; y < filter[0].length; ++y) {
+                    taps[y * kw + x] = filter[x][y];
+                }
+            }
+        }
+    }
+
+    /**
+     * @param wavelengths     wavelength of each scale in pixels
+     * @param numOrientations orientations evenly spaced over 180 degrees
+     * @param theta           orientation of the first filter in radians
+     * @param psi             phase offset
+     * @param sigmaRatio      Gaussian envelope sigma as a fraction of the wavelength
+     * @param gamma           spatial aspect ratio
+     */
+    public GaborFilterBank(final double[] wavelengths, final int numOrientations, final double theta,
+                           final double psi, final double sigmaRatio, final double gamma) {
+        if (wavelengths == null || wavelengths.length == 0 || numOrientations < 1) {
+            throw new IllegalArgumentException("At least one wavelength and orientation is required");
+        }
+        int mx = 0, my = 0;
+        for (double lambda : wavelengths) {
+            for (int o = 0; o < numOrientations; ++o) {
+                final double t = theta + o * Math.PI / numOrientations;
+                final Kernel kernel = new Kernel(lambda, t,
+                        GaborFilter.createGarborFilter(lambda, t, psi, sigmaRatio * lambda, gamma));
+                kernels.add(kernel);
+                mx = Math.max(mx, kernel.halfW);
+                my = Math.max(my, kernel.halfH);
+            }
+        }
+        this.marginX = mx;
+        this.marginY = my;
+    }
+
+    public int getNumFilters() {
+        return kernels.size();
+    }
+
+    public double getWavelength(final int filter) {
+        return kernels.get(filter).wavelength;
+    }
+
+    public double getTheta(final int filter) {
+        return kernels.get(filter).theta;
+    }
+
+    /**
+     * @return the source margin needed left and right of a target rectangle
+     */
+    public int getMarginX() {
+        return marginX;
+    }
+
+    /**
+     * @return the source margin needed above and below a target rectangle
+     */
+    public int getMarginY() {
+        return marginY;
+    }
+
+    /**
+     * Filters a target rectangle with every kernel of the bank.
+     *
+     * @param src      source samples, row major
+     * @param srcX0    x of the first source sample in raster coordinates
+     * @param srcY0    y of the first source sample in raster coordinates
+     * @param srcW     source width
+     * @param srcH     source height
+     * @param x0       x of the target rectangle
+     * @param y0       y of the target rectangle
+     * @param w        target width
+     * @param h        target height
+     * @param method   convolution method, AUTO to choose per kernel
+     * @return responses[filter][pixel] of the target rectangle, row major
+     */
+    public double[][] apply(final double[] src, final int srcX0, final int srcY0, final int srcW, final int srcH,
+                            final int x0, final int y0, final int w, final int h, final Method method) {
+
+        // zero padded copy: target pixel (x, y) sits at (x - x0 + marginX, y - y0 + marginY)
+        final int pw = w + 2 * marginX;
+        final int ph = h + 2 * marginY;
+        final double[] padded = new double[pw * ph];
+        final int ys = Math.max(srcY0, y0 - marginY), ye = Math.min(srcY0 + srcH, y0 + h + marginY);
+        final int xs = Math.max(srcX0, x0 - marginX), xe = Math.min(srcX0 + srcW, x0 + w + marginX);
+        for (int y = ys; y < ye; ++y) {
+            System.arraycopy(src, (y - srcY0) * srcW + (xs - srcX0),
+                    padded, (y - y0 + marginY) * pw + (xs - x0 + marginX), Math.max(0, xe - xs));
+        }
+
+        final int fftW = nextPowerOfTwo(pw);
+        final int fftH = nextPowerOfTwo(ph);
+        final double fftCost = FFT_COST_FACTOR * fftW * fftH * Math.log(fftW * (double) fftH) / Math.log(2);
+
+        final double[][] responses = new double[kernels.size()][];
+        final List<Integer> fftKernels = new ArrayList<>();
+        for (int k = 0; k < kernels.size(); ++k) {
+            final Kernel kernel = kernels.get(k);
+            final boolean useFFT = method == Method.FFT ||
+                    (method == Method.AUTO && (double) w * h * kernel.taps.length > fftCost);
+            if (useFFT) {
+                fftKernels.add(k);
+            } else {
+                responses[k] = convolveDirect(padded, pw, kernel, w, h);
+            }
+        }
+
+        if (!fftKernels.isEmpty()) {
+            convolveFFT(padded, pw, ph, fftW, fftH, fftKernels, w, h, responses);
+        }
+        return responses;
+    }
+
+    private double[] convolveDirect(final double[] padded, final int pw, final Kernel kernel,
+                                    final int w, final int h) {
+        final double[] out = new double[w * h];
+        final int kw = 2 * kernel.halfW + 1;
+        for (int yf = -kernel.halfH; yf <= kernel.halfH; ++yf) {
+            for (int xf = -kernel.halfW; xf <= kernel.halfW; ++xf) {
+                final double tap = kernel.taps[(yf + kernel.halfH) * kw + xf + kernel.halfW];
+                if (tap == 0) {
+                    continue;
+                }
+                for (int y = 0; y < h; ++y) {
+                    final int srcOffset = (y + marginY - yf) * pw + marginX - xf;
+                    final int dstOffset = y * w;
+                    for (int x = 0; x < w; ++x) {
+                        out[dstOffset + x] += tap * padded[srcOffset + x];
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    private void convolveFFT(final double[] padded, final int pw, final int ph, final int fftW, final int fftH,
+                             final List<Integer> fftKernels, final int w, final int h, final double[][] responses) {
+
+        final DoubleFFT_2D fft = new DoubleFFT_2D(fftH, fftW);
+        final double[] spectrum = new double[2 * fftW * fftH];
+        for (int y = 0; y < ph; ++y) {
+            for (int x = 0; x < pw; ++x) {
+                spectrum[2 * (y * fftW + x)] = padded[y * pw + x];
+            }
+        }
+        fft.complexForward(spectrum);
+
+        // both responses are real, so a pair of kernels K1 + iK2 is inverted at once
+        final double[] product = new double[spectrum.length];
+        for (int p = 0; p < fftKernels.size(); p += 2) {
+            final int k1 = fftKernels.get(p);
+            final int k2 = p + 1 < fftKernels.size() ? fftKernels.get(p + 1) : -1;
+            final double[] pair = getPairSpectrum(fft, k1, k2, fftW, fftH);
+            for (int i = 0; i < product.length; i += 2) {
+                final double sr = spectrum[i], si = spectrum[i + 1];
+                final double kr = pair[i], ki = pair[i + 1];
+                product[i] = sr * kr - si * ki;
+                product[i + 1] = sr * ki + si * kr;
+            }
+            fft.complexInverse(product, true);
+
+            final double[] out1 = new double[w * h];
+            final double[] out2 = k2 >= 0 ? new double[w * h] : null;
+            for (int y = 0; y < h; ++y) {
+                int i = 2 * ((y + marginY) * fftW + marginX);
+                for (int x = 0; x < w; ++x, i += 2) {
+                    out1[y * w + x] = product[i];
+                    if (out2 != null) {
+                        out2[y * w + x] = product[i + 1];
+                    }
+                }
+            }
+            responses[k1] = out1;
+            if (k2 >= 0) {
+                responses[k2] = out2;
+            }
+        }
+    }
+
+    private double[] getPairSpectrum(final DoubleFFT_2D fft, final int k1, final int k2,
+                                     final int fftW, final int fftH) {
+        final long key = (((long) fftW * 65536 + fftH) * 4096 + k1) * 4096 + (k2 + 1);
+        final double[] cached = spectrumCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final double[] pair = new double[2 * fftW * fftH];
+        placeKernel(kernels.get(k1), pair, 0, fftW, fftH);
+        if (k2 >= 0) {
+            placeKernel(kernels.get(k2), pair, 1, fftW, fftH);
+        }
+        fft.complexForward(pair);
+        spectrumCache.put(key, pair);
+        return pair;
+    }
+
+    /**
+     * Places the kernel centre at the origin with negative offsets wrapped around, so that the
+     * circular convolution is centred on each pixel.
+     */
+    private static void placeKernel(final Kernel kernel, final double[] data, final int part,
+                                    final int fftW, final int fftH) {
+        final int kw = 2 * kernel.halfW + 1;
+        for (int yf = -kernel.halfH; yf <= kernel.halfH; ++yf) {
+            final int y = (yf + fftH) % fftH;
+            for (int xf = -kernel.halfW; xf <= kernel.halfW; ++xf) {
+                final int x = (xf + fftW) % fftW;
+                data[2 * (y * fftW + x) + part] = kernel.taps[(yf + kernel.halfH) * kw + xf + kernel.halfW];
+            }
+        }
+    }
+
+    private static int nextPowerOfTwo(final int n) {
+        int p = 1;
+        while (p < n) {
+            p <<= 1;
+        }
+        return p;
+    }
+}
@@ -29,10 +29,11 @@ import org.esa.snap.core.gpf.annotations.SourceProduct;
 import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.util.ProductUtils;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
-import org.esa.snap.engine_utilities.gpf.TileIndex;
 
 import java.awt.Rectangle;
 import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  */
@@ -54,12 +55,26 @@ public class GaborFilterOp extends Operator {
             rasterDataNodeType = Band.class, label = "Source Bands")
     private String[] sourceBandNames;
 
-    @Parameter
+    @Parameter(description = "Orientation of the first filter in radians", defaultValue = "0.6")
     private double theta = 0.6;
 
-    private final HashMap<String, String[]> targetBandNameToSourceBandName = new HashMap<>();
+    @Parameter(description = "Wavelengths of the filter bank in pixels", defaultValue = "4.0",
+            label = "Wavelengths")
+    private double[] wavelengths = {4.0};
 
-    double[][] filter;
+    @Parameter(description = "Number of orientations evenly spaced over 180 degrees", defaultValue = "1",
+            interval = "[1, 16]", label = "Number of Orientations")
+    private int numOrientations = 1;
+
+    private static final double PSI = 1.0;
+    private static final double SIGMA_RATIO = 0.5;
+    private static final double GAMMA = 0.3;
+
+    // target band -> source band and index of the filter in the bank
+    private final Map<Band, Band> targetToSourceBand = new HashMap<>();
+    private final Map<Band, Integer> targetToFilter = new HashMap<>();
+
+    GaborFilterBank filterBank;
 
     /**
      * Default constructor. The graph processing framework
@@ -91,15 +106,39 @@ public class GaborFilterOp extends Operator {
                 sourceProduct.getSceneRasterWidth(),
                 sourceProduct.getSceneRasterHeight());
 
-        OperatorUtils.addSelectedBands(
-                sourceProduct, sourceBandNames, targetProduct, targetBandNameToSourceBandName, false, true);
+        filterBank = new GaborFilterBank(wavelengths, numOrientations, theta, PSI, SIGMA_RATIO, GAMMA);
+
+        addTargetBands();
 
         ProductUtils.copyProductNodes(sourceProduct, targetProduct);
 
         // update the metadata with the affect of the processing
         updateTargetProductMetadata();
+    }
 
-        filter = GaborFilter.createGarborFilter(4.0, theta, 1.0, 2.0, 0.3);
+    /**
+     * Adds one target band per source band and filter. With a single filter the source band name is kept.
+     */
+    private void addTargetBands() {
+        final Band[] sourceBands = OperatorUtils.getSourceBands(sourceProduct, sourceBandNames, false);
+        final int numFilters = filterBank.getNumFilters();
+        for (Band srcBand : sourceBands) {
+            for (int f = 0; f < numFilters; ++f) {
+                final String name = numFilters == 1 ? srcBand.getName() :
+                        srcBand.getName() + String.format(Locale.ROOT, "_gabor_%.1f_%d", filterBank.getWavelength(f),
+                                Math.round(Math.toDegrees(filterBank.getTheta(f))));
+                final Band targetBand = new Band(name, ProductData.TYPE_FLOAT32,
+                        sourceProduct.getSceneRasterWidth(), sourceProduct.getSceneRasterHeight());
+                targetBand.setUnit(srcBand.getUnit());
+                targetBand.setNoDataValue(srcBand.getNoDataValue());
+                targetBand.setNoDataValueUsed(srcBand.isNoDataValueUsed());
+                targetBand.setDescription(String.format(Locale.ROOT, "Gabor response of %s, wavelength %.1f, orientation %.1f",
+                        srcBand.getName(), filterBank.getWavelength(f), Math.toDegrees(filterBank.getTheta(f))));
+                targetProduct.addBand(targetBand);
+                targetToSourceBand.put(targetBand, srcBand);
+                targetToFilter.put(targetBand, f);
+            }
+        }
     }
 
     /**
@@ -117,60 +156,50 @@ public class GaborFilterOp extends Operator {
     }
 
     /**
-     * Called by the framework in order to compute a tile for the given target band.
-     * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
+     * Called by the framework in order to compute the stack of tiles for the given target bands.
+     * <p>Each source tile is read once and filtered with the whole bank.</p>
      *
-     * @param targetBand The target band.
-     * @param targetTile The current tile associated with the target band to be computed.
-     * @param pm         A progress monitor which should be used to determine computation cancelation requests.
-     * @throws OperatorException If an error occurs during computation of the target raster.
+     * @param targetTiles     The current tiles to be computed for each target band.
+     * @param targetRectangle The area in pixel coordinates to be computed (same for all rasters in <code>targetRasters</code>).
+     * @param pm              A progress monitor which should be used to determine computation cancelation requests.
+     * @throws OperatorException if an error occurs during computation of the target rasters.
      */
     @Override
-    public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
-
-        final int x0 = targetTile.getRectangle().x;
-        final int y0 = targetTile.getRectangle().y;
-        final int w = targetTile.getRectangle().width;
-        final int h = targetTile.getRectangle().height;
-        //System.out.println("x0 = " + x0 + ", y0 = " + y0 + ", w = " + w + ", h = " + h);
-
-        final int xmax = (int) Math.floor(filter.length / 2.0);
-        final int ymax = (int) Math.floor(filter[0].length / 2.0);
-        final String[] srcBandName = targetBandNameToSourceBandName.get(targetBand.getName());
-        final Band srcBand = sourceProduct.getBand(srcBandName[0]);
-        final int rasterW = srcBand.getRasterWidth();
-        final int rasterH = srcBand.getRasterHeight();
-        final int minBoundx = Math.max(0, x0 - xmax);
-        final int minBoundy = Math.max(0, y0 - ymax);
-        final int maxBoundx = Math.min(rasterW, x0 + w + xmax);
-        final int maxBoundy = Math.min(rasterH, y0 + h + ymax);
-        final Rectangle srcRect = new Rectangle(minBoundx, minBoundy, maxBoundx - minBoundx, maxBoundy - minBoundy);
-
-        final Tile sourceTile = getSourceTile(srcBand, srcRect);
-        final ProductData trgData = targetTile.getDataBuffer();
-        final ProductData srcData = sourceTile.getDataBuffer();
-        final TileIndex trgIndex = new TileIndex(targetTile);
-        final TileIndex srcIndex = new TileIndex(sourceTile);
-
-        for (int y = y0; y < y0 + h; y++) {
-            trgIndex.calculateStride(y);
-            for (int x = x0; x < x0 + w; x++) {
-
-                double sum = 0;
-                for (int yf = -ymax; yf <= ymax; yf++) {
-                    final int yy = y - yf;
-                    if (yy >= minBoundy && yy < maxBoundy) {
-                        srcIndex.calculateStride(yy);
-                        for (int xf = -xmax; xf <= xmax; xf++) {
-                            final int xx = x - xf;
-                            if (xx >= minBoundx && xx < maxBoundx) {
-                                sum += filter[xf + xmax][yf + ymax] * srcData.getElemDoubleAt(srcIndex.getIndex(xx));
-                            }
-                        }
-                    }
+    public void computeTileStack(Map<Band, Tile> targetTiles, Rectangle targetRectangle, ProgressMonitor pm)
+            throws OperatorException {
+
+        try {
+            final int x0 = targetRectangle.x;
+            final int y0 = targetRectangle.y;
+            final int w = targetRectangle.width;
+            final int h = targetRectangle.height;
+
+            final int marginX = filterBank.getMarginX();
+            final int marginY = filterBank.getMarginY();
+            final int minBoundx = Math.max(0, x0 - marginX);
+            final int minBoundy = Math.max(0, y0 - marginY);
+            final int maxBoundx = Math.min(sourceProduct.getSceneRasterWidth(), x0 + w + marginX);
+            final int maxBoundy = Math.min(sourceProduct.getSceneRasterHeight(), y0 + h + marginY);
+            final Rectangle srcRect = new Rectangle(minBoundx, minBoundy, maxBoundx - minBoundx, maxBoundy - minBoundy);
+
+            final Map<Band, double[][]> responses = new HashMap<>();
+            for (Map.Entry<Band, Tile> entry : targetTiles.entrySet()) {
+                final Band srcBand = targetToSourceBand.get(entry.getKey());
+                if (srcBand == null) {
+                    continue;
+                }
+                double[][] bandResponses = responses.get(srcBand);
+                if (bandResponses == null) {
+                    final Tile sourceTile = getSourceTile(srcBand, srcRect);
+                    bandResponses = filterBank.apply(sourceTile.getSamplesDouble(),
+                            srcRect.x, srcRect.y, srcRect.width, srcRect.height, x0, y0, w, h,
+                            GaborFilterBank.Method.AUTO);
+                    responses.put(srcBand, bandResponses);
                 }
-                trgData.setElemDoubleAt(trgIndex.getIndex(x), sum);
+                entry.getValue().setSamples(bandResponses[targetToFilter.get(entry.getKey())]);
             }
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
         }
     }
 
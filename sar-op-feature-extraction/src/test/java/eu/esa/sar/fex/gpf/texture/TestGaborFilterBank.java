@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.fex.gpf.texture;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link GaborFilterBank}.
+ */
+public class TestGaborFilterBank {
+
+    private static final int W = 40;
+    private static final int H = 30;
+
+    private static double[] createSource() {
+        final Random random = new Random(3);
+        final double[] src = new double[W * H];
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                src[y * W + x] = 10 * Math.sin(0.7 * x + 0.2 * y) + random.nextGaussian();
+            }
+        }
+        return src;
+    }
+
+    /**
+     * Direct convolution as done per pixel by the original operator, zero outside the raster.
+     */
+    private static double reference(final double[] src, final double[][] filter, final int x, final int y) {
+        final int xmax = filter.length / 2;
+        final int ymax = filter[0].length / 2;
+        double sum = 0;
+        for (int yf = -ymax; yf <= ymax; yf++) {
+            for (int xf = -xmax; xf <= xmax; xf++) {
+                final int xx = x - xf, yy = y - yf;
+                if (xx >= 0 && xx < W && yy >= 0 && yy < H) {
+                    sum += filter[xf + xmax][yf + ymax] * src[yy * W + xx];
+                }
+            }
+        }
+        return sum;
+    }
+
+    private static void assertMatchesReference(final GaborFilterBank.Method method) {
+        final double[] wavelengths = {3.0, 6.0};
+        final GaborFilterBank bank = new GaborFilterBank(wavelengths, 3, 0.6, 1.0, 0.5, 0.3);
+        assertEquals(6, bank.getNumFilters());
+
+        final double[] src = createSource();
+        // interior tile with margins inside the raster and a corner tile clipped by the raster edge
+        final int[][] rects = {{12, 9, 10, 8}, {0, 0, 7, 5}};
+        for (int[] r : rects) {
+            final double[][] out = bank.apply(src, 0, 0, W, H, r[0], r[1], r[2], r[3], method);
+            for (int f = 0; f < bank.getNumFilters(); ++f) {
+                final double[][] filter = GaborFilter.createGarborFilter(
+                        bank.getWavelength(f), bank.getTheta(f), 1.0, 0.5 * bank.getWavelength(f), 0.3);
+                for (int y = 0; y < r[3]; ++y) {
+                    for (int x = 0; x < r[2]; ++x) {
+                        assertEquals(reference(src, filter, r[0] + x, r[1] + y), out[f][y * r[2] + x], 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDirectMatchesReference() {
+        assertMatchesReference(GaborFilterBank.Method.DIRECT);
+    }
+
+    @Test
+    public void testFFTMatchesReference() {
+        assertMatchesReference(GaborFilterBank.Method.FFT);
+    }
+
+    @Test
+    public void testAutoMatchesReference() {
+        assertMatchesReference(GaborFilterBank.Method.AUTO);
+    }
+
+    @Test
+    public void testSourceSubsetMatchesFullSource() {
+        final GaborFilterBank bank = new GaborFilterBank(new double[]{4.0}, 2, 0.0, 1.0, 0.5, 1.0);
+        final double[] src = createSource();
+        final int x0 = 15, y0 = 12, w = 6, h = 5;
+        final int sx = x0 - bank.getMarginX(), sy = y0 - bank.getMarginY();
+        final int sw = w + 2 * bank.getMarginX(), sh = h + 2 * bank.getMarginY();
+        final double[] subset = new double[sw * sh];
+        for (int y = 0; y < sh; ++y) {
+            System.arraycopy(src, (sy + y) * W + sx, subset, y * sw, sw);
+        }
+
+        final double[][] full = bank.apply(src, 0, 0, W, H, x0, y0, w, h, GaborFilterBank.Method.DIRECT);
+        final double[][] part = bank.apply(subset, sx, sy, sw, sh, x0, y0, w, h, GaborFilterBank.Method.DIRECT);
+        for (int f = 0; f < 2; ++f) {
+            for (int i = 0; i < w * h; ++i) {
+                assertEquals(full[f][i], part[f][i], 0.0);
+            }
+        }
+    }
+}
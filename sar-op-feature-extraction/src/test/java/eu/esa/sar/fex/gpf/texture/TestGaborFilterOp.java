@@ -24,6 +24,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit tests for {@link GaborFilterOp}.
@@ -48,12 +49,35 @@ public class TestGaborFilterOp {
         final Product srcProduct = TestUtils.createProduct("GRD", 10, 10);
         final Band band = TestUtils.createBand(srcProduct, "Sigma0_VV", 10, 10);
         band.setUnit(Unit.INTENSITY);
+        band.setNoDataValue(-1.0);
+        band.setNoDataValueUsed(true);
 
         final GaborFilterOp op = new GaborFilterOp();
         op.setSourceProduct(srcProduct);
 
         final Product target = op.getTargetProduct();
         assertNotNull(target);
-        assertNotNull(target.getBand("Sigma0_VV"));
+        final Band targetBand = target.getBand("Sigma0_VV");
+        assertNotNull(targetBand);
+        assertEquals(Unit.INTENSITY, targetBand.getUnit());
+        assertEquals(-1.0, targetBand.getNoDataValue(), 0.0);
+        assertTrue(targetBand.isNoDataValueUsed());
+    }
+
+    @Test
+    public void testFilterBankAddsBandPerFilter() {
+        final Product srcProduct = TestUtils.createProduct("GRD", 10, 10);
+        final Band band = TestUtils.createBand(srcProduct, "Sigma0_VV", 10, 10);
+        band.setUnit(Unit.INTENSITY);
+
+        final GaborFilterOp op = new GaborFilterOp();
+        op.setSourceProduct(srcProduct);
+        op.setParameter("wavelengths", new double[]{4.0, 8.0});
+        op.setParameter("numOrientations", 2);
+
+        final Product target = op.getTargetProduct();
+        assertEquals(4, target.getNumBands());
+        assertNotNull(target.getBand("Sigma0_VV_gabor_4.0_34"));
+        assertNotNull(target.getBand("Sigma0_VV_gabor_8.0_124"));
     }
 }
@@ -41,6 +41,9 @@ public class PCAOpUI extends BaseOperatorUI {
     private final JComboBox selectEigenvaluesBy = new JComboBox(new String[]{PCAOp.EIGENVALUE_THRESHOLD,
             PCAOp.NUMBER_EIGENVALUES});
 
+    private final JComboBox minEstimation = new JComboBox(new String[]{PCAOp.MIN_ANALYTIC_BOUND,
+            PCAOp.MIN_SAMPLED, PCAOp.MIN_EXACT});
+
     private final JTextField eigenvalueThreshold = new JTextField("");
     private final JTextField numberOfEigenvalues = new JTextField("");
     private final JCheckBox showEigenvalues = new JCheckBox("Show Eigenvalues");
@@ -87,6 +90,10 @@ public class PCAOpUI extends BaseOperatorUI {
 
         selectEigenvaluesBy.setSelectedItem(paramMap.get("selectEigenvaluesBy"));
         eigenvalueThreshold.setText(String.valueOf(paramMap.get("eigenvalueThreshold")));
+        final Object minEstimationValue = paramMap.get("minEstimation");
+        if (minEstimationValue != null) {
+            minEstimation.setSelectedItem(minEstimationValue);
+        }
         setNumberOfEigenvalues();
     }
 
@@ -124,6 +131,7 @@ public class PCAOpUI extends BaseOperatorUI {
         paramMap.put("numPCA", Integer.parseInt(numberOfEigenvalues.getText()));
         paramMap.put("showEigenvalues", showEigenvaluesFlag);
         paramMap.put("subtractMeanImage", subtractMeanImageFlag);
+        paramMap.put("minEstimation", minEstimation.getSelectedItem());
     }
 
     private JComponent createPanel() {
@@ -168,6 +176,9 @@ public class PCAOpUI extends BaseOperatorUI {
         _gbc.gridy++;
         contentPane.add(subtractMeanImage, _gbc);
 
+        _gbc.gridy++;
+        DialogUtils.addComponent(contentPane, _gbc, "PCA Minimum Estimation:", minEstimation);
+
         updateSelectEigenvaluesBy(true);
 
         return contentPane;
@@ -46,9 +46,12 @@ public class PhaseLinkingOpUI extends BaseOperatorUI {
     private final JComboBox<String> estimator = new JComboBox<>(new String[]{"EVD", "EMI"});
     private final JTextField referenceEpochDate = new JTextField("");
     private final JTextField tempCohMin = new JTextField("");
+    private final JTextField ministackSize = new JTextField("");
+    private final JCheckBox reuseShpMasks = new JCheckBox("Reuse History SHP Masks");
     private final JCheckBox coherenceBiasCorrection = new JCheckBox("Coherence Magnitude Bias Correction");
     private final JCheckBox outputTempCoherence = new JCheckBox("Output Temporal Coherence");
     private final JCheckBox outputShpCount = new JCheckBox("Output SHP Count");
+    private final JCheckBox outputCompressedSlcs = new JCheckBox("Output Compressed SLCs");
 
     @Override
     public JComponent CreateOpTab(final String operatorName,
@@ -71,9 +74,12 @@ public class PhaseLinkingOpUI extends BaseOperatorUI {
         final Object refDate = paramMap.get("referenceEpochDate");
         referenceEpochDate.setText(refDate == null ? "" : refDate.toString());
         setDoubleField(tempCohMin, "tempCohMin", 0.6);
+        setIntField(ministackSize, "ministackSize", 0);
+        setBoolCheck(reuseShpMasks, "reuseShpMasks", true);
         setBoolCheck(coherenceBiasCorrection, "coherenceBiasCorrection", false);
         setBoolCheck(outputTempCoherence, "outputTempCoherence", true);
         setBoolCheck(outputShpCount, "outputShpCount", false);
+        setBoolCheck(outputCompressedSlcs, "outputCompressedSlcs", false);
     }
 
     @Override
@@ -96,6 +102,10 @@ public class PhaseLinkingOpUI extends BaseOperatorUI {
             if (tcm < 0.0 || tcm > 1.0) {
                 return new UIValidation(UIValidation.State.ERROR, "tempCohMin must be in [0, 1]");
             }
+            final int ms = Integer.parseInt(ministackSize.getText().trim());
+            if (ms < 0 || ms == 1) {
+                return new UIValidation(UIValidation.State.ERROR, "ministackSize must be 0 or >= 2");
+            }
         } catch (NumberFormatException e) {
             return new UIValidation(UIValidation.State.ERROR, "Could not parse numeric parameter: " + e.getMessage());
         }
@@ -112,9 +122,12 @@ public class PhaseLinkingOpUI extends BaseOperatorUI {
         paramMap.put("estimator", estimator.getSelectedItem());
         paramMap.put("referenceEpochDate", referenceEpochDate.getText().trim());
         paramMap.put("tempCohMin", Double.parseDouble(tempCohMin.getText().trim()));
+        paramMap.put("ministackSize", Integer.parseInt(ministackSize.getText().trim()));
+        paramMap.put("reuseShpMasks", reuseShpMasks.isSelected());
         paramMap.put("coherenceBiasCorrection", coherenceBiasCorrection.isSelected());
         paramMap.put("outputTempCoherence", outputTempCoherence.isSelected());
         paramMap.put("outputShpCount", outputShpCount.isSelected());
+        paramMap.put("outputCompressedSlcs", outputCompressedSlcs.isSelected());
     }
 
     private JComponent createPanel() {
@@ -146,6 +159,15 @@ public class PhaseLinkingOpUI extends BaseOperatorUI {
         contentPane.add(coherenceBiasCorrection, gbc);
         gbc.gridx = 0;
 
+        gbc.gridy++;
+        addSectionHeader(contentPane, gbc, "Sequential linking");
+        gbc.gridy++;
+        DialogUtils.addComponent(contentPane, gbc, "Ministack Size (0 = full stack):", ministackSize);
+        gbc.gridy++;
+        gbc.gridx = 1;
+        contentPane.add(reuseShpMasks, gbc);
+        gbc.gridx = 0;
+
         gbc.gridy++;
         addSectionHeader(contentPane, gbc, "Diagnostics");
         gbc.gridy++;
@@ -153,6 +175,8 @@ public class PhaseLinkingOpUI extends BaseOperatorUI {
         contentPane.add(outputTempCoherence, gbc);
         gbc.gridy++;
         contentPane.add(outputShpCount, gbc);
+        gbc.gridy++;
+        contentPane.add(outputCompressedSlcs, gbc);
         gbc.gridx = 0;
 
         DialogUtils.fillPanel(contentPane, gbc);
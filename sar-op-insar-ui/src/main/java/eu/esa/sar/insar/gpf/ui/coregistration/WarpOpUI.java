@@ -36,7 +36,7 @@ public class WarpOpUI extends BaseOperatorUI {
     private final JComboBox<String> warpPolynomialOrder = new JComboBox<>(new String[]{"1", "2", "3"});
     private final JComboBox<String> interpolationMethod = new JComboBox<>(new String[]{
             WarpOp.NEAREST_NEIGHBOR, WarpOp.BILINEAR, WarpOp.BICUBIC, WarpOp.BICUBIC2,
-            SimpleLUT.TRI, SimpleLUT.CC4P, SimpleLUT.CC6P, SimpleLUT.TS6P, SimpleLUT.TS8P, SimpleLUT.TS16P});
+            SimpleLUT.TRI, SimpleLUT.CC4P, SimpleLUT.CC6P, SimpleLUT.TS6P, SimpleLUT.TS8P, SimpleLUT.TS16P, SimpleLUT.RC6P});
 
     private final JComboBox<String> rmsThreshold = new JComboBox<>(new String[]{"0.001", "0.05", "0.1", "0.5", "1.0"});
 
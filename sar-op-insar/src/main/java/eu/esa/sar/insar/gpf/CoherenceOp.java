@@ -44,7 +44,6 @@ import org.esa.snap.engine_utilities.gpf.TileIndex;
 import org.jblas.ComplexDouble;
 import org.jblas.ComplexDoubleMatrix;
 import org.jblas.DoubleMatrix;
-import org.jblas.MatrixFunctions;
 import org.jlinda.core.GeoPoint;
 import org.jlinda.core.Orbit;
 import org.jlinda.core.Point;
@@ -769,64 +768,38 @@ public class CoherenceOp extends Operator {
                 }
             }
 
+            final Map<ProductContainer, double[]> secondaryPhaseMap = new LinkedHashMap<>();
             for (String cohKey : targetMap.keySet()) {
 
                 final ProductContainer product = targetMap.get(cohKey);
 
-                final Tile refTileReal = getSourceTile(product.sourceRef.realBand, extRect, border);
-                final Tile refTileImag = getSourceTile(product.sourceRef.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataReference = TileUtilsDoris.pullComplexDoubleMatrix(refTileReal, refTileImag);
-
-                final Tile secTileReal = getSourceTile(product.sourceSec.realBand, extRect, border);
-                final Tile secTileImag = getSourceTile(product.sourceSec.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataSecondary = TileUtilsDoris.pullComplexDoubleMatrix(secTileReal, secTileImag);
-
+                DoubleMatrix flatEarthPhase = null;
                 if (subtractFlatEarthPhase) {
-                    final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
+                    flatEarthPhase = computeFlatEarthPhase(
                             cohx0, cohx0 + cohw - 1, cohw, cohy0, cohy0 + cohh - 1, cohh,
                             0, sourceImageWidth - 1, 0, sourceImageHeight - 1, product.sourceSec.name);
 
-                    final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                    dataSecondary.muli(complexReferencePhase);
-
                     if (OUTPUT_PHASE) {
                         saveFlatEarthPhase(x0, xN, y0, yN, flatEarthPhase, product, targetTileMap);
                     }
                 }
 
+                double[][] demPhase = null;
                 if (subtractTopographicPhase) {
                     final TopoPhase topoPhase = TopoPhase.computeTopoPhase(
                             product, tileWindow, demTile, false);
-
-                    final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                            MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                    dataSecondary.muli(ComplexTopoPhase);
+                    demPhase = topoPhase.demPhase;
 
                     if (OUTPUT_PHASE) {
-                        saveTopoPhase(x0, xN, y0, yN, topoPhase.demPhase, product, targetTileMap);
+                        saveTopoPhase(x0, xN, y0, yN, demPhase, product, targetTileMap);
                     }
                 }
 
-                for (int i = 0; i < dataReference.length; i++) {
-                    double tmp = norm(dataReference.get(i));
-                    dataReference.put(i, dataReference.get(i).mul(dataSecondary.get(i).conj()));
-                    dataSecondary.put(i, new ComplexDouble(norm(dataSecondary.get(i)), tmp));
-                }
-
-                DoubleMatrix cohMatrix;
-                if (removeLocalPhaseRamp) {
-                    cohMatrix = SarUtils.coherence_LPR(dataReference, dataSecondary, cohWinAz, cohWinRg);
-                } else {
-                    cohMatrix = SarUtils.coherence3(dataReference, dataSecondary, cohWinAz, cohWinRg);
-                }
-
-                saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
+                secondaryPhaseMap.put(product, combinePhase(flatEarthPhase, demPhase, cohw, cohh));
             }
 
+            computeCoherence(secondaryPhaseMap, extRect, border, targetTileMap, targetRectangle);
+
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(getId(), e);
         } finally {
@@ -893,6 +866,139 @@ public class CoherenceOp extends Operator {
         }
     }
 
+    /**
+     * Estimates the coherence of all products of the tile. Products sharing a reference are estimated
+     * together by the running-sum kernel, which writes directly into the coherence tiles.
+     *
+     * @param secondaryPhaseMap products of the tile, with the phase to remove from the secondary or null
+     * @param extRect           the target rectangle extended by the coherence window
+     */
+    private void computeCoherence(final Map<ProductContainer, double[]> secondaryPhaseMap, final Rectangle extRect,
+                                  final BorderExtender border, final Map<Band, Tile> targetTileMap,
+                                  final Rectangle targetRectangle) {
+
+        final Map<Band, List<ProductContainer>> referenceGroups = new LinkedHashMap<>();
+        for (ProductContainer product : secondaryPhaseMap.keySet()) {
+            referenceGroups.computeIfAbsent(product.sourceRef.realBand, k -> new ArrayList<>()).add(product);
+        }
+
+        for (List<ProductContainer> products : referenceGroups.values()) {
+            final int numSec = products.size();
+            final double[] reference = getComplexData(products.get(0).sourceRef, extRect, border);
+            final double[][] secondaries = new double[numSec][];
+            for (int n = 0; n < numSec; n++) {
+                final ProductContainer product = products.get(n);
+                secondaries[n] = getComplexData(product.sourceSec, extRect, border);
+                final double[] phase = secondaryPhaseMap.get(product);
+                if (phase != null) {
+                    applyPhase(secondaries[n], phase);
+                }
+            }
+
+            if (removeLocalPhaseRamp) {
+                for (int n = 0; n < numSec; n++) {
+                    final ComplexDoubleMatrix input = new ComplexDoubleMatrix(extRect.height, extRect.width);
+                    final ComplexDoubleMatrix norms = new ComplexDoubleMatrix(extRect.height, extRect.width);
+                    for (int y = 0; y < extRect.height; y++) {
+                        for (int x = 0; x < extRect.width; x++) {
+                            final int i = 2 * (y * extRect.width + x);
+                            final double mr = reference[i], mi = reference[i + 1];
+                            final double sr = secondaries[n][i], si = secondaries[n][i + 1];
+                            input.put(y, x, new ComplexDouble(mr * sr + mi * si, mi * sr - mr * si));
+                            norms.put(y, x, new ComplexDouble(norm(sr, si), norm(mr, mi)));
+                        }
+                    }
+                    final DoubleMatrix cohMatrix = SarUtils.coherence_LPR(input, norms, cohWinAz, cohWinRg);
+                    saveCoherence(cohMatrix, products.get(n), targetTileMap, targetRectangle);
+                }
+                continue;
+            }
+
+            final Tile[] coherenceTiles = new Tile[numSec];
+            final float[][] results = new float[numSec][];
+            boolean sameLayout = true;
+            for (int n = 0; n < numSec; n++) {
+                final Band coherenceBand = targetProduct.getBand(products.get(n).getBandName(Unit.COHERENCE));
+                coherenceTiles[n] = targetTileMap.get(coherenceBand);
+                results[n] = (float[]) coherenceTiles[n].getDataBuffer().getElems();
+                sameLayout &= getOffset(coherenceTiles[n], targetRectangle) == getOffset(coherenceTiles[0], targetRectangle)
+                        && coherenceTiles[n].getScanlineStride() == coherenceTiles[0].getScanlineStride();
+            }
+
+            if (sameLayout) {
+                SarUtils.coherence(reference, secondaries, extRect.height, extRect.width, cohWinAz, cohWinRg,
+                        results, getOffset(coherenceTiles[0], targetRectangle), coherenceTiles[0].getScanlineStride());
+            } else {
+                for (int n = 0; n < numSec; n++) {
+                    SarUtils.coherence(reference, new double[][]{secondaries[n]}, extRect.height, extRect.width,
+                            cohWinAz, cohWinRg, new float[][]{results[n]}, getOffset(coherenceTiles[n], targetRectangle),
+                            coherenceTiles[n].getScanlineStride());
+                }
+            }
+
+            for (int n = 0; n < numSec; n++) {
+                finishCoherence(products.get(n), coherenceTiles[n], targetRectangle);
+            }
+        }
+    }
+
+    private static int getOffset(final Tile tile, final Rectangle rectangle) {
+        return tile.getDataBufferIndex(rectangle.x, rectangle.y);
+    }
+
+    /**
+     * @return samples of the rectangle, interleaved real and imaginary parts, row-major
+     */
+    private double[] getComplexData(final CplxContainer container, final Rectangle rectangle,
+                                    final BorderExtender border) {
+
+        final ProductData realData = getSourceTile(container.realBand, rectangle, border).getRawSamples();
+        final ProductData imagData = getSourceTile(container.imagBand, rectangle, border).getRawSamples();
+        final int numPixels = rectangle.width * rectangle.height;
+        final double[] data = new double[2 * numPixels];
+        for (int i = 0; i < numPixels; i++) {
+            data[2 * i] = realData.getElemDoubleAt(i);
+            data[2 * i + 1] = imagData.getElemDoubleAt(i);
+        }
+        return data;
+    }
+
+    /**
+     * @return the sum of the flat earth and topographic phase, row-major, or null if neither is removed
+     */
+    private static double[] combinePhase(final DoubleMatrix flatEarthPhase, final double[][] demPhase,
+                                         final int width, final int height) {
+
+        if (flatEarthPhase == null && demPhase == null) {
+            return null;
+        }
+        final double[] phase = new double[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double p = 0.0;
+                if (flatEarthPhase != null) {
+                    p += flatEarthPhase.get(y, x);
+                }
+                if (demPhase != null) {
+                    p += demPhase[y][x];
+                }
+                phase[y * width + x] = p;
+            }
+        }
+        return phase;
+    }
+
+    private static void applyPhase(final double[] data, final double[] phase) {
+        for (int i = 0; i < phase.length; i++) {
+            final double c = FastMath.cos(phase[i]);
+            final double s = FastMath.sin(phase[i]);
+            final double re = data[2 * i];
+            final double im = data[2 * i + 1];
+            data[2 * i] = re * c - im * s;
+            data[2 * i + 1] = re * s + im * c;
+        }
+    }
+
     private void saveCoherence(final DoubleMatrix cohMatrix, final ProductContainer product,
                                final Map<Band, Tile> targetTileMap, final Rectangle targetRectangle) {
 
@@ -905,6 +1011,30 @@ public class CoherenceOp extends Operator {
         final Tile coherenceTile = targetTileMap.get(coherenceBand);
         final ProductData coherenceData = coherenceTile.getDataBuffer();
 
+        final TileIndex tgtIndex = new TileIndex(coherenceTile);
+        for (int y = y0; y < maxY; y++) {
+            tgtIndex.calculateStride(y);
+            final int yy = y - y0;
+            for (int x = x0; x < maxX; x++) {
+                coherenceData.setElemFloatAt(tgtIndex.getIndex(x), (float) cohMatrix.get(yy, x - x0));
+            }
+        }
+        finishCoherence(product, coherenceTile, targetRectangle);
+    }
+
+    /**
+     * Sets no-data where the secondary has no data and applies the bias correction to the coherence
+     * estimated in the tile.
+     */
+    private void finishCoherence(final ProductContainer product, final Tile coherenceTile,
+                                 final Rectangle targetRectangle) {
+
+        final int x0 = targetRectangle.x;
+        final int y0 = targetRectangle.y;
+        final int maxX = x0 + targetRectangle.width;
+        final int maxY = y0 + targetRectangle.height;
+        final ProductData coherenceData = coherenceTile.getDataBuffer();
+
         final double srcNoDataValue = product.sourceRef.realBand.getNoDataValue();
         final Tile secTileReal = getSourceTile(product.sourceSec.realBand, targetRectangle);
         final ProductData srcSecData = secTileReal.getDataBuffer();
@@ -914,19 +1044,14 @@ public class CoherenceOp extends Operator {
         for (int y = y0; y < maxY; y++) {
             tgtIndex.calculateStride(y);
             srcSecIndex.calculateStride(y);
-            final int yy = y - y0;
             for (int x = x0; x < maxX; x++) {
                 final int tgtIdx = tgtIndex.getIndex(x);
-                final int xx = x - x0;
 
                 if (srcSecData.getElemDoubleAt(srcSecIndex.getIndex(x)) == srcNoDataValue) {
                     coherenceData.setElemFloatAt(tgtIdx, (float) srcNoDataValue);
-                } else {
-                    double coh = cohMatrix.get(yy, xx);
-                    if (correctCoherenceBias) {
-                        coh = correctCoherenceBias((float) coh, cohWinAz * cohWinRg);
-                    }
-                    coherenceData.setElemFloatAt(tgtIdx, (float) coh);
+                } else if (correctCoherenceBias) {
+                    coherenceData.setElemFloatAt(tgtIdx,
+                            correctCoherenceBias(coherenceData.getElemFloatAt(tgtIdx), cohWinAz * cohWinRg));
                 }
             }
         }
@@ -1016,6 +1141,7 @@ public class CoherenceOp extends Operator {
             final int minPixel = 0;
             final int maxPixel = subSwath[subSwathIndex - 1].samplesPerBurst - 1;
 
+            final Map<ProductContainer, double[]> secondaryPhaseMap = new LinkedHashMap<>();
             for (String cohKey : targetMap.keySet()) {
 
                 final ProductContainer product = targetMap.get(cohKey);
@@ -1023,61 +1149,34 @@ public class CoherenceOp extends Operator {
                 updateSecMetaData(product, burstIndex, secMeta);
                 final Orbit secOrbit = product.sourceSec.orbit;
 
-                final Tile refTileReal = getSourceTile(product.sourceRef.realBand, extRect, border);
-                final Tile refTileImag = getSourceTile(product.sourceRef.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataReference = TileUtilsDoris.pullComplexDoubleMatrix(refTileReal, refTileImag);
-
-                final Tile secTileReal = getSourceTile(product.sourceSec.realBand, extRect, border);
-                final Tile secTileImag = getSourceTile(product.sourceSec.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataSecondary = TileUtilsDoris.pullComplexDoubleMatrix(secTileReal, secTileImag);
-
                 final String polynomialName = product.sourceSec.name + '_' + (subSwathIndex - 1) + '_' + burstIndex;
+                DoubleMatrix flatEarthPhase = null;
                 if (subtractFlatEarthPhase) {
-                    final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
+                    flatEarthPhase = computeFlatEarthPhase(
                             cohx0, cohx0 + cohw - 1, cohw, cohy0 - firstLineIdx, cohy0 + cohh - 1 - firstLineIdx, cohh,
                             minPixel, maxPixel, minLine, maxLine, polynomialName);
 
-                    final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                    dataSecondary.muli(complexReferencePhase);
-
                     if (OUTPUT_PHASE) {
                         saveFlatEarthPhase(x0, xN, y0, yN, flatEarthPhase, product, targetTileMap);
                     }
                 }
 
+                double[][] demPhase = null;
                 if (subtractTopographicPhase) {
                     TopoPhase topoPhase = TopoPhase.computeTopoPhase(
                             refMeta, refOrbit, secMeta, secOrbit, tileWindow, demTile, false);
-
-                    final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                            MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                    dataSecondary.muli(ComplexTopoPhase);
+                    demPhase = topoPhase.demPhase;
 
                     if (OUTPUT_PHASE) {
-                        saveTopoPhase(x0, xN, y0, yN, topoPhase.demPhase, product, targetTileMap);
+                        saveTopoPhase(x0, xN, y0, yN, demPhase, product, targetTileMap);
                     }
                 }
 
-                for (int i = 0; i < dataReference.length; i++) {
-                    double tmp = norm(dataReference.get(i));
-                    dataReference.put(i, dataReference.get(i).mul(dataSecondary.get(i).conj()));
-                    dataSecondary.put(i, new ComplexDouble(norm(dataSecondary.get(i)), tmp));
-                }
-
-                DoubleMatrix cohMatrix;
-                if (removeLocalPhaseRamp) {
-                    cohMatrix = SarUtils.coherence_LPR(dataReference, dataSecondary, cohWinAz, cohWinRg);
-                } else {
-                    cohMatrix = SarUtils.coherence3(dataReference, dataSecondary, cohWinAz, cohWinRg);
-                }
-
-                saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
+                secondaryPhaseMap.put(product, combinePhase(flatEarthPhase, demPhase, cohw, cohh));
             }
 
+            computeCoherence(secondaryPhaseMap, extRect, border, targetTileMap, targetRectangle);
+
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(getId(), e);
         }
@@ -1134,10 +1233,6 @@ public class CoherenceOp extends Operator {
         return new GeoPoint(lat / (2*cols), lon / (2*cols));
     }
 
-    private static double norm(final ComplexDouble number) {
-        return number.real() * number.real() + number.imag() * number.imag();
-    }
-
     private static double norm(final double real, final double imag) {
         return real * real + imag * imag;
     }
@@ -16,7 +16,7 @@
 package eu.esa.sar.insar.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
-import org.apache.commons.math3.util.FastMath;
+import eu.esa.sar.insar.gpf.support.FlattenedPlaneCache;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataElement;
 import org.esa.snap.core.datamodel.Product;
@@ -113,6 +113,9 @@ public class MultiMasterInSAROp extends Operator {
             description = "Resampling method used when reading the DEM.")
     private String demResamplingMethod = ResamplingFactory.BILINEAR_INTERPOLATION_NAME;
 
+    // Memory budget of the flattened planes held while computing one tile stack
+    private static final long MAX_CACHED_PLANE_BYTES = 128L << 20;
+
     // Metadata maps
     private SLCImage slcImageReference;
     private Orbit orbitReference;
@@ -642,49 +645,42 @@ public class MultiMasterInSAROp extends Operator {
             // Get elevation tile
             final Tile elevationTile = getSourceTile(sourceBandElevation, sourceRectangle, border);
 
-            // Pre-compute reference phases
-            final Map<Band, double[][]> referencePhaseMap = new HashMap<>(10);
-            for (Band sourceBandI0 : complexSrcMap.keySet()) { // for each SLC
-                if (slcImageSecondaryMap.get(sourceBandI0) == null) { // if it's the reference
-                    referencePhaseMap.put(sourceBandI0, new double[sourceRectangle.height][sourceRectangle.width]);
-                } else { // if it's a secondary
-                    final double[][] referencePhase = computeReferencePhase(elevationTile, sourceRectangle,
-                                                                            slcImageSecondaryMap.get(sourceBandI0),
-                                                                            orbitSecondaryMap.get(sourceBandI0));
-                    referencePhaseMap.put(sourceBandI0, referencePhase);
-                }
-            }
+            // Flattened planes are formed once per epoch and shared by every pair involving it
+            final FlattenedPlaneCache<Band> planeCache = new FlattenedPlaneCache<>(
+                    FlattenedPlaneCache.getMaxPlanes(sourceRectangle.width, sourceRectangle.height,
+                                                     MAX_CACHED_PLANE_BYTES),
+                    sourceBandI -> computeFlattenedPlane(sourceBandI, elevationTile, sourceRectangle, border));
 
-            // Compute interferometric phasors and coherence
+            // Compute interferometric phasors and coherence. Pair lists are walked in alternating
+            // direction so that the planes used last by one list are the first needed by the next.
+            boolean reverse = false;
             for (Band sourceBandI0 : interferogramPairMap.keySet()) {
-                final Band sourceBandQ0 = complexSrcMap.get(sourceBandI0);
                 List<Band> sourceBandI1List = interferogramPairMap.get(sourceBandI0);
                 List<Band> targetBandIfgIList = interferogramMap.get(sourceBandI0);
                 List<Band> targetBandCoherenceList = coherenceMap.get(sourceBandI0);
                 Guardian.assertTrue("Interferogram mismatch",
                                     sourceBandI1List.size() == targetBandIfgIList.size()
                                             && sourceBandI1List.size() == targetBandCoherenceList.size());
-                for (int i = 0; i < sourceBandI1List.size(); i++) { // for each interferogram involving the current secondary
+                for (int n = 0; n < sourceBandI1List.size(); n++) { // for each interferogram involving the current secondary
+                    final int i = reverse ? sourceBandI1List.size() - 1 - n : n;
                     final Band sourceBandI1 = sourceBandI1List.get(i);
                     final Band sourceBandQ1 = complexSrcMap.get(sourceBandI1);
                     final Band targetBandIfgI = targetBandIfgIList.get(i);
                     final Band targetBandIfgQ = complexInterferogramMap.get(targetBandIfgI);
                     final Band targetBandCoherence = targetBandCoherenceList.get(i);
-                    final Tile sourceTileI0 = getSourceTile(sourceBandI0, sourceRectangle, border);
-                    final Tile sourceTileQ0 = getSourceTile(sourceBandQ0, sourceRectangle, border);
-                    final Tile sourceTileI1 = getSourceTile(sourceBandI1, sourceRectangle, border);
-                    final Tile sourceTileQ1 = getSourceTile(sourceBandQ1, sourceRectangle, border);
+                    final FlattenedPlaneCache.Plane plane0 = planeCache.get(sourceBandI0);
+                    final FlattenedPlaneCache.Plane plane1 = planeCache.get(sourceBandI1);
                     final double nodata = sourceBandQ1.getNoDataValue();
 
                     final Tile ifgTileI = targetTileMap.get(targetBandIfgI);
                     final Tile ifgTileQ = targetTileMap.get(targetBandIfgQ);
                     final Tile coherenceTile = targetTileMap.get(targetBandCoherence);
-                    computeInterferogram(sourceTileI0, sourceTileQ0, sourceTileI1, sourceTileQ1,
+                    computeInterferogram(plane0, plane1,
                             ifgTileI, ifgTileQ, coherenceTile,
-                            referencePhaseMap.get(sourceBandI0), referencePhaseMap.get(sourceBandI1),
                             cohWindowAz, cohWindowRg,
                             sourceRectangle, targetRectangle, nodata);
                 }
+                reverse = !reverse;
             }
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(getId(), e);
@@ -838,33 +834,34 @@ public class MultiMasterInSAROp extends Operator {
         return phase;
     }
 
-    private void computeInterferogram(final Tile sourceTileI0, final Tile sourceTileQ0,
-                                      final Tile sourceTileI1, final Tile sourceTileQ1,
-                                      final Tile ifgTileI, final Tile ifgTileQ, final Tile coherenceTile,
-                                      final double[][] referencePhase0, final double[][] referencePhase1,
-                                      final int cohWinAz, final int cohWinRg,
-                                      final Rectangle sourceRectangle, final Rectangle targetRectangle,
-                                      final double nodata) {
-
-        int x0 = sourceRectangle.x;
-        int y0 = sourceRectangle.y;
-        int w = sourceRectangle.width;
-        int h = sourceRectangle.height;
-        int xMax = x0 + w;
-        int yMax = y0 + h;
-
-        final ProductData sourceBufferI0 = sourceTileI0.getDataBuffer();
-        final ProductData sourceBufferQ0 = sourceTileQ0.getDataBuffer();
-        final ProductData sourceBufferI1 = sourceTileI1.getDataBuffer();
-        final ProductData sourceBufferQ1 = sourceTileQ1.getDataBuffer();
-
-        final TileIndex sourceIndex = new TileIndex(sourceTileI0);
-
-        // Compute interferometric phasor and intensities
-        final double[][] ifgPhasorI = new double[h][w];
-        final double[][] ifgPhasorQ = new double[h][w];
-        final double[][] intensity0 = new double[h][w];
-        final double[][] intensity1 = new double[h][w];
+    /**
+     * SLC values of one epoch over the source rectangle with its reference phase removed.
+     * The reference epoch has no reference phase and is stored as is.
+     */
+    private FlattenedPlaneCache.Plane computeFlattenedPlane(final Band sourceBandI, final Tile elevationTile,
+                                                           final Rectangle sourceRectangle,
+                                                           final BorderExtender border) throws Exception {
+
+        final Band sourceBandQ = complexSrcMap.get(sourceBandI);
+        final double nodata = sourceBandQ.getNoDataValue();
+        final double[][] referencePhase = slcImageSecondaryMap.get(sourceBandI) == null ? null :
+                computeReferencePhase(elevationTile, sourceRectangle,
+                                      slcImageSecondaryMap.get(sourceBandI),
+                                      orbitSecondaryMap.get(sourceBandI));
+
+        final Tile sourceTileI = getSourceTile(sourceBandI, sourceRectangle, border);
+        final Tile sourceTileQ = getSourceTile(sourceBandQ, sourceRectangle, border);
+        final ProductData sourceBufferI = sourceTileI.getDataBuffer();
+        final ProductData sourceBufferQ = sourceTileQ.getDataBuffer();
+        final TileIndex sourceIndex = new TileIndex(sourceTileI);
+
+        final int x0 = sourceRectangle.x;
+        final int y0 = sourceRectangle.y;
+        final int xMax = x0 + sourceRectangle.width;
+        final int yMax = y0 + sourceRectangle.height;
+
+        final FlattenedPlaneCache.Plane plane = new FlattenedPlaneCache.Plane(sourceRectangle.width,
+                                                                              sourceRectangle.height);
         for (int y = y0; y < yMax; y++) {
             sourceIndex.calculateStride(y);
             final int yy = y - y0;
@@ -872,29 +869,35 @@ public class MultiMasterInSAROp extends Operator {
                 final int sourceIdx = sourceIndex.getIndex(x);
                 final int xx = x - x0;
 
-                // Get value of real and imaginary bands
-                final double valueI0 = sourceBufferI0.getElemDoubleAt(sourceIdx);
-                final double valueI1 = sourceBufferI1.getElemDoubleAt(sourceIdx);
-
-                if(valueI0 == nodata || valueI1 == nodata) {
-                    ifgPhasorI[yy][xx] = nodata;
-                    ifgPhasorQ[yy][xx] = nodata;
-                    intensity0[yy][xx] = nodata;
-                    intensity1[yy][xx] = nodata;
+                final double valueI = sourceBufferI.getElemDoubleAt(sourceIdx);
+                if (valueI == nodata) {
+                    plane.setNoData(xx, yy);
                 } else {
-                    final double valueQ0 = sourceBufferQ0.getElemDoubleAt(sourceIdx);
-                    final double valueQ1 = sourceBufferQ1.getElemDoubleAt(sourceIdx);
-
-                    final double[] values = computeIfgPhasorAndIntensities(valueI0, valueQ0, valueI1, valueQ1,
-                            referencePhase0[yy][xx], referencePhase1[yy][xx]);
-                    ifgPhasorI[yy][xx] = values[0];
-                    ifgPhasorQ[yy][xx] = values[1];
-                    intensity0[yy][xx] = values[2];
-                    intensity1[yy][xx] = values[3];
+                    final double valueQ = sourceBufferQ.getElemDoubleAt(sourceIdx);
+                    plane.set(xx, yy, valueI, valueQ, referencePhase == null ? 0.0 : referencePhase[yy][xx]);
                 }
             }
         }
 
+        return plane;
+    }
+
+    private void computeInterferogram(final FlattenedPlaneCache.Plane plane0, final FlattenedPlaneCache.Plane plane1,
+                                      final Tile ifgTileI, final Tile ifgTileQ, final Tile coherenceTile,
+                                      final int cohWinAz, final int cohWinRg,
+                                      final Rectangle sourceRectangle, final Rectangle targetRectangle,
+                                      final double nodata) {
+
+        final int sourceW = sourceRectangle.width;
+        final int sourceH = sourceRectangle.height;
+
+        // Compute interferometric phasor and intensities
+        final double[][] ifgPhasorI = new double[sourceH][sourceW];
+        final double[][] ifgPhasorQ = new double[sourceH][sourceW];
+        final double[][] intensity0 = new double[sourceH][sourceW];
+        final double[][] intensity1 = new double[sourceH][sourceW];
+        FlattenedPlaneCache.interfere(plane0, plane1, nodata, ifgPhasorI, ifgPhasorQ, intensity0, intensity1);
+
         // Compute coherence
         final double[][] coherence = computeCoherence(ifgPhasorI, ifgPhasorQ, intensity0, intensity1,
                                                       cohWinAz, cohWinRg);
@@ -902,12 +905,10 @@ public class MultiMasterInSAROp extends Operator {
         // Save interferometric phasor and coherence
         final int overlapX = Math.floorDiv((sourceRectangle.width - targetRectangle.width), 2);
         final int overlapY = Math.floorDiv((sourceRectangle.height - targetRectangle.height), 2);
-        x0 = targetRectangle.x;
-        y0 = targetRectangle.y;
-        w = targetRectangle.width;
-        h = targetRectangle.height;
-        xMax = x0 + w;
-        yMax = y0 + h;
+        final int x0 = targetRectangle.x;
+        final int y0 = targetRectangle.y;
+        final int xMax = x0 + targetRectangle.width;
+        final int yMax = y0 + targetRectangle.height;
 
         final ProductData targetBufferIfgI = ifgTileI.getDataBuffer();
         final ProductData targetBufferIfgQ = ifgTileQ.getDataBuffer();
@@ -927,22 +928,6 @@ public class MultiMasterInSAROp extends Operator {
         }
     }
 
-    private double[] computeIfgPhasorAndIntensities(final double valueI0, final double valueQ0,
-                                                    final double valueI1, final double valueQ1,
-                                                    final double referencePhase0, final double referencePhase1) {
-
-        final double ifgPhasorI = valueI0 * valueI1 + valueQ0 * valueQ1;
-        final double ifgPhasorQ = -valueI0 * valueQ1 + valueQ0 * valueI1;
-        final double angle = referencePhase0 - referencePhase1;
-        final double cosAngle = FastMath.cos(angle);
-        final double sinAngle = FastMath.sin(angle);
-        final double flattenedIfgPhasorI = ifgPhasorI * cosAngle + ifgPhasorQ * sinAngle;
-        final double flattenedIfgPhasorQ = -ifgPhasorI * sinAngle + ifgPhasorQ * cosAngle;
-
-        return new double[]{flattenedIfgPhasorI, flattenedIfgPhasorQ, valueI0 * valueI0 + valueQ0 * valueQ0,
-                valueI1 * valueI1 + valueQ1 * valueQ1};
-    }
-
     private double[][] computeCoherence(final double[][] ifgPhasorI, final double[][] ifgPhasorQ,
                                         final double[][] intensity0, final double[][] intensity1,
                                         final int cohWinAz, int cohWinRg) {
@@ -18,6 +18,8 @@ package eu.esa.sar.insar.gpf;
 import Jama.Matrix;
 import Jama.SingularValueDecomposition;
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.insar.gpf.support.CovarianceAccumulator;
+import eu.esa.sar.insar.gpf.support.TruncatedEigenSolver;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.Product;
 import org.esa.snap.core.datamodel.ProductData;
@@ -47,6 +49,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * The operator performs principal component analysis for user selected master/slave pairs.
@@ -87,18 +90,35 @@ public class PCAOp extends Operator {
     @Parameter(description = "Subtract mean image", defaultValue = "1", label = "Subtract Mean Image")
     private Boolean subtractMeanImage = false;
 
+    @Parameter(description = "How the offset making PCA images non-negative is found. Exact needs an extra pass over the data",
+            valueSet = {MIN_ANALYTIC_BOUND, MIN_SAMPLED, MIN_EXACT},
+            defaultValue = MIN_ANALYTIC_BOUND, label = "PCA Minimum Estimation")
+    private String minEstimation = MIN_ANALYTIC_BOUND;
+
     private volatile boolean statsCalculated = false;
-    private int numOfPixels = 0;        // total number of pixel values
     private int numOfSourceBands = 0;   // number of user selected bands
-    private double[] sum = null;        // summation of pixel values for each band
-    private double[][] sumCross = null; // summation of the dot product of each band and the master band
-    private double[] mean = null;       // mean of pixel values for each band
-    private double[][] meanCross = null;// mean of the dot product of each band and the master band
+    private CovarianceAccumulator statistics = null; // mean and covariance of the user selected bands
+    private final List<double[]> sampledPixels = new ArrayList<>(); // pixel vectors for sampled minimum estimation
+    private final Random sampleRandom = new Random(SAMPLE_SEED);
+    private long numCandidatePixels = 0; // grid pixels offered to the sample reservoir
 
     public static final String EIGENVALUE_THRESHOLD = "Eigenvalue Threshold";
     public static final String NUMBER_EIGENVALUES = "Number of Eigenvalues";
+    public static final String MIN_EXACT = "Exact";
+    public static final String MIN_ANALYTIC_BOUND = "Analytic bound";
+    public static final String MIN_SAMPLED = "Sampled projections";
     private static final String meanImageBandName = "Mean_Image";
 
+    // pixel spacing along each axis of the grid used for sampled minimum estimation
+    private static final int SAMPLE_STEP = 8;
+
+    // capacity of the reservoir of pixel vectors kept for sampled minimum estimation
+    private static final int MAX_SAMPLED_PIXELS = 16384;
+    private static final long SAMPLE_SEED = 42L;
+
+    // use the truncated eigen solver when few components are requested from a large stack
+    private static final int TRUNCATED_SOLVER_MIN_BANDS = 64;
+
     private double totalEigenvalues; // summation of all eigenvalues
 
     private boolean pcaImageComputed = false;
@@ -148,20 +168,7 @@ public class PCAOp extends Operator {
      */
     private void setInitialValues() {
 
-        mean = new double[numOfSourceBands];
-        meanCross = new double[numOfSourceBands][numOfSourceBands];
-        sum = new double[numOfSourceBands];
-        sumCross = new double[numOfSourceBands][numOfSourceBands];
-        for (int i = 0; i < numOfSourceBands; i++) {
-            sum[i] = 0.0;
-            mean[i] = 0.0;
-            for (int j = 0; j < numOfSourceBands; j++) {
-                sumCross[i][j] = 0.0;
-                meanCross[i][j] = 0.0;
-            }
-        }
-
-        numOfPixels = sourceProduct.getSceneRasterWidth() * sourceProduct.getSceneRasterHeight();
+        statistics = new CovarianceAccumulator(numOfSourceBands);
     }
 
     /**
@@ -342,7 +349,13 @@ public class PCAOp extends Operator {
 
         processStatistics(tileRectangles);
 
-        processMin(tileRectangles);
+        computeEigenDecompositionOfCovarianceMatrix();
+
+        if (minEstimation.equals(MIN_EXACT)) {
+            processMin(tileRectangles);
+        } else {
+            estimateMin();
+        }
 
         statsCalculated = true;
     }
@@ -390,33 +403,33 @@ public class PCAOp extends Operator {
             for (final Rectangle rectangle : tileRectangles) {
 
                 ThreadRunnable worker = new ThreadRunnable() {
-                    final ProductData[] bandsRawSamples = new ProductData[numOfSourceBands];
-                    final double[] tileSum = new double[numOfSourceBands];
-                    final double[][] tileSumCross = new double[numOfSourceBands][numOfSourceBands];
 
                     @Override
                     public void process() {
+                        final int n = rectangle.width * rectangle.height;
+                        final double[][] bandsSamples = new double[numOfSourceBands][];
                         for (int i = 0; i < numOfSourceBands; i++) {
-                            bandsRawSamples[i] =
-                                    getSourceTile(sourceProduct.getBand(sourceBandNames[i]), rectangle).getRawSamples();
+                            bandsSamples[i] = getSamples(sourceProduct.getBand(sourceBandNames[i]), rectangle);
                         }
 
+                        double[] meanImageSamples = null;
                         if (subtractMeanImage) {
+                            meanImageSamples = getSamples(sourceProduct.getBand(meanImageBandName), rectangle);
+                        }
 
-                            final ProductData meanBandRawSamples =
-                                    getSourceTile(sourceProduct.getBand(meanImageBandName), rectangle).getRawSamples();
-
-                            computeTileStatisticsWithMeanImageSubstract(numOfSourceBands,
-                                    bandsRawSamples, meanBandRawSamples, tileSum, tileSumCross);
-
-                        } else {
+                        final CovarianceAccumulator tileStatistics = new CovarianceAccumulator(numOfSourceBands);
+                        tileStatistics.accumulate(bandsSamples, meanImageSamples, n);
 
-                            computeTileStatisticsWithoutMeanImageSubstract(numOfSourceBands,
-                                    bandsRawSamples, tileSum, tileSumCross);
+                        List<double[]> tileSamples = null;
+                        if (minEstimation.equals(MIN_SAMPLED)) {
+                            tileSamples = samplePixels(bandsSamples, rectangle);
                         }
 
-                        synchronized (sum) {
-                            computeImageStatistics(tileSum, tileSumCross);
+                        synchronized (statistics) {
+                            statistics.merge(tileStatistics);
+                            if (tileSamples != null) {
+                                addSampledPixels(tileSamples);
+                            }
                         }
                     }
                 };
@@ -426,8 +439,6 @@ public class PCAOp extends Operator {
             }
             executor.complete();
 
-            completeStatistics();
-
         } catch (Throwable e) {
             throw new OperatorException(e);
         } finally {
@@ -489,122 +500,50 @@ public class PCAOp extends Operator {
         }
     }
 
-    /**
-     * Compute summation and cross-summation for all bands for a given tile.
-     *
-     * @param numOfSourceBands numnber of bands
-     * @param bandsRawSamples  The raw data for all bands for the given tile.
-     * @param tileSum          The summation for all bands for the given tile.
-     * @param tileSumCross     The cross-summation for all bands for the given tile.
-     */
-    private static void computeTileStatisticsWithoutMeanImageSubstract(final int numOfSourceBands,
-                                                                       final ProductData[] bandsRawSamples, final double[] tileSum, final double[][] tileSumCross) {
-
-        Arrays.fill(tileSum, 0.0);
-        final int n = bandsRawSamples[0].getNumElems();
-
-        double vi, vj;
-        for (int i = 0; i < numOfSourceBands; i++) {
-            Arrays.fill(tileSumCross[i], 0.0);
-
-            for (int j = 0; j <= i; j++) {
-
-                //System.out.println("i = " + i + ", j = " + j);
-                if (j < i) {
-
-                    for (int k = 0; k < n; k++) {
-                        vi = bandsRawSamples[i].getElemDoubleAt(k);
-                        vj = bandsRawSamples[j].getElemDoubleAt(k);
-                        tileSumCross[i][j] += vi * vj;
-                    }
-
-                } else { // j == i
-
-                    for (int k = 0; k < n; k++) {
-                        vi = bandsRawSamples[i].getElemDoubleAt(k);
-                        tileSum[i] += vi;
-                        tileSumCross[i][j] += vi * vi;
-                    }
-                }
-            }
+    private double[] getSamples(final Band band, final Rectangle rectangle) {
+        final ProductData rawSamples = getSourceTile(band, rectangle).getRawSamples();
+        final int n = rectangle.width * rectangle.height;
+        final double[] samples = new double[n];
+        for (int k = 0; k < n; k++) {
+            samples[k] = rawSamples.getElemDoubleAt(k);
         }
+        return samples;
     }
 
     /**
-     * Compute summation and cross-summation for all bands for a given tile with mean image substracted.
-     *
-     * @param numOfSourceBands   numnber of bands
-     * @param bandsRawSamples    The raw data for all bands for the given tile.
-     * @param meanBandRawSamples The raw data for the band of mean image for the given tile.
-     * @param tileSum            The summation for all bands for the given tile.
-     * @param tileSumCross       The cross-summation for all bands for the given tile.
+     * Take pixel vectors on a regular grid of the tile for sampled minimum estimation.
      */
-    private static void computeTileStatisticsWithMeanImageSubstract(
-            final int numOfSourceBands,
-            final ProductData[] bandsRawSamples, final ProductData meanBandRawSamples,
-            final double[] tileSum, final double[][] tileSumCross) {
-
-        Arrays.fill(tileSum, 0.0);
-        final int n = bandsRawSamples[0].getNumElems();
-
-        double vi, vj, vm;
-        for (int i = 0; i < numOfSourceBands; i++) {
-            Arrays.fill(tileSumCross[i], 0.0);
-
-            for (int j = 0; j <= i; j++) {
-
-                //System.out.println("i = " + i + ", j = " + j);
-                if (j < i) {
-
-                    for (int k = 0; k < n; k++) {
-                        vm = meanBandRawSamples.getElemDoubleAt(k);
-                        vi = bandsRawSamples[i].getElemDoubleAt(k) - vm;
-                        vj = bandsRawSamples[j].getElemDoubleAt(k) - vm;
-                        tileSumCross[i][j] += vi * vj;
-                    }
-
-                } else { // j == i
-
-                    for (int k = 0; k < n; k++) {
-                        vm = meanBandRawSamples.getElemDoubleAt(k);
-                        vi = bandsRawSamples[i].getElemDoubleAt(k) - vm;
-                        tileSum[i] += vi;
-                        tileSumCross[i][j] += vi * vi;
-                    }
+    private static List<double[]> samplePixels(final double[][] bandsSamples, final Rectangle rectangle) {
+        final List<double[]> samples = new ArrayList<>();
+        for (int y = SAMPLE_STEP / 2; y < rectangle.height; y += SAMPLE_STEP) {
+            for (int x = SAMPLE_STEP / 2; x < rectangle.width; x += SAMPLE_STEP) {
+                final int k = y * rectangle.width + x;
+                final double[] pixel = new double[bandsSamples.length];
+                for (int j = 0; j < bandsSamples.length; j++) {
+                    pixel[j] = bandsSamples[j][k];
                 }
+                samples.add(pixel);
             }
         }
+        return samples;
     }
 
     /**
-     * Compute summation and cross-summation for the whole image.
-     *
-     * @param tileSum      The summation computed for each tile.
-     * @param tileSumCross The cross-summation computed for each tile.
+     * Keep a uniform sample of at most {@link #MAX_SAMPLED_PIXELS} grid pixels over the whole scene
+     * (reservoir sampling, algorithm R), so memory does not grow with the scene size.
+     * Called with the statistics lock held.
      */
-    private void computeImageStatistics(final double[] tileSum, final double[][] tileSumCross) {
-
-        for (int i = 0; i < numOfSourceBands; i++) {
-            for (int j = 0; j <= i; j++) {
-                if (j < i) {
-                    sumCross[i][j] += tileSumCross[i][j];
-                } else { // j == i
-                    sum[i] += tileSum[i];
-                    sumCross[i][j] += tileSumCross[i][j];
-                }
-            }
-        }
-    }
-
-    private void completeStatistics() {
-        for (int i = 0; i < numOfSourceBands; i++) {
-            mean[i] = sum[i] / numOfPixels;
-            for (int j = 0; j <= i; j++) {
-                meanCross[i][j] = sumCross[i][j] / numOfPixels;
-                if (j != i) {
-                    meanCross[j][i] = meanCross[i][j];
+    private void addSampledPixels(final List<double[]> tileSamples) {
+        for (double[] pixel : tileSamples) {
+            if (sampledPixels.size() < MAX_SAMPLED_PIXELS) {
+                sampledPixels.add(pixel);
+            } else {
+                final long k = (long) (sampleRandom.nextDouble() * (numCandidatePixels + 1));
+                if (k < MAX_SAMPLED_PIXELS) {
+                    sampledPixels.set((int) k, pixel);
                 }
             }
+            ++numCandidatePixels;
         }
     }
 
@@ -620,8 +559,37 @@ public class PCAOp extends Operator {
         for (int i = 0; i < numOfSourceBands; i++) {
             minPCA[i] = Double.MAX_VALUE;
         }
+    }
 
-        computeEigenDecompositionOfCovarianceMatrix();
+    /**
+     * Estimate the minimum of each PCA image without another pass over the data, either as the
+     * interval bound from the per-band min/max or as the minimum over the sampled pixel vectors.
+     */
+    private void estimateMin() {
+
+        initializeMin();
+
+        final double[] vector = new double[numOfSourceBands];
+        for (int i = 0; i < numPCA; i++) {
+            for (int j = 0; j < numOfSourceBands; j++) {
+                vector[j] = eigenVectorMatrices[j][i];
+            }
+
+            if (minEstimation.equals(MIN_ANALYTIC_BOUND) || sampledPixels.isEmpty()) {
+                minPCA[i] = statistics.getProjectionLowerBound(vector);
+            } else {
+                for (double[] pixel : sampledPixels) {
+                    double vPCA = 0.0;
+                    for (int j = 0; j < numOfSourceBands; j++) {
+                        vPCA += pixel[j] * vector[j];
+                    }
+                    if (vPCA < minPCA[i])
+                        minPCA[i] = vPCA;
+                }
+            }
+        }
+        sampledPixels.clear();
+        numCandidatePixels = 0;
     }
 
     /**
@@ -642,16 +610,17 @@ public class PCAOp extends Operator {
      */
     private void computeEigenDecompositionOfCovarianceMatrix() {
 
-        eigenVectorMatrices = new double[numOfSourceBands][numOfSourceBands];
-        eigenValues = new double[numOfSourceBands];
+        final double[][] cov = statistics.getCovariance();
 
-        final double[][] cov = new double[numOfSourceBands][numOfSourceBands];
-        for (int i = 0; i < numOfSourceBands; i++) {
-            for (int j = 0; j < numOfSourceBands; j++) {
-                cov[i][j] = meanCross[i][j] - mean[i] * mean[j];
-            }
+        if (selectEigenvaluesBy.equals(NUMBER_EIGENVALUES) &&
+                numOfSourceBands >= TRUNCATED_SOLVER_MIN_BANDS && 4 * numPCA <= numOfSourceBands) {
+            computeTruncatedEigenDecomposition(cov);
+            return;
         }
 
+        eigenVectorMatrices = new double[numOfSourceBands][numOfSourceBands];
+        eigenValues = new double[numOfSourceBands];
+
         final Matrix Cov = new Matrix(cov);
         final SingularValueDecomposition Svd = Cov.svd(); // Cov = USV'
         final Matrix S = Svd.getS();
@@ -681,6 +650,29 @@ public class PCAOp extends Operator {
         }
     }
 
+    /**
+     * Compute only the leading numPCA eigenpairs of the covariance matrix.
+     */
+    private void computeTruncatedEigenDecomposition(final double[][] cov) {
+
+        final TruncatedEigenSolver solver = new TruncatedEigenSolver(cov, numPCA);
+        final double[][] vectors = solver.getEigenVectors();
+
+        eigenValues = solver.getEigenValues();
+        eigenVectorMatrices = new double[numOfSourceBands][numPCA];
+        for (int i = 0; i < numOfSourceBands; i++) {
+            for (int j = 0; j < numPCA; j++) {
+                eigenVectorMatrices[i][j] = vectors[j][i];
+            }
+        }
+
+        // the eigenvalues sum to the trace
+        totalEigenvalues = 0.0;
+        for (int i = 0; i < numOfSourceBands; i++) {
+            totalEigenvalues += cov[i][i];
+        }
+    }
+
     /**
      * Compute statistics for the whole image.
      */
@@ -711,8 +703,8 @@ public class PCAOp extends Operator {
             p.println("Number of PCA Images Output: " + numPCA);
             p.println();
             p.println("Normalized Eigenvalues: ");
-            for (int i = 0; i < numOfSourceBands; i++) {
-                p.println("    " + eigenValues[i]);
+            for (int i = 0; i < eigenValues.length; i++) {
+                p.println("    " + eigenValues[i] / totalEigenvalues);
             }
             p.println();
         } catch (IOException exc) {
@@ -22,7 +22,10 @@ import eu.esa.sar.insar.gpf.phaselinking.EMIEstimator;
 import eu.esa.sar.insar.gpf.phaselinking.EVDEstimator;
 import eu.esa.sar.insar.gpf.phaselinking.KSSelector;
 import eu.esa.sar.insar.gpf.phaselinking.PhaseEstimator;
+import eu.esa.sar.insar.gpf.phaselinking.SHPMask;
 import eu.esa.sar.insar.gpf.phaselinking.SHPSelector;
+import eu.esa.sar.insar.gpf.phaselinking.SequentialPhaseLinker;
+import eu.esa.sar.insar.gpf.phaselinking.SortedAmplitudeCache;
 import eu.esa.sar.insar.gpf.phaselinking.TLogSelector;
 import eu.esa.sar.insar.gpf.phaselinking.TemporalCoherence;
 import org.esa.snap.core.datamodel.Band;
@@ -76,9 +79,14 @@ import java.util.Map;
  * MultiMasterInSAROp; downstream pairs see much higher coherence over
  * distributed scatterers.
  *
- * v1 scope: single-shot full-stack EVD/EMI. Suitable for stacks up to
- * ~50 epochs; for larger N consider subsampling. Sequential ministack
- * (Dolphin) and iterative MLE refinement are deferred to v2.
+ * By default the full stack is linked in one shot, which suits stacks up to
+ * ~50 epochs. With a ministack size the epochs are linked sequentially
+ * (Ansari/De Zan/Bamler 2017, as in Dolphin), each ministack together with
+ * one compressed SLC per earlier ministack; see {@link SequentialPhaseLinker}.
+ * The compressed SLCs and the SHP masks can be written out and supplied as
+ * the history source of a later run, which then links only the epochs
+ * acquired after the history, so the cost of adding an acquisition does
+ * not grow with the archive. Iterative MLE refinement is deferred.
  *
  * Input requirement: a coregistered SLC stack with i/q band pairs. Burst-
  * organised TOPS SLC stacks must be debursted upstream (TOPSARDeburstOp);
@@ -95,6 +103,10 @@ public class PhaseLinkingOp extends Operator {
     @SourceProduct
     private Product sourceProduct;
 
+    @SourceProduct(alias = "history", optional = true,
+            description = "Compressed SLCs and SHP masks written by a previous sequential run")
+    private Product historyProduct;
+
     @TargetProduct
     private Product targetProduct;
 
@@ -157,6 +169,21 @@ public class PhaseLinkingOp extends Operator {
             label = "Output SHP Count")
     private boolean outputShpCount = false;
 
+    @Parameter(description = "Number of epochs per ministack for sequential phase linking; 0 links the full stack at once",
+            defaultValue = "0",
+            label = "Ministack Size")
+    private int ministackSize = 0;
+
+    @Parameter(description = "Emit compressed SLC and SHP mask bands for incremental updates",
+            defaultValue = "false",
+            label = "Output Compressed SLCs")
+    private boolean outputCompressedSlcs = false;
+
+    @Parameter(description = "Reuse the SHP masks of the history product instead of reselecting SHPs",
+            defaultValue = "true",
+            label = "Reuse History SHP Masks")
+    private boolean reuseShpMasks = true;
+
     public static final String SHP_TEST_KS = "KS";
     public static final String SHP_TEST_AD = "AD";
     public static final String SHP_TEST_TLOG = "TLog";
@@ -164,9 +191,13 @@ public class PhaseLinkingOp extends Operator {
     public static final String ESTIMATOR_EMI = "EMI";
 
     private static final String PRODUCT_SUFFIX = "_PL";
+    // pixels of a row handed to the phase estimator per call
+    private static final int ESTIMATOR_BATCH_SIZE = 64;
     private static final String PL_BAND_NAME_TAG = "pl";
     private static final String TEMP_COH_BAND_NAME = "tempCoh";
     private static final String SHP_COUNT_BAND_NAME = "numSHP";
+    static final String COMPRESSED_BAND_NAME_TAG = "cslc";
+    static final String SHP_MASK_BAND_NAME = "shpMask";
 
     private int sourceImageWidth;
     private int sourceImageHeight;
@@ -211,6 +242,26 @@ public class PhaseLinkingOp extends Operator {
     private final Map<Band, Band> targetRealMap = new HashMap<>();
     private final Map<Band, Band> targetImagMap = new HashMap<>();
 
+    /** Sequential linking state of one polarisation. */
+    private static class Sequence {
+        /** Ministack boundaries over the linked epochs. */
+        int[] bounds;
+        /** Index of the first epoch linked by this run; earlier epochs are covered by the history. */
+        int firstEpoch;
+        /** Reference within the first ministack when there is no history. */
+        int firstReference;
+        Band[] historyReal = new Band[0];
+        Band[] historyImag = new Band[0];
+        /** History SHP mask words, or null to select SHPs. */
+        Band[] historyMask;
+        /** Per new ministack compressed SLC target bands, or null. */
+        Band[] compressedReal;
+        Band[] compressedImag;
+        Band[] shpMask;
+    }
+
+    private final Map<String, Sequence> sequencesByPol = new HashMap<>();
+
     /** Per-polarisation tempCoh / numSHP bands (or null if disabled). */
     private final Map<String, Band> tempCohBandMap = new HashMap<>();
     private final Map<String, Band> shpCountBandMap = new HashMap<>();
@@ -224,21 +275,31 @@ public class PhaseLinkingOp extends Operator {
             sourceImageWidth = sourceProduct.getSceneRasterWidth();
             sourceImageHeight = sourceProduct.getSceneRasterHeight();
 
+            if ((windowAzimuth & 1) == 0) windowAzimuth += 1;
+            if ((windowRange & 1) == 0) windowRange += 1;
+
             collectEpochs();
             resolveReferenceEpoch();
+            if (ministackSize > 0 || historyProduct != null) {
+                createSequences();
+            }
 
             // A pixel can only be phase-linked from a full-rank N x N covariance, which needs at
             // least n SHP samples; never accept fewer than that even if the user set shpMin lower.
-            minCovarianceSamples = Math.max(shpMin, n);
-            if (shpMin < n) {
-                SystemUtils.LOG.info("PhaseLinkingOp: shpMin (" + shpMin + ") is below the stack size ("
-                        + n + "); raising the per-pixel minimum to " + n
+            // Sequentially, N is the size of the largest ministack problem instead.
+            minCovarianceSamples = sequencesByPol.isEmpty() ? Math.max(shpMin, n) : shpMin;
+            for (Sequence seq : sequencesByPol.values()) {
+                for (int k = 0; k + 1 < seq.bounds.length; k++) {
+                    final int size = seq.historyReal.length + k + seq.bounds[k + 1] - seq.bounds[k];
+                    minCovarianceSamples = Math.max(minCovarianceSamples, Math.max(shpMin, size));
+                }
+            }
+            if (shpMin < minCovarianceSamples) {
+                SystemUtils.LOG.info("PhaseLinkingOp: shpMin (" + shpMin + ") is below the problem size ("
+                        + minCovarianceSamples + "); raising the per-pixel minimum to " + minCovarianceSamples
                         + " so the sample covariance stays full rank.");
             }
 
-            if ((windowAzimuth & 1) == 0) windowAzimuth += 1;
-            if ((windowRange & 1) == 0) windowRange += 1;
-
             createTargetProduct();
 
         } catch (Throwable e) {
@@ -380,6 +441,125 @@ public class PhaseLinkingOp extends Operator {
                 "' not present in stack. Available:" + sb);
     }
 
+    /**
+     * Splits each polarisation into ministacks, after the epochs already covered by the history.
+     */
+    private void createSequences() throws Exception {
+        if (ministackSize == 1 || ministackSize < 0) {
+            throw new OperatorException("PhaseLinkingOp: ministackSize must be 0 or at least 2.");
+        }
+        if (historyProduct != null && (historyProduct.getSceneRasterWidth() != sourceImageWidth ||
+                historyProduct.getSceneRasterHeight() != sourceImageHeight)) {
+            throw new OperatorException("PhaseLinkingOp: history product dimensions differ from the source stack.");
+        }
+        final DateFormat dateFormat = ProductData.UTC.createDateFormat("ddMMMyyyy");
+        final int numMaskWords = SHPMask.numWords(windowAzimuth, windowRange);
+
+        for (Map.Entry<String, List<Epoch>> entry : stacksByPol.entrySet()) {
+            final String pol = entry.getKey();
+            final List<Epoch> epochs = entry.getValue();
+            final Sequence seq = new Sequence();
+
+            if (historyProduct != null) {
+                final String prefix = compressedSuffixPrefix(epochs.get(0), pol);
+                final List<Band> real = new ArrayList<>();
+                final List<Band> imag = new ArrayList<>();
+                for (Band band : historyProduct.getBands()) {
+                    if (band.getName().startsWith("i_" + prefix)) {
+                        final Band q = historyProduct.getBand("q_" + band.getName().substring(2));
+                        if (q != null) {
+                            real.add(band);
+                            imag.add(q);
+                        }
+                    }
+                }
+                if (real.isEmpty()) {
+                    throw new OperatorException("PhaseLinkingOp: history product has no compressed SLCs for " + pol);
+                }
+                seq.historyReal = real.toArray(new Band[0]);
+                seq.historyImag = imag.toArray(new Band[0]);
+
+                // the last compressed SLC ends with the date of the last archived epoch
+                final String lastName = real.get(real.size() - 1).getName();
+                final Date lastDate = dateFormat.parse(lastName.substring(lastName.lastIndexOf('_') + 1));
+                while (seq.firstEpoch < n && !epochs.get(seq.firstEpoch).dateParsed.after(lastDate)) {
+                    seq.firstEpoch++;
+                }
+                if (seq.firstEpoch == n) {
+                    throw new OperatorException("PhaseLinkingOp: no epochs after the history ending " +
+                            lastName.substring(lastName.lastIndexOf('_') + 1));
+                }
+
+                if (reuseShpMasks) {
+                    final Band[] mask = new Band[numMaskWords];
+                    for (int w = 0; w < numMaskWords; w++) {
+                        mask[w] = historyProduct.getBand(shpMaskBandName(pol, w));
+                    }
+                    if (mask[0] != null && mask[numMaskWords - 1] != null
+                            && historyProduct.getBand(shpMaskBandName(pol, numMaskWords)) == null) {
+                        seq.historyMask = mask;
+                    } else {
+                        SystemUtils.LOG.info("PhaseLinkingOp: history SHP masks missing or of another window size; " +
+                                "selecting SHPs again.");
+                    }
+                }
+            }
+
+            final int numLinked = n - seq.firstEpoch;
+            seq.bounds = SequentialPhaseLinker.splitMinistacks(numLinked, ministackSize > 0 ? ministackSize : numLinked);
+            if (seq.historyReal.length == 0) {
+                final boolean defaultReference = referenceEpochDate == null || referenceEpochDate.trim().isEmpty();
+                seq.firstReference = defaultReference ? seq.bounds[1] / 2 : refIndex;
+                if (seq.firstReference >= seq.bounds[1]) {
+                    throw new OperatorException("PhaseLinkingOp: with sequential phase linking the reference epoch " +
+                            "must be in the first ministack.");
+                }
+            }
+            sequencesByPol.put(pol, seq);
+        }
+    }
+
+    private static String compressedSuffixPrefix(final Epoch epoch, final String pol) {
+        final String swath = epoch.subswath.isEmpty() ? "" : '_' + epoch.subswath;
+        final String polTag = pol.isEmpty() ? "" : '_' + pol;
+        return COMPRESSED_BAND_NAME_TAG + swath + polTag + '_';
+    }
+
+    private static String shpMaskBandName(final String pol, final int word) {
+        return SHP_MASK_BAND_NAME + (pol.isEmpty() ? "" : '_' + pol) + '_' + word;
+    }
+
+    private void addSequenceBands(final String pol, final List<Epoch> epochs, final Sequence seq) {
+        // carry the history forward so the target is a complete history for the next run
+        for (int h = 0; h < seq.historyReal.length; h++) {
+            ProductUtils.copyBand(seq.historyReal[h].getName(), historyProduct, targetProduct, true);
+            ProductUtils.copyBand(seq.historyImag[h].getName(), historyProduct, targetProduct, true);
+        }
+
+        final int numMinistacks = seq.bounds.length - 1;
+        final String prefix = compressedSuffixPrefix(epochs.get(0), pol);
+        seq.compressedReal = new Band[numMinistacks];
+        seq.compressedImag = new Band[numMinistacks];
+        for (int k = 0; k < numMinistacks; k++) {
+            final Epoch first = epochs.get(seq.firstEpoch + seq.bounds[k]);
+            final Epoch last = epochs.get(seq.firstEpoch + seq.bounds[k + 1] - 1);
+            final String suffix = prefix + first.date + '_' + last.date;
+
+            seq.compressedReal[k] = targetProduct.addBand("i_" + suffix, ProductData.TYPE_FLOAT32);
+            seq.compressedReal[k].setUnit(Unit.REAL);
+            seq.compressedReal[k].setDescription("Compressed SLC real component, " + first.date + " to " + last.date);
+            seq.compressedImag[k] = targetProduct.addBand("q_" + suffix, ProductData.TYPE_FLOAT32);
+            seq.compressedImag[k].setUnit(Unit.IMAGINARY);
+            seq.compressedImag[k].setDescription("Compressed SLC imaginary component, " + first.date + " to " + last.date);
+        }
+
+        seq.shpMask = new Band[SHPMask.numWords(windowAzimuth, windowRange)];
+        for (int w = 0; w < seq.shpMask.length; w++) {
+            seq.shpMask[w] = targetProduct.addBand(shpMaskBandName(pol, w), ProductData.TYPE_INT32);
+            seq.shpMask[w].setDescription("Bit-packed SHP mask, word " + w);
+        }
+    }
+
     private void createTargetProduct() throws Exception {
         targetProduct = new Product(sourceProduct.getName() + PRODUCT_SUFFIX,
                 sourceProduct.getProductType(),
@@ -455,6 +635,10 @@ public class PhaseLinkingOp extends Operator {
                 b.setDescription("SHP count per pixel");
                 shpCountBandMap.put(pol, b);
             }
+            final Sequence seq = sequencesByPol.get(pol);
+            if (seq != null && outputCompressedSlcs) {
+                addSequenceBands(pol, epochs, seq);
+            }
         }
 
         // Overwrite stale Reference_bands / Secondary_bands metadata (copied verbatim from source
@@ -488,6 +672,12 @@ public class PhaseLinkingOp extends Operator {
                                      final Map<Band, Tile> targetTileMap,
                                      final Rectangle targetRectangle) {
 
+        final Sequence seq = sequencesByPol.get(pol);
+        if (seq != null) {
+            processPolarisationSequential(pol, epochs, seq, targetTileMap, targetRectangle);
+            return;
+        }
+
         final BorderExtender border = BorderExtender.createInstance(BorderExtender.BORDER_ZERO);
 
         final int halfAz = windowAzimuth / 2;
@@ -542,22 +732,27 @@ public class PhaseLinkingOp extends Operator {
         final SHPSelector selector = buildSelector();
         final PhaseEstimator phaseEstimator = buildEstimator();
         final CovarianceMatrix C = new CovarianceMatrix(n);
-        final double[][] tRe = new double[n][n];
-        final double[][] tIm = new double[n][n];
-        final double[] phi = new double[n];
+        final PixelBatch batch = new PixelBatch(Math.min(ESTIMATOR_BATCH_SIZE, targetRectangle.width), n);
         final double[] centreAmp = new double[n];
         final double[] candAmp = new double[n];
         final double[] slcRe = new double[n];
         final double[] slcIm = new double[n];
         final double[] centreSlcRe = new double[n];
         final double[] centreSlcIm = new double[n];
+        final SortedAmplitudeCache amplitudes = new SortedAmplitudeCache(extX0, extW, windowAzimuth, n);
+        final SHPMask mask = new SHPMask(windowAzimuth, windowRange);
 
         final int x0 = targetRectangle.x;
         final int y0 = targetRectangle.y;
         final int xN = x0 + targetRectangle.width;
         final int yN = y0 + targetRectangle.height;
 
+        for (int yy = y0 - halfAz; yy < y0 + halfAz; yy++) {
+            loadAmplitudeRow(amplitudes, yy, extX0, extW, srcRealBufs, srcImagBufs, srcIndex, noData, candAmp);
+        }
+
         for (int y = y0; y < yN; y++) {
+            loadAmplitudeRow(amplitudes, y + halfAz, extX0, extW, srcRealBufs, srcImagBufs, srcIndex, noData, candAmp);
             for (int k = 0; k < n; k++) tgtIndex[k].calculateStride(y);
             if (tempCohIndex != null) tempCohIndex.calculateStride(y);
             if (shpCountIndex != null) shpCountIndex.calculateStride(y);
@@ -593,43 +788,20 @@ public class PhaseLinkingOp extends Operator {
                     continue;
                 }
 
-                selector.prepareCentre(centreAmp);
-
-                // Walk SHP window
+                // SHP selection on the pre-sorted amplitudes, then the covariance over the mask
+                final int shpCount = amplitudes.select(selector, x, y, mask);
                 C.reset();
-                int shpCount = 0;
-                final int yMin = Math.max(y - halfAz, extY0);
-                final int yMax = Math.min(y + halfAz, extY0 + extH - 1);
-                final int xMin = Math.max(x - halfRg, extX0);
-                final int xMax = Math.min(x + halfRg, extX0 + extW - 1);
-                for (int yy = yMin; yy <= yMax; yy++) {
+                for (int yy = y - halfAz; yy <= y + halfAz; yy++) {
                     for (int k = 0; k < n; k++) srcIndex[k].calculateStride(yy);
-                    for (int xx = xMin; xx <= xMax; xx++) {
-                        // Build candidate amplitude series
-                        boolean candValid = true;
+                    for (int xx = Math.max(x - halfRg, extX0); xx <= Math.min(x + halfRg, extX0 + extW - 1); xx++) {
+                        if (!mask.get(xx - x, yy - y)) continue;
                         for (int k = 0; k < n; k++) {
                             final int idx = srcIndex[k].getIndex(xx);
-                            final double re = srcRealBufs[k].getElemDoubleAt(idx);
-                            final double im = srcImagBufs[k].getElemDoubleAt(idx);
-                            // Reject genuine noData (consistent with the centre check above) and
-                            // zero-extended border pixels (BorderExtender.BORDER_ZERO fills 0). When
-                            // noData == 0 both clauses coincide; when noData != 0 we still need the
-                            // explicit 0 test to drop out-of-scene window samples at scene edges.
-                            if ((re == noData && im == noData) || (re == 0.0 && im == 0.0)) {
-                                candValid = false;
-                                break;
-                            }
-                            slcRe[k] = re;
-                            slcIm[k] = im;
-                            candAmp[k] = Math.sqrt(re * re + im * im);
+                            slcRe[k] = srcRealBufs[k].getElemDoubleAt(idx);
+                            slcIm[k] = srcImagBufs[k].getElemDoubleAt(idx);
                         }
-                        if (!candValid) continue;
-                        if (!selector.accept(centreAmp, candAmp)) continue;
                         C.accumulate(slcRe, slcIm);
-                        shpCount++;
                     }
-                    // restore stride to row y for the next iteration's centre read
-                    for (int k = 0; k < n; k++) srcIndex[k].calculateStride(y);
                 }
 
                 // Re-set stride to current y (we walked yy above)
@@ -651,46 +823,335 @@ public class PhaseLinkingOp extends Operator {
                     continue;
                 }
 
-                C.finalizeT(shpCount, tRe, tIm, coherenceBiasCorrection);
-                phaseEstimator.estimate(n, tRe, tIm, refIndex, phi);
-                final double gamma = TemporalCoherence.compute(n, tRe, tIm, phi);
+                // Queue the pixel; the estimator solves the queued pixels of the row in one batch
+                final int b = batch.count++;
+                batch.x[b] = x;
+                batch.shpCount[b] = shpCount;
+                C.finalizeT(shpCount, batch.tRe[b], batch.tIm[b], coherenceBiasCorrection);
+                System.arraycopy(centreAmp, 0, batch.amp[b], 0, n);
+                System.arraycopy(centreSlcRe, 0, batch.slcRe[b], 0, n);
+                System.arraycopy(centreSlcIm, 0, batch.slcIm[b], 0, n);
+                if (batch.count == batch.x.length) {
+                    estimateBatch(batch, phaseEstimator, tgtRealTiles, tgtImagTiles, tgtIndex,
+                            tempCohTile, tempCohIndex, shpCountTile, shpCountIndex);
+                }
+            }
+            estimateBatch(batch, phaseEstimator, tgtRealTiles, tgtImagTiles, tgtIndex,
+                    tempCohTile, tempCohIndex, shpCountTile, shpCountIndex);
+        }
+    }
 
-                if (gamma < tempCohMin) {
-                    // Phase-linking estimate unreliable. Pass-through original SLC samples so
-                    // downstream sees no worse than the input stack; the tempCoh band records
-                    // gamma as the quality signal users can mask on.
-                    passThroughCentre(x, tgtRealTiles, tgtImagTiles, tgtIndex,
-                            centreSlcRe, centreSlcIm,
-                            tempCohTile, tempCohIndex, (float) gamma,
-                            shpCountTile, shpCountIndex, shpCount);
-                    continue;
+    /**
+     * Pixels of one row queued for phase estimation, so the estimator solves them in one call.
+     */
+    private static final class PixelBatch {
+        final int[] x;
+        final int[] shpCount;
+        final double[][][] tRe;
+        final double[][][] tIm;
+        final double[][] phi;
+        final double[][] amp;
+        final double[][] slcRe;
+        final double[][] slcIm;
+        int count;
+
+        PixelBatch(final int capacity, final int n) {
+            x = new int[capacity];
+            shpCount = new int[capacity];
+            tRe = new double[capacity][n][n];
+            tIm = new double[capacity][n][n];
+            phi = new double[capacity][n];
+            amp = new double[capacity][n];
+            slcRe = new double[capacity][n];
+            slcIm = new double[capacity][n];
+        }
+    }
+
+    /**
+     * Estimates the phases of the queued pixels and writes them, or passes them through when the
+     * temporal coherence is below the threshold. The target strides must be set to the batch row.
+     */
+    private void estimateBatch(final PixelBatch batch, final PhaseEstimator phaseEstimator,
+                               final Tile[] tgtRealTiles, final Tile[] tgtImagTiles, final TileIndex[] tgtIndex,
+                               final Tile tempCohTile, final TileIndex tempCohIndex,
+                               final Tile shpCountTile, final TileIndex shpCountIndex) {
+        if (batch.count == 0) {
+            return;
+        }
+        phaseEstimator.estimate(n, batch.count, batch.tRe, batch.tIm, refIndex, batch.phi);
+
+        for (int b = 0; b < batch.count; b++) {
+            final int x = batch.x[b];
+            final int shpCount = batch.shpCount[b];
+            final double[] phi = batch.phi[b];
+            final double gamma = TemporalCoherence.compute(n, batch.tRe[b], batch.tIm[b], phi);
+
+            if (gamma < tempCohMin) {
+                // Phase-linking estimate unreliable. Pass-through original SLC samples so
+                // downstream sees no worse than the input stack; the tempCoh band records
+                // gamma as the quality signal users can mask on.
+                passThroughCentre(x, tgtRealTiles, tgtImagTiles, tgtIndex,
+                        batch.slcRe[b], batch.slcIm[b],
+                        tempCohTile, tempCohIndex, (float) gamma,
+                        shpCountTile, shpCountIndex, shpCount);
+                continue;
+            }
+
+            // Write linked samples: amplitude from original SLC, phase from estimator.
+            // The reference epoch has phi[refIndex] == 0, so it is written as a real-valued
+            // sample |s_ref|: the operator fixes the estimator's arbitrary global phase by
+            // making the reference the zero-phase datum (single-reference convention, as in
+            // dolphin / MiaplPy / FRInGE). Its original absolute SLC phase is intentionally
+            // discarded; this is downstream-invariant because Interferogram/Coherence/SBAS use
+            // only relative phases arg(s_i conj(s_j)), in which the datum cancels.
+            for (int k = 0; k < n; k++) {
+                final double amp = batch.amp[b][k];
+                final double cs = Math.cos(phi[k]);
+                final double sn = Math.sin(phi[k]);
+                final int tgtIdx = tgtIndex[k].getIndex(x);
+                tgtRealTiles[k].getDataBuffer().setElemFloatAt(tgtIdx, (float) (amp * cs));
+                tgtImagTiles[k].getDataBuffer().setElemFloatAt(tgtIdx, (float) (amp * sn));
+            }
+            if (tempCohTile != null) {
+                tempCohTile.getDataBuffer().setElemFloatAt(tempCohIndex.getIndex(x), (float) gamma);
+            }
+            if (shpCountTile != null) {
+                shpCountTile.getDataBuffer().setElemIntAt(shpCountIndex.getIndex(x), shpCount);
+            }
+        }
+        batch.count = 0;
+    }
+
+    /**
+     * Sorts the amplitude series of one extended-tile row into the cache. Genuine noData and
+     * zero-extended border pixels (BorderExtender.BORDER_ZERO fills 0) are kept but marked
+     * invalid so they are never selected as SHPs; when noData == 0 both tests coincide.
+     */
+    private void loadAmplitudeRow(final SortedAmplitudeCache amplitudes, final int y, final int extX0, final int extW,
+                                  final ProductData[] reBufs, final ProductData[] imBufs, final TileIndex[] index,
+                                  final double noData, final double[] amp) {
+        for (int k = 0; k < n; k++) index[k].calculateStride(y);
+        for (int x = extX0; x < extX0 + extW; x++) {
+            boolean valid = true;
+            for (int k = 0; k < n; k++) {
+                final int idx = index[k].getIndex(x);
+                final double re = reBufs[k].getElemDoubleAt(idx);
+                final double im = imBufs[k].getElemDoubleAt(idx);
+                if ((re == noData && im == noData) || (re == 0.0 && im == 0.0)) {
+                    valid = false;
+                }
+                amp[k] = Math.sqrt(re * re + im * im);
+            }
+            amplitudes.put(x, y, amp, valid);
+        }
+    }
+
+    /**
+     * Sequential variant of {@link #processPolarisation}: history compressed SLCs precede the epochs
+     * linked in this run, and the SHP samples are gathered once per pixel and handed to
+     * {@link SequentialPhaseLinker}. Epochs already covered by the history are passed through.
+     */
+    private void processPolarisationSequential(final String pol, final List<Epoch> epochs, final Sequence seq,
+                                               final Map<Band, Tile> targetTileMap,
+                                               final Rectangle targetRectangle) {
+
+        final BorderExtender border = BorderExtender.createInstance(BorderExtender.BORDER_ZERO);
+        final int halfAz = windowAzimuth / 2;
+        final int halfRg = windowRange / 2;
+        final Rectangle extRect = new Rectangle(targetRectangle.x - halfRg, targetRectangle.y - halfAz,
+                targetRectangle.width + 2 * halfRg, targetRectangle.height + 2 * halfAz);
+
+        final int numHistory = seq.historyReal.length;
+        final int first = seq.firstEpoch;
+        final int dim = numHistory + n - first;
+        final double noData = epochs.get(0).realBand.getNoDataValue();
+
+        // linked series: history compressed SLCs, then the epochs of this run
+        final Tile[] reTiles = new Tile[dim];
+        final Tile[] imTiles = new Tile[dim];
+        for (int h = 0; h < numHistory; h++) {
+            reTiles[h] = getSourceTile(seq.historyReal[h], extRect, border);
+            imTiles[h] = getSourceTile(seq.historyImag[h], extRect, border);
+        }
+        for (int k = first; k < n; k++) {
+            reTiles[numHistory + k - first] = getSourceTile(epochs.get(k).realBand, extRect, border);
+            imTiles[numHistory + k - first] = getSourceTile(epochs.get(k).imagBand, extRect, border);
+        }
+        final Tile[] archivedRe = new Tile[first];
+        final Tile[] archivedIm = new Tile[first];
+        for (int k = 0; k < first; k++) {
+            archivedRe[k] = getSourceTile(epochs.get(k).realBand, targetRectangle);
+            archivedIm[k] = getSourceTile(epochs.get(k).imagBand, targetRectangle);
+        }
+        final Tile[] historyMask = new Tile[seq.historyMask != null ? seq.historyMask.length : 0];
+        for (int w = 0; w < historyMask.length; w++) {
+            historyMask[w] = getSourceTile(seq.historyMask[w], targetRectangle);
+        }
+
+        final Tile[] tgtRe = new Tile[n];
+        final Tile[] tgtIm = new Tile[n];
+        for (int k = 0; k < n; k++) {
+            tgtRe[k] = targetTileMap.get(targetRealMap.get(epochs.get(k).realBand));
+            tgtIm[k] = targetTileMap.get(targetImagMap.get(epochs.get(k).imagBand));
+        }
+        final int numMinistacks = seq.bounds.length - 1;
+        final Tile[] compRe = new Tile[seq.compressedReal != null ? numMinistacks : 0];
+        final Tile[] compIm = new Tile[compRe.length];
+        for (int k = 0; k < compRe.length; k++) {
+            compRe[k] = targetTileMap.get(seq.compressedReal[k]);
+            compIm[k] = targetTileMap.get(seq.compressedImag[k]);
+        }
+        final Tile[] maskTiles = new Tile[seq.shpMask != null ? seq.shpMask.length : 0];
+        for (int w = 0; w < maskTiles.length; w++) {
+            maskTiles[w] = targetTileMap.get(seq.shpMask[w]);
+        }
+        final Band tempCohBand = tempCohBandMap.get(pol);
+        final Tile tempCohTile = (tempCohBand != null) ? targetTileMap.get(tempCohBand) : null;
+        final Band shpCountBand = shpCountBandMap.get(pol);
+        final Tile shpCountTile = (shpCountBand != null) ? targetTileMap.get(shpCountBand) : null;
+
+        final SHPSelector selector = buildSelector(dim);
+        final SequentialPhaseLinker linker = new SequentialPhaseLinker(numHistory, seq.bounds, buildEstimator(),
+                coherenceBiasCorrection, seq.firstReference);
+        final SHPMask mask = new SHPMask(windowAzimuth, windowRange);
+        final int maxShp = windowAzimuth * windowRange;
+        final double[][] shpRe = new double[maxShp][dim];
+        final double[][] shpIm = new double[maxShp][dim];
+        final double[] centreAmp = new double[dim];
+        final double[] candAmp = new double[dim];
+        final double[] outRe = new double[n];
+        final double[] outIm = new double[n];
+
+        final int xMin = extRect.x, xMax = extRect.x + extRect.width - 1;
+        final boolean reuse = historyMask.length > 0;
+        final SortedAmplitudeCache amplitudes = reuse ? null :
+                new SortedAmplitudeCache(extRect.x, extRect.width, windowAzimuth, dim);
+        if (!reuse) {
+            for (int yy = targetRectangle.y - halfAz; yy < targetRectangle.y + halfAz; yy++) {
+                loadAmplitudeRow(amplitudes, yy, xMin, xMax, reTiles, imTiles, noData, shpRe[0], shpIm[0], candAmp);
+            }
+        }
+
+        for (int y = targetRectangle.y; y < targetRectangle.y + targetRectangle.height; y++) {
+            if (!reuse) {
+                loadAmplitudeRow(amplitudes, y + halfAz, xMin, xMax, reTiles, imTiles, noData, shpRe[0], shpIm[0], candAmp);
+            }
+            for (int x = targetRectangle.x; x < targetRectangle.x + targetRectangle.width; x++) {
+
+                for (int k = 0; k < first; k++) {
+                    outRe[k] = archivedRe[k].getSampleDouble(x, y);
+                    outIm[k] = archivedIm[k].getSampleDouble(x, y);
+                }
+                final boolean centreValid = readSeries(reTiles, imTiles, x, y, noData, shpRe[0], shpIm[0], centreAmp);
+                for (int k = first; k < n; k++) {
+                    outRe[k] = shpRe[0][numHistory + k - first];
+                    outIm[k] = shpIm[0][numHistory + k - first];
+                }
+                mask.clear();
+                float gammaOut = Float.NaN;
+                int shpCount = 0;
+
+                if (centreValid) {
+                    if (reuse) {
+                        for (int w = 0; w < historyMask.length; w++) {
+                            mask.setWord(w, historyMask[w].getSampleInt(x, y));
+                        }
+                    } else {
+                        amplitudes.select(selector, x, y, mask);
+                    }
+                    mask.set(0, 0);
+                    shpCount = 1;
+                    // gather the selected series, centre first; stored masks may name pixels gone invalid
+                    for (int yy = y - halfAz; yy <= y + halfAz; yy++) {
+                        for (int xx = Math.max(x - halfRg, xMin); xx <= Math.min(x + halfRg, xMax); xx++) {
+                            if ((xx == x && yy == y) || !mask.get(xx - x, yy - y)) {
+                                continue;
+                            }
+                            if (readSeries(reTiles, imTiles, xx, yy, noData, shpRe[shpCount], shpIm[shpCount], candAmp)) {
+                                shpCount++;
+                            }
+                        }
+                    }
+
+                    if (shpCount >= minCovarianceSamples) {
+                        final double gamma = linker.link(shpCount, shpRe, shpIm);
+                        gammaOut = (float) gamma;
+                        for (int k = 0; k < compRe.length; k++) {
+                            compRe[k].setSample(x, y, linker.getCompressedRe(k));
+                            compIm[k].setSample(x, y, linker.getCompressedIm(k));
+                        }
+                        if (gamma >= tempCohMin) {
+                            final double[] phi = linker.getPhases();
+                            for (int k = first; k < n; k++) {
+                                final double amp = centreAmp[numHistory + k - first];
+                                outRe[k] = amp * Math.cos(phi[k - first]);
+                                outIm[k] = amp * Math.sin(phi[k - first]);
+                            }
+                        }
+                    } else {
+                        for (int k = 0; k < compRe.length; k++) {
+                            compRe[k].setSample(x, y, 0);
+                            compIm[k].setSample(x, y, 0);
+                        }
+                    }
+                } else {
+                    for (int k = 0; k < compRe.length; k++) {
+                        compRe[k].setSample(x, y, 0);
+                        compIm[k].setSample(x, y, 0);
+                    }
                 }
 
-                // Write linked samples: amplitude from original SLC, phase from estimator.
-                // The reference epoch has phi[refIndex] == 0, so it is written as a real-valued
-                // sample |s_ref|: the operator fixes the estimator's arbitrary global phase by
-                // making the reference the zero-phase datum (single-reference convention, as in
-                // dolphin / MiaplPy / FRInGE). Its original absolute SLC phase is intentionally
-                // discarded; this is downstream-invariant because Interferogram/Coherence/SBAS use
-                // only relative phases arg(s_i conj(s_j)), in which the datum cancels.
                 for (int k = 0; k < n; k++) {
-                    final double amp = centreAmp[k];
-                    final double cs = Math.cos(phi[k]);
-                    final double sn = Math.sin(phi[k]);
-                    final int tgtIdx = tgtIndex[k].getIndex(x);
-                    tgtRealTiles[k].getDataBuffer().setElemFloatAt(tgtIdx, (float) (amp * cs));
-                    tgtImagTiles[k].getDataBuffer().setElemFloatAt(tgtIdx, (float) (amp * sn));
+                    tgtRe[k].setSample(x, y, (float) outRe[k]);
+                    tgtIm[k].setSample(x, y, (float) outIm[k]);
+                }
+                for (int w = 0; w < maskTiles.length; w++) {
+                    maskTiles[w].setSample(x, y, mask.getWord(w));
                 }
                 if (tempCohTile != null) {
-                    tempCohTile.getDataBuffer().setElemFloatAt(tempCohIndex.getIndex(x), (float) gamma);
+                    tempCohTile.setSample(x, y, gammaOut);
                 }
                 if (shpCountTile != null) {
-                    shpCountTile.getDataBuffer().setElemIntAt(shpCountIndex.getIndex(x), shpCount);
+                    shpCountTile.setSample(x, y, centreValid ? shpCount : 0);
                 }
             }
         }
     }
 
+    /**
+     * Tile-based counterpart of the buffer-based row loader, used by the sequential path.
+     */
+    private static void loadAmplitudeRow(final SortedAmplitudeCache amplitudes, final int y,
+                                         final int xMin, final int xMax, final Tile[] reTiles, final Tile[] imTiles,
+                                         final double noData, final double[] re, final double[] im,
+                                         final double[] amp) {
+        for (int x = xMin; x <= xMax; x++) {
+            final boolean valid = readSeries(reTiles, imTiles, x, y, noData, re, im, amp);
+            amplitudes.put(x, y, amp, valid);
+        }
+    }
+
+    /**
+     * Reads the complex series of one pixel. Returns false for noData or zero-extended border samples,
+     * in which case the series may be partially filled.
+     */
+    private static boolean readSeries(final Tile[] reTiles, final Tile[] imTiles, final int x, final int y,
+                                      final double noData, final double[] re, final double[] im,
+                                      final double[] amp) {
+        boolean valid = true;
+        for (int k = 0; k < reTiles.length; k++) {
+            final double r = reTiles[k].getSampleDouble(x, y);
+            final double i = imTiles[k].getSampleDouble(x, y);
+            re[k] = r;
+            im[k] = i;
+            amp[k] = Math.sqrt(r * r + i * i);
+            if ((r == noData && i == noData) || (r == 0.0 && i == 0.0)) {
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
     /**
      * Copies the original SLC sample series to the target (rather than zeroing) so phase linking
      * never degrades the input stack: pixels we can't refine remain usable downstream. The
@@ -715,14 +1176,18 @@ public class PhaseLinkingOp extends Operator {
     }
 
     private SHPSelector buildSelector() {
+        return buildSelector(n);
+    }
+
+    private SHPSelector buildSelector(final int seriesLength) {
         switch (shpTest) {
             case SHP_TEST_AD:
-                return new ADSelector(shpAlpha, n);
+                return new ADSelector(shpAlpha, seriesLength);
             case SHP_TEST_TLOG:
                 return new TLogSelector(shpAlpha);
             case SHP_TEST_KS:
             default:
-                return new KSSelector(shpAlpha, n);
+                return new KSSelector(shpAlpha, seriesLength);
         }
     }
 
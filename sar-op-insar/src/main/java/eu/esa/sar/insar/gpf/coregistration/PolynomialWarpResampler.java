@@ -0,0 +1,406 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.coregistration;
+
+import org.jlinda.core.coregistration.SimpleLUT;
+
+import javax.media.jai.WarpPolynomial;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * Tile resampler for a polynomial warp working directly on primitive float arrays.
+ *
+ * The warp maps reference (destination) pixel centres to secondary (source) pixel
+ * coordinates with the same conventions as JAI's {@link WarpPolynomial}. For every
+ * target row the 2D polynomial collapses into a 1D polynomial in x which is then
+ * stepped across the row with forward differences, so no powers are evaluated per
+ * pixel. Interpolation weights come from a precomputed table indexed by the
+ * sub-pixel fraction.
+ *
+ * Instances are immutable and may be shared between threads.
+ */
+public class PolynomialWarpResampler {
+
+    private final Kernel kernel;
+    private final int degree;
+    private final double[] xCoeffs;
+    private final double[] yCoeffs;
+    private final double preScaleX, preScaleY, postScaleX, postScaleY;
+
+    /**
+     * @param warp   the warp polynomial, or null when reference and secondary are already aligned
+     * @param kernel the interpolation kernel
+     */
+    public PolynomialWarpResampler(final WarpPolynomial warp, final Kernel kernel) {
+        this.kernel = kernel;
+        if (warp == null) {
+            degree = -1;
+            xCoeffs = yCoeffs = null;
+            preScaleX = preScaleY = postScaleX = postScaleY = 1.0;
+        } else {
+            degree = warp.getDegree();
+            xCoeffs = toDouble(warp.getXCoeffs());
+            yCoeffs = toDouble(warp.getYCoeffs());
+            preScaleX = warp.getPreScaleX();
+            preScaleY = warp.getPreScaleY();
+            postScaleX = warp.getPostScaleX();
+            postScaleY = warp.getPostScaleY();
+        }
+    }
+
+    /**
+     * @param xCoeffs source x polynomial coefficients in JAI order (1, x, y, x^2, xy, y^2, ...)
+     * @param yCoeffs source y polynomial coefficients in JAI order
+     * @param kernel  the interpolation kernel
+     */
+    public PolynomialWarpResampler(final double[] xCoeffs, final double[] yCoeffs, final Kernel kernel) {
+        this.kernel = kernel;
+        this.degree = degreeOf(xCoeffs.length);
+        this.xCoeffs = xCoeffs.clone();
+        this.yCoeffs = yCoeffs.clone();
+        preScaleX = preScaleY = postScaleX = postScaleY = 1.0;
+    }
+
+    public Kernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * Computes the source rectangle needed to resample the given target rectangle.
+     *
+     * @param targetRect   the target rectangle
+     * @param sourceWidth  the source raster width
+     * @param sourceHeight the source raster height
+     * @return the source rectangle clipped to the raster, or null if no target pixel maps inside the source
+     */
+    public Rectangle getSourceRectangle(final Rectangle targetRect, final int sourceWidth, final int sourceHeight) {
+        final Rectangle bounds = new Rectangle(0, 0, sourceWidth, sourceHeight);
+        if (degree < 0) {
+            final Rectangle r = targetRect.intersection(bounds);
+            return r.isEmpty() ? null : r;
+        }
+
+        final int w = targetRect.width;
+        final double[] rowX = new double[degree + 1];
+        final double[] rowY = new double[degree + 1];
+        final double[] diffX = new double[degree + 1];
+        final double[] diffY = new double[degree + 1];
+
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int y = targetRect.y; y < targetRect.y + targetRect.height; ++y) {
+            initRow(y, targetRect.x, rowX, rowY, diffX, diffY);
+            for (int i = 0; i < w; ++i) {
+                final double sx = diffX[0] * postScaleX - 0.5;
+                final double sy = diffY[0] * postScaleY - 0.5;
+                if (sx < minX) minX = sx;
+                if (sx > maxX) maxX = sx;
+                if (sy < minY) minY = sy;
+                if (sy > maxY) maxY = sy;
+                step(diffX);
+                step(diffY);
+            }
+        }
+
+        final int x0 = (int) Math.floor(minX) - kernel.leftPad;
+        final int y0 = (int) Math.floor(minY) - kernel.leftPad;
+        final int x1 = (int) Math.floor(maxX) + kernel.rightPad;
+        final int y1 = (int) Math.floor(maxY) + kernel.rightPad;
+        final Rectangle r = new Rectangle(x0, y0, x1 - x0 + 1, y1 - y0 + 1).intersection(bounds);
+        return r.isEmpty() ? null : r;
+    }
+
+    /**
+     * Resamples one float band into the target array. Pixels whose interpolation footprint
+     * falls outside the source raster are set to the no-data value.
+     *
+     * @param targetRect   the target rectangle
+     * @param src          source samples for srcRect, row-major with stride srcRect.width
+     * @param srcRect      the source rectangle as returned by {@link #getSourceRectangle}
+     * @param sourceWidth  the source raster width
+     * @param sourceHeight the source raster height
+     * @param dst          target samples, row-major with stride targetRect.width
+     * @param noDataValue  value written where no interpolation is possible
+     */
+    public void resample(final Rectangle targetRect, final float[] src, final Rectangle srcRect,
+                         final int sourceWidth, final int sourceHeight,
+                         final float[] dst, final float noDataValue) {
+
+        final int w = targetRect.width;
+        final int h = targetRect.height;
+        if (srcRect == null) {
+            Arrays.fill(dst, 0, w * h, noDataValue);
+            return;
+        }
+
+        if (degree < 0) {
+            copyAligned(targetRect, src, srcRect, dst, noDataValue);
+            return;
+        }
+
+        final int len = kernel.length;
+        final int leftPad = kernel.leftPad;
+        final float[] weights = kernel.weights;
+        final double fracScale = kernel.fracScale;
+
+        // footprint limits in source raster coordinates
+        final int minInt = leftPad;
+        final int maxIntX = sourceWidth - kernel.rightPad;
+        final int maxIntY = sourceHeight - kernel.rightPad;
+
+        final int srcStride = srcRect.width;
+        final int sx0 = srcRect.x, sy0 = srcRect.y;
+
+        final double[] rowX = new double[degree + 1];
+        final double[] rowY = new double[degree + 1];
+        final double[] diffX = new double[degree + 1];
+        final double[] diffY = new double[degree + 1];
+
+        int k = 0;
+        for (int y = targetRect.y; y < targetRect.y + h; ++y) {
+            initRow(y, targetRect.x, rowX, rowY, diffX, diffY);
+            for (int i = 0; i < w; ++i, ++k) {
+                final double sx = diffX[0] * postScaleX - 0.5;
+                final double sy = diffY[0] * postScaleY - 0.5;
+                step(diffX);
+                step(diffY);
+
+                final int xInt = (int) Math.floor(sx);
+                final int yInt = (int) Math.floor(sy);
+                if (xInt < minInt || xInt >= maxIntX || yInt < minInt || yInt >= maxIntY) {
+                    dst[k] = noDataValue;
+                    continue;
+                }
+
+                final int wx = (int) ((sx - xInt) * fracScale + 0.5) * len;
+                final int wy = (int) ((sy - yInt) * fracScale + 0.5) * len;
+
+                int rowOffset = (yInt - leftPad - sy0) * srcStride + (xInt - leftPad - sx0);
+                double sum = 0;
+                for (int r = 0; r < len; ++r, rowOffset += srcStride) {
+                    double rowSum = 0;
+                    for (int c = 0; c < len; ++c) {
+                        rowSum += weights[wx + c] * src[rowOffset + c];
+                    }
+                    sum += weights[wy + r] * rowSum;
+                }
+                dst[k] = (float) sum;
+            }
+        }
+    }
+
+    private static void copyAligned(final Rectangle targetRect, final float[] src, final Rectangle srcRect,
+                                    final float[] dst, final float noDataValue) {
+        final int w = targetRect.width;
+        int k = 0;
+        for (int y = targetRect.y; y < targetRect.y + targetRect.height; ++y) {
+            for (int x = targetRect.x; x < targetRect.x + w; ++x, ++k) {
+                dst[k] = srcRect.contains(x, y) ? src[(y - srcRect.y) * srcRect.width + x - srcRect.x] : noDataValue;
+            }
+        }
+    }
+
+    /**
+     * Collapses the warp polynomials for target row y into 1D polynomials in x and
+     * initialises the forward difference tables starting at target column x0.
+     */
+    private void initRow(final int y, final int x0, final double[] rowX, final double[] rowY,
+                         final double[] diffX, final double[] diffY) {
+        final double yc = (y + 0.5) * preScaleY;
+        Arrays.fill(rowX, 0);
+        Arrays.fill(rowY, 0);
+
+        // JAI coefficient order: for n = 0..degree, terms x^(n-j) * y^j for j = 0..n
+        int c = 0;
+        for (int n = 0; n <= degree; ++n) {
+            for (int j = 0; j <= n; ++j, ++c) {
+                final double yPow = pow(yc, j);
+                rowX[n - j] += xCoeffs[c] * yPow;
+                rowY[n - j] += yCoeffs[c] * yPow;
+            }
+        }
+
+        final double xc = (x0 + 0.5) * preScaleX;
+        initDifferences(rowX, xc, preScaleX, diffX);
+        initDifferences(rowY, xc, preScaleX, diffY);
+    }
+
+    /**
+     * Builds the forward difference table of polynomial p sampled at t0, t0+h, ..., t0+d*h.
+     */
+    private static void initDifferences(final double[] p, final double t0, final double h, final double[] diff) {
+        final int d = p.length - 1;
+        for (int i = 0; i <= d; ++i) {
+            diff[i] = horner(p, t0 + i * h);
+        }
+        for (int order = 1; order <= d; ++order) {
+            for (int i = d; i >= order; --i) {
+                diff[i] -= diff[i - 1];
+            }
+        }
+    }
+
+    private static void step(final double[] diff) {
+        for (int i = 0; i < diff.length - 1; ++i) {
+            diff[i] += diff[i + 1];
+        }
+    }
+
+    private static double horner(final double[] p, final double t) {
+        double v = 0;
+        for (int i = p.length - 1; i >= 0; --i) {
+            v = v * t + p[i];
+        }
+        return v;
+    }
+
+    private static double pow(final double v, final int n) {
+        double r = 1;
+        for (int i = 0; i < n; ++i) {
+            r *= v;
+        }
+        return r;
+    }
+
+    private static int degreeOf(final int numCoeffs) {
+        int n = 0;
+        while ((n + 1) * (n + 2) / 2 < numCoeffs) {
+            ++n;
+        }
+        if ((n + 1) * (n + 2) / 2 != numCoeffs) {
+            throw new IllegalArgumentException("Invalid number of warp coefficients " + numCoeffs);
+        }
+        return n;
+    }
+
+    private static double[] toDouble(final float[] values) {
+        final double[] out = new double[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            out[i] = values[i];
+        }
+        return out;
+    }
+
+    /**
+     * Separable interpolation kernel with weights tabulated against the sub-pixel fraction.
+     * Taps for a source coordinate s cover floor(s) - leftPad .. floor(s) + rightPad.
+     */
+    public static class Kernel {
+
+        private static final int SUBSAMPLES = 128;
+
+        final int length;
+        final int leftPad;
+        final int rightPad;
+        final double fracScale;
+        final float[] weights;
+
+        private Kernel(final int length, final int leftPad, final int numRows, final float[] weights) {
+            this.length = length;
+            this.leftPad = leftPad;
+            this.rightPad = length - leftPad - 1;
+            this.fracScale = numRows - 1;
+            this.weights = weights;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Creates the kernel for one of the interpolation methods offered by {@link WarpOp}.
+         */
+        public static Kernel create(final String interpolationMethod) {
+            switch (interpolationMethod) {
+                case WarpOp.NEAREST_NEIGHBOR:
+                    return createNearest();
+                case WarpOp.BILINEAR:
+                    return createBilinear();
+                case WarpOp.BICUBIC:
+                    return createBicubic(-0.5);
+                case WarpOp.BICUBIC2:
+                    return createBicubic(-1.0);
+                case SimpleLUT.CC4P:
+                case SimpleLUT.CC6P:
+                case SimpleLUT.TS6P:
+                case SimpleLUT.TS8P:
+                case SimpleLUT.TS16P:
+                case SimpleLUT.RC6P:
+                    return createFromLUT(interpolationMethod);
+                default:
+                    return createBilinear();
+            }
+        }
+
+        static Kernel createNearest() {
+            final float[] w = new float[(SUBSAMPLES + 1) * 2];
+            for (int i = 0; i <= SUBSAMPLES; ++i) {
+                final boolean left = i < SUBSAMPLES / 2;
+                w[2 * i] = left ? 1 : 0;
+                w[2 * i + 1] = left ? 0 : 1;
+            }
+            return new Kernel(2, 0, SUBSAMPLES + 1, w);
+        }
+
+        static Kernel createBilinear() {
+            final float[] w = new float[(SUBSAMPLES + 1) * 2];
+            for (int i = 0; i <= SUBSAMPLES; ++i) {
+                final double f = i / (double) SUBSAMPLES;
+                w[2 * i] = (float) (1.0 - f);
+                w[2 * i + 1] = (float) f;
+            }
+            return new Kernel(2, 0, SUBSAMPLES + 1, w);
+        }
+
+        /**
+         * Keys cubic convolution with parameter a (-0.5 for JAI bicubic, -1 for bicubic2).
+         */
+        static Kernel createBicubic(final double a) {
+            final float[] w = new float[(SUBSAMPLES + 1) * 4];
+            for (int i = 0; i <= SUBSAMPLES; ++i) {
+                final double f = i / (double) SUBSAMPLES;
+                for (int j = 0; j < 4; ++j) {
+                    final double t = Math.abs(j - 1 - f);
+                    final double v;
+                    if (t < 1) {
+                        v = (a + 2) * t * t * t - (a + 3) * t * t + 1;
+                    } else if (t < 2) {
+                        v = a * t * t * t - 5 * a * t * t + 8 * a * t - 4 * a;
+                    } else {
+                        v = 0;
+                    }
+                    w[4 * i + j] = (float) v;
+                }
+            }
+            return new Kernel(4, 1, SUBSAMPLES + 1, w);
+        }
+
+        static Kernel createFromLUT(final String method) {
+            final SimpleLUT lut = new SimpleLUT(method);
+            lut.constructLUT();
+            final int len = lut.getKernelLength();
+            final int numRows = lut.getKernel().rows;
+            final float[] w = new float[numRows * len];
+            for (int i = 0; i < numRows; ++i) {
+                for (int j = 0; j < len; ++j) {
+                    w[i * len + j] = (float) lut.getKernel().get(i, j);
+                }
+            }
+            return new Kernel(len, len / 2 - 1, numRows, w);
+        }
+    }
+}
@@ -41,6 +41,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Split a stack product into individual products
@@ -185,10 +186,11 @@ public class StackSplitWriter extends Operator {
             if(subsetInfo == null)
                 return;
 
-            subsetInfo.productWriter.writeProductNodes(subsetInfo.subsetProduct, subsetInfo.file);
+            // each subset product is owned by the first thread that reaches it; other subsets proceed concurrently
+            if (subsetInfo.claimed.compareAndSet(false, true)) {
+                subsetInfo.productWriter.writeProductNodes(subsetInfo.subsetProduct, subsetInfo.file);
 
-            final Rectangle trgRect = subsetInfo.subsetBuilder.getSubsetDef().getRegion();
-            if (!subsetInfo.written) {
+                final Rectangle trgRect = subsetInfo.subsetBuilder.getSubsetDef().getRegion();
                 writeTile(subsetInfo, trgRect);
             }
         } catch (Exception e) {
@@ -200,10 +202,8 @@ public class StackSplitWriter extends Operator {
         }
     }
 
-    private synchronized void writeTile(final SubsetInfo info, final Rectangle trgRect)
+    private void writeTile(final SubsetInfo info, final Rectangle trgRect)
             throws IOException {
-        if (info.written) return;
-
         for(Band trgBand : info.subsetProduct.getBands()) {
             final String oldBandName = info.newBandNamingMap.get(trgBand.getName());
             final Tile sourceTile = getSourceTile(sourceProduct.getBand(oldBandName), trgRect);
@@ -213,7 +213,6 @@ public class StackSplitWriter extends Operator {
             info.productWriter.writeBandRasterData(trgBand,
                     0, 0, trgBand.getRasterWidth(), trgBand.getRasterHeight(), rawSamples, ProgressMonitor.NULL);
         }
-        info.written = true;
     }
 
     @Override
@@ -233,7 +232,7 @@ public class StackSplitWriter extends Operator {
         ProductSubsetBuilder subsetBuilder;
         File file;
         ProductWriter productWriter;
-        boolean written = false;
+        final AtomicBoolean claimed = new AtomicBoolean(false);
         final Map<String, String> newBandNamingMap = new HashMap<>();
     }
 
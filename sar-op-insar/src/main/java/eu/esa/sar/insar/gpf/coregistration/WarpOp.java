@@ -16,7 +16,6 @@
 package eu.esa.sar.insar.gpf.coregistration;
 
 import com.bc.ceres.core.ProgressMonitor;
-import eu.esa.sar.insar.gpf.support.JAIFunctions;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
 import org.esa.snap.core.dataop.dem.ElevationModelDescriptor;
@@ -47,11 +46,7 @@ import org.jlinda.core.coregistration.CPM;
 import org.jlinda.core.coregistration.PolynomialModel;
 import org.jlinda.core.coregistration.SimpleLUT;
 
-import javax.media.jai.Interpolation;
-import javax.media.jai.InterpolationTable;
-import javax.media.jai.RenderedOp;
 import java.awt.*;
-import java.awt.image.RenderedImage;
 import java.io.File;
 import java.util.*;
 import java.util.List;
@@ -78,6 +73,9 @@ import java.util.List;
  * 2. Bilinear interpolation
  * 3. Bicubic interpolation
  * 4. Bicubic2 interpolation
+ * 5. Cubic convolution, truncated sinc and raised cosine kernels from a lookup table
+ * <p>
+ * Resampling is done per tile on primitive arrays by {@link PolynomialWarpResampler}.
  */
 
 @OperatorMetadata(alias = "Warp",
@@ -105,7 +103,7 @@ public class WarpOp extends Operator {
     private int warpPolynomialOrder = 2;
 
     @Parameter(valueSet = {NEAREST_NEIGHBOR, BILINEAR, BICUBIC, BICUBIC2,
-            SimpleLUT.TRI, SimpleLUT.CC4P, SimpleLUT.CC6P, SimpleLUT.TS6P, SimpleLUT.TS8P, SimpleLUT.TS16P}, defaultValue = SimpleLUT.CC6P, label = "Interpolation Method")
+            SimpleLUT.TRI, SimpleLUT.CC4P, SimpleLUT.CC6P, SimpleLUT.TS6P, SimpleLUT.TS8P, SimpleLUT.TS16P, SimpleLUT.RC6P}, defaultValue = SimpleLUT.CC6P, label = "Interpolation Method")
     private String interpolationMethod = SimpleLUT.CC6P;
 
     //@Parameter(description = "Optimize for Interferometry",
@@ -123,8 +121,7 @@ public class WarpOp extends Operator {
     @Parameter(defaultValue = "false")
     private boolean excludeMaster = false;
 
-    private Interpolation interp;
-    private InterpolationTable interpTable;
+    private PolynomialWarpResampler.Kernel kernel;
 
     @Parameter(description = "Show the Residuals file in a text viewer", defaultValue = "false", label = "Show Residuals")
     private Boolean openResidualsFile = false;
@@ -157,7 +154,7 @@ public class WarpOp extends Operator {
     private static final String ETAD_PHASE_CORRECTION_PREFIX = "etadPhaseCorrection";
     private static final String ETAD_HEIGHT_PREFIX = "etadHeight";
     private static final String ETAD_GRADIENT_PREFIX = "etadGradient";
-    private Interpolation interpDemodPhase = Interpolation.getInstance(Interpolation.INTERP_BILINEAR);
+    private final PolynomialWarpResampler.Kernel demodPhaseKernel = PolynomialWarpResampler.Kernel.create(BILINEAR);
     private final Map<Band, Band> demodPhaseMap = new HashMap<>(10);
     private final Map<Band, Band> etadBandMap = new HashMap<>(10);
 
@@ -213,38 +210,7 @@ public class WarpOp extends Operator {
                 demRefinement = false;
             }
 
-            switch (interpolationMethod) {
-                case NEAREST_NEIGHBOR:
-                    interp = Interpolation.getInstance(Interpolation.INTERP_NEAREST);
-                    break;
-                case BILINEAR:
-                    interp = Interpolation.getInstance(Interpolation.INTERP_BILINEAR);
-                    break;
-                case BICUBIC:
-                    interp = Interpolation.getInstance(Interpolation.INTERP_BICUBIC);
-                    break;
-                case BICUBIC2:
-                    interp = Interpolation.getInstance(Interpolation.INTERP_BICUBIC_2);
-                    break;
-                case SimpleLUT.CC4P:
-                    constructInterpolationTable(SimpleLUT.CC4P);
-                    break;
-                case SimpleLUT.CC6P:
-                    constructInterpolationTable(SimpleLUT.CC6P);
-                    break;
-                case SimpleLUT.TS6P:
-                    constructInterpolationTable(SimpleLUT.TS6P);
-                    break;
-                case SimpleLUT.TS8P:
-                    constructInterpolationTable(SimpleLUT.TS8P);
-                    break;
-                case SimpleLUT.TS16P:
-                    constructInterpolationTable(SimpleLUT.TS16P);
-                    break;
-                default:
-                    interp = Interpolation.getInstance(Interpolation.INTERP_BILINEAR);
-                    break;
-            }
+            kernel = PolynomialWarpResampler.Kernel.create(interpolationMethod);
 
             final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(sourceProduct);
             if (absRoot != null) {
@@ -460,11 +426,8 @@ public class WarpOp extends Operator {
     @Override
     public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
         final Rectangle targetRectangle = targetTile.getRectangle();
-        final int x0 = targetRectangle.x;
-        final int y0 = targetRectangle.y;
         final int w = targetRectangle.width;
         final int h = targetRectangle.height;
-        //System.out.println("WARPOperator: x0 = " + x0 + ", y0 = " + y0 + ", w = " + w + ", h = " + h);
 
         try {
             if (!warpDataAvailable) {
@@ -501,11 +464,21 @@ public class WarpOp extends Operator {
             if (!warpData.isValid())
                 return;
 
-            // get warped image (demodulation bands can be interpolated linearly)
-            RenderedOp warpedImage = createWarp(srcBand, targetRectangle, warpData);
+            // demodulation bands can be interpolated linearly
+            final PolynomialWarpResampler resampler = new PolynomialWarpResampler(warpData.getJAIWarp(),
+                    srcBand.getName().startsWith(DEMOD_PHASE_PREFIX) ? demodPhaseKernel : kernel);
+
+            final int srcWidth = srcBand.getRasterWidth();
+            final int srcHeight = srcBand.getRasterHeight();
+            final Rectangle sourceRectangle = resampler.getSourceRectangle(targetRectangle, srcWidth, srcHeight);
 
-            // copy warped image data to target
-            final float[] dataArray = warpedImage.getData(targetRectangle).getSamples(x0, y0, w, h, 0, (float[]) null);
+            float[] srcArray = null;
+            if (sourceRectangle != null) {
+                srcArray = getSourceSamples(getSourceTile(srcBand, sourceRectangle), sourceRectangle);
+            }
+
+            final float[] dataArray = new float[w * h];
+            resampler.resample(targetRectangle, srcArray, sourceRectangle, srcWidth, srcHeight, dataArray, 0f);
 
             targetTile.setRawSamples(ProductData.createInstance(dataArray));
 
@@ -516,19 +489,17 @@ public class WarpOp extends Operator {
         }
     }
 
-    private synchronized RenderedOp createWarp(final Band srcBand, final Rectangle targetRectangle,
-                                               final PolynomialModel warpData) {
-        // create source image
-        final Tile sourceRaster = getSourceTile(srcBand, targetRectangle);
-        final RenderedImage srcImage = sourceRaster.getRasterDataNode().getSourceImage();
-
-        if (srcBand.getName().startsWith(DEMOD_PHASE_PREFIX)) {
-            return JAIFunctions.createWarpImage(warpData.getJAIWarp(), srcImage,
-                    interpDemodPhase, null);
-        } else {
-            return JAIFunctions.createWarpImage(warpData.getJAIWarp(), srcImage,
-                    interp, interpTable);
+    private static float[] getSourceSamples(final Tile sourceTile, final Rectangle rect) {
+        final ProductData srcData = sourceTile.getDataBuffer();
+        final float[] samples = new float[rect.width * rect.height];
+        int k = 0;
+        for (int y = rect.y; y < rect.y + rect.height; ++y) {
+            final int offset = sourceTile.getDataBufferIndex(rect.x, y);
+            for (int x = 0; x < rect.width; ++x) {
+                samples[k++] = srcData.getElemFloatAt(offset + x);
+            }
         }
+        return samples;
     }
 
     private synchronized void createDEM() {
@@ -805,30 +776,6 @@ public class WarpOp extends Operator {
         }
     }
 
-    private void constructInterpolationTable(String interpolationMethod) {
-
-        // construct interpolation LUT
-        SimpleLUT lut = new SimpleLUT(interpolationMethod);
-        lut.constructLUT();
-
-        int kernelLength = lut.getKernelLength();
-
-        // get LUT and cast it to float for JAI
-        double[] lutArrayDoubles = lut.getKernelAsArray();
-        float lutArrayFloats[] = new float[lutArrayDoubles.length];
-        int i = 0;
-        for (double lutElement : lutArrayDoubles) {
-            lutArrayFloats[i++] = (float) lutElement;
-        }
-
-        // construct interpolation table for JAI resampling
-        final int subsampleBits = 7;
-        final int precisionBits = 32;
-        int padding = kernelLength / 2 - 1;
-
-        interpTable = new InterpolationTable(padding, kernelLength, subsampleBits, precisionBits, lutArrayFloats);
-    }
-
     public static File getResidualsFile(final Product sourceProduct) {
         final String fileName = sourceProduct.getName() + "_residual.txt";
         return new File(ResourceUtils.getReportFolder(), fileName);
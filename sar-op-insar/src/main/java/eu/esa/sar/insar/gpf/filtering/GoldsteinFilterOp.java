@@ -618,8 +618,8 @@ public class GoldsteinFilterOp extends Operator {
         }
     }
 
-    private static void perform2DFFT(final double[][] I, final double[][] Q,
-                                     final double[][] specI, final double[][] specQ) {
+    static void perform2DFFT(final double[][] I, final double[][] Q,
+                             final double[][] specI, final double[][] specQ) {
 
         final int rowMax = I.length;
         final int colMax = I[0].length;
@@ -661,7 +661,7 @@ public class GoldsteinFilterOp extends Operator {
         }
     }
 
-    private static void getPowerSpectrum(final double[][] specI, final double[][] specQ, final double[][] pwrSpec) {
+    static void getPowerSpectrum(final double[][] specI, final double[][] specQ, final double[][] pwrSpec) {
 
         final int rowMax = specI.length;
         final int colMax = specI[0].length;
@@ -704,7 +704,7 @@ public class GoldsteinFilterOp extends Operator {
         return a;
     }
 
-    private static void getFilteredPowerSpectrum(
+    static void getFilteredPowerSpectrum(
             final double[][] pwrSpec, final double[][] fltSpec, final double alpha, final int halfWindowSize) {
 
         final int rowMax = pwrSpec.length;
@@ -737,8 +737,8 @@ public class GoldsteinFilterOp extends Operator {
         }
     }
 
-    private static void performInverse2DFFT(final double[][] specI, final double[][] specQ, final double[][] fltSpec,
-                                            final double[][] I, final double[][] Q) {
+    static void performInverse2DFFT(final double[][] specI, final double[][] specQ, final double[][] fltSpec,
+                                    final double[][] I, final double[][] Q) {
 
         final int rowMax = I.length;
         final int colMax = I[0].length;
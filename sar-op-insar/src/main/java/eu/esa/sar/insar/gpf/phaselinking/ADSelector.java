@@ -141,4 +141,26 @@ public final class ADSelector implements SHPSelector {
 
         return T <= criticalT;
     }
+
+    @Override
+    public boolean acceptSorted(final float[] sorted, final int centreOffset, final int candidateOffset,
+                                final int n) {
+        final int N = 2 * n;
+        final int endA = centreOffset + n;
+        final int endB = candidateOffset + n;
+        int ia = centreOffset, ib = candidateOffset;
+        int M = 0;
+        double S = 0.0;
+        for (int j = 1; j < N; j++) {
+            if (ia < endA && (ib >= endB || sorted[ia] <= sorted[ib])) {
+                M++;
+                ia++;
+            } else {
+                ib++;
+            }
+            final double num = (double) N * M - (double) j * n;
+            S += (num * num) / ((double) j * (N - j));
+        }
+        return (normFactor * S - 1.0) / sigma <= criticalT;
+    }
 }
@@ -0,0 +1,550 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.phaselinking;
+
+import java.util.Arrays;
+
+/**
+ * Extremal eigenvector of a block of n x n Hermitian matrices stored packed.
+ *
+ * Phase linking needs one eigenvector per pixel: the dominant one of T_hat for EVD
+ * and the one of the smallest eigenvalue of Gamma^{-1} (Hadamard) T_hat for EMI.
+ * Each matrix is stored as its upper triangle, row by row, as interleaved (re, im)
+ * doubles, {@link #packedSize(int)} values per matrix. Double precision matters for
+ * EMI, whose smallest eigenvector of Gamma^{-1} (Hadamard) T_hat is ill-conditioned. The eigenpair comes from a
+ * Lanczos iteration with full reorthogonalisation started from the previous matrix's
+ * eigenvector, which for neighbouring pixels is already close, so a handful of O(n^2)
+ * steps usually replace the O(n^4) Jacobi sweep of {@link HermitianEigSolver}.
+ * The Ritz pair of the small tridiagonal matrix is found by Sturm bisection and
+ * inverse iteration. A matrix whose Ritz residual is still above the tolerance
+ * after the iteration limit falls back to the full decomposition.
+ *
+ * Instances hold work buffers and the warm start, so use one per thread.
+ */
+public final class BatchedHermitianEigSolver {
+
+    public enum Target {LARGEST, SMALLEST}
+
+    private static final int DEFAULT_MAX_ITERATIONS = 60;
+    private static final double DEFAULT_TOLERANCE = 1.0e-9;
+
+    private final int n;
+    private final int maxIterations;
+    private final double tolerance;
+
+    private final double[] vr, vi, wr, wi;
+    // Lanczos basis, one vector per row, and the tridiagonal matrix
+    private final double[][] qRe, qIm;
+    private final double[] alpha, beta, ritz, work, diag, upper;
+    private final double[][] warmRe = new double[2][];
+    private final double[][] warmIm = new double[2][];
+    private double[][] fullRe, fullIm, eigRe, eigIm;
+    private double[] eigVal;
+
+    private long numIterations;
+    private int numFallbacks;
+
+    public BatchedHermitianEigSolver(final int n) {
+        this(n, DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param n             matrix dimension
+     * @param maxIterations Lanczos steps before falling back to the full decomposition
+     * @param tolerance     Ritz residual ||A v - lambda v||, relative to the largest Ritz value magnitude
+     */
+    public BatchedHermitianEigSolver(final int n, final int maxIterations, final double tolerance) {
+        this.n = n;
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+        this.vr = new double[n];
+        this.vi = new double[n];
+        this.wr = new double[n];
+        this.wi = new double[n];
+        final int steps = Math.min(n, maxIterations);
+        this.qRe = new double[steps][n];
+        this.qIm = new double[steps][n];
+        this.alpha = new double[steps];
+        this.beta = new double[steps];
+        this.ritz = new double[steps];
+        this.work = new double[steps];
+        this.diag = new double[steps];
+        this.upper = new double[steps];
+    }
+
+    /**
+     * @return values per packed n x n Hermitian matrix
+     */
+    public static int packedSize(final int n) {
+        return n * (n + 1);
+    }
+
+    /**
+     * @return offset of element (i, j), i &lt;= j, within one packed matrix
+     */
+    public static int packedIndex(final int n, final int i, final int j) {
+        return 2 * (i * n - i * (i - 1) / 2 + j - i);
+    }
+
+    /**
+     * Packs the upper triangle of A = re + i im into dst at offset.
+     */
+    public static void pack(final int n, final double[][] re, final double[][] im,
+                            final double[] dst, final int offset) {
+        int p = offset;
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                dst[p++] = re[i][j];
+                dst[p++] = im[i][j];
+            }
+        }
+    }
+
+    /** Forgets the warm start, e.g. at the start of a tile that is not adjacent to the last one. */
+    public void resetWarmStart() {
+        Arrays.fill(warmRe, null);
+        Arrays.fill(warmIm, null);
+    }
+
+    /** @return iterations spent since construction, for diagnostics */
+    public long getNumIterations() {
+        return numIterations;
+    }
+
+    /** @return matrices solved by the full decomposition since construction */
+    public int getNumFallbacks() {
+        return numFallbacks;
+    }
+
+    /**
+     * Solves count packed matrices in order, each warm-started from the previous solution.
+     *
+     * @param target  which extremal eigenpair to compute
+     * @param packed  count consecutive packed matrices
+     * @param count   number of matrices
+     * @param vecRe   count * n output eigenvector real parts, unit norm
+     * @param vecIm   count * n output eigenvector imaginary parts
+     * @param values  count output eigenvalues, or null
+     */
+    public void solve(final Target target, final double[] packed, final int count,
+                      final double[] vecRe, final double[] vecIm, final double[] values) {
+        final int t = target.ordinal();
+        final int stride = packedSize(n);
+        for (int m = 0; m < count; m++) {
+            final int off = m * stride;
+            if (warmRe[t] == null) {
+                warmRe[t] = new double[n];
+                warmIm[t] = new double[n];
+                Arrays.fill(warmRe[t], 1.0 / Math.sqrt(n));
+            }
+            System.arraycopy(warmRe[t], 0, vr, 0, n);
+            System.arraycopy(warmIm[t], 0, vi, 0, n);
+
+            double lambda = lanczos(target, packed, off);
+            if (Double.isNaN(lambda)) {
+                lambda = fullDecomposition(target, packed, off);
+                numFallbacks++;
+            }
+
+            System.arraycopy(vr, 0, vecRe, m * n, n);
+            System.arraycopy(vi, 0, vecIm, m * n, n);
+            System.arraycopy(vr, 0, warmRe[t], 0, n);
+            System.arraycopy(vi, 0, warmIm[t], 0, n);
+            if (values != null) {
+                values[m] = lambda;
+            }
+        }
+    }
+
+    /**
+     * Lanczos from (vr, vi). Leaves the unit Ritz vector in (vr, vi).
+     *
+     * @return the Ritz value, or NaN if the residual did not reach the tolerance
+     */
+    private double lanczos(final Target target, final double[] a, final int off) {
+        if (!normaliseInto(vr, vi, qRe[0], qIm[0])) {
+            return Double.NaN;
+        }
+        final int maxSteps = qRe.length;
+        double scale = 0.0;
+        for (int j = 0; j < maxSteps; j++) {
+            numIterations++;
+            final double[] qr = qRe[j], qi = qIm[j];
+            multiply(a, off, qr, qi, wr, wi);
+
+            double aj = 0.0;
+            for (int i = 0; i < n; i++) {
+                aj += qr[i] * wr[i] + qi[i] * wi[i];
+            }
+            alpha[j] = aj;
+            // full reorthogonalisation against the basis, which also removes alpha and beta terms
+            for (int pass = 0; pass < 2; pass++) {
+                for (int k = 0; k <= j; k++) {
+                    final double[] kr = qRe[k], ki = qIm[k];
+                    double cr = 0.0, ci = 0.0;
+                    for (int i = 0; i < n; i++) {
+                        cr += kr[i] * wr[i] + ki[i] * wi[i];
+                        ci += kr[i] * wi[i] - ki[i] * wr[i];
+                    }
+                    for (int i = 0; i < n; i++) {
+                        wr[i] -= cr * kr[i] - ci * ki[i];
+                        wi[i] -= cr * ki[i] + ci * kr[i];
+                    }
+                }
+            }
+            double bj = 0.0;
+            for (int i = 0; i < n; i++) {
+                bj += wr[i] * wr[i] + wi[i] * wi[i];
+            }
+            bj = Math.sqrt(bj);
+            beta[j] = bj;
+
+            final int k = j + 1;
+            final double theta = extremalRitzValue(target, k);
+            ritzVector(theta, k);
+            scale = Math.max(scale, Math.abs(theta));
+            // an invariant subspace need not hold the wanted eigenvector, so it only ends the
+            // iteration once the basis spans the whole space
+            final boolean breakdown = bj <= 1.0e-12 * Math.max(scale, Double.MIN_NORMAL);
+            if (j == n - 1 || (!breakdown && bj * Math.abs(ritz[j]) <= tolerance * scale)) {
+                for (int i = 0; i < n; i++) {
+                    double sr = 0.0, si = 0.0;
+                    for (int m = 0; m < k; m++) {
+                        sr += ritz[m] * qRe[m][i];
+                        si += ritz[m] * qIm[m][i];
+                    }
+                    vr[i] = sr;
+                    vi[i] = si;
+                }
+                normalise(vr, vi);
+                return theta;
+            }
+            if (j + 1 < maxSteps) {
+                if (breakdown) {
+                    beta[j] = 0.0;
+                    restartVector(j + 1);
+                } else {
+                    final double inv = 1.0 / bj;
+                    for (int i = 0; i < n; i++) {
+                        qRe[j + 1][i] = wr[i] * inv;
+                        qIm[j + 1][i] = wi[i] * inv;
+                    }
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Continues the basis after a breakdown with the first unit vector that is not
+     * already (nearly) in its span.
+     */
+    private void restartVector(final int j) {
+        final double[] qr = qRe[j], qi = qIm[j];
+        for (int e = 0; e < n; e++) {
+            Arrays.fill(qr, 0.0);
+            Arrays.fill(qi, 0.0);
+            qr[e] = 1.0;
+            for (int pass = 0; pass < 2; pass++) {
+                for (int k = 0; k < j; k++) {
+                    final double[] kr = qRe[k], ki = qIm[k];
+                    final double cr = dotRe(kr, ki, qr, qi), ci = dotIm(kr, ki, qr, qi);
+                    for (int i = 0; i < n; i++) {
+                        qr[i] -= cr * kr[i] - ci * ki[i];
+                        qi[i] -= cr * ki[i] + ci * kr[i];
+                    }
+                }
+            }
+            double norm = 0.0;
+            for (int i = 0; i < n; i++) {
+                norm += qr[i] * qr[i] + qi[i] * qi[i];
+            }
+            if (norm > 0.01) {
+                normalise(qr, qi);
+                return;
+            }
+        }
+    }
+
+    /** Re(x^H y) */
+    private static double dotRe(final double[] xr, final double[] xi, final double[] yr, final double[] yi) {
+        double s = 0.0;
+        for (int i = 0; i < xr.length; i++) {
+            s += xr[i] * yr[i] + xi[i] * yi[i];
+        }
+        return s;
+    }
+
+    /** Im(x^H y) */
+    private static double dotIm(final double[] xr, final double[] xi, final double[] yr, final double[] yi) {
+        double s = 0.0;
+        for (int i = 0; i < xr.length; i++) {
+            s += xr[i] * yi[i] - xi[i] * yr[i];
+        }
+        return s;
+    }
+
+    /**
+     * Largest or smallest eigenvalue of the k x k tridiagonal (alpha, beta) by Sturm bisection.
+     */
+    private double extremalRitzValue(final Target target, final int k) {
+        double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < k; i++) {
+            final double r = (i > 0 ? Math.abs(beta[i - 1]) : 0.0) + (i < k - 1 ? Math.abs(beta[i]) : 0.0);
+            lo = Math.min(lo, alpha[i] - r);
+            hi = Math.max(hi, alpha[i] + r);
+        }
+        // the largest eigenvalue is the bound where k - 1 eigenvalues lie below, the smallest where none do
+        final int wanted = target == Target.LARGEST ? k - 1 : 0;
+        final double eps = 1.0e-15 * Math.max(Math.abs(lo), Math.abs(hi));
+        while (hi - lo > eps) {
+            final double mid = 0.5 * (lo + hi);
+            if (mid <= lo || mid >= hi) {
+                break;
+            }
+            if (countBelow(k, mid) > wanted) {
+                hi = mid;
+            } else {
+                lo = mid;
+            }
+        }
+        return 0.5 * (lo + hi);
+    }
+
+    /** Number of eigenvalues of the k x k tridiagonal below x (Sturm sequence). */
+    private int countBelow(final int k, final double x) {
+        int count = 0;
+        double d = 1.0;
+        for (int i = 0; i < k; i++) {
+            final double b2 = i > 0 ? beta[i - 1] * beta[i - 1] : 0.0;
+            d = alpha[i] - x - (i > 0 ? b2 / d : 0.0);
+            if (d == 0.0) {
+                d = -1.0e-300;
+            }
+            if (d < 0.0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Unit eigenvector of the k x k tridiagonal for the Ritz value theta into ritz,
+     * by two steps of inverse iteration with the Thomas algorithm.
+     */
+    private void ritzVector(final double theta, final int k) {
+        double scale = 0.0;
+        for (int i = 0; i < k; i++) {
+            scale = Math.max(scale, Math.abs(alpha[i]) + (i < k - 1 ? Math.abs(beta[i]) : 0.0));
+        }
+        Arrays.fill(ritz, 0, k, 0.0);
+        if (!(scale > 0.0)) {
+            // zero matrix: every vector is an eigenvector
+            ritz[0] = 1.0;
+            return;
+        }
+        final double shift = theta + 1.0e-10 * scale;
+        Arrays.fill(ritz, 0, k, 1.0);
+        for (int it = 0; it < 2; it++) {
+            // Thomas algorithm on T - shift I, no pivoting; tiny pivots are nudged off zero
+            for (int i = 0; i < k; i++) {
+                diag[i] = alpha[i] - shift;
+                upper[i] = i < k - 1 ? beta[i] : 0.0;
+                work[i] = ritz[i];
+            }
+            for (int i = 1; i < k; i++) {
+                if (Math.abs(diag[i - 1]) < 1.0e-14 * scale) {
+                    diag[i - 1] = 1.0e-14 * scale;
+                }
+                final double m = beta[i - 1] / diag[i - 1];
+                diag[i] -= m * upper[i - 1];
+                work[i] -= m * work[i - 1];
+            }
+            if (Math.abs(diag[k - 1]) < 1.0e-14 * scale) {
+                diag[k - 1] = 1.0e-14 * scale;
+            }
+            ritz[k - 1] = work[k - 1] / diag[k - 1];
+            for (int i = k - 2; i >= 0; i--) {
+                ritz[i] = (work[i] - upper[i] * ritz[i + 1]) / diag[i];
+            }
+            double norm = 0.0;
+            for (int i = 0; i < k; i++) {
+                norm += ritz[i] * ritz[i];
+            }
+            norm = 1.0 / Math.sqrt(norm);
+            for (int i = 0; i < k; i++) {
+                ritz[i] *= norm;
+            }
+        }
+    }
+
+    /** w = A v for packed Hermitian A. */
+    private void multiply(final double[] a, final int off, final double[] xr, final double[] xi,
+                          final double[] yr, final double[] yi) {
+        Arrays.fill(yr, 0.0);
+        Arrays.fill(yi, 0.0);
+        int p = off;
+        for (int i = 0; i < n; i++) {
+            final double d = a[p];
+            p += 2;
+            final double xri = xr[i], xii = xi[i];
+            double sr = d * xri, si = d * xii;
+            for (int j = i + 1; j < n; j++) {
+                final double ar = a[p], ai = a[p + 1];
+                p += 2;
+                sr += ar * xr[j] - ai * xi[j];
+                si += ar * xi[j] + ai * xr[j];
+                // lower triangle: conj(a_ij) x_i
+                yr[j] += ar * xri + ai * xii;
+                yi[j] += ar * xii - ai * xri;
+            }
+            yr[i] += sr;
+            yi[i] += si;
+        }
+    }
+
+    private double fullDecomposition(final Target target, final double[] a, final int off) {
+        if (fullRe == null) {
+            fullRe = new double[n][n];
+            fullIm = new double[n][n];
+            eigRe = new double[n][n];
+            eigIm = new double[n][n];
+            eigVal = new double[n];
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                final int p = off + packedIndex(n, i, j);
+                fullRe[i][j] = a[p];
+                fullIm[i][j] = a[p + 1];
+                fullRe[j][i] = a[p];
+                fullIm[j][i] = -a[p + 1];
+            }
+            fullIm[i][i] = 0.0;
+        }
+        HermitianEigSolver.decompose(n, fullRe, fullIm, eigRe, eigIm, eigVal);
+        final int c = target == Target.LARGEST ? 0 : n - 1;
+        for (int i = 0; i < n; i++) {
+            vr[i] = eigRe[i][c];
+            vi[i] = eigIm[i][c];
+        }
+        normalise(vr, vi);
+        return eigVal[c];
+    }
+
+    private static void normalise(final double[] re, final double[] im) {
+        normaliseInto(re, im, re, im);
+    }
+
+    private static boolean normaliseInto(final double[] re, final double[] im, final double[] outRe,
+                                         final double[] outIm) {
+        double s = 0.0;
+        for (int i = 0; i < re.length; i++) {
+            s += re[i] * re[i] + im[i] * im[i];
+        }
+        if (!(s > 1.0e-300) || Double.isInfinite(s)) {
+            return false;
+        }
+        final double inv = 1.0 / Math.sqrt(s);
+        for (int i = 0; i < re.length; i++) {
+            outRe[i] = re[i] * inv;
+            outIm[i] = im[i] * inv;
+        }
+        return true;
+    }
+
+    /**
+     * One solver and packing buffer per matrix size, for the estimators, whose size changes
+     * between ministacks of a sequential run.
+     */
+    static final class BySize {
+
+        private BatchedHermitianEigSolver[] solvers = new BatchedHermitianEigSolver[0];
+        private double[] packed = new double[0];
+
+        /**
+         * Packs count matrices and solves them in one call, each warm-started from the previous one.
+         *
+         * @param outRe at least count * n output eigenvector real parts
+         * @param outIm at least count * n output eigenvector imaginary parts
+         */
+        void solve(final Target target, final int n, final int count, final double[][][] re,
+                   final double[][][] im, final double[] outRe, final double[] outIm) {
+            if (n >= solvers.length) {
+                solvers = Arrays.copyOf(solvers, n + 1);
+            }
+            if (solvers[n] == null) {
+                solvers[n] = new BatchedHermitianEigSolver(n);
+            }
+            final int size = packedSize(n);
+            if (packed.length < count * size) {
+                packed = new double[count * size];
+            }
+            for (int m = 0; m < count; m++) {
+                pack(n, re[m], im[m], packed, m * size);
+            }
+            solvers[n].solve(target, packed, count, outRe, outIm, null);
+        }
+    }
+
+    /**
+     * Inverse of a real symmetric positive definite matrix by Cholesky decomposition.
+     *
+     * @return false if the matrix is not numerically positive definite, in which case inv is undefined
+     */
+    public static boolean invertSymmetric(final int n, final double[][] a, final double[][] inv) {
+        final double[][] l = new double[n][n];
+        double scale = 0.0;
+        for (int i = 0; i < n; i++) {
+            scale = Math.max(scale, Math.abs(a[i][i]));
+        }
+        for (int j = 0; j < n; j++) {
+            double d = a[j][j];
+            for (int k = 0; k < j; k++) {
+                d -= l[j][k] * l[j][k];
+            }
+            if (!(d > 1.0e-12 * scale)) {
+                return false;
+            }
+            l[j][j] = Math.sqrt(d);
+            for (int i = j + 1; i < n; i++) {
+                double s = a[i][j];
+                for (int k = 0; k < j; k++) {
+                    s -= l[i][k] * l[j][k];
+                }
+                l[i][j] = s / l[j][j];
+            }
+        }
+        // columns of L^{-T} L^{-1}: solve L y = e_c, then L^T x = y
+        final double[] y = new double[n];
+        for (int c = 0; c < n; c++) {
+            for (int i = 0; i < n; i++) {
+                double s = i == c ? 1.0 : 0.0;
+                for (int k = c; k < i; k++) {
+                    s -= l[i][k] * y[k];
+                }
+                y[i] = i < c ? 0.0 : s / l[i][i];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                double s = y[i];
+                for (int k = i + 1; k < n; k++) {
+                    s -= l[k][i] * inv[k][c];
+                }
+                inv[i][c] = s / l[i][i];
+            }
+        }
+        return true;
+    }
+}
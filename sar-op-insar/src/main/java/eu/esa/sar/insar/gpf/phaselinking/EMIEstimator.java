@@ -26,22 +26,66 @@ package eu.esa.sar.insar.gpf.phaselinking;
  *
  * where {@code Gamma^{-1}} is the (real, symmetric) MATRIX inverse of the
  * coherence-magnitude matrix and the Hadamard product is taken with the
- * complex sample coherence T_hat. M is Hermitian, so its eigen-pairs come
- * straight from {@link HermitianEigSolver#decompose} (eigenvalues descending,
- * so the EMI eigenvector is the last column). The inverse-magnitude weighting
+ * complex sample coherence T_hat. M is Hermitian and, by the Schur product
+ * theorem, positive definite, so only its smallest eigenpair is computed. The
+ * inverse-magnitude weighting
  * down-weights low-coherence (long-baseline) pairs, which is exactly where
  * EVD's equal weighting of noisy phases hurts.
  *
  * Gamma is positive-(semi-)definite; near-singular cases (e.g. a degenerate
  * rank-1 T_hat) fall back to a pseudo-inverse via the eigen-floor.
+ *
+ * Gamma is inverted by Cholesky when positive definite and the eigenvector of M
+ * comes from a Lanczos iteration with full reorthogonalisation, warm-started from
+ * the previous pixel ({@link BatchedHermitianEigSolver}), so an instance should
+ * serve one thread walking neighbouring pixels, best a row at a time through the
+ * batch method.
  */
 public final class EMIEstimator implements PhaseEstimator {
 
     private static final double EIG_FLOOR = 1.0e-9;
 
+    private final BatchedHermitianEigSolver.BySize solver = new BatchedHermitianEigSolver.BySize();
+    private double[] vr = new double[0];
+    private double[] vi = new double[0];
+    private double[][][] mRe = new double[0][][];
+    private double[][][] mIm = new double[0][][];
+
     @Override
     public void estimate(final int n, final double[][] tRe, final double[][] tIm,
                          final int refIdx, final double[] phi) {
+        estimate(n, 1, new double[][][]{tRe}, new double[][][]{tIm}, refIdx, new double[][]{phi});
+    }
+
+    @Override
+    public void estimate(final int n, final int count, final double[][][] tRe, final double[][][] tIm,
+                         final int refIdx, final double[][] phi) {
+
+        if (mRe.length < count || (count > 0 && mRe[0].length != n)) {
+            mRe = new double[count][n][n];
+            mIm = new double[count][n][n];
+        }
+        for (int m = 0; m < count; m++) {
+            weight(n, tRe[m], tIm[m], mRe[m], mIm[m]);
+        }
+
+        // Smallest-eigenvalue eigenvectors of the Hermitian M.
+        if (vr.length < count * n) {
+            vr = new double[count * n];
+            vi = new double[count * n];
+        }
+        solver.solve(BatchedHermitianEigSolver.Target.SMALLEST, n, count, mRe, mIm, vr, vi);
+
+        for (int m = 0; m < count; m++) {
+            EVDEstimator.toPhases(n, vr, vi, m * n, refIdx, phi[m]);
+        }
+    }
+
+    /**
+     * M = Gamma^{-1} (Hadamard) T_hat.
+     */
+    private static void weight(final int n, final double[][] tRe, final double[][] tIm,
+                               final double[][] mRe, final double[][] mIm) {
 
         // Gamma = |T_hat| (real, symmetric, unit diagonal).
         final double[][] gammaRe = new double[n][n];
@@ -54,31 +98,16 @@ public final class EMIEstimator implements PhaseEstimator {
 
         // Gamma^{-1} (real, symmetric; pseudo-inverse if near-singular).
         final double[][] invRe = new double[n][n];
-        final double[][] invIm = new double[n][n];
-        HermitianEigSolver.invert(n, gammaRe, gammaIm, invRe, invIm, EIG_FLOOR);
+        if (!BatchedHermitianEigSolver.invertSymmetric(n, gammaRe, invRe)) {
+            HermitianEigSolver.invert(n, gammaRe, gammaIm, invRe, new double[n][n], EIG_FLOOR);
+        }
 
-        // M = Gamma^{-1} (Hadamard) T_hat. Gamma^{-1} is real, so M_ij = invRe_ij * T_hat_ij.
-        final double[][] mRe = new double[n][n];
-        final double[][] mIm = new double[n][n];
+        // Gamma^{-1} is real, so M_ij = invRe_ij * T_hat_ij.
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 mRe[i][j] = invRe[i][j] * tRe[i][j];
                 mIm[i][j] = invRe[i][j] * tIm[i][j];
             }
         }
-
-        // Smallest-eigenvalue eigenvector of the Hermitian M (last column, since
-        // HermitianEigSolver returns eigenvalues in descending order).
-        final double[][] vr = new double[n][n];
-        final double[][] vi = new double[n][n];
-        final double[] lambda = new double[n];
-        HermitianEigSolver.decompose(n, mRe, mIm, vr, vi, lambda);
-        final int c = n - 1;
-
-        final double refArg = Math.atan2(vi[refIdx][c], vr[refIdx][c]);
-        for (int k = 0; k < n; k++) {
-            phi[k] = Math.atan2(vi[k][c], vr[k][c]) - refArg;
-        }
-        phi[refIdx] = 0.0;
     }
 }
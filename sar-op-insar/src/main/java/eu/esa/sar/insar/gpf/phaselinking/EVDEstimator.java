@@ -24,25 +24,46 @@ package eu.esa.sar.insar.gpf.phaselinking;
  *   u = argmax_v (v^H T_hat v)  s.t.  ||v|| = 1
  *
  * The per-epoch phase is phi_n = arg(u_n) - arg(u_ref).
+ *
+ * u comes from {@link BatchedHermitianEigSolver}, warm-started from the previous
+ * pixel, so an instance should serve one thread walking neighbouring pixels, best
+ * handed over a row at a time through the batch method.
  */
 public final class EVDEstimator implements PhaseEstimator {
 
+    private final BatchedHermitianEigSolver.BySize solver = new BatchedHermitianEigSolver.BySize();
+    private double[] vr = new double[0];
+    private double[] vi = new double[0];
+
     @Override
     public void estimate(final int n, final double[][] tRe, final double[][] tIm,
                          final int refIdx, final double[] phi) {
+        estimate(n, 1, new double[][][]{tRe}, new double[][][]{tIm}, refIdx, new double[][]{phi});
+    }
 
-        final double[][] vr = new double[n][n];
-        final double[][] vi = new double[n][n];
-        final double[] lambda = new double[n];
+    @Override
+    public void estimate(final int n, final int count, final double[][][] tRe, final double[][][] tIm,
+                         final int refIdx, final double[][] phi) {
 
-        HermitianEigSolver.decompose(n, tRe, tIm, vr, vi, lambda);
+        if (vr.length < count * n) {
+            vr = new double[count * n];
+            vi = new double[count * n];
+        }
+        solver.solve(BatchedHermitianEigSolver.Target.LARGEST, n, count, tRe, tIm, vr, vi);
 
-        // dominant eigenvector is column 0 after descending sort
-        final double refRe = vr[refIdx][0];
-        final double refIm = vi[refIdx][0];
-        final double refArg = Math.atan2(refIm, refRe);
+        for (int m = 0; m < count; m++) {
+            toPhases(n, vr, vi, m * n, refIdx, phi[m]);
+        }
+    }
+
+    /**
+     * Per-epoch phases of the eigenvector at offset in (vr, vi), relative to the reference epoch.
+     */
+    static void toPhases(final int n, final double[] vr, final double[] vi, final int offset,
+                         final int refIdx, final double[] phi) {
+        final double refArg = Math.atan2(vi[offset + refIdx], vr[offset + refIdx]);
         for (int k = 0; k < n; k++) {
-            phi[k] = Math.atan2(vi[k][0], vr[k][0]) - refArg;
+            phi[k] = Math.atan2(vi[offset + k], vr[offset + k]) - refArg;
         }
         phi[refIdx] = 0.0;
     }
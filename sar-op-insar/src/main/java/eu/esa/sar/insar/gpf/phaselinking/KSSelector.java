@@ -110,4 +110,26 @@ public final class KSSelector implements SHPSelector {
 
         return d <= criticalD;
     }
+
+    @Override
+    public boolean acceptSorted(final float[] sorted, final int centreOffset, final int candidateOffset,
+                                final int n) {
+        // |F_a - F_b| = |ia - ib| / n; once one series is exhausted the gap can only close,
+        // so the walk stops there and rejects as soon as the gap exceeds the critical value.
+        final double limit = criticalD * n;
+        final int endA = centreOffset + n;
+        final int endB = candidateOffset + n;
+        int ia = centreOffset, ib = candidateOffset;
+        while (ia < endA && ib < endB) {
+            if (sorted[ia] <= sorted[ib]) {
+                ia++;
+            } else {
+                ib++;
+            }
+            if (Math.abs((ia - centreOffset) - (ib - candidateOffset)) > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -22,7 +22,8 @@ package eu.esa.sar.insar.gpf.phaselinking;
  * Ferretti SqueeSAR 2011) and {@link EMIEstimator} (smallest eigenvector of
  * |T_hat|^{-1} (elementwise) * T_hat, Ansari/De Zan/Bamler 2018).
  *
- * Future v2: iterative MLE / CRLB refinement, sequential / ministack PL.
+ * Sequential ministack linking builds on this interface, see {@link SequentialPhaseLinker}.
+ * Future v2: iterative MLE / CRLB refinement.
  */
 public interface PhaseEstimator {
 
@@ -34,4 +35,20 @@ public interface PhaseEstimator {
      * @param phi    length-n output per-epoch phases in radians, phi[refIdx]=0
      */
     void estimate(int n, double[][] tRe, double[][] tIm, int refIdx, double[] phi);
+
+    /**
+     * Estimates a batch of pixels, e.g. consecutive pixels of a row, in one call.
+     *
+     * @param n      stack size
+     * @param count  number of pixels
+     * @param tRe    count n x n real parts of T_hat
+     * @param tIm    count n x n imaginary parts of T_hat
+     * @param refIdx index of the reference epoch
+     * @param phi    count length-n output phases
+     */
+    default void estimate(int n, int count, double[][][] tRe, double[][][] tIm, int refIdx, double[][] phi) {
+        for (int m = 0; m < count; m++) {
+            estimate(n, tRe[m], tIm[m], refIdx, phi[m]);
+        }
+    }
 }
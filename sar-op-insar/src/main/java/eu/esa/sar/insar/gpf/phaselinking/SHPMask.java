@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.phaselinking;
+
+import java.util.Arrays;
+
+/**
+ * Bit-packed set of the statistically homogeneous pixels of one centre pixel.
+ *
+ * Bit b = (dy + halfAz) * windowRange + (dx + halfRg) is set when the neighbour at
+ * offset (dx, dy) from the centre was accepted. The words can be persisted as INT32
+ * bands so later updates reuse the selection without rerunning the two-sample tests.
+ */
+public final class SHPMask {
+
+    private final int windowAzimuth;
+    private final int windowRange;
+    private final int halfAz;
+    private final int halfRg;
+    private final int[] words;
+
+    public SHPMask(final int windowAzimuth, final int windowRange) {
+        this.windowAzimuth = windowAzimuth;
+        this.windowRange = windowRange;
+        this.halfAz = windowAzimuth / 2;
+        this.halfRg = windowRange / 2;
+        this.words = new int[numWords(windowAzimuth, windowRange)];
+    }
+
+    public static int numWords(final int windowAzimuth, final int windowRange) {
+        return (windowAzimuth * windowRange + 31) >>> 5;
+    }
+
+    public int getNumWords() {
+        return words.length;
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    private int bit(final int dx, final int dy) {
+        return (dy + halfAz) * windowRange + (dx + halfRg);
+    }
+
+    public void set(final int dx, final int dy) {
+        final int b = bit(dx, dy);
+        words[b >>> 5] |= 1 << (b & 31);
+    }
+
+    public boolean get(final int dx, final int dy) {
+        if (dx < -halfRg || dx > halfRg || dy < -halfAz || dy > halfAz) {
+            return false;
+        }
+        final int b = bit(dx, dy);
+        return (words[b >>> 5] & (1 << (b & 31))) != 0;
+    }
+
+    public int count() {
+        int c = 0;
+        for (int w : words) {
+            c += Integer.bitCount(w);
+        }
+        return c;
+    }
+
+    public int getWord(final int i) {
+        return words[i];
+    }
+
+    public void setWord(final int i, final int word) {
+        words[i] = word;
+    }
+
+    public int getWindowAzimuth() {
+        return windowAzimuth;
+    }
+
+    public int getWindowRange() {
+        return windowRange;
+    }
+}
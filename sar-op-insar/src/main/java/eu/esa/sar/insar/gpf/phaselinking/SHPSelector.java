@@ -43,4 +43,26 @@ public interface SHPSelector {
     default void prepareCentre(double[] centre) {
         // default no-op
     }
+
+    /**
+     * Same test on series already sorted ascending and stored back to back in one
+     * array (see {@link SortedAmplitudeCache}), so overlapping windows do not copy
+     * and re-sort the same candidates. Does not use the state of {@link #prepareCentre}.
+     *
+     * @param sorted          sorted amplitude series of many pixels
+     * @param centreOffset    start of the centre series in sorted
+     * @param candidateOffset start of the candidate series in sorted
+     * @param n               series length
+     * @return true if the candidate is statistically homogeneous to centre
+     */
+    default boolean acceptSorted(float[] sorted, int centreOffset, int candidateOffset, int n) {
+        final double[] centre = new double[n];
+        final double[] candidate = new double[n];
+        for (int i = 0; i < n; i++) {
+            centre[i] = sorted[centreOffset + i];
+            candidate[i] = sorted[candidateOffset + i];
+        }
+        prepareCentre(centre);
+        return accept(centre, candidate);
+    }
 }
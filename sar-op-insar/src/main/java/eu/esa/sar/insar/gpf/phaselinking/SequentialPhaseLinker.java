@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.phaselinking;
+
+/**
+ * Sequential (ministack) phase linking of one pixel, after Ansari, De Zan and Bamler 2017.
+ *
+ * The epochs are split into consecutive ministacks. Each ministack is linked together with
+ * one compressed SLC per earlier ministack, so the size of every problem is the ministack
+ * length plus the number of compressed SLCs rather than the archive length. The compressed
+ * SLC of ministack k is the phase-linked average
+ *
+ *   c_k(q) = (1 / m_k) * sum_{i in k} exp(-j phi_i) s_i(q)
+ *
+ * which carries the phase datum of the earlier ministacks forward: every ministack after the
+ * first is referenced to the first compressed SLC, so all epochs share one datum.
+ *
+ * Compressed SLCs persisted from previous runs enter as history and precede the ministacks
+ * of the current run. Within a run the neighbours of the centre pixel are compressed with the
+ * centre's phases, which is consistent with the SHP assumption that they share its signal.
+ */
+public final class SequentialPhaseLinker {
+
+    private final int numHistory;
+    private final int[] bounds;
+    private final PhaseEstimator estimator;
+    private final boolean biasCorrection;
+    private final int firstReference;
+
+    private final double[] phiAll;
+    private final double[] gammas;
+    private final double[] compressedRe;
+    private final double[] compressedIm;
+
+    // per-ministack working buffers, reused across pixels
+    private final CovarianceMatrix[] covariances;
+    private final double[][][] tRe;
+    private final double[][][] tIm;
+    private final double[][] phi;
+    private final double[] vRe;
+    private final double[] vIm;
+    private final double[] c = new double[2];
+
+    /**
+     * @param numHistory     number of compressed SLCs from previous runs
+     * @param bounds         ministack boundaries over the new epochs, bounds[0] = 0 and
+     *                       bounds[k + 1] the exclusive end of ministack k
+     * @param estimator      per-ministack phase estimator
+     * @param biasCorrection remove the coherence magnitude bias in each ministack
+     * @param firstReference reference epoch within the first ministack, used when there is no history
+     */
+    public SequentialPhaseLinker(final int numHistory, final int[] bounds, final PhaseEstimator estimator,
+                                 final boolean biasCorrection, final int firstReference) {
+        if (bounds.length < 2 || bounds[0] != 0) {
+            throw new IllegalArgumentException("Ministack bounds must start at 0 and hold at least one ministack");
+        }
+        if (numHistory == 0 && (firstReference < 0 || firstReference >= bounds[1])) {
+            throw new IllegalArgumentException("Reference epoch " + firstReference + " is not in the first ministack");
+        }
+        this.numHistory = numHistory;
+        this.bounds = bounds.clone();
+        this.estimator = estimator;
+        this.biasCorrection = biasCorrection;
+        this.firstReference = firstReference;
+
+        final int numMinistacks = bounds.length - 1;
+        this.phiAll = new double[bounds[numMinistacks]];
+        this.gammas = new double[numMinistacks];
+        this.compressedRe = new double[numMinistacks];
+        this.compressedIm = new double[numMinistacks];
+
+        this.covariances = new CovarianceMatrix[numMinistacks];
+        this.tRe = new double[numMinistacks][][];
+        this.tIm = new double[numMinistacks][][];
+        this.phi = new double[numMinistacks][];
+        int maxSize = 0;
+        for (int k = 0; k < numMinistacks; ++k) {
+            final int size = numHistory + k + bounds[k + 1] - bounds[k];
+            covariances[k] = new CovarianceMatrix(size);
+            tRe[k] = new double[size][size];
+            tIm[k] = new double[size][size];
+            phi[k] = new double[size];
+            maxSize = Math.max(maxSize, size);
+        }
+        this.vRe = new double[maxSize];
+        this.vIm = new double[maxSize];
+    }
+
+    /**
+     * Splits n epochs into ministacks of the given size; a short remainder is merged into the last one.
+     */
+    public static int[] splitMinistacks(final int n, final int ministackSize) {
+        final int size = Math.max(2, ministackSize);
+        final int count = Math.max(1, n / size);
+        final int[] bounds = new int[count + 1];
+        for (int k = 0; k < count; ++k) {
+            bounds[k] = k * size;
+        }
+        bounds[count] = n;
+        return bounds;
+    }
+
+    public int getNumMinistacks() {
+        return bounds.length - 1;
+    }
+
+    public int getNumEpochs() {
+        return phiAll.length;
+    }
+
+    /**
+     * Links all ministacks of one pixel.
+     *
+     * @param numShp    number of SHP samples, the centre pixel first
+     * @param shpRe     shpRe[q][h] for history h &lt; numHistory, then shpRe[q][numHistory + i] for epoch i
+     * @param shpIm     imaginary parts in the same layout
+     * @return mean temporal coherence over the ministacks
+     */
+    public double link(final int numShp, final double[][] shpRe, final double[][] shpIm) {
+
+        final int numMinistacks = getNumMinistacks();
+        double gammaSum = 0;
+        for (int k = 0; k < numMinistacks; ++k) {
+            final int b = bounds[k], e = bounds[k + 1];
+            final int numCompressed = numHistory + k;
+            final int size = numCompressed + (e - b);
+
+            final CovarianceMatrix cov = covariances[k];
+            cov.reset();
+            for (int q = 0; q < numShp; ++q) {
+                System.arraycopy(shpRe[q], 0, vRe, 0, numHistory);
+                System.arraycopy(shpIm[q], 0, vIm, 0, numHistory);
+                for (int j = 0; j < k; ++j) {
+                    compress(shpRe[q], shpIm[q], j);
+                    vRe[numHistory + j] = c[0];
+                    vIm[numHistory + j] = c[1];
+                }
+                System.arraycopy(shpRe[q], numHistory + b, vRe, numCompressed, e - b);
+                System.arraycopy(shpIm[q], numHistory + b, vIm, numCompressed, e - b);
+                cov.accumulate(vRe, vIm);
+            }
+
+            cov.finalizeT(numShp, tRe[k], tIm[k], biasCorrection);
+            final int ref = numCompressed > 0 ? 0 : firstReference;
+            estimator.estimate(size, tRe[k], tIm[k], ref, phi[k]);
+            gammas[k] = TemporalCoherence.compute(size, tRe[k], tIm[k], phi[k]);
+            gammaSum += gammas[k];
+
+            System.arraycopy(phi[k], numCompressed, phiAll, b, e - b);
+
+            // compressed SLC of the centre pixel for persistence
+            compress(shpRe[0], shpIm[0], k);
+            compressedRe[k] = c[0];
+            compressedIm[k] = c[1];
+        }
+        return gammaSum / numMinistacks;
+    }
+
+    private void compress(final double[] sRe, final double[] sIm, final int k) {
+        final int b = bounds[k], e = bounds[k + 1];
+        double re = 0, im = 0;
+        for (int i = b; i < e; ++i) {
+            final double cs = Math.cos(phiAll[i]), sn = Math.sin(phiAll[i]);
+            final double xr = sRe[numHistory + i], xi = sIm[numHistory + i];
+            // s * exp(-j phi)
+            re += xr * cs + xi * sn;
+            im += xi * cs - xr * sn;
+        }
+        c[0] = re / (e - b);
+        c[1] = im / (e - b);
+    }
+
+    /**
+     * @return phases of all new epochs from the last {@link #link}, on the common datum
+     */
+    public double[] getPhases() {
+        return phiAll;
+    }
+
+    public double getTemporalCoherence(final int ministack) {
+        return gammas[ministack];
+    }
+
+    public double getCompressedRe(final int ministack) {
+        return compressedRe[ministack];
+    }
+
+    public double getCompressedIm(final int ministack) {
+        return compressedIm[ministack];
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.phaselinking;
+
+import java.util.Arrays;
+
+/**
+ * Sorted amplitude series of a band of image rows, for SHP selection.
+ *
+ * Every pixel's series is sorted once when its row is loaded and stored in one
+ * flat float array, instead of being copied and re-sorted for each of the
+ * windowAzimuth x windowRange windows it falls in. Rows live in a ring of
+ * windowAzimuth slots, so the cache advances with the centre row and its size
+ * does not depend on the tile height. Selection results go to an {@link SHPMask}
+ * which the caller then walks to accumulate the covariance.
+ */
+public final class SortedAmplitudeCache {
+
+    private final int x0;
+    private final int width;
+    private final int numRows;
+    private final int n;
+    private final float[] samples;
+    private final boolean[] valid;
+    private final int[] rowOfSlot;
+
+    /**
+     * @param x0      first column
+     * @param width   number of columns
+     * @param numRows number of rows held at once, at least the azimuth window
+     * @param n       series length
+     */
+    public SortedAmplitudeCache(final int x0, final int width, final int numRows, final int n) {
+        this.x0 = x0;
+        this.width = width;
+        this.numRows = numRows;
+        this.n = n;
+        this.samples = new float[width * numRows * n];
+        this.valid = new boolean[width * numRows];
+        this.rowOfSlot = new int[numRows];
+        Arrays.fill(rowOfSlot, Integer.MIN_VALUE);
+    }
+
+    private int index(final int x, final int y) {
+        final int slot = Math.floorMod(y, numRows);
+        if (rowOfSlot[slot] != y) {
+            throw new IllegalStateException("Row " + y + " is not loaded");
+        }
+        return slot * width + x - x0;
+    }
+
+    /**
+     * Stores the amplitude series of one pixel, replacing whatever row held its slot.
+     *
+     * @param amplitude series of length n
+     * @param isValid   whether the pixel may be selected as an SHP
+     */
+    public void put(final int x, final int y, final double[] amplitude, final boolean isValid) {
+        final int slot = Math.floorMod(y, numRows);
+        rowOfSlot[slot] = y;
+        final int idx = slot * width + x - x0;
+        final int off = idx * n;
+        for (int k = 0; k < n; k++) {
+            samples[off + k] = (float) amplitude[k];
+        }
+        Arrays.sort(samples, off, off + n);
+        valid[idx] = isValid;
+    }
+
+    public boolean isValid(final int x, final int y) {
+        return valid[index(x, y)];
+    }
+
+    /**
+     * @return start of the sorted series of (x, y) in {@link #getSamples()}
+     */
+    public int offset(final int x, final int y) {
+        return index(x, y) * n;
+    }
+
+    public float[] getSamples() {
+        return samples;
+    }
+
+    /**
+     * Tests every valid pixel of the mask's window around (x, y), the centre included,
+     * against the centre. Columns outside the cache are skipped; all window rows must be loaded.
+     *
+     * @return number of accepted pixels, equal to {@code mask.count()}
+     */
+    public int select(final SHPSelector selector, final int x, final int y, final SHPMask mask) {
+        mask.clear();
+        final int halfAz = mask.getWindowAzimuth() / 2;
+        final int halfRg = mask.getWindowRange() / 2;
+        final int centre = offset(x, y);
+        final int xMin = Math.max(x - halfRg, x0);
+        final int xMax = Math.min(x + halfRg, x0 + width - 1);
+
+        int count = 0;
+        for (int yy = y - halfAz; yy <= y + halfAz; yy++) {
+            final int rowStart = index(xMin, yy);
+            for (int xx = xMin; xx <= xMax; xx++) {
+                final int idx = rowStart + xx - xMin;
+                if (valid[idx] && selector.acceptSorted(samples, centre, idx * n, n)) {
+                    mask.set(xx - x, yy - y);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
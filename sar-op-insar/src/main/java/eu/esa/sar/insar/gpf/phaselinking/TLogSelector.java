@@ -31,6 +31,8 @@ public final class TLogSelector implements SHPSelector {
     private double centreMean;
     private double centreVar;
     private int centreN;
+    private double statMean;
+    private double statVar;
 
     public TLogSelector(final double alpha) {
         this.critical = (alpha <= 0.01) ? 2.576 : (alpha <= 0.025) ? 2.326 : 1.960;
@@ -89,4 +91,46 @@ public final class TLogSelector implements SHPSelector {
 
         return t <= critical;
     }
+
+    @Override
+    public boolean acceptSorted(final float[] sorted, final int centreOffset, final int candidateOffset,
+                                final int n) {
+        // the statistic is order-free, so the sorted layout only saves the copies
+        final int nCentre = logStatistics(sorted, centreOffset, n);
+        final double mCentre = statMean;
+        final double vCentre = statVar;
+        final int valid = logStatistics(sorted, candidateOffset, n);
+        if (valid <= 1) return false;
+
+        final double se = Math.sqrt(vCentre / nCentre + statVar / valid);
+        if (!(se > 0.0)) return true;
+        return Math.abs((mCentre - statMean) / se) <= critical;
+    }
+
+    /**
+     * Mean and sample variance of the log of the positive amplitudes into statMean / statVar.
+     *
+     * @return number of positive amplitudes
+     */
+    private int logStatistics(final float[] samples, final int offset, final int n) {
+        double m = 0.0;
+        int valid = 0;
+        for (int i = offset; i < offset + n; i++) {
+            if (samples[i] > 0.0f) {
+                m += Math.log(samples[i]);
+                valid++;
+            }
+        }
+        m /= Math.max(1, valid);
+        double v = 0.0;
+        for (int i = offset; i < offset + n; i++) {
+            if (samples[i] > 0.0f) {
+                final double d = Math.log(samples[i]) - m;
+                v += d * d;
+            }
+        }
+        statMean = m;
+        statVar = v / Math.max(1, valid - 1);
+        return valid;
+    }
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.support;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable accumulator of the mean vector and covariance matrix of a multi-band image.
+ *
+ * Each tile is reduced to its own mean and co-moment matrix and combined with the
+ * running totals using the pairwise update of Chan, Golub and LeVeque, so partial
+ * accumulators built on different threads can be merged in any order. Per-band
+ * minimum and maximum are tracked alongside to bound linear projections.
+ *
+ * The co-moment matrix is stored packed as its lower triangle.
+ */
+public class CovarianceAccumulator {
+
+    private final int numBands;
+    private long count;
+    private final double[] mean;
+    private final double[] coMoment;
+    private final double[] min;
+    private final double[] max;
+
+    public CovarianceAccumulator(final int numBands) {
+        this.numBands = numBands;
+        this.mean = new double[numBands];
+        this.coMoment = new double[numBands * (numBands + 1) / 2];
+        this.min = new double[numBands];
+        this.max = new double[numBands];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    }
+
+    private static int packedIndex(final int i, final int j) {
+        return i * (i + 1) / 2 + j;
+    }
+
+    public int getNumBands() {
+        return numBands;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Accumulates one tile of samples.
+     *
+     * @param samples    samples[band][pixel]
+     * @param offset     optional per-pixel value subtracted from every band before the moments are
+     *                   computed (e.g. a mean image), or null. The min/max bounds use the raw samples.
+     * @param numSamples number of pixels in the tile
+     */
+    public void accumulate(final double[][] samples, final double[] offset, final int numSamples) {
+        if (numSamples == 0) {
+            return;
+        }
+
+        final CovarianceAccumulator tile = new CovarianceAccumulator(numBands);
+        tile.count = numSamples;
+
+        for (int i = 0; i < numBands; ++i) {
+            final double[] band = samples[i];
+            double s = 0, lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < numSamples; ++k) {
+                final double v = band[k];
+                if (v < lo) lo = v;
+                if (v > hi) hi = v;
+                s += offset == null ? v : v - offset[k];
+            }
+            tile.mean[i] = s / numSamples;
+            tile.min[i] = lo;
+            tile.max[i] = hi;
+        }
+
+        // second pass over the in-memory tile keeps the co-moments numerically stable
+        final double[] di = new double[numSamples];
+        for (int i = 0; i < numBands; ++i) {
+            centre(samples[i], offset, tile.mean[i], di, numSamples);
+            for (int j = 0; j <= i; ++j) {
+                final double[] bj = samples[j];
+                final double mj = tile.mean[j];
+                double s = 0;
+                if (offset == null) {
+                    for (int k = 0; k < numSamples; ++k) {
+                        s += di[k] * (bj[k] - mj);
+                    }
+                } else {
+                    for (int k = 0; k < numSamples; ++k) {
+                        s += di[k] * (bj[k] - offset[k] - mj);
+                    }
+                }
+                tile.coMoment[packedIndex(i, j)] = s;
+            }
+        }
+
+        merge(tile);
+    }
+
+    private static void centre(final double[] band, final double[] offset, final double m,
+                               final double[] out, final int n) {
+        if (offset == null) {
+            for (int k = 0; k < n; ++k) {
+                out[k] = band[k] - m;
+            }
+        } else {
+            for (int k = 0; k < n; ++k) {
+                out[k] = band[k] - offset[k] - m;
+            }
+        }
+    }
+
+    /**
+     * Merges another accumulator into this one.
+     */
+    public void merge(final CovarianceAccumulator other) {
+        if (other.numBands != numBands) {
+            throw new IllegalArgumentException("Band count mismatch " + other.numBands + " != " + numBands);
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            System.arraycopy(other.mean, 0, mean, 0, numBands);
+            System.arraycopy(other.coMoment, 0, coMoment, 0, coMoment.length);
+            System.arraycopy(other.min, 0, min, 0, numBands);
+            System.arraycopy(other.max, 0, max, 0, numBands);
+            return;
+        }
+
+        final double nA = count, nB = other.count;
+        final double n = nA + nB;
+        final double f = nA * nB / n;
+
+        final double[] delta = new double[numBands];
+        for (int i = 0; i < numBands; ++i) {
+            delta[i] = other.mean[i] - mean[i];
+        }
+        for (int i = 0; i < numBands; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                final int p = packedIndex(i, j);
+                coMoment[p] += other.coMoment[p] + delta[i] * delta[j] * f;
+            }
+        }
+        for (int i = 0; i < numBands; ++i) {
+            mean[i] += delta[i] * nB / n;
+            min[i] = Math.min(min[i], other.min[i]);
+            max[i] = Math.max(max[i], other.max[i]);
+        }
+        count += other.count;
+    }
+
+    public double[] getMean() {
+        return mean.clone();
+    }
+
+    /**
+     * @return the population covariance matrix (normalised by the sample count)
+     */
+    public double[][] getCovariance() {
+        final double[][] cov = new double[numBands][numBands];
+        if (count == 0) {
+            return cov;
+        }
+        for (int i = 0; i < numBands; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                final double c = coMoment[packedIndex(i, j)] / count;
+                cov[i][j] = c;
+                cov[j][i] = c;
+            }
+        }
+        return cov;
+    }
+
+    public double getMin(final int band) {
+        return min[band];
+    }
+
+    public double getMax(final int band) {
+        return max[band];
+    }
+
+    /**
+     * Lower bound of the projection of any accumulated sample onto the given vector,
+     * from interval arithmetic on the per-band min/max.
+     *
+     * @param vector projection weights per band
+     */
+    public double getProjectionLowerBound(final double[] vector) {
+        double bound = 0;
+        for (int i = 0; i < numBands; ++i) {
+            final double w = vector[i];
+            bound += w >= 0 ? w * min[i] : w * max[i];
+        }
+        return bound;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.support;
+
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-tile cache of flattened complex planes of the epochs of a multi-master stack.
+ *
+ * Each plane holds the SLC values of one epoch with its reference (flat earth and topographic)
+ * phase removed, s * exp(-j * phase), relative to the common reference geometry of the stack.
+ * The flattened interferogram of any pair is then the conjugate product of two planes, so the
+ * rotation is done once per epoch rather than once per pair. Planes are evicted in least
+ * recently used order once more than a fixed number are held, and reloaded on demand.
+ *
+ * @param <K> key identifying an epoch
+ */
+public class FlattenedPlaneCache<K> {
+
+    public interface Loader<K> {
+        Plane load(K key) throws Exception;
+    }
+
+    private final Loader<K> loader;
+    private final Map<K, Plane> planes;
+    private int numLoads;
+
+    /**
+     * @param maxPlanes maximum number of planes held at once, at least 2
+     * @param loader    creates the plane of an epoch on a cache miss
+     */
+    @SuppressWarnings("serial")
+    public FlattenedPlaneCache(final int maxPlanes, final Loader<K> loader) {
+        if (maxPlanes < 2) {
+            throw new IllegalArgumentException("At least two planes must be cached: " + maxPlanes);
+        }
+        this.loader = loader;
+        this.planes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Plane> eldest) {
+                return size() > maxPlanes;
+            }
+        };
+    }
+
+    /**
+     * Number of planes of the given size that fit in a memory budget, but never fewer than 2.
+     */
+    public static int getMaxPlanes(final int width, final int height, final long maxBytes) {
+        final long planeBytes = (long) width * height * Plane.BYTES_PER_PIXEL;
+        return (int) Math.max(2, Math.min(Integer.MAX_VALUE, maxBytes / Math.max(1, planeBytes)));
+    }
+
+    public Plane get(final K key) throws Exception {
+        Plane plane = planes.get(key);
+        if (plane == null) {
+            plane = loader.load(key);
+            planes.put(key, plane);
+            ++numLoads;
+        }
+        return plane;
+    }
+
+    /**
+     * @return number of planes created so far, including reloads after eviction
+     */
+    public int getNumLoads() {
+        return numLoads;
+    }
+
+    /**
+     * Flattened interferogram of two planes, plane0 * conj(plane1), with the intensities of both
+     * epochs. Pixels that are no-data in either plane are set to the no-data value in all outputs.
+     */
+    public static void interfere(final Plane plane0, final Plane plane1, final double nodata,
+                                 final double[][] ifgPhasorI, final double[][] ifgPhasorQ,
+                                 final double[][] intensity0, final double[][] intensity1) {
+        final int w = plane0.width;
+        for (int yy = 0; yy < plane0.height; yy++) {
+            final double[] ifgI = ifgPhasorI[yy];
+            final double[] ifgQ = ifgPhasorQ[yy];
+            final double[] int0 = intensity0[yy];
+            final double[] int1 = intensity1[yy];
+            for (int xx = 0, k = yy * w; xx < w; xx++, k++) {
+                if (plane0.noData[k] || plane1.noData[k]) {
+                    ifgI[xx] = nodata;
+                    ifgQ[xx] = nodata;
+                    int0[xx] = nodata;
+                    int1[xx] = nodata;
+                } else {
+                    final double re0 = plane0.re[k], im0 = plane0.im[k];
+                    final double re1 = plane1.re[k], im1 = plane1.im[k];
+                    ifgI[xx] = re0 * re1 + im0 * im1;
+                    ifgQ[xx] = im0 * re1 - re0 * im1;
+                    int0[xx] = plane0.intensity[k];
+                    int1[xx] = plane1.intensity[k];
+                }
+            }
+        }
+    }
+
+    /**
+     * Flattened complex values of one epoch over a source rectangle, stored row by row.
+     */
+    public static class Plane {
+
+        static final int BYTES_PER_PIXEL = 3 * Double.BYTES + 1;
+
+        final int width;
+        final int height;
+        final double[] re;
+        final double[] im;
+        final double[] intensity;
+        final boolean[] noData;
+
+        public Plane(final int width, final int height) {
+            this.width = width;
+            this.height = height;
+            this.re = new double[width * height];
+            this.im = new double[width * height];
+            this.intensity = new double[width * height];
+            this.noData = new boolean[width * height];
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Stores valueI + j * valueQ rotated by -phase. The intensity is kept from the unrotated value.
+         */
+        public void set(final int xx, final int yy, final double valueI, final double valueQ, final double phase) {
+            final int k = yy * width + xx;
+            if (phase == 0.0) {
+                re[k] = valueI;
+                im[k] = valueQ;
+            } else {
+                final double cosPhase = FastMath.cos(phase);
+                final double sinPhase = FastMath.sin(phase);
+                re[k] = valueI * cosPhase + valueQ * sinPhase;
+                im[k] = valueQ * cosPhase - valueI * sinPhase;
+            }
+            intensity[k] = valueI * valueI + valueQ * valueQ;
+            noData[k] = false;
+        }
+
+        public void setNoData(final int xx, final int yy) {
+            noData[yy * width + xx] = true;
+        }
+    }
+}
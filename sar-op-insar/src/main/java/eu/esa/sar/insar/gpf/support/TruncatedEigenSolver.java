@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.support;
+
+import Jama.EigenvalueDecomposition;
+import Jama.Matrix;
+
+import java.util.Random;
+
+/**
+ * Leading eigenpairs of a symmetric positive semi-definite matrix by randomized subspace iteration.
+ *
+ * A random block of k + oversampling vectors is repeatedly multiplied by the matrix and
+ * re-orthonormalised; the matrix projected onto the resulting subspace is then small
+ * enough for a dense eigen decomposition (Rayleigh-Ritz). For covariance matrices of
+ * stacks with hundreds of bands this avoids a full n x n decomposition when only a
+ * few principal components are wanted.
+ */
+public class TruncatedEigenSolver {
+
+    private static final int DEFAULT_OVERSAMPLING = 8;
+    private static final int DEFAULT_POWER_ITERATIONS = 4;
+
+    private final double[] eigenValues;
+    private final double[][] eigenVectors;
+
+    /**
+     * @param matrix symmetric n x n matrix
+     * @param k      number of leading eigenpairs
+     */
+    public TruncatedEigenSolver(final double[][] matrix, final int k) {
+        this(matrix, k, DEFAULT_OVERSAMPLING, DEFAULT_POWER_ITERATIONS, 42L);
+    }
+
+    public TruncatedEigenSolver(final double[][] matrix, final int k, final int oversampling,
+                                final int powerIterations, final long seed) {
+        final int n = matrix.length;
+        if (k < 1 || k > n) {
+            throw new IllegalArgumentException("Invalid number of eigenpairs " + k + " for matrix of size " + n);
+        }
+        final int l = Math.min(n, k + oversampling);
+
+        // columns stored as rows for cache-friendly orthogonalisation
+        final Random random = new Random(seed);
+        double[][] q = new double[l][n];
+        for (double[] col : q) {
+            for (int i = 0; i < n; ++i) {
+                col[i] = random.nextGaussian();
+            }
+        }
+        orthonormalise(q);
+
+        for (int it = 0; it < powerIterations; ++it) {
+            q = multiply(matrix, q);
+            orthonormalise(q);
+        }
+
+        // Rayleigh-Ritz: B = Q' A Q
+        final double[][] aq = multiply(matrix, q);
+        final double[][] b = new double[l][l];
+        for (int i = 0; i < l; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                final double v = dot(q[i], aq[j]);
+                b[i][j] = v;
+                b[j][i] = v;
+            }
+        }
+
+        final EigenvalueDecomposition evd = new Matrix(b).eig();
+        final double[] values = evd.getRealEigenvalues();
+        final Matrix v = evd.getV();
+
+        // Jama returns ascending eigenvalues for symmetric matrices
+        eigenValues = new double[k];
+        eigenVectors = new double[k][n];
+        for (int c = 0; c < k; ++c) {
+            final int src = l - 1 - c;
+            eigenValues[c] = values[src];
+            final double[] vec = eigenVectors[c];
+            for (int r = 0; r < l; ++r) {
+                final double w = v.get(r, src);
+                final double[] qr = q[r];
+                for (int i = 0; i < n; ++i) {
+                    vec[i] += w * qr[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the k leading eigenvalues in descending order
+     */
+    public double[] getEigenValues() {
+        return eigenValues;
+    }
+
+    /**
+     * @return eigenvectors, one per row, matching {@link #getEigenValues()}
+     */
+    public double[][] getEigenVectors() {
+        return eigenVectors;
+    }
+
+    private static double[][] multiply(final double[][] a, final double[][] cols) {
+        final int n = a.length;
+        final double[][] out = new double[cols.length][n];
+        for (int c = 0; c < cols.length; ++c) {
+            final double[] x = cols[c];
+            final double[] y = out[c];
+            for (int i = 0; i < n; ++i) {
+                y[i] = dot(a[i], x);
+            }
+        }
+        return out;
+    }
+
+    private static double dot(final double[] a, final double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; ++i) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+
+    /**
+     * Modified Gram-Schmidt, applied twice for stability. Columns that collapse are replaced by zeros.
+     */
+    private static void orthonormalise(final double[][] cols) {
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int c = 0; c < cols.length; ++c) {
+                final double[] v = cols[c];
+                for (int p = 0; p < c; ++p) {
+                    final double[] u = cols[p];
+                    final double r = dot(u, v);
+                    for (int i = 0; i < v.length; ++i) {
+                        v[i] -= r * u[i];
+                    }
+                }
+                final double norm = Math.sqrt(dot(v, v));
+                final double scale = norm > 1e-300 ? 1.0 / norm : 0.0;
+                for (int i = 0; i < v.length; ++i) {
+                    v[i] *= scale;
+                }
+            }
+        }
+    }
+}
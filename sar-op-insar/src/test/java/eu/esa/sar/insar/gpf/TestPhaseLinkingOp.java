@@ -34,6 +34,7 @@ import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class TestPhaseLinkingOp {
@@ -293,6 +294,112 @@ public class TestPhaseLinkingOp {
         assertTrue("SHP count below shpMin at interior pixel: " + shp[idx], shp[idx] >= 20);
     }
 
+    @Test
+    public void sequential_ministacks_recover_phase_history() throws Exception {
+        final int w = 28, h = 28;
+        final int nEpochs = 15;
+        final String[] dates = makeDates(nEpochs, 12);
+        final int refIdx = 2;                            // median of the first ministack of 5
+
+        final double[] truePhase = new double[nEpochs];
+        for (int k = 0; k < nEpochs; k++) {
+            truePhase[k] = 0.18 * (k - nEpochs / 2);
+        }
+        final Product stack = buildSyntheticDSStack(w, h, dates, "VV", truePhase, 0.92, 4242L);
+
+        final PhaseLinkingOp op = (PhaseLinkingOp) spi.createOperator();
+        op.setSourceProduct(stack);
+        op.setParameter("windowAzimuth", 11);
+        op.setParameter("windowRange", 11);
+        op.setParameter("shpMin", 20);
+        op.setParameter("tempCohMin", 0.0);
+        op.setParameter("ministackSize", 5);
+        op.setParameter("outputCompressedSlcs", true);
+
+        final Product target = op.getTargetProduct();
+        final int idx = (h / 2) * w + w / 2;
+        for (int k = 0; k < nEpochs; k++) {
+            final double est = readPhase(target, "VV", dates, k, w, h)[idx];
+            assertEquals("recovered phase at epoch " + k, 0.0,
+                    wrap(est - (truePhase[k] - truePhase[refIdx])), 0.35);
+        }
+
+        // one compressed SLC per ministack and ceil(11 * 11 / 32) mask words
+        assertNotNull(target.getBand("i_cslc_VV_" + dates[0] + "_" + dates[4]));
+        assertNotNull(target.getBand("q_cslc_VV_" + dates[10] + "_" + dates[14]));
+        assertNotNull(target.getBand("shpMask_VV_3"));
+        assertNull(target.getBand("shpMask_VV_4"));
+    }
+
+    @Test
+    public void history_run_links_only_new_epochs() throws Exception {
+        final int w = 28, h = 28;
+        final int nEpochs = 15, nArchived = 10;
+        final String[] dates = makeDates(nEpochs, 12);
+        final double[] truePhase = new double[nEpochs];
+        for (int k = 0; k < nEpochs; k++) {
+            truePhase[k] = 0.15 * (k - 4);
+        }
+
+        // run A: the archive, linked in two ministacks referenced to epoch 2
+        final String[] archivedDates = new String[nArchived];
+        System.arraycopy(dates, 0, archivedDates, 0, nArchived);
+        final double[] archivedPhase = new double[nArchived];
+        System.arraycopy(truePhase, 0, archivedPhase, 0, nArchived);
+        final PhaseLinkingOp opA = (PhaseLinkingOp) spi.createOperator();
+        opA.setSourceProduct(buildSyntheticDSStack(w, h, archivedDates, "VV", archivedPhase, 0.92, 77L));
+        opA.setParameter("windowAzimuth", 11);
+        opA.setParameter("windowRange", 11);
+        opA.setParameter("tempCohMin", 0.0);
+        opA.setParameter("ministackSize", 5);
+        opA.setParameter("outputCompressedSlcs", true);
+        final Product history = opA.getTargetProduct();
+
+        // run B: five new acquisitions on top of the archive
+        final Product stack = buildSyntheticDSStack(w, h, dates, "VV", truePhase, 0.92, 78L);
+        final PhaseLinkingOp opB = (PhaseLinkingOp) spi.createOperator();
+        opB.setSourceProduct(stack);
+        opB.setSourceProduct("history", history);
+        opB.setParameter("windowAzimuth", 11);
+        opB.setParameter("windowRange", 11);
+        opB.setParameter("tempCohMin", 0.0);
+        opB.setParameter("ministackSize", 5);
+        opB.setParameter("outputCompressedSlcs", true);
+        final Product target = opB.getTargetProduct();
+
+        final int idx = (h / 2) * w + w / 2;
+        for (int k = nArchived; k < nEpochs; k++) {
+            final double est = readPhase(target, "VV", dates, k, w, h)[idx];
+            assertEquals("new epoch " + k + " on the archive datum", 0.0,
+                    wrap(est - (truePhase[k] - truePhase[2])), 0.35);
+        }
+
+        // archived epochs are passed through untouched
+        final float[] src = new float[w * h];
+        final float[] out = new float[w * h];
+        stack.getBand("q_VV" + StackUtils.SEC + 3 + "_" + dates[3]).readPixels(0, 0, w, h, src);
+        outputBand(target, "q", "VV", dates, 3).readPixels(0, 0, w, h, out);
+        assertEquals(src[idx], out[idx], 0.0f);
+
+        // the target carries the full history forward
+        assertNotNull(target.getBand("i_cslc_VV_" + dates[0] + "_" + dates[4]));
+        assertNotNull(target.getBand("i_cslc_VV_" + dates[5] + "_" + dates[9]));
+        assertNotNull(target.getBand("i_cslc_VV_" + dates[10] + "_" + dates[14]));
+    }
+
+    private static double[] readPhase(final Product target, final String pol, final String[] dates,
+                                      final int k, final int w, final int h) throws Exception {
+        final float[] iPix = new float[w * h];
+        final float[] qPix = new float[w * h];
+        outputBand(target, "i", pol, dates, k).readPixels(0, 0, w, h, iPix);
+        outputBand(target, "q", pol, dates, k).readPixels(0, 0, w, h, qPix);
+        final double[] phase = new double[w * h];
+        for (int p = 0; p < phase.length; p++) {
+            phase[p] = Math.atan2(qPix[p], iPix[p]);
+        }
+        return phase;
+    }
+
     /**
      * Integration / "drop-in" benefit: feeding the phase-linked stack to interferogram formation
      * yields HIGHER distributed-scatterer coherence than the raw stack. The interferometric
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.coregistration;
+
+import org.jlinda.core.coregistration.SimpleLUT;
+import org.junit.Test;
+
+import java.awt.Rectangle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link PolynomialWarpResampler}.
+ */
+public class TestPolynomialWarpResampler {
+
+    private static final int W = 64;
+    private static final int H = 48;
+
+    // second order warp: shift, slight scale and shear
+    private static final double[] X_COEFFS = {1.25, 1.001, 0.0002, 1e-6, 0, 0};
+    private static final double[] Y_COEFFS = {-0.5, 0.0003, 1.0, 0, 0, 0};
+
+    private static float[] createRamp() {
+        final float[] src = new float[W * H];
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                src[y * W + x] = 2f * x + 3f * y;
+            }
+        }
+        return src;
+    }
+
+    private static float[] crop(final float[] src, final Rectangle r) {
+        final float[] out = new float[r.width * r.height];
+        for (int y = 0; y < r.height; ++y) {
+            System.arraycopy(src, (r.y + y) * W + r.x, out, y * r.width, r.width);
+        }
+        return out;
+    }
+
+    private static double[] warp(final double x, final double y) {
+        final double xc = x + 0.5, yc = y + 0.5;
+        final double sx = X_COEFFS[0] + X_COEFFS[1] * xc + X_COEFFS[2] * yc + X_COEFFS[3] * xc * xc - 0.5;
+        final double sy = Y_COEFFS[0] + Y_COEFFS[1] * xc + Y_COEFFS[2] * yc - 0.5;
+        return new double[]{sx, sy};
+    }
+
+    private static void assertResamplesRamp(final PolynomialWarpResampler.Kernel kernel, final double tol) {
+        final PolynomialWarpResampler resampler = new PolynomialWarpResampler(X_COEFFS, Y_COEFFS, kernel);
+        final Rectangle target = new Rectangle(8, 10, 24, 16);
+        final Rectangle source = resampler.getSourceRectangle(target, W, H);
+        assertNotNull(source);
+
+        final float[] dst = new float[target.width * target.height];
+        resampler.resample(target, crop(createRamp(), source), source, W, H, dst, Float.NaN);
+
+        int k = 0;
+        for (int y = target.y; y < target.y + target.height; ++y) {
+            for (int x = target.x; x < target.x + target.width; ++x, ++k) {
+                final double[] s = warp(x, y);
+                assertEquals(2 * s[0] + 3 * s[1], dst[k], tol);
+            }
+        }
+    }
+
+    @Test
+    public void testBilinearReproducesLinearRamp() {
+        assertResamplesRamp(PolynomialWarpResampler.Kernel.create(WarpOp.BILINEAR), 0.03);
+    }
+
+    @Test
+    public void testBicubicReproducesLinearRamp() {
+        assertResamplesRamp(PolynomialWarpResampler.Kernel.create(WarpOp.BICUBIC), 0.03);
+    }
+
+    @Test
+    public void testRaisedCosineReproducesLinearRamp() {
+        assertResamplesRamp(PolynomialWarpResampler.Kernel.create(SimpleLUT.RC6P), 0.1);
+    }
+
+    @Test
+    public void testSourceRectangleCoversKernelFootprint() {
+        final PolynomialWarpResampler.Kernel kernel = PolynomialWarpResampler.Kernel.create(WarpOp.BICUBIC);
+        final PolynomialWarpResampler resampler = new PolynomialWarpResampler(X_COEFFS, Y_COEFFS, kernel);
+        final Rectangle target = new Rectangle(8, 10, 24, 16);
+        final Rectangle source = resampler.getSourceRectangle(target, W, H);
+
+        final double[] first = warp(target.x, target.y);
+        final double[] last = warp(target.x + target.width - 1, target.y + target.height - 1);
+        assertTrue(source.contains((int) Math.floor(first[0]) - 1, (int) Math.floor(first[1]) - 1));
+        assertTrue(source.contains((int) Math.floor(last[0]) + 2, (int) Math.floor(last[1]) + 2));
+    }
+
+    @Test
+    public void testOutsideSourceIsNoData() {
+        final double[] xShift = {1000, 1, 0};
+        final double[] yShift = {0, 0, 1};
+        final PolynomialWarpResampler resampler = new PolynomialWarpResampler(xShift, yShift,
+                PolynomialWarpResampler.Kernel.create(WarpOp.BILINEAR));
+        final Rectangle target = new Rectangle(0, 0, 8, 8);
+        final Rectangle source = resampler.getSourceRectangle(target, W, H);
+        assertNull(source);
+
+        final float[] dst = new float[64];
+        resampler.resample(target, null, null, W, H, dst, -1f);
+        for (float v : dst) {
+            assertEquals(-1f, v, 0f);
+        }
+    }
+
+    @Test
+    public void testNullWarpCopiesSource() {
+        final PolynomialWarpResampler resampler = new PolynomialWarpResampler(null,
+                PolynomialWarpResampler.Kernel.create(WarpOp.BILINEAR));
+        final Rectangle target = new Rectangle(4, 4, 10, 10);
+        final Rectangle source = resampler.getSourceRectangle(target, W, H);
+        assertEquals(target, source);
+
+        final float[] src = createRamp();
+        final float[] dst = new float[100];
+        resampler.resample(target, crop(src, source), source, W, H, dst, 0f);
+        assertEquals(src[4 * W + 4], dst[0], 0f);
+        assertEquals(src[13 * W + 13], dst[99], 0f);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.phaselinking;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestBatchedHermitianEigSolver {
+
+    private static final int N = 12;
+    private static final int BLOCK = 16;
+
+    /** Sample coherence matrices of neighbouring pixels: same phase history, independent looks. */
+    private static double[][][][] coherenceBlock(final int count, final long seed) {
+        final Random rng = new Random(seed);
+        final double[][][][] out = new double[count][2][N][N];
+        for (int m = 0; m < count; m++) {
+            final double[][] re = out[m][0], im = out[m][1];
+            for (int l = 0; l < 40; l++) {
+                final double gr = rng.nextGaussian(), gi = rng.nextGaussian();
+                final double[] sr = new double[N], si = new double[N];
+                for (int k = 0; k < N; k++) {
+                    final double ph = 0.2 * k;
+                    final double ar = gr + 0.6 * rng.nextGaussian(), ai = gi + 0.6 * rng.nextGaussian();
+                    sr[k] = ar * Math.cos(ph) - ai * Math.sin(ph);
+                    si[k] = ar * Math.sin(ph) + ai * Math.cos(ph);
+                }
+                for (int i = 0; i < N; i++) {
+                    for (int j = 0; j < N; j++) {
+                        re[i][j] += sr[i] * sr[j] + si[i] * si[j];
+                        im[i][j] += si[i] * sr[j] - sr[i] * si[j];
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    private static double[] packBlock(final double[][][][] block) {
+        final int size = BatchedHermitianEigSolver.packedSize(N);
+        final double[] packed = new double[block.length * size];
+        for (int m = 0; m < block.length; m++) {
+            BatchedHermitianEigSolver.pack(N, block[m][0], block[m][1], packed, m * size);
+        }
+        return packed;
+    }
+
+    /** |u^H v| for unit vectors, 1 when they agree up to a global phase. */
+    private static double overlap(final double[] ur, final double[] ui, final double[][] vr,
+                                  final double[][] vi, final int offset, final int column) {
+        double re = 0.0, im = 0.0;
+        for (int k = 0; k < N; k++) {
+            re += ur[offset + k] * vr[k][column] + ui[offset + k] * vi[k][column];
+            im += ur[offset + k] * vi[k][column] - ui[offset + k] * vr[k][column];
+        }
+        return Math.hypot(re, im);
+    }
+
+    private static void assertMatchesJacobi(final BatchedHermitianEigSolver.Target target, final int column) {
+        final double[][][][] block = coherenceBlock(BLOCK, 7L);
+        final double[] vecRe = new double[BLOCK * N];
+        final double[] vecIm = new double[BLOCK * N];
+        final double[] values = new double[BLOCK];
+        final BatchedHermitianEigSolver solver = new BatchedHermitianEigSolver(N);
+        solver.solve(target, packBlock(block), BLOCK, vecRe, vecIm, values);
+
+        for (int m = 0; m < BLOCK; m++) {
+            final double[][] vr = new double[N][N], vi = new double[N][N];
+            final double[] lambda = new double[N];
+            HermitianEigSolver.decompose(N, block[m][0], block[m][1], vr, vi, lambda);
+            assertEquals("matrix " + m, lambda[column], values[m], 1.0e-5 * Math.abs(lambda[0]));
+            assertEquals("matrix " + m, 1.0, overlap(vecRe, vecIm, vr, vi, m * N, column), 1.0e-6);
+        }
+        assertEquals(0, solver.getNumFallbacks());
+    }
+
+    @Test
+    public void largest_eigenpair_matches_jacobi() {
+        assertMatchesJacobi(BatchedHermitianEigSolver.Target.LARGEST, 0);
+    }
+
+    @Test
+    public void smallest_eigenpair_matches_jacobi() {
+        assertMatchesJacobi(BatchedHermitianEigSolver.Target.SMALLEST, N - 1);
+    }
+
+    @Test
+    public void warm_start_saves_iterations() {
+        final double[] packed = packBlock(coherenceBlock(BLOCK, 8L));
+        final double[] vecRe = new double[BLOCK * N];
+        final double[] vecIm = new double[BLOCK * N];
+
+        final BatchedHermitianEigSolver warm = new BatchedHermitianEigSolver(N);
+        warm.solve(BatchedHermitianEigSolver.Target.LARGEST, packed, BLOCK, vecRe, vecIm, null);
+
+        final BatchedHermitianEigSolver cold = new BatchedHermitianEigSolver(N);
+        final int size = BatchedHermitianEigSolver.packedSize(N);
+        for (int m = 0; m < BLOCK; m++) {
+            final double[] one = new double[size];
+            System.arraycopy(packed, m * size, one, 0, size);
+            cold.resetWarmStart();
+            cold.solve(BatchedHermitianEigSolver.Target.LARGEST, one, 1, vecRe, vecIm, null);
+        }
+        assertTrue(warm.getNumIterations() + " vs " + cold.getNumIterations(),
+                warm.getNumIterations() < cold.getNumIterations());
+    }
+
+    @Test
+    public void iteration_limit_falls_back_to_full_decomposition() {
+        final double[][][][] block = coherenceBlock(1, 9L);
+        final double[] packed = packBlock(block);
+        final double[] vr = new double[N], vi = new double[N], value = new double[1];
+        final BatchedHermitianEigSolver solver = new BatchedHermitianEigSolver(N, 2, 1.0e-12);
+        solver.solve(BatchedHermitianEigSolver.Target.SMALLEST, packed, 1, vr, vi, value);
+        assertEquals(1, solver.getNumFallbacks());
+
+        final double[][] er = new double[N][N], ei = new double[N][N];
+        final double[] lambda = new double[N];
+        HermitianEigSolver.decompose(N, block[0][0], block[0][1], er, ei, lambda);
+        assertEquals(lambda[N - 1], value[0], 1.0e-5);
+        assertEquals(1.0, overlap(vr, vi, er, ei, 0, N - 1), 1.0e-6);
+    }
+
+    @Test
+    public void indefinite_matrix_is_solved() {
+        final int n = 2;
+        final double[] packed = new double[BatchedHermitianEigSolver.packedSize(n)];
+        BatchedHermitianEigSolver.pack(n, new double[][]{{0.0, 2.0}, {2.0, 0.0}}, new double[n][n], packed, 0);
+        final BatchedHermitianEigSolver solver = new BatchedHermitianEigSolver(n);
+        final double[] vr = new double[n], vi = new double[n], value = new double[1];
+        solver.solve(BatchedHermitianEigSolver.Target.SMALLEST, packed, 1, vr, vi, value);
+        assertEquals(-2.0, value[0], 1.0e-9);
+        assertEquals(0.0, Math.hypot(vr[0] + vr[1], vi[0] + vi[1]), 1.0e-9);
+    }
+
+    @Test
+    public void invert_symmetric_round_trips() {
+        final int n = 6;
+        final double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = Math.pow(0.6, Math.abs(i - j));
+            }
+        }
+        final double[][] inv = new double[n][n];
+        assertTrue(BatchedHermitianEigSolver.invertSymmetric(n, a, inv));
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double s = 0.0;
+                for (int k = 0; k < n; k++) {
+                    s += a[i][k] * inv[k][j];
+                }
+                assertEquals(i == j ? 1.0 : 0.0, s, 1.0e-12);
+            }
+        }
+        assertFalse(BatchedHermitianEigSolver.invertSymmetric(2, new double[][]{{1, 1}, {1, 1}}, new double[2][2]));
+    }
+}
@@ -229,6 +229,42 @@ public class TestEstimators {
         assertTrue("even the worst noise gamma_T should stay below 1: " + max, max < 0.7);
     }
 
+    /**
+     * A row handed over through the batch method must give the same phases as estimating each
+     * pixel on its own, for both estimators. EMI in particular is sensitive to the precision of
+     * the packed matrices, since Gamma^{-1} (Hadamard) T is ill-conditioned on noisy samples.
+     */
+    @Test
+    public void batch_estimate_matches_single_pixel_estimate() {
+        final int n = 12;
+        final double[] truePhases = new double[n];
+        for (int k = 0; k < n; k++) truePhases[k] = 0.2 * (k - n / 2);
+        final int ref = n / 2;
+        final double[][][] C = decayCoherenceT(n, truePhases, 0.8);
+
+        final int count = 16;
+        final Random rng = new Random(47L);
+        final double[][][] tRe = new double[count][n][n];
+        final double[][][] tIm = new double[count][n][n];
+        for (int b = 0; b < count; b++) {
+            sampleCoherence(n, C[0], C[1], 50, rng, tRe[b], tIm[b]);
+        }
+
+        for (final PhaseEstimator[] pair : new PhaseEstimator[][]{
+                {new EVDEstimator(), new EVDEstimator()}, {new EMIEstimator(), new EMIEstimator()}}) {
+            final double[][] batchPhi = new double[count][n];
+            pair[0].estimate(n, count, tRe, tIm, ref, batchPhi);
+            for (int b = 0; b < count; b++) {
+                final double[] phi = new double[n];
+                pair[1].estimate(n, tRe[b], tIm[b], ref, phi);
+                for (int k = 0; k < n; k++) {
+                    assertEquals(pair[0].getClass().getSimpleName() + " pixel " + b + " phi[" + k + "]",
+                            0.0, wrap(batchPhi[b][k] - phi[k]), 1.0e-5);
+                }
+            }
+        }
+    }
+
     // ---------------------------------------------------------------------
     // Helpers
     // ---------------------------------------------------------------------
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.phaselinking;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestSequentialPhaseLinker {
+
+    private static final int N = 12;
+    private static final int NUM_SHP = 60;
+
+    /** SHP samples s_i(q) = g_q exp(j theta_i) + noise, centre first. */
+    private static double[][][] samples(final double[] theta, final double noise, final long seed) {
+        final Random random = new Random(seed);
+        final double[][] re = new double[NUM_SHP][theta.length];
+        final double[][] im = new double[NUM_SHP][theta.length];
+        for (int q = 0; q < NUM_SHP; q++) {
+            final double gr = random.nextGaussian(), gi = random.nextGaussian();
+            for (int i = 0; i < theta.length; i++) {
+                final double c = Math.cos(theta[i]), s = Math.sin(theta[i]);
+                re[q][i] = gr * c - gi * s + noise * random.nextGaussian();
+                im[q][i] = gr * s + gi * c + noise * random.nextGaussian();
+            }
+        }
+        return new double[][][]{re, im};
+    }
+
+    private static double[] ramp() {
+        final double[] theta = new double[N];
+        for (int i = 0; i < N; i++) theta[i] = 0.4 * i - 0.05 * i * i;
+        return theta;
+    }
+
+    private static double wrap(final double a) {
+        return Math.atan2(Math.sin(a), Math.cos(a));
+    }
+
+    @Test
+    public void split_merges_short_remainder() {
+        assertArrayEquals(new int[]{0, 4, 10}, SequentialPhaseLinker.splitMinistacks(10, 4));
+        assertArrayEquals(new int[]{0, 3}, SequentialPhaseLinker.splitMinistacks(3, 5));
+        assertArrayEquals(new int[]{0, 5, 10, 15}, SequentialPhaseLinker.splitMinistacks(15, 5));
+    }
+
+    @Test
+    public void sequential_recovers_phase_on_common_datum() {
+        final double[] theta = ramp();
+        final double[][][] s = samples(theta, 0.0, 1);
+
+        final SequentialPhaseLinker linker = new SequentialPhaseLinker(0,
+                SequentialPhaseLinker.splitMinistacks(N, 4), new EVDEstimator(), false, 1);
+        assertEquals(3, linker.getNumMinistacks());
+        final double gamma = linker.link(NUM_SHP, s[0], s[1]);
+
+        assertEquals(1.0, gamma, 1e-9);
+        final double[] phi = linker.getPhases();
+        for (int i = 0; i < N; i++) {
+            assertEquals("epoch " + i, wrap(theta[i] - theta[1]), wrap(phi[i]), 1e-6);
+        }
+    }
+
+    @Test
+    public void sequential_matches_full_stack_at_high_coherence() {
+        final double[] theta = ramp();
+        final double[][][] s = samples(theta, 0.2, 2);
+
+        final SequentialPhaseLinker sequential = new SequentialPhaseLinker(0,
+                SequentialPhaseLinker.splitMinistacks(N, 4), new EVDEstimator(), false, 0);
+        sequential.link(NUM_SHP, s[0], s[1]);
+
+        final SequentialPhaseLinker full = new SequentialPhaseLinker(0, new int[]{0, N},
+                new EVDEstimator(), false, 0);
+        full.link(NUM_SHP, s[0], s[1]);
+
+        for (int i = 0; i < N; i++) {
+            assertEquals("epoch " + i, 0.0, wrap(sequential.getPhases()[i] - full.getPhases()[i]), 0.05);
+        }
+    }
+
+    @Test
+    public void update_from_history_matches_single_run() {
+        final double[] theta = ramp();
+        final double[][][] s = samples(theta, 0.5, 3);
+
+        // one run over all three ministacks
+        final SequentialPhaseLinker all = new SequentialPhaseLinker(0, new int[]{0, 4, 8, 12},
+                new EVDEstimator(), false, 0);
+        final double gammaAll = all.link(NUM_SHP, s[0], s[1]);
+
+        // archive run over the first two ministacks, compressing every SHP sample with the centre phases
+        final SequentialPhaseLinker archive = new SequentialPhaseLinker(0, new int[]{0, 4, 8},
+                new EVDEstimator(), false, 0);
+        archive.link(NUM_SHP, s[0], s[1]);
+        final double[] phi = archive.getPhases();
+
+        final double[][] re = new double[NUM_SHP][2 + 4];
+        final double[][] im = new double[NUM_SHP][2 + 4];
+        for (int q = 0; q < NUM_SHP; q++) {
+            for (int k = 0; k < 2; k++) {
+                double cr = 0, ci = 0;
+                for (int i = 4 * k; i < 4 * k + 4; i++) {
+                    final double c = Math.cos(phi[i]), sn = Math.sin(phi[i]);
+                    cr += s[0][q][i] * c + s[1][q][i] * sn;
+                    ci += s[1][q][i] * c - s[0][q][i] * sn;
+                }
+                re[q][k] = cr / 4;
+                im[q][k] = ci / 4;
+            }
+            System.arraycopy(s[0][q], 8, re[q], 2, 4);
+            System.arraycopy(s[1][q], 8, im[q], 2, 4);
+        }
+        assertEquals(re[0][0], archive.getCompressedRe(0), 1e-12);
+        assertEquals(im[0][1], archive.getCompressedIm(1), 1e-12);
+
+        // incremental run over the newest ministack only
+        final SequentialPhaseLinker update = new SequentialPhaseLinker(2, new int[]{0, 4},
+                new EVDEstimator(), false, 0);
+        update.link(NUM_SHP, re, im);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("epoch " + (8 + i), all.getPhases()[8 + i], update.getPhases()[i], 1e-9);
+        }
+        assertEquals(all.getTemporalCoherence(2), update.getTemporalCoherence(0), 1e-9);
+        assertTrue(gammaAll > 0 && gammaAll <= 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reference_outside_first_ministack_is_rejected() {
+        new SequentialPhaseLinker(0, new int[]{0, 4, 8}, new EVDEstimator(), false, 5);
+    }
+
+    @Test
+    public void shp_mask_round_trip() {
+        final SHPMask mask = new SHPMask(21, 7);
+        assertEquals(5, mask.getNumWords());
+        mask.set(0, 0);
+        mask.set(-3, -10);
+        mask.set(3, 10);
+        assertEquals(3, mask.count());
+        assertTrue(mask.get(-3, -10));
+        assertTrue(mask.get(3, 10));
+        assertFalse(mask.get(1, 0));
+        assertFalse(mask.get(4, 0));
+
+        final SHPMask copy = new SHPMask(21, 7);
+        for (int w = 0; w < mask.getNumWords(); w++) copy.setWord(w, mask.getWord(w));
+        assertTrue(copy.get(0, 0));
+        assertEquals(3, copy.count());
+        copy.clear();
+        assertEquals(0, copy.count());
+    }
+}
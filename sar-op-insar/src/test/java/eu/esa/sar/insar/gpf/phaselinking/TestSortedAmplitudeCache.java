@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.phaselinking;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestSortedAmplitudeCache {
+
+    private static final int N = 16;
+
+    /** Rayleigh amplitudes rounded to float, so both selector paths see identical values. */
+    private static double[] series(final Random rng, final double sigma) {
+        final double[] out = new double[N];
+        for (int i = 0; i < N; i++) {
+            out[i] = (float) (sigma * Math.sqrt(-2.0 * Math.log(Math.max(1.0e-12, 1.0 - rng.nextDouble()))));
+        }
+        return out;
+    }
+
+    private static void assertSortedPathAgrees(final SHPSelector selector, final long seed) {
+        final Random rng = new Random(seed);
+        final float[] sorted = new float[2 * N];
+        for (int t = 0; t < 300; t++) {
+            final double[] centre = series(rng, 1.0);
+            final double[] candidate = series(rng, t % 3 == 0 ? 2.0 : 1.0);
+            for (int i = 0; i < N; i++) {
+                sorted[i] = (float) centre[i];
+                sorted[N + i] = (float) candidate[i];
+            }
+            Arrays.sort(sorted, 0, N);
+            Arrays.sort(sorted, N, 2 * N);
+            selector.prepareCentre(centre);
+            assertEquals("trial " + t, selector.accept(centre, candidate), selector.acceptSorted(sorted, 0, N, N));
+        }
+    }
+
+    @Test
+    public void ks_sorted_path_matches_accept() {
+        assertSortedPathAgrees(new KSSelector(0.05, N), 1L);
+    }
+
+    @Test
+    public void ad_sorted_path_matches_accept() {
+        assertSortedPathAgrees(new ADSelector(0.05, N), 2L);
+    }
+
+    @Test
+    public void tlog_sorted_path_matches_accept() {
+        assertSortedPathAgrees(new TLogSelector(0.05), 3L);
+    }
+
+    @Test
+    public void ring_selection_matches_window_walk() {
+        final int w = 24, h = 20, waz = 7, wrg = 5;
+        final Random rng = new Random(4L);
+        final double[][][] amp = new double[h][w][];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                amp[y][x] = series(rng, (x > 12 && y > 8) ? 4.0 : 1.0);
+            }
+        }
+        amp[10][10][3] = 0.0;   // invalid pixel, never selected
+
+        final KSSelector ks = new KSSelector(0.05, N);
+        final SortedAmplitudeCache cache = new SortedAmplitudeCache(0, w, waz, N);
+        final SHPMask mask = new SHPMask(waz, wrg);
+        for (int y = 0; y < waz - 1; y++) {
+            for (int x = 0; x < w; x++) {
+                cache.put(x, y, amp[y][x], amp[y][x][3] != 0.0);
+            }
+        }
+        for (int y = waz / 2; y < h - waz / 2; y++) {
+            final int newRow = y + waz / 2;
+            for (int x = 0; x < w; x++) {
+                cache.put(x, newRow, amp[newRow][x], amp[newRow][x][3] != 0.0);
+            }
+            for (int x = 0; x < w; x++) {
+                final int count = cache.select(ks, x, y, mask);
+                assertEquals(mask.count(), count);
+
+                ks.prepareCentre(amp[y][x]);
+                for (int dy = -waz / 2; dy <= waz / 2; dy++) {
+                    for (int dx = -wrg / 2; dx <= wrg / 2; dx++) {
+                        final int xx = x + dx, yy = y + dy;
+                        final boolean expected = xx >= 0 && xx < w && amp[yy][xx][3] != 0.0
+                                && ks.accept(amp[y][x], amp[yy][xx]);
+                        assertEquals("(" + x + "," + y + ") offset (" + dx + "," + dy + ")",
+                                expected, mask.get(dx, dy));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rows_outside_the_ring_are_rejected() {
+        final SortedAmplitudeCache cache = new SortedAmplitudeCache(0, 4, 3, N);
+        final double[] a = series(new Random(5L), 1.0);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 4; x++) {
+                cache.put(x, y, a, true);
+            }
+        }
+        cache.put(0, 3, a, true);   // row 3 takes over the slot of row 0
+        cache.offset(1, 0);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.support;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link CovarianceAccumulator}.
+ */
+public class TestCovarianceAccumulator {
+
+    private static double[][] createSamples(final int numBands, final int numPixels) {
+        final Random random = new Random(7);
+        final double[][] samples = new double[numBands][numPixels];
+        for (int k = 0; k < numPixels; ++k) {
+            final double common = random.nextGaussian();
+            for (int b = 0; b < numBands; ++b) {
+                samples[b][k] = 1000.0 + b + (b + 1) * common + random.nextGaussian();
+            }
+        }
+        return samples;
+    }
+
+    private static double[][] slice(final double[][] samples, final int from, final int to) {
+        final double[][] out = new double[samples.length][];
+        for (int b = 0; b < samples.length; ++b) {
+            out[b] = Arrays.copyOfRange(samples[b], from, to);
+        }
+        return out;
+    }
+
+    @Test
+    public void testMatchesTwoPassCovariance() {
+        final int nb = 4, np = 5000;
+        final double[][] samples = createSamples(nb, np);
+
+        final CovarianceAccumulator acc = new CovarianceAccumulator(nb);
+        acc.accumulate(samples, null, np);
+
+        final double[] mean = new double[nb];
+        for (int b = 0; b < nb; ++b) {
+            for (double v : samples[b]) {
+                mean[b] += v / np;
+            }
+        }
+        final double[][] cov = acc.getCovariance();
+        for (int i = 0; i < nb; ++i) {
+            assertEquals(mean[i], acc.getMean()[i], 1e-9);
+            for (int j = 0; j < nb; ++j) {
+                double s = 0;
+                for (int k = 0; k < np; ++k) {
+                    s += (samples[i][k] - mean[i]) * (samples[j][k] - mean[j]);
+                }
+                assertEquals(s / np, cov[i][j], 1e-9);
+            }
+        }
+        assertEquals(np, acc.getCount());
+    }
+
+    @Test
+    public void testMergeIsOrderIndependent() {
+        final int nb = 3, np = 3000;
+        final double[][] samples = createSamples(nb, np);
+
+        final CovarianceAccumulator whole = new CovarianceAccumulator(nb);
+        whole.accumulate(samples, null, np);
+
+        final CovarianceAccumulator a = new CovarianceAccumulator(nb);
+        a.accumulate(slice(samples, 0, 1000), null, 1000);
+        final CovarianceAccumulator b = new CovarianceAccumulator(nb);
+        b.accumulate(slice(samples, 1000, 1700), null, 700);
+        final CovarianceAccumulator c = new CovarianceAccumulator(nb);
+        c.accumulate(slice(samples, 1700, np), null, np - 1700);
+
+        final CovarianceAccumulator merged = new CovarianceAccumulator(nb);
+        merged.merge(c);
+        merged.merge(a);
+        merged.merge(b);
+
+        final double[][] expected = whole.getCovariance();
+        final double[][] actual = merged.getCovariance();
+        for (int i = 0; i < nb; ++i) {
+            assertEquals(whole.getMean()[i], merged.getMean()[i], 1e-9);
+            assertEquals(whole.getMin(i), merged.getMin(i), 0);
+            assertEquals(whole.getMax(i), merged.getMax(i), 0);
+            for (int j = 0; j < nb; ++j) {
+                assertEquals(expected[i][j], actual[i][j], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testOffsetIsSubtractedFromMoments() {
+        final double[][] samples = {{1, 2, 3, 4}, {2, 4, 6, 8}};
+        final double[] offset = {1, 2, 3, 4};
+
+        final CovarianceAccumulator acc = new CovarianceAccumulator(2);
+        acc.accumulate(samples, offset, 4);
+
+        assertEquals(0.0, acc.getMean()[0], 1e-12);
+        assertEquals(2.5, acc.getMean()[1], 1e-12);
+        assertEquals(0.0, acc.getCovariance()[0][0], 1e-12);
+        assertEquals(1.25, acc.getCovariance()[1][1], 1e-12);
+        // bounds refer to the raw samples
+        assertEquals(2.0, acc.getMin(1), 0);
+        assertEquals(8.0, acc.getMax(1), 0);
+    }
+
+    @Test
+    public void testProjectionLowerBound() {
+        final int nb = 3, np = 500;
+        final double[][] samples = createSamples(nb, np);
+        final CovarianceAccumulator acc = new CovarianceAccumulator(nb);
+        acc.accumulate(samples, null, np);
+
+        final double[] vector = {0.5, -0.7, 0.2};
+        final double bound = acc.getProjectionLowerBound(vector);
+        for (int k = 0; k < np; ++k) {
+            double p = 0;
+            for (int b = 0; b < nb; ++b) {
+                p += vector[b] * samples[b][k];
+            }
+            assertTrue(p >= bound);
+        }
+    }
+}
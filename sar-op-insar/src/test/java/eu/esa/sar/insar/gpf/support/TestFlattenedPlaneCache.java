@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.support;
+
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for {@link FlattenedPlaneCache}.
+ */
+public class TestFlattenedPlaneCache {
+
+    private static final int W = 16;
+    private static final int H = 12;
+    private static final double NODATA = 0.0;
+
+    private static double[][][] createEpochs(final int numEpochs) {
+        final Random random = new Random(11);
+        // [epoch][I, Q, phase][pixel]
+        final double[][][] epochs = new double[numEpochs][3][W * H];
+        for (int e = 0; e < numEpochs; ++e) {
+            for (int k = 0; k < W * H; ++k) {
+                epochs[e][0][k] = random.nextGaussian();
+                epochs[e][1][k] = random.nextGaussian();
+                epochs[e][2][k] = e == 0 ? 0.0 : 2000.0 * random.nextDouble();
+            }
+        }
+        return epochs;
+    }
+
+    private static FlattenedPlaneCache.Plane createPlane(final double[][] epoch) {
+        final FlattenedPlaneCache.Plane plane = new FlattenedPlaneCache.Plane(W, H);
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                final int k = y * W + x;
+                if (epoch[0][k] == NODATA) {
+                    plane.setNoData(x, y);
+                } else {
+                    plane.set(x, y, epoch[0][k], epoch[1][k], epoch[2][k]);
+                }
+            }
+        }
+        return plane;
+    }
+
+    @Test
+    public void testMatchesPairwiseFlattening() {
+        final double[][][] epochs = createEpochs(3);
+        epochs[2][0][5] = NODATA;
+        final FlattenedPlaneCache.Plane p1 = createPlane(epochs[1]);
+        final FlattenedPlaneCache.Plane p2 = createPlane(epochs[2]);
+
+        final double[][] ifgI = new double[H][W], ifgQ = new double[H][W];
+        final double[][] int1 = new double[H][W], int2 = new double[H][W];
+        FlattenedPlaneCache.interfere(p1, p2, NODATA, ifgI, ifgQ, int1, int2);
+
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                final int k = y * W + x;
+                if (k == 5) {
+                    assertEquals(NODATA, ifgI[y][x], 0.0);
+                    assertEquals(NODATA, int1[y][x], 0.0);
+                    continue;
+                }
+                final double i0 = epochs[1][0][k], q0 = epochs[1][1][k];
+                final double i1 = epochs[2][0][k], q1 = epochs[2][1][k];
+                final double re = i0 * i1 + q0 * q1;
+                final double im = -i0 * q1 + q0 * i1;
+                final double angle = epochs[1][2][k] - epochs[2][2][k];
+                final double c = FastMath.cos(angle), s = FastMath.sin(angle);
+
+                assertEquals(re * c + im * s, ifgI[y][x], 1e-9);
+                assertEquals(-re * s + im * c, ifgQ[y][x], 1e-9);
+                assertEquals(i0 * i0 + q0 * q0, int1[y][x], 0.0);
+                assertEquals(i1 * i1 + q1 * q1, int2[y][x], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testReferenceEpochIsUnrotated() {
+        final double[][][] epochs = createEpochs(1);
+        final FlattenedPlaneCache.Plane p0 = createPlane(epochs[0]);
+        final double[][] ifgI = new double[H][W], ifgQ = new double[H][W];
+        final double[][] int0 = new double[H][W], int1 = new double[H][W];
+        FlattenedPlaneCache.interfere(p0, p0, NODATA, ifgI, ifgQ, int0, int1);
+
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                assertEquals(int0[y][x], ifgI[y][x], 1e-12);
+                assertEquals(0.0, ifgQ[y][x], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        final double[][][] epochs = createEpochs(4);
+        final FlattenedPlaneCache<Integer> cache = new FlattenedPlaneCache<>(2, e -> createPlane(epochs[e]));
+
+        final FlattenedPlaneCache.Plane p0 = cache.get(0);
+        cache.get(1);
+        assertSame(p0, cache.get(0));
+        assertEquals(2, cache.getNumLoads());
+
+        cache.get(2); // evicts 1
+        assertSame(p0, cache.get(0));
+        assertEquals(3, cache.getNumLoads());
+
+        cache.get(1);
+        assertEquals(4, cache.getNumLoads());
+    }
+
+    @Test
+    public void testMaxPlanesFromBudget() {
+        assertEquals(2, FlattenedPlaneCache.getMaxPlanes(512, 512, 0));
+        final long planeBytes = 100L * 100 * FlattenedPlaneCache.Plane.BYTES_PER_PIXEL;
+        assertEquals(10, FlattenedPlaneCache.getMaxPlanes(100, 100, 10 * planeBytes + 1));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.support;
+
+import Jama.EigenvalueDecomposition;
+import Jama.Matrix;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link TruncatedEigenSolver}.
+ */
+public class TestTruncatedEigenSolver {
+
+    /**
+     * Covariance of a low rank signal plus white noise, as found in long SAR time series.
+     */
+    private static double[][] createCovariance(final int n) {
+        final Random random = new Random(3);
+        final double[][] basis = new double[3][n];
+        for (double[] v : basis) {
+            for (int i = 0; i < n; ++i) {
+                v[i] = random.nextGaussian();
+            }
+        }
+        final double[] weights = {100, 30, 10};
+        final double[][] cov = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                double s = i == j ? 1.0 : 0.0;
+                for (int b = 0; b < 3; ++b) {
+                    s += weights[b] * basis[b][i] * basis[b][j];
+                }
+                cov[i][j] = s;
+            }
+        }
+        return cov;
+    }
+
+    @Test
+    public void testLeadingEigenpairsMatchDenseDecomposition() {
+        final int n = 120, k = 3;
+        final double[][] cov = createCovariance(n);
+
+        final TruncatedEigenSolver solver = new TruncatedEigenSolver(cov, k);
+        final EigenvalueDecomposition evd = new Matrix(cov).eig();
+        final double[] expected = evd.getRealEigenvalues();
+
+        for (int c = 0; c < k; ++c) {
+            final int ref = n - 1 - c;
+            assertEquals(expected[ref], solver.getEigenValues()[c], 1e-6 * expected[ref]);
+
+            double dot = 0;
+            for (int i = 0; i < n; ++i) {
+                dot += solver.getEigenVectors()[c][i] * evd.getV().get(i, ref);
+            }
+            assertEquals(1.0, Math.abs(dot), 1e-6);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTooManyEigenpairs() {
+        new TruncatedEigenSolver(createCovariance(4), 5);
+    }
+}
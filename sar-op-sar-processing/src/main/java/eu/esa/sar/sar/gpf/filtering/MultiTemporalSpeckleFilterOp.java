@@ -68,6 +68,13 @@ import java.util.Map;
  * Here it is assumed that preprocessing has been performed before applying this operator. The input to
  * the operator is assumed to be a product with multiple calibrated and co-registrated bands.
  * <p/>
+ * With temporal streaming the dates are visited one at a time: the first pass accumulates the ratio sum
+ * while the spatially filtered date is parked in its own target tile, and the second pass rescales the
+ * target tiles, so the working memory of a tile does not grow with the number of dates.
+ * <p/>
+ * The per-pixel ratio sum and count can be written out as bands and supplied again as the accumulators
+ * source, so that a new acquisition is filtered against the full history without re-reading it.
+ * <p/>
  * Reference:
  * [1] S. Quegan, T. L. Toan, J. J. Yu, F. Ribbes and N. Floury, "Multitemporal ERS SAR Analysis Applied to
  * Forest Mapping", IEEE Transactions on Geoscience and Remote Sensing, vol. 38, no. 2, March 2000.
@@ -83,6 +90,9 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
 
     @SourceProduct(alias = "source")
     private Product sourceProduct = null;
+    @SourceProduct(alias = "accumulators", optional = true,
+            description = "Temporal accumulators written by a previous run with outputAccumulators")
+    private Product accumulatorProduct = null;
     @TargetProduct
     private Product targetProduct;
 
@@ -140,6 +150,17 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
             label = "Adaptive Neighbourhood Size")
     private int anSize = 50;
 
+    @Parameter(description = "Filter one date at a time with working memory independent of the stack depth",
+            defaultValue = "false", label = "Temporal Streaming")
+    private boolean temporalStreaming = false;
+
+    @Parameter(description = "Write the per-pixel temporal ratio sum and count for incremental updates",
+            defaultValue = "false", label = "Output Temporal Accumulators")
+    private boolean outputAccumulators = false;
+
+    public static final String RATIO_SUM_BAND = "ratio_sum";
+    public static final String RATIO_COUNT_BAND = "ratio_count";
+
     private final Map<String, String[]> targetBandNameToSourceBandName = new HashMap<>();
 
     private SpeckleFilter speckleFilter;
@@ -236,6 +257,9 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
             }
         } else {
             addSelectedBands();
+            if (outputAccumulators) {
+                addAccumulatorBands();
+            }
         }
 
         updateTargetProductMetadata();
@@ -258,7 +282,7 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
         }
         final Band[] sourceBands = OperatorUtils.getSourceBands(sourceProduct, sourceBandNames, false);
 
-        if (sourceBands.length <= 1) {
+        if (sourceBands.length <= 1 && accumulatorProduct == null) {
             throw new OperatorException("Multitemporal filtering cannot be applied with one source band. Select more bands.");
         }
 
@@ -284,6 +308,19 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
         }
     }
 
+    private void addAccumulatorBands() {
+
+        final int width = sourceProduct.getSceneRasterWidth();
+        final int height = sourceProduct.getSceneRasterHeight();
+        final Band sumBand = new Band(RATIO_SUM_BAND, ProductData.TYPE_FLOAT64, width, height);
+        sumBand.setDescription("Sum over dates of the ratio of each date to its spatially filtered image");
+        targetProduct.addBand(sumBand);
+
+        final Band countBand = new Band(RATIO_COUNT_BAND, ProductData.TYPE_INT32, width, height);
+        countBand.setDescription("Number of dates contributing to " + RATIO_SUM_BAND);
+        targetProduct.addBand(countBand);
+    }
+
     private SpeckleFilter createFilter() {
 
         switch (filter) {
@@ -345,14 +382,23 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
         //System.out.println("x0 = " + x0 + ", y0 = " + y0 + ", w = " + w + ", h = " + h);
 
         try {
-            final Band[] targetBands = targetProduct.getBands();
-            final int numBands = targetBands.length;
+            final List<Band> targetBands = new ArrayList<>();
+            for (Band tgtBand : targetProduct.getBands()) {
+                if (targetBandNameToSourceBandName.containsKey(tgtBand.getName())) {
+                    targetBands.add(tgtBand);
+                }
+            }
+            final int numBands = targetBands.size();
 
-            final List<double[][]> filteredTileList = new ArrayList<>();;
+            final List<double[][]> filteredTileList = new ArrayList<>();
             double[][] sum = new double[h][w];
             int[][] count = new int[h][w];
+            if (accumulatorProduct != null) {
+                addPersistedAccumulators(targetRectangle, sum, count);
+            }
+
             for (Band tgtBand : targetBands) {
-                final Band srcBand = sourceProduct.getBand(tgtBand.getName());
+                final Band srcBand = sourceProduct.getBand(targetBandNameToSourceBandName.get(tgtBand.getName())[0]);
                 final Tile srcTile = getSourceTile(srcBand, targetRectangle);
                 final ProductData srcData = srcTile.getDataBuffer();
                 final double bandNoDataValues = srcBand.getNoDataValue();
@@ -360,7 +406,18 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
 
                 final double[][] filteredTile = speckleFilter.performFiltering(x0, y0, w, h, srcBandNames);
 
-                filteredTileList.add(filteredTile);
+                if (temporalStreaming) {
+                    // park the filtered date in its own target tile until the temporal mean is known
+                    final Tile targetTile = targetTiles.get(tgtBand);
+                    final ProductData targetData = targetTile.getDataBuffer();
+                    for (int y = y0; y < yMax; ++y) {
+                        for (int x = x0; x < xMax; ++x) {
+                            targetData.setElemDoubleAt(targetTile.getDataBufferIndex(x, y), filteredTile[y - y0][x - x0]);
+                        }
+                    }
+                } else {
+                    filteredTileList.add(filteredTile);
+                }
 
                 for (int y = y0; y < yMax; ++y) {
                     final int yy = y - y0;
@@ -379,6 +436,10 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
                 }
             }
 
+            if (outputAccumulators) {
+                writeAccumulators(targetTiles, sum, count);
+            }
+
             for (int yy = 0; yy < h; ++yy) {
                 for (int xx = 0; xx < w; ++xx) {
                     if (count[yy][xx] > 0) {
@@ -388,11 +449,11 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
             }
 
             for (int i = 0; i < numBands; i++) {
-                Tile targetTile = targetTiles.get(targetBands[i]);
+                Tile targetTile = targetTiles.get(targetBands.get(i));
                 final ProductData targetData = targetTile.getDataBuffer();
-                final Band srcBand = sourceProduct.getBand(targetBandNameToSourceBandName.get(targetBands[i].getName())[0]);
+                final Band srcBand = sourceProduct.getBand(targetBandNameToSourceBandName.get(targetBands.get(i).getName())[0]);
                 final double bandNoDataValue = srcBand.getNoDataValue();
-                final double[][] filteredTile = filteredTileList.get(i);
+                final double[][] filteredTile = temporalStreaming ? null : filteredTileList.get(i);
                 for (int y = y0; y < yMax; y++) {
                     final int yy = y - y0;
                     for (int x = x0; x < xMax; x++) {
@@ -404,7 +465,9 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
                         if (count[yy][xx] == 0) {
                             targetData.setElemDoubleAt(targetIndex, bandNoDataValue);
                         } else {
-                            targetData.setElemDoubleAt(targetIndex, filteredTile[yy][xx] * sum[yy][xx]);
+                            final double f = filteredTile != null ? filteredTile[yy][xx] :
+                                    targetData.getElemDoubleAt(targetIndex);
+                            targetData.setElemDoubleAt(targetIndex, f * sum[yy][xx]);
                         }
                     }
                 }
@@ -418,6 +481,45 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
     }
 
 
+    /**
+     * Adds the ratio sum and count persisted by a previous run.
+     */
+    private void addPersistedAccumulators(final Rectangle rect, final double[][] sum, final int[][] count) {
+
+        final Band sumBand = accumulatorProduct.getBand(RATIO_SUM_BAND);
+        final Band countBand = accumulatorProduct.getBand(RATIO_COUNT_BAND);
+        if (sumBand == null || countBand == null) {
+            throw new OperatorException("Accumulator product requires bands " + RATIO_SUM_BAND + " and " + RATIO_COUNT_BAND);
+        }
+        final Tile sumTile = getSourceTile(sumBand, rect);
+        final Tile countTile = getSourceTile(countBand, rect);
+        for (int y = rect.y; y < rect.y + rect.height; ++y) {
+            for (int x = rect.x; x < rect.x + rect.width; ++x) {
+                final int n = countTile.getSampleInt(x, y);
+                if (n > 0) {
+                    sum[y - rect.y][x - rect.x] += sumTile.getSampleDouble(x, y);
+                    count[y - rect.y][x - rect.x] += n;
+                }
+            }
+        }
+    }
+
+    private void writeAccumulators(final Map<Band, Tile> targetTiles, final double[][] sum, final int[][] count) {
+
+        final Tile sumTile = targetTiles.get(targetProduct.getBand(RATIO_SUM_BAND));
+        final Tile countTile = targetTiles.get(targetProduct.getBand(RATIO_COUNT_BAND));
+        if (sumTile == null || countTile == null) {
+            return;
+        }
+        final Rectangle rect = sumTile.getRectangle();
+        for (int y = rect.y; y < rect.y + rect.height; ++y) {
+            for (int x = rect.x; x < rect.x + rect.width; ++x) {
+                sumTile.setSample(x, y, sum[y - rect.y][x - rect.x]);
+                countTile.setSample(x, y, count[y - rect.y][x - rect.x]);
+            }
+        }
+    }
+
     /**
      * The SPI is used to register this operator in the graph processing framework
      * via the SPI configuration file
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.geometric;
+
+import eu.esa.sar.commons.OrbitStateVectors;
+import eu.esa.sar.commons.SARGeocoding;
+import eu.esa.sar.commons.SARUtils;
+import eu.esa.sar.insar.gpf.support.SARPosition;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
+import org.esa.snap.engine_utilities.gpf.OperatorUtils;
+
+/**
+ * Range-Doppler imaging geometry of one acquisition: timing, range sampling and orbit.
+ *
+ * A geometry LUT product written by Terrain-Correction keeps the geometry of the acquisition it was
+ * computed from in a Geometry_LUT element, since the abstracted metadata of the map projected
+ * product no longer describes the slant or ground range grid.
+ */
+final class AcquisitionGeometry {
+
+    static final String GEOMETRY_LUT_ELEM = "Geometry_LUT";
+
+    private static final String FIRST_LINE_TIME = "first_line_time_mjd";
+    private static final String LAST_LINE_TIME = "last_line_time_mjd";
+    private static final String LINE_TIME_INTERVAL = "line_time_interval_days";
+    private static final String WAVELENGTH = "wavelength";
+    private static final String RANGE_SPACING = "range_spacing";
+    private static final String NEAR_EDGE_SLANT_RANGE = "near_edge_slant_range";
+    private static final String WIDTH = "source_width";
+    private static final String HEIGHT = "source_height";
+    private static final String SRGR_FLAG = "srgr_flag";
+    private static final String NEAR_RANGE_ON_LEFT = "near_range_on_left";
+
+    final double firstLineUTC;      // in days
+    final double lastLineUTC;       // in days
+    final double lineTimeInterval;  // in days
+    final double wavelength;        // in m
+    final double rangeSpacing;      // in m
+    final double nearEdgeSlantRange;
+    final int width;
+    final int height;
+    final boolean srgrFlag;
+    final boolean nearRangeOnLeft;
+    final OrbitStateVectors orbit;
+    final AbstractMetadata.SRGRCoefficientList[] srgrConvParams;
+
+    AcquisitionGeometry(final double firstLineUTC, final double lastLineUTC, final double lineTimeInterval,
+                        final double wavelength, final double rangeSpacing, final double nearEdgeSlantRange,
+                        final int width, final int height, final boolean srgrFlag, final boolean nearRangeOnLeft,
+                        final OrbitStateVectors orbit, final AbstractMetadata.SRGRCoefficientList[] srgrConvParams) {
+        this.firstLineUTC = firstLineUTC;
+        this.lastLineUTC = lastLineUTC;
+        this.lineTimeInterval = lineTimeInterval;
+        this.wavelength = wavelength;
+        this.rangeSpacing = rangeSpacing;
+        this.nearEdgeSlantRange = nearEdgeSlantRange;
+        this.width = width;
+        this.height = height;
+        this.srgrFlag = srgrFlag;
+        this.nearRangeOnLeft = nearRangeOnLeft;
+        this.orbit = orbit;
+        this.srgrConvParams = srgrConvParams;
+    }
+
+    /**
+     * Reads the geometry of a slant or ground range SAR product from its abstracted metadata.
+     */
+    static AcquisitionGeometry fromSARProduct(final Product product) throws Exception {
+        final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(product);
+        final int width = product.getSceneRasterWidth();
+        final int height = product.getSceneRasterHeight();
+
+        final double rangeSpacing = AbstractMetadata.getAttributeDouble(absRoot, AbstractMetadata.range_spacing);
+        if (rangeSpacing <= 0.0) {
+            throw new OperatorException("Invalid input for range pixel spacing: " + rangeSpacing);
+        }
+
+        final double firstLineUTC = AbstractMetadata.parseUTC(
+                absRoot.getAttributeString(AbstractMetadata.first_line_time)).getMJD();
+        final double lastLineUTC = AbstractMetadata.parseUTC(
+                absRoot.getAttributeString(AbstractMetadata.last_line_time)).getMJD();
+        final double lineTimeInterval = (lastLineUTC - firstLineUTC) / (height - 1);
+        if (lineTimeInterval == 0.0) {
+            throw new OperatorException("Invalid input for Line Time Interval: " + lineTimeInterval);
+        }
+
+        final boolean srgrFlag = AbstractMetadata.getAttributeBoolean(absRoot, AbstractMetadata.srgr_flag);
+        final double nearEdgeSlantRange = srgrFlag ? 0.0 :
+                AbstractMetadata.getAttributeDouble(absRoot, AbstractMetadata.slant_range_to_first_pixel);
+        final boolean nearRangeOnLeft = SARGeocoding.isNearRangeOnLeft(
+                OperatorUtils.getIncidenceAngle(product), width);
+
+        return new AcquisitionGeometry(firstLineUTC, lastLineUTC, lineTimeInterval,
+                SARUtils.getRadarWavelength(absRoot), rangeSpacing, nearEdgeSlantRange, width, height,
+                srgrFlag, nearRangeOnLeft, getOrbit(absRoot, firstLineUTC, lineTimeInterval, height),
+                srgrFlag ? getSRGRCoefficients(absRoot) : null);
+    }
+
+    /**
+     * Reads the geometry of the reference acquisition of a geometry LUT product.
+     */
+    static AcquisitionGeometry fromGeometryLUT(final Product lutProduct) {
+        final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(lutProduct);
+        final MetadataElement elem = absRoot.getElement(GEOMETRY_LUT_ELEM);
+        if (elem == null) {
+            throw new OperatorException(lutProduct.getName() + " is not a geometry LUT. " +
+                    "Create one with Terrain-Correction and saveGeometryLUT selected");
+        }
+
+        final double firstLineUTC = elem.getAttributeDouble(FIRST_LINE_TIME);
+        final double lineTimeInterval = elem.getAttributeDouble(LINE_TIME_INTERVAL);
+        final int height = elem.getAttributeInt(HEIGHT);
+        final boolean srgrFlag = elem.getAttributeInt(SRGR_FLAG) == 1;
+
+        return new AcquisitionGeometry(firstLineUTC, elem.getAttributeDouble(LAST_LINE_TIME), lineTimeInterval,
+                elem.getAttributeDouble(WAVELENGTH), elem.getAttributeDouble(RANGE_SPACING),
+                elem.getAttributeDouble(NEAR_EDGE_SLANT_RANGE), elem.getAttributeInt(WIDTH), height,
+                srgrFlag, elem.getAttributeInt(NEAR_RANGE_ON_LEFT) == 1,
+                getOrbit(absRoot, firstLineUTC, lineTimeInterval, height),
+                srgrFlag ? getSRGRCoefficients(absRoot) : null);
+    }
+
+    private static OrbitStateVectors getOrbit(final MetadataElement absRoot, final double firstLineUTC,
+                                              final double lineTimeInterval, final int height) {
+        final OrbitStateVector[] orbitStateVectors = AbstractMetadata.getOrbitStateVectors(absRoot);
+        if (orbitStateVectors == null || orbitStateVectors.length == 0) {
+            throw new OperatorException("Invalid Orbit State Vectors");
+        }
+        return new OrbitStateVectors(orbitStateVectors, firstLineUTC, lineTimeInterval, height);
+    }
+
+    private static AbstractMetadata.SRGRCoefficientList[] getSRGRCoefficients(final MetadataElement absRoot) {
+        final AbstractMetadata.SRGRCoefficientList[] srgrConvParams = AbstractMetadata.getSRGRCoefficients(absRoot);
+        if (srgrConvParams == null || srgrConvParams.length == 0) {
+            throw new OperatorException("Invalid SRGR Coefficients");
+        }
+        return srgrConvParams;
+    }
+
+    /**
+     * Saves this geometry in the Geometry_LUT element of a target product's abstracted metadata.
+     * The orbit and SRGR coefficients are read back from the abstracted metadata itself.
+     */
+    void writeGeometryLUTElement(final MetadataElement absTgt) {
+        MetadataElement elem = absTgt.getElement(GEOMETRY_LUT_ELEM);
+        if (elem == null) {
+            elem = new MetadataElement(GEOMETRY_LUT_ELEM);
+            absTgt.addElement(elem);
+        }
+        elem.setAttributeDouble(FIRST_LINE_TIME, firstLineUTC);
+        elem.setAttributeDouble(LAST_LINE_TIME, lastLineUTC);
+        elem.setAttributeDouble(LINE_TIME_INTERVAL, lineTimeInterval);
+        elem.setAttributeDouble(WAVELENGTH, wavelength);
+        elem.setAttributeDouble(RANGE_SPACING, rangeSpacing);
+        elem.setAttributeDouble(NEAR_EDGE_SLANT_RANGE, nearEdgeSlantRange);
+        elem.setAttributeInt(WIDTH, width);
+        elem.setAttributeInt(HEIGHT, height);
+        elem.setAttributeInt(SRGR_FLAG, srgrFlag ? 1 : 0);
+        elem.setAttributeInt(NEAR_RANGE_ON_LEFT, nearRangeOnLeft ? 1 : 0);
+    }
+
+    /**
+     * @return a position solver for this acquisition without tile constraints; safe to share between threads
+     */
+    SARPosition createSARPosition() {
+        return new SARPosition(firstLineUTC, lastLineUTC, lineTimeInterval, wavelength, rangeSpacing, width,
+                srgrFlag, nearEdgeSlantRange, nearRangeOnLeft, orbit, srgrConvParams);
+    }
+}
@@ -0,0 +1,572 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.geometric;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.insar.gpf.support.SARPosition;
+import org.esa.snap.core.dataio.ProductIO;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.GeoCoding;
+import org.esa.snap.core.datamodel.GeoPos;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.PixelPos;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.dataop.resamp.Resampling;
+import org.esa.snap.core.dataop.resamp.ResamplingFactory;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.gpf.annotations.OperatorMetadata;
+import org.esa.snap.core.gpf.annotations.Parameter;
+import org.esa.snap.core.gpf.annotations.SourceProduct;
+import org.esa.snap.core.gpf.annotations.TargetProduct;
+import org.esa.snap.core.util.ProductUtils;
+import org.esa.snap.core.util.SystemUtils;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.eo.GeoUtils;
+import org.esa.snap.engine_utilities.gpf.InputProductValidator;
+import org.esa.snap.engine_utilities.gpf.OperatorUtils;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Terrain correction of a repeat-pass acquisition from a geometry LUT.
+ *
+ * The LUT is a Terrain-Correction product written with saveGeometryLUT: for every map cell it holds the
+ * azimuth and range index in the reference acquisition, the DEM height and the local geometry. Repeat
+ * passes over the same track and area differ from the reference only by small orbit and timing offsets,
+ * which vary slowly across the scene. The exact Range-Doppler solution of the new acquisition is
+ * therefore computed on a coarse grid of map cells only and the difference to the reference is
+ * interpolated to every cell, so geocoding reduces to resampling the source image at the corrected
+ * LUT indices. No DEM is read.
+ */
+@OperatorMetadata(alias = "Terrain-Correction-LUT",
+        category = "Radar/Geometric/Terrain Correction",
+        authors = "Jun Lu, Luis Veci",
+        version = "1.0",
+        copyright = "Copyright (C) 2026 by SkyWatch Space Applications Inc.",
+        description = "Terrain correction of repeat-pass acquisitions from a precomputed geometry LUT")
+public class GeometryLUTGeocodingOp extends Operator {
+
+    @SourceProduct(alias = "source")
+    private Product sourceProduct;
+    @TargetProduct
+    private Product targetProduct;
+
+    @Parameter(description = "The list of source bands.", alias = "sourceBands",
+            rasterDataNodeType = Band.class, label = "Source Bands")
+    private String[] sourceBandNames = null;
+
+    @Parameter(description = "Terrain-Correction product written with saveGeometryLUT for this track and area",
+            label = "Geometry LUT")
+    private File geometryLUTFile = null;
+
+    @Parameter(defaultValue = ResamplingFactory.BILINEAR_INTERPOLATION_NAME, label = "Image Resampling Method",
+            valueSet = {
+                    ResamplingFactory.NEAREST_NEIGHBOUR_NAME,
+                    ResamplingFactory.BILINEAR_INTERPOLATION_NAME,
+                    ResamplingFactory.CUBIC_CONVOLUTION_NAME,
+                    ResamplingFactory.BISINC_5_POINT_INTERPOLATION_NAME,
+                    ResamplingFactory.BISINC_11_POINT_INTERPOLATION_NAME,
+                    ResamplingFactory.BISINC_21_POINT_INTERPOLATION_NAME,
+                    ResamplingFactory.BICUBIC_INTERPOLATION_NAME
+            })
+    private String imgResamplingMethod = ResamplingFactory.BILINEAR_INTERPOLATION_NAME;
+
+    @Parameter(description = "Spacing in map cells of the grid on which the orbit and timing correction is solved",
+            defaultValue = "32", interval = "[2, 1024]", label = "Correction Grid Spacing")
+    private int correctionGridSpacing = 32;
+
+    @Parameter(defaultValue = "false", label = "Copy geometry bands from the LUT",
+            description = "Copy elevation, local incidence angles and the layover shadow mask of the LUT")
+    private boolean copyGeometryBands = false;
+
+    private Product lutProduct = null;
+    private Band lutAzimuthBand = null;
+    private Band lutRangeBand = null;
+    private Band lutElevationBand = null;
+    private double lutElevationNoDataValue = 0;
+    private GeoCoding targetGeoCoding = null;
+
+    private SARPosition referencePosition = null;
+    private SARPosition sourcePosition = null;
+    private int sourceImageWidth = 0;
+    private int sourceImageHeight = 0;
+
+    private Resampling imgResampling = null;
+    private int margin = 0;
+    private final Map<Band, Band> targetToSourceBand = new HashMap<>();
+
+    private volatile double[] sceneDelta = null;
+
+    private static final String[] GEOMETRY_BANDS = {"elevation", "localIncidenceAngle",
+            "projectedLocalIncidenceAngle", "layoverShadowMask"};
+    private static final String[] MAP_METADATA = {AbstractMetadata.map_projection, AbstractMetadata.DEM,
+            AbstractMetadata.geo_ref_system, AbstractMetadata.lat_pixel_res, AbstractMetadata.lon_pixel_res,
+            AbstractMetadata.range_spacing, AbstractMetadata.azimuth_spacing,
+            AbstractMetadata.first_near_lat, AbstractMetadata.first_far_lat,
+            AbstractMetadata.last_near_lat, AbstractMetadata.last_far_lat,
+            AbstractMetadata.first_near_long, AbstractMetadata.first_far_long,
+            AbstractMetadata.last_near_long, AbstractMetadata.last_far_long};
+
+    @Override
+    public void initialize() throws OperatorException {
+
+        try {
+            final InputProductValidator validator = new InputProductValidator(sourceProduct);
+            validator.checkIfSARProduct();
+            validator.checkIfMapProjected(false);
+            validator.checkIfTOPSARBurstProduct(false);
+
+            if (geometryLUTFile == null) {
+                throw new OperatorException("Please specify the geometry LUT");
+            }
+            lutProduct = ProductIO.readProduct(geometryLUTFile);
+            if (lutProduct == null) {
+                throw new OperatorException("Unable to read geometry LUT " + geometryLUTFile);
+            }
+
+            lutAzimuthBand = getLUTBand(RangeDopplerGeocodingOp.AZIMUTH_INDEX_BAND);
+            lutRangeBand = getLUTBand(RangeDopplerGeocodingOp.RANGE_INDEX_BAND);
+            lutElevationBand = getLUTBand("elevation");
+            lutElevationNoDataValue = lutElevationBand.getNoDataValue();
+
+            validateTrack();
+
+            referencePosition = AcquisitionGeometry.fromGeometryLUT(lutProduct).createSARPosition();
+            sourcePosition = AcquisitionGeometry.fromSARProduct(sourceProduct).createSARPosition();
+            sourceImageWidth = sourceProduct.getSceneRasterWidth();
+            sourceImageHeight = sourceProduct.getSceneRasterHeight();
+
+            imgResampling = ResamplingFactory.createResampling(imgResamplingMethod);
+            if (imgResampling == null) {
+                throw new OperatorException("Resampling method " + imgResamplingMethod + " is invalid");
+            }
+            margin = RangeDopplerGeocodingOp.getMargin(imgResampling);
+
+            createTargetProduct();
+
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        }
+    }
+
+    @Override
+    public void dispose() throws OperatorException {
+        if (lutProduct != null) {
+            lutProduct.dispose();
+            lutProduct = null;
+        }
+    }
+
+    private Band getLUTBand(final String name) {
+        final Band band = lutProduct.getBand(name);
+        if (band == null) {
+            throw new OperatorException("Geometry LUT band " + name + " not found in " + lutProduct.getName());
+        }
+        return band;
+    }
+
+    /**
+     * The correction assumes the source was imaged from (nearly) the same orbit as the LUT reference.
+     */
+    private void validateTrack() {
+        final MetadataElement srcAbs = AbstractMetadata.getAbstractedMetadata(sourceProduct);
+        final MetadataElement lutAbs = AbstractMetadata.getAbstractedMetadata(lutProduct);
+
+        final String srcPass = srcAbs.getAttributeString(AbstractMetadata.PASS, "");
+        final String lutPass = lutAbs.getAttributeString(AbstractMetadata.PASS, "");
+        if (!srcPass.isEmpty() && !lutPass.isEmpty() && !srcPass.equals(lutPass)) {
+            throw new OperatorException("Source pass " + srcPass + " does not match geometry LUT pass " + lutPass);
+        }
+
+        final int srcRelOrbit = srcAbs.getAttributeInt(AbstractMetadata.REL_ORBIT, 0);
+        final int lutRelOrbit = lutAbs.getAttributeInt(AbstractMetadata.REL_ORBIT, 0);
+        if (srcRelOrbit > 0 && lutRelOrbit > 0 && srcRelOrbit != lutRelOrbit) {
+            throw new OperatorException("Source relative orbit " + srcRelOrbit +
+                    " does not match geometry LUT relative orbit " + lutRelOrbit);
+        }
+
+        final String srcMission = srcAbs.getAttributeString(AbstractMetadata.MISSION, "");
+        final String lutMission = lutAbs.getAttributeString(AbstractMetadata.MISSION, "");
+        if (!srcMission.equals(lutMission)) {
+            SystemUtils.LOG.warning("Terrain-Correction-LUT: source mission " + srcMission +
+                    " differs from geometry LUT mission " + lutMission);
+        }
+    }
+
+    private void createTargetProduct() throws Exception {
+        final int width = lutProduct.getSceneRasterWidth();
+        final int height = lutProduct.getSceneRasterHeight();
+
+        targetProduct = new Product(sourceProduct.getName() + "_TC", sourceProduct.getProductType(), width, height);
+        ProductUtils.copyGeoCoding(lutProduct, targetProduct);
+        targetGeoCoding = targetProduct.getSceneGeoCoding();
+
+        final Band[] sourceBands = OperatorUtils.getSourceBands(sourceProduct, sourceBandNames, false);
+        for (Band srcBand : sourceBands) {
+            int dataType = ProductData.TYPE_FLOAT32;
+            if (imgResampling.equals(Resampling.NEAREST_NEIGHBOUR)) {
+                dataType = srcBand.getDataType();
+            }
+            final Band targetBand = RangeDopplerGeocodingOp.addTargetBand(targetProduct, width, height,
+                    srcBand.getName(), srcBand.getUnit(), srcBand, dataType);
+            if (targetBand != null) {
+                targetToSourceBand.put(targetBand, srcBand);
+            }
+        }
+
+        if (copyGeometryBands) {
+            for (String name : GEOMETRY_BANDS) {
+                if (lutProduct.containsBand(name) && !targetProduct.containsBand(name)) {
+                    ProductUtils.copyBand(name, lutProduct, targetProduct, true);
+                }
+            }
+        }
+
+        ProductUtils.copyMetadata(sourceProduct, targetProduct);
+        targetProduct.setStartTime(sourceProduct.getStartTime());
+        targetProduct.setEndTime(sourceProduct.getEndTime());
+        targetProduct.setDescription(sourceProduct.getDescription());
+
+        final MetadataElement absTgt = AbstractMetadata.getAbstractedMetadata(targetProduct);
+        final MetadataElement lutAbs = AbstractMetadata.getAbstractedMetadata(lutProduct);
+        for (String name : MAP_METADATA) {
+            if (lutAbs.containsAttribute(name)) {
+                absTgt.removeAttribute(absTgt.getAttribute(name));
+                absTgt.addAttribute(lutAbs.getAttribute(name).createDeepClone());
+            }
+        }
+        AbstractMetadata.setAttribute(absTgt, AbstractMetadata.srgr_flag, 1);
+        AbstractMetadata.setAttribute(absTgt, AbstractMetadata.num_output_lines, height);
+        AbstractMetadata.setAttribute(absTgt, AbstractMetadata.num_samples_per_line, width);
+        AbstractMetadata.setAttribute(absTgt, AbstractMetadata.is_terrain_corrected, 1);
+    }
+
+    @Override
+    public void computeTileStack(Map<Band, Tile> targetTiles, Rectangle targetRectangle, ProgressMonitor pm)
+            throws OperatorException {
+
+        try {
+            final int x0 = targetRectangle.x;
+            final int y0 = targetRectangle.y;
+            final int w = targetRectangle.width;
+            final int h = targetRectangle.height;
+
+            final CorrectionGrid grid = new CorrectionGrid(targetRectangle);
+            final Tile azTile = getSourceTile(lutAzimuthBand, targetRectangle);
+            final Tile rgTile = getSourceTile(lutRangeBand, targetRectangle);
+
+            // corrected source indices of every cell, NaN where the LUT has no solution
+            final double[] azIndex = new double[w * h];
+            final double[] rgIndex = new double[w * h];
+            int xMin = Integer.MAX_VALUE, xMax = Integer.MIN_VALUE, yMin = Integer.MAX_VALUE, yMax = Integer.MIN_VALUE;
+            final double[] delta = new double[2];
+            for (int y = y0, k = 0; y < y0 + h; ++y) {
+                for (int x = x0; x < x0 + w; ++x, ++k) {
+                    final double az = azTile.getSampleDouble(x, y);
+                    final double rg = rgTile.getSampleDouble(x, y);
+                    if (Double.isNaN(az) || az == RangeDopplerGeocodingOp.INVALID_INDEX ||
+                            rg == RangeDopplerGeocodingOp.INVALID_INDEX) {
+                        azIndex[k] = Double.NaN;
+                        continue;
+                    }
+                    grid.interpolate(x, y, delta);
+                    azIndex[k] = az + delta[0];
+                    rgIndex[k] = rg + delta[1];
+                    if (azIndex[k] < 0 || azIndex[k] > sourceImageHeight - 1 ||
+                            rgIndex[k] < 0 || rgIndex[k] > sourceImageWidth - 1) {
+                        azIndex[k] = Double.NaN;
+                        continue;
+                    }
+                    xMin = Math.min(xMin, (int) rgIndex[k]);
+                    xMax = Math.max(xMax, (int) rgIndex[k] + 1);
+                    yMin = Math.min(yMin, (int) azIndex[k]);
+                    yMax = Math.max(yMax, (int) azIndex[k] + 1);
+                }
+            }
+
+            Rectangle sourceRectangle = null;
+            if (xMin <= xMax) {
+                xMin = Math.max(xMin - margin, 0);
+                yMin = Math.max(yMin - margin, 0);
+                xMax = Math.min(xMax + margin, sourceImageWidth - 1);
+                yMax = Math.min(yMax + margin, sourceImageHeight - 1);
+                sourceRectangle = new Rectangle(xMin, yMin, xMax - xMin + 1, yMax - yMin + 1);
+            }
+
+            for (Map.Entry<Band, Tile> entry : targetTiles.entrySet()) {
+                final Band srcBand = targetToSourceBand.get(entry.getKey());
+                if (srcBand == null) {
+                    continue;
+                }
+                final Tile targetTile = entry.getValue();
+                final ProductData trgData = targetTile.getDataBuffer();
+                final double noDataValue = srcBand.getNoDataValue();
+
+                final TileRaster raster = sourceRectangle == null ? null :
+                        new TileRaster(getSourceTile(srcBand, sourceRectangle), noDataValue);
+                final Resampling.Index resamplingIndex = imgResampling.createIndex();
+
+                for (int y = y0, k = 0; y < y0 + h; ++y) {
+                    for (int x = x0; x < x0 + w; ++x, ++k) {
+                        final int index = targetTile.getDataBufferIndex(x, y);
+                        if (raster == null || Double.isNaN(azIndex[k])) {
+                            trgData.setElemDoubleAt(index, noDataValue);
+                            continue;
+                        }
+                        imgResampling.computeCornerBasedIndex(rgIndex[k], azIndex[k],
+                                sourceImageWidth, sourceImageHeight, resamplingIndex);
+                        final double v = imgResampling.resample(raster, resamplingIndex);
+                        trgData.setElemDoubleAt(index, Double.isNaN(v) ? noDataValue : v);
+                    }
+                }
+            }
+
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        }
+    }
+
+    /**
+     * Source minus reference index difference at a map cell, or null where either acquisition has no solution.
+     */
+    private double[] computeDelta(final int x, final int y, final double elevation, final GeoPos geoPos,
+                                  final SARPosition.PositionData refData, final SARPosition.PositionData srcData) {
+        if (Double.isNaN(elevation) || elevation == lutElevationNoDataValue) {
+            return null;
+        }
+        targetGeoCoding.getGeoPos(new PixelPos(x + 0.5, y + 0.5), geoPos);
+        if (!geoPos.isValid()) {
+            return null;
+        }
+        double lon = geoPos.lon;
+        if (lon >= 180.0) {
+            lon -= 360.0;
+        }
+        GeoUtils.geo2xyzWGS84(geoPos.lat, lon, elevation, refData.earthPoint);
+        GeoUtils.geo2xyzWGS84(geoPos.lat, lon, elevation, srcData.earthPoint);
+        if (!referencePosition.getPosition(refData) || !sourcePosition.getPosition(srcData)) {
+            return null;
+        }
+        return new double[]{srcData.azimuthIndex - refData.azimuthIndex, srcData.rangeIndex - refData.rangeIndex};
+    }
+
+    /**
+     * Mean correction over a coarse grid of the whole LUT, used for tiles where no grid node has a solution.
+     */
+    private double[] getSceneDelta() {
+        double[] result = sceneDelta;
+        if (result == null) {
+            synchronized (this) {
+                result = sceneDelta;
+                if (result == null) {
+                    final int width = lutProduct.getSceneRasterWidth();
+                    final int height = lutProduct.getSceneRasterHeight();
+                    final int numPoints = 16;
+                    final GeoPos geoPos = new GeoPos();
+                    final SARPosition.PositionData refData = new SARPosition.PositionData();
+                    final SARPosition.PositionData srcData = new SARPosition.PositionData();
+                    double sumAz = 0, sumRg = 0;
+                    int count = 0;
+                    for (int i = 0; i < numPoints; ++i) {
+                        final int y = (int) ((i + 0.5) * height / numPoints);
+                        for (int j = 0; j < numPoints; ++j) {
+                            final int x = (int) ((j + 0.5) * width / numPoints);
+                            final Tile elevTile = getSourceTile(lutElevationBand, new Rectangle(x, y, 1, 1));
+                            final double[] d = computeDelta(x, y, elevTile.getSampleDouble(x, y),
+                                    geoPos, refData, srcData);
+                            if (d != null) {
+                                sumAz += d[0];
+                                sumRg += d[1];
+                                ++count;
+                            }
+                        }
+                    }
+                    if (count == 0) {
+                        throw new OperatorException("Source acquisition does not overlap the geometry LUT");
+                    }
+                    result = new double[]{sumAz / count, sumRg / count};
+                    sceneDelta = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Orbit and timing correction solved exactly on map cells at multiples of the grid spacing (and on the last
+     * row and column), bilinearly interpolated in between. Nodes are shared between neighbouring tiles so the
+     * interpolated correction is continuous across tile boundaries.
+     */
+    private final class CorrectionGrid {
+
+        private final int[] nodeX;
+        private final int[] nodeY;
+        private final double[][] deltaAz;
+        private final double[][] deltaRg;
+
+        CorrectionGrid(final Rectangle rect) {
+            final int width = lutProduct.getSceneRasterWidth();
+            final int height = lutProduct.getSceneRasterHeight();
+            nodeX = getNodes(rect.x, rect.width, width);
+            nodeY = getNodes(rect.y, rect.height, height);
+            deltaAz = new double[nodeY.length][nodeX.length];
+            deltaRg = new double[nodeY.length][nodeX.length];
+
+            final Rectangle nodeRect = new Rectangle(nodeX[0], nodeY[0],
+                    nodeX[nodeX.length - 1] - nodeX[0] + 1, nodeY[nodeY.length - 1] - nodeY[0] + 1);
+            final Tile elevTile = getSourceTile(lutElevationBand, nodeRect);
+
+            final GeoPos geoPos = new GeoPos();
+            final SARPosition.PositionData refData = new SARPosition.PositionData();
+            final SARPosition.PositionData srcData = new SARPosition.PositionData();
+            final boolean[][] valid = new boolean[nodeY.length][nodeX.length];
+            double sumAz = 0, sumRg = 0;
+            int count = 0;
+            for (int i = 0; i < nodeY.length; ++i) {
+                for (int j = 0; j < nodeX.length; ++j) {
+                    final double[] d = computeDelta(nodeX[j], nodeY[i],
+                            elevTile.getSampleDouble(nodeX[j], nodeY[i]), geoPos, refData, srcData);
+                    if (d != null) {
+                        deltaAz[i][j] = d[0];
+                        deltaRg[i][j] = d[1];
+                        valid[i][j] = true;
+                        sumAz += d[0];
+                        sumRg += d[1];
+                        ++count;
+                    }
+                }
+            }
+
+            // nodes over no-data or outside either acquisition take the mean correction
+            final double fillAz, fillRg;
+            if (count > 0) {
+                fillAz = sumAz / count;
+                fillRg = sumRg / count;
+            } else {
+                final double[] d = getSceneDelta();
+                fillAz = d[0];
+                fillRg = d[1];
+            }
+            for (int i = 0; i < nodeY.length; ++i) {
+                for (int j = 0; j < nodeX.length; ++j) {
+                    if (!valid[i][j]) {
+                        deltaAz[i][j] = fillAz;
+                        deltaRg[i][j] = fillRg;
+                    }
+                }
+            }
+        }
+
+        private int[] getNodes(final int start, final int length, final int size) {
+            final int first = (start / correctionGridSpacing) * correctionGridSpacing;
+            final int end = start + length - 1;
+            int n = 1;
+            while (first + (n - 1) * correctionGridSpacing < end && first + (n - 1) * correctionGridSpacing < size - 1) {
+                ++n;
+            }
+            final int[] nodes = new int[n];
+            for (int i = 0; i < n; ++i) {
+                nodes[i] = Math.min(first + i * correctionGridSpacing, size - 1);
+            }
+            return nodes;
+        }
+
+        void interpolate(final int x, final int y, final double[] delta) {
+            final int j = findCell(nodeX, x);
+            final int i = findCell(nodeY, y);
+            final int j1 = Math.min(j + 1, nodeX.length - 1);
+            final int i1 = Math.min(i + 1, nodeY.length - 1);
+            final double tx = j1 == j ? 0 : (double) (x - nodeX[j]) / (nodeX[j1] - nodeX[j]);
+            final double ty = i1 == i ? 0 : (double) (y - nodeY[i]) / (nodeY[i1] - nodeY[i]);
+            delta[0] = bilinear(deltaAz, i, j, i1, j1, tx, ty);
+            delta[1] = bilinear(deltaRg, i, j, i1, j1, tx, ty);
+        }
+
+        private int findCell(final int[] nodes, final int v) {
+            int i = (v - nodes[0]) / correctionGridSpacing;
+            return Math.max(0, Math.min(i, nodes.length - 1));
+        }
+
+        private double bilinear(final double[][] d, final int i, final int j, final int i1, final int j1,
+                                final double tx, final double ty) {
+            final double top = d[i][j] + (d[i][j1] - d[i][j]) * tx;
+            final double bottom = d[i1][j] + (d[i1][j1] - d[i1][j]) * tx;
+            return top + (bottom - top) * ty;
+        }
+    }
+
+    private static final class TileRaster implements Resampling.Raster {
+
+        private final Tile tile;
+        private final ProductData data;
+        private final double noDataValue;
+
+        TileRaster(final Tile tile, final double noDataValue) {
+            this.tile = tile;
+            this.data = tile.getDataBuffer();
+            this.noDataValue = noDataValue;
+        }
+
+        public int getWidth() {
+            return tile.getWidth();
+        }
+
+        public int getHeight() {
+            return tile.getHeight();
+        }
+
+        public boolean getSamples(final int[] x, final int[] y, final double[][] samples) {
+            final Rectangle rect = tile.getRectangle();
+            boolean allValid = true;
+            for (int i = 0; i < y.length; ++i) {
+                final int yy = Math.max(rect.y, Math.min(y[i], rect.y + rect.height - 1));
+                for (int j = 0; j < x.length; ++j) {
+                    final int xx = Math.max(rect.x, Math.min(x[j], rect.x + rect.width - 1));
+                    final double v = data.getElemDoubleAt(tile.getDataBufferIndex(xx, yy));
+                    if (Double.isNaN(v) || v == noDataValue) {
+                        samples[i][j] = noDataValue;
+                        allValid = false;
+                    } else {
+                        samples[i][j] = v;
+                    }
+                }
+            }
+            return allValid;
+        }
+    }
+
+    /**
+     * The SPI is used to register this operator in the graph processing framework
+     * via the SPI configuration file
+     * {@code META-INF/services/org.esa.snap.core.gpf.OperatorSpi}.
+     * This class may also serve as a factory for new operator instances.
+     *
+     * @see OperatorSpi#createOperator()
+     * @see OperatorSpi#createOperator(java.util.Map, java.util.Map)
+     */
+    public static class Spi extends OperatorSpi {
+        public Spi() {
+            super(GeometryLUTGeocodingOp.class);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import eu.esa.sar.commons.CRSGeoCodingHandler;
 import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.SARUtils;
+import eu.esa.sar.commons.profile.TileProfiler;
 import eu.esa.sar.insar.gpf.support.SARPosition;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
@@ -186,6 +187,11 @@ public class RangeDopplerGeocodingOp extends Operator {
     @Parameter(defaultValue = "false", label = "Save layover shadow mask")
     private boolean saveLayoverShadowMask = false;
 
+    @Parameter(defaultValue = "false", label = "Save geometry LUT",
+            description = "Save the source image indices and local geometry of each map cell so that repeat-pass " +
+                    "acquisitions of the same track can be terrain corrected with Terrain-Correction-LUT")
+    private boolean saveGeometryLUT = false;
+
     @Parameter(defaultValue = "false", label = "Output complex data")
     private boolean outputComplex = false;
 
@@ -276,6 +282,9 @@ public class RangeDopplerGeocodingOp extends Operator {
     private byte[][] layoverShadowMask = null;
 
     public static final String externalDEMStr = "External DEM";
+    static final String AZIMUTH_INDEX_BAND = "azimuthIndex";
+    static final String RANGE_INDEX_BAND = "rangeIndex";
+    static final double INVALID_INDEX = -1.0;
     private static final String PRODUCT_SUFFIX = "_TC";
 
     /**
@@ -305,6 +314,10 @@ public class RangeDopplerGeocodingOp extends Operator {
 
             getMetadata();
 
+            if (useAvgSceneHeight && saveGeometryLUT) {
+                throw new OperatorException("A geometry LUT requires a DEM");
+            }
+
             if (useAvgSceneHeight) {
                 saveSigmaNought = false;
                 saveBetaNought = false;
@@ -359,7 +372,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                 DEMFactory.validateDEM(demName, sourceProduct);
             }
 
-            margin = getMargin();
+            margin = getMargin(imgResampling);
 
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(getId(), e);
@@ -368,6 +381,7 @@ public class RangeDopplerGeocodingOp extends Operator {
 
     @Override
     public void dispose() throws OperatorException {
+        TileProfiler.operatorDisposed(this);
         if (dem != null) {
             dem.dispose();
         }
@@ -380,7 +394,14 @@ public class RangeDopplerGeocodingOp extends Operator {
 
     private void checkUserInput() {
 
-        if (!saveSelectedSourceBand && !applyRadiometricNormalization) {
+        if (saveGeometryLUT) {
+            saveDEM = true;
+            saveLocalIncidenceAngle = true;
+            saveProjectedLocalIncidenceAngle = true;
+            saveLayoverShadowMask = true;
+        }
+
+        if (!saveSelectedSourceBand && !applyRadiometricNormalization && !saveGeometryLUT) {
             throw new OperatorException("Please select output band for terrain corrected image");
         }
 
@@ -541,7 +562,15 @@ public class RangeDopplerGeocodingOp extends Operator {
      *
      * @throws Exception The exceptions.
      */
-    private synchronized void getElevationModel() throws Exception {
+    private void getElevationModel() throws Exception {
+        final long lockRequested = TileProfiler.lockRequested();
+        synchronized (this) {
+            TileProfiler.lockAcquired(this, "getElevationModel", lockRequested);
+            getElevationModelLocked();
+        }
+    }
+
+    private void getElevationModelLocked() throws Exception {
 
         if (isElevationModelAvailable) return;
         if (demName.contains(externalDEMStr) && externalDEMFile != null) { // if external DEM file is specified by user
@@ -819,6 +848,14 @@ public class RangeDopplerGeocodingOp extends Operator {
             addTargetBand(targetProduct, targetImageWidth, targetImageHeight,"layoverShadowMask",
                     Unit.BIT, null, ProductData.TYPE_INT8);
         }
+
+        if (saveGeometryLUT) {
+            for (String name : new String[]{AZIMUTH_INDEX_BAND, RANGE_INDEX_BAND}) {
+                final Band indexBand = addTargetBand(name, null, null);
+                indexBand.setNoDataValue(INVALID_INDEX);
+                indexBand.setDescription("Source image " + name + " of the map cell");
+            }
+        }
     }
 
     private Band addTargetBand(final String bandName, final String bandUnit, final Band sourceBand) {
@@ -908,6 +945,12 @@ public class RangeDopplerGeocodingOp extends Operator {
                                           sourceImageHeight, firstLineUTC, lineTimeInterval, nearRangeOnLeft, sourceProduct.getSceneGeoCoding());
         }
         absTgt.addElement(lookDirectionListElem);
+
+        if (saveGeometryLUT) {
+            new AcquisitionGeometry(firstLineUTC, lastLineUTC, lineTimeInterval, wavelength, rangeSpacing,
+                    nearEdgeSlantRange, sourceImageWidth, sourceImageHeight, srgrFlag, nearRangeOnLeft, orbit,
+                    srgrConvParams).writeGeometryLUTElement(absTgt);
+        }
     }
 
     /**
@@ -922,6 +965,7 @@ public class RangeDopplerGeocodingOp extends Operator {
     @Override
     public void computeTileStack(Map<Band, Tile> targetTiles, Rectangle targetRectangle, ProgressMonitor pm) throws OperatorException {
 
+        final TileProfiler.TileTimer tileTimer = TileProfiler.startTile(this, null);
         try {
             processingStarted = true;
             try {
@@ -972,7 +1016,7 @@ public class RangeDopplerGeocodingOp extends Operator {
             final int srcMaxAzimuth = sourceImageHeight - 1;
             ProductData demBuffer = null, latBuffer = null, lonBuffer = null, localIncidenceAngleBuffer = null,
                     projectedLocalIncidenceAngleBuffer = null, incidenceAngleFromEllipsoidBuffer = null,
-                    layoverShadowMaskBuffer = null;
+                    layoverShadowMaskBuffer = null, azimuthIndexBuffer = null, rangeIndexBuffer = null;
 
             final List<TileData> tgtTileList = new ArrayList<>();
             final Set<Band> keySet = targetTiles.keySet();
@@ -1013,6 +1057,18 @@ public class RangeDopplerGeocodingOp extends Operator {
                     continue;
                 }
 
+                if (saveGeometryLUT && targetBand.getName().equals(AZIMUTH_INDEX_BAND)) {
+                    azimuthIndexBuffer = targetTiles.get(targetBand).getDataBuffer();
+                    fillNoData(azimuthIndexBuffer);
+                    continue;
+                }
+
+                if (saveGeometryLUT && targetBand.getName().equals(RANGE_INDEX_BAND)) {
+                    rangeIndexBuffer = targetTiles.get(targetBand).getDataBuffer();
+                    fillNoData(rangeIndexBuffer);
+                    continue;
+                }
+
                 final Band[] srcBands = targetBandNameToSourceBand.get(targetBand.getName());
                 Tile sourceTileI = null, sourceTileQ = null;
                 if (sourceRectangle != null) {
@@ -1046,6 +1102,8 @@ public class RangeDopplerGeocodingOp extends Operator {
 
             final int maxY = y0 + h;
             final int maxX = x0 + w;
+            // all tiles share the rectangle; a geometry LUT may have no resampled bands at all
+            final Tile indexTile = targetTiles.values().iterator().next();
 
             final EarthGravitationalModel96 egm = EarthGravitationalModel96.instance();
 
@@ -1062,7 +1120,7 @@ public class RangeDopplerGeocodingOp extends Operator {
             for (int y = y0; y < maxY; y++) {
                 final int yy = y - y0 + 1;
                 for (int x = x0; x < maxX; x++) {
-                    final int index = tgtTiles[0].targetTile.getDataBufferIndex(x, y);
+                    final int index = indexTile.getDataBufferIndex(x, y);
 
                     double alt = localDEM[yy][x - x0 + 1];
                     final boolean altIsNoData = Double.isNaN(alt) || alt == demNoDataValue;
@@ -1134,6 +1192,13 @@ public class RangeDopplerGeocodingOp extends Operator {
                                     layoverShadowMask[(int)(posData.azimuthIndex + 0.5)][(int)(posData.rangeIndex + 0.5)]);
                         }
 
+                        if (azimuthIndexBuffer != null) {
+                            azimuthIndexBuffer.setElemDoubleAt(index, posData.azimuthIndex);
+                        }
+                        if (rangeIndexBuffer != null) {
+                            rangeIndexBuffer.setElemDoubleAt(index, posData.rangeIndex);
+                        }
+
                         double satelliteHeight = 0;
                         double sceneToEarthCentre = 0;
                         if (saveSigmaNought) {
@@ -1173,10 +1238,20 @@ public class RangeDopplerGeocodingOp extends Operator {
         } catch (Throwable e) {
             orthoDataProduced = true; //to prevent multiple error messages
             OperatorUtils.catchOperatorException(getId(), e);
+        } finally {
+            tileTimer.stop();
+        }
+    }
+
+    private void createLayoverShadowMask() {
+        final long lockRequested = TileProfiler.lockRequested();
+        synchronized (this) {
+            TileProfiler.lockAcquired(this, "createLayoverShadowMask", lockRequested);
+            createLayoverShadowMaskLocked();
         }
     }
 
-    private synchronized void createLayoverShadowMask() {
+    private void createLayoverShadowMaskLocked() {
 
         if (isLayoverShadowMaskAvailable) return;
 
@@ -1416,6 +1491,13 @@ public class RangeDopplerGeocodingOp extends Operator {
         }
     }
 
+    private static void fillNoData(final ProductData buffer) {
+        final int length = buffer.getNumElems();
+        for (int i = 0; i < length; ++i) {
+            buffer.setElemDoubleAt(i, INVALID_INDEX);
+        }
+    }
+
     private void saveNoDataValueToTarget(final int index, final TileData[] tgtTiles, final ProductData demBuffer) {
         if (saveDEM) {
             demBuffer.setElemDoubleAt(index, demNoDataValue);
@@ -1534,7 +1616,7 @@ public class RangeDopplerGeocodingOp extends Operator {
 
     }
 
-    private int getMargin() {
+    static int getMargin(final Resampling imgResampling) {
 
         if (imgResampling == Resampling.BILINEAR_INTERPOLATION) {
             return 1;
@@ -22,6 +22,7 @@ import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.SARUtils;
 import eu.esa.sar.commons.polsar.PolBandUtils;
+import eu.esa.sar.commons.profile.TileProfiler;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
 import org.esa.snap.core.dataop.resamp.Resampling;
@@ -255,6 +256,7 @@ public final class TerrainFlatteningOp extends Operator {
 
     @Override
     public synchronized void dispose() {
+        TileProfiler.operatorDisposed(this);
         if (dem != null) {
             dem.dispose();
             dem = null;
@@ -491,6 +493,7 @@ public final class TerrainFlatteningOp extends Operator {
     public void computeTileStack(Map<Band, Tile> targetTiles, Rectangle targetRectangle, ProgressMonitor pm)
             throws OperatorException {
 
+        final TileProfiler.TileTimer tileTimer = TileProfiler.startTile(this, null);
         try {
             if (invalidSource) {
                 throw new OperatorException("TerrainFlattening requires beta0 or T3, C3, C2 as input");
@@ -538,6 +541,8 @@ public final class TerrainFlatteningOp extends Operator {
 
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(getId(), e);
+        } finally {
+            tileTimer.stop();
         }
     }
 
@@ -1027,7 +1032,15 @@ public final class TerrainFlatteningOp extends Operator {
      * Get elevation model.
      *
      */
-    private synchronized void getElevationModel() {
+    private void getElevationModel() {
+        final long lockRequested = TileProfiler.lockRequested();
+        synchronized (this) {
+            TileProfiler.lockAcquired(this, "getElevationModel", lockRequested);
+            getElevationModelLocked();
+        }
+    }
+
+    private void getElevationModelLocked() {
 
         if (isElevationModelAvailable) return;
         try {
@@ -20,13 +20,16 @@ import eu.esa.sar.commons.test.ProcessorTest;
 import eu.esa.sar.commons.test.TestData;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
 import org.esa.snap.core.gpf.OperatorSpi;
 import org.esa.snap.core.gpf.annotations.OperatorMetadata;
+import org.esa.snap.engine_utilities.datamodel.Unit;
 import org.esa.snap.engine_utilities.util.TestUtils;
 import org.junit.Test;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -143,4 +146,88 @@ public class TestMultiTemporalSpeckleFilterOp extends ProcessorTest {
             assertArrayEquals(Arrays.toString(floatValues), expected, floatValues, 0.0001f);
         }
     }
+
+    private static final int W = 24;
+    private static final int H = 20;
+
+    private static Product createStack(final int numDates) {
+        final Product product = TestUtils.createProduct("GRD", W, H);
+        for (Band band : product.getBands().clone()) {
+            product.removeBand(band);
+        }
+        final Random random = new Random(11);
+        for (int d = 0; d < numDates; ++d) {
+            final float[] data = new float[W * H];
+            for (int i = 0; i < data.length; ++i) {
+                // exponential speckle on a ramp
+                data[i] = (float) (-(10 + i % W) * Math.log(1 - random.nextDouble()));
+            }
+            final Band band = new Band("Intensity_" + d, ProductData.TYPE_FLOAT32, W, H);
+            band.setUnit(Unit.INTENSITY);
+            band.setRasterData(ProductData.createInstance(data));
+            product.addBand(band);
+        }
+        return product;
+    }
+
+    private static MultiTemporalSpeckleFilterOp createOp(final Product source, final boolean streaming) {
+        final MultiTemporalSpeckleFilterOp op = new MultiTemporalSpeckleFilterOp();
+        op.setSourceProduct(source);
+        op.setFilter(SpeckleFilterOp.BOXCAR_SPECKLE_FILTER);
+        op.setParameter("temporalStreaming", streaming);
+        return op;
+    }
+
+    private static float[] read(final Product product, final String bandName) throws Exception {
+        final float[] values = new float[W * H];
+        product.getBand(bandName).readPixels(0, 0, W, H, values, ProgressMonitor.NULL);
+        return values;
+    }
+
+    @Test
+    public void testTemporalStreamingMatchesInMemory() throws Exception {
+        final Product source = createStack(5);
+        final Product inMemory = createOp(source, false).getTargetProduct();
+        final Product streamed = createOp(source, true).getTargetProduct();
+
+        for (int d = 0; d < 5; ++d) {
+            final float[] expected = read(inMemory, "Intensity_" + d);
+            final float[] actual = read(streamed, "Intensity_" + d);
+            for (int i = 0; i < expected.length; ++i) {
+                assertEquals(expected[i], actual[i], 1e-5 * Math.abs(expected[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalDateFromPersistedAccumulators() throws Exception {
+        final Product stack = createStack(4);
+        final Product full = createOp(stack, false).getTargetProduct();
+
+        // filter the first three dates and keep their accumulators
+        final MultiTemporalSpeckleFilterOp history = createOp(stack, true);
+        history.setParameter("sourceBands", new String[]{"Intensity_0", "Intensity_1", "Intensity_2"});
+        history.setParameter("outputAccumulators", true);
+        final Product accumulators = history.getTargetProduct();
+        assertNotNull(accumulators.getBand(MultiTemporalSpeckleFilterOp.RATIO_SUM_BAND));
+
+        // then add the fourth date alone
+        final MultiTemporalSpeckleFilterOp update = createOp(stack, true);
+        update.setSourceProduct("accumulators", accumulators);
+        update.setParameter("sourceBands", new String[]{"Intensity_3"});
+        update.setParameter("outputAccumulators", true);
+        final Product updated = update.getTargetProduct();
+
+        final float[] expected = read(full, "Intensity_3");
+        final float[] actual = read(updated, "Intensity_3");
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i], actual[i], 1e-5 * Math.abs(expected[i]));
+        }
+
+        final int[] counts = new int[W * H];
+        updated.getBand(MultiTemporalSpeckleFilterOp.RATIO_COUNT_BAND).readPixels(0, 0, W, H, counts, ProgressMonitor.NULL);
+        for (int n : counts) {
+            assertEquals(4, n);
+        }
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.geometric;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.test.ProcessorTest;
+import eu.esa.sar.commons.test.TestData;
+import org.esa.snap.core.dataio.ProductIO;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Unit tests for {@link GeometryLUTGeocodingOp}.
+ */
+public class TestGeometryLUTGeocodingOp extends ProcessorTest {
+
+    private final static File inputFile = TestData.inputASAR_WSM;
+
+    private final static OperatorSpi rdSpi = new RangeDopplerGeocodingOp.Spi();
+    private final static OperatorSpi spi = new GeometryLUTGeocodingOp.Spi();
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static Product createTerrainCorrected(final Product sourceProduct, final boolean saveGeometryLUT) {
+        final RangeDopplerGeocodingOp op = (RangeDopplerGeocodingOp) rdSpi.createOperator();
+        op.setSourceProduct(sourceProduct);
+        op.setSourceBandNames(new String[]{"Amplitude"});
+        op.setParameter("saveSelectedSourceBand", !saveGeometryLUT);
+        op.setParameter("saveGeometryLUT", saveGeometryLUT);
+        return op.getTargetProduct();
+    }
+
+    @Test
+    public void testGeometryLUTBands() throws Exception {
+        assumeTrue(inputFile + " not found", inputFile.exists());
+        try (final Product sourceProduct = TestUtils.readSourceProduct(inputFile)) {
+
+            final Product lutProduct = createTerrainCorrected(sourceProduct, true);
+            for (String name : new String[]{RangeDopplerGeocodingOp.AZIMUTH_INDEX_BAND,
+                    RangeDopplerGeocodingOp.RANGE_INDEX_BAND, "elevation", "localIncidenceAngle",
+                    "projectedLocalIncidenceAngle", "layoverShadowMask"}) {
+                assertNotNull(name, lutProduct.getBand(name));
+            }
+
+            final AcquisitionGeometry reference = AcquisitionGeometry.fromGeometryLUT(lutProduct);
+            final AcquisitionGeometry source = AcquisitionGeometry.fromSARProduct(sourceProduct);
+            assertEquals(source.firstLineUTC, reference.firstLineUTC, 0);
+            assertEquals(source.lineTimeInterval, reference.lineTimeInterval, 0);
+            assertEquals(source.rangeSpacing, reference.rangeSpacing, 0);
+            assertEquals(source.width, reference.width);
+            assertEquals(source.srgrFlag, reference.srgrFlag);
+        }
+    }
+
+    /**
+     * Applying a LUT to the acquisition it was made from must reproduce Terrain-Correction.
+     */
+    @Test
+    public void testApplyLUTToReferenceAcquisition() throws Exception {
+        assumeTrue(inputFile + " not found", inputFile.exists());
+        try (final Product sourceProduct = TestUtils.readSourceProduct(inputFile)) {
+
+            final File lutFile = new File(tempFolder.getRoot(), "geometry_lut.dim");
+            final Product lutProduct = createTerrainCorrected(sourceProduct, true);
+            ProductIO.writeProduct(lutProduct, lutFile, "BEAM-DIMAP", false, ProgressMonitor.NULL);
+
+            final GeometryLUTGeocodingOp op = (GeometryLUTGeocodingOp) spi.createOperator();
+            op.setSourceProduct(sourceProduct);
+            op.setParameter("sourceBands", new String[]{"Amplitude"});
+            op.setParameter("geometryLUTFile", lutFile);
+            final Product targetProduct = op.getTargetProduct();
+            TestUtils.verifyProduct(targetProduct, true, true);
+            assertEquals(lutProduct.getSceneRasterWidth(), targetProduct.getSceneRasterWidth());
+            assertEquals(lutProduct.getSceneRasterHeight(), targetProduct.getSceneRasterHeight());
+
+            final Band expectedBand = createTerrainCorrected(sourceProduct, false).getBandAt(0);
+            final Band band = targetProduct.getBandAt(0);
+            assertNotNull(band);
+
+            final float[] expected = new float[16];
+            final float[] actual = new float[16];
+            expectedBand.readPixels(200, 200, 4, 4, expected, ProgressMonitor.NULL);
+            band.readPixels(200, 200, 4, 4, actual, ProgressMonitor.NULL);
+            for (int i = 0; i < expected.length; ++i) {
+                assertEquals(expected[i], actual[i], 1e-3 * Math.abs(expected[i]) + 1e-4);
+            }
+        }
+    }
+}
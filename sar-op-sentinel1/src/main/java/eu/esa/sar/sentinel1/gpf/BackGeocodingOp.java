@@ -22,6 +22,8 @@ import eu.esa.sar.insar.gpf.coregistration.CreateStackOp;
 import eu.esa.sar.insar.gpf.coregistration.DEMAssistedCoregistrationOp;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.commons.TOPSPhasePlane;
+import eu.esa.sar.commons.profile.TileProfiler;
 import org.esa.snap.core.dataio.persistence.Attribute;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
@@ -252,6 +254,12 @@ public final class BackGeocodingOp extends Operator {
         }
     }
 
+    @Override
+    public void dispose() {
+        TileProfiler.operatorDisposed(this);
+        super.dispose();
+    }
+
     //vvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvvv
     private boolean findETADTPG() {
 
@@ -1075,6 +1083,7 @@ public final class BackGeocodingOp extends Operator {
      public void computeTileStack(Map<Band, Tile> targetTileMap, Rectangle targetRectangle, ProgressMonitor pm)
              throws OperatorException {
 
+        final TileProfiler.TileTimer tileTimer = TileProfiler.startTile(this, null);
         try {
             final int tx0 = targetRectangle.x;
             final int ty0 = targetRectangle.y;
@@ -1120,6 +1129,7 @@ public final class BackGeocodingOp extends Operator {
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(getId(), e);
         } finally {
+            tileTimer.stop();
             pm.done();
         }
     }
@@ -1129,7 +1139,15 @@ public final class BackGeocodingOp extends Operator {
      *
      * @throws Exception The exceptions.
      */
-    private synchronized void getElevationModel() throws Exception {
+    private void getElevationModel() throws Exception {
+        final long lockRequested = TileProfiler.lockRequested();
+        synchronized (this) {
+            TileProfiler.lockAcquired(this, "getElevationModel", lockRequested);
+            getElevationModelLocked();
+        }
+    }
+
+    private void getElevationModelLocked() throws Exception {
 
         if (isElevationModelAvailable) return;
         try {
@@ -1161,7 +1179,15 @@ public final class BackGeocodingOp extends Operator {
         isElevationModelAvailable = true;
     }
 
-    private synchronized void computeBurstOffset() throws Exception {
+    private void computeBurstOffset() throws Exception {
+        final long lockRequested = TileProfiler.lockRequested();
+        synchronized (this) {
+            TileProfiler.lockAcquired(this, "computeBurstOffset", lockRequested);
+            computeBurstOffsetLocked();
+        }
+    }
+
+    private void computeBurstOffsetLocked() throws Exception {
 
         if (burstOffsetComputed) return;
         try {
@@ -1430,6 +1456,20 @@ public final class BackGeocodingOp extends Operator {
             return;
         }
 
+        // phasors of the deramp/demodulation phase, shared by all polarizations
+        final float[] secPhasorI = new float[sourceRectangle.width * sourceRectangle.height];
+        final float[] secPhasorQ = new float[sourceRectangle.width * sourceRectangle.height];
+        TOPSPhasePlane.get(secondaryData.sSU.getSubSwath()[subSwathIndex - 1], sBurstIndex,
+                TOPSPhasePlane.Type.DERAMP_DEMOD).computePhasor(sourceRectangle, secPhasorI, secPhasorQ);
+
+        float[] refPhasorI = null, refPhasorQ = null;
+        if (disableReramp) {
+            refPhasorI = new float[w * h];
+            refPhasorQ = new float[w * h];
+            TOPSPhasePlane.get(mSubSwath[subSwathIndex - 1], mBurstIndex,
+                    TOPSPhasePlane.Type.DERAMP_DEMOD).computePhasor(targetRectangle, refPhasorI, refPhasorQ);
+        }
+
         for(String polarization : mSU.getPolarizations()) {
 
             // reference bands
@@ -1446,7 +1486,7 @@ public final class BackGeocodingOp extends Operator {
                 final double[][] refDerampDemodI = new double[targetRectangle.height][targetRectangle.width];
                 final double[][] refDerampDemodQ = new double[targetRectangle.height][targetRectangle.width];
 
-                performDerampDemod(referenceTileI, referenceTileQ, targetRectangle, refDerampDemodPhase,
+                performDerampDemod(referenceTileI, referenceTileQ, targetRectangle, refPhasorI, refPhasorQ,
                         refDerampDemodI, refDerampDemodQ);
 
                 saveReferenceBands(x0, y0, w, h, targetTileMap, refDerampDemodPhase, refDerampDemodI,
@@ -1466,7 +1506,7 @@ public final class BackGeocodingOp extends Operator {
             final double[][] secDerampDemodI = new double[sourceRectangle.height][sourceRectangle.width];
             final double[][] secDerampDemodQ = new double[sourceRectangle.height][sourceRectangle.width];
 
-            performDerampDemod(secondaryTileI, secondaryTileQ, sourceRectangle, secDerampDemodPhase,
+            performDerampDemod(secondaryTileI, secondaryTileQ, sourceRectangle, secPhasorI, secPhasorQ,
                     secDerampDemodI, secDerampDemodQ);
 
             performInterpolation(x0, y0, w, h, sourceRectangle, secondaryTileI, secondaryTileQ, targetTileMap, secDerampDemodPhase,
@@ -1829,6 +1869,49 @@ public final class BackGeocodingOp extends Operator {
         }
     }
 
+    /**
+     * Deramp and demodulation with the phase given as its phasor exp(j phase), as generated by
+     * {@link TOPSPhasePlane#computePhasor}, so no trigonometric function is evaluated per pixel.
+     *
+     * @param phasorI real part of the phasor, row-major with the rectangle width as stride
+     * @param phasorQ imaginary part of the phasor
+     */
+    public static void performDerampDemod(final Tile tileI, final Tile tileQ, final Rectangle rectangle,
+                                          final float[] phasorI, final float[] phasorQ,
+                                          final double[][] derampDemodI, final double[][] derampDemodQ) {
+
+        try {
+            final int x0 = rectangle.x;
+            final int y0 = rectangle.y;
+            final int w = rectangle.width;
+            final int xMax = x0 + w;
+            final int yMax = y0 + rectangle.height;
+
+            final ProductData dataI = tileI.getDataBuffer();
+            final ProductData dataQ = tileQ.getDataBuffer();
+            final TileIndex index = new TileIndex(tileI);
+
+            for (int y = y0; y < yMax; y++) {
+                index.calculateStride(y);
+                final int yy = y - y0;
+                final double[] outI = derampDemodI[yy];
+                final double[] outQ = derampDemodQ[yy];
+                int k = yy * w;
+                for (int x = x0; x < xMax; x++, k++) {
+                    final int idx = index.getIndex(x);
+                    final double valueI = dataI.getElemDoubleAt(idx);
+                    final double valueQ = dataQ.getElemDoubleAt(idx);
+                    final double cosPhase = phasorI[k];
+                    final double sinPhase = phasorQ[k];
+                    outI[x - x0] = valueI*cosPhase - valueQ*sinPhase;
+                    outQ[x - x0] = valueI*sinPhase + valueQ*cosPhase;
+                }
+            }
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException("performDerampDemod", e);
+        }
+    }
+
     private void saveReferenceBands(final int x0, final int y0, final int w, final int h,
                                  final Map<Band, Tile> targetTileMap, final double[][] refDerampDemodPhase,
                                  final double[][] refDerampDemodI, final double[][] refDerampDemodQ,
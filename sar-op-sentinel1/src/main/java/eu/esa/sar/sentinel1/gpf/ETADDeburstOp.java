@@ -15,6 +15,7 @@
  */
 package eu.esa.sar.sentinel1.gpf;
 
+import eu.esa.sar.sentinel1.gpf.etadcorrectors.ETADLayerCache;
 import eu.esa.sar.sentinel1.gpf.etadcorrectors.ETADUtils;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.gpf.Operator;
@@ -149,7 +150,7 @@ public class ETADDeburstOp extends Operator {
                 for (final int bIndex : burstIndexArray) {
                     final ETADUtils.Burst burst = etadUtils.getBurst(pIndex, sIndex, bIndex);
                     final String bandName = etadUtils.createBandName(burst.swathID, burst.bIndex, selectedLayer);
-                    final double[][] layerCorrection = etadUtils.getLayerCorrectionForCurrentBurst(burst, bandName);
+                    final ETADLayerCache.Layer layerCorrection = etadUtils.getLayer(burst, bandName);
 
                     final int[] x0y0 = computeX0Y0(asw, burst);
                     final int x0 = x0y0[0];
@@ -159,7 +160,7 @@ public class ETADDeburstOp extends Operator {
                         for (int c = 0; c < burst.rangeExtent; ++c) {
                             final int x = x0 + c;
                             final int k = y * targetDimension.width + x;
-                            array[k] = layerCorrection[r][c];
+                            array[k] = layerCorrection.get(r, c);
                         }
                     }
                 }
@@ -178,7 +179,7 @@ public class ETADDeburstOp extends Operator {
             for (final int bIndex : burstIndexArray) {
                 final ETADUtils.Burst burst = etadUtils.getBurst(pIndex, sIndex, bIndex);
                 final String bandName = etadUtils.createBandName(burst.swathID, burst.bIndex, selectedLayer);
-                final double[][] layerCorrection = etadUtils.getLayerCorrectionForCurrentBurst(burst, bandName);
+                final ETADLayerCache.Layer layerCorrection = etadUtils.getLayer(burst, bandName);
 
                 final int[] x0y0 = computeX0Y0(sw, burst);
                 final int x0 = x0y0[0];
@@ -188,7 +189,7 @@ public class ETADDeburstOp extends Operator {
                     for (int c = 0; c < burst.rangeExtent; ++c) {
                         final int x = x0 + c;
                         final int k = y * targetDimension.width + x;
-                        array[k] = layerCorrection[r][c];
+                        array[k] = layerCorrection.get(r, c);
                     }
                 }
             }
@@ -20,7 +20,9 @@ import com.bc.ceres.core.ProgressMonitor;
 import edu.emory.mathcs.jtransforms.fft.DoubleFFT_1D;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.commons.TOPSPhasePlane;
 import eu.esa.sar.sentinel1.gpf.util.ArcDataIntegration;
+import eu.esa.sar.sentinel1.gpf.util.ESDWorkspace;
 import eu.esa.sar.sentinel1.gpf.util.GraphUtils;
 import eu.esa.sar.sentinel1.gpf.util.OverlapUtils;
 import org.esa.snap.core.datamodel.Band;
@@ -253,8 +255,8 @@ public class SpectralDiversityOp extends Operator {
     private int fineWinAccX = 0;
     private int fineWinOvsFactor = 0;
 
-    private boolean isRangeOffsetAvailable = false;
-    private boolean isAzimuthOffsetAvailable = false;
+    private volatile boolean isRangeOffsetAvailable = false;
+    private volatile boolean isAzimuthOffsetAvailable = false;
     private Double noDataValue = -9999.0;
     private Sentinel1Utils su;
     private Sentinel1Utils.SubSwathInfo[] subSwath = null;
@@ -278,6 +280,7 @@ public class SpectralDiversityOp extends Operator {
     // ESD
     private boolean usePeriodogram;
     private WeightFunction weightFunction;
+    private final ThreadLocal<ESDWorkspace> esdWorkspace = ThreadLocal.withInitial(ESDWorkspace::new);
 
     // integration network
     private Map<String, List<CplxContainer>> complexImages = new HashMap<>(); // map with lists of complex images (reference is first), indexed by swath-polarization
@@ -844,6 +847,8 @@ public class SpectralDiversityOp extends Operator {
      * <li>integrate range shifts for each image using the network, and</li>
      * <li>save shifts and network metadata.</li>
      * </ol>
+     * The bursts of all arcs are cross-correlated concurrently; each burst writes its own result slot and the
+     * per-arc reduction runs afterwards in arc order.
      */
     private synchronized void estimateRangeOffset() {
 
@@ -851,8 +856,10 @@ public class SpectralDiversityOp extends Operator {
             return;
         }
 
+        final long startTime = System.nanoTime();
         try {
             final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
+            final int numBursts = subSwath[subSwathIndex - 1].numOfBursts;
 
             // compute range shift for every subswath
             for (String swath : subSwathNames) {
@@ -864,31 +871,63 @@ public class SpectralDiversityOp extends Operator {
                 List<ShiftData> arcShiftsList = new ArrayList<>(arcs.length * noOfPolarizations);
                 List<String> arcPolarizationsList = new ArrayList<>(arcs.length * noOfPolarizations);
 
-                for (String polarization : polarizations) {
+                // az/rg offsets per burst, shape: (polarizations * arcs, bursts, 2)
+                final double[][][] burstOffsets = new double[noOfPolarizations * arcs.length][numBursts][];
+
+                status.beginTask("Range shift: Cross-correlation for image pairs (" + swath + ")...",
+                                 burstOffsets.length * numBursts);
+                final ThreadExecutor executor = new ThreadExecutor();
+                for (int p = 0; p < noOfPolarizations; p++) {
                     // get list of complex images
-                    String imagesKey = polarization.toUpperCase() + "_" + swath.toUpperCase();
+                    String imagesKey = polarizations[p].toUpperCase() + "_" + swath.toUpperCase();
                     List<CplxContainer> complexImages = this.complexImages.get(imagesKey);
                     SystemUtils.LOG.fine("Estimating range offset for: " + imagesKey);
 
-                    // estimate range shift image pair
-                    status.beginTask("Range shift: Cross-correlation for image pairs (" + imagesKey + ")...", arcs.length);
                     for (int arcIndex = 0; arcIndex < arcs.length; arcIndex++) {  // for each pair
-                        // estimate range shift for each pair using cross-correlation
+                        final CplxContainer image1 = complexImages.get(arcs[arcIndex][0]);
+                        final CplxContainer image2 = complexImages.get(arcs[arcIndex][1]);
+                        final double[][] offsets = burstOffsets[p * arcs.length + arcIndex];
+
+                        for (int i = 0; i < numBursts; i++) {
+                            checkForCancellation();
+                            final int burstIndex = i;
+
+                            final ThreadRunnable worker = new ThreadRunnable() {
+                                @Override
+                                public void process() {
+                                    final double[] offset = new double[2]; // az/rg offset
+                                    estimateAzRgOffsets(image1.realBand, image1.imagBand,
+                                                        image2.realBand, image2.imagBand, burstIndex, offset);
+                                    offsets[burstIndex] = offset;
+                                }
+                            };
+                            executor.execute(worker);
+                            status.worked(1);
+                        }
+                    }
+                }
+                executor.complete();
+                status.done();
+
+                for (int p = 0; p < noOfPolarizations; p++) {
+                    String imagesKey = polarizations[p].toUpperCase() + "_" + swath.toUpperCase();
+                    List<CplxContainer> complexImages = this.complexImages.get(imagesKey);
+
+                    for (int arcIndex = 0; arcIndex < arcs.length; arcIndex++) {
+                        // estimate range shift for each pair from the cross-correlation of its bursts
                         CplxContainer image1 = complexImages.get(arcs[arcIndex][0]);
                         CplxContainer image2 = complexImages.get(arcs[arcIndex][1]);
                         String pairKey = getCanonicalId(image1) + "_" + getCanonicalId(image2);
                         SystemUtils.LOG.fine("Estimating range shift for pair " + pairKey +
                                                      "\t arc:" + arcs[arcIndex][0] + " -> " + arcs[arcIndex][1]);
-                        ShiftData rangeShift = crossCorrelatePair(image1, image2);
+                        ShiftData rangeShift = reduceRangeOffsets(image1, image2,
+                                                                  burstOffsets[p * arcs.length + arcIndex]);
 
                         // save network data
                         arcsList.add(arcs[arcIndex]);
                         arcShiftsList.add(rangeShift);
-                        arcPolarizationsList.add(polarization);
-
-                        status.worked(1);
+                        arcPolarizationsList.add(polarizations[p]);
                     }
-                    status.done();
                 }
 
                 // 2. integration of arcs
@@ -947,6 +986,7 @@ public class SpectralDiversityOp extends Operator {
             OperatorUtils.catchOperatorException("estimateRangeOffset", e);
         }
 
+        saveEstimationTime("rangeShiftEstimationTime", startTime);
         isRangeOffsetAvailable = true;
     }
 
@@ -1016,6 +1056,8 @@ public class SpectralDiversityOp extends Operator {
      * <li>integrate azimuth shifts for each image using the network, and</li>
      * <li>save shifts and network metadata.</li>
      * </ol>
+     * All overlaps, blocks and arcs of a polarization are estimated concurrently. Every task owns one slot of
+     * the shift array, so no locking is needed, and each thread reuses its own {@link ESDWorkspace}.
      */
     private synchronized void estimateAzimuthOffset() {
 
@@ -1023,14 +1065,12 @@ public class SpectralDiversityOp extends Operator {
             return;
         }
 
+        final long startTime = System.nanoTime();
         try {
             final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
 
             final int numOverlaps = subSwath[subSwathIndex - 1].numOfBursts - 1;
 
-            // shifts for each block, shape: (overlaps, blocks, arcs)
-            ShiftData[][][] shiftAllBlocks = new ShiftData[numOverlaps][numBlocksPerOverlap][arcs.length];
-
             // compute azimuth shift for every sub-swath
             for (String swath : subSwathNames) {
                 JSONObject azimuthShifts = new JSONObject();
@@ -1051,11 +1091,15 @@ public class SpectralDiversityOp extends Operator {
                     List<CplxContainer> complexImages = this.complexImages.get(imagesKey);
                     SystemUtils.LOG.fine("Estimating azimuth offset for: " + imagesKey);
 
+                    // shifts for each block, shape: (overlaps, blocks, arcs)
+                    final ShiftData[][][] shiftAllBlocks = new ShiftData[numOverlaps][numBlocksPerOverlap][arcs.length];
+
                     // estimate shift for each overlap
-                    status.beginTask("Azimuth shift: ESD for overlap blocks (" + imagesKey + ")...", numOverlaps * numBlocksPerOverlap);
+                    status.beginTask("Azimuth shift: ESD for overlap blocks (" + imagesKey + ")...",
+                                     numOverlaps * numBlocksPerOverlap * arcs.length);
+                    final ThreadExecutor executor = new ThreadExecutor();
                     for (int i = 0; i < numOverlaps; i++) {
-                        final ThreadExecutor executor = new ThreadExecutor();
-                        SystemUtils.LOG.info("Estimating azimuth offset for blocks in overlap: " +
+                        SystemUtils.LOG.fine("Estimating azimuth offset for blocks in overlap: " +
                                                      (i + 1) + "/" + numOverlaps);
                         final Rectangle overlapInBurstOneRectangle = new Rectangle();
                         final Rectangle overlapInBurstTwoRectangle = new Rectangle();
@@ -1080,30 +1124,37 @@ public class SpectralDiversityOp extends Operator {
                             final Rectangle blockRectangle1 = new Rectangle(x0, y0BurstOne, w, h);
                             final Rectangle blockRectangle2 = new Rectangle(x0, y0BurstTwo, w, h);
 
-                            // apply ESD for pairs in this block stack
-                            final ThreadRunnable worker = new ThreadRunnable() {
-                                @Override
-                                public void process() {
-                                    ShiftData[] azimuthShiftsPerBlock = applyESDToBlockStack(
-                                            swath,
-                                            polarization,
-                                            overlapIndex,
-                                            blockIndex,
-                                            blockRectangle1,
-                                            blockRectangle2,
-                                            spectralSeparation,
-                                            searchBoundary,
-                                            usePeriodogram);
-                                    synchronized (shiftAllBlocks) {
-                                        shiftAllBlocks[overlapIndex][blockIndex] = azimuthShiftsPerBlock;
+                            // Chop spectralSeparation to fit the block
+                            final double[] blockSpectralSeparation = chopSpectralSeparation(blockIndex, w, h,
+                                                                                            spectralSeparation);
+
+                            // apply ESD for every pair in this block stack
+                            for (int arc = 0; arc < arcs.length; arc++) {
+                                checkForCancellation();
+                                final int arcIndex = arc;
+                                final CplxContainer image1 = complexImages.get(arcs[arcIndex][0]);
+                                final CplxContainer image2 = complexImages.get(arcs[arcIndex][1]);
+
+                                final ThreadRunnable worker = new ThreadRunnable() {
+                                    @Override
+                                    public void process() {
+                                        shiftAllBlocks[overlapIndex][blockIndex][arcIndex] = applyESDToBlockPair(
+                                                image1,
+                                                image2,
+                                                overlapIndex,
+                                                blockIndex,
+                                                blockRectangle1,
+                                                blockRectangle2,
+                                                blockSpectralSeparation,
+                                                searchBoundary);
                                     }
-                                }
-                            };
-                            executor.execute(worker);
-                            status.worked(1);
+                                };
+                                executor.execute(worker);
+                                status.worked(1);
+                            }
                         }
-                        executor.complete();
                     }
+                    executor.complete();
                     status.done();
 
                     // compute average offset for images of this polarization
@@ -1248,6 +1299,7 @@ public class SpectralDiversityOp extends Operator {
             OperatorUtils.catchOperatorException("estimateAzimuthOffset", e);
         }
 
+        saveEstimationTime("azimuthShiftEstimationTime", startTime);
         isAzimuthOffsetAvailable = true;
     }
 
@@ -1276,89 +1328,86 @@ public class SpectralDiversityOp extends Operator {
      * ESD approach. This method is applied to all the pairs of images (blocks) according to the arcs in the integration
      * network.
      *
-     * @param swath              swath name.
-     * @param polarization       polarization name.
-     * @param overlapIndex       index of this overlap.
-     * @param blockIndex         index of this block in the overlap.
-     * @param blockRectangle1    rectangle for this block in the first burst.
-     * @param blockRectangle2    rectangle for this block in the second burst.
-     * @param spectralSeparation spectral separation.
-     * @param searchBoundary     boundaries of the search space for the azimuth shift estimation.
-     * @param usePeriodogram     flag to indicate the ESD estimation method: Periodogram (true) | Average (false).
-     * @return an array of ShiftData objects describing the offsets for all the image (block) pairs
+     * @param image1                  first image of the arc.
+     * @param image2                  second image of the arc.
+     * @param overlapIndex            index of this overlap.
+     * @param blockIndex              index of this block in the overlap.
+     * @param blockRectangle1         rectangle for this block in the first burst.
+     * @param blockRectangle2         rectangle for this block in the second burst.
+     * @param blockSpectralSeparation spectral separation of every pixel in the block.
+     * @param searchBoundary          boundaries of the search space for the azimuth shift estimation.
+     * @return the offset and weight of this block pair
      */
-    private ShiftData[] applyESDToBlockStack(String swath, String polarization, int overlapIndex, int blockIndex, Rectangle blockRectangle1, Rectangle blockRectangle2, double[] spectralSeparation, double searchBoundary, boolean usePeriodogram) {
-        ShiftData[] azimuthShifts = new ShiftData[arcs.length];
+    private ShiftData applyESDToBlockPair(final CplxContainer image1, final CplxContainer image2,
+                                          final int overlapIndex, final int blockIndex,
+                                          final Rectangle blockRectangle1, final Rectangle blockRectangle2,
+                                          final double[] blockSpectralSeparation, final double searchBoundary) {
         final int w = blockRectangle1.width;
         final int h = blockRectangle1.height;
+        final int length = w * h;
 
         try {
-            for (int i = 0; i < arcs.length; i++) {  // for each pair
-                final int arcIndex = i;
-
-                checkForCancellation();
-
-                // get images and bands for this arc
-                String imagesKey = polarization.toUpperCase() + "_" + swath.toUpperCase();
-                List<CplxContainer> complexImages = this.complexImages.get(imagesKey);
-                CplxContainer image1 = complexImages.get(arcs[i][0]);
-                CplxContainer image2 = complexImages.get(arcs[i][1]);
-
-                final Band mBandI = image1.realBand;
-                final Band mBandQ = image1.imagBand;
-                final Band sBandI = image2.realBand;
-                final Band sBandQ = image2.imagBand;
-
-                try {
-
-                    // Chop spectralSeparation to fit the block
-                    double[] blockSpectralSeparation = chopSpectralSeparation(blockIndex,
-                                                                              w, h,
-                                                                              spectralSeparation);
-
-                    // Transform 2D coherence to 1D coherence only for the block
-                    final double[] blockCoherence = ravel(computeCoherence(blockRectangle1,
-                                                                           mBandI, mBandQ, sBandI, sBandQ,
-                                                                           cohWin));
-
-                    // Transform coherence into weights
-                    final double[] blockWeight = getBlockWeight(blockCoherence, weightFunction);
-                    double avgBlockWeight = getAverageBlockWeight(blockWeight);
-
-                    // Calculate ESD phase
-                    final double[] esdPhase = estimateESDPhase(mBandI, mBandQ, sBandI, sBandQ,
-                                                               blockRectangle2, blockRectangle1);
-
-                    // Estimate the shift
-                    double azShift;
-                    if (usePeriodogram) {
-                        // Apply the azimuth shift retrieval estimator
-                        azShift = estimateAzimuthShiftWithPeriodogram(esdPhase,
-                                                                      blockWeight,
-                                                                      blockSpectralSeparation,
-                                                                      searchBoundary);
-                    } else {
-                        // Apply an estimator based on the average esd
-                        azShift = estimateAzimuthShiftWithAverage(esdPhase,
-                                                                  blockWeight,
-                                                                  blockSpectralSeparation);
-                    }
-
-                    // Save shift to azShiftArray
-                    ShiftData shiftData =
-                            new ShiftData(overlapIndex, blockIndex, azShift, avgBlockWeight, searchBoundary);
-                    azimuthShifts[arcIndex] = shiftData;
-
-                } catch (Throwable e) {
-                    OperatorUtils.catchOperatorException("estimateOffset", e);
-                }
+            checkForCancellation();
+
+            final ESDWorkspace workspace = esdWorkspace.get();
+            loadBlock(image1.realBand, blockRectangle1, workspace.getFirst(ESDWorkspace.REF_I, length));
+            loadBlock(image1.imagBand, blockRectangle1, workspace.getFirst(ESDWorkspace.REF_Q, length));
+            loadBlock(image2.realBand, blockRectangle1, workspace.getFirst(ESDWorkspace.SEC_I, length));
+            loadBlock(image2.imagBand, blockRectangle1, workspace.getFirst(ESDWorkspace.SEC_Q, length));
+            loadBlock(image1.realBand, blockRectangle2, workspace.getSecond(ESDWorkspace.REF_I, length));
+            loadBlock(image1.imagBand, blockRectangle2, workspace.getSecond(ESDWorkspace.REF_Q, length));
+            loadBlock(image2.realBand, blockRectangle2, workspace.getSecond(ESDWorkspace.SEC_I, length));
+            loadBlock(image2.imagBand, blockRectangle2, workspace.getSecond(ESDWorkspace.SEC_Q, length));
+
+            // Transform coherence into weights
+            final double[] blockCoherence = workspace.computeCoherence(w, h, cohWin);
+            final double[] blockWeight = workspace.getWeight(length);
+            getBlockWeight(blockCoherence, weightFunction, blockWeight);
+            final double avgBlockWeight = getAverageBlockWeight(blockWeight);
+
+            // Calculate ESD phase
+            final double[] esdPhase = workspace.computeESDPhase(length);
+
+            // Estimate the shift
+            double azShift;
+            if (usePeriodogram) {
+                // Apply the azimuth shift retrieval estimator
+                azShift = estimateAzimuthShiftWithPeriodogram(esdPhase,
+                                                              blockWeight,
+                                                              blockSpectralSeparation,
+                                                              searchBoundary);
+            } else {
+                // Apply an estimator based on the average esd
+                azShift = estimateAzimuthShiftWithAverage(esdPhase,
+                                                          blockWeight,
+                                                          blockSpectralSeparation);
             }
 
+            return new ShiftData(overlapIndex, blockIndex, azShift, avgBlockWeight, searchBoundary);
+
         } catch (Throwable e) {
-            OperatorUtils.catchOperatorException("estimateAzimuthOffset (applyESDToBlockStack)", e);
+            OperatorUtils.catchOperatorException("estimateAzimuthOffset (applyESDToBlockPair)", e);
         }
+        return null;
+    }
 
-        return azimuthShifts;
+    /**
+     * Copies the samples of a band inside the rectangle into a row-major buffer.
+     */
+    private void loadBlock(final Band band, final Rectangle rectangle, final float[] dst) {
+        final Tile tile = getSourceTile(band, rectangle);
+        final ProductData dataBuffer = tile.getDataBuffer();
+        final TileIndex srcIndex = new TileIndex(tile);
+        final int xMax = rectangle.x + rectangle.width;
+        final int yMax = rectangle.y + rectangle.height;
+
+        int k = 0;
+        for (int y = rectangle.y; y < yMax; ++y) {
+            srcIndex.calculateStride(y);
+            for (int x = rectangle.x; x < xMax; ++x) {
+                dst[k++] = dataBuffer.getElemFloatAt(srcIndex.getIndex(x));
+            }
+        }
     }
 
     /**
@@ -1409,17 +1458,16 @@ public class SpectralDiversityOp extends Operator {
     /**
      * Estimate range offset of the second image with respect to the first one using the average cross-correlation.
      *
-     * @param image1 first image used as reference.
-     * @param image2 second image.
+     * @param image1       first image used as reference.
+     * @param image2       second image.
+     * @param burstOffsets azimuth and range offset from the cross-correlation of each burst.
      * @return range shift and weights for each pair of images.
      */
-    private ShiftData crossCorrelatePair(CplxContainer image1, CplxContainer image2) {
+    private ShiftData reduceRangeOffsets(CplxContainer image1, CplxContainer image2, double[][] burstOffsets) {
 
         double rgOffset = Double.NaN;
 
-        final int numBursts = subSwath[subSwathIndex - 1].numOfBursts;
-
-        // SystemUtils.LOG.info("crossCorrelatePair numBursts = " + numBursts);
+        final int numBursts = burstOffsets.length;
 
         final String imagePairTag = getImagePairTag(image1, image2);
 
@@ -1427,34 +1475,11 @@ public class SpectralDiversityOp extends Operator {
             final List<Double> azOffsetArray = new ArrayList<>(numBursts);
             final List<Double> rgOffsetArray = new ArrayList<>(numBursts);
             final List<Integer> burstIndexArray = new ArrayList<>(numBursts);
-
-            final ThreadExecutor executor = new ThreadExecutor();
             for (int i = 0; i < numBursts; i++) {
-                checkForCancellation();
-                final int burstIndex = i;
-
-                final ThreadRunnable worker = new ThreadRunnable() {
-                    @Override
-                    public void process() {
-                        try {
-                            final double[] offset = new double[2]; // az/rg offset
-
-                            estimateAzRgOffsets(image1.realBand, image1.imagBand, image2.realBand, image2.imagBand,
-                                                burstIndex, offset);
-
-                            synchronized (azOffsetArray) {
-                                azOffsetArray.add(offset[0]);
-                                rgOffsetArray.add(offset[1]);
-                                burstIndexArray.add(burstIndex);
-                            }
-                        } catch (Throwable e) {
-                            OperatorUtils.catchOperatorException("estimateOffset", e);
-                        }
-                    }
-                };
-                executor.execute(worker);
+                azOffsetArray.add(burstOffsets[i][0]);
+                rgOffsetArray.add(burstOffsets[i][1]);
+                burstIndexArray.add(i);
             }
-            executor.complete();
 
             double sumRgOffset = 0.0;
             int count = 0;
@@ -1492,7 +1517,7 @@ public class SpectralDiversityOp extends Operator {
 
             SystemUtils.LOG.fine("SpectralDiversity (range shift): Overall range shift = " + rgOffset);
         } catch (Throwable e) {
-            OperatorUtils.catchOperatorException("estimateRangeOffset (crossCorrelatePair)", e);
+            OperatorUtils.catchOperatorException("estimateRangeOffset (reduceRangeOffsets)", e);
         }
 
         // validate and return azimuth shift
@@ -1548,40 +1573,10 @@ public class SpectralDiversityOp extends Operator {
         return choppedSpectralSeparation;
     }
 
-    private static double[] ravel(double[][] matrix) {
-        int height = matrix.length;
-        int width = matrix[0].length;
-        final double[] vector = new double[height * width];
-
-        for (int i = 0; i < vector.length; i++) {
-            final int r = i / width;
-            final int c = i - r * width;
-            vector[i] = matrix[r][c];
-        }
-
-        return vector;
-    }
-
-    private static double[] getBlockCoherence(final int blockIndex, final int blockWidth, final int blockHeight,
-                                              final double[][] coherence) {
-
-        final double[] blockCoherence = new double[blockWidth * blockHeight];
-
-        for (int i = 0; i < blockCoherence.length; i++) {
-            final int r = i / blockWidth;
-            final int c = blockIndex * blockWidth + i - r * blockWidth;
-            blockCoherence[i] = coherence[r][c];
-        }
-        return blockCoherence;
-    }
-
-    private double[] getBlockWeight(double[] coherence, WeightFunction weightFunction) {
-        double[] weight = new double[coherence.length];
-
+    private void getBlockWeight(double[] coherence, WeightFunction weightFunction, double[] weight) {
         for (int i = 0; i < coherence.length; i++) {
             weight[i] = weightFunction.getWeight(coherence[i], cohThreshold);
         }
-        return weight;
     }
 
     private double getAverageBlockWeight(double[] blockWeight) {
@@ -1838,6 +1833,26 @@ public class SpectralDiversityOp extends Operator {
         return subElement;
     }
 
+    /**
+     * Records the wall-clock time of an estimation stage under ESD Measurement/Estimation_Time.
+     */
+    private void saveEstimationTime(final String name, final long startNanos) {
+        final double seconds = (System.nanoTime() - startNanos) / 1.0e9;
+        SystemUtils.LOG.info("SpectralDiversity: " + name + " = " + seconds + " s");
+
+        final MetadataElement absTgt = AbstractMetadata.getAbstractedMetadata(targetProduct);
+        if (absTgt == null) {
+            return;
+        }
+
+        final MetadataElement timeElem = getOrCreateElement(getOrCreateElement(absTgt, "ESD Measurement"),
+                                                            "Estimation_Time");
+        final MetadataAttribute timeAttr = new MetadataAttribute(name, ProductData.TYPE_FLOAT64);
+        timeAttr.setUnit("s");
+        timeElem.addAttribute(timeAttr);
+        timeElem.setAttributeDouble(name, seconds);
+    }
+
     /**
      * Compute the number of lines in the overlapped area of given adjacent bursts.
      *
@@ -1850,62 +1865,6 @@ public class SpectralDiversityOp extends Operator {
         return (int) ((endTime - startTime) / subSwath[subSwathIndex - 1].azimuthTimeInterval);
     }
 
-    /**
-     * Estimates the ESD phase per pixel for the overlap of two bursts.
-     * <p>
-     * Reference:
-     * N. Yague-Martinez, P. Prats-Iraola, F. Rodriguez Gonzalez, R. Brcic, R. Shau, D. Geudtner, M. Eineder, and
-     * R. Bamler. “Interferometric Processing of Sentinel-1 TOPS Data”. In: IEEE Transactions on
-     * Geoscience and Remote Sensing, vol. 54, no. 4, pp. 2220–2234, April 2016. ISSN:0196-2892.
-     * DOI:10.1109/TGRS.2015.2497902
-     * <p>
-     * Computes:
-     * <code>
-     * \phi_\textup{ESD} = \arg{\left \{ (m_i \cdot s^*_i) (m_{i+1} \cdot s^*_{i+1})^* \right \}}
-     * </code>
-     *
-     * @param mBandI            The band with the real part of the reference image.
-     * @param mBandQ            The band with the imaginary part of the reference image.
-     * @param sBandI            The band with the real part of the secondary image.
-     * @param sBandQ            The band with the imaginary part of the secondary image.
-     * @param backwardRectangle First burst rectangle.
-     * @param forwardRectangle  Second burst rectangle.
-     * @return ESD phase.
-     */
-    private double[] estimateESDPhase(final Band mBandI, final Band mBandQ, final Band sBandI, final Band sBandQ,
-                                      final Rectangle backwardRectangle, final Rectangle forwardRectangle) {
-
-        final double[] mIBackArray = getSourceData(mBandI, backwardRectangle);
-        final double[] mQBackArray = getSourceData(mBandQ, backwardRectangle);
-        final double[] sIBackArray = getSourceData(sBandI, backwardRectangle);
-        final double[] sQBackArray = getSourceData(sBandQ, backwardRectangle);
-
-        final double[] mIForArray = getSourceData(mBandI, forwardRectangle);
-        final double[] mQForArray = getSourceData(mBandQ, forwardRectangle);
-        final double[] sIForArray = getSourceData(sBandI, forwardRectangle);
-        final double[] sQForArray = getSourceData(sBandQ, forwardRectangle);
-
-        final int arrayLength = mIBackArray.length;
-        final double[] backIntReal = new double[arrayLength];
-        final double[] backIntImag = new double[arrayLength];
-        complexArrayMultiplication(mIBackArray, mQBackArray, sIBackArray, sQBackArray, backIntReal, backIntImag);
-
-        final double[] forIntReal = new double[arrayLength];
-        final double[] forIntImag = new double[arrayLength];
-        complexArrayMultiplication(mIForArray, mQForArray, sIForArray, sQForArray, forIntReal, forIntImag);
-
-        final double[] diffIntReal = new double[arrayLength];
-        final double[] diffIntImag = new double[arrayLength];
-        complexArrayMultiplication(forIntReal, forIntImag, backIntReal, backIntImag, diffIntReal, diffIntImag);
-
-        final double[] phase = new double[arrayLength];
-        for (int i = 0; i < arrayLength; i++) {
-            phase[i] = Math.atan2(diffIntImag[i], diffIntReal[i]);
-        }
-
-        return phase;
-    }
-
     /**
      * Estimates azimuth shift as a weighted average.
      * <p>
@@ -2111,47 +2070,6 @@ public class SpectralDiversityOp extends Operator {
         return azShift;
     }
 
-    private double[] getSourceData(final Band srcBand, final Rectangle rectangle) {
-
-        final int dataType = srcBand.getDataType();
-        final Tile srcTile = getSourceTile(srcBand, rectangle);
-
-        double[] dataArray;
-        if (dataType == ProductData.TYPE_INT16) {
-            final short[] dataArrayShort = (short[]) srcTile.getDataBuffer().getElems();
-            dataArray = new double[dataArrayShort.length];
-            for (int i = 0; i < dataArrayShort.length; i++) {
-                dataArray[i] = (double) dataArrayShort[i];
-            }
-        } else if (dataType == ProductData.TYPE_FLOAT32) {
-            final float[] dataArrayFloat = (float[]) srcTile.getDataBuffer().getElems();
-            dataArray = new double[dataArrayFloat.length];
-            for (int i = 0; i < dataArrayFloat.length; i++) {
-                dataArray[i] = (double) dataArrayFloat[i];
-            }
-        } else {
-            dataArray = (double[]) srcTile.getDataBuffer().getElems();
-        }
-
-        return dataArray;
-    }
-
-    private static void complexArrayMultiplication(final double[] realArray1, final double[] imagArray1,
-                                                   final double[] realArray2, final double[] imagArray2,
-                                                   final double[] realOutput, final double[] imagOutput) {
-
-        final int arrayLength = realArray1.length;
-        if (imagArray1.length != arrayLength || realArray2.length != arrayLength || imagArray2.length != arrayLength ||
-                realOutput.length != arrayLength || imagOutput.length != arrayLength) {
-            throw new OperatorException("Arrays of the same length are expected.");
-        }
-
-        for (int i = 0; i < arrayLength; i++) {
-            realOutput[i] = realArray1[i] * realArray2[i] + imagArray1[i] * imagArray2[i];
-            imagOutput[i] = imagArray1[i] * realArray2[i] - realArray1[i] * imagArray2[i];
-        }
-    }
-
     private Band getBand(final String suffix, final String prefix, final String swathIndexStr, final String polarization) {
 
         final String[] bandNames = sourceProduct.getBandNames();
@@ -2200,88 +2118,6 @@ public class SpectralDiversityOp extends Operator {
         }
     }
 
-    private double[][] computeCoherence(final Rectangle rectangle, final Band mBandI, final Band mBandQ,
-                                        final Band sBandI, final Band sBandQ, final int cohWin) {
-
-        final int x0 = rectangle.x;
-        final int y0 = rectangle.y;
-        final int w = rectangle.width;
-        final int h = rectangle.height;
-        final int xMax = x0 + w;
-        final int yMax = y0 + h;
-        final int halfWindowSize = cohWin / 2;
-        final double[][] coherence = new double[h][w];
-
-        final Tile refTileI = getSourceTile(mBandI, rectangle);
-        final Tile refTileQ = getSourceTile(mBandQ, rectangle);
-        final ProductData refDataBufferI = refTileI.getDataBuffer();
-        final ProductData refDataBufferQ = refTileQ.getDataBuffer();
-
-        final Tile secTileI = getSourceTile(sBandI, rectangle);
-        final Tile secTileQ = getSourceTile(sBandQ, rectangle);
-        final ProductData secDataBufferI = secTileI.getDataBuffer();
-        final ProductData secDataBufferQ = secTileQ.getDataBuffer();
-
-        final TileIndex srcIndex = new TileIndex(refTileI);
-
-        final double[][] cohReal = new double[h][w];
-        final double[][] cohImag = new double[h][w];
-        final double[][] refPower = new double[h][w];
-        final double[][] secPower = new double[h][w];
-        for (int y = y0; y < yMax; ++y) {
-            srcIndex.calculateStride(y);
-            final int yy = y - y0;
-            for (int x = x0; x < xMax; ++x) {
-                final int srcIdx = srcIndex.getIndex(x);
-                final int xx = x - x0;
-
-                final float mI = refDataBufferI.getElemFloatAt(srcIdx);
-                final float mQ = refDataBufferQ.getElemFloatAt(srcIdx);
-                final float sI = secDataBufferI.getElemFloatAt(srcIdx);
-                final float sQ = secDataBufferQ.getElemFloatAt(srcIdx);
-
-                cohReal[yy][xx] = mI * sI + mQ * sQ;
-                cohImag[yy][xx] = mQ * sI - mI * sQ;
-                refPower[yy][xx] = mI * mI + mQ * mQ;
-                secPower[yy][xx] = sI * sI + sQ * sQ;
-            }
-        }
-
-        for (int y = y0; y < yMax; ++y) {
-            final int yy = y - y0;
-            for (int x = x0; x < xMax; ++x) {
-                final int xx = x - x0;
-
-                final int rowSt = Math.max(yy - halfWindowSize, 0);
-                final int rowEd = Math.min(yy + halfWindowSize, h - 1);
-                final int colSt = Math.max(xx - halfWindowSize, 0);
-                final int colEd = Math.min(xx + halfWindowSize, w - 1);
-
-                double cohRealSum = 0.0f, cohImagSum = 0.0f, refPowerSum = 0.0f, secPowerSum = 0.0f;
-                int count = 0;
-                for (int r = rowSt; r <= rowEd; r++) {
-                    for (int c = colSt; c <= colEd; c++) {
-                        cohRealSum += cohReal[r][c];
-                        cohImagSum += cohImag[r][c];
-                        refPowerSum += refPower[r][c];
-                        secPowerSum += secPower[r][c];
-                        count++;
-                    }
-                }
-
-                if (count > 0 && refPowerSum != 0.0 && secPowerSum != 0.0) {
-                    final double cohRealMean = cohRealSum / (double) count;
-                    final double cohImagMean = cohImagSum / (double) count;
-                    final double refPowerMean = refPowerSum / (double) count;
-                    final double secPowerMean = secPowerSum / (double) count;
-                    coherence[yy][xx] = Math.sqrt((cohRealMean * cohRealMean + cohImagMean * cohImagMean) /
-                                                          (refPowerMean * secPowerMean));
-                }
-            }
-        }
-        return coherence;
-    }
-
     private void performRangeAzimuthShift(final double azOffset, final double rgOffset,
                                           final Band secBandI, final Band secBandQ,
                                           final Rectangle targetRectangle, Map<Band, Tile> targetTileMap) {
@@ -2332,13 +2168,19 @@ public class SpectralDiversityOp extends Operator {
         // Perform azimuth Shift
 
         // get deramp/demodulation phase and perform deramp and demodulation
-        final double[][] derampDemodPhase = su.computeDerampDemodPhase(subSwath, subSwathIndex, burstIndex, targetRectangle);
+        final TOPSPhasePlane phasePlane = TOPSPhasePlane.get(subSwath[subSwathIndex - 1], burstIndex,
+                                                             TOPSPhasePlane.Type.DERAMP_DEMOD);
+        final double[][] derampDemodPhase = new double[h][w];
+        phasePlane.computePhase(targetRectangle, derampDemodPhase);
+        final float[] phasorI = new float[w * h];
+        final float[] phasorQ = new float[w * h];
+        phasePlane.computePhasor(targetRectangle, phasorI, phasorQ);
         final double[][] derampDemodI = new double[h][w];
         final double[][] derampDemodQ = new double[h][w];
         for (int r = 0; r < h; r++) {
             for (int c = 0; c < w; c++) {
-                final double cosPhase = FastMath.cos(derampDemodPhase[r][c]);
-                final double sinPhase = FastMath.sin(derampDemodPhase[r][c]);
+                final double cosPhase = phasorI[r * w + c];
+                final double sinPhase = phasorQ[r * w + c];
                 derampDemodI[r][c] = rangeShiftedI[r][c] * cosPhase - rangeShiftedQ[r][c] * sinPhase;
                 derampDemodQ[r][c] = rangeShiftedI[r][c] * sinPhase + rangeShiftedQ[r][c] * cosPhase;
             }
@@ -16,8 +16,8 @@
 package eu.esa.sar.sentinel1.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
-import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.commons.TOPSPhasePlane;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.gpf.Operator;
 import org.esa.snap.core.gpf.OperatorException;
@@ -235,16 +235,19 @@ public final class TOPSARDerampDemodOp extends Operator {
                                     final Map<Band, Tile> targetTileMap) throws Exception {
 
         final Rectangle targetRectangle = new Rectangle(x0, y0, w, h);
-        final double[][] derampDemodPhase = su.computeDerampDemodPhase(subSwath, subSwathIndex, burstIndex, targetRectangle);
-
-        if (derampDemodPhase == null) {
-            return;
-        }
+        final TOPSPhasePlane phasePlane = TOPSPhasePlane.get(subSwath[subSwathIndex - 1], burstIndex,
+                                                             TOPSPhasePlane.Type.DERAMP_DEMOD);
 
         if (outputDerampDemodPhase) {
+            final double[][] derampDemodPhase = new double[h][w];
+            phasePlane.computePhase(targetRectangle, derampDemodPhase);
             saveDrampDemodPhase(x0, y0, w, h, targetTileMap, derampDemodPhase);
         }
 
+        final float[] phasorI = new float[w * h];
+        final float[] phasorQ = new float[w * h];
+        phasePlane.computePhasor(targetRectangle, phasorI, phasorQ);
+
         for(String polarization : su.getPolarizations()) {
             final Band bandI = getBand(sourceProduct, "i_", swathIndexStr, polarization);
             final Band bandQ = getBand(sourceProduct, "q_", swathIndexStr, polarization);
@@ -261,45 +264,13 @@ public final class TOPSARDerampDemodOp extends Operator {
             final double[][] derampDemodI = new double[targetRectangle.height][targetRectangle.width];
             final double[][] derampDemodQ = new double[targetRectangle.height][targetRectangle.width];
 
-            performDerampDemod(tileI, tileQ, targetRectangle, derampDemodPhase, derampDemodI, derampDemodQ);
+            BackGeocodingOp.performDerampDemod(tileI, tileQ, targetRectangle, phasorI, phasorQ,
+                                               derampDemodI, derampDemodQ);
 
             saveTargetBands(x0, y0, w, h, targetTileMap, derampDemodI, derampDemodQ, polarization);
         }
     }
 
-    private static void performDerampDemod(final Tile tileI, final Tile tileQ,
-                                           final Rectangle targetRectangle, final double[][] derampDemodPhase,
-                                           final double[][] derampDemodI, final double[][] derampDemodQ) {
-
-        try {
-            final int x0 = targetRectangle.x;
-            final int y0 = targetRectangle.y;
-            final int xMax = x0 + targetRectangle.width;
-            final int yMax = y0 + targetRectangle.height;
-
-            final ProductData dataI = tileI.getDataBuffer();
-            final ProductData dataQ = tileQ.getDataBuffer();
-            final TileIndex index = new TileIndex(tileI);
-
-            for (int y = y0; y < yMax; y++) {
-                index.calculateStride(y);
-                final int yy = y - y0;
-                for (int x = x0; x < xMax; x++) {
-                    final int idx = index.getIndex(x);
-                    final int xx = x - x0;
-                    final double valueI = dataI.getElemDoubleAt(idx);
-                    final double valueQ = dataQ.getElemDoubleAt(idx);
-                    final double cosPhase = FastMath.cos(derampDemodPhase[yy][xx]);
-                    final double sinPhase = FastMath.sin(derampDemodPhase[yy][xx]);
-                    derampDemodI[yy][xx] = valueI*cosPhase - valueQ*sinPhase;
-                    derampDemodQ[yy][xx] = valueI*sinPhase + valueQ*cosPhase;
-                }
-            }
-        } catch (Throwable e) {
-            OperatorUtils.catchOperatorException("performDerampDemod", e);
-        }
-    }
-
     private void saveTargetBands(final int x0, final int y0, final int w, final int h,
                                  final Map<Band, Tile> targetTileMap, final double[][] derampDemodI,
                                  final double[][] derampDemodQ, final String polarization) throws OperatorException {
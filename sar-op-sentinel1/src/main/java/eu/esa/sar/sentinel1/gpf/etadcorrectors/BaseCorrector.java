@@ -24,9 +24,6 @@ import org.esa.snap.engine_utilities.gpf.ReaderUtils;
 import org.esa.snap.engine_utilities.util.Maths;
 
 import java.awt.*;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Base class for ETAD correctors.
@@ -82,9 +79,6 @@ import java.util.concurrent.locks.ReentrantLock;
     protected static final String ETAD_GRADIENT = "etadGradient";
     protected static final String PRODUCT_SUFFIX = "_etad";
 
-    protected final Map<String, double[][]> correctionMap = new ConcurrentHashMap<>();
-    private final Map<String, ReentrantLock> lockMap = new ConcurrentHashMap<>();
-
     /**
      * Default constructor. The graph processing framework
      * requires that an operator has a default constructor.
@@ -296,60 +290,40 @@ import java.util.concurrent.locks.ReentrantLock;
         return new Rectangle(x0, y0, w, h);
     }
 
-    protected double getCorrection(final String layer, final double azimuthTime, final double slantRangeTime,
-                                   final ETADUtils.Burst burst) {
+    /**
+     * Bilinear interpolation of a burst correction layer. The layer is resolved by the caller with
+     * {@link #getBurstCorrection} once per burst rather than per pixel.
+     */
+    protected static double getCorrection(final ETADLayerCache.Layer layerCorrection, final double azimuthTime,
+                                          final double slantRangeTime, final ETADUtils.Burst burst) {
 
         if (burst == null) {
             return 0.0;
         }
-        double[][] layerCorrection = getBurstCorrection(layer, burst);
-
         final double i = (azimuthTime - burst.azimuthTimeMin) / burst.gridSamplingAzimuth;
         final double j = (slantRangeTime - burst.rangeTimeMin) / burst.gridSamplingRange;
         final int i0 = (int)i;
         final int i1 = i0 + 1;
         final int j0 = (int)j;
         final int j1 = j0 + 1;
-        final double c00 = layerCorrection[i0][j0];
-        final double c01 = layerCorrection[i0][j1];
-        final double c10 = layerCorrection[i1][j0];
-        final double c11 = layerCorrection[i1][j1];
+        final double c00 = layerCorrection.get(i0, j0);
+        final double c01 = layerCorrection.get(i0, j1);
+        final double c10 = layerCorrection.get(i1, j0);
+        final double c11 = layerCorrection.get(i1, j1);
         return Maths.interpolationBiLinear(c00, c01, c10, c11, j - j0, i - i0);
     }
 
-    protected double[][] getBurstCorrection(final String layer, final ETADUtils.Burst burst) {
+    protected ETADLayerCache.Layer getBurstCorrection(final String layer, final ETADUtils.Burst burst) {
 
         if (burst == null) {
             return null;
         }
         final String bandName = etadUtils.createBandName(burst.swathID, burst.bIndex, layer);
-        double[][] layerCorrection = correctionMap.get(bandName);
-        if (layerCorrection == null) {
-            layerCorrection = loadBurst(burst, bandName);
-        }
-        return layerCorrection;
-    }
-
-    private double[][] loadBurst(final ETADUtils.Burst burst, final String bandName) {
-        double[][] layerCorrection = correctionMap.get(bandName);
+        final ETADLayerCache.Layer layerCorrection = etadUtils.getLayer(burst, bandName);
         if (layerCorrection == null) {
-            ReentrantLock lock = lockMap.computeIfAbsent(bandName, k -> new ReentrantLock());
-            lock.lock();
-            try {
-                layerCorrection = correctionMap.get(bandName);
-                if (layerCorrection == null) {
-                    layerCorrection = etadUtils.getLayerCorrectionForCurrentBurst(burst, bandName);
-                    if (layerCorrection == null) {
-                        // Do NOT cache a null result — caching it would make every retry hit the same broken path
-                        // while believing the load already succeeded.
-                        throw new OperatorException("Failed to load ETAD correction for band '" + bandName +
-                                "' (burst " + burst.bIndex + ", swath " + burst.swathID + ").");
-                    }
-                    correctionMap.put(bandName, layerCorrection);
-                }
-            } finally {
-                lock.unlock();
-            }
+            // null results are not cached, so a retry goes back to the ETAD product
+            throw new OperatorException("Failed to load ETAD correction for band '" + bandName +
+                    "' (burst " + burst.bIndex + ", swath " + burst.swathID + ").");
         }
         return layerCorrection;
     }
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf.etadcorrectors;
+
+import org.esa.snap.core.datamodel.ProductData;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Memory-bounded cache of ETAD burst correction layers, shared by all correctors and operators in the JVM.
+ *
+ * Each layer is decoded once into a compact grid: float when every value is exactly representable as float,
+ * which is the case for the layers delivered by the ETAD NetCDF reader, and double otherwise. The least
+ * recently used layers are dropped once the cache exceeds its size. Layers in use by a corrector stay valid
+ * after eviction; they are only decoded again on the next lookup.
+ *
+ * Cache size can be set with system property: -Dsar.etad.layerCacheMB=512
+ */
+public final class ETADLayerCache {
+
+    private static final long DEFAULT_MAX_BYTES = Long.getLong("sar.etad.layerCacheMB", 512L) * 1024L * 1024L;
+    private static final ETADLayerCache INSTANCE = new ETADLayerCache(DEFAULT_MAX_BYTES);
+
+    private final long maxBytes;
+    private final Map<String, Entry> layers = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> lockMap = new ConcurrentHashMap<>();
+    private final AtomicLong decodedBytes = new AtomicLong();
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    public interface Loader {
+        /**
+         * @return the decoded layer, or null if it cannot be loaded
+         */
+        Layer load() throws Exception;
+    }
+
+    private static final class Entry {
+        final Layer layer;
+        // approximate recency, written without synchronization on every hit
+        long lastAccess;
+
+        Entry(final Layer layer) {
+            this.layer = layer;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    ETADLayerCache(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static ETADLayerCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached layer or loads it. Concurrent requests for the same layer load it once.
+     * Cache hits take no lock, so this may be called per pixel.
+     *
+     * @param key    unique key of the layer
+     * @param loader decodes the layer on a cache miss
+     * @return the layer, or null if the loader returned null; a null result is not cached
+     */
+    public Layer get(final String key, final Loader loader) throws Exception {
+        Entry entry = layers.get(key);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+            return entry.layer;
+        }
+        final ReentrantLock lock = lockMap.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            entry = layers.get(key);
+            if (entry != null) {
+                return entry.layer;
+            }
+            final Layer layer = loader.load();
+            if (layer != null) {
+                decodedBytes.addAndGet(layer.getSizeInBytes());
+                put(key, new Entry(layer));
+            }
+            return layer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops all layers whose key starts with the prefix, e.g. those of a disposed ETAD product.
+     */
+    public synchronized void invalidate(final String keyPrefix) {
+        final Iterator<Map.Entry<String, Entry>> it = layers.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<String, Entry> entry = it.next();
+            if (entry.getKey().startsWith(keyPrefix)) {
+                usedBytes.addAndGet(-entry.getValue().layer.getSizeInBytes());
+                it.remove();
+            }
+        }
+        lockMap.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    public synchronized void clear() {
+        layers.clear();
+        lockMap.clear();
+        usedBytes.set(0);
+    }
+
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return total size of all layers decoded since the cache was created
+     */
+    public long getDecodedBytes() {
+        return decodedBytes.get();
+    }
+
+    private synchronized void put(final String key, final Entry entry) {
+        final Entry previous = layers.put(key, entry);
+        if (previous != null) {
+            usedBytes.addAndGet(-previous.layer.getSizeInBytes());
+        }
+        usedBytes.addAndGet(entry.layer.getSizeInBytes());
+
+        // evict least recently used, but always keep the layer just loaded
+        while (usedBytes.get() > maxBytes) {
+            String eldestKey = null;
+            Entry eldest = null;
+            for (Map.Entry<String, Entry> e : layers.entrySet()) {
+                if (e.getValue() != entry && (eldest == null || e.getValue().lastAccess < eldest.lastAccess)) {
+                    eldestKey = e.getKey();
+                    eldest = e.getValue();
+                }
+            }
+            if (eldest == null) {
+                break;
+            }
+            layers.remove(eldestKey);
+            usedBytes.addAndGet(-eldest.layer.getSizeInBytes());
+        }
+    }
+
+    /**
+     * Correction grid of one burst, rows in azimuth and columns in range.
+     */
+    public static final class Layer {
+
+        private final int rows;
+        private final int cols;
+        private final float[] floatData;
+        private final double[] doubleData;
+
+        private Layer(final int rows, final int cols, final float[] floatData, final double[] doubleData) {
+            this.rows = rows;
+            this.cols = cols;
+            this.floatData = floatData;
+            this.doubleData = doubleData;
+        }
+
+        /**
+         * @param data raster data, row-major with a row length of cols
+         * @param rows number of rows to take
+         * @param cols number of columns
+         */
+        public static Layer create(final ProductData data, final int rows, final int cols) {
+            final int n = rows * cols;
+            if (data instanceof ProductData.Float) {
+                final float[] values = new float[n];
+                System.arraycopy((float[]) data.getElems(), 0, values, 0, n);
+                return new Layer(rows, cols, values, null);
+            }
+            final double[] values = new double[n];
+            for (int i = 0; i < n; ++i) {
+                values[i] = data.getElemDoubleAt(i);
+            }
+            return compact(rows, cols, values);
+        }
+
+        public static Layer create(final double[][] grid) {
+            final int rows = grid.length;
+            final int cols = rows > 0 ? grid[0].length : 0;
+            final double[] values = new double[rows * cols];
+            for (int r = 0; r < rows; ++r) {
+                System.arraycopy(grid[r], 0, values, r * cols, cols);
+            }
+            return compact(rows, cols, values);
+        }
+
+        private static Layer compact(final int rows, final int cols, final double[] values) {
+            final float[] floats = new float[values.length];
+            for (int i = 0; i < values.length; ++i) {
+                floats[i] = (float) values[i];
+                if (floats[i] != values[i] && !Double.isNaN(values[i])) {
+                    return new Layer(rows, cols, null, values);
+                }
+            }
+            return new Layer(rows, cols, floats, null);
+        }
+
+        public double get(final int row, final int col) {
+            final int i = row * cols + col;
+            return floatData != null ? floatData[i] : doubleData[i];
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getCols() {
+            return cols;
+        }
+
+        public boolean isFloat() {
+            return floatData != null;
+        }
+
+        public long getSizeInBytes() {
+            return floatData != null ? 4L * floatData.length : 8L * doubleData.length;
+        }
+
+        public double[][] toArray() {
+            final double[][] grid = new double[rows][cols];
+            for (int r = 0; r < rows; ++r) {
+                for (int c = 0; c < cols; ++c) {
+                    grid[r][c] = get(r, c);
+                }
+            }
+            return grid;
+        }
+    }
+}
@@ -47,11 +47,16 @@ public final class ETADUtils {
     private InstrumentTimingCalibration[] instrumentTimingCalibrationList = null;
 
     // Temporary for holding the tropo-to-height gradient layers
-    private Map<String, double[][]> burstToGradientMap = null;
+    private Map<String, ETADLayerCache.Layer> burstToGradientMap = null;
+
+    // layers are shared through the cache by all correctors and operators reading the same ETAD product
+    private final ETADLayerCache layerCache = ETADLayerCache.getInstance();
+    private final String cacheKeyPrefix;
 
     public ETADUtils(final Product ETADProduct) throws Exception {
 
         etadProduct = ETADProduct;
+        cacheKeyPrefix = createCacheKeyPrefix(ETADProduct);
 
         getMetadataRoot();
 
@@ -63,11 +68,19 @@ public final class ETADUtils {
     }
 
     public void dispose() {
+        layerCache.invalidate(cacheKeyPrefix);
         if(etadProduct != null) {
             etadProduct.dispose();
         }
     }
 
+    private static String createCacheKeyPrefix(final Product product) {
+        if (product.getFileLocation() != null) {
+            return product.getFileLocation().getAbsolutePath() + '/';
+        }
+        return product.getName() + '@' + Integer.toHexString(System.identityHashCode(product)) + '/';
+    }
+
     private void getMetadataRoot() throws IOException {
 
         final MetadataElement root = etadProduct.getMetadataRoot();
@@ -426,22 +439,32 @@ public final class ETADUtils {
 
     public double[][] getLayerCorrectionForCurrentBurst(final Burst burst, final String bandName) {
 
+        final ETADLayerCache.Layer layer = getLayer(burst, bandName);
+        return layer != null ? layer.toArray() : null;
+    }
+
+    /**
+     * Returns the correction layer of a burst from the shared layer cache, decoding it on first use.
+     * @param burst The burst.
+     * @param bandName Name of the layer band in the ETAD product.
+     * @return The layer, azimuthExtent rows by rangeExtent columns.
+     */
+    public ETADLayerCache.Layer getLayer(final Burst burst, final String bandName) {
+
         // Temporary code to handle gradient layer
         if (bandName.toLowerCase().contains("gradient")) {
             return burstToGradientMap.get(bandName);
         }
 
         try {
-            final Band layerBand = etadProduct.getBand(bandName);
-            layerBand.readRasterDataFully(ProgressMonitor.NULL);
-            final ProductData layerData = layerBand.getData();
-            final double[][] correction = new double[burst.azimuthExtent][burst.rangeExtent];
-            for (int a = 0; a < burst.azimuthExtent; ++a) {
-                for (int r = 0; r < burst.rangeExtent; ++r) {
-                    correction[a][r] = layerData.getElemDoubleAt(a * burst.rangeExtent + r);
-                }
-            }
-            return correction;
+            return layerCache.get(cacheKeyPrefix + bandName, () -> {
+                final Band layerBand = etadProduct.getBand(bandName);
+                final int w = layerBand.getRasterWidth();
+                final int h = layerBand.getRasterHeight();
+                final ProductData layerData = ProductData.createInstance(layerBand.getDataType(), w * h);
+                layerBand.readRasterData(0, 0, w, h, layerData, ProgressMonitor.NULL);
+                return ETADLayerCache.Layer.create(layerData, burst.azimuthExtent, burst.rangeExtent);
+            });
 
         } catch (Exception e) {
             OperatorUtils.catchOperatorException("getLayerCorrectionForCurrentBurst", e);
@@ -537,7 +560,9 @@ public final class ETADUtils {
 
             final String gradientBandName = createBandName(burst.swathID, burst.bIndex, "gradient");
             final double[][] gradient = computeGradientForCurrentBurst(tropoCorr, height);
-            burstToGradientMap.put(gradientBandName, gradient);
+            if (gradient != null) {
+                burstToGradientMap.put(gradientBandName, ETADLayerCache.Layer.create(gradient));
+            }
         }
     }
 
@@ -228,6 +228,10 @@ import java.util.StringTokenizer;
         final int xMax = x0 + w - 1;
         final int yMax = y0 + h - 1;
 
+        // a tile spans few bursts, so the layer is only resolved again when the burst changes
+        ETADUtils.Burst currentBurst = null;
+        ETADLayerCache.Layer layerCorrection = null;
+
         for (int y = y0; y <= yMax; ++y) {
             final int yy = y - y0;
             final double azTime = firstLineTime + y * lineTimeInterval;
@@ -241,7 +245,11 @@ import java.util.StringTokenizer;
                         groundRange - grsrConvParams[0].ground_range_origin, grsrCoefficients);
                 final double rgTime = slantRange / Constants.halfLightSpeed;
                 final ETADUtils.Burst burst = etadUtils.getBurst(azTime, rgTime);
-                correction[yy][xx] += scale * getCorrection(layer, azTime, rgTime, burst);
+                if (burst != currentBurst) {
+                    layerCorrection = getBurstCorrection(layer, burst);
+                    currentBurst = burst;
+                }
+                correction[yy][xx] += scale * getCorrection(layerCorrection, azTime, rgTime, burst);
             }
         }
     }
@@ -408,6 +408,7 @@ import java.util.Map;
                                                final int burstIndex, final double[][] correction, final double scale) {
 
         final ETADUtils.Burst burst = etadUtils.getBurst(1, 1, burstIndex);
+        final ETADLayerCache.Layer layerCorrection = getBurstCorrection(layer, burst);
 
         final int xMax = x0 + w - 1;
         final int yMax = y0 + h - 1;
@@ -418,7 +419,7 @@ import java.util.Map;
             for (int x = x0; x <= xMax; ++x) {
                 final int xx = x - x0;
                 final double rgTime = (slantRangeToFirstPixel + x * rangeSpacing) / Constants.halfLightSpeed;
-                correction[yy][xx] += scale * getCorrection(layer, azTime, rgTime, burst);
+                correction[yy][xx] += scale * getCorrection(layerCorrection, azTime, rgTime, burst);
             }
         }
     }
@@ -17,6 +17,7 @@ package eu.esa.sar.sentinel1.gpf.etadcorrectors;
 
 import com.bc.ceres.core.ProgressMonitor;
 import eu.esa.sar.commons.Sentinel1Utils;
+import eu.esa.sar.commons.TOPSPhasePlane;
 import eu.esa.sar.sentinel1.gpf.BackGeocodingOp;
 import org.apache.commons.math3.util.FastMath;
 import org.esa.snap.core.datamodel.*;
@@ -258,8 +259,8 @@ import java.util.Map;
             }
 
             final double[][] phase = computeRangeTimeCorrectionPhase(burst);
-            final double[][] height = getBurstCorrection(HEIGHT, burst);
-            final double[][] gradient = convertGradientToPhase(getBurstCorrection(GRADIENT, burst));
+            final double[][] height = getBurstCorrection(HEIGHT, burst).toArray();
+            final double[][] gradient = convertGradientToPhase(getBurstCorrection(GRADIENT, burst).toArray());
 
             saveBurstDataAsTiePointGrid(phase, ETAD_PHASE_CORRECTION + "_" + subSwath.subSwathName + "_" + burstIndex);
             saveBurstDataAsTiePointGrid(height, ETAD_HEIGHT + "_" + subSwath.subSwathName + "_" + burstIndex);
@@ -317,16 +318,17 @@ import java.util.Map;
     private double[][] computeRangeTimeCorrectionPhase(final ETADUtils.Burst burst) {
 
         final double rangeTimeCalibration = getInstrumentRangeTimeCalibration(subSwath.subSwathName);
-        final double[][] tropo = getBurstCorrection(TROPOSPHERIC_CORRECTION_RG, burst);
-        final double[][] geodeticRg = getBurstCorrection(GEODETIC_CORRECTION_RG, burst);
-        final double[][] ionosphericRg = getBurstCorrection(IONOSPHERIC_CORRECTION_RG, burst);
+        final ETADLayerCache.Layer tropo = getBurstCorrection(TROPOSPHERIC_CORRECTION_RG, burst);
+        final ETADLayerCache.Layer geodeticRg = getBurstCorrection(GEODETIC_CORRECTION_RG, burst);
+        final ETADLayerCache.Layer ionosphericRg = getBurstCorrection(IONOSPHERIC_CORRECTION_RG, burst);
 
-        final int rows = tropo.length;
-        final int cols = tropo[0].length;
+        final int rows = tropo.getRows();
+        final int cols = tropo.getCols();
         final double[][] phase = new double[rows][cols];
         for (int r = 0; r < rows; ++r) {
             for (int c = 0; c < cols; ++c) {
-                final double delay = tropo[r][c] + geodeticRg[r][c] - ionosphericRg[r][c] + rangeTimeCalibration;
+                final double delay = tropo.get(r, c) + geodeticRg.get(r, c) - ionosphericRg.get(r, c) +
+                        rangeTimeCalibration;
                 phase[r][c] = -2.0 * Constants.PI * radarFrequency * delay; // delay time (s) to phase (radian)
             }
         }
@@ -432,6 +434,10 @@ import java.util.Map;
 
             final double[][] refDerampDemodPhase = mSU.computeDerampDemodPhase(mSubSwath,
                     subSwathIndex, mBurstIndex, sourceRectangle);
+            final float[] refPhasorI = new float[sourceRectangle.width * sourceRectangle.height];
+            final float[] refPhasorQ = new float[sourceRectangle.width * sourceRectangle.height];
+            TOPSPhasePlane.get(mSubSwath[subSwathIndex - 1], mBurstIndex,
+                    TOPSPhasePlane.Type.DERAMP_DEMOD).computePhasor(sourceRectangle, refPhasorI, refPhasorQ);
 
             // With outputPhaseCorrections the range-delay phase is removed from the complex data
             // itself rather than only being emitted as tie-point grids. That is what makes ETAD
@@ -459,7 +465,7 @@ import java.util.Map;
                 final double[][] refDerampDemodI = new double[sourceRectangle.height][sourceRectangle.width];
                 final double[][] refDerampDemodQ = new double[sourceRectangle.height][sourceRectangle.width];
 
-                BackGeocodingOp.performDerampDemod(masterTileI, masterTileQ, sourceRectangle, refDerampDemodPhase,
+                BackGeocodingOp.performDerampDemod(masterTileI, masterTileQ, sourceRectangle, refPhasorI, refPhasorQ,
                         refDerampDemodI, refDerampDemodQ);
 
                 final Band targetBandI = targetProduct.getBand(masterBandI.getName());
@@ -582,6 +588,7 @@ import java.util.Map;
         final double burstAzTime = 0.5 * (subSwath.burstFirstLineTime[prodBurstIndex] +  subSwath.burstLastLineTime[prodBurstIndex]);
         final int burstIndex = etadUtils.getBurstIndex(pIndex, prodSubswathIndex, burstAzTime);
         final ETADUtils.Burst burst = etadUtils.getBurst(pIndex, prodSubswathIndex, burstIndex);
+        final ETADLayerCache.Layer layerCorrection = getBurstCorrection(layer, burst);
 
         final int xMax = x0 + w - 1;
         final int yMax = y0 + h - 1;
@@ -595,7 +602,7 @@ import java.util.Map;
                 final int xx = x - x0;
                 final double rgTime = 2.0 * (subSwath.slrTimeToFirstPixel + x * mSU.rangeSpacing / Constants.lightSpeed);
 
-                correction[yy][xx] += scale * getCorrection(layer, azTime, rgTime, burst);
+                correction[yy][xx] += scale * getCorrection(layerCorrection, azTime, rgTime, burst);
             }
         }
     }
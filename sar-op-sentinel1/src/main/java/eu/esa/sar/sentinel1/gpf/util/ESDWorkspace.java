@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf.util;
+
+/**
+ * Per-thread scratch buffers and kernels for spectral diversity on one block of a burst overlap.
+ *
+ * Network ESD repeats the same block computation for every arc of the image graph, so the
+ * input samples, interferogram moments, coherence and ESD phase are kept in buffers that are
+ * only reallocated when the block size changes. Returned arrays have exactly the requested
+ * length. A workspace must not be shared between threads.
+ */
+public final class ESDWorkspace {
+
+    public static final int REF_I = 0;
+    public static final int REF_Q = 1;
+    public static final int SEC_I = 2;
+    public static final int SEC_Q = 3;
+
+    private final float[][] first = new float[4][0];
+    private final float[][] second = new float[4][0];
+
+    private double[] cohReal = new double[0];
+    private double[] cohImag = new double[0];
+    private double[] refPower = new double[0];
+    private double[] secPower = new double[0];
+    private double[] coherence = new double[0];
+    private double[] weight = new double[0];
+    private double[] phase = new double[0];
+
+    /**
+     * @param component one of REF_I, REF_Q, SEC_I, SEC_Q
+     * @param length    number of samples in the block
+     * @return buffer for the block samples in the first burst of the overlap
+     */
+    public float[] getFirst(final int component, final int length) {
+        if (first[component].length != length) {
+            first[component] = new float[length];
+        }
+        return first[component];
+    }
+
+    /**
+     * @param component one of REF_I, REF_Q, SEC_I, SEC_Q
+     * @param length    number of samples in the block
+     * @return buffer for the block samples in the second burst of the overlap
+     */
+    public float[] getSecond(final int component, final int length) {
+        if (second[component].length != length) {
+            second[component] = new float[length];
+        }
+        return second[component];
+    }
+
+    /**
+     * @return buffer for per-pixel weights
+     */
+    public double[] getWeight(final int length) {
+        if (weight.length != length) {
+            weight = new double[length];
+        }
+        return weight;
+    }
+
+    /**
+     * Coherence of the block in the first burst, estimated over a cohWin x cohWin box that is
+     * clipped at the block border.
+     *
+     * @return row-major coherence of length w * h
+     */
+    public double[] computeCoherence(final int w, final int h, final int cohWin) {
+        final int length = w * h;
+        if (coherence.length != length) {
+            cohReal = new double[length];
+            cohImag = new double[length];
+            refPower = new double[length];
+            secPower = new double[length];
+            coherence = new double[length];
+        }
+        final float[] mIArray = first[REF_I], mQArray = first[REF_Q];
+        final float[] sIArray = first[SEC_I], sQArray = first[SEC_Q];
+
+        for (int k = 0; k < length; ++k) {
+            final float mI = mIArray[k];
+            final float mQ = mQArray[k];
+            final float sI = sIArray[k];
+            final float sQ = sQArray[k];
+
+            cohReal[k] = mI * sI + mQ * sQ;
+            cohImag[k] = mQ * sI - mI * sQ;
+            refPower[k] = mI * mI + mQ * mQ;
+            secPower[k] = sI * sI + sQ * sQ;
+        }
+
+        final int halfWindowSize = cohWin / 2;
+        for (int yy = 0; yy < h; ++yy) {
+            final int rowSt = Math.max(yy - halfWindowSize, 0);
+            final int rowEd = Math.min(yy + halfWindowSize, h - 1);
+            for (int xx = 0; xx < w; ++xx) {
+                final int colSt = Math.max(xx - halfWindowSize, 0);
+                final int colEd = Math.min(xx + halfWindowSize, w - 1);
+
+                double cohRealSum = 0.0, cohImagSum = 0.0, refPowerSum = 0.0, secPowerSum = 0.0;
+                int count = 0;
+                for (int r = rowSt; r <= rowEd; r++) {
+                    final int row = r * w;
+                    for (int c = colSt; c <= colEd; c++) {
+                        cohRealSum += cohReal[row + c];
+                        cohImagSum += cohImag[row + c];
+                        refPowerSum += refPower[row + c];
+                        secPowerSum += secPower[row + c];
+                        count++;
+                    }
+                }
+
+                double coh = 0.0;
+                if (count > 0 && refPowerSum != 0.0 && secPowerSum != 0.0) {
+                    final double cohRealMean = cohRealSum / (double) count;
+                    final double cohImagMean = cohImagSum / (double) count;
+                    final double refPowerMean = refPowerSum / (double) count;
+                    final double secPowerMean = secPowerSum / (double) count;
+                    coh = Math.sqrt((cohRealMean * cohRealMean + cohImagMean * cohImagMean) /
+                                            (refPowerMean * secPowerMean));
+                }
+                coherence[yy * w + xx] = coh;
+            }
+        }
+        return coherence;
+    }
+
+    /**
+     * ESD phase, arg{(m1 s1*)(m2 s2*)*} with 1 and 2 the first and second burst of the overlap.
+     *
+     * @return the phase per pixel
+     */
+    public double[] computeESDPhase(final int length) {
+        if (phase.length != length) {
+            phase = new double[length];
+        }
+        final float[] mI1 = first[REF_I], mQ1 = first[REF_Q], sI1 = first[SEC_I], sQ1 = first[SEC_Q];
+        final float[] mI2 = second[REF_I], mQ2 = second[REF_Q], sI2 = second[SEC_I], sQ2 = second[SEC_Q];
+
+        for (int k = 0; k < length; ++k) {
+            final double m1I = mI1[k], m1Q = mQ1[k], s1I = sI1[k], s1Q = sQ1[k];
+            final double int1Real = m1I * s1I + m1Q * s1Q;
+            final double int1Imag = m1Q * s1I - m1I * s1Q;
+
+            final double m2I = mI2[k], m2Q = mQ2[k], s2I = sI2[k], s2Q = sQ2[k];
+            final double int2Real = m2I * s2I + m2Q * s2Q;
+            final double int2Imag = m2Q * s2I - m2I * s2Q;
+
+            final double diffReal = int1Real * int2Real + int1Imag * int2Imag;
+            final double diffImag = int1Imag * int2Real - int1Real * int2Imag;
+            phase[k] = Math.atan2(diffImag, diffReal);
+        }
+        return phase;
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf.etadcorrectors;
+
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.MetadataAttribute;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.dataop.resamp.Resampling;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.util.Maths;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ETADLayerCache}. The corrector test builds a small synthetic ETAD product in memory,
+ * so no ETAD fixture is needed.
+ */
+public class ETADLayerCacheTest {
+
+    private static final int ROWS = 20;
+    private static final int COLS = 50;
+    private static final String START_TIME = "2020-08-15T17:30:48.000000";
+    private static final String STOP_TIME = "2020-08-15T17:31:16.000000";
+    private static final double RANGE_TIME_MIN = 0.0053;
+    private static final double AZIMUTH_SAMPLING = 0.1;
+    private static final double RANGE_SAMPLING = 1.0e-7;
+    private static final String[] LAYERS = {BaseCorrector.TROPOSPHERIC_CORRECTION_RG, BaseCorrector.GEODETIC_CORRECTION_RG};
+
+    @Test
+    public void concurrentRequestsLoadOnce() throws Exception {
+        final ETADLayerCache cache = new ETADLayerCache(1024 * 1024);
+        final AtomicInteger numLoads = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ETADLayerCache.Layer layer = ETADLayerCache.Layer.create(randomGrid(ROWS, COLS, new Random(1)));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<ETADLayerCache.Layer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("key", () -> {
+                        numLoads.incrementAndGet();
+                        Thread.sleep(50);
+                        return layer;
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<ETADLayerCache.Layer> result : results) {
+                assertSame(layer, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, numLoads.get());
+        assertEquals(layer.getSizeInBytes(), cache.getDecodedBytes());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedWithinBound() throws Exception {
+        final ETADLayerCache.Layer[] layers = new ETADLayerCache.Layer[10];
+        final Random random = new Random(2);
+        for (int i = 0; i < layers.length; ++i) {
+            layers[i] = ETADLayerCache.Layer.create(floatData(ROWS * COLS, random), ROWS, COLS);
+        }
+        final long layerBytes = layers[0].getSizeInBytes();
+        final ETADLayerCache cache = new ETADLayerCache(3 * layerBytes);
+
+        for (int i = 0; i < layers.length; ++i) {
+            final ETADLayerCache.Layer layer = layers[i];
+            cache.get("layer" + i, () -> layer);
+            // keep the first layer recently used
+            Thread.sleep(1);
+            cache.get("layer0", () -> null);
+            assertTrue(cache.getUsedBytes() <= cache.getMaxBytes());
+        }
+
+        assertSame(layers[0], cache.get("layer0", () -> null));
+        assertSame(layers[9], cache.get("layer9", () -> null));
+        assertNull(cache.get("layer1", () -> null));
+        assertEquals(3 * layerBytes, cache.getUsedBytes());
+    }
+
+    @Test
+    public void nullIsNotCached() throws Exception {
+        final ETADLayerCache cache = new ETADLayerCache(1024 * 1024);
+        assertNull(cache.get("key", () -> null));
+        final ETADLayerCache.Layer layer = ETADLayerCache.Layer.create(new double[][]{{1.0, 2.0}});
+        assertSame(layer, cache.get("key", () -> layer));
+    }
+
+    @Test
+    public void invalidateDropsPrefix() throws Exception {
+        final ETADLayerCache cache = new ETADLayerCache(1024 * 1024);
+        final ETADLayerCache.Layer layer = ETADLayerCache.Layer.create(new double[][]{{1.0, 2.0}});
+        cache.get("a/IW1_Burst0001_height", () -> layer);
+        cache.get("b/IW1_Burst0001_height", () -> layer);
+
+        cache.invalidate("a/");
+
+        assertNull(cache.get("a/IW1_Burst0001_height", () -> null));
+        assertSame(layer, cache.get("b/IW1_Burst0001_height", () -> null));
+        assertEquals(layer.getSizeInBytes(), cache.getUsedBytes());
+    }
+
+    @Test
+    public void floatLayerIsLossless() {
+        final ProductData data = floatData(ROWS * COLS, new Random(3));
+        final ETADLayerCache.Layer layer = ETADLayerCache.Layer.create(data, ROWS, COLS);
+        assertTrue(layer.isFloat());
+        assertEquals(4L * ROWS * COLS, layer.getSizeInBytes());
+        for (int r = 0; r < ROWS; ++r) {
+            for (int c = 0; c < COLS; ++c) {
+                assertEquals(data.getElemDoubleAt(r * COLS + c), layer.get(r, c), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void doubleLayerIsLossless() {
+        final double[][] grid = randomGrid(ROWS, COLS, new Random(4));
+        final ETADLayerCache.Layer layer = ETADLayerCache.Layer.create(grid);
+        assertFalse(layer.isFloat());
+        final double[][] copy = layer.toArray();
+        for (int r = 0; r < ROWS; ++r) {
+            for (int c = 0; c < COLS; ++c) {
+                assertEquals(grid[r][c], layer.get(r, c), 0.0);
+                assertEquals(grid[r][c], copy[r][c], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void doubleDataOfFloatPrecisionIsStoredAsFloat() {
+        final ProductData floats = floatData(ROWS * COLS, new Random(5));
+        final ProductData doubles = ProductData.createInstance(ProductData.TYPE_FLOAT64, ROWS * COLS);
+        for (int i = 0; i < ROWS * COLS; ++i) {
+            doubles.setElemDoubleAt(i, floats.getElemFloatAt(i));
+        }
+        doubles.setElemDoubleAt(7, Double.NaN);
+
+        final ETADLayerCache.Layer layer = ETADLayerCache.Layer.create(doubles, ROWS, COLS);
+        assertTrue(layer.isFloat());
+        assertTrue(Double.isNaN(layer.get(0, 7)));
+        assertEquals(doubles.getElemDoubleAt(COLS + 3), layer.get(1, 3), 0.0);
+    }
+
+    @Test
+    public void correctorsShareDecodedLayers() throws Exception {
+        final Product etadProduct = createETADProduct(new Random(6));
+        final ETADUtils etadUtils1 = new ETADUtils(etadProduct);
+        final ETADUtils etadUtils2 = new ETADUtils(etadProduct);
+        try {
+            final Product sourceProduct = TestUtils.createProduct("SLC", 10, 10);
+            final BaseCorrector corrector1 = new BaseCorrector(sourceProduct, etadUtils1, Resampling.BILINEAR_INTERPOLATION) {
+            };
+            final BaseCorrector corrector2 = new BaseCorrector(sourceProduct, etadUtils2, Resampling.BILINEAR_INTERPOLATION) {
+            };
+
+            final long decodedBefore = ETADLayerCache.getInstance().getDecodedBytes();
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (BaseCorrector corrector : new BaseCorrector[]{corrector1, corrector2}) {
+                for (int bIndex = 1; bIndex <= 2; ++bIndex) {
+                    final ETADUtils.Burst burst = etadUtils1.getBurst(1, 1, bIndex);
+                    assertNotNull(burst);
+                    tasks.add(() -> {
+                        assertCorrectionsMatch(corrector, etadProduct, burst);
+                        return null;
+                    });
+                }
+            }
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                for (Future<Void> result : executor.invokeAll(tasks)) {
+                    result.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // each layer of each burst decoded once, as float
+            assertEquals(2L * LAYERS.length * 4L * ROWS * COLS,
+                    ETADLayerCache.getInstance().getDecodedBytes() - decodedBefore);
+        } finally {
+            etadUtils1.dispose();
+        }
+    }
+
+    private static void assertCorrectionsMatch(final BaseCorrector corrector, final Product etadProduct,
+                                               final ETADUtils.Burst burst) {
+        final Random random = new Random(burst.bIndex);
+        for (String layer : LAYERS) {
+            final Band band = etadProduct.getBand(corrector.etadUtils.createBandName(burst.swathID, burst.bIndex, layer));
+            final ProductData raw = band.getData();
+            final ETADLayerCache.Layer layerCorrection = corrector.getBurstCorrection(layer, burst);
+            for (int n = 0; n < 200; ++n) {
+                final double i = random.nextDouble() * (ROWS - 1.01);
+                final double j = random.nextDouble() * (COLS - 1.01);
+                final double azimuthTime = burst.azimuthTimeMin + i * burst.gridSamplingAzimuth;
+                final double slantRangeTime = burst.rangeTimeMin + j * burst.gridSamplingRange;
+
+                final double ii = (azimuthTime - burst.azimuthTimeMin) / burst.gridSamplingAzimuth;
+                final double jj = (slantRangeTime - burst.rangeTimeMin) / burst.gridSamplingRange;
+                final int i0 = (int) ii;
+                final int j0 = (int) jj;
+                final double expected = Maths.interpolationBiLinear(
+                        raw.getElemDoubleAt(i0 * COLS + j0), raw.getElemDoubleAt(i0 * COLS + j0 + 1),
+                        raw.getElemDoubleAt((i0 + 1) * COLS + j0), raw.getElemDoubleAt((i0 + 1) * COLS + j0 + 1),
+                        jj - j0, ii - i0);
+
+                assertEquals(expected, BaseCorrector.getCorrection(layerCorrection, azimuthTime, slantRangeTime, burst), 0.0);
+            }
+        }
+    }
+
+    private static Product createETADProduct(final Random random) {
+        final Product product = TestUtils.createProduct("ETA", COLS, ROWS);
+        final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(product);
+        AbstractMetadata.setAttribute(absRoot, AbstractMetadata.MISSION, "SENTINEL-1B");
+
+        final MetadataElement root = product.getMetadataRoot();
+        MetadataElement origRoot = root.getElement(AbstractMetadata.ORIGINAL_PRODUCT_METADATA);
+        if (origRoot == null) {
+            origRoot = new MetadataElement(AbstractMetadata.ORIGINAL_PRODUCT_METADATA);
+            root.addElement(origRoot);
+        }
+        final MetadataElement annotation = new MetadataElement("annotation");
+        annotation.setAttributeString("azimuthTimeMin", START_TIME);
+        annotation.setAttributeString("azimuthTimeMax", STOP_TIME);
+        annotation.setAttributeDouble("rangeTimeMin", RANGE_TIME_MIN);
+        annotation.setAttributeDouble("rangeTimeMax", RANGE_TIME_MIN + COLS * RANGE_SAMPLING);
+        origRoot.addElement(annotation);
+
+        final MetadataElement etadProductElem = new MetadataElement("etadProduct");
+        annotation.addElement(etadProductElem);
+        etadProductElem.addElement(createProcessingInformation());
+        etadProductElem.addElement(createProductComponents());
+
+        final MetadataElement burstList = new MetadataElement("etadBurstList");
+        etadProductElem.addElement(burstList);
+        for (int bIndex = 1; bIndex <= 2; ++bIndex) {
+            burstList.addElement(createBurst(bIndex, (bIndex - 1) * ROWS * AZIMUTH_SAMPLING));
+            for (String layer : LAYERS) {
+                final String bandName = "IW1_Burst000" + bIndex + "_" + layer;
+                final Band band = new Band(bandName, ProductData.TYPE_FLOAT32, COLS, ROWS);
+                band.setData(floatData(ROWS * COLS, random));
+                product.addBand(band);
+            }
+        }
+        return product;
+    }
+
+    private static MetadataElement createProcessingInformation() {
+        final MetadataElement calibration = new MetadataElement("instrumentTimingCalibration");
+        calibration.setAttributeString("swath", "IW1");
+        calibration.setAttributeString("polarisation", "VV");
+        calibration.addElement(createValue("rangeCalibration", "0.0"));
+        calibration.addElement(createValue("azimuthCalibration", "0.0"));
+        final MetadataElement calibrationList = new MetadataElement("instrumentTimingCalibrationList");
+        calibrationList.addElement(calibration);
+        calibrationList.setAttributeInt("count", 1);
+
+        final MetadataElement auxSetap = new MetadataElement("auxSetap");
+        auxSetap.addElement(calibrationList);
+        final MetadataElement auxInputData = new MetadataElement("auxInputData");
+        auxInputData.addElement(auxSetap);
+        final MetadataElement processingInformation = new MetadataElement("processingInformation");
+        processingInformation.addElement(auxInputData);
+        return processingInformation;
+    }
+
+    private static MetadataElement createProductComponents() {
+        final MetadataElement bIndexList = new MetadataElement("bIndexList");
+        bIndexList.addAttribute(new MetadataAttribute("bIndex", ProductData.createInstance("1"), true));
+        bIndexList.addAttribute(new MetadataAttribute("bIndex", ProductData.createInstance("2"), true));
+        bIndexList.setAttributeString("count", "2");
+
+        final MetadataElement swath = new MetadataElement("swath");
+        swath.setAttributeString("swathID", "IW1");
+        swath.setAttributeString("sIndex", "1");
+        swath.addElement(bIndexList);
+        final MetadataElement swathList = new MetadataElement("swathList");
+        swathList.setAttributeString("count", "1");
+        swathList.addElement(swath);
+
+        final MetadataElement inputProduct = new MetadataElement("inputProduct");
+        inputProduct.setAttributeString("productID",
+                "S1B_IW_SLC__1SDV_20200815T173048_20200815T173116_022937_02B897_F7CF");
+        inputProduct.setAttributeString("startTime", START_TIME);
+        inputProduct.setAttributeString("stopTime", STOP_TIME);
+        inputProduct.setAttributeString("pIndex", "1");
+        inputProduct.addElement(swathList);
+        final MetadataElement inputProductList = new MetadataElement("inputProductList");
+        inputProductList.addElement(inputProduct);
+
+        final MetadataElement productComponents = new MetadataElement("productComponents");
+        productComponents.setAttributeString("numberOfInputProducts", "1");
+        productComponents.setAttributeString("numberOfSwaths", "1");
+        productComponents.addElement(inputProductList);
+        return productComponents;
+    }
+
+    private static MetadataElement createBurst(final int bIndex, final double azimuthOffset) {
+        final MetadataElement burstData = new MetadataElement("burstData");
+        burstData.setAttributeString("sIndex", "1");
+        burstData.setAttributeString("bIndex", String.valueOf(bIndex));
+        burstData.setAttributeString("pIndex", "1");
+        burstData.setAttributeString("swathID", "IW1");
+
+        final MetadataElement temporalCoverage = new MetadataElement("temporalCoverage");
+        temporalCoverage.addElement(createValue("rangeTimeMin", String.valueOf(RANGE_TIME_MIN)));
+        temporalCoverage.addElement(createValue("rangeTimeMax", String.valueOf(RANGE_TIME_MIN + COLS * RANGE_SAMPLING)));
+        temporalCoverage.setAttributeString("azimuthTimeMin", bIndex == 1 ? START_TIME : "2020-08-15T17:30:50.000000");
+        temporalCoverage.setAttributeString("azimuthTimeMax", bIndex == 1 ? "2020-08-15T17:30:50.000000" : "2020-08-15T17:30:52.000000");
+        final MetadataElement burstCoverage = new MetadataElement("burstCoverage");
+        burstCoverage.addElement(temporalCoverage);
+        burstCoverage.addElement(new MetadataElement("spatialCoverage"));
+
+        final MetadataElement gridDimensions = new MetadataElement("gridDimensions");
+        gridDimensions.setAttributeString("azimuthExtent", String.valueOf(ROWS));
+        gridDimensions.setAttributeString("rangeExtent", String.valueOf(COLS));
+        final MetadataElement gridSampling = new MetadataElement("gridSampling");
+        gridSampling.addElement(createValue("azimuth", String.valueOf(AZIMUTH_SAMPLING)));
+        gridSampling.addElement(createValue("range", String.valueOf(RANGE_SAMPLING)));
+        final MetadataElement gridInformation = new MetadataElement("gridInformation");
+        gridInformation.addElement(createValue("gridStartAzimuthTime", String.valueOf(azimuthOffset)));
+        gridInformation.addElement(createValue("gridStartRangeTime", String.valueOf(RANGE_TIME_MIN)));
+        gridInformation.addElement(gridDimensions);
+        gridInformation.addElement(gridSampling);
+
+        final MetadataElement burst = new MetadataElement("etadBurst");
+        burst.addElement(burstData);
+        burst.addElement(burstCoverage);
+        burst.addElement(gridInformation);
+        return burst;
+    }
+
+    private static MetadataElement createValue(final String name, final String value) {
+        final MetadataElement elem = new MetadataElement(name);
+        elem.setAttributeString(name, value);
+        return elem;
+    }
+
+    private static ProductData floatData(final int n, final Random random) {
+        final ProductData data = ProductData.createInstance(ProductData.TYPE_FLOAT32, n);
+        for (int i = 0; i < n; ++i) {
+            data.setElemFloatAt(i, (float) (random.nextGaussian() * 1.0e-9));
+        }
+        return data;
+    }
+
+    private static double[][] randomGrid(final int rows, final int cols, final Random random) {
+        final double[][] grid = new double[rows][cols];
+        for (int r = 0; r < rows; ++r) {
+            for (int c = 0; c < cols; ++c) {
+                grid[r][c] = random.nextGaussian() * 1.0e-9;
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sentinel1.gpf.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for {@link ESDWorkspace}.
+ */
+public class TestESDWorkspace {
+
+    private static final int W = 13;
+    private static final int H = 7;
+    private static final int COH_WIN = 5;
+
+    private static void fill(final ESDWorkspace workspace, final Random random) {
+        for (int c = 0; c < 4; ++c) {
+            final float[] first = workspace.getFirst(c, W * H);
+            final float[] second = workspace.getSecond(c, W * H);
+            for (int k = 0; k < W * H; ++k) {
+                first[k] = (float) random.nextGaussian();
+                second[k] = (float) random.nextGaussian();
+            }
+        }
+    }
+
+    @Test
+    public void testCoherenceMatchesBoxAverage() {
+        final ESDWorkspace workspace = new ESDWorkspace();
+        fill(workspace, new Random(3));
+        final float[] mI = workspace.getFirst(ESDWorkspace.REF_I, W * H);
+        final float[] mQ = workspace.getFirst(ESDWorkspace.REF_Q, W * H);
+        final float[] sI = workspace.getFirst(ESDWorkspace.SEC_I, W * H);
+        final float[] sQ = workspace.getFirst(ESDWorkspace.SEC_Q, W * H);
+
+        final double[] coherence = workspace.computeCoherence(W, H, COH_WIN);
+        assertEquals(W * H, coherence.length);
+
+        final int half = COH_WIN / 2;
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                double re = 0, im = 0, p1 = 0, p2 = 0;
+                for (int r = Math.max(y - half, 0); r <= Math.min(y + half, H - 1); ++r) {
+                    for (int c = Math.max(x - half, 0); c <= Math.min(x + half, W - 1); ++c) {
+                        final int k = r * W + c;
+                        re += mI[k] * sI[k] + mQ[k] * sQ[k];
+                        im += mQ[k] * sI[k] - mI[k] * sQ[k];
+                        p1 += mI[k] * mI[k] + mQ[k] * mQ[k];
+                        p2 += sI[k] * sI[k] + sQ[k] * sQ[k];
+                    }
+                }
+                assertEquals(Math.sqrt((re * re + im * im) / (p1 * p2)), coherence[y * W + x], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testIdenticalImagesAreFullyCoherent() {
+        final ESDWorkspace workspace = new ESDWorkspace();
+        fill(workspace, new Random(5));
+        System.arraycopy(workspace.getFirst(ESDWorkspace.REF_I, W * H), 0,
+                         workspace.getFirst(ESDWorkspace.SEC_I, W * H), 0, W * H);
+        System.arraycopy(workspace.getFirst(ESDWorkspace.REF_Q, W * H), 0,
+                         workspace.getFirst(ESDWorkspace.SEC_Q, W * H), 0, W * H);
+
+        for (double coh : workspace.computeCoherence(W, H, COH_WIN)) {
+            assertEquals(1.0, coh, 1e-6);
+        }
+    }
+
+    @Test
+    public void testESDPhaseIsDoubleDifference() {
+        final ESDWorkspace workspace = new ESDWorkspace();
+        final int n = W * H;
+        final float[] m1I = workspace.getFirst(ESDWorkspace.REF_I, n), m1Q = workspace.getFirst(ESDWorkspace.REF_Q, n);
+        final float[] s1I = workspace.getFirst(ESDWorkspace.SEC_I, n), s1Q = workspace.getFirst(ESDWorkspace.SEC_Q, n);
+        final float[] m2I = workspace.getSecond(ESDWorkspace.REF_I, n), m2Q = workspace.getSecond(ESDWorkspace.REF_Q, n);
+        final float[] s2I = workspace.getSecond(ESDWorkspace.SEC_I, n), s2Q = workspace.getSecond(ESDWorkspace.SEC_Q, n);
+
+        // unit phasors: reference phase a, secondary a - d1 in the first burst and b, b - d2 in the second
+        final Random random = new Random(11);
+        final double[] expected = new double[n];
+        for (int k = 0; k < n; ++k) {
+            final double a = random.nextDouble() * 6, b = random.nextDouble() * 6;
+            final double d1 = random.nextDouble() - 0.5, d2 = random.nextDouble() - 0.5;
+            m1I[k] = (float) Math.cos(a);
+            m1Q[k] = (float) Math.sin(a);
+            s1I[k] = (float) Math.cos(a - d1);
+            s1Q[k] = (float) Math.sin(a - d1);
+            m2I[k] = (float) Math.cos(b);
+            m2Q[k] = (float) Math.sin(b);
+            s2I[k] = (float) Math.cos(b - d2);
+            s2Q[k] = (float) Math.sin(b - d2);
+            expected[k] = d1 - d2;
+        }
+
+        final double[] phase = workspace.computeESDPhase(n);
+        for (int k = 0; k < n; ++k) {
+            assertEquals(expected[k], phase[k], 1e-5);
+        }
+    }
+
+    @Test
+    public void testBuffersAreReusedForSameBlockSize() {
+        final ESDWorkspace workspace = new ESDWorkspace();
+        fill(workspace, new Random(7));
+        final double[] coherence = workspace.computeCoherence(W, H, COH_WIN);
+        final double[] phase = workspace.computeESDPhase(W * H);
+
+        assertSame(workspace.getFirst(ESDWorkspace.REF_I, W * H), workspace.getFirst(ESDWorkspace.REF_I, W * H));
+        assertSame(coherence, workspace.computeCoherence(W, H, COH_WIN));
+        assertSame(phase, workspace.computeESDPhase(W * H));
+
+        final float[] resized = workspace.getSecond(ESDWorkspace.SEC_Q, W * (H + 1));
+        assertEquals(W * (H + 1), resized.length);
+        assertNotSame(resized, workspace.getSecond(ESDWorkspace.SEC_Q, W * H));
+    }
+}
@@ -16,6 +16,9 @@
 package eu.esa.sar.utilities.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.utilities.gpf.statistics.BandStatistics;
+import eu.esa.sar.utilities.gpf.statistics.LogHistogram;
+import eu.esa.sar.utilities.gpf.statistics.StatisticsCollector;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.Product;
 import org.esa.snap.core.datamodel.ProductData;
@@ -36,6 +39,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The operator evaluates the following local statistics for the user selected area of the image, and produces
@@ -45,8 +49,10 @@ import java.util.HashMap;
  * 2. Standard deviation
  * 3. Coefficient of variation
  * 4. Equivalent number of looks
+ * 5. Quantiles and a log-linear histogram
  *
- * @todo the computed statistics should be outout to file
+ * Tiles are summarised in a single pass into per-thread {@link StatisticsCollector} accumulators
+ * which are merged when the operator is disposed, so concurrent tile computation is safe.
  */
 
 /**
@@ -69,15 +75,15 @@ public class DataAnalysisOp extends Operator {
 
     private final boolean writeToFile = true;
 
-    private boolean statsCalculated = false;
+    private static final double[] REPORTED_QUANTILES = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+
+    private volatile boolean statsCalculated = false;
     private boolean sampleTypeIsComplex;
     private int numOfBands;
-    private int numOfPixels; // total number of pixel values
+    private final StatisticsCollector collector = new StatisticsCollector();
+    private BandStatistics[] bandStatistics; // merged statistics for each band
     private double[] min;    // min of all pixel values for each band
     private double[] max;    // max of all pixel values for each band
-    private double[] sum;    // summation of all pixel values for each band
-    private double[] sum2;   // summation of all pixel value squares for each band
-    private double[] sum4;   // summation of all pixel value to the power of 4 for each band
     private double[] mean;   // mean for each band
     private double[] coefVar;// coefficient of variation for each band
     private double[] std;    // standard deviation for each band
@@ -145,18 +151,7 @@ public class DataAnalysisOp extends Operator {
         coefVar = new double[numOfBands];
         std = new double[numOfBands];
         enl = new double[numOfBands];
-        sum = new double[numOfBands];
-        sum2 = new double[numOfBands];
-        sum4 = new double[numOfBands];
-        for (int i = 0; i < numOfBands; i++) {
-            min[i] = Double.MAX_VALUE;
-            max[i] = 0.0;
-            sum[i] = 0.0;
-            sum2[i] = 0.0;
-            sum4[i] = 0.0;
-        }
-
-        numOfPixels = sourceProduct.getSceneRasterWidth() * sourceProduct.getSceneRasterHeight();
+        bandStatistics = new BandStatistics[numOfBands];
     }
 
     /**
@@ -204,24 +199,10 @@ public class DataAnalysisOp extends Operator {
         final Tile sourceRaster1 = getSourceTile(sourceBand1, targetTileRectangle);
         final ProductData rawSamples1 = sourceRaster1.getRawSamples();
 
-        final int idx = statisticsBandIndex.get(targetBand.getName());
-        final int n = rawSamples1.getNumElems();
-        double v, v2;
-        for (int i = 0; i < n; i++) {
-
-            if (sampleTypeIsComplex) {
-                // todo
-            }
-            v = rawSamples1.getElemDoubleAt(i);
-            if (v > max[idx])
-                max[idx] = v;
-            if (v < min[idx])
-                min[idx] = v;
-            v2 = v * v;
-            sum[idx] += v;
-            sum2[idx] += v2;
-            sum4[idx] += v2 * v2;
+        if (sampleTypeIsComplex) {
+            // todo
         }
+        collector.update(targetBand.getName(), rawSamples1);
 
         // copy source data to target
         targetTile.setRawSamples(rawSamples1);
@@ -246,17 +227,22 @@ public class DataAnalysisOp extends Operator {
     }
 
     private void completeStatistics() {
+        final Map<String, BandStatistics> merged = collector.getStatistics();
         for (String bandName : statisticsBandIndex.keySet()) {
 
             final int bandIdx = statisticsBandIndex.get(bandName);
-            final double m = sum[bandIdx] / numOfPixels;
-            final double m2 = sum2[bandIdx] / numOfPixels;
-            final double m4 = sum4[bandIdx] / numOfPixels;
-
-            mean[bandIdx] = m;
-            std[bandIdx] = Math.sqrt(m2 - m * m);
-            coefVar[bandIdx] = Math.sqrt(m4 - m2 * m2) / m2;
-            enl[bandIdx] = m2 * m2 / (m4 - m2 * m2);
+            BandStatistics stats = merged.get(bandName);
+            if (stats == null) {
+                stats = new BandStatistics();
+            }
+
+            bandStatistics[bandIdx] = stats;
+            min[bandIdx] = stats.getMin();
+            max[bandIdx] = stats.getMax();
+            mean[bandIdx] = stats.getMean();
+            std[bandIdx] = stats.getStdDev();
+            coefVar[bandIdx] = stats.getCoefficientOfVariation();
+            enl[bandIdx] = stats.getENL();
         }
     }
 
@@ -276,7 +262,7 @@ public class DataAnalysisOp extends Operator {
 
                 p.println();
                 p.println("Band: " + bandName);
-                p.format("Total pixels = %d", numOfPixels);
+                p.format("Total pixels = %d", bandStatistics[bandIdx].getCount());
                 p.println();
                 p.format("Min = %8.3f", min[bandIdx]);
                 p.println();
@@ -292,6 +278,15 @@ public class DataAnalysisOp extends Operator {
                 p.println();
                 p.format("Equivalent number of looks = %8.3f", enl[bandIdx]);
                 p.println();
+                for (double q : REPORTED_QUANTILES) {
+                    p.format("Quantile %4.2f = %8.3f", q, bandStatistics[bandIdx].getQuantile(q));
+                    p.println();
+                }
+                p.println("Histogram:");
+                for (LogHistogram.Bin bin : bandStatistics[bandIdx].getHistogram()) {
+                    p.format("[%g, %g) %d", bin.lower, bin.upper, bin.count);
+                    p.println();
+                }
             }
 
             p.close();
@@ -352,6 +347,14 @@ public class DataAnalysisOp extends Operator {
         return enl[bandIdx];
     }
 
+    public double getQuantile(int bandIdx, double q) {
+        return bandStatistics[bandIdx].getQuantile(q);
+    }
+
+    public BandStatistics getBandStatistics(int bandIdx) {
+        return bandStatistics[bandIdx];
+    }
+
     /**
      * The SPI is used to register this operator in the graph processing framework
      * via the SPI configuration file
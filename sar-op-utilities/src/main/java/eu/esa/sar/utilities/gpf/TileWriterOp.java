@@ -88,7 +88,7 @@ public class TileWriterOp extends Operator {
 
     private final Map<MultiLevelImage, List<Point>> todoLists = new HashMap<>();
 
-    private boolean productFileWritten;
+    private volatile boolean productFileWritten;
 
     private SubsetInfo[] subsetInfo = null;
 
@@ -116,6 +116,8 @@ public class TileWriterOp extends Operator {
                 numFiles = numRows * numCols;
             }
 
+            final Rectangle sceneBounds = new Rectangle(0, 0,
+                    sourceProduct.getSceneRasterWidth(), sourceProduct.getSceneRasterHeight());
             subsetInfo = new SubsetInfo[numFiles];
             int n = 0;
             for (int r = 0; r < numRows; ++r) {
@@ -133,6 +135,7 @@ public class TileWriterOp extends Operator {
                     subsetInfo[n].subsetBuilder = new ProductSubsetBuilder();
                     subsetInfo[n].product = subsetInfo[n].subsetBuilder.readProductNodes(sourceProduct, subsetDef);
                     subsetInfo[n].file = new File(file.getParentFile(), createName(file, n + 1));
+                    subsetInfo[n].region = subsetDef.getRegion().intersection(sceneBounds);
 
                     subsetInfo[n].productWriter = ProductIO.getProductWriter(formatName);
                     if (subsetInfo[n].productWriter == null) {
@@ -162,19 +165,21 @@ public class TileWriterOp extends Operator {
     @Override
     public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
         try {
-            synchronized (this) {
-                if (!productFileWritten) {
-                    for (SubsetInfo info : subsetInfo) {
-                        info.productWriter.writeProductNodes(info.product, info.file);
+            if (!productFileWritten) {
+                synchronized (this) {
+                    if (!productFileWritten) {
+                        for (SubsetInfo info : subsetInfo) {
+                            info.productWriter.writeProductNodes(info.product, info.file);
+                        }
+                        productFileWritten = true;
                     }
-                    productFileWritten = true;
                 }
             }
             final Rectangle rect = targetTile.getRectangle();
 
             for (SubsetInfo info : subsetInfo) {
-                final Rectangle trgRect = info.subsetBuilder.getSubsetDef().getRegion();
-                if (rect.intersects(trgRect)) {
+                final Rectangle trgRect = rect.intersection(info.region);
+                if (!trgRect.isEmpty()) {
                     writeTile(info, targetBand.getName(), trgRect);
                 }
             }
@@ -188,15 +193,22 @@ public class TileWriterOp extends Operator {
         }
     }
 
-    private synchronized void writeTile(final SubsetInfo info, final String bandName, final Rectangle trgRect)
+    /**
+     * Writes the part of a source tile that falls into one subset. The samples are fetched outside
+     * of any lock; only the writer of that subset is locked, so different subsets are written concurrently.
+     */
+    private void writeTile(final SubsetInfo info, final String bandName, final Rectangle trgRect)
             throws IOException {
 
         final Tile sourceTile = getSourceTile(sourceProduct.getBand(bandName), trgRect);
         final ProductData rawSamples = sourceTile.getRawSamples();
 
         final Band trgBand = info.product.getBand(bandName);
-        info.productWriter.writeBandRasterData(trgBand,
-                0, 0, trgBand.getRasterWidth(), trgBand.getRasterHeight(), rawSamples, ProgressMonitor.NULL);
+        synchronized (info.productWriter) {
+            info.productWriter.writeBandRasterData(trgBand,
+                    trgRect.x - info.region.x, trgRect.y - info.region.y, trgRect.width, trgRect.height,
+                    rawSamples, ProgressMonitor.NULL);
+        }
     }
 
     private void markTileDone(Band targetBand, Tile targetTile) throws IOException {
@@ -263,6 +275,7 @@ public class TileWriterOp extends Operator {
     private static class SubsetInfo {
         Product product;
         ProductSubsetBuilder subsetBuilder;
+        Rectangle region;
         File file;
         ProductWriter productWriter;
     }
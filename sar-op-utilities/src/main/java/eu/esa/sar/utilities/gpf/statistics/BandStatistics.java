@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.utilities.gpf.statistics;
+
+import org.esa.snap.core.datamodel.ProductData;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * One-pass, mergeable summary of the samples of a band.
+ * <p>
+ * Tracks the count, extrema and the power sums of v, v^2 and v^4 from which the mean, standard
+ * deviation, coefficient of variation and equivalent number of looks follow, together with a
+ * {@link KLLSketch} for quantiles and a {@link LogHistogram}. Every part merges by addition, so
+ * summaries built per tile, per thread or per product combine into the summary of the union.
+ * NaN samples are skipped.
+ * <p>
+ * The coefficient of variation and ENL treat the samples as amplitudes and are evaluated on the
+ * intensity v^2.
+ */
+public final class BandStatistics {
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+    private double sum2;
+    private double sum4;
+    private final KLLSketch quantiles;
+    private final LogHistogram histogram;
+
+    public BandStatistics() {
+        this(new KLLSketch(), new LogHistogram());
+    }
+
+    public BandStatistics(final int quantileK, final int histogramSubBinBits) {
+        this(new KLLSketch(quantileK), new LogHistogram(histogramSubBinBits));
+    }
+
+    private BandStatistics(final KLLSketch quantiles, final LogHistogram histogram) {
+        this.quantiles = quantiles;
+        this.histogram = histogram;
+    }
+
+    public void update(final double v) {
+        if (Double.isNaN(v)) {
+            return;
+        }
+        if (v > max)
+            max = v;
+        if (v < min)
+            min = v;
+        final double v2 = v * v;
+        sum += v;
+        sum2 += v2;
+        sum4 += v2 * v2;
+        count++;
+        quantiles.update(v);
+        histogram.update(v);
+    }
+
+    public void update(final ProductData samples) {
+        final int n = samples.getNumElems();
+        for (int i = 0; i < n; i++) {
+            update(samples.getElemDoubleAt(i));
+        }
+    }
+
+    public void update(final double[] samples, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            update(samples[i]);
+        }
+    }
+
+    /**
+     * Merges another summary into this one.
+     */
+    public void merge(final BandStatistics other) {
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sum += other.sum;
+        sum2 += other.sum2;
+        sum4 += other.sum4;
+        quantiles.merge(other.quantiles);
+        histogram.merge(other.histogram);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return sum / count;
+    }
+
+    public double getStdDev() {
+        final double m = sum / count;
+        final double m2 = sum2 / count;
+        return Math.sqrt(m2 - m * m);
+    }
+
+    public double getCoefficientOfVariation() {
+        final double m2 = sum2 / count;
+        final double m4 = sum4 / count;
+        return Math.sqrt(m4 - m2 * m2) / m2;
+    }
+
+    public double getENL() {
+        final double m2 = sum2 / count;
+        final double m4 = sum4 / count;
+        return m2 * m2 / (m4 - m2 * m2);
+    }
+
+    /**
+     * @param q quantile in [0, 1]
+     * @return the approximate q-quantile
+     */
+    public double getQuantile(final double q) {
+        return quantiles.getQuantile(q);
+    }
+
+    public double getMedian() {
+        return quantiles.getQuantile(0.5);
+    }
+
+    public List<LogHistogram.Bin> getHistogram() {
+        return histogram.getBins();
+    }
+
+    public void write(final DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeDouble(sum);
+        out.writeDouble(sum2);
+        out.writeDouble(sum4);
+        quantiles.write(out);
+        histogram.write(out);
+    }
+
+    public static BandStatistics read(final DataInput in) throws IOException {
+        final long count = in.readLong();
+        final double min = in.readDouble();
+        final double max = in.readDouble();
+        final double sum = in.readDouble();
+        final double sum2 = in.readDouble();
+        final double sum4 = in.readDouble();
+        final BandStatistics stats = new BandStatistics(KLLSketch.read(in), LogHistogram.read(in));
+        stats.count = count;
+        stats.min = min;
+        stats.max = max;
+        stats.sum = sum;
+        stats.sum2 = sum2;
+        stats.sum4 = sum4;
+        return stats;
+    }
+}
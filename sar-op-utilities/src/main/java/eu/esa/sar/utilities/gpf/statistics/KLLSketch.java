@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.utilities.gpf.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch after Karnin, Lang and Liberty (KLL).
+ * <p>
+ * Samples enter level 0. When a level reaches its capacity it is sorted and every other item is
+ * promoted to the next level with twice the weight. Capacities shrink geometrically towards the
+ * lower levels, so the sketch holds O(k) items and the rank error of a quantile is about 1.7 / k. Level 0 is the exception and
+ * always takes k items, so samples are sorted in batches of at least k rather than a few at a time.
+ * Two sketches with the same k merge by concatenating their levels and compacting, in any order.
+ * <p>
+ * The coin that picks the promoted half is a fixed-seed generator, so a given sequence of
+ * updates and merges is reproducible.
+ */
+public final class KLLSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double C = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] levels;
+    private int[] sizes;
+    private int[] capacities;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long coin = 0x9E3779B97F4A7C15L;
+
+    public KLLSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KLLSketch(final int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8: " + k);
+        }
+        this.k = k;
+        this.levels = new double[][]{new double[k]};
+        this.sizes = new int[1];
+        updateCapacities();
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @return number of samples summarised
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Adds a sample. NaN is ignored.
+     */
+    public void update(final double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        count++;
+        append(0, value);
+        if (sizes[0] >= k) {
+            compress();
+        }
+    }
+
+    /**
+     * Merges another sketch into this one.
+     */
+    public void merge(final KLLSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with k " + other.k + " and " + k);
+        }
+        if (other.count == 0) {
+            return;
+        }
+        while (levels.length < other.levels.length) {
+            addLevel();
+        }
+        for (int i = 0; i < other.sizes[0]; i++) {
+            append(0, other.levels[0][i]);
+        }
+        for (int h = 1; h < other.levels.length; h++) {
+            mergeRun(h, other.levels[h], 0, other.sizes[h], 1);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compress();
+    }
+
+    /**
+     * @param q quantile in [0, 1]
+     * @return the approximate q-quantile, or NaN if the sketch is empty
+     */
+    public double getQuantile(final double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        int numItems = 0;
+        for (int size : sizes) {
+            numItems += size;
+        }
+        final double[] values = new double[numItems];
+        final long[] weights = new long[numItems];
+        final Integer[] order = new Integer[numItems];
+        long totalWeight = 0;
+        int p = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++, p++) {
+                values[p] = levels[h][i];
+                weights[p] = 1L << h;
+                order[p] = p;
+                totalWeight += weights[p];
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        final double target = q * totalWeight;
+        long cumulative = 0;
+        for (int idx : order) {
+            cumulative += weights[idx];
+            if (cumulative >= target) {
+                return values[idx];
+            }
+        }
+        return max;
+    }
+
+    private void append(final int level, final double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(2, levels[level].length * 2));
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    /**
+     * Merges the sorted run src[from], src[from + step], ... below end into a sorted level.
+     */
+    private void mergeRun(final int level, final double[] src, final int from, final int end, final int step) {
+        final int runLength = (end - from + step - 1) / step;
+        if (runLength <= 0) {
+            return;
+        }
+        final int size = sizes[level];
+        if (size + runLength > levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(size + runLength, levels[level].length * 2));
+        }
+        final double[] a = levels[level];
+        int i = size - 1;
+        int w = size + runLength - 1;
+        for (int j = runLength - 1; j >= 0; j--) {
+            final double b = src[from + j * step];
+            while (i >= 0 && a[i] > b) {
+                a[w--] = a[i--];
+            }
+            a[w--] = b;
+        }
+        sizes[level] = size + runLength;
+    }
+
+    private void addLevel() {
+        final int h = levels.length;
+        levels = Arrays.copyOf(levels, h + 1);
+        sizes = Arrays.copyOf(sizes, h + 1);
+        levels[h] = new double[Math.max(2, capacityOf(h + 1, h))];
+        updateCapacities();
+    }
+
+    private int capacityOf(final int numLevels, final int level) {
+        if (level == 0) {
+            // unit-weight input buffer: a full-size level 0 sorts once per k samples
+            return k;
+        }
+        return Math.max(2, (int) Math.ceil(k * Math.pow(C, numLevels - 1 - level)));
+    }
+
+    private void updateCapacities() {
+        capacities = new int[levels.length];
+        for (int h = 0; h < levels.length; h++) {
+            capacities[h] = capacityOf(levels.length, h);
+        }
+    }
+
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] >= capacities[h]) {
+                if (h + 1 == levels.length) {
+                    addLevel();
+                }
+                compact(h);
+            }
+        }
+    }
+
+    /**
+     * Promotes every other item of a sorted level; an odd item out stays behind.
+     * Levels above 0 are kept sorted by merging promoted runs, so only level 0 is ever sorted.
+     */
+    private void compact(final int h) {
+        final double[] items = levels[h];
+        final int size = sizes[h];
+        if (h == 0) {
+            Arrays.sort(items, 0, size);
+        }
+
+        final int even = size & ~1;
+        mergeRun(h + 1, items, nextCoin(), even, 2);
+        if (size != even) {
+            items[0] = items[size - 1];
+            sizes[h] = 1;
+        } else {
+            sizes[h] = 0;
+        }
+    }
+
+    private int nextCoin() {
+        coin ^= coin << 13;
+        coin ^= coin >>> 7;
+        coin ^= coin << 17;
+        return (int) (coin >>> 63);
+    }
+
+    public void write(final DataOutput out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeLong(coin);
+        out.writeInt(levels.length);
+        for (int h = 0; h < levels.length; h++) {
+            out.writeInt(sizes[h]);
+            for (int i = 0; i < sizes[h]; i++) {
+                out.writeDouble(levels[h][i]);
+            }
+        }
+    }
+
+    public static KLLSketch read(final DataInput in) throws IOException {
+        final KLLSketch sketch = new KLLSketch(in.readInt());
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        sketch.coin = in.readLong();
+        final int numLevels = in.readInt();
+        while (sketch.levels.length < numLevels) {
+            sketch.addLevel();
+        }
+        for (int h = 0; h < numLevels; h++) {
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.append(h, in.readDouble());
+            }
+        }
+        return sketch;
+    }
+}
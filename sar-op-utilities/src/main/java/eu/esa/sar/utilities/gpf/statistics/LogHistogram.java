@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.utilities.gpf.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mergeable histogram with log-linear bins.
+ * <p>
+ * A bin is addressed by the exponent and the leading mantissa bits of the sample, so every
+ * octave is split into 2^subBinBits bins of equal width and the relative bin width is at most
+ * 2^-subBinBits. The binning is fixed by subBinBits alone and needs no value range up front,
+ * so histograms of different tiles, threads or products with the same resolution add bin by bin.
+ * Negative samples are binned by magnitude and zero has its own bin.
+ */
+public final class LogHistogram {
+
+    public static final int DEFAULT_SUB_BIN_BITS = 3;
+
+    private final int subBinBits;
+    private final int shift;
+    private final Bins positive = new Bins();
+    private final Bins negative = new Bins();
+    private long zeroCount;
+
+    public LogHistogram() {
+        this(DEFAULT_SUB_BIN_BITS);
+    }
+
+    public LogHistogram(final int subBinBits) {
+        if (subBinBits < 0 || subBinBits > 10) {
+            throw new IllegalArgumentException("subBinBits must be in [0, 10]: " + subBinBits);
+        }
+        this.subBinBits = subBinBits;
+        this.shift = 52 - subBinBits;
+    }
+
+    public int getSubBinBits() {
+        return subBinBits;
+    }
+
+    /**
+     * Adds a sample. NaN is ignored.
+     */
+    public void update(final double value) {
+        if (value > 0) {
+            positive.add(binIndex(value), 1);
+        } else if (value < 0) {
+            negative.add(binIndex(-value), 1);
+        } else if (value == 0) {
+            zeroCount++;
+        }
+    }
+
+    /**
+     * Merges another histogram of the same resolution into this one.
+     */
+    public void merge(final LogHistogram other) {
+        if (other.subBinBits != subBinBits) {
+            throw new IllegalArgumentException("Cannot merge histograms with " + other.subBinBits +
+                                                       " and " + subBinBits + " sub-bin bits");
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+    }
+
+    /**
+     * @return number of samples binned
+     */
+    public long getCount() {
+        return positive.total() + negative.total() + zeroCount;
+    }
+
+    /**
+     * @return the non-empty bins in ascending order of value
+     */
+    public List<Bin> getBins() {
+        final List<Bin> bins = new ArrayList<>();
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            final long c = negative.counts[i];
+            if (c != 0) {
+                final int idx = negative.offset + i;
+                bins.add(new Bin(-upperBound(idx), -lowerBound(idx), c));
+            }
+        }
+        if (zeroCount != 0) {
+            bins.add(new Bin(0, 0, zeroCount));
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            final long c = positive.counts[i];
+            if (c != 0) {
+                final int idx = positive.offset + i;
+                bins.add(new Bin(lowerBound(idx), upperBound(idx), c));
+            }
+        }
+        return bins;
+    }
+
+    private int binIndex(final double magnitude) {
+        return (int) (Double.doubleToRawLongBits(magnitude) >>> shift);
+    }
+
+    private double lowerBound(final int idx) {
+        return Double.longBitsToDouble((long) idx << shift);
+    }
+
+    private double upperBound(final int idx) {
+        return Double.longBitsToDouble((long) (idx + 1) << shift);
+    }
+
+    public void write(final DataOutput out) throws IOException {
+        out.writeInt(subBinBits);
+        out.writeLong(zeroCount);
+        positive.write(out);
+        negative.write(out);
+    }
+
+    public static LogHistogram read(final DataInput in) throws IOException {
+        final LogHistogram histogram = new LogHistogram(in.readInt());
+        histogram.zeroCount = in.readLong();
+        histogram.positive.read(in);
+        histogram.negative.read(in);
+        return histogram;
+    }
+
+    /**
+     * A histogram bin with the number of samples in it. Bins cover [lower, upper), except for
+     * negative bins which are binned by magnitude and cover (lower, upper].
+     */
+    public static final class Bin {
+        public final double lower;
+        public final double upper;
+        public final long count;
+
+        Bin(final double lower, final double upper, final long count) {
+            this.lower = lower;
+            this.upper = upper;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Dense counts over the span of bin indices seen so far.
+     */
+    private static final class Bins {
+        private long[] counts = new long[0];
+        private int offset;
+
+        void add(final int idx, final long n) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = idx;
+            } else if (idx < offset) {
+                final int grow = Math.max(offset - idx, counts.length / 2);
+                final long[] grown = new long[counts.length + grow];
+                System.arraycopy(counts, 0, grown, grow, counts.length);
+                counts = grown;
+                offset -= grow;
+            } else if (idx - offset >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(idx - offset + 1, counts.length + counts.length / 2));
+            }
+            counts[idx - offset] += n;
+        }
+
+        void merge(final Bins other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        long total() {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            return total;
+        }
+
+        void write(final DataOutput out) throws IOException {
+            int numBins = 0;
+            for (long c : counts) {
+                if (c != 0) {
+                    numBins++;
+                }
+            }
+            out.writeInt(numBins);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    out.writeInt(offset + i);
+                    out.writeLong(counts[i]);
+                }
+            }
+        }
+
+        void read(final DataInput in) throws IOException {
+            final int numBins = in.readInt();
+            for (int i = 0; i < numBins; i++) {
+                final int idx = in.readInt();
+                add(idx, in.readLong());
+            }
+        }
+    }
+}
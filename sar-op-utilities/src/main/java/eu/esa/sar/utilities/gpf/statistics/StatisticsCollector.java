@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.utilities.gpf.statistics;
+
+import org.esa.snap.core.datamodel.ProductData;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects {@link BandStatistics} per band from concurrent tile computations.
+ * <p>
+ * Each thread updates its own summaries without locking; {@link #getStatistics()} merges them.
+ * An operator can hold a collector, feed it the tiles it already reads in computeTile and
+ * report the merged statistics in dispose as a side product of its normal output.
+ */
+public final class StatisticsCollector {
+
+    private final int quantileK;
+    private final int histogramSubBinBits;
+
+    private final Queue<Map<String, BandStatistics>> partials = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Map<String, BandStatistics>> local = ThreadLocal.withInitial(() -> {
+        final Map<String, BandStatistics> map = new HashMap<>();
+        partials.add(map);
+        return map;
+    });
+
+    public StatisticsCollector() {
+        this(KLLSketch.DEFAULT_K, LogHistogram.DEFAULT_SUB_BIN_BITS);
+    }
+
+    public StatisticsCollector(final int quantileK, final int histogramSubBinBits) {
+        this.quantileK = quantileK;
+        this.histogramSubBinBits = histogramSubBinBits;
+    }
+
+    /**
+     * @return the calling thread's summary for the band
+     */
+    public BandStatistics get(final String bandName) {
+        return local.get().computeIfAbsent(bandName, k -> new BandStatistics(quantileK, histogramSubBinBits));
+    }
+
+    public void update(final String bandName, final ProductData samples) {
+        get(bandName).update(samples);
+    }
+
+    /**
+     * Merges the summaries of all threads. Call once the tiles feeding the collector are computed.
+     *
+     * @return merged statistics by band name
+     */
+    public Map<String, BandStatistics> getStatistics() {
+        final Map<String, BandStatistics> merged = new TreeMap<>();
+        for (Map<String, BandStatistics> partial : partials) {
+            for (Map.Entry<String, BandStatistics> entry : partial.entrySet()) {
+                merged.computeIfAbsent(entry.getKey(), k -> new BandStatistics(quantileK, histogramSubBinBits))
+                        .merge(entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    public boolean isEmpty() {
+        for (Map<String, BandStatistics> partial : partials) {
+            if (!partial.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
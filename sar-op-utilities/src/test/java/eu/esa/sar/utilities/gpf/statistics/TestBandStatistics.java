@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2026 by SkyWatch Space Applications Inc. http://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.utilities.gpf.statistics;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link BandStatistics}.
+ */
+public class TestBandStatistics {
+
+    private static double[] createSpeckle(final int n, final long seed) {
+        // single look intensity: exponential distribution with mean 1
+        final Random random = new Random(seed);
+        final double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = -Math.log(1.0 - random.nextDouble());
+        }
+        return values;
+    }
+
+    private static double rankOf(final double[] sorted, final double value) {
+        int idx = Arrays.binarySearch(sorted, value);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        return (double) idx / sorted.length;
+    }
+
+    @Test
+    public void testMomentsMatchDirectComputation() {
+        final BandStatistics stats = new BandStatistics();
+        for (int i = 1; i <= 16; i++) {
+            stats.update(i);
+        }
+        stats.update(Double.NaN);
+
+        assertEquals(16, stats.getCount());
+        assertEquals(0, Double.compare(stats.getMin(), 1.0));
+        assertEquals(0, Double.compare(stats.getMax(), 16.0));
+        assertEquals(0, Double.compare(stats.getMean(), 8.5));
+        assertEquals(0, Double.compare(stats.getStdDev(), 4.6097722286464435));
+        assertEquals(0, Double.compare(stats.getCoefficientOfVariation(), 0.8621574728675674));
+        assertEquals(0, Double.compare(stats.getENL(), 1.3453237410071943));
+    }
+
+    @Test
+    public void testMergeOfPartsEqualsWhole() {
+        final double[] values = createSpeckle(100000, 1L);
+
+        final BandStatistics whole = new BandStatistics();
+        whole.update(values, 0, values.length);
+
+        final BandStatistics merged = new BandStatistics();
+        final int[] cuts = {0, 1, 517, 20000, 20001, 63000, values.length};
+        for (int i = cuts.length - 2; i >= 0; i--) {
+            final BandStatistics part = new BandStatistics();
+            part.update(values, cuts[i], cuts[i + 1] - cuts[i]);
+            merged.merge(part);
+        }
+
+        assertEquals(whole.getCount(), merged.getCount());
+        assertEquals(whole.getMin(), merged.getMin(), 0);
+        assertEquals(whole.getMax(), merged.getMax(), 0);
+        assertEquals(whole.getMean(), merged.getMean(), 1e-12);
+        assertEquals(whole.getStdDev(), merged.getStdDev(), 1e-12);
+        assertEquals(whole.getENL(), merged.getENL(), 1e-9);
+
+        final List<LogHistogram.Bin> a = whole.getHistogram();
+        final List<LogHistogram.Bin> b = merged.getHistogram();
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).lower, b.get(i).lower, 0);
+            assertEquals(a.get(i).count, b.get(i).count);
+        }
+
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            assertEquals(q, rankOf(sorted, merged.getQuantile(q)), 0.015);
+        }
+    }
+
+    @Test
+    public void testQuantileAccuracy() {
+        final double[] values = createSpeckle(200000, 7L);
+        final KLLSketch sketch = new KLLSketch();
+        for (double v : values) {
+            sketch.update(v);
+        }
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (int i = 1; i < 100; i++) {
+            final double q = i / 100.0;
+            assertEquals(q, rankOf(sorted, sketch.getQuantile(q)), 0.015);
+        }
+        assertEquals(sorted[0], sketch.getQuantile(0), 0);
+        assertEquals(sorted[sorted.length - 1], sketch.getQuantile(1), 0);
+        // the exact median of exponential(1) is ln 2
+        assertEquals(Math.log(2), sketch.getQuantile(0.5), 0.02);
+    }
+
+    @Test
+    public void testHistogramBinsContainSamples() {
+        final LogHistogram histogram = new LogHistogram(4);
+        final double[] values = {-3.5, -0.001, 0, 0, 1e-6, 0.75, 1, 1.03, 250, 1e12};
+        for (double v : values) {
+            histogram.update(v);
+        }
+        histogram.update(Double.NaN);
+        assertEquals(values.length, histogram.getCount());
+
+        long total = 0;
+        double previousUpper = Double.NEGATIVE_INFINITY;
+        for (LogHistogram.Bin bin : histogram.getBins()) {
+            assertTrue(bin.lower >= previousUpper);
+            assertTrue(bin.upper - bin.lower <= Math.abs(bin.lower) / 16 + 1e-300);
+            previousUpper = bin.upper;
+            total += bin.count;
+        }
+        assertEquals(values.length, total);
+        for (double v : values) {
+            boolean found = false;
+            for (LogHistogram.Bin bin : histogram.getBins()) {
+                if (v == 0) {
+                    found |= bin.lower == 0 && bin.upper == 0;
+                } else if (v < 0) {
+                    found |= v > bin.lower && v <= bin.upper;
+                } else {
+                    found |= v >= bin.lower && v < bin.upper;
+                }
+            }
+            assertTrue(Double.toString(v), found);
+        }
+    }
+
+    @Test
+    public void testSerializationRoundTrip() throws Exception {
+        final BandStatistics stats = new BandStatistics();
+        stats.update(createSpeckle(5000, 3L), 0, 5000);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        stats.write(new DataOutputStream(bytes));
+        final BandStatistics copy = BandStatistics.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(stats.getCount(), copy.getCount());
+        assertEquals(stats.getMean(), copy.getMean(), 0);
+        assertEquals(stats.getENL(), copy.getENL(), 0);
+        assertEquals(stats.getHistogram().size(), copy.getHistogram().size());
+        for (double q : new double[]{0.05, 0.5, 0.95}) {
+            assertEquals(stats.getQuantile(q), copy.getQuantile(q), 0);
+        }
+
+        // merging a restored summary behaves like merging the original
+        final BandStatistics a = new BandStatistics();
+        a.merge(stats);
+        final BandStatistics b = new BandStatistics();
+        b.merge(copy);
+        assertEquals(a.getQuantile(0.3), b.getQuantile(0.3), 0);
+    }
+
+    @Test
+    public void testCollectorMergesThreads() throws Exception {
+        final StatisticsCollector collector = new StatisticsCollector();
+        final double[] values = createSpeckle(40000, 11L);
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 10000;
+            threads[t] = new Thread(() -> collector.get("band").update(values, offset, 10000));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final BandStatistics whole = new BandStatistics();
+        whole.update(values, 0, values.length);
+        final BandStatistics merged = collector.getStatistics().get("band");
+        assertEquals(whole.getCount(), merged.getCount());
+        assertEquals(whole.getMean(), merged.getMean(), 1e-12);
+        assertEquals(whole.getMax(), merged.getMax(), 0);
+    }
+}